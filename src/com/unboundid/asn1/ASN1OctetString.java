@@ -22,6 +22,9 @@ package com.unboundid.asn1;
 
 
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import com.unboundid.util.ByteString;
 import com.unboundid.util.ByteStringBuffer;
 import com.unboundid.util.Debug;
@@ -330,7 +333,12 @@ public final class ASN1OctetString
   @Override()
   public int getValueLength()
   {
-    return getValue().length;
+    if (valueBytes == null)
+    {
+      return getValue().length;
+    }
+
+    return length;
   }
 
 
@@ -362,6 +370,31 @@ public final class ASN1OctetString
 
 
 
+  /**
+   * Writes the value of this element to the provided output stream.  If the
+   * value is held in a portion of a larger array, then it will be written
+   * directly from that array rather than being copied into a new one.
+   *
+   * @param  outputStream  The output stream to which the value should be
+   *                       written.
+   *
+   * @throws  IOException  If a problem occurs while writing the value.
+   */
+  void writeValueTo(final OutputStream outputStream)
+       throws IOException
+  {
+    if (valueBytes == null)
+    {
+      outputStream.write(getValue());
+    }
+    else
+    {
+      outputStream.write(valueBytes, offset, length);
+    }
+  }
+
+
+
   /**
    * {@inheritDoc}
    */
@@ -29,6 +29,7 @@ import java.io.InputStream;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.net.SocketTimeoutException;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.logging.Level;
 import javax.security.sasl.SaslClient;
@@ -57,6 +58,44 @@ import static com.unboundid.asn1.ASN1Messages.*;
 public final class ASN1StreamReader
        implements Closeable
 {
+  /**
+   * The initial size of the buffer into which values will be read when they
+   * don't need to be retained.
+   */
+  private static final int INITIAL_RECEIVE_BUFFER_SIZE = 256;
+
+
+
+  /**
+   * The largest receive buffer that will be retained.  Values larger than this
+   * will be read into a newly-allocated array.
+   */
+  private static final int MAX_RECEIVE_BUFFER_SIZE = 65_536;
+
+
+
+  /**
+   * The number of slots in the cache of recently-read string values.  This
+   * must be a power of two.
+   */
+  private static final int STRING_CACHE_SIZE = 128;
+
+
+
+  /**
+   * The length of the longest value that will be held in the string cache.
+   */
+  private static final int MAX_CACHED_STRING_LENGTH = 128;
+
+
+
+  // The encoded representations of the values held in the string cache.
+  private final byte[][] cachedStringBytes;
+
+  // The buffer into which values will be read when they don't need to be
+  // retained.  Its contents are only valid until the next read.
+  private byte[] receiveBuffer;
+
   // Indicates whether socket timeout exceptions should be ignored for the
   // initial read of an element.
   private boolean ignoreInitialSocketTimeout;
@@ -82,6 +121,9 @@ public final class ASN1StreamReader
   // stream reader.
   private volatile SaslClient saslClient;
 
+  // The string values held in the string cache.
+  private final String[] cachedStrings;
+
 
 
   /**
@@ -141,6 +183,9 @@ public final class ASN1StreamReader
     ignoreSubsequentSocketTimeout = false;
     saslClient                    = null;
     saslInputStream               = null;
+    receiveBuffer                 = null;
+    cachedStrings                 = new String[STRING_CACHE_SIZE];
+    cachedStringBytes             = new byte[STRING_CACHE_SIZE][];
   }
 
 
@@ -493,22 +538,9 @@ public final class ASN1StreamReader
 
     final int length = readLength();
 
-    int valueBytesRead = 0;
-    int bytesRemaining = length;
     final byte[] value = new byte[length];
-    while (valueBytesRead < length)
-    {
-      final int bytesRead = read(value, valueBytesRead, bytesRemaining);
-      if (bytesRead < 0)
-      {
-        throw new IOException(ERR_READ_END_BEFORE_VALUE_END.get());
-      }
-
-      valueBytesRead += bytesRead;
-      bytesRemaining -= bytesRead;
-    }
+    readValue(value, length);
 
-    totalBytesRead += length;
     final ASN1Element e = new ASN1Element((byte) type, value);
     Debug.debugASN1Read(e);
     return e;
@@ -623,24 +655,8 @@ public final class ASN1StreamReader
 
     final int length = readLength();
 
-    int valueBytesRead = 0;
-    int bytesRemaining = length;
-    final byte[] value = new byte[length];
-    while (valueBytesRead < length)
-    {
-      final int bytesRead = read(value, valueBytesRead, bytesRemaining);
-      if (bytesRead < 0)
-      {
-        throw new IOException(ERR_READ_END_BEFORE_VALUE_END.get());
-      }
-
-      valueBytesRead += bytesRead;
-      bytesRemaining -= bytesRead;
-    }
-
-    totalBytesRead += length;
-
-    final String timestamp = StaticUtils.toUTF8String(value);
+    final byte[] value = readValueIntoReceiveBuffer(length);
+    final String timestamp = StaticUtils.toUTF8String(value, 0, length);
     final Date date =
          new Date(ASN1GeneralizedTime.decodeTimestamp(timestamp));
     Debug.debugASN1Read(Level.INFO, "GeneralizedTime", type, length, timestamp);
@@ -928,22 +944,9 @@ public final class ASN1StreamReader
 
     final int length = readLength();
 
-    int valueBytesRead = 0;
-    int bytesRemaining = length;
     final byte[] value = new byte[length];
-    while (valueBytesRead < length)
-    {
-      final int bytesRead = read(value, valueBytesRead, bytesRemaining);
-      if (bytesRead < 0)
-      {
-        throw new IOException(ERR_READ_END_BEFORE_VALUE_END.get());
-      }
+    readValue(value, length);
 
-      valueBytesRead += bytesRead;
-      bytesRemaining -= bytesRead;
-    }
-
-    totalBytesRead += length;
     Debug.debugASN1Read(Level.INFO, "byte[]", type, length, value);
     return value;
   }
@@ -976,12 +979,188 @@ public final class ASN1StreamReader
 
     final int length = readLength();
 
+    // The value will only be retained as a string, so there's no need to
+    // allocate an array to hold its bytes.
+    final String s;
+    if (length == 0)
+    {
+      s = "";
+    }
+    else
+    {
+      final byte[] value = readValueIntoReceiveBuffer(length);
+      s = StaticUtils.toUTF8String(value, 0, length);
+    }
+
+    Debug.debugASN1Read(Level.INFO, "String", type, length, s);
+    return s;
+  }
+
+
+
+  /**
+   * Reads an ASN.1 octet string element from the input stream and returns the
+   * value as a {@code String} using the UTF-8 encoding.  This method is
+   * equivalent to {@link #readString}, except that it keeps a small cache of
+   * recently-read values, and if the value read is in that cache, then the
+   * cached {@code String} will be returned without allocating any memory.
+   * It is intended for values that are likely to be repeated many times over
+   * the life of the reader, like attribute names and control OIDs.
+   *
+   * @return  The {@code String} value of the ASN.1 octet string element read,
+   *          or {@code null} if the end of the input stream was reached before
+   *          any data could be read.  If {@code null} is returned, then the
+   *          input stream will have been closed.
+   *
+   * @throws  IOException  If a problem occurs while reading from the input
+   *                       stream, if the end of the input stream is reached in
+   *                       the middle of the element, or or if an attempt is
+   *                       made to read an element larger than the maximum
+   *                       allowed size.
+   */
+  public String readCachedString()
+         throws IOException
+  {
+    final int type = readType();
+    if (type < 0)
+    {
+      return null;
+    }
+
+    final int length = readLength();
+
+    final String s;
+    if (length == 0)
+    {
+      s = "";
+    }
+    else
+    {
+      final byte[] value = readValueIntoReceiveBuffer(length);
+      if (length > MAX_CACHED_STRING_LENGTH)
+      {
+        s = StaticUtils.toUTF8String(value, 0, length);
+      }
+      else
+      {
+        int hashCode = 1;
+        for (int i=0; i < length; i++)
+        {
+          hashCode = (31 * hashCode) + value[i];
+        }
+
+        final int slot = (hashCode ^ (hashCode >>> 16)) &
+             (STRING_CACHE_SIZE - 1);
+        final byte[] cachedBytes = cachedStringBytes[slot];
+        if ((cachedBytes != null) && (cachedBytes.length == length) &&
+            valueEquals(value, cachedBytes))
+        {
+          s = cachedStrings[slot];
+        }
+        else
+        {
+          final byte[] valueCopy = Arrays.copyOf(value, length);
+          s = StaticUtils.toUTF8String(valueCopy);
+          cachedStringBytes[slot] = valueCopy;
+          cachedStrings[slot] = s;
+        }
+      }
+    }
+
+    Debug.debugASN1Read(Level.INFO, "String", type, length, s);
+    return s;
+  }
+
+
+
+  /**
+   * Indicates whether the first {@code b2.length} bytes of the first array are
+   * equal to the bytes of the second array.
+   *
+   * @param  b1  The first array.  It must be at least as long as the second.
+   * @param  b2  The second array.
+   *
+   * @return  {@code true} if the arrays are equal for the length of the second
+   *          array, or {@code false} if not.
+   */
+  private static boolean valueEquals(final byte[] b1, final byte[] b2)
+  {
+    for (int i=0; i < b2.length; i++)
+    {
+      if (b1[i] != b2[i])
+      {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+
+
+  /**
+   * Reads a value of the specified length into the receive buffer, which will
+   * be grown if necessary.  If the value is larger than the maximum size of
+   * the receive buffer, then it will be read into a newly-allocated array.  In
+   * either case, the value will start at offset zero of the returned array,
+   * and the array must not be used after the next read from this reader.
+   *
+   * @param  length  The length of the value to read.
+   *
+   * @return  The array containing the value that was read.
+   *
+   * @throws  IOException  If a problem occurs while reading the value.
+   */
+  private byte[] readValueIntoReceiveBuffer(final int length)
+          throws IOException
+  {
+    final byte[] buffer;
+    if (length > MAX_RECEIVE_BUFFER_SIZE)
+    {
+      buffer = new byte[length];
+    }
+    else
+    {
+      if ((receiveBuffer == null) || (receiveBuffer.length < length))
+      {
+        int newSize = INITIAL_RECEIVE_BUFFER_SIZE;
+        while (newSize < length)
+        {
+          newSize <<= 1;
+        }
+
+        receiveBuffer = new byte[newSize];
+      }
+
+      buffer = receiveBuffer;
+    }
+
+    readValue(buffer, length);
+    return buffer;
+  }
+
+
+
+  /**
+   * Reads a value of the specified length into the provided array, starting
+   * at offset zero.
+   *
+   * @param  buffer  The array into which the value should be read.  It must
+   *                 be at least {@code length} bytes long.
+   * @param  length  The length of the value to read.
+   *
+   * @throws  IOException  If a problem occurs while reading the value, or if
+   *                       the end of the input stream is reached before the
+   *                       entire value has been read.
+   */
+  private void readValue(final byte[] buffer, final int length)
+          throws IOException
+  {
     int valueBytesRead = 0;
     int bytesRemaining = length;
-    final byte[] value = new byte[length];
     while (valueBytesRead < length)
     {
-      final int bytesRead = read(value, valueBytesRead, bytesRemaining);
+      final int bytesRead = read(buffer, valueBytesRead, bytesRemaining);
       if (bytesRead < 0)
       {
         throw new IOException(ERR_READ_END_BEFORE_VALUE_END.get());
@@ -992,10 +1171,6 @@ public final class ASN1StreamReader
     }
 
     totalBytesRead += length;
-
-    final String s = StaticUtils.toUTF8String(value);
-    Debug.debugASN1Read(Level.INFO, "String", type, length, s);
-    return s;
   }
 
 
@@ -1029,24 +1204,8 @@ public final class ASN1StreamReader
 
     final int length = readLength();
 
-    int valueBytesRead = 0;
-    int bytesRemaining = length;
-    final byte[] value = new byte[length];
-    while (valueBytesRead < length)
-    {
-      final int bytesRead = read(value, valueBytesRead, bytesRemaining);
-      if (bytesRead < 0)
-      {
-        throw new IOException(ERR_READ_END_BEFORE_VALUE_END.get());
-      }
-
-      valueBytesRead += bytesRead;
-      bytesRemaining -= bytesRead;
-    }
-
-    totalBytesRead += length;
-
-    final String timestamp = StaticUtils.toUTF8String(value);
+    final byte[] value = readValueIntoReceiveBuffer(length);
+    final String timestamp = StaticUtils.toUTF8String(value, 0, length);
     final Date date = new Date(ASN1UTCTime.decodeTimestamp(timestamp));
     Debug.debugASN1Read(Level.INFO, "UTCTime", type, length, timestamp);
     return date;
@@ -26,12 +26,15 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import com.unboundid.util.ByteStringBuffer;
 import com.unboundid.util.Debug;
 import com.unboundid.util.ThreadSafety;
 import com.unboundid.util.ThreadSafetyLevel;
 
+import static com.unboundid.asn1.ASN1Messages.*;
+
 
 
 /**
@@ -107,6 +110,196 @@ public final class ASN1Writer
 
 
 
+  /**
+   * Writes an encoded representation of the provided ASN.1 element to the
+   * given output stream without first encoding the entire element into a
+   * buffer.  The lengths of all sequences and sets contained in the element
+   * are computed up front, and then the element is written piece by piece,
+   * with the value of each primitive element written directly from the array
+   * that already holds it.  This makes it possible to write very large
+   * elements (like requests with multi-megabyte attribute values) without
+   * creating a second, encoded copy of them in memory.  The encoding will be
+   * the same as that generated by the {@link ASN1Element#encode} method.
+   * <BR><BR>
+   * Note that this method does not reduce the memory needed to hold the
+   * element itself.  The values of all of the primitive elements that it
+   * contains must already be held in memory, and there is no support for
+   * reading them from another source (like an input stream or a file) as they
+   * are written.
+   *
+   * @param  element       The ASN.1 element to be written.
+   * @param  outputStream  The output stream to which the encoded representation
+   *                       of the element should be written.  Because the
+   *                       element will be written in many small pieces, this
+   *                       should generally be a buffered output stream.
+   *
+   * @throws  IOException  If a problem occurs while writing the element.
+   */
+  public static void streamElement(final ASN1Element element,
+                                   final OutputStream outputStream)
+         throws IOException
+  {
+    Debug.debugASN1Write(element);
+
+    final LengthList lengths = new LengthList();
+    final long valueLength = computeValueLength(element, lengths);
+    if (valueLength > Integer.MAX_VALUE)
+    {
+      throw new IOException(ERR_STREAM_ELEMENT_TOO_LARGE.get(valueLength));
+    }
+
+    streamElement(element, outputStream, lengths);
+  }
+
+
+
+  /**
+   * Computes the length of the value of the provided element.  If the element
+   * is a sequence or set, then its length will be computed from the lengths
+   * of the elements it contains (without encoding them), and will be recorded
+   * in the provided list in the order in which the element will be written.
+   *
+   * @param  element  The element for which to compute the value length.
+   * @param  lengths  The list to which the value lengths of sequences and sets
+   *                  should be added.
+   *
+   * @return  The length of the value of the provided element.
+   */
+  private static long computeValueLength(final ASN1Element element,
+                                         final LengthList lengths)
+  {
+    final ASN1Element[] elements;
+    if (element instanceof ASN1Sequence)
+    {
+      elements = ((ASN1Sequence) element).elements();
+    }
+    else if (element instanceof ASN1Set)
+    {
+      elements = ((ASN1Set) element).elements();
+    }
+    else
+    {
+      return element.getValueLength();
+    }
+
+    final int index = lengths.add(0);
+
+    long valueLength = 0L;
+    for (final ASN1Element e : elements)
+    {
+      final long elementValueLength = computeValueLength(e, lengths);
+      if (elementValueLength > Integer.MAX_VALUE)
+      {
+        return elementValueLength;
+      }
+
+      valueLength += 1L + getLengthSize((int) elementValueLength) +
+           elementValueLength;
+    }
+
+    if (valueLength <= Integer.MAX_VALUE)
+    {
+      lengths.set(index, (int) valueLength);
+    }
+
+    return valueLength;
+  }
+
+
+
+  /**
+   * Writes the provided element to the given output stream using the
+   * pre-computed lengths.
+   *
+   * @param  element       The element to be written.
+   * @param  outputStream  The output stream to which the element should be
+   *                       written.
+   * @param  lengths       The pre-computed lengths of the sequences and sets
+   *                       that will be written.
+   *
+   * @throws  IOException  If a problem occurs while writing the element.
+   */
+  private static void streamElement(final ASN1Element element,
+                                    final OutputStream outputStream,
+                                    final LengthList lengths)
+          throws IOException
+  {
+    final ASN1Element[] elements;
+    if (element instanceof ASN1Sequence)
+    {
+      elements = ((ASN1Sequence) element).elements();
+    }
+    else if (element instanceof ASN1Set)
+    {
+      elements = ((ASN1Set) element).elements();
+    }
+    else if (element instanceof ASN1OctetString)
+    {
+      // Octet strings (which hold the attribute values in add and modify
+      // requests) may hold their values in a portion of a larger array, and
+      // should be written from that array without being copied.
+      final ASN1OctetString s = (ASN1OctetString) element;
+      outputStream.write(s.getType());
+      outputStream.write(ASN1Element.encodeLength(s.getValueLength()));
+      s.writeValueTo(outputStream);
+      return;
+    }
+    else
+    {
+      final int valueLength = element.getValueLength();
+      outputStream.write(element.getType());
+      outputStream.write(ASN1Element.encodeLength(valueLength));
+      if (valueLength > 0)
+      {
+        outputStream.write(element.getValueArray(), element.getValueOffset(),
+             valueLength);
+      }
+      return;
+    }
+
+    outputStream.write(element.getType());
+    outputStream.write(ASN1Element.encodeLength(lengths.next()));
+    for (final ASN1Element e : elements)
+    {
+      streamElement(e, outputStream, lengths);
+    }
+  }
+
+
+
+  /**
+   * Retrieves the number of bytes needed to encode the provided length.
+   *
+   * @param  length  The length for which to make the determination.
+   *
+   * @return  The number of bytes needed to encode the provided length.
+   */
+  private static int getLengthSize(final int length)
+  {
+    if ((length & 0x7F) == length)
+    {
+      return 1;
+    }
+    else if ((length & 0xFF) == length)
+    {
+      return 2;
+    }
+    else if ((length & 0xFFFF) == length)
+    {
+      return 3;
+    }
+    else if ((length & 0x00FF_FFFF) == length)
+    {
+      return 4;
+    }
+    else
+    {
+      return 5;
+    }
+  }
+
+
+
   /**
    * Appends an encoded representation of the provided ASN.1 element to the
    * given byte buffer.  When this method completes, the position will be at the
@@ -155,4 +348,79 @@ public final class ASN1Writer
       b.clear();
     }
   }
+
+
+
+  /**
+   * This class provides a simple growable list of lengths that will be
+   * retrieved in the same order in which they were added.
+   */
+  private static final class LengthList
+  {
+    // The lengths contained in this list.
+    private int[] lengths;
+
+    // The position of the next length to retrieve.
+    private int nextPosition;
+
+    // The number of lengths contained in this list.
+    private int size;
+
+
+
+    /**
+     * Creates a new empty length list.
+     */
+    private LengthList()
+    {
+      lengths = new int[16];
+      nextPosition = 0;
+      size = 0;
+    }
+
+
+
+    /**
+     * Adds the provided length to the end of this list.
+     *
+     * @param  length  The length to add.
+     *
+     * @return  The index of the length in this list.
+     */
+    private int add(final int length)
+    {
+      if (size == lengths.length)
+      {
+        lengths = Arrays.copyOf(lengths, (size * 2));
+      }
+
+      lengths[size] = length;
+      return size++;
+    }
+
+
+
+    /**
+     * Replaces the length at the specified index.
+     *
+     * @param  index   The index of the length to replace.
+     * @param  length  The new length to use.
+     */
+    private void set(final int index, final int length)
+    {
+      lengths[index] = length;
+    }
+
+
+
+    /**
+     * Retrieves the next length from this list.
+     *
+     * @return  The next length from this list.
+     */
+    private int next()
+    {
+      return lengths[nextPosition++];
+    }
+  }
 }
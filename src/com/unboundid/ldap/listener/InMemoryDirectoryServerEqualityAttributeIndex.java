@@ -22,11 +22,7 @@ package com.unboundid.ldap.listener;
 
 
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 
 import com.unboundid.asn1.ASN1OctetString;
 import com.unboundid.ldap.matchingrules.MatchingRule;
@@ -37,9 +33,7 @@ import com.unboundid.ldap.sdk.LDAPException;
 import com.unboundid.ldap.sdk.ResultCode;
 import com.unboundid.ldap.sdk.schema.AttributeTypeDefinition;
 import com.unboundid.ldap.sdk.schema.Schema;
-import com.unboundid.util.InternalUseOnly;
 import com.unboundid.util.Mutable;
-import com.unboundid.util.StaticUtils;
 import com.unboundid.util.ThreadSafety;
 import com.unboundid.util.ThreadSafetyLevel;
 
@@ -49,18 +43,17 @@ import static com.unboundid.ldap.listener.ListenerMessages.*;
 
 /**
  * This class provides a data structure for maintaining an equality index for a
- * specified attribute.
+ * specified attribute.  It maps normalized values to the DNs of the entries
+ * that have those values.
  */
 @Mutable()
 @ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
 final class InMemoryDirectoryServerEqualityAttributeIndex
+      extends InMemoryDirectoryServerIndex<ASN1OctetString>
 {
   // The attribute type with which this index is associated.
   private final AttributeTypeDefinition attributeType;
 
-  // A map from normalized values to the DNs of entries with those values.
-  private final Map<ASN1OctetString,TreeSet<DN>> indexMap;
-
   // The matching rule used to normalize values.
   private final MatchingRule matchingRule;
 
@@ -85,6 +78,8 @@ final class InMemoryDirectoryServerEqualityAttributeIndex
                                                 final Schema schema)
        throws LDAPException
   {
+    super(new ValueComparator());
+
     this.schema = schema;
     if (schema == null)
     {
@@ -101,8 +96,6 @@ final class InMemoryDirectoryServerEqualityAttributeIndex
 
     matchingRule = MatchingRule.selectEqualityMatchingRule(attributeType,
          schema);
-
-    indexMap = new HashMap<>(StaticUtils.computeMapCapacity(100));
   }
 
 
@@ -119,37 +112,6 @@ final class InMemoryDirectoryServerEqualityAttributeIndex
 
 
 
-  /**
-   * Clears all index data for the associated attribute.
-   */
-  synchronized void clear()
-  {
-    indexMap.clear();
-  }
-
-
-
-  /**
-   * Obtains a copy of the internal map used by this index.  This is only
-   * intended for internal use for testing purposes.
-   *
-   * @return  A copy of the internal map used by this index.
-   */
-  @InternalUseOnly()
-  synchronized Map<ASN1OctetString,TreeSet<DN>> copyMap()
-  {
-    final HashMap<ASN1OctetString,TreeSet<DN>> m =
-         new HashMap<>(StaticUtils.computeMapCapacity(indexMap.size()));
-    for (final Map.Entry<ASN1OctetString,TreeSet<DN>> e : indexMap.entrySet())
-    {
-      m.put(e.getKey(), new TreeSet<>(e.getValue()));
-    }
-
-    return Collections.unmodifiableMap(m);
-  }
-
-
-
   /**
    * Retrieves the DNs of the entries that have the specified value for the
    * associated attribute.
@@ -166,15 +128,7 @@ final class InMemoryDirectoryServerEqualityAttributeIndex
   synchronized Set<DN> getMatchingEntries(final ASN1OctetString value)
                throws LDAPException
   {
-    final TreeSet<DN> dnSet = indexMap.get(matchingRule.normalize(value));
-    if (dnSet == null)
-    {
-      return Collections.emptySet();
-    }
-    else
-    {
-      return Collections.unmodifiableSet(dnSet);
-    }
+    return getDNs(matchingRule.normalize(value));
   }
 
 
@@ -188,6 +142,7 @@ final class InMemoryDirectoryServerEqualityAttributeIndex
    *                         one or more values that are not acceptable for the
    *                         associated attribute type).
    */
+  @Override()
   synchronized void processAdd(final Entry entry)
                throws LDAPException
   {
@@ -207,13 +162,7 @@ final class InMemoryDirectoryServerEqualityAttributeIndex
 
       for (final ASN1OctetString v : normalizedValues)
       {
-        TreeSet<DN> dnSet = indexMap.get(v);
-        if (dnSet == null)
-        {
-          dnSet = new TreeSet<>();
-          indexMap.put(v, dnSet);
-        }
-        dnSet.add(dn);
+        addDN(v, dn);
       }
     }
   }
@@ -229,6 +178,7 @@ final class InMemoryDirectoryServerEqualityAttributeIndex
    *                         one or more values that are not acceptable for the
    *                         associated attribute type).
    */
+  @Override()
   synchronized void processDelete(final Entry entry)
                throws LDAPException
   {
@@ -248,15 +198,7 @@ final class InMemoryDirectoryServerEqualityAttributeIndex
 
       for (final ASN1OctetString v : normalizedValues)
       {
-        final TreeSet<DN> dnSet = indexMap.get(v);
-        if (dnSet != null)
-        {
-          dnSet.remove(dn);
-          if (dnSet.isEmpty())
-          {
-            indexMap.remove(v);
-          }
-        }
+        removeDN(v, dn);
       }
     }
   }
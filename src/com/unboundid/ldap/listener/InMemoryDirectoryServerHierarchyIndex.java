@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.listener;
+
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.util.Mutable;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+
+
+
+/**
+ * This class provides a data structure for maintaining a hierarchy index, which
+ * maps the DN of each parent entry to the DNs of its immediate children.  It
+ * makes it possible to find the entries within a given scope without examining
+ * every entry in the server.
+ */
+@Mutable()
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+final class InMemoryDirectoryServerHierarchyIndex
+      extends InMemoryDirectoryServerIndex<DN>
+{
+  /**
+   * Creates a new empty hierarchy index.
+   */
+  InMemoryDirectoryServerHierarchyIndex()
+  {
+    super(null);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  void processAdd(final Entry entry)
+       throws LDAPException
+  {
+    final DN dn = entry.getParsedDN();
+    final DN parentDN = dn.getParent();
+    if (parentDN != null)
+    {
+      addDN(parentDN, dn);
+    }
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  void processDelete(final Entry entry)
+       throws LDAPException
+  {
+    final DN dn = entry.getParsedDN();
+    final DN parentDN = dn.getParent();
+    if (parentDN != null)
+    {
+      removeDN(parentDN, dn);
+    }
+  }
+
+
+
+  /**
+   * Retrieves the DNs of the entries within the specified scope of the given
+   * base DN.  The DNs will be listed in hierarchical order, so that each DN
+   * will appear before the DNs of its subordinates.  Only entries that can be
+   * reached from the base DN through a chain of parent entries will be
+   * included, so the base DN should be the DN of an entry held in the server.
+   *
+   * @param  baseDN  The base DN for the entries to retrieve.
+   * @param  scope   The scope for the entries to retrieve.
+   *
+   * @return  The DNs of the entries within the specified scope of the given
+   *          base DN.
+   */
+  List<DN> getDNsInScope(final DN baseDN, final SearchScope scope)
+  {
+    switch (scope.intValue())
+    {
+      case SearchScope.BASE_INT_VALUE:
+        return Collections.singletonList(baseDN);
+
+      case SearchScope.ONE_INT_VALUE:
+        return new ArrayList<>(getDNs(baseDN));
+
+      case SearchScope.SUB_INT_VALUE:
+      case SearchScope.SUBORDINATE_SUBTREE_INT_VALUE:
+        // Use a snapshot of the index so that the subtree does not need to be
+        // traversed while holding the lock.
+        final PersistentTreeMap<DN,PersistentTreeMap<DN,Boolean>> m =
+             snapshot();
+        final ArrayList<DN> dnList = new ArrayList<>(10);
+        if (scope == SearchScope.SUB)
+        {
+          dnList.add(baseDN);
+        }
+        addSubordinates(m, baseDN, dnList);
+        return dnList;
+
+      default:
+        return Collections.emptyList();
+    }
+  }
+
+
+
+  /**
+   * Adds the DNs of all subordinates of the specified entry to the given list,
+   * with each DN listed before the DNs of its own subordinates.
+   *
+   * @param  m       The index content to use.
+   * @param  dn      The DN of the entry whose subordinates should be added.
+   * @param  dnList  The list to which the DNs should be added.
+   */
+  private static void addSubordinates(
+               final PersistentTreeMap<DN,PersistentTreeMap<DN,Boolean>> m,
+               final DN dn, final List<DN> dnList)
+  {
+    final PersistentTreeMap<DN,Boolean> children = m.get(dn);
+    if (children != null)
+    {
+      for (final DN childDN : children.keySet())
+      {
+        dnList.add(childDN);
+        addSubordinates(m, childDN, dnList);
+      }
+    }
+  }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.listener;
+
+
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.util.InternalUseOnly;
+import com.unboundid.util.Mutable;
+import com.unboundid.util.StaticUtils;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+
+
+
+/**
+ * This class provides the basis for the indexes maintained by the in-memory
+ * directory server.  Each index maps a set of keys to the DNs of the entries
+ * associated with those keys.  The index data is held in persistent maps so
+ * that a point-in-time snapshot of the index may be obtained and restored in
+ * constant time.
+ *
+ * @param  <K>  The type of key used in the index.
+ */
+@Mutable()
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+abstract class InMemoryDirectoryServerIndex<K>
+{
+  // A map from keys to the DNs of entries associated with those keys.  The
+  // keys of each DN map are the DNs, and the DN maps are immutable.
+  private final PersistentTreeMap<K,PersistentTreeMap<DN,Boolean>> indexMap;
+
+
+
+  /**
+   * Creates a new empty index.
+   *
+   * @param  comparator  The comparator to use to order keys.  It may be
+   *                     {@code null} if keys should be ordered using their
+   *                     natural ordering.
+   */
+  InMemoryDirectoryServerIndex(final Comparator<? super K> comparator)
+  {
+    indexMap = new PersistentTreeMap<>(comparator);
+  }
+
+
+
+  /**
+   * Performs the necessary processing for adding the given entry.
+   *
+   * @param  entry  The entry to be added.
+   *
+   * @throws  LDAPException  If a problem is encountered while updating the
+   *                         index.
+   */
+  abstract void processAdd(Entry entry)
+           throws LDAPException;
+
+
+
+  /**
+   * Performs the necessary processing for deleting the given entry.
+   *
+   * @param  entry  The entry to be deleted.
+   *
+   * @throws  LDAPException  If a problem is encountered while updating the
+   *                         index.
+   */
+  abstract void processDelete(Entry entry)
+           throws LDAPException;
+
+
+
+  /**
+   * Clears all index data.
+   */
+  final synchronized void clear()
+  {
+    indexMap.clear();
+  }
+
+
+
+  /**
+   * Retrieves an immutable snapshot of the current content of this index.
+   *
+   * @return  An immutable snapshot of the current content of this index.
+   */
+  final synchronized PersistentTreeMap<K,PersistentTreeMap<DN,Boolean>>
+       snapshot()
+  {
+    return indexMap.snapshot();
+  }
+
+
+
+  /**
+   * Replaces the content of this index with the content it had when the
+   * provided server snapshot was created.
+   *
+   * @param  snapshot  The server snapshot to be restored.
+   *
+   * @return  {@code true} if the content of this index was restored, or
+   *          {@code false} if the snapshot does not include content for this
+   *          index and the index will need to be rebuilt.
+   */
+  @SuppressWarnings("unchecked")
+  final synchronized boolean restore(
+             final InMemoryDirectoryServerSnapshot snapshot)
+  {
+    // The snapshot content is keyed by index instance, so it must have been
+    // obtained from this index.
+    final PersistentTreeMap<K,PersistentTreeMap<DN,Boolean>> m =
+         (PersistentTreeMap<K,PersistentTreeMap<DN,Boolean>>)
+         snapshot.getIndexSnapshot(this);
+    if (m == null)
+    {
+      return false;
+    }
+
+    indexMap.restore(m);
+    return true;
+  }
+
+
+
+  /**
+   * Obtains a copy of the internal map used by this index.  This is only
+   * intended for internal use for testing purposes.
+   *
+   * @return  A copy of the internal map used by this index.
+   */
+  @InternalUseOnly()
+  final synchronized Map<K,TreeSet<DN>> copyMap()
+  {
+    final HashMap<K,TreeSet<DN>> m =
+         new HashMap<>(StaticUtils.computeMapCapacity(indexMap.size()));
+    for (final Map.Entry<K,PersistentTreeMap<DN,Boolean>> e :
+         indexMap.entrySet())
+    {
+      m.put(e.getKey(), new TreeSet<>(e.getValue().keySet()));
+    }
+
+    return Collections.unmodifiableMap(m);
+  }
+
+
+
+  /**
+   * Retrieves the DNs of the entries associated with the provided key.
+   *
+   * @param  key  The key for which to retrieve the entry DNs.
+   *
+   * @return  An unmodifiable set containing the DNs of the entries associated
+   *          with the provided key, or an empty set if there are none.
+   */
+  final synchronized Set<DN> getDNs(final K key)
+  {
+    final PersistentTreeMap<DN,Boolean> dnMap = indexMap.get(key);
+    if (dnMap == null)
+    {
+      return Collections.emptySet();
+    }
+    else
+    {
+      return Collections.unmodifiableSet(dnMap.keySet());
+    }
+  }
+
+
+
+  /**
+   * Retrieves the DNs of the entries associated with the keys in the specified
+   * range.
+   *
+   * @param  lowerBound  The smallest key to include.  It may be {@code null}
+   *                     if there should be no lower bound.
+   * @param  upperBound  The largest key to include.  It may be {@code null}
+   *                     if there should be no upper bound.
+   *
+   * @return  A set containing the DNs of the entries associated with the keys
+   *          in the specified range, or an empty set if there are none.
+   */
+  final synchronized Set<DN> getDNsInRange(final K lowerBound,
+                                           final K upperBound)
+  {
+    final TreeSet<DN> dnSet = new TreeSet<>();
+    for (final PersistentTreeMap<DN,Boolean> dnMap :
+         indexMap.valuesInRange(lowerBound, upperBound))
+    {
+      dnSet.addAll(dnMap.keySet());
+    }
+
+    return dnSet;
+  }
+
+
+
+  /**
+   * Associates the provided DN with the given key.
+   *
+   * @param  key  The key with which to associate the DN.
+   * @param  dn   The DN to associate with the key.
+   */
+  final synchronized void addDN(final K key, final DN dn)
+  {
+    final PersistentTreeMap<DN,Boolean> dnMap = indexMap.get(key);
+    if (dnMap == null)
+    {
+      indexMap.put(key,
+           new PersistentTreeMap<DN,Boolean>().with(dn, Boolean.TRUE));
+    }
+    else
+    {
+      indexMap.put(key, dnMap.with(dn, Boolean.TRUE));
+    }
+  }
+
+
+
+  /**
+   * Removes the association between the provided DN and the given key.
+   *
+   * @param  key  The key from which to remove the DN.
+   * @param  dn   The DN to remove.
+   */
+  final synchronized void removeDN(final K key, final DN dn)
+  {
+    final PersistentTreeMap<DN,Boolean> dnMap = indexMap.get(key);
+    if (dnMap != null)
+    {
+      final PersistentTreeMap<DN,Boolean> updatedMap = dnMap.without(dn);
+      if (updatedMap.isEmpty())
+      {
+        indexMap.remove(key);
+      }
+      else if (updatedMap != dnMap)
+      {
+        indexMap.put(key, updatedMap);
+      }
+    }
+  }
+
+
+
+  /**
+   * A comparator that orders normalized values by their bytes.
+   */
+  static final class ValueComparator
+          implements Comparator<ASN1OctetString>
+  {
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public int compare(final ASN1OctetString v1, final ASN1OctetString v2)
+    {
+      final byte[] b1 = v1.getValue();
+      final byte[] b2 = v2.getValue();
+
+      final int length = Math.min(b1.length, b2.length);
+      for (int i=0; i < length; i++)
+      {
+        if (b1[i] != b2[i])
+        {
+          return (b1[i] & 0xFF) - (b2[i] & 0xFF);
+        }
+      }
+
+      return b1.length - b2.length;
+    }
+  }
+}
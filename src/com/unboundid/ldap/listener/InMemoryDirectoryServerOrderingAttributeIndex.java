@@ -0,0 +1,321 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.listener;
+
+
+
+import java.util.Comparator;
+import java.util.Set;
+
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.matchingrules.BooleanMatchingRule;
+import com.unboundid.ldap.matchingrules.CaseIgnoreListMatchingRule;
+import com.unboundid.ldap.matchingrules.DistinguishedNameMatchingRule;
+import com.unboundid.ldap.matchingrules.MatchingRule;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.schema.AttributeTypeDefinition;
+import com.unboundid.ldap.sdk.schema.Schema;
+import com.unboundid.util.Debug;
+import com.unboundid.util.Mutable;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+
+import static com.unboundid.ldap.listener.ListenerMessages.*;
+
+
+
+/**
+ * This class provides a data structure for maintaining an ordering index for a
+ * specified attribute.  It maps normalized values to the DNs of the entries
+ * that have those values, with the values sorted using the ordering matching
+ * rule for the attribute so that the entries with values in a given range can
+ * be found without examining every value.
+ */
+@Mutable()
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+final class InMemoryDirectoryServerOrderingAttributeIndex
+      extends InMemoryDirectoryServerIndex<ASN1OctetString>
+{
+  // The attribute type with which this index is associated.
+  private final AttributeTypeDefinition attributeType;
+
+  // The matching rule used to normalize and order values.
+  private final MatchingRule matchingRule;
+
+  // The schema for the server.
+  private final Schema schema;
+
+
+
+  /**
+   * Creates a new ordering attribute index for the specified attribute type.
+   *
+   * @param  attributeType  The name or OID of the attribute type with which
+   *                        this index is associated.  It must be defined in the
+   *                        schema.
+   * @param  schema         The schema for the server.  It must not be
+   *                        {@code null}.
+   *
+   * @throws  LDAPException  If the specified attribute type is not defined in
+   *                         the schema, or if its values cannot be ordered.
+   */
+  InMemoryDirectoryServerOrderingAttributeIndex(final String attributeType,
+                                                final Schema schema)
+       throws LDAPException
+  {
+    this(attributeType, schema,
+         MatchingRule.selectOrderingMatchingRule(attributeType, schema));
+  }
+
+
+
+  /**
+   * Creates a new ordering attribute index for the specified attribute type
+   * that will use the provided matching rule.
+   *
+   * @param  attributeType  The name or OID of the attribute type with which
+   *                        this index is associated.
+   * @param  schema         The schema for the server.
+   * @param  matchingRule   The matching rule to use to order values.
+   *
+   * @throws  LDAPException  If the specified attribute type is not defined in
+   *                         the schema, or if its values cannot be ordered.
+   */
+  private InMemoryDirectoryServerOrderingAttributeIndex(
+               final String attributeType, final Schema schema,
+               final MatchingRule matchingRule)
+          throws LDAPException
+  {
+    super(new OrderingComparator(matchingRule));
+
+    this.schema = schema;
+    if (schema == null)
+    {
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+           ERR_DS_ORDERING_INDEX_NO_SCHEMA.get(attributeType));
+    }
+
+    this.attributeType = schema.getAttributeType(attributeType);
+    if (this.attributeType == null)
+    {
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+           ERR_DS_ORDERING_INDEX_UNDEFINED_ATTRIBUTE_TYPE.get(attributeType));
+    }
+
+    if ((matchingRule instanceof BooleanMatchingRule) ||
+        (matchingRule instanceof CaseIgnoreListMatchingRule) ||
+        (matchingRule instanceof DistinguishedNameMatchingRule))
+    {
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+           ERR_DS_ORDERING_INDEX_UNSUPPORTED_MATCHING_RULE.get(attributeType));
+    }
+
+    this.matchingRule = matchingRule;
+  }
+
+
+
+  /**
+   * Retrieves the attribute type definition for this index.
+   *
+   * @return  The attribute type definition for this index.
+   */
+  AttributeTypeDefinition getAttributeType()
+  {
+    return attributeType;
+  }
+
+
+
+  /**
+   * Retrieves the DNs of the entries that have at least one value for the
+   * associated attribute within the specified range.
+   *
+   * @param  lowerBound  The smallest value to include, as used in a
+   *                     greater-or-equal filter.  It may be {@code null} if
+   *                     there should be no lower bound.
+   * @param  upperBound  The largest value to include, as used in a
+   *                     less-or-equal filter.  It may be {@code null} if there
+   *                     should be no upper bound.
+   *
+   * @return  A set containing the DNs of the entries that have a value in the
+   *          specified range, or an empty set if there are none.
+   *
+   * @throws  LDAPException  If a problem is encountered while attempting to
+   *                         make the determination (e.g., if either of the
+   *                         bounds is not acceptable for the associated
+   *                         attribute type).
+   */
+  synchronized Set<DN> getMatchingEntries(final ASN1OctetString lowerBound,
+                                          final ASN1OctetString upperBound)
+               throws LDAPException
+  {
+    final ASN1OctetString normalizedLowerBound;
+    if (lowerBound == null)
+    {
+      normalizedLowerBound = null;
+    }
+    else
+    {
+      normalizedLowerBound = matchingRule.normalize(lowerBound);
+    }
+
+    final ASN1OctetString normalizedUpperBound;
+    if (upperBound == null)
+    {
+      normalizedUpperBound = null;
+    }
+    else
+    {
+      normalizedUpperBound = matchingRule.normalize(upperBound);
+    }
+
+    return getDNsInRange(normalizedLowerBound, normalizedUpperBound);
+  }
+
+
+
+  /**
+   * Performs the necessary processing for adding the given entry.
+   *
+   * @param  entry  The entry to be added.
+   *
+   * @throws  LDAPException  If a problem is encountered (e.g., the entry has
+   *                         one or more values that are not acceptable for the
+   *                         associated attribute type).
+   */
+  @Override()
+  synchronized void processAdd(final Entry entry)
+               throws LDAPException
+  {
+    final Attribute a =
+         entry.getAttribute(attributeType.getNameOrOID(), schema);
+    if (a != null)
+    {
+      final DN dn = entry.getParsedDN();
+
+      final ASN1OctetString[] rawValues = a.getRawValues();
+      final ASN1OctetString[] normalizedValues =
+           new ASN1OctetString[rawValues.length];
+      for (int i=0; i < rawValues.length; i++)
+      {
+        normalizedValues[i] = matchingRule.normalize(rawValues[i]);
+      }
+
+      for (final ASN1OctetString v : normalizedValues)
+      {
+        addDN(v, dn);
+      }
+    }
+  }
+
+
+
+  /**
+   * Performs the necessary processing for deleting the given entry.
+   *
+   * @param  entry  The entry to be deleted.
+   *
+   * @throws  LDAPException  If a problem is encountered (e.g., the entry has
+   *                         one or more values that are not acceptable for the
+   *                         associated attribute type).
+   */
+  @Override()
+  synchronized void processDelete(final Entry entry)
+               throws LDAPException
+  {
+    final Attribute a =
+         entry.getAttribute(attributeType.getNameOrOID(), schema);
+    if (a != null)
+    {
+      final DN dn = entry.getParsedDN();
+
+      final ASN1OctetString[] rawValues = a.getRawValues();
+      final ASN1OctetString[] normalizedValues =
+           new ASN1OctetString[rawValues.length];
+      for (int i=0; i < rawValues.length; i++)
+      {
+        normalizedValues[i] = matchingRule.normalize(rawValues[i]);
+      }
+
+      for (final ASN1OctetString v : normalizedValues)
+      {
+        removeDN(v, dn);
+      }
+    }
+  }
+
+
+
+  /**
+   * A comparator that orders normalized values using an ordering matching
+   * rule.
+   */
+  private static final class OrderingComparator
+          implements Comparator<ASN1OctetString>
+  {
+    // The comparator to use if the matching rule cannot compare two values.
+    private final ValueComparator fallbackComparator;
+
+    // The matching rule to use to compare values.
+    private final MatchingRule matchingRule;
+
+
+
+    /**
+     * Creates a new comparator that will use the provided matching rule.
+     *
+     * @param  matchingRule  The matching rule to use to compare values.
+     */
+    private OrderingComparator(final MatchingRule matchingRule)
+    {
+      this.matchingRule = matchingRule;
+
+      fallbackComparator = new ValueComparator();
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public int compare(final ASN1OctetString v1, final ASN1OctetString v2)
+    {
+      try
+      {
+        return matchingRule.compareValues(v1, v2);
+      }
+      catch (final LDAPException le)
+      {
+        Debug.debugException(le);
+
+        // This should never happen, since only values that could be
+        // normalized will be held in the index.
+        return fallbackComparator.compare(v1, v2);
+      }
+    }
+  }
+}
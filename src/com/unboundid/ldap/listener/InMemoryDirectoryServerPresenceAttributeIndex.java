@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.listener;
+
+
+
+import java.util.Set;
+
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.schema.AttributeTypeDefinition;
+import com.unboundid.ldap.sdk.schema.Schema;
+import com.unboundid.util.Mutable;
+import com.unboundid.util.StaticUtils;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+
+import static com.unboundid.ldap.listener.ListenerMessages.*;
+
+
+
+/**
+ * This class provides a data structure for maintaining a presence index for a
+ * specified attribute.  It holds the DNs of all entries that have at least one
+ * value for that attribute, under a single key that is the lowercase OID of the
+ * attribute type.
+ */
+@Mutable()
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+final class InMemoryDirectoryServerPresenceAttributeIndex
+      extends InMemoryDirectoryServerIndex<String>
+{
+  // The attribute type with which this index is associated.
+  private final AttributeTypeDefinition attributeType;
+
+  // The schema for the server.
+  private final Schema schema;
+
+  // The key under which the entry DNs are held.
+  private final String key;
+
+
+
+  /**
+   * Creates a new presence attribute index for the specified attribute type.
+   *
+   * @param  attributeType  The name or OID of the attribute type with which
+   *                        this index is associated.  It must be defined in the
+   *                        schema.
+   * @param  schema         The schema for the server.  It must not be
+   *                        {@code null}.
+   *
+   * @throws  LDAPException  If the specified attribute type is not defined in
+   *                         the schema.
+   */
+  InMemoryDirectoryServerPresenceAttributeIndex(final String attributeType,
+                                                final Schema schema)
+       throws LDAPException
+  {
+    super(null);
+
+    this.schema = schema;
+    if (schema == null)
+    {
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+           ERR_DS_PRESENCE_INDEX_NO_SCHEMA.get(attributeType));
+    }
+
+    this.attributeType = schema.getAttributeType(attributeType);
+    if (this.attributeType == null)
+    {
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+           ERR_DS_PRESENCE_INDEX_UNDEFINED_ATTRIBUTE_TYPE.get(attributeType));
+    }
+
+    key = StaticUtils.toLowerCase(this.attributeType.getOID());
+  }
+
+
+
+  /**
+   * Retrieves the attribute type definition for this index.
+   *
+   * @return  The attribute type definition for this index.
+   */
+  AttributeTypeDefinition getAttributeType()
+  {
+    return attributeType;
+  }
+
+
+
+  /**
+   * Retrieves the DNs of the entries that have at least one value for the
+   * associated attribute.
+   *
+   * @return  A set containing the DNs of the entries that have the associated
+   *          attribute, or an empty set if there are none.
+   */
+  Set<DN> getMatchingEntries()
+  {
+    return getDNs(key);
+  }
+
+
+
+  /**
+   * Performs the necessary processing for adding the given entry.
+   *
+   * @param  entry  The entry to be added.
+   *
+   * @throws  LDAPException  If the DN of the entry cannot be parsed.
+   */
+  @Override()
+  void processAdd(final Entry entry)
+       throws LDAPException
+  {
+    if (entry.hasAttribute(attributeType.getNameOrOID(), schema))
+    {
+      addDN(key, entry.getParsedDN());
+    }
+  }
+
+
+
+  /**
+   * Performs the necessary processing for deleting the given entry.
+   *
+   * @param  entry  The entry to be deleted.
+   *
+   * @throws  LDAPException  If the DN of the entry cannot be parsed.
+   */
+  @Override()
+  void processDelete(final Entry entry)
+       throws LDAPException
+  {
+    if (entry.hasAttribute(attributeType.getNameOrOID(), schema))
+    {
+      removeDN(key, entry.getParsedDN());
+    }
+  }
+}
@@ -25,7 +25,6 @@ package com.unboundid.ldap.listener;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.Map;
-import java.util.TreeMap;
 
 import com.unboundid.ldap.sdk.DN;
 import com.unboundid.ldap.sdk.ReadOnlyEntry;
@@ -41,6 +40,10 @@ import com.unboundid.util.ThreadSafetyLevel;
  * will reflect only data held in the server (including both user data and any
  * changelog information, if that is enabled), but will not alter the settings
  * of the server which are defined through configuration.
+ * <BR><BR>
+ * Snapshots share their data with the server from which they were created, so
+ * creating a snapshot and restoring it in the same server are both
+ * constant-time operations, regardless of the amount of data in the server.
  */
 @NotMutable()
 @ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
@@ -61,7 +64,13 @@ public final class InMemoryDirectoryServerSnapshot
   private final long lastChangeNumber;
 
   // The set of entries held in the server at the time the snapshot was created.
-  private final Map<DN,ReadOnlyEntry> entryMap;
+  private final PersistentTreeMap<DN,ReadOnlyEntry> entryMap;
+
+  // The content of the server's indexes at the time the snapshot was created.
+  // This will not be included in a serialized snapshot, in which case the
+  // indexes will be rebuilt when the snapshot is restored.
+  private final transient Map<InMemoryDirectoryServerIndex<?>,
+       PersistentTreeMap<?,PersistentTreeMap<DN,Boolean>>> indexSnapshots;
 
 
 
@@ -69,22 +78,27 @@ public final class InMemoryDirectoryServerSnapshot
    * Creates a new in-memory directory server snapshot with the provided
    * information.
    *
-   * @param  m                  A map of the entries contained in the server
-   *                            (including changelog entries) at the time the
-   *                            snapshot was created.
+   * @param  m                  An immutable map of the entries contained in
+   *                            the server (including changelog entries) at
+   *                            the time the snapshot was created.
+   * @param  indexSnapshots     A map of the immutable content of the server's
+   *                            indexes at the time the snapshot was created.
    * @param  firstChangeNumber  The first change number value at the time the
    *                            snapshot was created.
    * @param  lastChangeNumber   The last change number value at the time the
    *                            snapshot was created.
    */
-  InMemoryDirectoryServerSnapshot(final Map<DN,ReadOnlyEntry> m,
-                                  final long firstChangeNumber,
-                                  final long lastChangeNumber)
+  InMemoryDirectoryServerSnapshot(
+       final PersistentTreeMap<DN,ReadOnlyEntry> m,
+       final Map<InMemoryDirectoryServerIndex<?>,
+            PersistentTreeMap<?,PersistentTreeMap<DN,Boolean>>> indexSnapshots,
+       final long firstChangeNumber, final long lastChangeNumber)
   {
+    this.indexSnapshots    = indexSnapshots;
     this.firstChangeNumber = firstChangeNumber;
     this.lastChangeNumber  = lastChangeNumber;
 
-    entryMap = Collections.unmodifiableMap(new TreeMap<>(m));
+    entryMap = m.snapshot();
   }
 
 
@@ -99,12 +113,48 @@ public final class InMemoryDirectoryServerSnapshot
    *          time the snapshot was created.
    */
   public Map<DN,ReadOnlyEntry> getEntryMap()
+  {
+    return Collections.unmodifiableMap(entryMap);
+  }
+
+
+
+  /**
+   * Retrieves the immutable map of entries on which this snapshot is based.
+   *
+   * @return  The immutable map of entries on which this snapshot is based.
+   */
+  PersistentTreeMap<DN,ReadOnlyEntry> getPersistentEntryMap()
   {
     return entryMap;
   }
 
 
 
+  /**
+   * Retrieves the content of the provided index at the time this snapshot was
+   * created.
+   *
+   * @param  index  The index for which to retrieve the content.
+   *
+   * @return  The content of the provided index at the time this snapshot was
+   *          created, or {@code null} if it is not available (e.g., because
+   *          the snapshot was created by a different server instance or was
+   *          deserialized).
+   */
+  PersistentTreeMap<?,PersistentTreeMap<DN,Boolean>> getIndexSnapshot(
+       final InMemoryDirectoryServerIndex<?> index)
+  {
+    if (indexSnapshots == null)
+    {
+      return null;
+    }
+
+    return indexSnapshots.get(index);
+  }
+
+
+
   /**
    * Retrieves the first change number for the server at the time the snapshot
    * was created.
@@ -0,0 +1,384 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.listener;
+
+
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.matchingrules.MatchingRule;
+import com.unboundid.ldap.matchingrules.SimpleMatchingRule;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.schema.AttributeTypeDefinition;
+import com.unboundid.ldap.sdk.schema.Schema;
+import com.unboundid.util.Mutable;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+
+import static com.unboundid.ldap.listener.ListenerMessages.*;
+
+
+
+/**
+ * This class provides a data structure for maintaining a substring index for a
+ * specified attribute.  Each normalized value is broken up into a set of keys,
+ * which include every sequence of {@link #SUBSTRING_LENGTH} consecutive bytes
+ * in the value, along with each of the leading and trailing sequences of up to
+ * that many bytes.  The entries that may match a substring assertion can then
+ * be identified by intersecting the sets of DNs for the keys derived from the
+ * components of that assertion.
+ */
+@Mutable()
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+final class InMemoryDirectoryServerSubstringAttributeIndex
+      extends InMemoryDirectoryServerIndex<ASN1OctetString>
+{
+  /**
+   * The number of bytes in each substring key.
+   */
+  static final int SUBSTRING_LENGTH = 3;
+
+
+
+  /**
+   * The prefix that will be used for keys that appear at the beginning of a
+   * normalized value.
+   */
+  private static final byte KEY_TYPE_SUBINITIAL = 0x00;
+
+
+
+  /**
+   * The prefix that will be used for keys that appear anywhere in a normalized
+   * value.
+   */
+  private static final byte KEY_TYPE_SUBANY = 0x01;
+
+
+
+  /**
+   * The prefix that will be used for keys that appear at the end of a
+   * normalized value.
+   */
+  private static final byte KEY_TYPE_SUBFINAL = 0x02;
+
+
+
+  // The attribute type with which this index is associated.
+  private final AttributeTypeDefinition attributeType;
+
+  // The matching rule used to normalize values.
+  private final MatchingRule matchingRule;
+
+  // The schema for the server.
+  private final Schema schema;
+
+
+
+  /**
+   * Creates a new substring attribute index for the specified attribute type.
+   *
+   * @param  attributeType  The name or OID of the attribute type with which
+   *                        this index is associated.  It must be defined in the
+   *                        schema.
+   * @param  schema         The schema for the server.  It must not be
+   *                        {@code null}.
+   *
+   * @throws  LDAPException  If the specified attribute type is not defined in
+   *                         the schema, or if its substring matching rule
+   *                         cannot be used with a substring index.
+   */
+  InMemoryDirectoryServerSubstringAttributeIndex(final String attributeType,
+                                                 final Schema schema)
+       throws LDAPException
+  {
+    super(new ValueComparator());
+
+    this.schema = schema;
+    if (schema == null)
+    {
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+           ERR_DS_SUBSTRING_INDEX_NO_SCHEMA.get(attributeType));
+    }
+
+    this.attributeType = schema.getAttributeType(attributeType);
+    if (this.attributeType == null)
+    {
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+           ERR_DS_SUBSTRING_INDEX_UNDEFINED_ATTRIBUTE_TYPE.get(attributeType));
+    }
+
+    // The keys are derived from the normalized bytes of each value, so the
+    // index can only be used with matching rules that perform substring
+    // matching against those bytes.
+    matchingRule = MatchingRule.selectSubstringMatchingRule(attributeType,
+         schema);
+    if (! (matchingRule instanceof SimpleMatchingRule))
+    {
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+           ERR_DS_SUBSTRING_INDEX_UNSUPPORTED_MATCHING_RULE.get(attributeType));
+    }
+  }
+
+
+
+  /**
+   * Retrieves the attribute type definition for this index.
+   *
+   * @return  The attribute type definition for this index.
+   */
+  AttributeTypeDefinition getAttributeType()
+  {
+    return attributeType;
+  }
+
+
+
+  /**
+   * Retrieves the DNs of the entries that may have a value for the associated
+   * attribute that matches the provided substring assertion.  The resulting set
+   * may include entries that do not actually match the assertion, so each
+   * candidate entry must still be checked against the filter.
+   *
+   * @param  subInitial  The subInitial component of the assertion.  It may be
+   *                     {@code null} if there is no subInitial component.
+   * @param  subAny      The subAny components of the assertion.  It may be
+   *                     {@code null} or empty if there are no subAny
+   *                     components.
+   * @param  subFinal    The subFinal component of the assertion.  It may be
+   *                     {@code null} if there is no subFinal component.
+   *
+   * @return  A set containing the DNs of the entries that may match the
+   *          provided assertion, or {@code null} if none of the assertion
+   *          components can be used to narrow down the set of candidates.
+   *
+   * @throws  LDAPException  If a problem is encountered while attempting to
+   *                         make the determination (e.g., if one of the
+   *                         assertion components cannot be normalized).
+   */
+  synchronized Set<DN> getMatchingEntries(final ASN1OctetString subInitial,
+                                          final ASN1OctetString[] subAny,
+                                          final ASN1OctetString subFinal)
+               throws LDAPException
+  {
+    final TreeSet<ASN1OctetString> keys =
+         new TreeSet<>(new ValueComparator());
+
+    if (subInitial != null)
+    {
+      final byte[] b = matchingRule.normalizeSubstring(subInitial,
+           MatchingRule.SUBSTRING_TYPE_SUBINITIAL).getValue();
+      if (b.length > 0)
+      {
+        keys.add(createKey(KEY_TYPE_SUBINITIAL, b, 0,
+             Math.min(b.length, SUBSTRING_LENGTH)));
+      }
+      addSubAnyKeys(b, keys);
+    }
+
+    if (subAny != null)
+    {
+      for (final ASN1OctetString s : subAny)
+      {
+        final byte[] b = matchingRule.normalizeSubstring(s,
+             MatchingRule.SUBSTRING_TYPE_SUBANY).getValue();
+        addSubAnyKeys(b, keys);
+      }
+    }
+
+    if (subFinal != null)
+    {
+      final byte[] b = matchingRule.normalizeSubstring(subFinal,
+           MatchingRule.SUBSTRING_TYPE_SUBFINAL).getValue();
+      if (b.length > 0)
+      {
+        final int length = Math.min(b.length, SUBSTRING_LENGTH);
+        keys.add(createKey(KEY_TYPE_SUBFINAL, b, b.length - length, length));
+      }
+      addSubAnyKeys(b, keys);
+    }
+
+    if (keys.isEmpty())
+    {
+      return null;
+    }
+
+    TreeSet<DN> candidateSet = null;
+    for (final ASN1OctetString key : keys)
+    {
+      final Set<DN> dnSet = getDNs(key);
+      if (candidateSet == null)
+      {
+        candidateSet = new TreeSet<>(dnSet);
+      }
+      else
+      {
+        candidateSet.retainAll(dnSet);
+      }
+
+      if (candidateSet.isEmpty())
+      {
+        break;
+      }
+    }
+
+    return candidateSet;
+  }
+
+
+
+  /**
+   * Performs the necessary processing for adding the given entry.
+   *
+   * @param  entry  The entry to be added.
+   *
+   * @throws  LDAPException  If a problem is encountered (e.g., the entry has
+   *                         one or more values that are not acceptable for the
+   *                         associated attribute type).
+   */
+  @Override()
+  synchronized void processAdd(final Entry entry)
+               throws LDAPException
+  {
+    final Attribute a =
+         entry.getAttribute(attributeType.getNameOrOID(), schema);
+    if (a != null)
+    {
+      final DN dn = entry.getParsedDN();
+      for (final ASN1OctetString k : getKeys(a))
+      {
+        addDN(k, dn);
+      }
+    }
+  }
+
+
+
+  /**
+   * Performs the necessary processing for deleting the given entry.
+   *
+   * @param  entry  The entry to be deleted.
+   *
+   * @throws  LDAPException  If a problem is encountered (e.g., the entry has
+   *                         one or more values that are not acceptable for the
+   *                         associated attribute type).
+   */
+  @Override()
+  synchronized void processDelete(final Entry entry)
+               throws LDAPException
+  {
+    final Attribute a =
+         entry.getAttribute(attributeType.getNameOrOID(), schema);
+    if (a != null)
+    {
+      final DN dn = entry.getParsedDN();
+      for (final ASN1OctetString k : getKeys(a))
+      {
+        removeDN(k, dn);
+      }
+    }
+  }
+
+
+
+  /**
+   * Retrieves the set of index keys for the values of the provided attribute.
+   * All values will be normalized before any keys are generated, so that no
+   * keys will be generated if any of the values are not acceptable.
+   *
+   * @param  a  The attribute for which to retrieve the keys.
+   *
+   * @return  The set of index keys for the values of the provided attribute.
+   *
+   * @throws  LDAPException  If any of the values cannot be normalized.
+   */
+  private Set<ASN1OctetString> getKeys(final Attribute a)
+          throws LDAPException
+  {
+    final ASN1OctetString[] rawValues = a.getRawValues();
+    final byte[][] normalizedValues = new byte[rawValues.length][];
+    for (int i=0; i < rawValues.length; i++)
+    {
+      normalizedValues[i] = matchingRule.normalize(rawValues[i]).getValue();
+    }
+
+    final TreeSet<ASN1OctetString> keys = new TreeSet<>(new ValueComparator());
+    for (final byte[] b : normalizedValues)
+    {
+      final int maxLength = Math.min(b.length, SUBSTRING_LENGTH);
+      for (int length=1; length <= maxLength; length++)
+      {
+        keys.add(createKey(KEY_TYPE_SUBINITIAL, b, 0, length));
+        keys.add(createKey(KEY_TYPE_SUBFINAL, b, b.length - length, length));
+      }
+
+      addSubAnyKeys(b, keys);
+    }
+
+    return keys;
+  }
+
+
+
+  /**
+   * Adds a subAny key for each sequence of {@link #SUBSTRING_LENGTH} bytes in
+   * the provided normalized value.  No keys will be added if the value is
+   * shorter than that.
+   *
+   * @param  b     The normalized value for which to add the keys.
+   * @param  keys  The set to which the keys should be added.
+   */
+  private static void addSubAnyKeys(final byte[] b,
+                                    final Set<ASN1OctetString> keys)
+  {
+    for (int i=0; i <= (b.length - SUBSTRING_LENGTH); i++)
+    {
+      keys.add(createKey(KEY_TYPE_SUBANY, b, i, SUBSTRING_LENGTH));
+    }
+  }
+
+
+
+  /**
+   * Creates an index key from the specified portion of a normalized value.
+   *
+   * @param  keyType  The type of key to create.
+   * @param  b        The normalized value from which to create the key.
+   * @param  offset   The position in the value at which the key starts.
+   * @param  length   The number of bytes from the value to include in the key.
+   *
+   * @return  The index key that was created.
+   */
+  private static ASN1OctetString createKey(final byte keyType, final byte[] b,
+                                           final int offset, final int length)
+  {
+    final byte[] keyBytes = new byte[length + 1];
+    keyBytes[0] = keyType;
+    System.arraycopy(b, offset, keyBytes, 1, length);
+    return new ASN1OctetString(keyBytes);
+  }
+}
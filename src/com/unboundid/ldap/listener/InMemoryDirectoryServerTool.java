@@ -136,6 +136,19 @@ import static com.unboundid.ldap.listener.ListenerMessages.*;
  *       index should be maintained for the specified attribute.  The equality
  *       index may be used to speed up certain kinds of searches, although it
  *       will cause the server to consume more memory.</LI>
+ *   <LI>"--substringIndex {attr}" -- specifies that a substring index should
+ *       be maintained for the specified attribute.  The substring index may be
+ *       used to speed up searches with substring filters, although it will
+ *       cause the server to consume more memory.</LI>
+ *   <LI>"--orderingIndex {attr}" -- specifies that an ordering index should be
+ *       maintained for the specified attribute.  The ordering index may be
+ *       used to speed up searches with greater-or-equal and less-or-equal
+ *       filters, although it will cause the server to consume more
+ *       memory.</LI>
+ *   <LI>"--presenceIndex {attr}" -- specifies that a presence index should be
+ *       maintained for the specified attribute.  The presence index may be
+ *       used to speed up searches with presence filters, although it will
+ *       cause the server to consume more memory.</LI>
  *   <LI>"-Z" or "--useSSL" -- indicates that the server should encrypt all
  *       communication using SSL.  If this is provided, then the
  *       "--keyStorePath" and "--keyStorePassword" arguments must also be
@@ -285,6 +298,18 @@ public final class InMemoryDirectoryServerTool
   // The argument used to specify the trust store type.
   private StringArgument trustStoreTypeArgument;
 
+  // The argument used to specify the attributes for which to maintain
+  // ordering indexes.
+  private StringArgument orderingIndexArgument;
+
+  // The argument used to specify the attributes for which to maintain presence
+  // indexes.
+  private StringArgument presenceIndexArgument;
+
+  // The argument used to specify the attributes for which to maintain
+  // substring indexes.
+  private StringArgument substringIndexArgument;
+
   // The argument used to specify the server vendor name.
   private StringArgument vendorNameArgument;
 
@@ -382,6 +407,9 @@ public final class InMemoryDirectoryServerTool
     keyStoreTypeArgument              = null;
     trustStorePasswordArgument        = null;
     trustStoreTypeArgument            = null;
+    orderingIndexArgument             = null;
+    presenceIndexArgument             = null;
+    substringIndexArgument            = null;
     vendorNameArgument                = null;
     vendorVersionArgument             = null;
   }
@@ -586,6 +614,30 @@ public final class InMemoryDirectoryServerTool
     equalityIndexArgument.addLongIdentifier("equality-index", true);
     parser.addArgument(equalityIndexArgument);
 
+    substringIndexArgument = new StringArgument(null, "substringIndex", false,
+         0, INFO_MEM_DS_TOOL_ARG_PLACEHOLDER_ATTR.get(),
+         INFO_MEM_DS_TOOL_ARG_DESC_SUBSTRING_INDEX.get());
+    substringIndexArgument.setArgumentGroupName(
+         INFO_MEM_DS_TOOL_GROUP_DATA.get());
+    substringIndexArgument.addLongIdentifier("substring-index", true);
+    parser.addArgument(substringIndexArgument);
+
+    orderingIndexArgument = new StringArgument(null, "orderingIndex", false,
+         0, INFO_MEM_DS_TOOL_ARG_PLACEHOLDER_ATTR.get(),
+         INFO_MEM_DS_TOOL_ARG_DESC_ORDERING_INDEX.get());
+    orderingIndexArgument.setArgumentGroupName(
+         INFO_MEM_DS_TOOL_GROUP_DATA.get());
+    orderingIndexArgument.addLongIdentifier("ordering-index", true);
+    parser.addArgument(orderingIndexArgument);
+
+    presenceIndexArgument = new StringArgument(null, "presenceIndex", false,
+         0, INFO_MEM_DS_TOOL_ARG_PLACEHOLDER_ATTR.get(),
+         INFO_MEM_DS_TOOL_ARG_DESC_PRESENCE_INDEX.get());
+    presenceIndexArgument.setArgumentGroupName(
+         INFO_MEM_DS_TOOL_GROUP_DATA.get());
+    presenceIndexArgument.addLongIdentifier("presence-index", true);
+    parser.addArgument(presenceIndexArgument);
+
     maxChangeLogEntriesArgument = new IntegerArgument('c',
          "maxChangeLogEntries", false, 1,
          INFO_MEM_DS_TOOL_ARG_PLACEHOLDER_COUNT.get(),
@@ -1076,6 +1128,27 @@ public final class InMemoryDirectoryServerTool
            equalityIndexArgument.getValues());
     }
 
+    // If substring indexing is to be performed, then configure it.
+    if (substringIndexArgument.isPresent())
+    {
+      serverConfig.setSubstringIndexAttributes(
+           substringIndexArgument.getValues());
+    }
+
+    // If ordering indexing is to be performed, then configure it.
+    if (orderingIndexArgument.isPresent())
+    {
+      serverConfig.setOrderingIndexAttributes(
+           orderingIndexArgument.getValues());
+    }
+
+    // If presence indexing is to be performed, then configure it.
+    if (presenceIndexArgument.isPresent())
+    {
+      serverConfig.setPresenceIndexAttributes(
+           presenceIndexArgument.getValues());
+    }
+
     if (authnRequiredOperationTypesArgument.isPresent())
     {
       serverConfig.setAuthenticationRequiredOperationTypes(
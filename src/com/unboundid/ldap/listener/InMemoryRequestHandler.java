@@ -28,6 +28,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -41,6 +42,8 @@ import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import com.unboundid.asn1.ASN1Integer;
 import com.unboundid.asn1.ASN1OctetString;
@@ -239,6 +242,24 @@ public final class InMemoryRequestHandler
   private final Map<AttributeTypeDefinition,
      InMemoryDirectoryServerEqualityAttributeIndex> equalityIndexes;
 
+  // The set of substring indexes defined for the server.
+  private final Map<AttributeTypeDefinition,
+     InMemoryDirectoryServerSubstringAttributeIndex> substringIndexes;
+
+  // The set of ordering indexes defined for the server.
+  private final Map<AttributeTypeDefinition,
+     InMemoryDirectoryServerOrderingAttributeIndex> orderingIndexes;
+
+  // The set of presence indexes defined for the server.
+  private final Map<AttributeTypeDefinition,
+     InMemoryDirectoryServerPresenceAttributeIndex> presenceIndexes;
+
+  // The index that maps the DN of each entry to the DNs of its children.
+  private final InMemoryDirectoryServerHierarchyIndex hierarchyIndex;
+
+  // All of the indexes defined for the server, including the hierarchy index.
+  private final List<InMemoryDirectoryServerIndex<?>> indexes;
+
   // An additional set of credentials that may be used for bind operations.
   private final Map<DN,byte[]> additionalBindCredentials;
 
@@ -258,8 +279,16 @@ public final class InMemoryRequestHandler
   // The set of referential integrity attributes for the server.
   private final Set<String> referentialIntegrityAttributes;
 
-  // The map of entries currently held in the server.
-  private final Map<DN,ReadOnlyEntry> entryMap;
+  // The map of entries currently held in the server.  It is a persistent map
+  // so that snapshots may be created and restored in constant time.
+  private final PersistentTreeMap<DN,ReadOnlyEntry> entryMap;
+
+  // The lock used to protect the entry map and the associated indexes.  The
+  // read lock is held while processing operations that only read data, so
+  // they may be processed concurrently, and the write lock is held while
+  // processing operations that may alter data (including extended operations,
+  // which may be used to process transactions).
+  private final ReentrantReadWriteLock entryMapLock;
 
 
 
@@ -301,7 +330,8 @@ public final class InMemoryRequestHandler
            ERR_MEM_HANDLER_NO_BASE_DNS.get());
     }
 
-    entryMap = new TreeMap<>();
+    entryMap = new PersistentTreeMap<>();
+    entryMapLock = new ReentrantReadWriteLock();
 
     final LinkedHashSet<DN> baseDNSet =
          new LinkedHashSet<>(Arrays.asList(baseDNArray));
@@ -379,6 +409,48 @@ public final class InMemoryRequestHandler
       equalityIndexes.put(i.getAttributeType(), i);
     }
 
+    final List<String> subIndexAttrs = config.getSubstringIndexAttributes();
+    substringIndexes = new HashMap<>(
+         StaticUtils.computeMapCapacity(subIndexAttrs.size()));
+    for (final String s : subIndexAttrs)
+    {
+      final InMemoryDirectoryServerSubstringAttributeIndex i =
+           new InMemoryDirectoryServerSubstringAttributeIndex(s, schema);
+      substringIndexes.put(i.getAttributeType(), i);
+    }
+
+    final List<String> ordIndexAttrs = config.getOrderingIndexAttributes();
+    orderingIndexes = new HashMap<>(
+         StaticUtils.computeMapCapacity(ordIndexAttrs.size()));
+    for (final String s : ordIndexAttrs)
+    {
+      final InMemoryDirectoryServerOrderingAttributeIndex i =
+           new InMemoryDirectoryServerOrderingAttributeIndex(s, schema);
+      orderingIndexes.put(i.getAttributeType(), i);
+    }
+
+    final List<String> presIndexAttrs = config.getPresenceIndexAttributes();
+    presenceIndexes = new HashMap<>(
+         StaticUtils.computeMapCapacity(presIndexAttrs.size()));
+    for (final String s : presIndexAttrs)
+    {
+      final InMemoryDirectoryServerPresenceAttributeIndex i =
+           new InMemoryDirectoryServerPresenceAttributeIndex(s, schema);
+      presenceIndexes.put(i.getAttributeType(), i);
+    }
+
+    hierarchyIndex = new InMemoryDirectoryServerHierarchyIndex();
+
+    final ArrayList<InMemoryDirectoryServerIndex<?>> indexList =
+         new ArrayList<>(equalityIndexes.size() + substringIndexes.size() +
+              orderingIndexes.size() + presenceIndexes.size() + 1);
+    indexList.add(hierarchyIndex);
+    indexList.addAll(equalityIndexes.values());
+    indexList.addAll(substringIndexes.values());
+    indexList.addAll(orderingIndexes.values());
+    indexList.addAll(presenceIndexes.values());
+    indexes = Collections.unmodifiableList(indexList);
+
     final Set<String> pwAttrSet = config.getPasswordAttributes();
     final LinkedHashSet<String> basePWAttrSet =
          new LinkedHashSet<>(StaticUtils.computeMapCapacity(pwAttrSet.size()));
@@ -503,8 +575,14 @@ public final class InMemoryRequestHandler
     maxChangelogEntries            = parent.maxChangelogEntries;
     maxSizeLimit                   = parent.maxSizeLimit;
     equalityIndexes                = parent.equalityIndexes;
+    substringIndexes               = parent.substringIndexes;
+    orderingIndexes                = parent.orderingIndexes;
+    presenceIndexes                = parent.presenceIndexes;
+    hierarchyIndex                 = parent.hierarchyIndex;
+    indexes                        = parent.indexes;
     referentialIntegrityAttributes = parent.referentialIntegrityAttributes;
     entryMap                       = parent.entryMap;
+    entryMapLock                   = parent.entryMapLock;
     entryValidatorRef              = parent.entryValidatorRef;
     extendedRequestHandlers        = parent.extendedRequestHandlers;
     saslBindHandlers               = parent.saslBindHandlers;
@@ -552,11 +630,25 @@ public final class InMemoryRequestHandler
    */
   public InMemoryDirectoryServerSnapshot createSnapshot()
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
-      return new InMemoryDirectoryServerSnapshot(entryMap,
+      final Map<InMemoryDirectoryServerIndex<?>,
+           PersistentTreeMap<?,PersistentTreeMap<DN,Boolean>>> indexSnapshots =
+           new IdentityHashMap<>(StaticUtils.computeMapCapacity(
+                indexes.size()));
+      for (final InMemoryDirectoryServerIndex<?> i : indexes)
+      {
+        indexSnapshots.put(i, i.snapshot());
+      }
+
+      return new InMemoryDirectoryServerSnapshot(entryMap, indexSnapshots,
            firstChangeNumber.get(), lastChangeNumber.get());
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -570,24 +662,28 @@ public final class InMemoryRequestHandler
    */
   public void restoreSnapshot(final InMemoryDirectoryServerSnapshot snapshot)
   {
-    synchronized (entryMap)
+    entryMapLock.writeLock().lock();
+    try
     {
-      entryMap.clear();
-      entryMap.putAll(snapshot.getEntryMap());
+      entryMap.restore(snapshot.getPersistentEntryMap());
 
-      for (final InMemoryDirectoryServerEqualityAttributeIndex i :
-           equalityIndexes.values())
+      for (final InMemoryDirectoryServerIndex<?> i : indexes)
       {
-        i.clear();
-        for (final Entry e : entryMap.values())
+        if (! i.restore(snapshot))
         {
-          try
-          {
-            i.processAdd(e);
-          }
-          catch (final Exception ex)
+          // The snapshot was not created by this server instance, so the index
+          // will need to be rebuilt.
+          i.clear();
+          for (final Entry e : entryMap.values())
           {
-            Debug.debugException(ex);
+            try
+            {
+              i.processAdd(e);
+            }
+            catch (final Exception ex)
+            {
+              Debug.debugException(ex);
+            }
           }
         }
       }
@@ -595,6 +691,10 @@ public final class InMemoryRequestHandler
       firstChangeNumber.set(snapshot.getFirstChangeNumber());
       lastChangeNumber.set(snapshot.getLastChangeNumber());
     }
+    finally
+    {
+      entryMapLock.writeLock().unlock();
+    }
   }
 
 
@@ -804,7 +904,8 @@ public final class InMemoryRequestHandler
                                        final AddRequestProtocolOp request,
                                        final List<Control> controls)
   {
-    synchronized (entryMap)
+    entryMapLock.writeLock().lock();
+    try
     {
       // Sleep before processing, if appropriate.
       sleepBeforeProcessing();
@@ -1190,6 +1291,10 @@ public final class InMemoryRequestHandler
                 dn.getParentString()),
            null));
     }
+    finally
+    {
+      entryMapLock.writeLock().unlock();
+    }
   }
 
 
@@ -1265,7 +1370,9 @@ public final class InMemoryRequestHandler
                                         final BindRequestProtocolOp request,
                                         final List<Control> controls)
   {
-    synchronized (entryMap)
+    final Lock lock = getBindLock(request);
+    lock.lock();
+    try
     {
       // Sleep before processing, if appropriate.
       sleepBeforeProcessing();
@@ -1487,6 +1594,36 @@ public final class InMemoryRequestHandler
                 null, null, null),
            responseControls);
     }
+    finally
+    {
+      lock.unlock();
+    }
+  }
+
+
+
+  /**
+   * Retrieves the lock that should be held while processing the provided bind
+   * request.  Simple binds only need to read data and may be processed under
+   * the read lock, but SASL binds will use the write lock because a custom
+   * SASL bind handler may attempt to update the data set, and the read lock
+   * cannot be upgraded to a write lock.
+   *
+   * @param  request  The bind request to be processed.
+   *
+   * @return  The lock that should be held while processing the provided bind
+   *          request.
+   */
+  private Lock getBindLock(final BindRequestProtocolOp request)
+  {
+    if (request.getCredentialsType() == BindRequestProtocolOp.CRED_TYPE_SASL)
+    {
+      return entryMapLock.writeLock();
+    }
+    else
+    {
+      return entryMapLock.readLock();
+    }
   }
 
 
@@ -1517,7 +1654,8 @@ public final class InMemoryRequestHandler
                           final CompareRequestProtocolOp request,
                           final List<Control> controls)
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       // Sleep before processing, if appropriate.
       sleepBeforeProcessing();
@@ -1644,6 +1782,10 @@ public final class InMemoryRequestHandler
            new CompareResponseProtocolOp(resultCode, null, null, null),
            responseControls);
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -1678,7 +1820,8 @@ public final class InMemoryRequestHandler
                                           final DeleteRequestProtocolOp request,
                                           final List<Control> controls)
   {
-    synchronized (entryMap)
+    entryMapLock.writeLock().lock();
+    try
     {
       // Sleep before processing, if appropriate.
       sleepBeforeProcessing();
@@ -1812,14 +1955,8 @@ public final class InMemoryRequestHandler
       // Create a list with the DN of the target entry, and all the DNs of its
       // subordinates.  If the entry has subordinates and the subtree delete
       // control was not provided, then fail.
-      final ArrayList<DN> subordinateDNs = new ArrayList<>(entryMap.size());
-      for (final DN mapEntryDN : entryMap.keySet())
-      {
-        if (mapEntryDN.isDescendantOf(dn, false))
-        {
-          subordinateDNs.add(mapEntryDN);
-        }
-      }
+      final List<DN> subordinateDNs =
+           getDNsInScope(dn, SearchScope.SUBORDINATE_SUBTREE);
 
       if ((! subordinateDNs.isEmpty()) &&
            (! controlMap.containsKey(
@@ -1877,6 +2014,10 @@ public final class InMemoryRequestHandler
                 null, null),
            responseControls);
     }
+    finally
+    {
+      entryMapLock.writeLock().unlock();
+    }
   }
 
 
@@ -1951,7 +2092,8 @@ public final class InMemoryRequestHandler
                           final ExtendedRequestProtocolOp request,
                           final List<Control> controls)
   {
-    synchronized (entryMap)
+    entryMapLock.writeLock().lock();
+    try
     {
       // Sleep before processing, if appropriate.
       sleepBeforeProcessing();
@@ -2032,6 +2174,10 @@ public final class InMemoryRequestHandler
              null, null, null));
       }
     }
+    finally
+    {
+      entryMapLock.writeLock().unlock();
+    }
   }
 
 
@@ -2067,7 +2213,8 @@ public final class InMemoryRequestHandler
                                           final ModifyRequestProtocolOp request,
                                           final List<Control> controls)
   {
-    synchronized (entryMap)
+    entryMapLock.writeLock().lock();
+    try
     {
       // Sleep before processing, if appropriate.
       sleepBeforeProcessing();
@@ -2361,6 +2508,10 @@ public final class InMemoryRequestHandler
                 null, null),
            responseControls);
     }
+    finally
+    {
+      entryMapLock.writeLock().unlock();
+    }
   }
 
 
@@ -2696,7 +2847,8 @@ public final class InMemoryRequestHandler
                           final ModifyDNRequestProtocolOp request,
                           final List<Control> controls)
   {
-    synchronized (entryMap)
+    entryMapLock.writeLock().lock();
+    try
     {
       // Sleep before processing, if appropriate.
       sleepBeforeProcessing();
@@ -3096,37 +3248,37 @@ public final class InMemoryRequestHandler
       // If the target entry had any subordinates, then rename them as well.
       final RDN[] oldDNComps = dn.getRDNs();
       final RDN[] newDNComps = newDN.getRDNs();
-      final Set<DN> dnSet = new LinkedHashSet<>(entryMap.keySet());
-      for (final DN mapEntryDN : dnSet)
-      {
-        if (mapEntryDN.isDescendantOf(dn, false))
-        {
-          final Entry o = entryMap.remove(mapEntryDN);
-          final Entry e = o.duplicate();
-
-          final RDN[] oldMapEntryComps = mapEntryDN.getRDNs();
-          final int compsToSave = oldMapEntryComps.length - oldDNComps.length;
-
-          final RDN[] newMapEntryComps =
-               new RDN[compsToSave + newDNComps.length];
-          System.arraycopy(oldMapEntryComps, 0, newMapEntryComps, 0,
-               compsToSave);
-          System.arraycopy(newDNComps, 0, newMapEntryComps, compsToSave,
-               newDNComps.length);
-
-          final DN newMapEntryDN = new DN(newMapEntryComps);
-          e.setDN(newMapEntryDN);
-          if (generateOperationalAttributes)
-          {
-            e.setAttribute(new Attribute("entryDN",
-                 DistinguishedNameMatchingRule.getInstance(),
-                 newMapEntryDN.toNormalizedString()));
-          }
-          entryMap.put(newMapEntryDN, new ReadOnlyEntry(e));
-          indexDelete(o);
-          indexAdd(e);
-          handleReferentialIntegrityModifyDN(mapEntryDN, newMapEntryDN);
+      // The target entry has already been moved, but the hierarchy index will
+      // still list its subordinates below the original DN.
+      final List<DN> subordinateDNs = hierarchyIndex.getDNsInScope(dn,
+           SearchScope.SUBORDINATE_SUBTREE);
+      for (final DN mapEntryDN : subordinateDNs)
+      {
+        final Entry o = entryMap.remove(mapEntryDN);
+        final Entry e = o.duplicate();
+
+        final RDN[] oldMapEntryComps = mapEntryDN.getRDNs();
+        final int compsToSave = oldMapEntryComps.length - oldDNComps.length;
+
+        final RDN[] newMapEntryComps =
+             new RDN[compsToSave + newDNComps.length];
+        System.arraycopy(oldMapEntryComps, 0, newMapEntryComps, 0,
+             compsToSave);
+        System.arraycopy(newDNComps, 0, newMapEntryComps, compsToSave,
+             newDNComps.length);
+
+        final DN newMapEntryDN = new DN(newMapEntryComps);
+        e.setDN(newMapEntryDN);
+        if (generateOperationalAttributes)
+        {
+          e.setAttribute(new Attribute("entryDN",
+               DistinguishedNameMatchingRule.getInstance(),
+               newMapEntryDN.toNormalizedString()));
         }
+        entryMap.put(newMapEntryDN, new ReadOnlyEntry(e));
+        indexDelete(o);
+        indexAdd(e);
+        handleReferentialIntegrityModifyDN(mapEntryDN, newMapEntryDN);
       }
 
       addChangeLogEntry(request, authzDN);
@@ -3136,6 +3288,10 @@ public final class InMemoryRequestHandler
                 null, null),
            responseControls);
     }
+    finally
+    {
+      entryMapLock.writeLock().unlock();
+    }
   }
 
 
@@ -3226,7 +3382,8 @@ public final class InMemoryRequestHandler
                                           final SearchRequestProtocolOp request,
                                           final List<Control> controls)
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final List<SearchResultEntry> entryList =
            new ArrayList<>(entryMap.size());
@@ -3275,6 +3432,10 @@ public final class InMemoryRequestHandler
 
       return returnMessage;
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -3318,7 +3479,8 @@ public final class InMemoryRequestHandler
                    final List<SearchResultEntry> entryList,
                    final List<SearchResultReference> referenceList)
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       // Sleep before processing, if appropriate.
       final long processingStartTime = System.currentTimeMillis();
@@ -3564,14 +3726,12 @@ findEntriesAndRefs:
         final Set<DN> candidateDNs = indexSearch(filter);
         if (candidateDNs == null)
         {
-          for (final Map.Entry<DN,ReadOnlyEntry> me : entryMap.entrySet())
+          for (final DN dn : getDNsInScope(baseDN, scope))
           {
-            final DN dn = me.getKey();
-            final Entry entry = me.getValue();
+            final Entry entry = entryMap.get(dn);
             try
             {
-              if (dn.matchesBaseAndScope(baseDN, scope) &&
-                   filter.matchesEntry(entry, schema))
+              if (filter.matchesEntry(entry, schema))
               {
                 processSearchEntry(entry, includeSubEntries,
                      includeNonSubEntries, includeChangeLog, hasManageDsaIT,
@@ -3837,6 +3997,10 @@ findEntriesAndRefs:
                 null, null),
            responseControls);
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -3903,8 +4067,7 @@ findEntriesAndRefs:
    */
   private void indexAdd(final Entry entry)
   {
-    for (final InMemoryDirectoryServerEqualityAttributeIndex i :
-         equalityIndexes.values())
+    for (final InMemoryDirectoryServerIndex<?> i : indexes)
     {
       try
       {
@@ -3926,8 +4089,7 @@ findEntriesAndRefs:
    */
   private void indexDelete(final Entry entry)
   {
-    for (final InMemoryDirectoryServerEqualityAttributeIndex i :
-         equalityIndexes.values())
+    for (final InMemoryDirectoryServerIndex<?> i : indexes)
     {
       try
       {
@@ -3942,6 +4104,48 @@ findEntriesAndRefs:
 
 
 
+  /**
+   * Retrieves the DNs of the entries held in the server that are within the
+   * specified scope of the given base DN, in hierarchical order.  The hierarchy
+   * index will be used if the base entry exists, and all entries will be
+   * examined otherwise (e.g., for the root DSE or for a DN above one of the
+   * base DNs), since entries below a nonexistent entry cannot be reached
+   * through the hierarchy index.
+   *
+   * @param  baseDN  The base DN for the entries to retrieve.
+   * @param  scope   The scope for the entries to retrieve.
+   *
+   * @return  The DNs of the entries within the specified scope of the given
+   *          base DN.
+   */
+  private List<DN> getDNsInScope(final DN baseDN, final SearchScope scope)
+  {
+    if (entryMap.containsKey(baseDN))
+    {
+      return hierarchyIndex.getDNsInScope(baseDN, scope);
+    }
+
+    final ArrayList<DN> dnList = new ArrayList<>(10);
+    for (final DN dn : entryMap.keySet())
+    {
+      try
+      {
+        if (dn.matchesBaseAndScope(baseDN, scope))
+        {
+          dnList.add(dn);
+        }
+      }
+      catch (final LDAPException le)
+      {
+        Debug.debugException(le);
+      }
+    }
+
+    return dnList;
+  }
+
+
+
   /**
    * Attempts to use indexes to obtain a candidate list for the provided filter.
    *
@@ -4019,26 +4223,33 @@ findEntriesAndRefs:
         }
 
       case Filter.FILTER_TYPE_EQUALITY:
-        final Schema schema = schemaRef.get();
-        if (schema == null)
+        final InMemoryDirectoryServerEqualityAttributeIndex i =
+             equalityIndexes.get(getIndexAttributeType(filter));
+        if (i == null)
         {
           return null;
         }
-        final AttributeTypeDefinition at =
-             schema.getAttributeType(filter.getAttributeName());
-        if (at == null)
+        try
+        {
+          return i.getMatchingEntries(filter.getRawAssertionValue());
+        }
+        catch (final Exception e)
         {
+          Debug.debugException(e);
           return null;
         }
-        final InMemoryDirectoryServerEqualityAttributeIndex i =
-             equalityIndexes.get(at);
-        if (i == null)
+
+      case Filter.FILTER_TYPE_SUBSTRING:
+        final InMemoryDirectoryServerSubstringAttributeIndex si =
+             substringIndexes.get(getIndexAttributeType(filter));
+        if (si == null)
         {
           return null;
         }
         try
         {
-          return i.getMatchingEntries(filter.getRawAssertionValue());
+          return si.getMatchingEntries(filter.getRawSubInitialValue(),
+               filter.getRawSubAnyValues(), filter.getRawSubFinalValue());
         }
         catch (final Exception e)
         {
@@ -4046,6 +4257,40 @@ findEntriesAndRefs:
           return null;
         }
 
+      case Filter.FILTER_TYPE_GREATER_OR_EQUAL:
+      case Filter.FILTER_TYPE_LESS_OR_EQUAL:
+        final InMemoryDirectoryServerOrderingAttributeIndex oi =
+             orderingIndexes.get(getIndexAttributeType(filter));
+        if (oi == null)
+        {
+          return null;
+        }
+        try
+        {
+          if (filter.getFilterType() == Filter.FILTER_TYPE_GREATER_OR_EQUAL)
+          {
+            return oi.getMatchingEntries(filter.getRawAssertionValue(), null);
+          }
+          else
+          {
+            return oi.getMatchingEntries(null, filter.getRawAssertionValue());
+          }
+        }
+        catch (final Exception e)
+        {
+          Debug.debugException(e);
+          return null;
+        }
+
+      case Filter.FILTER_TYPE_PRESENCE:
+        final InMemoryDirectoryServerPresenceAttributeIndex pi =
+             presenceIndexes.get(getIndexAttributeType(filter));
+        if (pi == null)
+        {
+          return null;
+        }
+        return pi.getMatchingEntries();
+
       default:
         return null;
     }
@@ -4053,6 +4298,30 @@ findEntriesAndRefs:
 
 
 
+  /**
+   * Retrieves the schema definition for the attribute type targeted by the
+   * provided filter, for use in selecting an index to process it.
+   *
+   * @param  filter  The filter for which to retrieve the attribute type.  It
+   *                 must be a filter type that targets a single attribute.
+   *
+   * @return  The attribute type definition for the filter, or {@code null} if
+   *          the server does not have a schema or the attribute type is not
+   *          defined in it.
+   */
+  private AttributeTypeDefinition getIndexAttributeType(final Filter filter)
+  {
+    final Schema schema = schemaRef.get();
+    if (schema == null)
+    {
+      return null;
+    }
+
+    return schema.getAttributeType(filter.getAttributeName());
+  }
+
+
+
   /**
    * Determines whether the provided set of controls includes a transaction
    * specification request control.  If so, then it will verify that it
@@ -4270,7 +4539,8 @@ findEntriesAndRefs:
    */
   public int countEntries(final boolean includeChangeLog)
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       if (includeChangeLog || (maxChangelogEntries == 0))
       {
@@ -4291,6 +4561,10 @@ findEntriesAndRefs:
         return count;
       }
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -4310,20 +4584,15 @@ findEntriesAndRefs:
   public int countEntriesBelow(final String baseDN)
          throws LDAPException
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final DN parsedBaseDN = new DN(baseDN, schemaRef.get());
-
-      int count = 0;
-      for (final DN dn : entryMap.keySet())
-      {
-        if (dn.isDescendantOf(parsedBaseDN, true))
-        {
-          count++;
-        }
-      }
-
-      return count;
+      return getDNsInScope(parsedBaseDN, SearchScope.SUB).size();
+    }
+    finally
+    {
+      entryMapLock.readLock().unlock();
     }
   }
 
@@ -4336,10 +4605,15 @@ findEntriesAndRefs:
    */
   public void clear()
   {
-    synchronized (entryMap)
+    entryMapLock.writeLock().lock();
+    try
     {
       restoreSnapshot(initialSnapshot);
     }
+    finally
+    {
+      entryMapLock.writeLock().unlock();
+    }
   }
 
 
@@ -4364,7 +4638,8 @@ findEntriesAndRefs:
   public int importFromLDIF(final boolean clear, final LDIFReader ldifReader)
          throws LDAPException
   {
-    synchronized (entryMap)
+    entryMapLock.writeLock().lock();
+    try
     {
       final InMemoryDirectoryServerSnapshot snapshot = createSnapshot();
       boolean restoreSnapshot = true;
@@ -4426,6 +4701,10 @@ findEntriesAndRefs:
         }
       }
     }
+    finally
+    {
+      entryMapLock.writeLock().unlock();
+    }
   }
 
 
@@ -4455,7 +4734,8 @@ findEntriesAndRefs:
                           final boolean closeWriter)
          throws LDAPException
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       boolean exceptionThrown = false;
 
@@ -4528,6 +4808,10 @@ findEntriesAndRefs:
         }
       }
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -4605,7 +4889,8 @@ findEntriesAndRefs:
   public void addEntries(final List<? extends Entry> entries)
          throws LDAPException
   {
-    synchronized (entryMap)
+    entryMapLock.writeLock().lock();
+    try
     {
       final InMemoryDirectoryServerSnapshot snapshot = createSnapshot();
       boolean restoreSnapshot = true;
@@ -4626,6 +4911,10 @@ findEntriesAndRefs:
         }
       }
     }
+    finally
+    {
+      entryMapLock.writeLock().unlock();
+    }
   }
 
 
@@ -4647,7 +4936,8 @@ findEntriesAndRefs:
   public int deleteSubtree(final String baseDN)
          throws LDAPException
   {
-    synchronized (entryMap)
+    entryMapLock.writeLock().lock();
+    try
     {
       final DN dn = new DN(baseDN, schemaRef.get());
       if (dn.isNullDN())
@@ -4656,21 +4946,17 @@ findEntriesAndRefs:
              ERR_MEM_HANDLER_DELETE_ROOT_DSE.get());
       }
 
-      int numDeleted = 0;
-
-      final Iterator<Map.Entry<DN,ReadOnlyEntry>> iterator =
-           entryMap.entrySet().iterator();
-      while (iterator.hasNext())
+      final List<DN> dnList = getDNsInScope(dn, SearchScope.SUB);
+      for (final DN entryDN : dnList)
       {
-        final Map.Entry<DN,ReadOnlyEntry> e = iterator.next();
-        if (e.getKey().isDescendantOf(dn, true))
-        {
-          iterator.remove();
-          numDeleted++;
-        }
+        indexDelete(entryMap.remove(entryDN));
       }
 
-      return numDeleted;
+      return dnList.size();
+    }
+    finally
+    {
+      entryMapLock.writeLock().unlock();
     }
   }
 
@@ -4747,7 +5033,8 @@ findEntriesAndRefs:
    */
   public ReadOnlyEntry getEntry(final DN dn)
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       if (dn.isNullDN())
       {
@@ -4770,6 +5057,10 @@ findEntriesAndRefs:
         }
       }
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -4795,7 +5086,8 @@ findEntriesAndRefs:
                                     final Filter filter)
          throws LDAPException
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final DN parsedDN;
       final Schema schema = schemaRef.get();
@@ -4877,35 +5169,35 @@ findEntriesAndRefs:
       }
 
       final List<ReadOnlyEntry> entryList = new ArrayList<>(10);
-      for (final Map.Entry<DN,ReadOnlyEntry> me : entryMap.entrySet())
+      for (final DN dn : getDNsInScope(parsedDN, scope))
       {
-        final DN dn = me.getKey();
-        if (dn.matchesBaseAndScope(parsedDN, scope))
+        // We don't want to return changelog entries searches based at the
+        // root DSE.
+        if (parsedDN.isNullDN() && dn.isDescendantOf(changeLogBaseDN, true))
         {
-          // We don't want to return changelog entries searches based at the
-          // root DSE.
-          if (parsedDN.isNullDN() && dn.isDescendantOf(changeLogBaseDN, true))
-          {
-            continue;
-          }
+          continue;
+        }
 
-          try
-          {
-            final Entry entry = me.getValue();
-            if (filter.matchesEntry(entry, schema))
-            {
-              entryList.add(new ReadOnlyEntry(entry));
-            }
-          }
-          catch (final LDAPException le)
+        try
+        {
+          final Entry entry = entryMap.get(dn);
+          if (filter.matchesEntry(entry, schema))
           {
-            Debug.debugException(le);
+            entryList.add(new ReadOnlyEntry(entry));
           }
         }
+        catch (final LDAPException le)
+        {
+          Debug.debugException(le);
+        }
       }
 
       return Collections.unmodifiableList(entryList);
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -5704,8 +5996,8 @@ findEntriesAndRefs:
   /**
    * Adds the provided changelog entry to the data set, removing an old entry if
    * necessary to remain within the maximum allowed number of changes.  This
-   * must only be called from a synchronized method, and the change number for
-   * the changelog entry must have been obtained by calling
+   * must only be called while holding the write lock, and the change number
+   * for the changelog entry must have been obtained by calling
    * {@code lastChangeNumber.incrementAndGet()}.
    *
    * @param  e        The changelog entry to add to the data set.
@@ -5843,7 +6135,8 @@ findEntriesAndRefs:
   public DN getDNForAuthzID(final String authzID)
          throws LDAPException
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final String lowerAuthzID = StaticUtils.toLowerCase(authzID);
       if (lowerAuthzID.startsWith("dn:"))
@@ -5888,6 +6181,10 @@ findEntriesAndRefs:
              ERR_MEM_HANDLER_NO_SUCH_IDENTITY.get(authzID));
       }
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -6145,7 +6442,8 @@ findEntriesAndRefs:
   public boolean entryExists(final String dn, final String filter)
          throws LDAPException
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final Entry e = getEntry(dn);
       if (e == null)
@@ -6164,6 +6462,10 @@ findEntriesAndRefs:
         return false;
       }
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -6185,7 +6487,8 @@ findEntriesAndRefs:
   public boolean entryExists(final Entry entry)
          throws LDAPException
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final Entry e = getEntry(entry.getDN());
       if (e == null)
@@ -6206,6 +6509,10 @@ findEntriesAndRefs:
 
       return true;
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -6247,7 +6554,8 @@ findEntriesAndRefs:
   public void assertEntryExists(final String dn, final String filter)
          throws LDAPException, AssertionError
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final Entry e = getEntry(dn);
       if (e == null)
@@ -6272,6 +6580,10 @@ findEntriesAndRefs:
              ERR_MEM_HANDLER_TEST_ENTRY_DOES_NOT_MATCH_FILTER.get(dn, filter));
       }
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -6293,7 +6605,8 @@ findEntriesAndRefs:
   public void assertEntryExists(final Entry entry)
          throws LDAPException, AssertionError
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final Entry e = getEntry(entry.getDN());
       if (e == null)
@@ -6334,6 +6647,10 @@ findEntriesAndRefs:
         throw new AssertionError(StaticUtils.concatenateStrings(messages));
       }
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -6353,7 +6670,8 @@ findEntriesAndRefs:
   public List<String> getMissingEntryDNs(final Collection<String> dns)
          throws LDAPException
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final List<String> missingDNs = new ArrayList<>(dns.size());
       for (final String dn : dns)
@@ -6367,6 +6685,10 @@ findEntriesAndRefs:
 
       return missingDNs;
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -6385,7 +6707,8 @@ findEntriesAndRefs:
   public void assertEntriesExist(final Collection<String> dns)
          throws LDAPException, AssertionError
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final List<String> missingDNs = getMissingEntryDNs(dns);
       if (missingDNs.isEmpty())
@@ -6401,6 +6724,10 @@ findEntriesAndRefs:
 
       throw new AssertionError(StaticUtils.concatenateStrings(messages));
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -6425,7 +6752,8 @@ findEntriesAndRefs:
                            final Collection<String> attributeNames)
          throws LDAPException
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final Entry e = getEntry(dn);
       if (e == null)
@@ -6447,6 +6775,10 @@ findEntriesAndRefs:
 
       return missingAttrs;
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -6469,7 +6801,8 @@ findEntriesAndRefs:
                                     final Collection<String> attributeNames)
         throws LDAPException, AssertionError
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final List<String> missingAttrs =
            getMissingAttributeNames(dn, attributeNames);
@@ -6490,6 +6823,10 @@ findEntriesAndRefs:
 
       throw new AssertionError(StaticUtils.concatenateStrings(messages));
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -6517,7 +6854,8 @@ findEntriesAndRefs:
                            final Collection<String> attributeValues)
        throws LDAPException
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final Entry e = getEntry(dn);
       if (e == null)
@@ -6539,6 +6877,10 @@ findEntriesAndRefs:
 
       return missingValues;
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -6565,7 +6907,8 @@ findEntriesAndRefs:
                                 final Collection<String> attributeValues)
         throws LDAPException, AssertionError
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final List<String> missingValues =
            getMissingAttributeValues(dn, attributeName, attributeValues);
@@ -6596,6 +6939,10 @@ findEntriesAndRefs:
 
       throw new AssertionError(StaticUtils.concatenateStrings(messages));
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -6640,7 +6987,8 @@ findEntriesAndRefs:
                                      final Collection<String> attributeNames)
          throws LDAPException, AssertionError
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final Entry e = getEntry(dn);
       if (e == null)
@@ -6664,6 +7012,10 @@ findEntriesAndRefs:
         throw new AssertionError(StaticUtils.concatenateStrings(messages));
       }
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 
 
@@ -6688,7 +7040,8 @@ findEntriesAndRefs:
                                  final Collection<String> attributeValues)
          throws LDAPException, AssertionError
   {
-    synchronized (entryMap)
+    entryMapLock.readLock().lock();
+    try
     {
       final Entry e = getEntry(dn);
       if (e == null)
@@ -6713,5 +7066,9 @@ findEntriesAndRefs:
         throw new AssertionError(StaticUtils.concatenateStrings(messages));
       }
     }
+    finally
+    {
+      entryMapLock.readLock().unlock();
+    }
   }
 }
@@ -0,0 +1,928 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.listener;
+
+
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.unboundid.util.Mutable;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+
+
+
+/**
+ * This class provides a sorted map implementation that is backed by a
+ * persistent AVL tree.  Tree nodes are never altered once they have been
+ * created, so an update only needs to copy the nodes on the path from the root
+ * to the node that was changed, and all other nodes are shared with earlier
+ * versions of the map.  This makes it possible to obtain a point-in-time
+ * snapshot of the map, or to revert the map to an earlier snapshot, in
+ * constant time.
+ * <BR><BR>
+ * Iterators obtained from this map operate against the content of the map at
+ * the time the iterator was created, and they will not be affected by any
+ * subsequent updates.  Snapshots are immutable, as are the maps returned by the
+ * {@link #with} and {@link #without} methods.
+ *
+ * @param  <K>  The type of key used in the map.
+ * @param  <V>  The type of value used in the map.
+ */
+@Mutable()
+@ThreadSafety(level=ThreadSafetyLevel.NOT_THREADSAFE)
+final class PersistentTreeMap<K,V>
+      extends AbstractMap<K,V>
+      implements Serializable
+{
+  /**
+   * The serial version UID for this serializable class.
+   */
+  private static final long serialVersionUID = 2207435815637596216L;
+
+
+
+  // Indicates whether this map may be altered.
+  private final boolean mutable;
+
+  // The comparator used to order keys, or null if keys should be ordered using
+  // their natural ordering.
+  private final Comparator<? super K> comparator;
+
+  // The root of the tree, or null if the map is empty.
+  private transient Node<K,V> root;
+
+
+
+  /**
+   * Creates a new empty, mutable map that will order keys using their natural
+   * ordering.
+   */
+  PersistentTreeMap()
+  {
+    this(null, null, true);
+  }
+
+
+
+  /**
+   * Creates a new empty, mutable map that will order keys using the provided
+   * comparator.
+   *
+   * @param  comparator  The comparator to use to order keys.  It may be
+   *                     {@code null} if keys should be ordered using their
+   *                     natural ordering.
+   */
+  PersistentTreeMap(final Comparator<? super K> comparator)
+  {
+    this(comparator, null, true);
+  }
+
+
+
+  /**
+   * Creates a new map with the provided information.
+   *
+   * @param  comparator  The comparator to use to order keys, if any.
+   * @param  root        The root of the tree, if any.
+   * @param  mutable     Indicates whether the map may be altered.
+   */
+  private PersistentTreeMap(final Comparator<? super K> comparator,
+                            final Node<K,V> root, final boolean mutable)
+  {
+    this.comparator = comparator;
+    this.root       = root;
+    this.mutable    = mutable;
+  }
+
+
+
+  /**
+   * Retrieves an immutable snapshot of the current content of this map.  The
+   * snapshot shares all of its data with this map, so it can be obtained in
+   * constant time, and it will not be affected by subsequent updates to this
+   * map.
+   *
+   * @return  An immutable snapshot of the current content of this map.
+   */
+  PersistentTreeMap<K,V> snapshot()
+  {
+    if (mutable)
+    {
+      return new PersistentTreeMap<>(comparator, root, false);
+    }
+    else
+    {
+      return this;
+    }
+  }
+
+
+
+  /**
+   * Replaces the content of this map with the content of the provided map.
+   * This will be done in constant time, and subsequent updates to this map will
+   * not affect the provided map.  The provided map should use the same key
+   * ordering as this map.
+   *
+   * @param  m  The map whose content should be used for this map.  It must not
+   *            be {@code null}.
+   *
+   * @throws  UnsupportedOperationException  If this map is immutable.
+   */
+  void restore(final PersistentTreeMap<K,V> m)
+       throws UnsupportedOperationException
+  {
+    ensureMutable();
+    root = m.root;
+  }
+
+
+
+  /**
+   * Retrieves an immutable map that contains all of the mappings in this map,
+   * plus a mapping between the provided key and value.  This map will not be
+   * altered.
+   *
+   * @param  key    The key to include in the resulting map.  It must not be
+   *                {@code null}.
+   * @param  value  The value to associate with the key.
+   *
+   * @return  The resulting map.
+   */
+  PersistentTreeMap<K,V> with(final K key, final V value)
+  {
+    return new PersistentTreeMap<>(comparator, insert(root, key, value),
+         false);
+  }
+
+
+
+  /**
+   * Retrieves an immutable map that contains all of the mappings in this map
+   * except for the mapping for the provided key.  This map will not be
+   * altered.
+   *
+   * @param  key  The key to exclude from the resulting map.
+   *
+   * @return  The resulting map.
+   */
+  PersistentTreeMap<K,V> without(final K key)
+  {
+    final Node<K,V> newRoot = delete(root, key);
+    if ((newRoot == root) && (! mutable))
+    {
+      return this;
+    }
+
+    return new PersistentTreeMap<>(comparator, newRoot, false);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public int size()
+  {
+    return (root == null) ? 0 : root.size;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public boolean isEmpty()
+  {
+    return (root == null);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public boolean containsKey(final Object key)
+  {
+    return (find(key) != null);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public V get(final Object key)
+  {
+    final Node<K,V> n = find(key);
+    return (n == null) ? null : n.getValue();
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public V put(final K key, final V value)
+  {
+    ensureMutable();
+
+    final V previousValue = get(key);
+    root = insert(root, key, value);
+    return previousValue;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public V remove(final Object key)
+  {
+    ensureMutable();
+
+    final Node<K,V> n = find(key);
+    if (n == null)
+    {
+      return null;
+    }
+
+    root = delete(root, key);
+    return n.getValue();
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void clear()
+  {
+    ensureMutable();
+    root = null;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public Set<Map.Entry<K,V>> entrySet()
+  {
+    return new EntrySet();
+  }
+
+
+
+  /**
+   * Retrieves the values associated with the keys in the specified range, in
+   * key order.  Only the parts of the tree that can contain keys in the range
+   * will be examined.
+   *
+   * @param  lowerBound  The smallest key to include.  It may be {@code null}
+   *                     if there should be no lower bound.
+   * @param  upperBound  The largest key to include.  It may be {@code null}
+   *                     if there should be no upper bound.
+   *
+   * @return  The values associated with the keys in the specified range, or
+   *          an empty list if there are no such keys.
+   */
+  List<V> valuesInRange(final K lowerBound, final K upperBound)
+  {
+    final ArrayList<V> values = new ArrayList<>(10);
+    addValuesInRange(root, lowerBound, upperBound, values);
+    return values;
+  }
+
+
+
+  /**
+   * Adds the values associated with the keys in the specified range of the
+   * provided subtree to the given list, in key order.
+   *
+   * @param  n           The root of the subtree to examine, if any.
+   * @param  lowerBound  The smallest key to include, if any.
+   * @param  upperBound  The largest key to include, if any.
+   * @param  values      The list to which the values should be added.
+   */
+  private void addValuesInRange(final Node<K,V> n, final K lowerBound,
+                                final K upperBound, final List<V> values)
+  {
+    if (n == null)
+    {
+      return;
+    }
+
+    final boolean atOrAboveLower =
+         ((lowerBound == null) || (compare(lowerBound, n.getKey()) <= 0));
+    final boolean atOrBelowUpper =
+         ((upperBound == null) || (compare(upperBound, n.getKey()) >= 0));
+
+    if (atOrAboveLower)
+    {
+      addValuesInRange(n.left, lowerBound, upperBound, values);
+    }
+
+    if (atOrAboveLower && atOrBelowUpper)
+    {
+      values.add(n.getValue());
+    }
+
+    if (atOrBelowUpper)
+    {
+      addValuesInRange(n.right, lowerBound, upperBound, values);
+    }
+  }
+
+
+
+  /**
+   * Ensures that this map may be altered.
+   *
+   * @throws  UnsupportedOperationException  If this map is immutable.
+   */
+  private void ensureMutable()
+          throws UnsupportedOperationException
+  {
+    if (! mutable)
+    {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+
+
+  /**
+   * Compares the provided keys.
+   *
+   * @param  k1  The first key to compare.
+   * @param  k2  The second key to compare.
+   *
+   * @return  A negative value if the first key should be ordered before the
+   *          second, a positive value if the first key should be ordered after
+   *          the second, or zero if they are equal.
+   */
+  @SuppressWarnings("unchecked")
+  private int compare(final Object k1, final K k2)
+  {
+    if (comparator == null)
+    {
+      return ((Comparable<Object>) k1).compareTo(k2);
+    }
+    else
+    {
+      return comparator.compare((K) k1, k2);
+    }
+  }
+
+
+
+  /**
+   * Retrieves the node with the specified key.
+   *
+   * @param  key  The key for which to retrieve the node.
+   *
+   * @return  The node with the specified key, or {@code null} if there is no
+   *          such node.
+   */
+  private Node<K,V> find(final Object key)
+  {
+    if (key == null)
+    {
+      return null;
+    }
+
+    Node<K,V> n = root;
+    while (n != null)
+    {
+      final int c = compare(key, n.getKey());
+      if (c < 0)
+      {
+        n = n.left;
+      }
+      else if (c > 0)
+      {
+        n = n.right;
+      }
+      else
+      {
+        return n;
+      }
+    }
+
+    return null;
+  }
+
+
+
+  /**
+   * Retrieves the root of a tree that is the result of setting the value for
+   * the given key in the tree with the provided root.
+   *
+   * @param  n      The root of the tree to update.
+   * @param  key    The key to set.
+   * @param  value  The value to associate with the key.
+   *
+   * @return  The root of the updated tree.
+   */
+  private Node<K,V> insert(final Node<K,V> n, final K key, final V value)
+  {
+    if (n == null)
+    {
+      return new Node<>(key, value, null, null);
+    }
+
+    final int c = compare(key, n.getKey());
+    if (c < 0)
+    {
+      return balance(n.getKey(), n.getValue(), insert(n.left, key, value),
+           n.right);
+    }
+    else if (c > 0)
+    {
+      return balance(n.getKey(), n.getValue(), n.left,
+           insert(n.right, key, value));
+    }
+    else if (n.getValue() == value)
+    {
+      return n;
+    }
+    else
+    {
+      return new Node<>(n.getKey(), value, n.left, n.right);
+    }
+  }
+
+
+
+  /**
+   * Retrieves the root of a tree that is the result of removing the given key
+   * from the tree with the provided root.
+   *
+   * @param  n    The root of the tree to update.
+   * @param  key  The key to remove.
+   *
+   * @return  The root of the updated tree.  It will be the provided node if
+   *          the key was not present in the tree.
+   */
+  private Node<K,V> delete(final Node<K,V> n, final Object key)
+  {
+    if ((n == null) || (key == null))
+    {
+      return n;
+    }
+
+    final int c = compare(key, n.getKey());
+    if (c < 0)
+    {
+      final Node<K,V> left = delete(n.left, key);
+      if (left == n.left)
+      {
+        return n;
+      }
+
+      return balance(n.getKey(), n.getValue(), left, n.right);
+    }
+    else if (c > 0)
+    {
+      final Node<K,V> right = delete(n.right, key);
+      if (right == n.right)
+      {
+        return n;
+      }
+
+      return balance(n.getKey(), n.getValue(), n.left, right);
+    }
+    else if (n.left == null)
+    {
+      return n.right;
+    }
+    else if (n.right == null)
+    {
+      return n.left;
+    }
+    else
+    {
+      Node<K,V> successor = n.right;
+      while (successor.left != null)
+      {
+        successor = successor.left;
+      }
+
+      return balance(successor.getKey(), successor.getValue(), n.left,
+           deleteFirst(n.right));
+    }
+  }
+
+
+
+  /**
+   * Retrieves the root of a tree that is the result of removing the first node
+   * from the tree with the provided root.
+   *
+   * @param  n  The root of the tree to update.  It must not be {@code null}.
+   *
+   * @return  The root of the updated tree.
+   */
+  private static <K,V> Node<K,V> deleteFirst(final Node<K,V> n)
+  {
+    if (n.left == null)
+    {
+      return n.right;
+    }
+
+    return balance(n.getKey(), n.getValue(), deleteFirst(n.left), n.right);
+  }
+
+
+
+  /**
+   * Creates a node with the provided information, performing any rotation
+   * needed to keep the tree balanced.  The heights of the provided subtrees
+   * must not differ by more than two.
+   *
+   * @param  key    The key for the node.
+   * @param  value  The value for the node.
+   * @param  left   The left subtree for the node, if any.
+   * @param  right  The right subtree for the node, if any.
+   *
+   * @return  The root of the balanced tree.
+   */
+  private static <K,V> Node<K,V> balance(final K key, final V value,
+                                         final Node<K,V> left,
+                                         final Node<K,V> right)
+  {
+    final int leftHeight = height(left);
+    final int rightHeight = height(right);
+    if (leftHeight > (rightHeight + 1))
+    {
+      if (height(left.left) >= height(left.right))
+      {
+        return new Node<>(left.getKey(), left.getValue(), left.left,
+             new Node<>(key, value, left.right, right));
+      }
+      else
+      {
+        final Node<K,V> lr = left.right;
+        return new Node<>(lr.getKey(), lr.getValue(),
+             new Node<>(left.getKey(), left.getValue(), left.left, lr.left),
+             new Node<>(key, value, lr.right, right));
+      }
+    }
+    else if (rightHeight > (leftHeight + 1))
+    {
+      if (height(right.right) >= height(right.left))
+      {
+        return new Node<>(right.getKey(), right.getValue(),
+             new Node<>(key, value, left, right.left), right.right);
+      }
+      else
+      {
+        final Node<K,V> rl = right.left;
+        return new Node<>(rl.getKey(), rl.getValue(),
+             new Node<>(key, value, left, rl.left),
+             new Node<>(right.getKey(), right.getValue(), rl.right,
+                  right.right));
+      }
+    }
+    else
+    {
+      return new Node<>(key, value, left, right);
+    }
+  }
+
+
+
+  /**
+   * Retrieves the height of the provided subtree.
+   *
+   * @param  n  The root of the subtree, if any.
+   *
+   * @return  The height of the provided subtree.
+   */
+  private static int height(final Node<?,?> n)
+  {
+    return (n == null) ? 0 : n.height;
+  }
+
+
+
+  /**
+   * Retrieves the number of nodes in the provided subtree.
+   *
+   * @param  n  The root of the subtree, if any.
+   *
+   * @return  The number of nodes in the provided subtree.
+   */
+  private static int size(final Node<?,?> n)
+  {
+    return (n == null) ? 0 : n.size;
+  }
+
+
+
+  /**
+   * Creates a balanced tree from the provided sorted keys and values.
+   *
+   * @param  keys    The sorted keys.
+   * @param  values  The values associated with the keys.
+   * @param  start   The position of the first key to include.
+   * @param  end     The position after the last key to include.
+   *
+   * @return  The root of the tree that was created.
+   */
+  private static <K,V> Node<K,V> build(final List<K> keys,
+                                       final List<V> values,
+                                       final int start, final int end)
+  {
+    if (start >= end)
+    {
+      return null;
+    }
+
+    final int middle = (start + end) >>> 1;
+    return new Node<>(keys.get(middle), values.get(middle),
+         build(keys, values, start, middle),
+         build(keys, values, middle+1, end));
+  }
+
+
+
+  /**
+   * Writes the content of this map to the provided stream.
+   *
+   * @param  out  The stream to which the content should be written.
+   *
+   * @throws  IOException  If a problem occurs while writing the content.
+   */
+  private void writeObject(final ObjectOutputStream out)
+          throws IOException
+  {
+    out.defaultWriteObject();
+    out.writeInt(size());
+    for (final Map.Entry<K,V> e : entrySet())
+    {
+      out.writeObject(e.getKey());
+      out.writeObject(e.getValue());
+    }
+  }
+
+
+
+  /**
+   * Reads the content of this map from the provided stream.
+   *
+   * @param  in  The stream from which the content should be read.
+   *
+   * @throws  IOException  If a problem occurs while reading the content.
+   *
+   * @throws  ClassNotFoundException  If the stream references an unknown
+   *                                  class.
+   */
+  @SuppressWarnings("unchecked")
+  private void readObject(final ObjectInputStream in)
+          throws IOException, ClassNotFoundException
+  {
+    in.defaultReadObject();
+
+    final int size = in.readInt();
+    final List<K> keys = new ArrayList<>(size);
+    final List<V> values = new ArrayList<>(size);
+    for (int i=0; i < size; i++)
+    {
+      keys.add((K) in.readObject());
+      values.add((V) in.readObject());
+    }
+
+    root = build(keys, values, 0, size);
+  }
+
+
+
+  /**
+   * An immutable tree node.
+   *
+   * @param  <K>  The type of key used in the map.
+   * @param  <V>  The type of value used in the map.
+   */
+  private static final class Node<K,V>
+          extends AbstractMap.SimpleImmutableEntry<K,V>
+  {
+    /**
+     * The serial version UID for this serializable class.
+     */
+    private static final long serialVersionUID = -4391527164734582931L;
+
+
+
+    // The height of the subtree rooted at this node.
+    private final int height;
+
+    // The number of nodes in the subtree rooted at this node.
+    private final int size;
+
+    // The left child for this node, if any.
+    private final Node<K,V> left;
+
+    // The right child for this node, if any.
+    private final Node<K,V> right;
+
+
+
+    /**
+     * Creates a new node with the provided information.
+     *
+     * @param  key    The key for this node.
+     * @param  value  The value for this node.
+     * @param  left   The left child for this node, if any.
+     * @param  right  The right child for this node, if any.
+     */
+    private Node(final K key, final V value, final Node<K,V> left,
+                 final Node<K,V> right)
+    {
+      super(key, value);
+
+      this.left  = left;
+      this.right = right;
+
+      height = Math.max(height(left), height(right)) + 1;
+      size = size(left) + size(right) + 1;
+    }
+  }
+
+
+
+  /**
+   * The set of entries in a version of the map.
+   */
+  private final class EntrySet
+          extends AbstractSet<Map.Entry<K,V>>
+  {
+    // The root of the tree whose entries are included in this set.
+    private final Node<K,V> setRoot;
+
+
+
+    /**
+     * Creates a new entry set for the current content of the map.
+     */
+    private EntrySet()
+    {
+      setRoot = root;
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public int size()
+    {
+      return PersistentTreeMap.size(setRoot);
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public Iterator<Map.Entry<K,V>> iterator()
+    {
+      return new EntryIterator(setRoot);
+    }
+  }
+
+
+
+  /**
+   * An iterator that performs an in-order traversal of a version of the map.
+   */
+  private final class EntryIterator
+          implements Iterator<Map.Entry<K,V>>
+  {
+    // The nodes whose entries and right subtrees remain to be visited.
+    private final ArrayList<Node<K,V>> stack;
+
+    // The node most recently returned by this iterator.
+    private Node<K,V> lastReturned;
+
+
+
+    /**
+     * Creates a new iterator for the tree with the provided root.
+     *
+     * @param  iteratorRoot  The root of the tree to iterate over.
+     */
+    private EntryIterator(final Node<K,V> iteratorRoot)
+    {
+      stack = new ArrayList<>(height(iteratorRoot));
+      lastReturned = null;
+      pushLeft(iteratorRoot);
+    }
+
+
+
+    /**
+     * Pushes the provided node and all of its left descendants onto the stack.
+     *
+     * @param  node  The node to push onto the stack, if any.
+     */
+    private void pushLeft(final Node<K,V> node)
+    {
+      Node<K,V> n = node;
+      while (n != null)
+      {
+        stack.add(n);
+        n = n.left;
+      }
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public boolean hasNext()
+    {
+      return (! stack.isEmpty());
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public Map.Entry<K,V> next()
+    {
+      if (stack.isEmpty())
+      {
+        throw new NoSuchElementException();
+      }
+
+      final Node<K,V> n = stack.remove(stack.size() - 1);
+      pushLeft(n.right);
+      lastReturned = n;
+      return n;
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void remove()
+    {
+      if (lastReturned == null)
+      {
+        throw new IllegalStateException();
+      }
+
+      PersistentTreeMap.this.remove(lastReturned.getKey());
+      lastReturned = null;
+    }
+  }
+}
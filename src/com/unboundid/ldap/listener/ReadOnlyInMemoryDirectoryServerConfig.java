@@ -517,6 +517,141 @@ public final class ReadOnlyInMemoryDirectoryServerConfig
 
 
 
+  /**
+   * {@inheritDoc}  The returned list will not be modifiable.
+   */
+  @Override()
+  public List<String> getSubstringIndexAttributes()
+  {
+    return Collections.unmodifiableList(super.getSubstringIndexAttributes());
+  }
+
+
+
+  /**
+   * {@inheritDoc}  This method will always throw an
+   * {@code UnsupportedOperationException}.
+   *
+   * @throws  UnsupportedOperationException  To indicate that this object cannot
+   *                                         be altered.
+   */
+  @Override()
+  public void setSubstringIndexAttributes(
+                   final String... substringIndexAttributes)
+         throws UnsupportedOperationException
+  {
+    throw new UnsupportedOperationException();
+  }
+
+
+
+  /**
+   * {@inheritDoc}  This method will always throw an
+   * {@code UnsupportedOperationException}.
+   *
+   * @throws  UnsupportedOperationException  To indicate that this object cannot
+   *                                         be altered.
+   */
+  @Override()
+  public void setSubstringIndexAttributes(
+                   final Collection<String> substringIndexAttributes)
+         throws UnsupportedOperationException
+  {
+    throw new UnsupportedOperationException();
+  }
+
+
+
+  /**
+   * {@inheritDoc}  The returned list will not be modifiable.
+   */
+  @Override()
+  public List<String> getOrderingIndexAttributes()
+  {
+    return Collections.unmodifiableList(super.getOrderingIndexAttributes());
+  }
+
+
+
+  /**
+   * {@inheritDoc}  This method will always throw an
+   * {@code UnsupportedOperationException}.
+   *
+   * @throws  UnsupportedOperationException  To indicate that this object cannot
+   *                                         be altered.
+   */
+  @Override()
+  public void setOrderingIndexAttributes(
+                   final String... orderingIndexAttributes)
+         throws UnsupportedOperationException
+  {
+    throw new UnsupportedOperationException();
+  }
+
+
+
+  /**
+   * {@inheritDoc}  This method will always throw an
+   * {@code UnsupportedOperationException}.
+   *
+   * @throws  UnsupportedOperationException  To indicate that this object cannot
+   *                                         be altered.
+   */
+  @Override()
+  public void setOrderingIndexAttributes(
+                   final Collection<String> orderingIndexAttributes)
+         throws UnsupportedOperationException
+  {
+    throw new UnsupportedOperationException();
+  }
+
+
+
+  /**
+   * {@inheritDoc}  The returned list will not be modifiable.
+   */
+  @Override()
+  public List<String> getPresenceIndexAttributes()
+  {
+    return Collections.unmodifiableList(super.getPresenceIndexAttributes());
+  }
+
+
+
+  /**
+   * {@inheritDoc}  This method will always throw an
+   * {@code UnsupportedOperationException}.
+   *
+   * @throws  UnsupportedOperationException  To indicate that this object cannot
+   *                                         be altered.
+   */
+  @Override()
+  public void setPresenceIndexAttributes(
+                   final String... presenceIndexAttributes)
+         throws UnsupportedOperationException
+  {
+    throw new UnsupportedOperationException();
+  }
+
+
+
+  /**
+   * {@inheritDoc}  This method will always throw an
+   * {@code UnsupportedOperationException}.
+   *
+   * @throws  UnsupportedOperationException  To indicate that this object cannot
+   *                                         be altered.
+   */
+  @Override()
+  public void setPresenceIndexAttributes(
+                   final Collection<String> presenceIndexAttributes)
+         throws UnsupportedOperationException
+  {
+    throw new UnsupportedOperationException();
+  }
+
+
+
   /**
    * {@inheritDoc}  The returned set will not be modifiable.
    */
@@ -1143,6 +1143,44 @@ public final class LDAPMessage
                                   final boolean ignoreSocketTimeout,
                                   final Schema schema)
          throws LDAPException
+  {
+    return readLDAPResponseFrom(reader, ignoreSocketTimeout, schema, false);
+  }
+
+
+
+  /**
+   * Reads {@link LDAPResponse} object from the provided ASN.1 stream reader.
+   *
+   * @param  reader               The ASN.1 stream reader from which the LDAP
+   *                              message should be read.
+   * @param  ignoreSocketTimeout  Indicates whether to ignore socket timeout
+   *                              exceptions caught during processing.  This
+   *                              should be {@code true} when the associated
+   *                              connection is operating in asynchronous mode,
+   *                              and {@code false} when operating in
+   *                              synchronous mode.  In either case, exceptions
+   *                              will not be ignored for the first read, since
+   *                              that will be handled by the connection reader.
+   * @param  schema               The schema to use to select the appropriate
+   *                              matching rule for attributes included in the
+   *                              response.
+   * @param  lazyEntryDecoding    Indicates whether the attributes of any search
+   *                              result entry should be left in encoded form
+   *                              until they are first accessed, rather than
+   *                              decoded immediately.
+   *
+   * @return  The decoded LDAP message, or {@code null} if the end of the input
+   *          stream has been reached..
+   *
+   * @throws  LDAPException  If an error occurs while attempting to read or
+   *                         decode the LDAP message.
+   */
+  public static LDAPResponse readLDAPResponseFrom(final ASN1StreamReader reader,
+                                  final boolean ignoreSocketTimeout,
+                                  final Schema schema,
+                                  final boolean lazyEntryDecoding)
+         throws LDAPException
   {
     final ASN1StreamReaderSequence messageSequence;
     try
@@ -1203,7 +1241,7 @@ public final class LDAPMessage
 
         case PROTOCOL_OP_TYPE_SEARCH_RESULT_ENTRY:
           return InternalSDKHelper.readSearchResultEntryFrom(messageID,
-                      messageSequence, reader, schema);
+                      messageSequence, reader, schema, lazyEntryDecoding);
 
         case PROTOCOL_OP_TYPE_SEARCH_RESULT_REFERENCE:
           return InternalSDKHelper.readSearchResultReferenceFrom(messageID,
@@ -433,6 +433,55 @@ public abstract class AbstractConnectionPool
 
 
 
+  /**
+   * Retrieves the processor that should be used to hedge read operations
+   * processed through this pool, if any.
+   *
+   * @return  The processor that should be used to hedge read operations, or
+   *          {@code null} if read operations should not be hedged.
+   */
+  HedgedReadProcessor getHedgedReadProcessor()
+  {
+    return null;
+  }
+
+
+
+  /**
+   * Retrieves the coalescer that should be used to allow identical concurrent
+   * searches processed through this pool to share a single request, if any.
+   *
+   * @return  The coalescer that should be used for searches processed through
+   *          this pool, or {@code null} if searches should not be coalesced.
+   */
+  SearchCoalescer getSearchCoalescer()
+  {
+    return null;
+  }
+
+
+
+  /**
+   * Ensures that the provided request, which may alter the state of the
+   * connection used to process it, may be processed through this pool.  This
+   * will be invoked for each bind and extended request before a connection is
+   * checked out to process it.  By default, all such requests are allowed,
+   * but pools in which a connection may be used to process multiple operations
+   * at the same time may reject them.
+   *
+   * @param  request  The bind or extended request to be processed.
+   *
+   * @throws  LDAPException  If the request may not be processed through this
+   *                         pool.
+   */
+  void ensureStateChangeAllowed(final LDAPRequest request)
+       throws LDAPException
+  {
+    // No implementation is required by default.
+  }
+
+
+
   /**
    * Retrieves the directory server root DSE using a connection from this
    * connection pool.
@@ -608,6 +657,53 @@ public abstract class AbstractConnectionPool
                                           final String... attributes)
          throws LDAPException
   {
+    final SearchCoalescer searchCoalescer = getSearchCoalescer();
+    if (searchCoalescer != null)
+    {
+      return searchCoalescer.searchForEntry(new SearchRequest(dn,
+           SearchScope.BASE, DereferencePolicy.NEVER, 1, 0, false,
+           Filter.createPresenceFilter("objectClass"), attributes));
+    }
+
+    final HedgedReadProcessor hedgedReadProcessor = getHedgedReadProcessor();
+    if (hedgedReadProcessor != null)
+    {
+      final SearchRequest searchRequest = new SearchRequest(dn,
+           SearchScope.BASE, DereferencePolicy.NEVER, 1, 0, false,
+           Filter.createPresenceFilter("objectClass"), attributes);
+
+      final SearchResult result;
+      try
+      {
+        result = hedgedReadProcessor.search(searchRequest);
+      }
+      catch (final LDAPSearchException lse)
+      {
+        Debug.debugException(lse);
+        if (lse.getResultCode().equals(ResultCode.NO_SUCH_OBJECT))
+        {
+          return null;
+        }
+        else
+        {
+          throw lse;
+        }
+      }
+
+      if (result != null)
+      {
+        final List<SearchResultEntry> entryList = result.getSearchEntries();
+        if (entryList.isEmpty())
+        {
+          return null;
+        }
+        else
+        {
+          return entryList.get(0);
+        }
+      }
+    }
+
     final LDAPConnection conn = getConnection();
 
     try
@@ -858,6 +954,8 @@ public abstract class AbstractConnectionPool
   public final BindResult bind(final BindRequest bindRequest)
          throws LDAPException
   {
+    ensureStateChangeAllowed(bindRequest);
+
     final LDAPConnection conn = getConnection();
 
     try
@@ -937,6 +1035,16 @@ public abstract class AbstractConnectionPool
   public final CompareResult compare(final CompareRequest compareRequest)
          throws LDAPException
   {
+    final HedgedReadProcessor hedgedReadProcessor = getHedgedReadProcessor();
+    if (hedgedReadProcessor != null)
+    {
+      final CompareResult result = hedgedReadProcessor.compare(compareRequest);
+      if (result != null)
+      {
+        return result;
+      }
+    }
+
     final LDAPConnection conn = getConnection();
 
     try
@@ -1169,6 +1277,8 @@ public abstract class AbstractConnectionPool
                               ERR_POOL_STARTTLS_NOT_ALLOWED.get());
     }
 
+    ensureStateChangeAllowed(extendedRequest);
+
     final LDAPConnection conn = getConnection();
 
     try
@@ -2040,6 +2150,46 @@ public abstract class AbstractConnectionPool
   public final SearchResult search(final SearchRequest searchRequest)
          throws LDAPSearchException
   {
+    final SearchCoalescer searchCoalescer = getSearchCoalescer();
+    if (searchCoalescer != null)
+    {
+      return searchCoalescer.search(searchRequest);
+    }
+
+    return processSearch(searchRequest);
+  }
+
+
+
+  /**
+   * Processes the provided search request using a connection from this
+   * connection pool, without attempting to coalesce it with any identical
+   * search that may already be in progress.
+   *
+   * @param  searchRequest  The search request to be processed.  It must not be
+   *                        {@code null}.
+   *
+   * @return  A search result object that provides information about the
+   *          processing of the search.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               or if a problem is encountered while sending
+   *                               the request or reading the response.
+   */
+  final SearchResult processSearch(final SearchRequest searchRequest)
+         throws LDAPSearchException
+  {
+    final HedgedReadProcessor hedgedReadProcessor = getHedgedReadProcessor();
+    if ((hedgedReadProcessor != null) &&
+        (searchRequest.getSearchResultListener() == null))
+    {
+      final SearchResult result = hedgedReadProcessor.search(searchRequest);
+      if (result != null)
+      {
+        return result;
+      }
+    }
+
     final LDAPConnection conn;
     try
     {
@@ -2133,6 +2283,51 @@ public abstract class AbstractConnectionPool
 
 
 
+  /**
+   * Processes the provided search request with flow control using a
+   * connection from this connection pool, so that search result entries and
+   * references are only delivered to the provided subscriber as it requests
+   * them.  See the {@link LDAPConnection#streamSearch} method for details.
+   * The connection will be checked out of the pool for the duration of the
+   * search, and it will be released back to the pool after the subscriber has
+   * been notified of the search result or after the subscription has been
+   * cancelled.  Because the subscriber controls how long the search takes, it
+   * should be careful not to hold connections for longer than necessary.
+   *
+   * @param  searchRequest  The search request to be processed.  It must not be
+   *                        {@code null}.
+   * @param  subscriber     The subscriber to which the search results should
+   *                        be delivered.  It must not be {@code null}.
+   *
+   * @return  An async request ID that may be used to reference the operation.
+   *
+   * @throws  LDAPException  If a problem occurs while obtaining a connection
+   *                         or sending the request.
+   */
+  public final AsyncRequestID streamSearch(final SearchRequest searchRequest,
+                                     final SearchResultSubscriber subscriber)
+         throws LDAPException
+  {
+    Validator.ensureNotNull(searchRequest, subscriber);
+
+    final LDAPConnection conn = getConnection();
+    final PooledSearchResultSubscriber pooledSubscriber =
+         new PooledSearchResultSubscriber(this, conn, subscriber);
+
+    try
+    {
+      return conn.streamSearch(searchRequest, pooledSubscriber);
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      pooledSubscriber.releaseConnection(le);
+      throw le;
+    }
+  }
+
+
+
   /**
    * Processes a search operation with the provided information using a
    * connection from this connection pool.  It is expected that at most one
@@ -2409,6 +2604,12 @@ public abstract class AbstractConnectionPool
                                       final SearchRequest searchRequest)
          throws LDAPSearchException
   {
+    final SearchCoalescer searchCoalescer = getSearchCoalescer();
+    if (searchCoalescer != null)
+    {
+      return searchCoalescer.searchForEntry(searchRequest);
+    }
+
     final LDAPConnection conn;
     try
     {
@@ -2646,6 +2847,93 @@ requestLoop:
 
 
 
+  /**
+   * Processes multiple requests using pipelining, so that multiple requests
+   * may be outstanding at the same time rather than waiting for the response to
+   * each request before sending the next.  Requests will be sent in the order
+   * they are provided, spread across up to the specified number of connections
+   * from this pool, with no more than the specified number of requests
+   * outstanding on any one connection at a time.  This can dramatically
+   * improve throughput when the round-trip time to the server is significant
+   * relative to the time required to process each request.
+   * <BR><BR>
+   * Only add, compare, delete, modify, and modify DN requests may be processed
+   * in this manner.  Because multiple requests may be in progress at the same
+   * time, there is no guarantee that the server will process them in the order
+   * they were sent, and requests that depend on the outcome of an earlier
+   * request (for example, adding an entry beneath one created by an earlier
+   * request in the same list) should not be processed using this method unless
+   * at most one request will be outstanding at a time.  Note that the
+   * {@link #retryFailedOperationsDueToInvalidConnections()} setting will be
+   * ignored when processing the provided operations, so that any failed
+   * operations will not be retried.
+   *
+   * @param  requests                             The list of requests to be
+   *                                              processed.  It must not be
+   *                                              {@code null} or empty, and
+   *                                              it must contain only add,
+   *                                              compare, delete, modify, and
+   *                                              modify DN requests.
+   * @param  continueOnError                      Indicates whether to send
+   *                                              subsequent requests if any of
+   *                                              the operations does not
+   *                                              complete successfully.  If
+   *                                              this is {@code false}, then
+   *                                              no new requests will be sent
+   *                                              once a failure has been
+   *                                              detected, although requests
+   *                                              that were already outstanding
+   *                                              will be allowed to complete.
+   * @param  maxOutstandingRequestsPerConnection  The maximum number of requests
+   *                                              that may be outstanding on
+   *                                              each connection at any time.
+   *                                              It must be greater than zero.
+   * @param  maxConnections                       The maximum number of
+   *                                              connections from this pool to
+   *                                              use to process the requests.
+   *                                              It must be greater than zero.
+   *                                              Fewer connections may be used
+   *                                              if not enough are available.
+   *
+   * @return  The set of results from the requests that were sent.  The order of
+   *          result objects will correspond to the order of the request
+   *          objects, although the list of results may contain fewer elements
+   *          than the list of requests if an error occurred during processing
+   *          and {@code continueOnError} is {@code false}.  In that case, the
+   *          list will include results for all requests that were outstanding
+   *          when the failure was detected, which may include results for
+   *          requests that were sent after the request that failed.
+   *
+   * @throws  LDAPException  If any of the provided requests is not of a type
+   *                         that may be processed in this manner, if a problem
+   *                         occurs while trying to obtain a connection to use
+   *                         for the requests, if the connections in this pool
+   *                         operate in synchronous mode, or if the thread is
+   *                         interrupted while waiting for responses.
+   */
+  public final List<LDAPResult> processRequests(
+                     final List<LDAPRequest> requests,
+                     final boolean continueOnError,
+                     final int maxOutstandingRequestsPerConnection,
+                     final int maxConnections)
+         throws LDAPException
+  {
+    Validator.ensureNotNull(requests);
+    Validator.ensureFalse(requests.isEmpty(),
+         "LDAPConnectionPool.processRequests.requests must not be empty.");
+    Validator.ensureTrue((maxOutstandingRequestsPerConnection > 0),
+         "LDAPConnectionPool.processRequests." +
+              "maxOutstandingRequestsPerConnection must be greater than zero.");
+    Validator.ensureTrue((maxConnections > 0),
+         "LDAPConnectionPool.processRequests.maxConnections must be greater " +
+              "than zero.");
+
+    return new PipelinedRequestProcessor(this, requests, continueOnError,
+         maxOutstandingRequestsPerConnection, maxConnections).processRequests();
+  }
+
+
+
   /**
    * Processes multiple requests over a single connection from this pool using
    * asynchronous processing to cause the operations to be processed
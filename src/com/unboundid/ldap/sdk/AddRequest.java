@@ -29,8 +29,6 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Timer;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import com.unboundid.asn1.ASN1Buffer;
@@ -96,9 +94,10 @@ public final class AddRequest
 
 
 
-  // The queue that will be used to receive response messages from the server.
-  private final LinkedBlockingQueue<LDAPResponse> responseQueue =
-       new LinkedBlockingQueue<>();
+  // The handoff that will be used to receive the response message from the
+  // server.
+  private final LDAPResponseHandoff responseHandoff =
+       new LDAPResponseHandoff();
 
   // The set of attributes to include in the entry to add.
   private ArrayList<Attribute> attributes;
@@ -377,6 +376,7 @@ public final class AddRequest
    */
   public void setDN(final String dn)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(dn);
 
     this.dn = dn;
@@ -391,6 +391,7 @@ public final class AddRequest
    */
   public void setDN(final DN dn)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(dn);
 
     this.dn = dn.toString();
@@ -547,6 +548,7 @@ public final class AddRequest
    */
   public void setAttributes(final Attribute[] attributes)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(attributes);
 
     this.attributes.clear();
@@ -563,6 +565,7 @@ public final class AddRequest
    */
   public void setAttributes(final Collection<Attribute> attributes)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(attributes);
 
     this.attributes.clear();
@@ -579,6 +582,7 @@ public final class AddRequest
    */
   public void addAttribute(final Attribute attribute)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(attribute);
 
     for (int i=0 ; i < attributes.size(); i++)
@@ -606,6 +610,7 @@ public final class AddRequest
    */
   public void addAttribute(final String name, final String value)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(name, value);
     addAttribute(new Attribute(name, value));
   }
@@ -622,6 +627,7 @@ public final class AddRequest
    */
   public void addAttribute(final String name, final byte[] value)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(name, value);
     addAttribute(new Attribute(name, value));
   }
@@ -638,6 +644,7 @@ public final class AddRequest
    */
   public void addAttribute(final String name, final String... values)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(name, values);
     addAttribute(new Attribute(name, values));
   }
@@ -654,6 +661,7 @@ public final class AddRequest
    */
   public void addAttribute(final String name, final byte[]... values)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(name, values);
     addAttribute(new Attribute(name, values));
   }
@@ -672,6 +680,7 @@ public final class AddRequest
    */
   public boolean removeAttribute(final String attributeName)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(attributeName);
 
     final Iterator<Attribute> iterator = attributes.iterator();
@@ -704,6 +713,7 @@ public final class AddRequest
    */
   public boolean removeAttributeValue(final String name, final String value)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(name, value);
 
     int pos = -1;
@@ -759,6 +769,7 @@ public final class AddRequest
    */
   public boolean removeAttribute(final String name, final byte[] value)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(name, value);
 
     int pos = -1;
@@ -809,6 +820,7 @@ public final class AddRequest
    */
   public void replaceAttribute(final Attribute attribute)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(attribute);
 
     for (int i=0; i < attributes.size(); i++)
@@ -836,6 +848,7 @@ public final class AddRequest
    */
   public void replaceAttribute(final String name, final String value)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(name, value);
 
     for (int i=0; i < attributes.size(); i++)
@@ -863,6 +876,7 @@ public final class AddRequest
    */
   public void replaceAttribute(final String name, final byte[] value)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(name, value);
 
     for (int i=0; i < attributes.size(); i++)
@@ -890,6 +904,7 @@ public final class AddRequest
    */
   public void replaceAttribute(final String name, final String... values)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(name, values);
 
     for (int i=0; i < attributes.size(); i++)
@@ -917,6 +932,7 @@ public final class AddRequest
    */
   public void replaceAttribute(final String name, final byte[]... values)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(name, values);
 
     for (int i=0; i < attributes.size(); i++)
@@ -950,6 +966,11 @@ public final class AddRequest
   @Override()
   public void writeTo(final ASN1Buffer buffer)
   {
+    if (writeUsingTemplate(buffer))
+    {
+      return;
+    }
+
     final ASN1BufferSequence requestSequence =
          buffer.beginSequence(LDAPMessage.PROTOCOL_OP_TYPE_ADD_REQUEST);
     buffer.addOctetString(dn);
@@ -974,6 +995,12 @@ public final class AddRequest
   @Override()
   public ASN1Element encodeProtocolOp()
   {
+    final ASN1Element templateElement = encodeUsingTemplate();
+    if (templateElement != null)
+    {
+      return templateElement;
+    }
+
     // Create the add request protocol op.
     final ASN1Element[] attrElements = new ASN1Element[attributes.size()];
     for (int i=0; i < attrElements.length; i++)
@@ -1033,11 +1060,11 @@ public final class AddRequest
         final long responseTimeout = getResponseTimeoutMillis(connection);
         if (responseTimeout > 0)
         {
-          response = responseQueue.poll(responseTimeout, TimeUnit.MILLISECONDS);
+          response = responseHandoff.poll(responseTimeout);
         }
         else
         {
-          response = responseQueue.take();
+          response = responseHandoff.take();
         }
       }
       catch (final InterruptedException ie)
@@ -1093,6 +1120,7 @@ public final class AddRequest
     if (resultListener == null)
     {
       asyncRequestID = null;
+      responseHandoff.clear();
       connection.registerResponseAcceptor(messageID, this);
     }
     else
@@ -1520,7 +1548,7 @@ public final class AddRequest
   {
     try
     {
-      responseQueue.put(response);
+      responseHandoff.put(response);
     }
     catch (final Exception e)
     {
@@ -164,6 +164,7 @@ public final class AsyncRequestID
                 INFO_ASYNC_REQUEST_USER_CANCELED.get(), null,
                 StaticUtils.NO_STRINGS, StaticUtils.NO_CONTROLS));
 
+      cancelTimerTask();
       connection.abandon(this);
     }
     catch (final Exception e)
@@ -341,7 +342,18 @@ public final class AsyncRequestID
   void setResult(final LDAPResult result)
   {
     resultQueue.offer(result);
+    cancelTimerTask();
+  }
+
+
 
+  /**
+   * Cancels the timer task associated with this request, if there is one, so
+   * that a timeout will not be reported for an operation that has already
+   * completed or been canceled.
+   */
+  private void cancelTimerTask()
+  {
     final AsyncTimeoutTimerTask t = timerTask;
     if (t != null)
     {
@@ -96,10 +96,25 @@ final class AsyncTimeoutTimerTask
              null, StaticUtils.NO_STRINGS, StaticUtils.NO_CONTROLS);
         break;
       case SEARCH:
-        final AsyncSearchHelper searchHelper = (AsyncSearchHelper) helper;
+        final int numEntries;
+        final int numReferences;
+        if (helper instanceof StreamingSearchHelper)
+        {
+          final StreamingSearchHelper streamingHelper =
+               (StreamingSearchHelper) helper;
+          numEntries = streamingHelper.getNumEntries();
+          numReferences = streamingHelper.getNumReferences();
+        }
+        else
+        {
+          final AsyncSearchHelper searchHelper = (AsyncSearchHelper) helper;
+          numEntries = searchHelper.getNumEntries();
+          numReferences = searchHelper.getNumReferences();
+        }
+
         response = new SearchResult(messageID, ResultCode.TIMEOUT, message,
-             null, StaticUtils.NO_STRINGS, searchHelper.getNumEntries(),
-             searchHelper.getNumReferences(), StaticUtils.NO_CONTROLS);
+             null, StaticUtils.NO_STRINGS, numEntries, numReferences,
+             StaticUtils.NO_CONTROLS);
         break;
       default:
         // This should never happen.
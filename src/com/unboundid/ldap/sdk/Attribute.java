@@ -1479,7 +1479,7 @@ public final class Attribute
     try
     {
       Validator.ensureNotNull(reader.beginSequence());
-      final String attrName = reader.readString();
+      final String attrName = reader.readCachedString();
       Validator.ensureNotNull(attrName);
 
       final MatchingRule matchingRule =
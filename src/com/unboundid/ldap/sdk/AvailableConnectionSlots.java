@@ -0,0 +1,451 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.unboundid.util.InternalUseOnly;
+
+
+
+/**
+ * This class provides the data structure used to hold the connections that are
+ * currently available for use in an {@link LDAPConnectionPool}.  It is
+ * intended as a low-contention replacement for a blocking queue, which would
+ * require every checkout and release to acquire the same lock.
+ * <BR><BR>
+ * Connections are held in a fixed number of slots, each of which is padded so
+ * that it resides on its own cache line, and slots are claimed and filled
+ * with atomic compare-and-set operations rather than locks.  Each thread
+ * remembers the slot that it most recently used, and will first try that slot
+ * when it checks out or releases a connection, so that a thread that
+ * repeatedly checks out and releases a connection will tend to keep getting
+ * the same one.  Otherwise, the slots are treated as a ring:  connections are
+ * released into the first empty slot after the one most recently filled, and
+ * checked out from the first occupied slot after the one most recently
+ * emptied, so that connections are generally reused in the order in which
+ * they were released (as they would be with a FIFO queue) and every
+ * connection in the pool remains in use.  A lock is only used when a thread
+ * needs to wait for a connection to become available.
+ */
+@InternalUseOnly()
+final class AvailableConnectionSlots
+      implements Iterable<LDAPConnection>
+{
+  /**
+   * The number of array elements reserved for each slot.  Only the first
+   * element of each group is used, and the others ensure that slots do not
+   * share a cache line.
+   */
+  private static final int SLOT_STRIDE = 16;
+
+
+
+  // The slot at which to begin searching for a connection to check out.
+  private final AtomicInteger nextPollSlot;
+
+  // The slot at which to begin searching for an empty slot in which to place
+  // a released connection.
+  private final AtomicInteger nextOfferSlot;
+
+  // The number of threads currently waiting for a connection to be released.
+  private final AtomicInteger numWaiters;
+
+  // The array holding the slots.
+  private final AtomicReferenceArray<LDAPConnection> slots;
+
+  // The maximum number of connections that may be held.
+  private final int capacity;
+
+  // The object that will be used to wait for a connection to be released.
+  private final Object waitLock;
+
+  // The index of the slot that each thread most recently used.
+  private final ThreadLocal<int[]> lastSlot;
+
+
+
+  /**
+   * Creates a new, empty set of available connection slots.
+   *
+   * @param  capacity  The maximum number of connections that may be held.  It
+   *                   must be greater than zero.
+   */
+  AvailableConnectionSlots(final int capacity)
+  {
+    this.capacity = capacity;
+
+    slots = new AtomicReferenceArray<>(capacity * SLOT_STRIDE);
+    nextPollSlot = new AtomicInteger(0);
+    nextOfferSlot = new AtomicInteger(0);
+    numWaiters = new AtomicInteger(0);
+    waitLock = new Object();
+    lastSlot = new ThreadLocal<int[]>()
+    {
+      @Override()
+      protected int[] initialValue()
+      {
+        return new int[] { -1 };
+      }
+    };
+  }
+
+
+
+  /**
+   * Retrieves the maximum number of connections that may be held.
+   *
+   * @return  The maximum number of connections that may be held.
+   */
+  int getCapacity()
+  {
+    return capacity;
+  }
+
+
+
+  /**
+   * Retrieves and removes an available connection, if there is one.
+   *
+   * @return  The connection that was removed, or {@code null} if no connection
+   *          is currently available.
+   */
+  LDAPConnection poll()
+  {
+    final int[] last = lastSlot.get();
+    final int preferredSlot = last[0];
+    if (preferredSlot >= 0)
+    {
+      final LDAPConnection conn = take(preferredSlot);
+      if (conn != null)
+      {
+        return conn;
+      }
+    }
+
+    final int firstSlot = nextPollSlot.get();
+    for (int i=0; i < capacity; i++)
+    {
+      final int slot = (firstSlot + i) % capacity;
+      if (slot != preferredSlot)
+      {
+        final LDAPConnection conn = take(slot);
+        if (conn != null)
+        {
+          nextPollSlot.set((slot + 1) % capacity);
+          last[0] = slot;
+          return conn;
+        }
+      }
+    }
+
+    return null;
+  }
+
+
+
+  /**
+   * Retrieves and removes an available connection, waiting for up to the
+   * specified length of time for one to be released if necessary.
+   *
+   * @param  timeout  The maximum length of time to wait.
+   * @param  unit     The time unit for the timeout.
+   *
+   * @return  The connection that was removed, or {@code null} if no connection
+   *          became available within the specified length of time.
+   *
+   * @throws  InterruptedException  If the thread is interrupted while waiting.
+   */
+  LDAPConnection poll(final long timeout, final TimeUnit unit)
+                 throws InterruptedException
+  {
+    LDAPConnection conn = poll();
+    if (conn != null)
+    {
+      return conn;
+    }
+
+    final long stopWaitingTime = System.nanoTime() + unit.toNanos(timeout);
+    numWaiters.incrementAndGet();
+    try
+    {
+      synchronized (waitLock)
+      {
+        while (true)
+        {
+          conn = poll();
+          if (conn != null)
+          {
+            return conn;
+          }
+
+          final long remainingNanos = stopWaitingTime - System.nanoTime();
+          if (remainingNanos <= 0L)
+          {
+            return null;
+          }
+
+          TimeUnit.NANOSECONDS.timedWait(waitLock, remainingNanos);
+        }
+      }
+    }
+    finally
+    {
+      numWaiters.decrementAndGet();
+    }
+  }
+
+
+
+  /**
+   * Retrieves and removes the connection held in the specified slot, if any.
+   * This may be used to examine each of the available connections in turn.
+   *
+   * @param  slot  The index of the slot from which to remove the connection.
+   *               It must be greater than or equal to zero and less than the
+   *               capacity.
+   *
+   * @return  The connection that was removed, or {@code null} if the specified
+   *          slot was empty.
+   */
+  LDAPConnection pollSlot(final int slot)
+  {
+    final LDAPConnection conn = take(slot);
+    if (conn != null)
+    {
+      lastSlot.get()[0] = slot;
+    }
+
+    return conn;
+  }
+
+
+
+  /**
+   * Attempts to remove the connection from the specified slot.
+   *
+   * @param  slot  The index of the slot from which to remove the connection.
+   *
+   * @return  The connection that was removed, or {@code null} if the slot was
+   *          empty.
+   */
+  private LDAPConnection take(final int slot)
+  {
+    final int index = slot * SLOT_STRIDE;
+    while (true)
+    {
+      final LDAPConnection conn = slots.get(index);
+      if (conn == null)
+      {
+        return null;
+      }
+
+      if (slots.compareAndSet(index, conn, null))
+      {
+        return conn;
+      }
+    }
+  }
+
+
+
+  /**
+   * Adds the provided connection to the set of available connections.
+   *
+   * @param  connection  The connection to add.  It must not be {@code null}.
+   *
+   * @return  {@code true} if the connection was added, or {@code false} if
+   *          every slot is already full.
+   */
+  boolean offer(final LDAPConnection connection)
+  {
+    final int[] last = lastSlot.get();
+    final int preferredSlot = last[0];
+    if ((preferredSlot < 0) || (! put(preferredSlot, connection)))
+    {
+      boolean added = false;
+      final int firstSlot = nextOfferSlot.get();
+      for (int i=0; i < capacity; i++)
+      {
+        final int slot = (firstSlot + i) % capacity;
+        if ((slot != preferredSlot) && put(slot, connection))
+        {
+          nextOfferSlot.set((slot + 1) % capacity);
+          last[0] = slot;
+          added = true;
+          break;
+        }
+      }
+
+      if (! added)
+      {
+        return false;
+      }
+    }
+
+    if (numWaiters.get() > 0)
+    {
+      synchronized (waitLock)
+      {
+        waitLock.notify();
+      }
+    }
+
+    return true;
+  }
+
+
+
+  /**
+   * Attempts to place the provided connection in the specified slot.
+   *
+   * @param  slot        The index of the slot in which to place the
+   *                     connection.
+   * @param  connection  The connection to place in the slot.
+   *
+   * @return  {@code true} if the connection was placed in the slot, or
+   *          {@code false} if the slot was already full.
+   */
+  private boolean put(final int slot, final LDAPConnection connection)
+  {
+    return slots.compareAndSet((slot * SLOT_STRIDE), null, connection);
+  }
+
+
+
+  /**
+   * Adds all of the provided connections to the set of available connections,
+   * as long as there is room for them.
+   *
+   * @param  connections  The connections to add.
+   *
+   * @return  {@code true} if all of the connections were added, or
+   *          {@code false} if there was not room for all of them.
+   */
+  boolean addAll(final Collection<LDAPConnection> connections)
+  {
+    for (final LDAPConnection c : connections)
+    {
+      if (! offer(c))
+      {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+
+
+  /**
+   * Removes all of the available connections and adds them to the provided
+   * collection.
+   *
+   * @param  c  The collection to which the connections should be added.
+   *
+   * @return  The number of connections that were removed.
+   */
+  int drainTo(final Collection<LDAPConnection> c)
+  {
+    int numDrained = 0;
+    for (int i=0; i < capacity; i++)
+    {
+      final LDAPConnection conn = take(i);
+      if (conn != null)
+      {
+        c.add(conn);
+        numDrained++;
+      }
+    }
+
+    return numDrained;
+  }
+
+
+
+  /**
+   * Retrieves the number of connections that are currently available.  The
+   * value is computed by examining each slot, so it is only a snapshot if other
+   * threads are concurrently checking out or releasing connections.
+   *
+   * @return  The number of connections that are currently available.
+   */
+  int size()
+  {
+    int size = 0;
+    for (int i=0; i < capacity; i++)
+    {
+      if (slots.get(i * SLOT_STRIDE) != null)
+      {
+        size++;
+      }
+    }
+
+    return size;
+  }
+
+
+
+  /**
+   * Retrieves the number of additional connections that could currently be
+   * added.
+   *
+   * @return  The number of additional connections that could currently be
+   *          added.
+   */
+  int remainingCapacity()
+  {
+    return capacity - size();
+  }
+
+
+
+  /**
+   * Retrieves an iterator over a snapshot of the connections that are
+   * currently available.  The connections will not be removed.
+   *
+   * @return  An iterator over a snapshot of the connections that are currently
+   *          available.
+   */
+  @Override()
+  public Iterator<LDAPConnection> iterator()
+  {
+    final List<LDAPConnection> connList = new ArrayList<>(capacity);
+    for (int i=0; i < capacity; i++)
+    {
+      final LDAPConnection conn = slots.get(i * SLOT_STRIDE);
+      if (conn != null)
+      {
+        connList.add(conn);
+      }
+    }
+
+    return connList.iterator();
+  }
+}
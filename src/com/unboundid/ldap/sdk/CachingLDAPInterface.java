@@ -0,0 +1,2384 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.unboundid.ldap.sdk.schema.Schema;
+import com.unboundid.ldif.LDIFException;
+import com.unboundid.util.Debug;
+import com.unboundid.util.StaticUtils;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+import com.unboundid.util.Validator;
+
+
+
+/**
+ * This class provides an implementation of the {@link LDAPInterface} interface
+ * that wraps another {@code LDAPInterface} (typically a connection pool) and
+ * maintains a client-side cache of the entries retrieved through the
+ * {@link #getEntry} and {@link #searchForEntry} methods.  Cached results are
+ * keyed on the exact base DN and filter strings, along with the scope,
+ * dereference policy, types only flag, and requested attributes.  The base DN
+ * and filter are not normalized because this class does not have access to the
+ * server schema, and normalizing without it could cause requests that differ
+ * only in the case of a case-sensitive value to share a cached result.  If no
+ * entry was returned for a request, then that fact may also be cached (with a
+ * separate time to live) so that repeated attempts to retrieve a nonexistent
+ * entry do not need to be sent to the server.
+ * <BR><BR>
+ * The cache holds at most a specified number of results.  When it is full,
+ * the least recently used result will be evicted to make room for a new one,
+ * and results will also be discarded once their time to live has elapsed.
+ * Whenever an add, delete, modify, or modify DN operation is processed through
+ * this class, any cached result whose base entry or search scope includes the
+ * target entry will be invalidated, regardless of whether the operation was
+ * successful.  Changes made through other means (including other
+ * {@code LDAPInterface} instances that use the same server) will not be
+ * detected, so the time to live should reflect how stale an entry the
+ * application is willing to accept.  Identifying the results to invalidate
+ * requires examining every cached result while holding the lock that protects
+ * the cache, so the cost of each write operation processed through this class
+ * grows with the number of cached results, and cache lookups in other threads
+ * must wait for it to complete.  This class is therefore best suited to
+ * read-mostly workloads, and the maximum number of cached results should be
+ * chosen with that in mind.
+ * <BR><BR>
+ * All other operations, as well as search requests that include controls or a
+ * search result listener or that were created from an
+ * {@link LDAPRequestTemplate}, will simply be passed through to the wrapped
+ * interface.  Note that the entries returned from the cache are shared, and
+ * they should not be altered by the caller.
+ * <BR><BR>
+ * <H2>Example</H2>
+ * The following example demonstrates the process for creating a caching
+ * interface in front of a connection pool, and for retrieving an entry through
+ * it:
+ * <PRE>
+ * CachingLDAPInterface cache = new CachingLDAPInterface(connectionPool,
+ *      10_000, 60_000L, 5_000L);
+ *
+ * // The first request will be sent to the server, but a second request for
+ * // the same entry will be served from the cache.
+ * String dn = "uid=john.doe,ou=People,dc=example,dc=com";
+ * SearchResultEntry entry = cache.getEntry(dn);
+ * entry = cache.getEntry(dn);
+ * </PRE>
+ */
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+public final class CachingLDAPInterface
+       implements LDAPInterface
+{
+  /**
+   * The filter used for the search requests that are generated by the
+   * {@code getEntry} methods.
+   */
+  private static final Filter GET_ENTRY_FILTER =
+       Filter.createPresenceFilter("objectClass");
+
+
+
+  // The number of results that have been retrieved from the cache.
+  private final AtomicLong cacheHits;
+
+  // The number of results that could not be retrieved from the cache.
+  private final AtomicLong cacheMisses;
+
+  // The number of results that have been evicted from the cache because it was
+  // full or because they had expired.
+  private final AtomicLong cacheEvictions;
+
+  // The number of results that have been removed from the cache because of
+  // write operations processed through this interface.
+  private final AtomicLong cacheInvalidations;
+
+  // A counter that will be incremented for every invalidation.  It is used to
+  // prevent a result from being cached if it may have been retrieved before a
+  // write operation that affected it.
+  private final AtomicLong cacheGeneration;
+
+  // The cache itself.  All access to it must be synchronized on the map.
+  private final EntryCacheMap cache;
+
+  // The maximum number of results to hold in the cache.
+  private final int maxEntries;
+
+  // The interface that will be used to process all operations.
+  private final LDAPInterface ldapInterface;
+
+  // The length of time in milliseconds that a cached entry should be retained.
+  private final long timeToLiveMillis;
+
+  // The length of time in milliseconds that the absence of an entry should be
+  // retained.
+  private final long negativeTimeToLiveMillis;
+
+
+
+  /**
+   * Creates a new caching LDAP interface with the provided information.
+   *
+   * @param  ldapInterface             The interface that will be used to
+   *                                   process all operations, including
+   *                                   searches that cannot be satisfied from
+   *                                   the cache.  It must not be {@code null}.
+   * @param  maxEntries                The maximum number of results to hold in
+   *                                   the cache.  It must be greater than
+   *                                   zero.
+   * @param  timeToLiveMillis          The maximum length of time in
+   *                                   milliseconds that an entry should be
+   *                                   held in the cache.  It must be greater
+   *                                   than zero.
+   * @param  negativeTimeToLiveMillis  The maximum length of time in
+   *                                   milliseconds that the absence of an
+   *                                   entry should be held in the cache.  A
+   *                                   value of zero indicates that such
+   *                                   results should not be cached.  It must
+   *                                   not be negative.
+   */
+  public CachingLDAPInterface(final LDAPInterface ldapInterface,
+                              final int maxEntries,
+                              final long timeToLiveMillis,
+                              final long negativeTimeToLiveMillis)
+  {
+    Validator.ensureNotNull(ldapInterface);
+    Validator.ensureTrue(maxEntries > 0,
+         "CachingLDAPInterface.maxEntries must be greater than zero.");
+    Validator.ensureTrue(timeToLiveMillis > 0L,
+         "CachingLDAPInterface.timeToLiveMillis must be greater than zero.");
+    Validator.ensureTrue(negativeTimeToLiveMillis >= 0L,
+         "CachingLDAPInterface.negativeTimeToLiveMillis must not be " +
+              "negative.");
+
+    this.ldapInterface = ldapInterface;
+    this.maxEntries = maxEntries;
+    this.timeToLiveMillis = timeToLiveMillis;
+    this.negativeTimeToLiveMillis = negativeTimeToLiveMillis;
+
+    cacheHits = new AtomicLong(0L);
+    cacheMisses = new AtomicLong(0L);
+    cacheEvictions = new AtomicLong(0L);
+    cacheInvalidations = new AtomicLong(0L);
+    cacheGeneration = new AtomicLong(0L);
+    cache = new EntryCacheMap(maxEntries, cacheEvictions);
+  }
+
+
+
+  /**
+   * Retrieves the interface that will be used to process all operations.
+   *
+   * @return  The interface that will be used to process all operations.
+   */
+  public LDAPInterface getLDAPInterface()
+  {
+    return ldapInterface;
+  }
+
+
+
+  /**
+   * Retrieves the maximum number of results that may be held in the cache.
+   *
+   * @return  The maximum number of results that may be held in the cache.
+   */
+  public int getMaxEntries()
+  {
+    return maxEntries;
+  }
+
+
+
+  /**
+   * Retrieves the maximum length of time in milliseconds that an entry may be
+   * held in the cache.
+   *
+   * @return  The maximum length of time in milliseconds that an entry may be
+   *          held in the cache.
+   */
+  public long getTimeToLiveMillis()
+  {
+    return timeToLiveMillis;
+  }
+
+
+
+  /**
+   * Retrieves the maximum length of time in milliseconds that the absence of an
+   * entry may be held in the cache.
+   *
+   * @return  The maximum length of time in milliseconds that the absence of an
+   *          entry may be held in the cache, or zero if such results will not
+   *          be cached.
+   */
+  public long getNegativeTimeToLiveMillis()
+  {
+    return negativeTimeToLiveMillis;
+  }
+
+
+
+  /**
+   * Retrieves the number of results currently held in the cache.  This may
+   * include results that have expired but have not yet been removed.
+   *
+   * @return  The number of results currently held in the cache.
+   */
+  public int getCacheSize()
+  {
+    synchronized (cache)
+    {
+      return cache.size();
+    }
+  }
+
+
+
+  /**
+   * Retrieves the number of requests that have been satisfied from the cache.
+   *
+   * @return  The number of requests that have been satisfied from the cache.
+   */
+  public long getCacheHits()
+  {
+    return cacheHits.get();
+  }
+
+
+
+  /**
+   * Retrieves the number of cacheable requests that could not be satisfied from
+   * the cache and were passed through to the wrapped interface.
+   *
+   * @return  The number of cacheable requests that could not be satisfied from
+   *          the cache.
+   */
+  public long getCacheMisses()
+  {
+    return cacheMisses.get();
+  }
+
+
+
+  /**
+   * Retrieves the number of results that have been removed from the cache
+   * because it was full or because they had expired.
+   *
+   * @return  The number of results that have been removed from the cache
+   *          because it was full or because they had expired.
+   */
+  public long getCacheEvictions()
+  {
+    return cacheEvictions.get();
+  }
+
+
+
+  /**
+   * Retrieves the number of results that have been removed from the cache
+   * because of write operations processed through this interface.
+   *
+   * @return  The number of results that have been removed from the cache
+   *          because of write operations processed through this interface.
+   */
+  public long getCacheInvalidations()
+  {
+    return cacheInvalidations.get();
+  }
+
+
+
+  /**
+   * Removes all results from the cache.  The cache statistics will not be
+   * altered.
+   */
+  public void clearCache()
+  {
+    synchronized (cache)
+    {
+      cacheGeneration.incrementAndGet();
+      cache.clear();
+    }
+  }
+
+
+
+  /**
+   * Retrieves the directory server root DSE using the wrapped interface.
+   *
+   * @return  The directory server root DSE, or {@code null} if it is not
+   *          available.
+   *
+   * @throws  LDAPException  If a problem occurs while attempting to retrieve
+   *                         the server root DSE.
+   */
+  @Override()
+  public RootDSE getRootDSE()
+         throws LDAPException
+  {
+    return ldapInterface.getRootDSE();
+  }
+
+
+
+  /**
+   * Retrieves the directory server schema definitions using the wrapped
+   * interface, using the subschema subentry DN contained in the server's root
+   * DSE.  For directory servers containing a single schema, this should be
+   * sufficient for all purposes.  For servers with multiple schemas, it may be
+   * necessary to specify the DN of the target entry for which to obtain the
+   * associated schema.
+   *
+   * @return  The directory server schema definitions, or {@code null} if the
+   *          schema information could not be retrieved (e.g, the client does
+   *          not have permission to read the server schema).
+   *
+   * @throws  LDAPException  If a problem occurs while attempting to retrieve
+   *                         the server schema.
+   */
+  @Override()
+  public Schema getSchema()
+         throws LDAPException
+  {
+    return ldapInterface.getSchema();
+  }
+
+
+
+  /**
+   * Retrieves the directory server schema definitions that govern the specified
+   * entry using the wrapped interface.  The subschemaSubentry attribute will be
+   * retrieved from the target entry, and then the appropriate schema
+   * definitions will be loaded from the entry referenced by that attribute.
+   * This may be necessary to ensure correct behavior in servers that support
+   * multiple schemas.
+   *
+   * @param  entryDN  The DN of the entry for which to retrieve the associated
+   *                  schema definitions.  It may be {@code null} or an empty
+   *                  string if the subschemaSubentry attribute should be
+   *                  retrieved from the server's root DSE.
+   *
+   * @return  The directory server schema definitions, or {@code null} if the
+   *          schema information could not be retrieved (e.g, the client does
+   *          not have permission to read the server schema).
+   *
+   * @throws  LDAPException  If a problem occurs while attempting to retrieve
+   *                         the server schema.
+   */
+  @Override()
+  public Schema getSchema(final String entryDN)
+         throws LDAPException
+  {
+    return ldapInterface.getSchema(entryDN);
+  }
+
+
+
+  /**
+   * Retrieves the entry with the specified DN using a cached result if one is
+   * available.  All user attributes will be requested in the entry to return.
+   *
+   * @param  dn  The DN of the entry to retrieve.  It must not be {@code null}.
+   *
+   * @return  The requested entry, or {@code null} if the target entry does not
+   *          exist or no entry was returned (e.g., if the authenticated user
+   *          does not have permission to read the target entry).
+   *
+   * @throws  LDAPException  If a problem occurs while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public SearchResultEntry getEntry(final String dn)
+         throws LDAPException
+  {
+    return getEntry(dn, (String[]) null);
+  }
+
+
+
+  /**
+   * Retrieves the entry with the specified DN using a cached result if one is
+   * available.
+   *
+   * @param  dn          The DN of the entry to retrieve.  It must not be
+   *                     {@code null}.
+   * @param  attributes  The set of attributes to request for the target entry.
+   *                     If it is {@code null}, then all user attributes will be
+   *                     requested.
+   *
+   * @return  The requested entry, or {@code null} if the target entry does not
+   *          exist or no entry was returned (e.g., if the authenticated user
+   *          does not have permission to read the target entry).
+   *
+   * @throws  LDAPException  If a problem occurs while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public SearchResultEntry getEntry(final String dn, final String... attributes)
+         throws LDAPException
+  {
+    final DN parsedDN = parseDN(dn);
+    final String key = getCacheKey(dn, parsedDN, SearchScope.BASE,
+         DereferencePolicy.NEVER, false, GET_ENTRY_FILTER, attributes);
+    if (key == null)
+    {
+      return ldapInterface.getEntry(dn, attributes);
+    }
+
+    final CachedEntry cachedEntry = getCachedEntry(key);
+    if (cachedEntry != null)
+    {
+      return cachedEntry.getEntry();
+    }
+
+    final long generation = cacheGeneration.get();
+    final SearchResultEntry entry = ldapInterface.getEntry(dn, attributes);
+    putCachedEntry(key, generation, parsedDN, SearchScope.BASE, entry);
+    return entry;
+  }
+
+
+
+  /**
+   * Processes an add operation with the provided information using the wrapped
+   * interface.  Any cached results that may be affected by the operation will
+   * be invalidated.
+   *
+   * @param  dn          The DN of the entry to add.  It must not be
+   *                     {@code null}.
+   * @param  attributes  The set of attributes to include in the entry to add.
+   *                     It must not be {@code null}.
+   *
+   * @return  The result of processing the add operation.
+   *
+   * @throws  LDAPException  If the server rejects the add request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult add(final String dn, final Attribute... attributes)
+         throws LDAPException
+  {
+    return add(new AddRequest(dn, attributes));
+  }
+
+
+
+  /**
+   * Processes an add operation with the provided information using the wrapped
+   * interface.  Any cached results that may be affected by the operation will
+   * be invalidated.
+   *
+   * @param  dn          The DN of the entry to add.  It must not be
+   *                     {@code null}.
+   * @param  attributes  The set of attributes to include in the entry to add.
+   *                     It must not be {@code null}.
+   *
+   * @return  The result of processing the add operation.
+   *
+   * @throws  LDAPException  If the server rejects the add request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult add(final String dn, final Collection<Attribute> attributes)
+         throws LDAPException
+  {
+    return add(new AddRequest(dn, attributes));
+  }
+
+
+
+  /**
+   * Processes an add operation with the provided information using the wrapped
+   * interface.  Any cached results that may be affected by the operation will
+   * be invalidated.
+   *
+   * @param  entry  The entry to add.  It must not be {@code null}.
+   *
+   * @return  The result of processing the add operation.
+   *
+   * @throws  LDAPException  If the server rejects the add request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult add(final Entry entry)
+         throws LDAPException
+  {
+    return add(new AddRequest(entry));
+  }
+
+
+
+  /**
+   * Processes an add operation with the provided information using the wrapped
+   * interface.  Any cached results that may be affected by the operation will
+   * be invalidated.
+   *
+   * @param  ldifLines  The lines that comprise an LDIF representation of the
+   *                    entry to add.  It must not be empty or {@code null}.
+   *
+   * @return  The result of processing the add operation.
+   *
+   * @throws  LDIFException  If the provided entry lines cannot be decoded as an
+   *                         entry in LDIF form.
+   *
+   * @throws  LDAPException  If the server rejects the add request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult add(final String... ldifLines)
+         throws LDIFException, LDAPException
+  {
+    return add(new AddRequest(ldifLines));
+  }
+
+
+
+  /**
+   * Processes the provided add request using the wrapped interface.  Any cached
+   * results that may be affected by the operation will be invalidated.
+   *
+   * @param  addRequest  The add request to be processed.  It must not be
+   *                     {@code null}.
+   *
+   * @return  The result of processing the add operation.
+   *
+   * @throws  LDAPException  If the server rejects the add request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult add(final AddRequest addRequest)
+         throws LDAPException
+  {
+    try
+    {
+      return ldapInterface.add(addRequest);
+    }
+    finally
+    {
+      invalidate(parseDN(addRequest.getDN()), false);
+    }
+  }
+
+
+
+  /**
+   * Processes the provided add request using the wrapped interface.  Any cached
+   * results that may be affected by the operation will be invalidated.
+   *
+   * @param  addRequest  The add request to be processed.  It must not be
+   *                     {@code null}.
+   *
+   * @return  The result of processing the add operation.
+   *
+   * @throws  LDAPException  If the server rejects the add request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult add(final ReadOnlyAddRequest addRequest)
+         throws LDAPException
+  {
+    return add((AddRequest) addRequest);
+  }
+
+
+
+  /**
+   * Processes a compare operation with the provided information using the
+   * wrapped interface.
+   *
+   * @param  dn              The DN of the entry in which to make the
+   *                         comparison.  It must not be {@code null}.
+   * @param  attributeName   The attribute name for which to make the
+   *                         comparison.  It must not be {@code null}.
+   * @param  assertionValue  The assertion value to verify in the target entry.
+   *                         It must not be {@code null}.
+   *
+   * @return  The result of processing the compare operation.
+   *
+   * @throws  LDAPException  If the server rejects the compare request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public CompareResult compare(final String dn, final String attributeName,
+                               final String assertionValue)
+         throws LDAPException
+  {
+    return ldapInterface.compare(dn, attributeName, assertionValue);
+  }
+
+
+
+  /**
+   * Processes the provided compare request using the wrapped interface.
+   *
+   * @param  compareRequest  The compare request to be processed.  It must not
+   *                         be {@code null}.
+   *
+   * @return  The result of processing the compare operation.
+   *
+   * @throws  LDAPException  If the server rejects the compare request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public CompareResult compare(final CompareRequest compareRequest)
+         throws LDAPException
+  {
+    return ldapInterface.compare(compareRequest);
+  }
+
+
+
+  /**
+   * Processes the provided compare request using the wrapped interface.
+   *
+   * @param  compareRequest  The compare request to be processed.  It must not
+   *                         be {@code null}.
+   *
+   * @return  The result of processing the compare operation.
+   *
+   * @throws  LDAPException  If the server rejects the compare request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public CompareResult compare(final ReadOnlyCompareRequest compareRequest)
+         throws LDAPException
+  {
+    return ldapInterface.compare(compareRequest);
+  }
+
+
+
+  /**
+   * Deletes the entry with the specified DN using the wrapped interface.  Any
+   * cached results that may be affected by the operation will be invalidated.
+   *
+   * @param  dn  The DN of the entry to delete.  It must not be {@code null}.
+   *
+   * @return  The result of processing the delete operation.
+   *
+   * @throws  LDAPException  If the server rejects the delete request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult delete(final String dn)
+         throws LDAPException
+  {
+    return delete(new DeleteRequest(dn));
+  }
+
+
+
+  /**
+   * Processes the provided delete request using the wrapped interface.  Any
+   * cached results that may be affected by the operation will be invalidated.
+   *
+   * @param  deleteRequest  The delete request to be processed.  It must not be
+   *                        {@code null}.
+   *
+   * @return  The result of processing the delete operation.
+   *
+   * @throws  LDAPException  If the server rejects the delete request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult delete(final DeleteRequest deleteRequest)
+         throws LDAPException
+  {
+    try
+    {
+      return ldapInterface.delete(deleteRequest);
+    }
+    finally
+    {
+      invalidate(parseDN(deleteRequest.getDN()), true);
+    }
+  }
+
+
+
+  /**
+   * Processes the provided delete request using the wrapped interface.  Any
+   * cached results that may be affected by the operation will be invalidated.
+   *
+   * @param  deleteRequest  The delete request to be processed.  It must not be
+   *                        {@code null}.
+   *
+   * @return  The result of processing the delete operation.
+   *
+   * @throws  LDAPException  If the server rejects the delete request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult delete(final ReadOnlyDeleteRequest deleteRequest)
+         throws LDAPException
+  {
+    return delete((DeleteRequest) deleteRequest);
+  }
+
+
+
+  /**
+   * Applies the provided modification to the specified entry using the wrapped
+   * interface.  Any cached results that may be affected by the operation will
+   * be invalidated.
+   *
+   * @param  dn   The DN of the entry to modify.  It must not be {@code null}.
+   * @param  mod  The modification to apply to the target entry.  It must not
+   *              be {@code null}.
+   *
+   * @return  The result of processing the modify operation.
+   *
+   * @throws  LDAPException  If the server rejects the modify request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult modify(final String dn, final Modification mod)
+         throws LDAPException
+  {
+    return modify(new ModifyRequest(dn, mod));
+  }
+
+
+
+  /**
+   * Applies the provided set of modifications to the specified entry using the
+   * wrapped interface.  Any cached results that may be affected by the
+   * operation will be invalidated.
+   *
+   * @param  dn    The DN of the entry to modify.  It must not be {@code null}.
+   * @param  mods  The set of modifications to apply to the target entry.  It
+   *               must not be {@code null} or empty.  *
+   * @return  The result of processing the modify operation.
+   *
+   * @throws  LDAPException  If the server rejects the modify request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult modify(final String dn, final Modification... mods)
+         throws LDAPException
+  {
+    return modify(new ModifyRequest(dn, mods));
+  }
+
+
+
+  /**
+   * Applies the provided set of modifications to the specified entry using the
+   * wrapped interface.  Any cached results that may be affected by the
+   * operation will be invalidated.
+   *
+   * @param  dn    The DN of the entry to modify.  It must not be {@code null}.
+   * @param  mods  The set of modifications to apply to the target entry.  It
+   *               must not be {@code null} or empty.
+   *
+   * @return  The result of processing the modify operation.
+   *
+   * @throws  LDAPException  If the server rejects the modify request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult modify(final String dn, final List<Modification> mods)
+         throws LDAPException
+  {
+    return modify(new ModifyRequest(dn, mods));
+  }
+
+
+
+  /**
+   * Processes a modify request from the provided LDIF representation of the
+   * changes using the wrapped interface.  Any cached results that may be
+   * affected by the operation will be invalidated.
+   *
+   * @param  ldifModificationLines  The lines that comprise an LDIF
+   *                                representation of a modify change record.
+   *                                It must not be {@code null} or empty.
+   *
+   * @return  The result of processing the modify operation.
+   *
+   * @throws  LDIFException  If the provided set of lines cannot be parsed as an
+   *                         LDIF modify change record.
+   *
+   * @throws  LDAPException  If the server rejects the modify request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   *
+   */
+  @Override()
+  public LDAPResult modify(final String... ldifModificationLines)
+         throws LDIFException, LDAPException
+  {
+    return modify(new ModifyRequest(ldifModificationLines));
+  }
+
+
+
+  /**
+   * Processes the provided modify request using the wrapped interface.  Any
+   * cached results that may be affected by the operation will be invalidated.
+   *
+   * @param  modifyRequest  The modify request to be processed.  It must not be
+   *                        {@code null}.
+   *
+   * @return  The result of processing the modify operation.
+   *
+   * @throws  LDAPException  If the server rejects the modify request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult modify(final ModifyRequest modifyRequest)
+         throws LDAPException
+  {
+    try
+    {
+      return ldapInterface.modify(modifyRequest);
+    }
+    finally
+    {
+      invalidate(parseDN(modifyRequest.getDN()), false);
+    }
+  }
+
+
+
+  /**
+   * Processes the provided modify request using the wrapped interface.  Any
+   * cached results that may be affected by the operation will be invalidated.
+   *
+   * @param  modifyRequest  The modify request to be processed.  It must not be
+   *                        {@code null}.
+   *
+   * @return  The result of processing the modify operation.
+   *
+   * @throws  LDAPException  If the server rejects the modify request, or if a
+   *                         problem is encountered while sending the request or
+   *                         reading the response.
+   */
+  @Override()
+  public LDAPResult modify(final ReadOnlyModifyRequest modifyRequest)
+         throws LDAPException
+  {
+    return modify((ModifyRequest) modifyRequest);
+  }
+
+
+
+  /**
+   * Performs a modify DN operation with the provided information using the
+   * wrapped interface.  Any cached results that may be affected by the
+   * operation will be invalidated.
+   *
+   * @param  dn            The current DN for the entry to rename.  It must not
+   *                       be {@code null}.
+   * @param  newRDN        The new RDN to use for the entry.  It must not be
+   *                       {@code null}.
+   * @param  deleteOldRDN  Indicates whether to delete the current RDN value
+   *                       from the entry.
+   *
+   * @return  The result of processing the modify DN operation.
+   *
+   * @throws  LDAPException  If the server rejects the modify DN request, or if
+   *                         a problem is encountered while sending the request
+   *                         or reading the response.
+   */
+  @Override()
+  public LDAPResult modifyDN(final String dn, final String newRDN,
+                             final boolean deleteOldRDN)
+         throws LDAPException
+  {
+    return modifyDN(new ModifyDNRequest(dn, newRDN, deleteOldRDN));
+  }
+
+
+
+  /**
+   * Performs a modify DN operation with the provided information using the
+   * wrapped interface.  Any cached results that may be affected by the
+   * operation will be invalidated.
+   *
+   * @param  dn             The current DN for the entry to rename.  It must not
+   *                        be {@code null}.
+   * @param  newRDN         The new RDN to use for the entry.  It must not be
+   *                        {@code null}.
+   * @param  deleteOldRDN   Indicates whether to delete the current RDN value
+   *                        from the entry.
+   * @param  newSuperiorDN  The new superior DN for the entry.  It may be
+   *                        {@code null} if the entry is not to be moved below a
+   *                        new parent.
+   *
+   * @return  The result of processing the modify DN operation.
+   *
+   * @throws  LDAPException  If the server rejects the modify DN request, or if
+   *                         a problem is encountered while sending the request
+   *                         or reading the response.
+   */
+  @Override()
+  public LDAPResult modifyDN(final String dn, final String newRDN,
+                             final boolean deleteOldRDN,
+                             final String newSuperiorDN)
+         throws LDAPException
+  {
+    return modifyDN(new ModifyDNRequest(dn, newRDN, deleteOldRDN,
+         newSuperiorDN));
+  }
+
+
+
+  /**
+   * Processes the provided modify DN request using the wrapped interface.  Any
+   * cached results that may be affected by the operation will be invalidated.
+   *
+   * @param  modifyDNRequest  The modify DN request to be processed.  It must
+   *                          not be {@code null}.
+   *
+   * @return  The result of processing the modify DN operation.
+   *
+   * @throws  LDAPException  If the server rejects the modify DN request, or if
+   *                         a problem is encountered while sending the request
+   *                         or reading the response.
+   */
+  @Override()
+  public LDAPResult modifyDN(final ModifyDNRequest modifyDNRequest)
+         throws LDAPException
+  {
+    try
+    {
+      return ldapInterface.modifyDN(modifyDNRequest);
+    }
+    finally
+    {
+      invalidate(parseDN(modifyDNRequest.getDN()), true);
+      invalidate(getNewDN(modifyDNRequest), true);
+    }
+  }
+
+
+
+  /**
+   * Processes the provided modify DN request using the wrapped interface.  Any
+   * cached results that may be affected by the operation will be invalidated.
+   *
+   * @param  modifyDNRequest  The modify DN request to be processed.  It must
+   *                          not be {@code null}.
+   *
+   * @return  The result of processing the modify DN operation.
+   *
+   * @throws  LDAPException  If the server rejects the modify DN request, or if
+   *                         a problem is encountered while sending the request
+   *                         or reading the response.
+   */
+  @Override()
+  public LDAPResult modifyDN(final ReadOnlyModifyDNRequest modifyDNRequest)
+         throws LDAPException
+  {
+    return modifyDN((ModifyDNRequest) modifyDNRequest);
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using the
+   * wrapped interface.  The search result entries and references will be
+   * collected internally and included in the {@code SearchResult} object that
+   * is returned.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references.
+   *
+   * @param  baseDN      The base DN for the search request.  It must not be
+   *                     {@code null}.
+   * @param  scope       The scope that specifies the range of entries that
+   *                     should be examined for the search.
+   * @param  filter      The string representation of the filter to use to
+   *                     identify matching entries.  It must not be
+   *                     {@code null}.
+   * @param  attributes  The set of attributes that should be returned in
+   *                     matching entries.  It may be {@code null} or empty if
+   *                     the default attribute set (all user attributes) is to
+   *                     be requested.
+   *
+   * @return  A search result object that provides information about the
+   *          processing of the search, including the set of matching entries
+   *          and search references returned by the server.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               or if a problem is encountered while parsing
+   *                               the provided filter string, sending the
+   *                               request, or reading the response.  If one
+   *                               or more entries or references were returned
+   *                               before the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResult search(final String baseDN, final SearchScope scope,
+                             final String filter, final String... attributes)
+         throws LDAPSearchException
+  {
+    return ldapInterface.search(baseDN, scope, filter, attributes);
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using the
+   * wrapped interface.  The search result entries and references will be
+   * collected internally and included in the {@code SearchResult} object that
+   * is returned.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references.
+   *
+   * @param  baseDN      The base DN for the search request.  It must not be
+   *                     {@code null}.
+   * @param  scope       The scope that specifies the range of entries that
+   *                     should be examined for the search.
+   * @param  filter      The filter to use to identify matching entries.  It
+   *                     must not be {@code null}.
+   * @param  attributes  The set of attributes that should be returned in
+   *                     matching entries.  It may be {@code null} or empty if
+   *                     the default attribute set (all user attributes) is to
+   *                     be requested.
+   *
+   * @return  A search result object that provides information about the
+   *          processing of the search, including the set of matching entries
+   *          and search references returned by the server.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               or if a problem is encountered while sending
+   *                               the request or reading the response.  If one
+   *                               or more entries or references were returned
+   *                               before the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResult search(final String baseDN, final SearchScope scope,
+                             final Filter filter, final String... attributes)
+         throws LDAPSearchException
+  {
+    return ldapInterface.search(baseDN, scope, filter, attributes);
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using the
+   * wrapped interface.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references (although if a search result listener was provided,
+   * then it will have been used to make any entries and references available,
+   * and they will not be available through the {@code getSearchEntries} and
+   * {@code getSearchReferences} methods).
+   *
+   * @param  searchResultListener  The search result listener that should be
+   *                               used to return results to the client.  It may
+   *                               be {@code null} if the search results should
+   *                               be collected internally and returned in the
+   *                               {@code SearchResult} object.
+   * @param  baseDN                The base DN for the search request.  It must
+   *                               not be {@code null}.
+   * @param  scope                 The scope that specifies the range of entries
+   *                               that should be examined for the search.
+   * @param  filter                The string representation of the filter to
+   *                               use to identify matching entries.  It must
+   *                               not be {@code null}.
+   * @param  attributes            The set of attributes that should be returned
+   *                               in matching entries.  It may be {@code null}
+   *                               or empty if the default attribute set (all
+   *                               user attributes) is to be requested.
+   *
+   * @return  A search result object that provides information about the
+   *          processing of the search, potentially including the set of
+   *          matching entries and search references returned by the server.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               or if a problem is encountered while parsing
+   *                               the provided filter string, sending the
+   *                               request, or reading the response.  If one
+   *                               or more entries or references were returned
+   *                               before the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResult search(final SearchResultListener searchResultListener,
+                             final String baseDN, final SearchScope scope,
+                             final String filter, final String... attributes)
+         throws LDAPSearchException
+  {
+    return ldapInterface.search(searchResultListener, baseDN, scope, filter,
+                           attributes);
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using the
+   * wrapped interface.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references (although if a search result listener was provided,
+   * then it will have been used to make any entries and references available,
+   * and they will not be available through the {@code getSearchEntries} and
+   * {@code getSearchReferences} methods).
+   *
+   * @param  searchResultListener  The search result listener that should be
+   *                               used to return results to the client.  It may
+   *                               be {@code null} if the search results should
+   *                               be collected internally and returned in the
+   *                               {@code SearchResult} object.
+   * @param  baseDN                The base DN for the search request.  It must
+   *                               not be {@code null}.
+   * @param  scope                 The scope that specifies the range of entries
+   *                               that should be examined for the search.
+   * @param  filter                The filter to use to identify matching
+   *                               entries.  It must not be {@code null}.
+   * @param  attributes            The set of attributes that should be returned
+   *                               in matching entries.  It may be {@code null}
+   *                               or empty if the default attribute set (all
+   *                               user attributes) is to be requested.
+   *
+   * @return  A search result object that provides information about the
+   *          processing of the search, potentially including the set of
+   *          matching entries and search references returned by the server.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               or if a problem is encountered while sending
+   *                               the request or reading the response.  If one
+   *                               or more entries or references were returned
+   *                               before the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResult search(final SearchResultListener searchResultListener,
+                             final String baseDN, final SearchScope scope,
+                             final Filter filter, final String... attributes)
+         throws LDAPSearchException
+  {
+    return ldapInterface.search(searchResultListener, baseDN, scope, filter,
+                           attributes);
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using the
+   * wrapped interface.  The search result entries and references will be
+   * collected internally and included in the {@code SearchResult} object that
+   * is returned.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references.
+   *
+   * @param  baseDN       The base DN for the search request.  It must not be
+   *                      {@code null}.
+   * @param  scope        The scope that specifies the range of entries that
+   *                      should be examined for the search.
+   * @param  derefPolicy  The dereference policy the server should use for any
+   *                      aliases encountered while processing the search.
+   * @param  sizeLimit    The maximum number of entries that the server should
+   *                      return for the search.  A value of zero indicates that
+   *                      there should be no limit.
+   * @param  timeLimit    The maximum length of time in seconds that the server
+   *                      should spend processing this search request.  A value
+   *                      of zero indicates that there should be no limit.
+   * @param  typesOnly    Indicates whether to return only attribute names in
+   *                      matching entries, or both attribute names and values.
+   * @param  filter       The string representation of the filter to use to
+   *                      identify matching entries.  It must not be
+   *                      {@code null}.
+   * @param  attributes   The set of attributes that should be returned in
+   *                      matching entries.  It may be {@code null} or empty if
+   *                      the default attribute set (all user attributes) is to
+   *                      be requested.
+   *
+   * @return  A search result object that provides information about the
+   *          processing of the search, including the set of matching entries
+   *          and search references returned by the server.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               or if a problem is encountered while parsing
+   *                               the provided filter string, sending the
+   *                               request, or reading the response.  If one
+   *                               or more entries or references were returned
+   *                               before the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResult search(final String baseDN, final SearchScope scope,
+                             final DereferencePolicy derefPolicy,
+                             final int sizeLimit, final int timeLimit,
+                             final boolean typesOnly, final String filter,
+                             final String... attributes)
+         throws LDAPSearchException
+  {
+    return ldapInterface.search(baseDN, scope, derefPolicy, sizeLimit,
+         timeLimit, typesOnly, filter, attributes);
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using the
+   * wrapped interface.  The search result entries and references will be
+   * collected internally and included in the {@code SearchResult} object that
+   * is returned.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references.
+   *
+   * @param  baseDN       The base DN for the search request.  It must not be
+   *                      {@code null}.
+   * @param  scope        The scope that specifies the range of entries that
+   *                      should be examined for the search.
+   * @param  derefPolicy  The dereference policy the server should use for any
+   *                      aliases encountered while processing the search.
+   * @param  sizeLimit    The maximum number of entries that the server should
+   *                      return for the search.  A value of zero indicates that
+   *                      there should be no limit.
+   * @param  timeLimit    The maximum length of time in seconds that the server
+   *                      should spend processing this search request.  A value
+   *                      of zero indicates that there should be no limit.
+   * @param  typesOnly    Indicates whether to return only attribute names in
+   *                      matching entries, or both attribute names and values.
+   * @param  filter       The filter to use to identify matching entries.  It
+   *                      must not be {@code null}.
+   * @param  attributes   The set of attributes that should be returned in
+   *                      matching entries.  It may be {@code null} or empty if
+   *                      the default attribute set (all user attributes) is to
+   *                      be requested.
+   *
+   * @return  A search result object that provides information about the
+   *          processing of the search, including the set of matching entries
+   *          and search references returned by the server.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               or if a problem is encountered while sending
+   *                               the request or reading the response.  If one
+   *                               or more entries or references were returned
+   *                               before the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResult search(final String baseDN, final SearchScope scope,
+                             final DereferencePolicy derefPolicy,
+                             final int sizeLimit, final int timeLimit,
+                             final boolean typesOnly, final Filter filter,
+                             final String... attributes)
+         throws LDAPSearchException
+  {
+    return ldapInterface.search(baseDN, scope, derefPolicy, sizeLimit,
+         timeLimit, typesOnly, filter, attributes);
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using the
+   * wrapped interface.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references (although if a search result listener was provided,
+   * then it will have been used to make any entries and references available,
+   * and they will not be available through the {@code getSearchEntries} and
+   * {@code getSearchReferences} methods).
+   *
+   * @param  searchResultListener  The search result listener that should be
+   *                               used to return results to the client.  It may
+   *                               be {@code null} if the search results should
+   *                               be collected internally and returned in the
+   *                               {@code SearchResult} object.
+   * @param  baseDN                The base DN for the search request.  It must
+   *                               not be {@code null}.
+   * @param  scope                 The scope that specifies the range of entries
+   *                               that should be examined for the search.
+   * @param  derefPolicy           The dereference policy the server should use
+   *                               for any aliases encountered while processing
+   *                               the search.
+   * @param  sizeLimit             The maximum number of entries that the server
+   *                               should return for the search.  A value of
+   *                               zero indicates that there should be no limit.
+   * @param  timeLimit             The maximum length of time in seconds that
+   *                               the server should spend processing this
+   *                               search request.  A value of zero indicates
+   *                               that there should be no limit.
+   * @param  typesOnly             Indicates whether to return only attribute
+   *                               names in matching entries, or both attribute
+   *                               names and values.
+   * @param  filter                The string representation of the filter to
+   *                               use to identify matching entries.  It must
+   *                               not be {@code null}.
+   * @param  attributes            The set of attributes that should be returned
+   *                               in matching entries.  It may be {@code null}
+   *                               or empty if the default attribute set (all
+   *                               user attributes) is to be requested.
+   *
+   * @return  A search result object that provides information about the
+   *          processing of the search, potentially including the set of
+   *          matching entries and search references returned by the server.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               or if a problem is encountered while parsing
+   *                               the provided filter string, sending the
+   *                               request, or reading the response.  If one
+   *                               or more entries or references were returned
+   *                               before the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResult search(final SearchResultListener searchResultListener,
+                             final String baseDN, final SearchScope scope,
+                             final DereferencePolicy derefPolicy,
+                             final int sizeLimit, final int timeLimit,
+                             final boolean typesOnly, final String filter,
+                             final String... attributes)
+         throws LDAPSearchException
+  {
+    return ldapInterface.search(searchResultListener, baseDN, scope,
+         derefPolicy, sizeLimit, timeLimit, typesOnly, filter, attributes);
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using the
+   * wrapped interface.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references (although if a search result listener was provided,
+   * then it will have been used to make any entries and references available,
+   * and they will not be available through the {@code getSearchEntries} and
+   * {@code getSearchReferences} methods).
+   *
+   * @param  searchResultListener  The search result listener that should be
+   *                               used to return results to the client.  It may
+   *                               be {@code null} if the search results should
+   *                               be collected internally and returned in the
+   *                               {@code SearchResult} object.
+   * @param  baseDN                The base DN for the search request.  It must
+   *                               not be {@code null}.
+   * @param  scope                 The scope that specifies the range of entries
+   *                               that should be examined for the search.
+   * @param  derefPolicy           The dereference policy the server should use
+   *                               for any aliases encountered while processing
+   *                               the search.
+   * @param  sizeLimit             The maximum number of entries that the server
+   *                               should return for the search.  A value of
+   *                               zero indicates that there should be no limit.
+   * @param  timeLimit             The maximum length of time in seconds that
+   *                               the server should spend processing this
+   *                               search request.  A value of zero indicates
+   *                               that there should be no limit.
+   * @param  typesOnly             Indicates whether to return only attribute
+   *                               names in matching entries, or both attribute
+   *                               names and values.
+   * @param  filter                The filter to use to identify matching
+   *                               entries.  It must not be {@code null}.
+   * @param  attributes            The set of attributes that should be returned
+   *                               in matching entries.  It may be {@code null}
+   *                               or empty if the default attribute set (all
+   *                               user attributes) is to be requested.
+   *
+   * @return  A search result object that provides information about the
+   *          processing of the search, potentially including the set of
+   *          matching entries and search references returned by the server.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               or if a problem is encountered while sending
+   *                               the request or reading the response.  If one
+   *                               or more entries or references were returned
+   *                               before the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResult search(final SearchResultListener searchResultListener,
+                             final String baseDN, final SearchScope scope,
+                             final DereferencePolicy derefPolicy,
+                             final int sizeLimit, final int timeLimit,
+                             final boolean typesOnly, final Filter filter,
+                             final String... attributes)
+         throws LDAPSearchException
+  {
+    return ldapInterface.search(searchResultListener, baseDN, scope,
+         derefPolicy, sizeLimit, timeLimit, typesOnly, filter, attributes);
+  }
+
+
+
+  /**
+   * Processes the provided search request using the wrapped interface.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references (although if a search result listener was provided,
+   * then it will have been used to make any entries and references available,
+   * and they will not be available through the {@code getSearchEntries} and
+   * {@code getSearchReferences} methods).
+   *
+   * @param  searchRequest  The search request to be processed.  It must not be
+   *                        {@code null}.
+   *
+   * @return  A search result object that provides information about the
+   *          processing of the search, potentially including the set of
+   *          matching entries and search references returned by the server.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               or if a problem is encountered while sending
+   *                               the request or reading the response.  If one
+   *                               or more entries or references were returned
+   *                               before the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResult search(final SearchRequest searchRequest)
+         throws LDAPSearchException
+  {
+    return ldapInterface.search(searchRequest);
+  }
+
+
+
+  /**
+   * Processes the provided search request using the wrapped interface.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references (although if a search result listener was provided,
+   * then it will have been used to make any entries and references available,
+   * and they will not be available through the {@code getSearchEntries} and
+   * {@code getSearchReferences} methods).
+   *
+   * @param  searchRequest  The search request to be processed.  It must not be
+   *                        {@code null}.
+   *
+   * @return  A search result object that provides information about the
+   *          processing of the search, potentially including the set of
+   *          matching entries and search references returned by the server.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               or if a problem is encountered while sending
+   *                               the request or reading the response.  If one
+   *                               or more entries or references were returned
+   *                               before the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResult search(final ReadOnlySearchRequest searchRequest)
+         throws LDAPSearchException
+  {
+    return ldapInterface.search(searchRequest);
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using a cached
+   * result if one is available.  It is expected that at most one entry will be
+   * returned from the search, and that no additional content from the
+   * successful search result (e.g., diagnostic message or response controls)
+   * are needed.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references.
+   *
+   * @param  baseDN      The base DN for the search request.  It must not be
+   *                     {@code null}.
+   * @param  scope       The scope that specifies the range of entries that
+   *                     should be examined for the search.
+   * @param  filter      The string representation of the filter to use to
+   *                     identify matching entries.  It must not be
+   *                     {@code null}.
+   * @param  attributes  The set of attributes that should be returned in
+   *                     matching entries.  It may be {@code null} or empty if
+   *                     the default attribute set (all user attributes) is to
+   *                     be requested.
+   *
+   * @return  The entry that was returned from the search, or {@code null} if no
+   *          entry was returned or the base entry does not exist.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               if more than a single entry is returned, or
+   *                               if a problem is encountered while parsing the
+   *                               provided filter string, sending the request,
+   *                               or reading the response.  If one or more
+   *                               entries or references were returned before
+   *                               the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResultEntry searchForEntry(final String baseDN,
+                                          final SearchScope scope,
+                                          final String filter,
+                                          final String... attributes)
+         throws LDAPSearchException
+  {
+    final SearchRequest r;
+    try
+    {
+      r = new SearchRequest(baseDN, scope, DereferencePolicy.NEVER, 1, 0, false,
+           filter, attributes);
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      throw new LDAPSearchException(le);
+    }
+
+    return searchForEntry(r);
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using a cached
+   * result if one is available.  It is expected that at most one entry will be
+   * returned from the search, and that no additional content from the
+   * successful search result (e.g., diagnostic message or response controls)
+   * are needed.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references.
+   *
+   * @param  baseDN      The base DN for the search request.  It must not be
+   *                     {@code null}.
+   * @param  scope       The scope that specifies the range of entries that
+   *                     should be examined for the search.
+   * @param  filter      The string representation of the filter to use to
+   *                     identify matching entries.  It must not be
+   *                     {@code null}.
+   * @param  attributes  The set of attributes that should be returned in
+   *                     matching entries.  It may be {@code null} or empty if
+   *                     the default attribute set (all user attributes) is to
+   *                     be requested.
+   *
+   * @return  The entry that was returned from the search, or {@code null} if no
+   *          entry was returned or the base entry does not exist.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               if more than a single entry is returned, or
+   *                               if a problem is encountered while parsing the
+   *                               provided filter string, sending the request,
+   *                               or reading the response.  If one or more
+   *                               entries or references were returned before
+   *                               the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResultEntry searchForEntry(final String baseDN,
+                                          final SearchScope scope,
+                                          final Filter filter,
+                                          final String... attributes)
+         throws LDAPSearchException
+  {
+    return searchForEntry(new SearchRequest(baseDN, scope,
+         DereferencePolicy.NEVER, 1, 0, false, filter, attributes));
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using a cached
+   * result if one is available.  It is expected that at most one entry will be
+   * returned from the search, and that no additional content from the
+   * successful search result (e.g., diagnostic message or response controls)
+   * are needed.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references.
+   *
+   * @param  baseDN       The base DN for the search request.  It must not be
+   *                      {@code null}.
+   * @param  scope        The scope that specifies the range of entries that
+   *                      should be examined for the search.
+   * @param  derefPolicy  The dereference policy the server should use for any
+   *                      aliases encountered while processing the search.
+   * @param  timeLimit    The maximum length of time in seconds that the server
+   *                      should spend processing this search request.  A value
+   *                      of zero indicates that there should be no limit.
+   * @param  typesOnly    Indicates whether to return only attribute names in
+   *                      matching entries, or both attribute names and values.
+   * @param  filter       The string representation of the filter to use to
+   *                      identify matching entries.  It must not be
+   *                      {@code null}.
+   * @param  attributes   The set of attributes that should be returned in
+   *                      matching entries.  It may be {@code null} or empty if
+   *                      the default attribute set (all user attributes) is to
+   *                      be requested.
+   *
+   * @return  The entry that was returned from the search, or {@code null} if no
+   *          entry was returned or the base entry does not exist.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               if more than a single entry is returned, or
+   *                               if a problem is encountered while parsing the
+   *                               provided filter string, sending the request,
+   *                               or reading the response.  If one or more
+   *                               entries or references were returned before
+   *                               the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResultEntry searchForEntry(final String baseDN,
+                                          final SearchScope scope,
+                                          final DereferencePolicy derefPolicy,
+                                          final int timeLimit,
+                                          final boolean typesOnly,
+                                          final String filter,
+                                          final String... attributes)
+         throws LDAPSearchException
+  {
+    final SearchRequest r;
+    try
+    {
+      r = new SearchRequest(baseDN, scope, derefPolicy, 1, timeLimit, typesOnly,
+           filter, attributes);
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      throw new LDAPSearchException(le);
+    }
+
+    return searchForEntry(r);
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using a cached
+   * result if one is available.  It is expected that at most one entry will be
+   * returned from the search, and that no additional content from the
+   * successful search result (e.g., diagnostic message or response controls)
+   * are needed.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references.
+   *
+   * @param  baseDN       The base DN for the search request.  It must not be
+   *                      {@code null}.
+   * @param  scope        The scope that specifies the range of entries that
+   *                      should be examined for the search.
+   * @param  derefPolicy  The dereference policy the server should use for any
+   *                      aliases encountered while processing the search.
+   * @param  timeLimit    The maximum length of time in seconds that the server
+   *                      should spend processing this search request.  A value
+   *                      of zero indicates that there should be no limit.
+   * @param  typesOnly    Indicates whether to return only attribute names in
+   *                      matching entries, or both attribute names and values.
+   * @param  filter       The filter to use to identify matching entries.  It
+   *                      must not be {@code null}.
+   * @param  attributes   The set of attributes that should be returned in
+   *                      matching entries.  It may be {@code null} or empty if
+   *                      the default attribute set (all user attributes) is to
+   *                      be requested.
+   *
+   * @return  The entry that was returned from the search, or {@code null} if no
+   *          entry was returned or the base entry does not exist.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               if more than a single entry is returned, or
+   *                               if a problem is encountered while parsing the
+   *                               provided filter string, sending the request,
+   *                               or reading the response.  If one or more
+   *                               entries or references were returned before
+   *                               the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResultEntry searchForEntry(final String baseDN,
+                                          final SearchScope scope,
+                                          final DereferencePolicy derefPolicy,
+                                          final int timeLimit,
+                                          final boolean typesOnly,
+                                          final Filter filter,
+                                          final String... attributes)
+       throws LDAPSearchException
+  {
+    return searchForEntry(new SearchRequest(baseDN, scope, derefPolicy, 1,
+         timeLimit, typesOnly, filter, attributes));
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using a cached
+   * result if one is available.  It is expected that at most one entry will be
+   * returned from the search, and that no additional content from the
+   * successful search result (e.g., diagnostic message or response controls)
+   * are needed.
+   * <BR><BR>
+   * Search requests that include one or more controls, or that are configured
+   * with a search result listener, will not be cached but will always be
+   * processed using the wrapped interface.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references.
+   *
+   * @param  searchRequest  The search request to be processed.  If it is
+   *                        configured with a search result listener or a size
+   *                        limit other than one, then the provided request will
+   *                        be duplicated with the appropriate settings.
+   *
+   * @return  The entry that was returned from the search, or {@code null} if no
+   *          entry was returned or the base entry does not exist.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               if more than a single entry is returned, or
+   *                               if a problem is encountered while parsing the
+   *                               provided filter string, sending the request,
+   *                               or reading the response.  If one or more
+   *                               entries or references were returned before
+   *                               the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResultEntry searchForEntry(final SearchRequest searchRequest)
+         throws LDAPSearchException
+  {
+    // Requests created from a template are sent as encoded by that template
+    // rather than from the elements used to construct the cache key, so they
+    // will not be cached.
+    if (searchRequest.hasControl() ||
+        (searchRequest.getSearchResultListener() != null) ||
+        searchRequest.hasEncodingTemplate())
+    {
+      return ldapInterface.searchForEntry(searchRequest);
+    }
+
+    final DN parsedDN = parseDN(searchRequest.getBaseDN());
+    final String key = getCacheKey(searchRequest.getBaseDN(), parsedDN,
+         searchRequest.getScope(), searchRequest.getDereferencePolicy(),
+         searchRequest.typesOnly(), searchRequest.getFilter(),
+         searchRequest.getAttributes());
+    if (key == null)
+    {
+      return ldapInterface.searchForEntry(searchRequest);
+    }
+
+    final CachedEntry cachedEntry = getCachedEntry(key);
+    if (cachedEntry != null)
+    {
+      return cachedEntry.getEntry();
+    }
+
+    final long generation = cacheGeneration.get();
+    final SearchResultEntry entry =
+         ldapInterface.searchForEntry(searchRequest);
+    putCachedEntry(key, generation, parsedDN, searchRequest.getScope(),
+         entry);
+    return entry;
+  }
+
+
+
+  /**
+   * Processes a search operation with the provided information using a cached
+   * result if one is available.  It is expected that at most one entry will be
+   * returned from the search, and that no additional content from the
+   * successful search result (e.g., diagnostic message or response controls)
+   * are needed.
+   * <BR><BR>
+   * Note that if the search does not complete successfully, an
+   * {@code LDAPSearchException} will be thrown  In some cases, one or more
+   * search result entries or references may have been returned before the
+   * failure response is received.  In this case, the
+   * {@code LDAPSearchException} methods like {@code getEntryCount},
+   * {@code getSearchEntries}, {@code getReferenceCount}, and
+   * {@code getSearchReferences} may be used to obtain information about those
+   * entries and references.
+   *
+   * @param  searchRequest  The search request to be processed.  If it is
+   *                        configured with a search result listener or a size
+   *                        limit other than one, then the provided request will
+   *                        be duplicated with the appropriate settings.
+   *
+   * @return  The entry that was returned from the search, or {@code null} if no
+   *          entry was returned or the base entry does not exist.
+   *
+   * @throws  LDAPSearchException  If the search does not complete successfully,
+   *                               if more than a single entry is returned, or
+   *                               if a problem is encountered while parsing the
+   *                               provided filter string, sending the request,
+   *                               or reading the response.  If one or more
+   *                               entries or references were returned before
+   *                               the failure was encountered, then the
+   *                               {@code LDAPSearchException} object may be
+   *                               examined to obtain information about those
+   *                               entries and/or references.
+   */
+  @Override()
+  public SearchResultEntry searchForEntry(
+                                final ReadOnlySearchRequest searchRequest)
+         throws LDAPSearchException
+  {
+    return searchForEntry((SearchRequest) searchRequest);
+  }
+
+
+  /**
+   * Attempts to parse the provided string as a DN.
+   *
+   * @param  dnString  The string to parse.  It may be {@code null}.
+   *
+   * @return  The parsed DN, or {@code null} if the provided string was
+   *          {@code null} or could not be parsed as a DN.
+   */
+  private static DN parseDN(final String dnString)
+  {
+    if (dnString == null)
+    {
+      return null;
+    }
+
+    try
+    {
+      return new DN(dnString);
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      return null;
+    }
+  }
+
+
+
+  /**
+   * Determines the DN that the target entry of the provided modify DN request
+   * will have after the operation has been processed.
+   *
+   * @param  modifyDNRequest  The modify DN request for which to make the
+   *                          determination.
+   *
+   * @return  The new DN for the target entry, or {@code null} if it cannot be
+   *          determined.
+   */
+  private static DN getNewDN(final ReadOnlyModifyDNRequest modifyDNRequest)
+  {
+    try
+    {
+      final DN parentDN;
+      final String newSuperiorDN = modifyDNRequest.getNewSuperiorDN();
+      if (newSuperiorDN == null)
+      {
+        parentDN = new DN(modifyDNRequest.getDN()).getParent();
+      }
+      else
+      {
+        parentDN = new DN(newSuperiorDN);
+      }
+
+      final RDN newRDN = new RDN(modifyDNRequest.getNewRDN());
+      if (parentDN == null)
+      {
+        return new DN(newRDN);
+      }
+      else
+      {
+        return new DN(newRDN, parentDN);
+      }
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      return null;
+    }
+  }
+
+
+
+  /**
+   * Generates the key that will be used to cache the result of a search with
+   * the provided information.
+   *
+   * @param  baseDN       The base DN for the search, exactly as provided in the
+   *                      request.
+   * @param  parsedDN     The parsed base DN for the search.  It may be
+   *                      {@code null} if the base DN could not be parsed, in
+   *                      which case the result will not be cached.
+   * @param  scope        The scope for the search.
+   * @param  derefPolicy  The alias dereferencing policy for the search.
+   * @param  typesOnly    Indicates whether to return only attribute names.
+   * @param  filter       The filter for the search.
+   * @param  attributes   The set of requested attributes.  It may be
+   *                      {@code null} or empty.
+   *
+   * @return  The key that will be used to cache the result, or {@code null} if
+   *          the result should not be cached.
+   */
+  private static String getCacheKey(final String baseDN, final DN parsedDN,
+                                    final SearchScope scope,
+                                    final DereferencePolicy derefPolicy,
+                                    final boolean typesOnly,
+                                    final Filter filter,
+                                    final String... attributes)
+  {
+    if (parsedDN == null)
+    {
+      return null;
+    }
+
+    final StringBuilder buffer = new StringBuilder();
+    buffer.append(baseDN);
+    buffer.append('|');
+    buffer.append(scope.intValue());
+    buffer.append('|');
+    buffer.append(derefPolicy.intValue());
+    buffer.append('|');
+    buffer.append(typesOnly);
+    buffer.append('|');
+    filter.toString(buffer);
+
+    if (attributes != null)
+    {
+      final String[] lowerAttributes = new String[attributes.length];
+      for (int i=0; i < attributes.length; i++)
+      {
+        lowerAttributes[i] = StaticUtils.toLowerCase(attributes[i]);
+      }
+      Arrays.sort(lowerAttributes);
+
+      for (final String attribute : lowerAttributes)
+      {
+        buffer.append('|');
+        buffer.append(attribute);
+      }
+    }
+
+    return buffer.toString();
+  }
+
+
+
+  /**
+   * Retrieves the unexpired cached result with the provided key, updating the
+   * cache statistics accordingly.
+   *
+   * @param  key  The key for the result to retrieve.
+   *
+   * @return  The cached result, or {@code null} if there is no unexpired
+   *          result with the provided key.
+   */
+  private CachedEntry getCachedEntry(final String key)
+  {
+    synchronized (cache)
+    {
+      final CachedEntry cachedEntry = cache.get(key);
+      if (cachedEntry == null)
+      {
+        cacheMisses.incrementAndGet();
+        return null;
+      }
+
+      if (cachedEntry.isExpired(System.nanoTime()))
+      {
+        cache.remove(key);
+        cacheEvictions.incrementAndGet();
+        cacheMisses.incrementAndGet();
+        return null;
+      }
+
+      cacheHits.incrementAndGet();
+      return cachedEntry;
+    }
+  }
+
+
+
+  /**
+   * Adds the provided result to the cache, as long as no write operation has
+   * invalidated any part of the cache since it was retrieved.
+   *
+   * @param  key         The key for the result to cache.
+   * @param  generation  The value of the cache generation counter obtained
+   *                     before the result was retrieved.
+   * @param  baseDN      The base DN for the search.
+   * @param  scope       The scope for the search.
+   * @param  entry       The entry that was retrieved, or {@code null} if no
+   *                     entry was returned.
+   */
+  private void putCachedEntry(final String key, final long generation,
+                              final DN baseDN, final SearchScope scope,
+                              final SearchResultEntry entry)
+  {
+    final long ttlMillis;
+    if (entry == null)
+    {
+      ttlMillis = negativeTimeToLiveMillis;
+      if (ttlMillis <= 0L)
+      {
+        return;
+      }
+    }
+    else
+    {
+      ttlMillis = timeToLiveMillis;
+    }
+
+    final CachedEntry cachedEntry = new CachedEntry(baseDN, scope, entry,
+         System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+    synchronized (cache)
+    {
+      if (cacheGeneration.get() == generation)
+      {
+        cache.put(key, cachedEntry);
+      }
+    }
+  }
+
+
+
+  /**
+   * Removes any cached results that may be affected by a write operation
+   * targeting the specified entry.  Unless the entire cache is to be cleared,
+   * this will examine every cached result while holding the lock on the cache,
+   * so it takes time proportional to the number of cached results.
+   *
+   * @param  dn               The DN of the target entry.  If it is
+   *                          {@code null}, then the entire cache will be
+   *                          cleared.
+   * @param  includeSubtree   Indicates whether the operation may also affect
+   *                          entries below the target entry.
+   */
+  private void invalidate(final DN dn, final boolean includeSubtree)
+  {
+    synchronized (cache)
+    {
+      cacheGeneration.incrementAndGet();
+      if (dn == null)
+      {
+        cacheInvalidations.addAndGet(cache.size());
+        cache.clear();
+        return;
+      }
+
+      final Iterator<CachedEntry> iterator = cache.values().iterator();
+      while (iterator.hasNext())
+      {
+        if (iterator.next().isAffectedBy(dn, includeSubtree))
+        {
+          iterator.remove();
+          cacheInvalidations.incrementAndGet();
+        }
+      }
+    }
+  }
+
+
+
+  /**
+   * This class provides a data structure that holds a cached search result.
+   */
+  private static final class CachedEntry
+  {
+    // The base DN for the search.
+    private final DN baseDN;
+
+    // The time, in terms of System.nanoTime, that the result expires.
+    private final long expirationNanos;
+
+    // The scope for the search.
+    private final SearchScope scope;
+
+    // The entry returned from the search, or null if there was none.
+    private final SearchResultEntry entry;
+
+
+
+    /**
+     * Creates a new cached result with the provided information.
+     *
+     * @param  baseDN           The base DN for the search.
+     * @param  scope            The scope for the search.
+     * @param  entry            The entry returned from the search, or
+     *                          {@code null} if there was none.
+     * @param  expirationNanos  The time, in terms of {@code System.nanoTime},
+     *                          that the result expires.
+     */
+    private CachedEntry(final DN baseDN, final SearchScope scope,
+                        final SearchResultEntry entry,
+                        final long expirationNanos)
+    {
+      this.baseDN = baseDN;
+      this.scope = scope;
+      this.entry = entry;
+      this.expirationNanos = expirationNanos;
+    }
+
+
+
+    /**
+     * Retrieves the entry returned from the search.
+     *
+     * @return  The entry returned from the search, or {@code null} if there
+     *          was none.
+     */
+    private SearchResultEntry getEntry()
+    {
+      return entry;
+    }
+
+
+
+    /**
+     * Indicates whether this result has expired.
+     *
+     * @param  currentNanos  The current value of {@code System.nanoTime}.
+     *
+     * @return  {@code true} if this result has expired, or {@code false} if
+     *          not.
+     */
+    private boolean isExpired(final long currentNanos)
+    {
+      return ((currentNanos - expirationNanos) >= 0L);
+    }
+
+
+
+    /**
+     * Indicates whether this result may be affected by a write operation
+     * targeting the specified entry.
+     *
+     * @param  dn              The DN of the target entry.
+     * @param  includeSubtree  Indicates whether the operation may also affect
+     *                         entries below the target entry.
+     *
+     * @return  {@code true} if this result may be affected by the operation, or
+     *          {@code false} if not.
+     */
+    private boolean isAffectedBy(final DN dn, final boolean includeSubtree)
+    {
+      if (dn.equals(baseDN))
+      {
+        return true;
+      }
+
+      if ((scope != SearchScope.BASE) && dn.isDescendantOf(baseDN, false))
+      {
+        return true;
+      }
+
+      return (includeSubtree && dn.isAncestorOf(baseDN, false));
+    }
+  }
+
+
+
+  /**
+   * This class provides an access-ordered map that will automatically remove
+   * the least recently used result when the maximum size has been exceeded.
+   */
+  private static final class EntryCacheMap
+          extends LinkedHashMap<String,CachedEntry>
+  {
+    /**
+     * The serial version UID for this serializable class.
+     */
+    private static final long serialVersionUID = 2734560836402179645L;
+
+
+
+    // The counter that will be incremented for each result that is evicted.
+    private final AtomicLong evictions;
+
+    // The maximum number of results to hold in the map.
+    private final int maxEntries;
+
+
+
+    /**
+     * Creates a new entry cache map with the provided information.
+     *
+     * @param  maxEntries  The maximum number of results to hold in the map.
+     * @param  evictions   The counter that will be incremented for each result
+     *                     that is evicted.
+     */
+    private EntryCacheMap(final int maxEntries, final AtomicLong evictions)
+    {
+      super(StaticUtils.computeMapCapacity(Math.min(maxEntries, 1024)), 0.75f,
+           true);
+
+      this.maxEntries = maxEntries;
+      this.evictions = evictions;
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    protected boolean removeEldestEntry(
+                           final Map.Entry<String,CachedEntry> eldest)
+    {
+      if (size() > maxEntries)
+      {
+        evictions.incrementAndGet();
+        return true;
+      }
+
+      return false;
+    }
+  }
+}
@@ -25,8 +25,6 @@ package com.unboundid.ldap.sdk;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Timer;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import com.unboundid.asn1.ASN1Buffer;
@@ -111,9 +109,10 @@ public final class CompareRequest
 
 
 
-  // The queue that will be used to receive response messages from the server.
-  private final LinkedBlockingQueue<LDAPResponse> responseQueue =
-       new LinkedBlockingQueue<>();
+  // The handoff that will be used to receive the response message from the
+  // server.
+  private final LDAPResponseHandoff responseHandoff =
+       new LDAPResponseHandoff();
 
   // The assertion value for this compare request.
   private ASN1OctetString assertionValue;
@@ -379,6 +378,7 @@ public final class CompareRequest
    */
   public void setDN(final String dn)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(dn);
 
     this.dn = dn;
@@ -394,6 +394,7 @@ public final class CompareRequest
    */
   public void setDN(final DN dn)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(dn);
 
     this.dn = dn.toString();
@@ -421,6 +422,7 @@ public final class CompareRequest
    */
   public void setAttributeName(final String attributeName)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(attributeName);
 
     this.attributeName = attributeName;
@@ -469,6 +471,7 @@ public final class CompareRequest
    */
   public void setAssertionValue(final String assertionValue)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(assertionValue);
 
     this.assertionValue = new ASN1OctetString(assertionValue);
@@ -484,6 +487,7 @@ public final class CompareRequest
    */
   public void setAssertionValue(final byte[] assertionValue)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(assertionValue);
 
     this.assertionValue = new ASN1OctetString(assertionValue);
@@ -499,6 +503,7 @@ public final class CompareRequest
    */
   public void setAssertionValue(final ASN1OctetString assertionValue)
   {
+    clearEncodingTemplate();
     this.assertionValue = assertionValue;
   }
 
@@ -521,6 +526,11 @@ public final class CompareRequest
   @Override()
   public void writeTo(final ASN1Buffer buffer)
   {
+    if (writeUsingTemplate(buffer))
+    {
+      return;
+    }
+
     final ASN1BufferSequence requestSequence =
          buffer.beginSequence(LDAPMessage.PROTOCOL_OP_TYPE_COMPARE_REQUEST);
     buffer.addOctetString(dn);
@@ -542,6 +552,12 @@ public final class CompareRequest
   @Override()
   public ASN1Element encodeProtocolOp()
   {
+    final ASN1Element templateElement = encodeUsingTemplate();
+    if (templateElement != null)
+    {
+      return templateElement;
+    }
+
     // Create the compare request protocol op.
     final ASN1Element[] avaElements =
     {
@@ -602,11 +618,11 @@ public final class CompareRequest
         final long responseTimeout = getResponseTimeoutMillis(connection);
         if (responseTimeout > 0)
         {
-          response = responseQueue.poll(responseTimeout, TimeUnit.MILLISECONDS);
+          response = responseHandoff.poll(responseTimeout);
         }
         else
         {
-          response = responseQueue.take();
+          response = responseHandoff.take();
         }
       }
       catch (final InterruptedException ie)
@@ -661,6 +677,7 @@ public final class CompareRequest
     if (resultListener == null)
     {
       asyncRequestID = null;
+      responseHandoff.clear();
       connection.registerResponseAcceptor(messageID, this);
     }
     else
@@ -1040,7 +1057,7 @@ public final class CompareRequest
   {
     try
     {
-      responseQueue.put(response);
+      responseHandoff.put(response);
     }
     catch (final Exception e)
     {
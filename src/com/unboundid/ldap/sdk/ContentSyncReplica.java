@@ -0,0 +1,1223 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.matchingrules.MatchingRule;
+import com.unboundid.ldap.sdk.controls.ContentSyncInfoIntermediateResponse;
+import com.unboundid.ldap.sdk.controls.ContentSyncRequestControl;
+import com.unboundid.ldap.sdk.controls.ContentSyncRequestMode;
+import com.unboundid.ldap.sdk.controls.ContentSyncStateControl;
+import com.unboundid.ldif.LDIFReader;
+import com.unboundid.ldif.LDIFWriter;
+import com.unboundid.util.CloseableReadWriteLock;
+import com.unboundid.util.Debug;
+import com.unboundid.util.InternalUseOnly;
+import com.unboundid.util.StaticUtils;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+import com.unboundid.util.Validator;
+
+import static com.unboundid.ldap.sdk.LDAPMessages.*;
+
+
+
+/**
+ * This class provides a mechanism for maintaining a local, in-memory copy of
+ * the entries matching a given set of search criteria, which is kept up to
+ * date using the content synchronization operation described in
+ * <A HREF="http://www.ietf.org/rfc/rfc4533.txt">RFC 4533</A>.  The replica
+ * issues a search with the {@link ContentSyncRequestControl} in the
+ * refreshAndPersist mode, and it uses the {@link ContentSyncStateControl} and
+ * {@link ContentSyncInfoIntermediateResponse} messages returned by the server
+ * to apply the initial content and any subsequent changes.  Once the refresh
+ * phase has completed, the replica may be used to answer queries without
+ * sending any requests to the server.
+ * <BR><BR>
+ * The replica may optionally maintain equality indexes for a specified set of
+ * attributes.  Equality lookups for those attributes, as well as searches with
+ * filters that can be evaluated using those indexes, will not need to examine
+ * every entry in the replica.  Any other search will be evaluated against all
+ * entries in the replica.
+ * <BR><BR>
+ * If a checkpoint file is provided, then the replica will periodically write
+ * its contents and the most recent synchronization cookie to that file in LDIF
+ * form.  The checkpoint is written when the refresh phase completes, when the
+ * {@link #checkpoint} method is called, and when the replica is closed.  When
+ * a new replica is created with an existing checkpoint file, its contents will
+ * be loaded from that file, and the cookie will be included in the
+ * synchronization request so that the server only needs to send the changes
+ * made since the checkpoint was written.
+ * <BR><BR>
+ * The synchronization search is processed asynchronously, and the connection
+ * used for it should not be used for any other purpose while the replica is
+ * running.  If the search completes for any reason (for example, because the
+ * connection was closed), then the result will be available through the
+ * {@link #getSearchResult} method, and the replica may be started again on a
+ * new connection.  Note that many directory servers do not support the content
+ * synchronization control, and the in-memory directory server provided with
+ * the LDAP SDK is one of them.
+ * <BR><BR>
+ * <H2>Example</H2>
+ * The following example demonstrates the process for creating a replica of
+ * the entries below "ou=Groups,dc=example,dc=com", waiting for the refresh
+ * phase to complete, and then finding the groups that include a given user:
+ * <PRE>
+ * SearchRequest searchRequest = new SearchRequest(
+ *      "ou=Groups,dc=example,dc=com", SearchScope.SUB,
+ *      Filter.createEqualityFilter("objectClass", "groupOfNames"));
+ * ContentSyncReplica replica = new ContentSyncReplica(searchRequest,
+ *      new File("groups.checkpoint"), "member");
+ * replica.start(connection);
+ * replica.waitForRefreshComplete(60_000L);
+ *
+ * List&lt;ReadOnlyEntry&gt; groups = replica.getEntries("member",
+ *      "uid=john.doe,ou=People,dc=example,dc=com");
+ * </PRE>
+ */
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+public final class ContentSyncReplica
+       implements AsyncSearchResultListener, IntermediateResponseListener,
+                  Closeable
+{
+  /**
+   * The name of the attribute in the checkpoint header record that holds the
+   * synchronization cookie.
+   */
+  private static final String ATTR_CHECKPOINT_COOKIE = "contentSyncCookie";
+
+
+
+  /**
+   * The name of the attribute in the checkpoint header record that associates
+   * the entry UUIDs with the DNs of the entries in the checkpoint.
+   */
+  private static final String ATTR_CHECKPOINT_ENTRY = "contentSyncEntry";
+
+
+
+  /**
+   * The serial version UID for this serializable class.
+   */
+  private static final long serialVersionUID = -3104472640152876389L;
+
+
+
+  // The ID for the synchronization search, if it is in progress.
+  private volatile AsyncRequestID asyncRequestID;
+
+  // The most recent synchronization cookie received from the server.
+  private volatile ASN1OctetString cookie;
+
+  // Indicates whether the refresh phase has completed.
+  private volatile boolean refreshComplete;
+
+  // The lock used to protect the contents of the replica.
+  private final CloseableReadWriteLock lock;
+
+  // The checkpoint file, if any.
+  private final File checkpointFile;
+
+  // The entries in the replica, mapped from their entry UUIDs.
+  private final Map<UUID,ReadOnlyEntry> entries;
+
+  // The entry UUIDs for the entries in the replica, mapped from their DNs.
+  private final Map<DN,UUID> entryUUIDs;
+
+  // The equality indexes, mapped from the lowercase attribute names.  Each
+  // index maps normalized values to the UUIDs of the entries that have them.
+  private final Map<String,Map<ASN1OctetString,Set<UUID>>> indexes;
+
+  // The matching rules used to normalize values for the equality indexes.
+  private final Map<String,MatchingRule> indexMatchingRules;
+
+  // The object used to wait for the refresh phase to complete.
+  private final Object refreshMonitor;
+
+  // The search request used as the template for the synchronization search.
+  private final SearchRequest searchRequest;
+
+  // The connection on which the synchronization search is being processed.
+  private volatile LDAPConnection connection;
+
+  // The result of the synchronization search, if it has completed.
+  private volatile SearchResult searchResult;
+
+  // The entry UUIDs that have been identified as present during the current
+  // refresh phase, or null if the replica is not in a present phase.
+  private Set<UUID> presentUUIDs;
+
+
+
+  /**
+   * Creates a new content synchronization replica with the provided
+   * information.  The replica will not be populated from the server until the
+   * {@link #start} method is called.
+   *
+   * @param  searchRequest      The search request that defines the set of
+   *                            entries to include in the replica.  It must not
+   *                            be {@code null}, and it must not be configured
+   *                            with a search result listener or an
+   *                            intermediate response listener.  Any controls
+   *                            included in the request will be included in the
+   *                            synchronization search.
+   * @param  checkpointFile     The file to which the contents of the replica
+   *                            and the synchronization cookie should be
+   *                            written.  It may be {@code null} if no
+   *                            checkpoint should be maintained.  If the file
+   *                            exists, then the replica will be initialized
+   *                            from it.
+   * @param  indexedAttributes  The names of the attributes for which to
+   *                            maintain equality indexes.  It may be
+   *                            {@code null} or empty if no indexes should be
+   *                            maintained.
+   *
+   * @throws  LDAPException  If the provided search request is configured with
+   *                         a listener, or if a problem occurs while reading
+   *                         the checkpoint file.
+   */
+  public ContentSyncReplica(final SearchRequest searchRequest,
+                            final File checkpointFile,
+                            final String... indexedAttributes)
+         throws LDAPException
+  {
+    Validator.ensureNotNull(searchRequest);
+
+    if ((searchRequest.getSearchResultListener() != null) ||
+        (searchRequest.getIntermediateResponseListener() != null))
+    {
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+           ERR_CONTENT_SYNC_REPLICA_REQUEST_HAS_LISTENER.get());
+    }
+
+    this.searchRequest = searchRequest.duplicate();
+    this.checkpointFile = checkpointFile;
+
+    lock = new CloseableReadWriteLock();
+    refreshMonitor = new Object();
+    entries = new HashMap<>(100);
+    entryUUIDs = new HashMap<>(100);
+    indexes = new HashMap<>(10);
+    indexMatchingRules = new HashMap<>(10);
+    asyncRequestID = null;
+    connection = null;
+    cookie = null;
+    presentUUIDs = null;
+    refreshComplete = false;
+    searchResult = null;
+
+    if (indexedAttributes != null)
+    {
+      for (final String attributeName : indexedAttributes)
+      {
+        final String lowerName = StaticUtils.toLowerCase(attributeName);
+        indexes.put(lowerName, new HashMap<ASN1OctetString,Set<UUID>>(100));
+        indexMatchingRules.put(lowerName,
+             MatchingRule.selectEqualityMatchingRule(attributeName, null));
+      }
+    }
+
+    if ((checkpointFile != null) && checkpointFile.exists())
+    {
+      readCheckpoint();
+    }
+  }
+
+
+
+  /**
+   * Starts the synchronization search on the provided connection.  If the
+   * replica already has a synchronization cookie, then it will be included in
+   * the request so that the server only needs to send the changes since that
+   * cookie was issued.  Otherwise, any existing content will be discarded and
+   * the replica will be fully populated from the server.
+   *
+   * @param  connection  The connection on which to process the
+   *                     synchronization search.  It must not be {@code null},
+   *                     and it should not be used for any other purpose while
+   *                     the replica is running.
+   *
+   * @throws  LDAPException  If the replica is already running, or if a problem
+   *                         occurs while sending the request.
+   */
+  public synchronized void start(final LDAPConnection connection)
+         throws LDAPException
+  {
+    Validator.ensureNotNull(connection);
+
+    if (asyncRequestID != null)
+    {
+      throw new LDAPException(ResultCode.LOCAL_ERROR,
+           ERR_CONTENT_SYNC_REPLICA_ALREADY_RUNNING.get());
+    }
+
+    try (CloseableReadWriteLock.WriteLock writeLock = lock.lockWrite())
+    {
+      writeLock.avoidCompilerWarning();
+
+      if (cookie == null)
+      {
+        entries.clear();
+        entryUUIDs.clear();
+        for (final Map<ASN1OctetString,Set<UUID>> index : indexes.values())
+        {
+          index.clear();
+        }
+      }
+
+      presentUUIDs = new HashSet<>(100);
+      refreshComplete = false;
+      searchResult = null;
+    }
+
+    final SearchRequest r = new SearchRequest(this,
+         searchRequest.getControls(), searchRequest.getBaseDN(),
+         searchRequest.getScope(), searchRequest.getDereferencePolicy(),
+         searchRequest.getSizeLimit(), searchRequest.getTimeLimitSeconds(),
+         searchRequest.typesOnly(), searchRequest.getFilter(),
+         searchRequest.getAttributes());
+    r.addControl(new ContentSyncRequestControl(true,
+         ContentSyncRequestMode.REFRESH_AND_PERSIST, cookie, false));
+    r.setIntermediateResponseListener(this);
+
+    this.connection = connection;
+    asyncRequestID = connection.asyncSearch(r);
+  }
+
+
+
+  /**
+   * Indicates whether the synchronization search is currently in progress.
+   *
+   * @return  {@code true} if the synchronization search is currently in
+   *          progress, or {@code false} if not.
+   */
+  public boolean isRunning()
+  {
+    return (asyncRequestID != null);
+  }
+
+
+
+  /**
+   * Indicates whether the refresh phase of the synchronization search has
+   * completed, so that the replica contains all of the entries matching the
+   * search criteria.
+   *
+   * @return  {@code true} if the refresh phase has completed, or {@code false}
+   *          if not.
+   */
+  public boolean isRefreshComplete()
+  {
+    return refreshComplete;
+  }
+
+
+
+  /**
+   * Waits for the refresh phase of the synchronization search to complete.
+   *
+   * @param  maxWaitTimeMillis  The maximum length of time in milliseconds to
+   *                            wait.  A value that is less than or equal to
+   *                            zero indicates that there should be no limit.
+   *
+   * @return  {@code true} if the refresh phase has completed, or {@code false}
+   *          if it did not complete within the specified length of time or if
+   *          the synchronization search ended before it completed.
+   *
+   * @throws  InterruptedException  If the thread is interrupted while waiting.
+   */
+  public boolean waitForRefreshComplete(final long maxWaitTimeMillis)
+         throws InterruptedException
+  {
+    final long stopWaitingTime;
+    if (maxWaitTimeMillis > 0L)
+    {
+      stopWaitingTime = System.currentTimeMillis() + maxWaitTimeMillis;
+    }
+    else
+    {
+      stopWaitingTime = Long.MAX_VALUE;
+    }
+
+    synchronized (refreshMonitor)
+    {
+      while ((! refreshComplete) && isRunning())
+      {
+        final long remainingMillis =
+             stopWaitingTime - System.currentTimeMillis();
+        if (remainingMillis <= 0L)
+        {
+          break;
+        }
+
+        refreshMonitor.wait(remainingMillis);
+      }
+
+      return refreshComplete;
+    }
+  }
+
+
+
+  /**
+   * Retrieves the result of the synchronization search, if it has completed.
+   *
+   * @return  The result of the synchronization search, or {@code null} if it
+   *          has not been started or is still in progress.
+   */
+  public SearchResult getSearchResult()
+  {
+    return searchResult;
+  }
+
+
+
+  /**
+   * Retrieves the most recent synchronization cookie received from the server.
+   *
+   * @return  The most recent synchronization cookie received from the server,
+   *          or {@code null} if no cookie is available.
+   */
+  public ASN1OctetString getCookie()
+  {
+    return cookie;
+  }
+
+
+
+  /**
+   * Retrieves the file to which checkpoints will be written.
+   *
+   * @return  The file to which checkpoints will be written, or {@code null} if
+   *          no checkpoint will be maintained.
+   */
+  public File getCheckpointFile()
+  {
+    return checkpointFile;
+  }
+
+
+
+  /**
+   * Retrieves the names of the attributes for which equality indexes are
+   * maintained.
+   *
+   * @return  The names of the attributes for which equality indexes are
+   *          maintained, in all lowercase characters.
+   */
+  public Set<String> getIndexedAttributes()
+  {
+    return Collections.unmodifiableSet(indexes.keySet());
+  }
+
+
+
+  /**
+   * Retrieves the number of entries currently held in the replica.
+   *
+   * @return  The number of entries currently held in the replica.
+   */
+  public int getEntryCount()
+  {
+    try (CloseableReadWriteLock.ReadLock readLock = lock.lockRead())
+    {
+      readLock.avoidCompilerWarning();
+      return entries.size();
+    }
+  }
+
+
+
+  /**
+   * Retrieves the entry with the specified DN from the replica.
+   *
+   * @param  dn  The DN of the entry to retrieve.  It must not be {@code null}.
+   *
+   * @return  The entry with the specified DN, or {@code null} if there is no
+   *          such entry in the replica.
+   *
+   * @throws  LDAPException  If the provided string cannot be parsed as a DN.
+   */
+  public ReadOnlyEntry getEntry(final String dn)
+         throws LDAPException
+  {
+    Validator.ensureNotNull(dn);
+
+    final DN parsedDN = new DN(dn);
+    try (CloseableReadWriteLock.ReadLock readLock = lock.lockRead())
+    {
+      readLock.avoidCompilerWarning();
+
+      final UUID uuid = entryUUIDs.get(parsedDN);
+      if (uuid == null)
+      {
+        return null;
+      }
+
+      return entries.get(uuid);
+    }
+  }
+
+
+
+  /**
+   * Retrieves all entries in the replica that have the specified attribute
+   * value.  If an equality index is maintained for the attribute, then it will
+   * be used to identify the matching entries.
+   *
+   * @param  attributeName   The name of the attribute for which to retrieve
+   *                         the matching entries.  It must not be
+   *                         {@code null}.
+   * @param  attributeValue  The value for which to retrieve the matching
+   *                         entries.  It must not be {@code null}.
+   *
+   * @return  The entries in the replica that have the specified attribute
+   *          value.  It may be empty but will not be {@code null}.
+   *
+   * @throws  LDAPException  If a problem occurs while trying to identify the
+   *                         matching entries.
+   */
+  public List<ReadOnlyEntry> getEntries(final String attributeName,
+                                        final String attributeValue)
+         throws LDAPException
+  {
+    Validator.ensureNotNull(attributeName, attributeValue);
+    return search(Filter.createEqualityFilter(attributeName, attributeValue));
+  }
+
+
+
+  /**
+   * Retrieves all entries in the replica that match the provided filter.  Any
+   * equality indexes that can be used for the filter will be used to limit the
+   * set of entries that need to be examined.
+   *
+   * @param  filter  The filter to use to identify the matching entries.  It
+   *                 must not be {@code null}.
+   *
+   * @return  The entries in the replica that match the provided filter.  It may
+   *          be empty but will not be {@code null}.
+   *
+   * @throws  LDAPException  If a problem occurs while evaluating the filter.
+   */
+  public List<ReadOnlyEntry> search(final Filter filter)
+         throws LDAPException
+  {
+    Validator.ensureNotNull(filter);
+
+    try (CloseableReadWriteLock.ReadLock readLock = lock.lockRead())
+    {
+      readLock.avoidCompilerWarning();
+
+      final Set<UUID> candidates = getCandidates(filter);
+      if (candidates == null)
+      {
+        final List<ReadOnlyEntry> matchingEntries = new ArrayList<>(10);
+        for (final ReadOnlyEntry e : entries.values())
+        {
+          if (filter.matchesEntry(e))
+          {
+            matchingEntries.add(e);
+          }
+        }
+        return matchingEntries;
+      }
+
+      final List<ReadOnlyEntry> matchingEntries =
+           new ArrayList<>(candidates.size());
+      for (final UUID uuid : candidates)
+      {
+        final ReadOnlyEntry e = entries.get(uuid);
+        if ((e != null) && filter.matchesEntry(e))
+        {
+          matchingEntries.add(e);
+        }
+      }
+      return matchingEntries;
+    }
+  }
+
+
+
+  /**
+   * Writes the contents of the replica and the most recent synchronization
+   * cookie to the checkpoint file.  The checkpoint is written to a temporary
+   * file that then replaces the existing checkpoint, so that a failure while
+   * writing it will not destroy the previous checkpoint.  This method will
+   * have no effect if no checkpoint file was provided.
+   *
+   * @throws  IOException  If a problem occurs while writing the checkpoint.
+   */
+  public void checkpoint()
+         throws IOException
+  {
+    if (checkpointFile == null)
+    {
+      return;
+    }
+
+    final File tempFile = new File(checkpointFile.getAbsolutePath() + ".new");
+    try (CloseableReadWriteLock.ReadLock readLock = lock.lockRead())
+    {
+      readLock.avoidCompilerWarning();
+
+      final Entry header = new Entry(DN.NULL_DN);
+      if (cookie != null)
+      {
+        header.addAttribute(ATTR_CHECKPOINT_COOKIE, cookie.getValue());
+      }
+
+      final List<String> entryMappings = new ArrayList<>(entries.size());
+      for (final Map.Entry<UUID,ReadOnlyEntry> e : entries.entrySet())
+      {
+        entryMappings.add(e.getKey().toString() + ' ' + e.getValue().getDN());
+      }
+      if (! entryMappings.isEmpty())
+      {
+        header.addAttribute(ATTR_CHECKPOINT_ENTRY, entryMappings);
+      }
+
+      final LDIFWriter writer = new LDIFWriter(tempFile);
+      try
+      {
+        writer.writeEntry(header);
+        for (final ReadOnlyEntry e : entries.values())
+        {
+          writer.writeEntry(e);
+        }
+      }
+      finally
+      {
+        writer.close();
+      }
+    }
+
+    Files.move(tempFile.toPath(), checkpointFile.toPath(),
+         StandardCopyOption.REPLACE_EXISTING);
+  }
+
+
+
+  /**
+   * Stops the synchronization search, if it is in progress, and writes a final
+   * checkpoint.  The connection on which the search was processed will not be
+   * closed.
+   */
+  @Override()
+  public void close()
+  {
+    final AsyncRequestID requestID;
+    final LDAPConnection conn;
+    synchronized (this)
+    {
+      requestID = asyncRequestID;
+      conn = connection;
+      asyncRequestID = null;
+      connection = null;
+    }
+
+    if ((requestID != null) && (conn != null))
+    {
+      try
+      {
+        conn.abandon(requestID);
+      }
+      catch (final Exception e)
+      {
+        Debug.debugException(e);
+      }
+    }
+
+    synchronized (refreshMonitor)
+    {
+      refreshMonitor.notifyAll();
+    }
+
+    try
+    {
+      checkpoint();
+    }
+    catch (final Exception e)
+    {
+      Debug.debugException(e);
+    }
+  }
+
+
+
+  /**
+   * {@inheritDoc}  This is intended for internal use only and should not be
+   * called by anything outside of the LDAP SDK itself.
+   */
+  @InternalUseOnly()
+  @Override()
+  public void searchEntryReturned(final SearchResultEntry searchEntry)
+  {
+    final ContentSyncStateControl stateControl;
+    try
+    {
+      stateControl = ContentSyncStateControl.get(searchEntry);
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      return;
+    }
+
+    if (stateControl == null)
+    {
+      return;
+    }
+
+    final UUID uuid = stateControl.getEntryUUID();
+    try (CloseableReadWriteLock.WriteLock writeLock = lock.lockWrite())
+    {
+      writeLock.avoidCompilerWarning();
+
+      switch (stateControl.getState())
+      {
+        case ADD:
+        case MODIFY:
+          removeEntry(uuid);
+          addEntry(uuid, new ReadOnlyEntry(searchEntry.getDN(),
+               searchEntry.getAttributes()));
+          markPresent(uuid);
+          break;
+
+        case PRESENT:
+          markPresent(uuid);
+          break;
+
+        case DELETE:
+          removeEntry(uuid);
+          break;
+      }
+
+      if (stateControl.getCookie() != null)
+      {
+        cookie = stateControl.getCookie();
+      }
+    }
+  }
+
+
+
+  /**
+   * {@inheritDoc}  This is intended for internal use only and should not be
+   * called by anything outside of the LDAP SDK itself.
+   */
+  @InternalUseOnly()
+  @Override()
+  public void searchReferenceReturned(
+                   final SearchResultReference searchReference)
+  {
+    // Search result references will be ignored.
+  }
+
+
+
+  /**
+   * {@inheritDoc}  This is intended for internal use only and should not be
+   * called by anything outside of the LDAP SDK itself.
+   */
+  @InternalUseOnly()
+  @Override()
+  public void intermediateResponseReturned(
+                   final IntermediateResponse intermediateResponse)
+  {
+    if (! ContentSyncInfoIntermediateResponse.SYNC_INFO_OID.equals(
+         intermediateResponse.getOID()))
+    {
+      return;
+    }
+
+    final ContentSyncInfoIntermediateResponse syncInfo;
+    try
+    {
+      syncInfo = ContentSyncInfoIntermediateResponse.decode(
+           intermediateResponse);
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      return;
+    }
+
+    boolean refreshCompleted = false;
+    try (CloseableReadWriteLock.WriteLock writeLock = lock.lockWrite())
+    {
+      writeLock.avoidCompilerWarning();
+
+      switch (syncInfo.getType())
+      {
+        case REFRESH_PRESENT:
+          // Any entry that was not identified as present during the present
+          // phase no longer exists in the server.
+          if (presentUUIDs != null)
+          {
+            final Iterator<UUID> iterator = entries.keySet().iterator();
+            final List<UUID> removedUUIDs = new ArrayList<>(10);
+            while (iterator.hasNext())
+            {
+              final UUID uuid = iterator.next();
+              if (! presentUUIDs.contains(uuid))
+              {
+                removedUUIDs.add(uuid);
+              }
+            }
+
+            for (final UUID uuid : removedUUIDs)
+            {
+              removeEntry(uuid);
+            }
+          }
+          refreshCompleted = endRefreshPhase(syncInfo.refreshDone());
+          break;
+
+        case REFRESH_DELETE:
+          refreshCompleted = endRefreshPhase(syncInfo.refreshDone());
+          break;
+
+        case SYNC_ID_SET:
+          for (final UUID uuid : syncInfo.getEntryUUIDs())
+          {
+            if (syncInfo.refreshDeletes())
+            {
+              removeEntry(uuid);
+            }
+            else
+            {
+              markPresent(uuid);
+            }
+          }
+          break;
+
+        case NEW_COOKIE:
+        default:
+          break;
+      }
+
+      if (syncInfo.getCookie() != null)
+      {
+        cookie = syncInfo.getCookie();
+      }
+    }
+
+    if (refreshCompleted)
+    {
+      synchronized (refreshMonitor)
+      {
+        refreshMonitor.notifyAll();
+      }
+
+      try
+      {
+        checkpoint();
+      }
+      catch (final Exception e)
+      {
+        Debug.debugException(e);
+      }
+    }
+  }
+
+
+
+  /**
+   * {@inheritDoc}  This is intended for internal use only and should not be
+   * called by anything outside of the LDAP SDK itself.
+   */
+  @InternalUseOnly()
+  @Override()
+  public void searchResultReceived(final AsyncRequestID requestID,
+                                   final SearchResult searchResult)
+  {
+    synchronized (this)
+    {
+      if ((asyncRequestID == null) || asyncRequestID.equals(requestID))
+      {
+        asyncRequestID = null;
+        connection = null;
+      }
+    }
+
+    try (CloseableReadWriteLock.WriteLock writeLock = lock.lockWrite())
+    {
+      writeLock.avoidCompilerWarning();
+
+      this.searchResult = searchResult;
+      presentUUIDs = null;
+
+      // If the server indicates that the cookie can no longer be used, then
+      // discard it so that the next attempt will perform a full refresh.
+      if (searchResult.getResultCode() ==
+           ResultCode.E_SYNC_REFRESH_REQUIRED)
+      {
+        cookie = null;
+      }
+    }
+
+    synchronized (refreshMonitor)
+    {
+      refreshMonitor.notifyAll();
+    }
+  }
+
+
+
+  /**
+   * Reads the contents of the replica from the checkpoint file.
+   *
+   * @throws  LDAPException  If a problem occurs while reading the checkpoint.
+   */
+  private void readCheckpoint()
+          throws LDAPException
+  {
+    final String path = checkpointFile.getAbsolutePath();
+    try
+    {
+      final LDIFReader reader = new LDIFReader(checkpointFile);
+      try
+      {
+        final Entry header = reader.readEntry();
+        if ((header == null) || (! header.getParsedDN().isNullDN()))
+        {
+          throw new LDAPException(ResultCode.DECODING_ERROR,
+               ERR_CONTENT_SYNC_REPLICA_CHECKPOINT_MISSING_HEADER.get(path));
+        }
+
+        final Map<DN,UUID> uuidsByDN = new HashMap<>(100);
+        final String[] entryMappings =
+             header.getAttributeValues(ATTR_CHECKPOINT_ENTRY);
+        if (entryMappings != null)
+        {
+          for (final String mapping : entryMappings)
+          {
+            final int spacePos = mapping.indexOf(' ');
+            uuidsByDN.put(new DN(mapping.substring(spacePos + 1)),
+                 UUID.fromString(mapping.substring(0, spacePos)));
+          }
+        }
+
+        while (true)
+        {
+          final Entry e = reader.readEntry();
+          if (e == null)
+          {
+            break;
+          }
+
+          final UUID uuid = uuidsByDN.get(e.getParsedDN());
+          if (uuid == null)
+          {
+            throw new LDAPException(ResultCode.DECODING_ERROR,
+                 ERR_CONTENT_SYNC_REPLICA_CHECKPOINT_MISSING_UUID.get(path,
+                      e.getDN()));
+          }
+
+          addEntry(uuid, new ReadOnlyEntry(e));
+        }
+
+        final byte[] cookieBytes =
+             header.getAttributeValueBytes(ATTR_CHECKPOINT_COOKIE);
+        if (cookieBytes != null)
+        {
+          cookie = new ASN1OctetString(cookieBytes);
+        }
+      }
+      finally
+      {
+        reader.close();
+      }
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      throw le;
+    }
+    catch (final Exception e)
+    {
+      Debug.debugException(e);
+      throw new LDAPException(ResultCode.LOCAL_ERROR,
+           ERR_CONTENT_SYNC_REPLICA_CANNOT_READ_CHECKPOINT.get(path,
+                StaticUtils.getExceptionMessage(e)),
+           e);
+    }
+  }
+
+
+
+  /**
+   * Indicates that a refresh phase has ended.  This must only be called while
+   * holding the write lock.
+   *
+   * @param  refreshDone  Indicates whether the entire refresh stage has
+   *                      completed.
+   *
+   * @return  {@code true} if the refresh stage has now completed, or
+   *          {@code false} if not.
+   */
+  private boolean endRefreshPhase(final boolean refreshDone)
+  {
+    if (refreshDone)
+    {
+      presentUUIDs = null;
+      refreshComplete = true;
+      return true;
+    }
+    else
+    {
+      presentUUIDs = new HashSet<>(100);
+      return false;
+    }
+  }
+
+
+
+  /**
+   * Records that the entry with the specified UUID is present in the server,
+   * if the replica is in a refresh phase.  This must only be called while
+   * holding the write lock.
+   *
+   * @param  uuid  The UUID of the entry that is present.
+   */
+  private void markPresent(final UUID uuid)
+  {
+    if (presentUUIDs != null)
+    {
+      presentUUIDs.add(uuid);
+    }
+  }
+
+
+
+  /**
+   * Adds the provided entry to the replica and updates the indexes
+   * accordingly.  This must only be called while holding the write lock, or
+   * during construction.
+   *
+   * @param  uuid   The UUID for the entry.
+   * @param  entry  The entry to add.
+   */
+  private void addEntry(final UUID uuid, final ReadOnlyEntry entry)
+  {
+    entries.put(uuid, entry);
+
+    try
+    {
+      entryUUIDs.put(entry.getParsedDN(), uuid);
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+    }
+
+    for (final Map.Entry<String,Map<ASN1OctetString,Set<UUID>>> e :
+         indexes.entrySet())
+    {
+      final Attribute a = entry.getAttribute(e.getKey());
+      if (a == null)
+      {
+        continue;
+      }
+
+      final Map<ASN1OctetString,Set<UUID>> index = e.getValue();
+      for (final ASN1OctetString value : a.getRawValues())
+      {
+        final ASN1OctetString key = normalize(e.getKey(), value);
+        Set<UUID> uuids = index.get(key);
+        if (uuids == null)
+        {
+          uuids = new LinkedHashSet<>(1);
+          index.put(key, uuids);
+        }
+        uuids.add(uuid);
+      }
+    }
+  }
+
+
+
+  /**
+   * Removes the entry with the specified UUID from the replica and updates the
+   * indexes accordingly.  This must only be called while holding the write
+   * lock.
+   *
+   * @param  uuid  The UUID of the entry to remove.
+   */
+  private void removeEntry(final UUID uuid)
+  {
+    final ReadOnlyEntry entry = entries.remove(uuid);
+    if (entry == null)
+    {
+      return;
+    }
+
+    try
+    {
+      entryUUIDs.remove(entry.getParsedDN());
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+    }
+
+    for (final Map.Entry<String,Map<ASN1OctetString,Set<UUID>>> e :
+         indexes.entrySet())
+    {
+      final Attribute a = entry.getAttribute(e.getKey());
+      if (a == null)
+      {
+        continue;
+      }
+
+      final Map<ASN1OctetString,Set<UUID>> index = e.getValue();
+      for (final ASN1OctetString value : a.getRawValues())
+      {
+        final ASN1OctetString key = normalize(e.getKey(), value);
+        final Set<UUID> uuids = index.get(key);
+        if (uuids != null)
+        {
+          uuids.remove(uuid);
+          if (uuids.isEmpty())
+          {
+            index.remove(key);
+          }
+        }
+      }
+    }
+  }
+
+
+
+  /**
+   * Identifies the set of entries that may match the provided filter using the
+   * equality indexes.  This must only be called while holding the read lock.
+   *
+   * @param  filter  The filter for which to identify the candidate entries.
+   *
+   * @return  The UUIDs of the entries that may match the provided filter, or
+   *          {@code null} if the indexes cannot be used to limit the set of
+   *          candidates.
+   */
+  private Set<UUID> getCandidates(final Filter filter)
+  {
+    switch (filter.getFilterType())
+    {
+      case Filter.FILTER_TYPE_EQUALITY:
+        final String lowerName =
+             StaticUtils.toLowerCase(filter.getAttributeName());
+        final Map<ASN1OctetString,Set<UUID>> index = indexes.get(lowerName);
+        if (index == null)
+        {
+          return null;
+        }
+
+        final Set<UUID> uuids =
+             index.get(normalize(lowerName, filter.getRawAssertionValue()));
+        if (uuids == null)
+        {
+          return Collections.emptySet();
+        }
+        return uuids;
+
+      case Filter.FILTER_TYPE_AND:
+        Set<UUID> smallestSet = null;
+        for (final Filter f : filter.getComponents())
+        {
+          final Set<UUID> componentSet = getCandidates(f);
+          if ((componentSet != null) &&
+              ((smallestSet == null) ||
+               (componentSet.size() < smallestSet.size())))
+          {
+            smallestSet = componentSet;
+          }
+        }
+        return smallestSet;
+
+      case Filter.FILTER_TYPE_OR:
+        final Filter[] components = filter.getComponents();
+        if (components.length == 0)
+        {
+          return null;
+        }
+
+        final Set<UUID> union = new LinkedHashSet<>(10);
+        for (final Filter f : components)
+        {
+          final Set<UUID> componentSet = getCandidates(f);
+          if (componentSet == null)
+          {
+            return null;
+          }
+          union.addAll(componentSet);
+        }
+        return union;
+
+      default:
+        return null;
+    }
+  }
+
+
+
+  /**
+   * Normalizes the provided value for use as an equality index key.
+   *
+   * @param  lowerName  The lowercase name of the indexed attribute.
+   * @param  value      The value to normalize.
+   *
+   * @return  The normalized value, or the provided value if it cannot be
+   *          normalized.
+   */
+  private ASN1OctetString normalize(final String lowerName,
+                                    final ASN1OctetString value)
+  {
+    try
+    {
+      return indexMatchingRules.get(lowerName).normalize(value);
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      return new ASN1OctetString(value.getValue());
+    }
+  }
+}
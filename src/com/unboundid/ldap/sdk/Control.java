@@ -341,7 +341,7 @@ public class Control
     try
     {
       final ASN1StreamReaderSequence controlSequence = reader.beginSequence();
-      final String oid = reader.readString();
+      final String oid = reader.readCachedString();
 
       boolean isCritical = false;
       ASN1OctetString value = null;
@@ -24,8 +24,6 @@ package com.unboundid.ldap.sdk;
 
 import java.util.List;
 import java.util.Timer;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import com.unboundid.asn1.ASN1Buffer;
@@ -95,9 +93,10 @@ public final class DeleteRequest
   // The message ID from the last LDAP message sent from this request.
   private int messageID = -1;
 
-  // The queue that will be used to receive response messages from the server.
-  private final LinkedBlockingQueue<LDAPResponse> responseQueue =
-       new LinkedBlockingQueue<>();
+  // The handoff that will be used to receive the response message from the
+  // server.
+  private final LDAPResponseHandoff responseHandoff =
+       new LDAPResponseHandoff();
 
   // The DN of the entry to delete.
   private String dn;
@@ -190,6 +189,7 @@ public final class DeleteRequest
    */
   public void setDN(final String dn)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(dn);
 
     this.dn = dn;
@@ -204,6 +204,7 @@ public final class DeleteRequest
    */
   public void setDN(final DN dn)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(dn);
 
     this.dn = dn.toString();
@@ -228,6 +229,11 @@ public final class DeleteRequest
   @Override()
   public void writeTo(final ASN1Buffer buffer)
   {
+    if (writeUsingTemplate(buffer))
+    {
+      return;
+    }
+
     buffer.addOctetString(LDAPMessage.PROTOCOL_OP_TYPE_DELETE_REQUEST, dn);
   }
 
@@ -241,6 +247,12 @@ public final class DeleteRequest
   @Override()
   public ASN1Element encodeProtocolOp()
   {
+    final ASN1Element templateElement = encodeUsingTemplate();
+    if (templateElement != null)
+    {
+      return templateElement;
+    }
+
     return new ASN1OctetString(LDAPMessage.PROTOCOL_OP_TYPE_DELETE_REQUEST, dn);
   }
 
@@ -286,11 +298,11 @@ public final class DeleteRequest
         final long responseTimeout = getResponseTimeoutMillis(connection);
         if (responseTimeout > 0)
         {
-          response = responseQueue.poll(responseTimeout, TimeUnit.MILLISECONDS);
+          response = responseHandoff.poll(responseTimeout);
         }
         else
         {
-          response = responseQueue.take();
+          response = responseHandoff.take();
         }
       }
       catch (final InterruptedException ie)
@@ -345,6 +357,7 @@ public final class DeleteRequest
     if (resultListener == null)
     {
       asyncRequestID = null;
+      responseHandoff.clear();
       connection.registerResponseAcceptor(messageID, this);
     }
     else
@@ -712,7 +725,7 @@ public final class DeleteRequest
   {
     try
     {
-      responseQueue.put(response);
+      responseHandoff.put(response);
     }
     catch (final Exception e)
     {
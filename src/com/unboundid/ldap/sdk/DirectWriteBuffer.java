@@ -0,0 +1,295 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.unboundid.util.InternalUseOnly;
+
+
+
+/**
+ * This class provides a buffer that holds data in a set of fixed-size direct
+ * byte buffer segments obtained from a shared pool.  It is used to hold batches
+ * of encoded messages that will be written to a socket channel, so that the
+ * segments can be written with a single gathering write without the need to
+ * first copy the data into a temporary direct buffer (as the JVM does when
+ * writing a heap buffer to a channel), and so that large messages do not
+ * require large contiguous heap arrays that will be discarded after use.
+ * <BR><BR>
+ * Segments are returned to the pool when the buffer is cleared.  The pool will
+ * retain a limited number of segments, and any additional segments will be
+ * left for the garbage collector.  This class is not threadsafe.
+ */
+@InternalUseOnly()
+final class DirectWriteBuffer
+{
+  /**
+   * The size in bytes of each segment.
+   */
+  static final int SEGMENT_SIZE = 65_536;
+
+
+
+  /**
+   * The maximum number of segments that will be retained in the pool.
+   */
+  static final int MAX_POOLED_SEGMENTS = 128;
+
+
+
+  /**
+   * The pool of segments that are available for use.
+   */
+  private static final ConcurrentLinkedQueue<ByteBuffer> SEGMENT_POOL =
+       new ConcurrentLinkedQueue<>();
+
+
+
+  /**
+   * The number of segments currently held in the pool.
+   */
+  private static final AtomicInteger POOLED_SEGMENT_COUNT =
+       new AtomicInteger(0);
+
+
+
+  /**
+   * An array of zero bytes that will be used to clear segments that may have
+   * held sensitive information.
+   */
+  private static final byte[] ZERO_BYTES = new byte[SEGMENT_SIZE];
+
+
+
+  // The segments that hold the data in this buffer.  All segments except the
+  // last will be full.
+  private final ArrayList<ByteBuffer> segments;
+
+  // The total number of bytes held in this buffer.
+  private int length;
+
+
+
+  /**
+   * Creates a new empty direct write buffer.
+   */
+  DirectWriteBuffer()
+  {
+    segments = new ArrayList<>(4);
+    length = 0;
+  }
+
+
+
+  /**
+   * Appends the specified portion of the provided array to this buffer.
+   *
+   * @param  b       The array containing the data to append.
+   * @param  offset  The position in the array at which the data to append
+   *                 begins.
+   * @param  len     The number of bytes to append.
+   */
+  void append(final byte[] b, final int offset, final int len)
+  {
+    int pos = offset;
+    int remaining = len;
+    while (remaining > 0)
+    {
+      ByteBuffer segment = null;
+      if (! segments.isEmpty())
+      {
+        segment = segments.get(segments.size() - 1);
+      }
+
+      if ((segment == null) || (! segment.hasRemaining()))
+      {
+        segment = getSegment();
+        segments.add(segment);
+      }
+
+      final int bytesToCopy = Math.min(remaining, segment.remaining());
+      segment.put(b, pos, bytesToCopy);
+      pos += bytesToCopy;
+      remaining -= bytesToCopy;
+      length += bytesToCopy;
+    }
+  }
+
+
+
+  /**
+   * Retrieves the number of bytes held in this buffer.
+   *
+   * @return  The number of bytes held in this buffer.
+   */
+  int length()
+  {
+    return length;
+  }
+
+
+
+  /**
+   * Retrieves the number of segments used to hold the data in this buffer.
+   *
+   * @return  The number of segments used to hold the data in this buffer.
+   */
+  int getSegmentCount()
+  {
+    return segments.size();
+  }
+
+
+
+  /**
+   * Writes the contents of this buffer to the provided output stream using a
+   * gathering write.  The contents of the buffer will not be altered.
+   *
+   * @param  outputStream  The output stream to which the data should be
+   *                       written.
+   *
+   * @throws  IOException  If a problem occurs while writing the data.
+   */
+  void writeTo(final SocketChannelOutputStream outputStream)
+       throws IOException
+  {
+    final ByteBuffer[] buffers = new ByteBuffer[segments.size()];
+    for (int i=0; i < buffers.length; i++)
+    {
+      final ByteBuffer b = segments.get(i).duplicate();
+      b.flip();
+      buffers[i] = b;
+    }
+
+    outputStream.write(buffers);
+  }
+
+
+
+  /**
+   * Retrieves a copy of the data held in this buffer as a byte array.
+   *
+   * @return  A copy of the data held in this buffer as a byte array.
+   */
+  byte[] toByteArray()
+  {
+    final byte[] b = new byte[length];
+    int pos = 0;
+    for (final ByteBuffer segment : segments)
+    {
+      final ByteBuffer d = segment.duplicate();
+      d.flip();
+      final int segmentLength = d.remaining();
+      d.get(b, pos, segmentLength);
+      pos += segmentLength;
+    }
+
+    return b;
+  }
+
+
+
+  /**
+   * Clears the contents of this buffer and returns its segments to the pool.
+   *
+   * @param  zero  Indicates whether the contents of the segments should be
+   *               overwritten with zeros because they may contain sensitive
+   *               information.
+   */
+  void clear(final boolean zero)
+  {
+    for (final ByteBuffer segment : segments)
+    {
+      if (zero)
+      {
+        final int segmentLength = segment.position();
+        segment.clear();
+        segment.put(ZERO_BYTES, 0, segmentLength);
+      }
+
+      releaseSegment(segment);
+    }
+
+    segments.clear();
+    length = 0;
+  }
+
+
+
+  /**
+   * Retrieves an empty segment, either from the pool or by allocating a new
+   * one.
+   *
+   * @return  An empty segment.
+   */
+  private static ByteBuffer getSegment()
+  {
+    final ByteBuffer segment = SEGMENT_POOL.poll();
+    if (segment == null)
+    {
+      return ByteBuffer.allocateDirect(SEGMENT_SIZE);
+    }
+
+    POOLED_SEGMENT_COUNT.decrementAndGet();
+    return segment;
+  }
+
+
+
+  /**
+   * Returns the provided segment to the pool if the pool has not reached its
+   * maximum size.
+   *
+   * @param  segment  The segment to be released.
+   */
+  private static void releaseSegment(final ByteBuffer segment)
+  {
+    segment.clear();
+    if (POOLED_SEGMENT_COUNT.incrementAndGet() <= MAX_POOLED_SEGMENTS)
+    {
+      SEGMENT_POOL.offer(segment);
+    }
+    else
+    {
+      POOLED_SEGMENT_COUNT.decrementAndGet();
+    }
+  }
+
+
+
+  /**
+   * Retrieves the number of segments that are currently available in the
+   * pool.
+   *
+   * @return  The number of segments that are currently available in the pool.
+   */
+  static int getPooledSegmentCount()
+  {
+    return POOLED_SEGMENT_COUNT.get();
+  }
+}
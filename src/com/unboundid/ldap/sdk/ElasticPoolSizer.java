@@ -0,0 +1,320 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.unboundid.util.Debug;
+import com.unboundid.util.InternalUseOnly;
+
+
+
+/**
+ * This class applies an {@link ElasticPoolSizingPolicy} to an
+ * {@link LDAPConnectionPool}.  It holds the state needed to determine when the
+ * pool should grow or shrink, and it uses a background thread to establish the
+ * connections added when the pool grows.
+ * <BR><BR>
+ * The number of connections in the pool is computed from the pool's maximum
+ * number of connections and the number of connections that it is currently
+ * permitted to create.  The pool grows by reserving some of that capacity and
+ * establishing new connections with a {@link ParallelPoolConnector}, and it
+ * shrinks by discarding connections that are currently available, which
+ * returns that capacity.  Shrinking never waits for a connection to be
+ * released, so it will not block the health checking thread.
+ */
+@InternalUseOnly()
+final class ElasticPoolSizer
+{
+  /**
+   * The maximum number of threads to use to establish connections in parallel
+   * when the pool grows.
+   */
+  private static final int MAX_CONNECT_THREADS = 8;
+
+
+
+  // Indicates whether connections are currently being established in the
+  // background.
+  private final AtomicBoolean growthInProgress;
+
+  // The policy that is being applied.
+  private final ElasticPoolSizingPolicy policy;
+
+  // The greatest number of connections observed to be in use since
+  // utilization fell below the low utilization threshold.
+  private int peakConnectionsInUse;
+
+  // The connection pool to which the policy is being applied.
+  private final LDAPConnectionPool pool;
+
+  // The time that utilization was first observed to be below the low
+  // utilization threshold, or -1 if it was not below the threshold when last
+  // sampled.
+  private long lowUtilizationStartTime;
+
+  // The number of checkout attempts as of the previous evaluation.
+  private long previousNumCheckouts;
+
+  // The total checkout wait time in nanoseconds as of the previous evaluation.
+  private long previousWaitTimeNanos;
+
+
+
+  /**
+   * Creates a new elastic pool sizer with the provided information.
+   *
+   * @param  pool    The connection pool to which the policy should be applied.
+   * @param  policy  The policy to apply.
+   */
+  ElasticPoolSizer(final LDAPConnectionPool pool,
+                   final ElasticPoolSizingPolicy policy)
+  {
+    this.pool = pool;
+    this.policy = policy;
+
+    growthInProgress = new AtomicBoolean(false);
+    lowUtilizationStartTime = -1L;
+    peakConnectionsInUse = 0;
+
+    final LDAPConnectionPoolStatistics stats =
+         pool.getConnectionPoolStatistics();
+    previousWaitTimeNanos = stats.getTotalCheckoutWaitTimeNanos();
+    previousNumCheckouts =
+         stats.getNumSuccessfulCheckouts() + stats.getNumFailedCheckouts();
+  }
+
+
+
+  /**
+   * Retrieves the policy that is being applied.
+   *
+   * @return  The policy that is being applied.
+   */
+  ElasticPoolSizingPolicy getPolicy()
+  {
+    return policy;
+  }
+
+
+
+  /**
+   * Indicates whether connections are currently being established in the
+   * background.
+   *
+   * @return  {@code true} if connections are currently being established in the
+   *          background, or {@code false} if not.
+   */
+  boolean isGrowthInProgress()
+  {
+    return growthInProgress.get();
+  }
+
+
+
+  /**
+   * Examines the current state of the pool and grows or shrinks it if
+   * appropriate.  This is invoked by the pool's health checking process.
+   */
+  synchronized void evaluate()
+  {
+    if (pool.isClosed())
+    {
+      return;
+    }
+
+
+    // See whether checkout attempts have waited for too long, on average, since
+    // the last evaluation.  If so, then grow the pool.
+    final LDAPConnectionPoolStatistics stats =
+         pool.getConnectionPoolStatistics();
+    final long waitTimeNanos = stats.getTotalCheckoutWaitTimeNanos();
+    final long numCheckouts =
+         stats.getNumSuccessfulCheckouts() + stats.getNumFailedCheckouts();
+    final long checkoutsInInterval = numCheckouts - previousNumCheckouts;
+    final long waitNanosInInterval = waitTimeNanos - previousWaitTimeNanos;
+    previousNumCheckouts = numCheckouts;
+    previousWaitTimeNanos = waitTimeNanos;
+
+    if ((checkoutsInInterval > 0L) && (waitNanosInInterval > 0L))
+    {
+      final double averageWaitMillis =
+           (waitNanosInInterval / 1_000_000.0d) / checkoutsInInterval;
+      if (averageWaitMillis > policy.getTargetCheckoutWaitTimeMillis())
+      {
+        lowUtilizationStartTime = -1L;
+        grow();
+        return;
+      }
+    }
+
+
+    // If the pool has fewer than the minimum number of connections, then grow
+    // it.
+    final int numConnections = pool.getCurrentConnectionCount();
+    if (numConnections < policy.getMinConnections())
+    {
+      lowUtilizationStartTime = -1L;
+      grow();
+      return;
+    }
+
+
+    // Sample the utilization and shrink the pool if it has remained low for
+    // long enough.
+    if ((numConnections <= policy.getMinConnections()) || isGrowthInProgress())
+    {
+      lowUtilizationStartTime = -1L;
+      return;
+    }
+
+    final int numAvailable = pool.getCurrentAvailableConnections();
+    final int numInUse = Math.max(0, (numConnections - numAvailable));
+    if (((double) numInUse / numConnections) >=
+         policy.getLowUtilizationThreshold())
+    {
+      lowUtilizationStartTime = -1L;
+      return;
+    }
+
+    final long currentTime = System.currentTimeMillis();
+    if (lowUtilizationStartTime < 0L)
+    {
+      lowUtilizationStartTime = currentTime;
+      peakConnectionsInUse = numInUse;
+    }
+    else
+    {
+      peakConnectionsInUse = Math.max(peakConnectionsInUse, numInUse);
+    }
+
+    if ((currentTime - lowUtilizationStartTime) >=
+         policy.getLowUtilizationDurationMillis())
+    {
+      final int targetConnections = Math.max(policy.getMinConnections(),
+           (int) Math.ceil(peakConnectionsInUse /
+                policy.getLowUtilizationThreshold()));
+      final int numToRemove = numConnections - targetConnections;
+      if (numToRemove > 0)
+      {
+        pool.discardIdleConnections(Math.max(0, (numAvailable - numToRemove)));
+      }
+
+      lowUtilizationStartTime = -1L;
+    }
+  }
+
+
+
+  /**
+   * Grows the pool by the configured growth increment (or by as many
+   * connections as the pool's maximum size will allow, if that is fewer) by
+   * establishing the new connections in a background thread.  This method
+   * will return immediately, and it will have no effect if the pool is already
+   * growing or is already at its maximum size.
+   */
+  void grow()
+  {
+    if (pool.isClosed() || (! growthInProgress.compareAndSet(false, true)))
+    {
+      return;
+    }
+
+    boolean started = false;
+    int numReserved = 0;
+    try
+    {
+      numReserved =
+           pool.reserveConnectionsForGrowth(policy.getGrowthIncrement());
+      if (numReserved > 0)
+      {
+        final GrowthThread t = new GrowthThread(numReserved);
+        t.start();
+        started = true;
+      }
+    }
+    catch (final Exception e)
+    {
+      Debug.debugException(e);
+    }
+    finally
+    {
+      // If the thread could not be started (including because of an error
+      // like an inability to create a native thread), then the reserved
+      // capacity must be returned so that the pool does not lose it.
+      if (! started)
+      {
+        pool.releaseReservedConnections(numReserved);
+        growthInProgress.set(false);
+      }
+    }
+  }
+
+
+
+  /**
+   * This class provides a thread that will be used to establish the
+   * connections added to the pool when it grows.
+   */
+  private final class GrowthThread
+          extends Thread
+  {
+    // The number of connections to establish.
+    private final int numConnections;
+
+
+
+    /**
+     * Creates a new growth thread that will establish the specified number of
+     * connections.
+     *
+     * @param  numConnections  The number of connections to establish.
+     */
+    private GrowthThread(final int numConnections)
+    {
+      setName("Elastic Pool Sizing Thread for " + pool.toString());
+      setDaemon(true);
+
+      this.numConnections = numConnections;
+    }
+
+
+
+    /**
+     * Establishes the connections and adds them to the pool.
+     */
+    @Override()
+    public void run()
+    {
+      try
+      {
+        pool.addConnections(numConnections,
+             Math.min(numConnections, MAX_CONNECT_THREADS));
+      }
+      finally
+      {
+        growthInProgress.set(false);
+      }
+    }
+  }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.io.Serializable;
+
+import com.unboundid.util.NotMutable;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+import com.unboundid.util.Validator;
+
+
+
+/**
+ * This class defines a policy that may be used to automatically adjust the
+ * number of connections in an {@link LDAPConnectionPool} in response to the
+ * load placed on it.  The pool's maximum number of connections serves as the
+ * upper bound on its size, and this policy determines when connections should
+ * be added or removed within that bound:
+ * <UL>
+ *   <LI>
+ *     The pool will grow whenever an attempt to check out a connection has
+ *     been waiting for longer than the target checkout wait time, or whenever
+ *     the average checkout wait time since the previous health check exceeds
+ *     that target.  The pool will grow by the configured growth increment,
+ *     and the new connections will be established in the background, so that
+ *     threads trying to check out connections do not need to wait for
+ *     connections to be established and authenticated.  While a sizing policy
+ *     is in effect (and the pool's maximum wait time is greater than zero),
+ *     threads will not create new connections themselves.
+ *   </LI>
+ *   <LI>
+ *     The pool will shrink whenever the fraction of its connections that are
+ *     in use has remained below the low utilization threshold for at least the
+ *     low utilization duration.  Idle connections will be closed so that the
+ *     pool is left with enough connections for the greatest number observed to
+ *     be in use during that time to fall at the low utilization threshold, but
+ *     never with fewer than the configured minimum number of connections.
+ *   </LI>
+ * </UL>
+ * Because the pool will only grow when checkout attempts have to wait, and will
+ * only shrink after utilization has remained low for a sustained period of
+ * time, short-lived fluctuations in load will not cause connections to be
+ * repeatedly established and closed.  Utilization is sampled and the pool is
+ * shrunk by the pool's health checking process, so the health check interval
+ * should be small enough relative to the low utilization duration that several
+ * samples will be taken.
+ * <BR><BR>
+ * <H2>Example</H2>
+ * The following example demonstrates the process for creating a connection
+ * pool that starts with ten connections and may grow up to 100 connections
+ * whenever checkout attempts need to wait for longer than 50 milliseconds, and
+ * that will shrink back down to no fewer than ten connections when less than
+ * half of its connections have been in use for at least five minutes:
+ * <PRE>
+ * LDAPConnectionPool pool =
+ *      new LDAPConnectionPool(serverSet, bindRequest, 10, 100);
+ * pool.setCreateIfNecessary(false);
+ * pool.setHealthCheckIntervalMillis(30_000L);
+ * pool.setElasticSizingPolicy(new ElasticPoolSizingPolicy(10, 10, 50L, 0.5d,
+ *      300_000L));
+ * </PRE>
+ */
+@NotMutable()
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+public final class ElasticPoolSizingPolicy
+       implements Serializable
+{
+  /**
+   * The serial version UID for this serializable class.
+   */
+  private static final long serialVersionUID = -3019537766238745130L;
+
+
+
+  // The fraction of connections that must be in use in order for the pool to
+  // be considered sufficiently utilized.
+  private final double lowUtilizationThreshold;
+
+  // The number of connections to add each time the pool grows.
+  private final int growthIncrement;
+
+  // The minimum number of connections that the pool should have.
+  private final int minConnections;
+
+  // The length of time in milliseconds that utilization must remain below the
+  // threshold before the pool may shrink.
+  private final long lowUtilizationDurationMillis;
+
+  // The maximum length of time in milliseconds that checkout attempts should
+  // need to wait before the pool grows.
+  private final long targetCheckoutWaitTimeMillis;
+
+
+
+  /**
+   * Creates a new elastic pool sizing policy with the provided settings.
+   *
+   * @param  minConnections                The minimum number of connections
+   *                                       that the pool should have.  The pool
+   *                                       will never be shrunk below this
+   *                                       number of connections.  It must be
+   *                                       greater than or equal to zero.
+   * @param  growthIncrement               The number of connections to add
+   *                                       each time the pool grows.  It must be
+   *                                       greater than zero.
+   * @param  targetCheckoutWaitTimeMillis  The maximum length of time in
+   *                                       milliseconds that attempts to check
+   *                                       out a connection should need to wait
+   *                                       before the pool grows.  It must be
+   *                                       greater than or equal to zero.
+   * @param  lowUtilizationThreshold       The fraction of the pool's
+   *                                       connections that must be in use for
+   *                                       the pool to be considered
+   *                                       sufficiently utilized.  It must be
+   *                                       greater than zero and less than or
+   *                                       equal to one.
+   * @param  lowUtilizationDurationMillis  The length of time in milliseconds
+   *                                       that utilization must remain below
+   *                                       the low utilization threshold before
+   *                                       the pool may be shrunk.  It must be
+   *                                       greater than or equal to zero.
+   */
+  public ElasticPoolSizingPolicy(final int minConnections,
+                                 final int growthIncrement,
+                                 final long targetCheckoutWaitTimeMillis,
+                                 final double lowUtilizationThreshold,
+                                 final long lowUtilizationDurationMillis)
+  {
+    Validator.ensureTrue((minConnections >= 0),
+         "ElasticPoolSizingPolicy.minConnections must be greater than or " +
+              "equal to zero.");
+    Validator.ensureTrue((growthIncrement > 0),
+         "ElasticPoolSizingPolicy.growthIncrement must be greater than zero.");
+    Validator.ensureTrue((targetCheckoutWaitTimeMillis >= 0L),
+         "ElasticPoolSizingPolicy.targetCheckoutWaitTimeMillis must be " +
+              "greater than or equal to zero.");
+    Validator.ensureTrue(
+         ((lowUtilizationThreshold > 0.0d) &&
+              (lowUtilizationThreshold <= 1.0d)),
+         "ElasticPoolSizingPolicy.lowUtilizationThreshold must be greater " +
+              "than zero and less than or equal to one.");
+    Validator.ensureTrue((lowUtilizationDurationMillis >= 0L),
+         "ElasticPoolSizingPolicy.lowUtilizationDurationMillis must be " +
+              "greater than or equal to zero.");
+
+    this.minConnections               = minConnections;
+    this.growthIncrement              = growthIncrement;
+    this.targetCheckoutWaitTimeMillis = targetCheckoutWaitTimeMillis;
+    this.lowUtilizationThreshold      = lowUtilizationThreshold;
+    this.lowUtilizationDurationMillis = lowUtilizationDurationMillis;
+  }
+
+
+
+  /**
+   * Retrieves the minimum number of connections that the pool should have.
+   *
+   * @return  The minimum number of connections that the pool should have.
+   */
+  public int getMinConnections()
+  {
+    return minConnections;
+  }
+
+
+
+  /**
+   * Retrieves the number of connections to add each time the pool grows.
+   *
+   * @return  The number of connections to add each time the pool grows.
+   */
+  public int getGrowthIncrement()
+  {
+    return growthIncrement;
+  }
+
+
+
+  /**
+   * Retrieves the maximum length of time in milliseconds that attempts to check
+   * out a connection should need to wait before the pool grows.
+   *
+   * @return  The maximum length of time in milliseconds that attempts to check
+   *          out a connection should need to wait before the pool grows.
+   */
+  public long getTargetCheckoutWaitTimeMillis()
+  {
+    return targetCheckoutWaitTimeMillis;
+  }
+
+
+
+  /**
+   * Retrieves the fraction of the pool's connections that must be in use for
+   * the pool to be considered sufficiently utilized.
+   *
+   * @return  The fraction of the pool's connections that must be in use for the
+   *          pool to be considered sufficiently utilized.
+   */
+  public double getLowUtilizationThreshold()
+  {
+    return lowUtilizationThreshold;
+  }
+
+
+
+  /**
+   * Retrieves the length of time in milliseconds that utilization must remain
+   * below the low utilization threshold before the pool may be shrunk.
+   *
+   * @return  The length of time in milliseconds that utilization must remain
+   *          below the low utilization threshold before the pool may be
+   *          shrunk.
+   */
+  public long getLowUtilizationDurationMillis()
+  {
+    return lowUtilizationDurationMillis;
+  }
+
+
+
+  /**
+   * Retrieves a string representation of this elastic pool sizing policy.
+   *
+   * @return  A string representation of this elastic pool sizing policy.
+   */
+  @Override()
+  public String toString()
+  {
+    final StringBuilder buffer = new StringBuilder();
+    toString(buffer);
+    return buffer.toString();
+  }
+
+
+
+  /**
+   * Appends a string representation of this elastic pool sizing policy to the
+   * provided buffer.
+   *
+   * @param  buffer  The buffer to which the information should be appended.
+   */
+  public void toString(final StringBuilder buffer)
+  {
+    buffer.append("ElasticPoolSizingPolicy(minConnections=");
+    buffer.append(minConnections);
+    buffer.append(", growthIncrement=");
+    buffer.append(growthIncrement);
+    buffer.append(", targetCheckoutWaitTimeMillis=");
+    buffer.append(targetCheckoutWaitTimeMillis);
+    buffer.append(", lowUtilizationThreshold=");
+    buffer.append(lowUtilizationThreshold);
+    buffer.append(", lowUtilizationDurationMillis=");
+    buffer.append(lowUtilizationDurationMillis);
+    buffer.append(')');
+  }
+}
@@ -22,6 +22,9 @@ package com.unboundid.ldap.sdk;
 
 
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -37,6 +40,7 @@ import java.util.Set;
 import java.util.StringTokenizer;
 
 import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.asn1.ASN1StreamReader;
 import com.unboundid.ldap.matchingrules.MatchingRule;
 import com.unboundid.ldap.matchingrules.OctetStringMatchingRule;
 import com.unboundid.ldap.sdk.schema.AttributeTypeDefinition;
@@ -114,6 +118,12 @@ public class Entry
   // The set of attributes for this entry.
   private final LinkedHashMap<String,Attribute> attributes;
 
+  // The encoded representation of the attributes for this entry, if they have
+  // not yet been decoded.  This will only be non-null for entries created with
+  // lazy decoding, and will be set to null once the attributes have been
+  // decoded into the attribute map.
+  private transient volatile byte[] encodedAttributes;
+
   // The schema to use for this entry.
   private final Schema schema;
 
@@ -130,7 +140,7 @@ public class Entry
   protected Entry(final Entry e)
   {
     parsedDN = e.parsedDN;
-    attributes = e.attributes;
+    attributes = e.getAttributeMap();
     schema = e.schema;
     dn = e.dn;
   }
@@ -443,6 +453,130 @@ public class Entry
 
 
 
+  /**
+   * Creates a new entry with the provided DN and set of attributes in encoded
+   * form.  The attributes will not be decoded until they are first needed.
+   *
+   * @param  dn                 The DN for this entry.  It must not be
+   *                            {@code null}.
+   * @param  schema             The schema to use for operations involving this
+   *                            entry.  It may be {@code null} if no schema is
+   *                            available.
+   * @param  encodedAttributes  The value of the BER sequence containing the
+   *                            encoded attributes for this entry, as it
+   *                            appears in a search result entry protocol op.
+   *                            It must not be {@code null}.
+   */
+  Entry(final String dn, final Schema schema, final byte[] encodedAttributes)
+  {
+    Validator.ensureNotNull(dn, encodedAttributes);
+
+    this.dn                = dn;
+    this.schema            = schema;
+    this.encodedAttributes = encodedAttributes;
+
+    attributes = new LinkedHashMap<>(StaticUtils.computeMapCapacity(20));
+  }
+
+
+
+  /**
+   * Retrieves the map of attributes for this entry, decoding them first if
+   * they are still in encoded form.
+   *
+   * @return  The map of attributes for this entry.
+   *
+   * @throws  LDAPRuntimeException  If the attributes were provided in encoded
+   *                                form and could not be decoded.
+   */
+  private LinkedHashMap<String,Attribute> getAttributeMap()
+          throws LDAPRuntimeException
+  {
+    if (encodedAttributes != null)
+    {
+      decodeAttributes();
+    }
+
+    return attributes;
+  }
+
+
+
+  /**
+   * Decodes the encoded attributes for this entry into the attribute map, if
+   * that has not already been done.  Multiple values for the same attribute
+   * will be merged, just as when an entry is created from a collection of
+   * attributes.
+   *
+   * @throws  LDAPRuntimeException  If the attributes cannot be decoded.
+   */
+  private void decodeAttributes()
+          throws LDAPRuntimeException
+  {
+    synchronized (attributes)
+    {
+      final byte[] encoded = encodedAttributes;
+      if (encoded == null)
+      {
+        return;
+      }
+
+      try
+      {
+        final ByteArrayInputStream inputStream =
+             new ByteArrayInputStream(encoded);
+        final ASN1StreamReader reader = new ASN1StreamReader(inputStream);
+        while (inputStream.available() > 0)
+        {
+          final Attribute a = Attribute.readFrom(reader, schema);
+          final String name = StaticUtils.toLowerCase(a.getName());
+          final Attribute attr = attributes.get(name);
+          if (attr == null)
+          {
+            attributes.put(name, a);
+          }
+          else
+          {
+            attributes.put(name, Attribute.mergeAttributes(attr, a));
+          }
+        }
+      }
+      catch (final Exception e)
+      {
+        Debug.debugException(e);
+        attributes.clear();
+        throw new LDAPRuntimeException(new LDAPException(
+             ResultCode.DECODING_ERROR,
+             ERR_ENTRY_CANNOT_DECODE_ATTRIBUTES.get(dn,
+                  StaticUtils.getExceptionMessage(e)),
+             e));
+      }
+
+      encodedAttributes = null;
+    }
+  }
+
+
+
+  /**
+   * Writes the serialized representation of this entry to the provided output
+   * stream.  Any attributes that are still in encoded form will be decoded
+   * first.
+   *
+   * @param  outputStream  The output stream to which the entry should be
+   *                       written.
+   *
+   * @throws  IOException  If a problem occurs while writing to the stream.
+   */
+  private void writeObject(final ObjectOutputStream outputStream)
+          throws IOException
+  {
+    getAttributeMap();
+    outputStream.defaultWriteObject();
+  }
+
+
+
   /**
    * Retrieves the DN for this entry.
    *
@@ -618,7 +752,7 @@ public class Entry
   {
     Validator.ensureNotNull(attributeName);
 
-    if (attributes.containsKey(StaticUtils.toLowerCase(attributeName)))
+    if (getAttributeMap().containsKey(StaticUtils.toLowerCase(attributeName)))
     {
       return true;
     }
@@ -643,7 +777,7 @@ public class Entry
       final AttributeTypeDefinition at = schema.getAttributeType(baseName);
       if (at != null)
       {
-        if (attributes.containsKey(
+        if (getAttributeMap().containsKey(
              StaticUtils.toLowerCase(at.getOID()) + options))
         {
           return true;
@@ -651,7 +785,7 @@ public class Entry
 
         for (final String name : at.getNames())
         {
-          if (attributes.containsKey(
+          if (getAttributeMap().containsKey(
                StaticUtils.toLowerCase(name) + options))
           {
             return true;
@@ -681,7 +815,7 @@ public class Entry
     Validator.ensureNotNull(attribute);
 
     final String lowerName = StaticUtils.toLowerCase(attribute.getName());
-    final Attribute attr = attributes.get(lowerName);
+    final Attribute attr = getAttributeMap().get(lowerName);
     return ((attr != null) && attr.equals(attribute));
   }
 
@@ -705,7 +839,7 @@ public class Entry
     Validator.ensureNotNull(attributeName, attributeValue);
 
     final Attribute attr =
-         attributes.get(StaticUtils.toLowerCase(attributeName));
+         getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     return ((attr != null) && attr.hasValue(attributeValue));
   }
 
@@ -732,7 +866,7 @@ public class Entry
     Validator.ensureNotNull(attributeName, attributeValue);
 
     final Attribute attr =
-         attributes.get(StaticUtils.toLowerCase(attributeName));
+         getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     return ((attr != null) && attr.hasValue(attributeValue, matchingRule));
   }
 
@@ -756,7 +890,7 @@ public class Entry
     Validator.ensureNotNull(attributeName, attributeValue);
 
     final Attribute attr =
-         attributes.get(StaticUtils.toLowerCase(attributeName));
+         getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     return ((attr != null) && attr.hasValue(attributeValue));
   }
 
@@ -783,7 +917,7 @@ public class Entry
     Validator.ensureNotNull(attributeName, attributeValue);
 
     final Attribute attr =
-         attributes.get(StaticUtils.toLowerCase(attributeName));
+         getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     return ((attr != null) && attr.hasValue(attributeValue, matchingRule));
   }
 
@@ -812,7 +946,7 @@ public class Entry
    */
   public final Collection<Attribute> getAttributes()
   {
-    return Collections.unmodifiableCollection(attributes.values());
+    return Collections.unmodifiableCollection(getAttributeMap().values());
   }
 
 
@@ -850,7 +984,7 @@ public class Entry
   {
     Validator.ensureNotNull(attributeName);
 
-    Attribute a = attributes.get(StaticUtils.toLowerCase(attributeName));
+    Attribute a = getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     if ((a == null) && (schema != null))
     {
       final String baseName;
@@ -874,12 +1008,12 @@ public class Entry
         return null;
       }
 
-      a = attributes.get(StaticUtils.toLowerCase(at.getOID() + options));
+      a = getAttributeMap().get(StaticUtils.toLowerCase(at.getOID() + options));
       if (a == null)
       {
         for (final String name : at.getNames())
         {
-          a = attributes.get(StaticUtils.toLowerCase(name) + options);
+          a = getAttributeMap().get(StaticUtils.toLowerCase(name) + options);
           if (a != null)
           {
             return a;
@@ -920,7 +1054,7 @@ public class Entry
 
     final ArrayList<Attribute> attrList = new ArrayList<>(10);
 
-    for (final Attribute a : attributes.values())
+    for (final Attribute a : getAttributeMap().values())
     {
       if (a.getBaseName().equalsIgnoreCase(baseName))
       {
@@ -968,7 +1102,7 @@ public class Entry
     Validator.ensureNotNull(attributeName);
 
     final Attribute a =
-         attributes.get(StaticUtils.toLowerCase(attributeName));
+         getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     if (a == null)
     {
       return null;
@@ -997,7 +1131,7 @@ public class Entry
     Validator.ensureNotNull(attributeName);
 
     final Attribute a =
-         attributes.get(StaticUtils.toLowerCase(attributeName));
+         getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     if (a == null)
     {
       return null;
@@ -1029,7 +1163,7 @@ public class Entry
     Validator.ensureNotNull(attributeName);
 
     final Attribute a =
-         attributes.get(StaticUtils.toLowerCase(attributeName));
+         getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     if (a == null)
     {
       return null;
@@ -1058,7 +1192,8 @@ public class Entry
   {
     Validator.ensureNotNull(attributeName);
 
-    final Attribute a = attributes.get(StaticUtils.toLowerCase(attributeName));
+    final Attribute a =
+         getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     if (a == null)
     {
       return null;
@@ -1087,7 +1222,8 @@ public class Entry
   {
     Validator.ensureNotNull(attributeName);
 
-    final Attribute a = attributes.get(StaticUtils.toLowerCase(attributeName));
+    final Attribute a =
+         getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     if (a == null)
     {
       return null;
@@ -1116,7 +1252,8 @@ public class Entry
   {
     Validator.ensureNotNull(attributeName);
 
-    final Attribute a = attributes.get(StaticUtils.toLowerCase(attributeName));
+    final Attribute a =
+         getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     if (a == null)
     {
       return null;
@@ -1145,7 +1282,8 @@ public class Entry
   {
     Validator.ensureNotNull(attributeName);
 
-    final Attribute a = attributes.get(StaticUtils.toLowerCase(attributeName));
+    final Attribute a =
+         getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     if (a == null)
     {
       return null;
@@ -1171,7 +1309,8 @@ public class Entry
   {
     Validator.ensureNotNull(attributeName);
 
-    final Attribute a = attributes.get(StaticUtils.toLowerCase(attributeName));
+    final Attribute a =
+         getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     if (a == null)
     {
       return null;
@@ -1198,7 +1337,8 @@ public class Entry
   {
     Validator.ensureNotNull(attributeName);
 
-    final Attribute a = attributes.get(StaticUtils.toLowerCase(attributeName));
+    final Attribute a =
+         getAttributeMap().get(StaticUtils.toLowerCase(attributeName));
     if (a == null)
     {
       return null;
@@ -1252,16 +1392,16 @@ public class Entry
     Validator.ensureNotNull(attribute);
 
     final String lowerName = StaticUtils.toLowerCase(attribute.getName());
-    final Attribute attr = attributes.get(lowerName);
+    final Attribute attr = getAttributeMap().get(lowerName);
     if (attr == null)
     {
-      attributes.put(lowerName, attribute);
+      getAttributeMap().put(lowerName, attribute);
       return true;
     }
     else
     {
       final Attribute newAttr = Attribute.mergeAttributes(attr, attribute);
-      attributes.put(lowerName, newAttr);
+      getAttributeMap().put(lowerName, newAttr);
       return (attr.getRawValues().length != newAttr.getRawValues().length);
     }
   }
@@ -1388,8 +1528,8 @@ public class Entry
 
     if (schema == null)
     {
-      return
-           (attributes.remove(StaticUtils.toLowerCase(attributeName)) != null);
+      return (getAttributeMap().remove(
+           StaticUtils.toLowerCase(attributeName)) != null);
     }
     else
     {
@@ -1400,7 +1540,7 @@ public class Entry
       }
       else
       {
-        attributes.remove(StaticUtils.toLowerCase(a.getName()));
+        getAttributeMap().remove(StaticUtils.toLowerCase(a.getName()));
         return true;
       }
     }
@@ -1465,11 +1605,11 @@ public class Entry
            new Attribute(attributeName, attributeValue), matchingRule);
       if (newAttr.hasValue())
       {
-        attributes.put(lowerName, newAttr);
+        getAttributeMap().put(lowerName, newAttr);
       }
       else
       {
-        attributes.remove(lowerName);
+        getAttributeMap().remove(lowerName);
       }
 
       return (attr.getRawValues().length != newAttr.getRawValues().length);
@@ -1535,11 +1675,11 @@ public class Entry
            new Attribute(attributeName, attributeValue), matchingRule);
       if (newAttr.hasValue())
       {
-        attributes.put(lowerName, newAttr);
+        getAttributeMap().put(lowerName, newAttr);
       }
       else
       {
-        attributes.remove(lowerName);
+        getAttributeMap().remove(lowerName);
       }
 
       return (attr.getRawValues().length != newAttr.getRawValues().length);
@@ -1579,11 +1719,11 @@ public class Entry
            new Attribute(attributeName, attributeValues));
       if (newAttr.hasValue())
       {
-        attributes.put(lowerName, newAttr);
+        getAttributeMap().put(lowerName, newAttr);
       }
       else
       {
-        attributes.remove(lowerName);
+        getAttributeMap().remove(lowerName);
       }
 
       return (attr.getRawValues().length != newAttr.getRawValues().length);
@@ -1623,11 +1763,11 @@ public class Entry
            new Attribute(attributeName, attributeValues));
       if (newAttr.hasValue())
       {
-        attributes.put(lowerName, newAttr);
+        getAttributeMap().put(lowerName, newAttr);
       }
       else
       {
-        attributes.remove(lowerName);
+        getAttributeMap().remove(lowerName);
       }
 
       return (attr.getRawValues().length != newAttr.getRawValues().length);
@@ -1658,7 +1798,7 @@ public class Entry
       lowerName = StaticUtils.toLowerCase(a.getName());
     }
 
-    attributes.put(lowerName, attribute);
+    getAttributeMap().put(lowerName, attribute);
   }
 
 
@@ -1948,7 +2088,7 @@ public class Entry
          new LinkedHashMap<>(StaticUtils.computeMapCapacity(20));
 
     for (final Map.Entry<String,Attribute> e :
-         sourceEntry.attributes.entrySet())
+         sourceEntry.getAttributeMap().entrySet())
     {
       final String lowerName = StaticUtils.toLowerCase(e.getKey());
       if ((compareAttrs != null) &&
@@ -1974,7 +2114,7 @@ public class Entry
     }
 
     for (final Map.Entry<String,Attribute> e :
-         targetEntry.attributes.entrySet())
+         targetEntry.getAttributeMap().entrySet())
     {
       final String lowerName = StaticUtils.toLowerCase(e.getKey());
       if ((compareAttrs != null) &&
@@ -2242,7 +2382,7 @@ public class Entry
 
     for (int i=1; i < entries.length; i++)
     {
-      for (final Attribute a : entries[i].attributes.values())
+      for (final Attribute a : entries[i].getAttributeMap().values())
       {
         newEntry.addAttribute(a);
       }
@@ -2271,7 +2411,7 @@ public class Entry
 
     final Entry newEntry = entries[0].duplicate();
 
-    for (final Attribute a : entries[0].attributes.values())
+    for (final Attribute a : entries[0].getAttributeMap().values())
     {
       final String name = a.getName();
       for (final byte[] v : a.getValueByteArrays())
@@ -2710,7 +2850,7 @@ public class Entry
       hashCode += dn.hashCode();
     }
 
-    for (final Attribute a : attributes.values())
+    for (final Attribute a : getAttributeMap().values())
     {
       hashCode += a.hashCode();
     }
@@ -2768,12 +2908,12 @@ public class Entry
       }
     }
 
-    if (attributes.size() != e.attributes.size())
+    if (getAttributeMap().size() != e.getAttributeMap().size())
     {
       return false;
     }
 
-    for (final Attribute a : attributes.values())
+    for (final Attribute a : getAttributeMap().values())
     {
       if (! e.hasAttribute(a))
       {
@@ -2793,7 +2933,7 @@ public class Entry
    */
   public Entry duplicate()
   {
-    return new Entry(dn, schema, attributes.values());
+    return new Entry(dn, schema, getAttributeMap().values());
   }
 
 
@@ -2825,10 +2965,10 @@ public class Entry
   @Override()
   public final String[] toLDIF(final int wrapColumn)
   {
-    List<String> ldifLines = new ArrayList<>(2*attributes.size());
+    List<String> ldifLines = new ArrayList<>(2*getAttributeMap().size());
     encodeNameAndValue("dn", new ASN1OctetString(dn), ldifLines);
 
-    for (final Attribute a : attributes.values())
+    for (final Attribute a : getAttributeMap().values())
     {
       final String name = a.getName();
       if (a.hasValue())
@@ -2919,7 +3059,7 @@ public class Entry
                        wrapColumn);
     buffer.append(StaticUtils.EOL_BYTES);
 
-    for (final Attribute a : attributes.values())
+    for (final Attribute a : getAttributeMap().values())
     {
       final String name = a.getName();
       if (a.hasValue())
@@ -3011,7 +3151,7 @@ public class Entry
                                   wrapColumn);
     buffer.append(StaticUtils.EOL);
 
-    for (final Attribute a : attributes.values())
+    for (final Attribute a : getAttributeMap().values())
     {
       final String name = a.getName();
       if (a.hasValue())
@@ -3061,7 +3201,7 @@ public class Entry
     buffer.append(dn);
     buffer.append("', attributes={");
 
-    final Iterator<Attribute> iterator = attributes.values().iterator();
+    final Iterator<Attribute> iterator = getAttributeMap().values().iterator();
 
     while (iterator.hasNext())
     {
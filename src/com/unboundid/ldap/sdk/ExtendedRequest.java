@@ -24,8 +24,6 @@ package com.unboundid.ldap.sdk;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import com.unboundid.asn1.ASN1Buffer;
@@ -93,9 +91,10 @@ public class ExtendedRequest
   // The message ID from the last LDAP message sent from this request.
   private int messageID = -1;
 
-  // The queue that will be used to receive response messages from the server.
-  private final LinkedBlockingQueue<LDAPResponse> responseQueue =
-       new LinkedBlockingQueue<>();
+  // The handoff that will be used to receive the response message from the
+  // server.
+  private final LDAPResponseHandoff responseHandoff =
+       new LDAPResponseHandoff();
 
   // The OID for this extended request.
   private final String oid;
@@ -334,6 +333,7 @@ public class ExtendedRequest
 
     // Register with the connection reader to be notified of responses for the
     // request that we've created.
+    responseHandoff.clear();
     connection.registerResponseAcceptor(messageID, this);
 
 
@@ -359,11 +359,11 @@ public class ExtendedRequest
       {
         if (responseTimeout > 0)
         {
-          response = responseQueue.poll(responseTimeout, TimeUnit.MILLISECONDS);
+          response = responseHandoff.poll(responseTimeout);
         }
         else
         {
-          response = responseQueue.take();
+          response = responseHandoff.take();
         }
       }
       catch (final InterruptedException ie)
@@ -518,7 +518,7 @@ public class ExtendedRequest
   {
     try
     {
-      responseQueue.put(response);
+      responseHandoff.put(response);
     }
     catch (final Exception e)
     {
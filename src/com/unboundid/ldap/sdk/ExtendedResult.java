@@ -227,7 +227,7 @@ public class ExtendedResult
             break;
 
           case TYPE_EXTENDED_RESPONSE_OID:
-            oid = reader.readString();
+            oid = reader.readCachedString();
             break;
 
           case TYPE_EXTENDED_RESPONSE_VALUE:
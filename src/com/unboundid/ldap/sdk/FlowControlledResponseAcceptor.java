@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import com.unboundid.ldap.protocol.LDAPResponse;
+import com.unboundid.util.InternalUseOnly;
+
+
+
+/**
+ * This interface defines a response acceptor that is able to refuse a response
+ * when it is not ready to process it.  It is used by the shared connection
+ * reader threads, which must never block while delivering a response, to
+ * suspend reading from a connection until the consumer of an operation's
+ * responses is able to accept more of them.  This provides backpressure all
+ * the way to the socket, since the server will eventually stop sending data
+ * once the connection's receive buffer is full.
+ */
+@InternalUseOnly()
+interface FlowControlledResponseAcceptor
+          extends ResponseAcceptor
+{
+  /**
+   * Attempts to provide the given response to this acceptor without blocking.
+   * If the response cannot be accepted, then the provided reader will be
+   * notified via its {@link SharedConnectionReader#responseConsumed} method
+   * when the acceptor is ready for it to be offered again.
+   *
+   * @param  response  The response that has been received from the server.
+   * @param  reader    The shared connection reader that is providing the
+   *                   response.
+   *
+   * @return  {@code true} if the response was accepted, or {@code false} if
+   *          the response should be offered again later.
+   */
+  boolean offerResponse(LDAPResponse response, SharedConnectionReader reader);
+}
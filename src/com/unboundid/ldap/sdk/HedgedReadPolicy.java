@@ -0,0 +1,207 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.io.Serializable;
+
+import com.unboundid.util.NotMutable;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+import com.unboundid.util.Validator;
+
+
+
+/**
+ * This class defines a policy that may be used to reduce the tail latency of
+ * read operations processed through an {@link LDAPConnectionPool} whose
+ * connections are spread across multiple servers.  When a hedged read policy
+ * is in effect, a search, compare, or get entry operation that has not
+ * completed within a delay derived from the recent response times for those
+ * operations will be sent a second time on a connection to a different server.
+ * Whichever response is received first will be used, and the other request
+ * will be abandoned.
+ * <BR><BR>
+ * The delay before sending the second request will be the configured
+ * percentile of the response times for the most recent read operations
+ * processed by the pool, constrained to be between the minimum and maximum
+ * delays.  Until enough operations have been processed to compute a
+ * meaningful percentile, the maximum delay will be used.  Choosing a high
+ * percentile (e.g., 95) limits the additional load placed on the servers to
+ * roughly the corresponding fraction of read operations, while still
+ * eliminating most of the delay caused by a single slow server.
+ * <BR><BR>
+ * Only operations that are safe to send more than once are hedged.  Searches
+ * that use a search result listener will not be hedged, since the listener
+ * could otherwise be notified of the same entry more than once, and
+ * connections that operate in synchronous mode cannot be used for hedged
+ * reads.  Hedged operations will not be retried if the
+ * {@link LDAPConnectionPool#retryFailedOperationsDueToInvalidConnections()}
+ * setting is enabled, since the hedged request already serves that purpose.
+ * <BR><BR>
+ * <H2>Example</H2>
+ * The following example demonstrates the process for configuring a connection
+ * pool so that read operations that have not completed within the 95th
+ * percentile of recent response times (but at least five milliseconds, and no
+ * more than 500 milliseconds) are sent to another server:
+ * <PRE>
+ * LDAPConnectionPool pool =
+ *      new LDAPConnectionPool(roundRobinServerSet, bindRequest, 10);
+ * pool.setHedgedReadPolicy(new HedgedReadPolicy(95.0d, 5L, 500L));
+ * </PRE>
+ */
+@NotMutable()
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+public final class HedgedReadPolicy
+       implements Serializable
+{
+  /**
+   * The serial version UID for this serializable class.
+   */
+  private static final long serialVersionUID = 6290173442158537081L;
+
+
+
+  // The percentile of recent response times to use as the hedging delay.
+  private final double percentile;
+
+  // The maximum delay in milliseconds before sending a hedged request.
+  private final long maximumDelayMillis;
+
+  // The minimum delay in milliseconds before sending a hedged request.
+  private final long minimumDelayMillis;
+
+
+
+  /**
+   * Creates a new hedged read policy with the provided settings.
+   *
+   * @param  percentile          The percentile of the response times for recent
+   *                             read operations that should be used as the
+   *                             delay before sending a hedged request.  It must
+   *                             be greater than zero and less than 100.
+   * @param  minimumDelayMillis  The minimum length of time in milliseconds to
+   *                             wait for a response before sending a hedged
+   *                             request.  It must be greater than or equal to
+   *                             zero.
+   * @param  maximumDelayMillis  The maximum length of time in milliseconds to
+   *                             wait for a response before sending a hedged
+   *                             request.  It must be greater than or equal to
+   *                             the minimum delay.  This will also be used as
+   *                             the delay until enough operations have been
+   *                             processed to compute the percentile.
+   */
+  public HedgedReadPolicy(final double percentile,
+                          final long minimumDelayMillis,
+                          final long maximumDelayMillis)
+  {
+    Validator.ensureTrue(((percentile > 0.0d) && (percentile < 100.0d)),
+         "HedgedReadPolicy.percentile must be greater than zero and less " +
+              "than 100.");
+    Validator.ensureTrue((minimumDelayMillis >= 0L),
+         "HedgedReadPolicy.minimumDelayMillis must be greater than or equal " +
+              "to zero.");
+    Validator.ensureTrue((maximumDelayMillis >= minimumDelayMillis),
+         "HedgedReadPolicy.maximumDelayMillis must be greater than or equal " +
+              "to minimumDelayMillis.");
+
+    this.percentile         = percentile;
+    this.minimumDelayMillis = minimumDelayMillis;
+    this.maximumDelayMillis = maximumDelayMillis;
+  }
+
+
+
+  /**
+   * Retrieves the percentile of the response times for recent read operations
+   * that will be used as the delay before sending a hedged request.
+   *
+   * @return  The percentile of the response times for recent read operations
+   *          that will be used as the delay before sending a hedged request.
+   */
+  public double getPercentile()
+  {
+    return percentile;
+  }
+
+
+
+  /**
+   * Retrieves the minimum length of time in milliseconds to wait for a
+   * response before sending a hedged request.
+   *
+   * @return  The minimum length of time in milliseconds to wait for a response
+   *          before sending a hedged request.
+   */
+  public long getMinimumDelayMillis()
+  {
+    return minimumDelayMillis;
+  }
+
+
+
+  /**
+   * Retrieves the maximum length of time in milliseconds to wait for a
+   * response before sending a hedged request.
+   *
+   * @return  The maximum length of time in milliseconds to wait for a response
+   *          before sending a hedged request.
+   */
+  public long getMaximumDelayMillis()
+  {
+    return maximumDelayMillis;
+  }
+
+
+
+  /**
+   * Retrieves a string representation of this hedged read policy.
+   *
+   * @return  A string representation of this hedged read policy.
+   */
+  @Override()
+  public String toString()
+  {
+    final StringBuilder buffer = new StringBuilder();
+    toString(buffer);
+    return buffer.toString();
+  }
+
+
+
+  /**
+   * Appends a string representation of this hedged read policy to the provided
+   * buffer.
+   *
+   * @param  buffer  The buffer to which the information should be appended.
+   */
+  public void toString(final StringBuilder buffer)
+  {
+    buffer.append("HedgedReadPolicy(percentile=");
+    buffer.append(percentile);
+    buffer.append(", minimumDelayMillis=");
+    buffer.append(minimumDelayMillis);
+    buffer.append(", maximumDelayMillis=");
+    buffer.append(maximumDelayMillis);
+    buffer.append(')');
+  }
+}
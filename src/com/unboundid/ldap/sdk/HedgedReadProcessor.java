@@ -0,0 +1,671 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.unboundid.util.Debug;
+import com.unboundid.util.InternalUseOnly;
+
+import static com.unboundid.ldap.sdk.LDAPMessages.*;
+
+
+
+/**
+ * This class applies a {@link HedgedReadPolicy} to read operations processed
+ * through an {@link LDAPConnectionPool}.  Each operation is sent
+ * asynchronously on a connection from the pool.  If no response has been
+ * received within the hedging delay, the operation is sent again on an
+ * available connection to a different server, and the first usable response
+ * is returned while the other request is abandoned.
+ * <BR><BR>
+ * The hedging delay is computed from a histogram of the response times for
+ * the most recent operations.  Response times are recorded into a window that
+ * is replaced after a fixed number of operations, and the percentile is
+ * computed over the current and previous windows so that it reflects recent
+ * behavior without being overly sensitive to a small number of operations.
+ */
+@InternalUseOnly()
+final class HedgedReadProcessor
+{
+  /**
+   * The minimum number of response times that must be available before the
+   * configured percentile will be used as the hedging delay.
+   */
+  private static final long MIN_SAMPLES_FOR_PERCENTILE = 20L;
+
+
+
+  /**
+   * The number of response times to record in each window.
+   */
+  private static final long WINDOW_SIZE = 1000L;
+
+
+
+  /**
+   * The number of response times to record between recomputing the hedging
+   * delay.
+   */
+  private static final long DELAY_UPDATE_INTERVAL = 16L;
+
+
+
+  // The number of response times recorded in the current window.
+  private final AtomicLong numSamplesInWindow;
+
+  // The policy that is being applied.
+  private final HedgedReadPolicy policy;
+
+  // The connection pool with which this processor is associated.
+  private final LDAPConnectionPool pool;
+
+  // The maximum hedging delay, in nanoseconds.
+  private final long maxDelayNanos;
+
+  // The minimum hedging delay, in nanoseconds.
+  private final long minDelayNanos;
+
+  // The histogram for the previous window, if any.
+  private volatile ResponseTimeHistogram previousWindow;
+
+  // The recorder for the current window.
+  private volatile ResponseTimeRecorder currentWindow;
+
+  // The current hedging delay, in nanoseconds.
+  private volatile long delayNanos;
+
+
+
+  /**
+   * Creates a new hedged read processor with the provided information.
+   *
+   * @param  pool    The connection pool with which this processor is
+   *                 associated.
+   * @param  policy  The policy to apply.
+   */
+  HedgedReadProcessor(final LDAPConnectionPool pool,
+                      final HedgedReadPolicy policy)
+  {
+    this.pool = pool;
+    this.policy = policy;
+
+    minDelayNanos =
+         TimeUnit.MILLISECONDS.toNanos(policy.getMinimumDelayMillis());
+    maxDelayNanos =
+         TimeUnit.MILLISECONDS.toNanos(policy.getMaximumDelayMillis());
+
+    numSamplesInWindow = new AtomicLong(0L);
+    previousWindow = null;
+    currentWindow = new ResponseTimeRecorder();
+    delayNanos = maxDelayNanos;
+  }
+
+
+
+  /**
+   * Retrieves the policy that is being applied.
+   *
+   * @return  The policy that is being applied.
+   */
+  HedgedReadPolicy getPolicy()
+  {
+    return policy;
+  }
+
+
+
+  /**
+   * Retrieves the current hedging delay.
+   *
+   * @return  The current hedging delay, in nanoseconds.
+   */
+  long getDelayNanos()
+  {
+    return delayNanos;
+  }
+
+
+
+  /**
+   * Processes the provided search request, sending it to a second server if
+   * necessary.  The request must not have a search result listener.
+   *
+   * @param  searchRequest  The search request to process.
+   *
+   * @return  The result of the search, or {@code null} if the search could not
+   *          be hedged (for example, because the pool's connections operate in
+   *          synchronous mode).  In that case, the caller should process the
+   *          search normally.
+   *
+   * @throws  LDAPSearchException  If the search did not complete successfully,
+   *                               or if a problem was encountered while
+   *                               processing it.
+   */
+  SearchResult search(final SearchRequest searchRequest)
+       throws LDAPSearchException
+  {
+    final Attempt winner;
+    try
+    {
+      winner = process(searchRequest, null);
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      throw new LDAPSearchException(le);
+    }
+
+    if (winner == null)
+    {
+      return null;
+    }
+
+    final LDAPResult r = winner.result;
+    final SearchResult searchResult = new SearchResult(r.getMessageID(),
+         r.getResultCode(), r.getDiagnosticMessage(), r.getMatchedDN(),
+         r.getReferralURLs(), winner.searchEntries, winner.searchReferences,
+         winner.searchEntries.size(), winner.searchReferences.size(),
+         r.getResponseControls());
+    if (! searchResult.getResultCode().equals(ResultCode.SUCCESS))
+    {
+      throw new LDAPSearchException(searchResult);
+    }
+
+    return searchResult;
+  }
+
+
+
+  /**
+   * Processes the provided compare request, sending it to a second server if
+   * necessary.
+   *
+   * @param  compareRequest  The compare request to process.
+   *
+   * @return  The result of the compare, or {@code null} if the compare could
+   *          not be hedged (for example, because the pool's connections operate
+   *          in synchronous mode).  In that case, the caller should process the
+   *          compare normally.
+   *
+   * @throws  LDAPException  If the compare did not complete with a result of
+   *                         compare true or compare false, or if a problem was
+   *                         encountered while processing it.
+   */
+  CompareResult compare(final CompareRequest compareRequest)
+       throws LDAPException
+  {
+    final Attempt winner = process(null, compareRequest);
+    if (winner == null)
+    {
+      return null;
+    }
+
+    final CompareResult result;
+    if (winner.result instanceof CompareResult)
+    {
+      result = (CompareResult) winner.result;
+    }
+    else
+    {
+      result = new CompareResult(winner.result);
+    }
+
+    switch (result.getResultCode().intValue())
+    {
+      case ResultCode.COMPARE_FALSE_INT_VALUE:
+      case ResultCode.COMPARE_TRUE_INT_VALUE:
+        return result;
+
+      default:
+        throw new LDAPException(result);
+    }
+  }
+
+
+
+  /**
+   * Processes the provided request, sending it to a second server if no
+   * response has been received within the hedging delay.  Exactly one of the
+   * requests must be non-{@code null}.
+   *
+   * @param  searchRequest   The search request to process, if any.
+   * @param  compareRequest  The compare request to process, if any.
+   *
+   * @return  The attempt whose result should be used, or {@code null} if the
+   *          request could not be hedged because the pool's connections
+   *          operate in synchronous mode, or because the request has an
+   *          intermediate response listener that would be notified about the
+   *          responses to both copies of the request.
+   *
+   * @throws  LDAPException  If a connection could not be obtained, if the
+   *                         request could not be sent, or if the thread was
+   *                         interrupted while waiting for a response.
+   */
+  private Attempt process(final SearchRequest searchRequest,
+                          final CompareRequest compareRequest)
+          throws LDAPException
+  {
+    final LDAPRequest request;
+    if (searchRequest == null)
+    {
+      request = compareRequest;
+    }
+    else
+    {
+      request = searchRequest;
+    }
+
+    if (request.getIntermediateResponseListener() != null)
+    {
+      return null;
+    }
+
+    final LDAPConnection primaryConnection = pool.getConnection();
+    if (primaryConnection.synchronousMode())
+    {
+      pool.releaseConnection(primaryConnection);
+      return null;
+    }
+
+    final ArrayBlockingQueue<Attempt> completedAttempts =
+         new ArrayBlockingQueue<>(2);
+    final Attempt primary = new Attempt(primaryConnection, searchRequest,
+         compareRequest, completedAttempts);
+    try
+    {
+      primary.send();
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      pool.releaseConnectionAfterException(primaryConnection, le);
+      throw le;
+    }
+
+    Attempt hedge = null;
+    Attempt winner = null;
+    try
+    {
+      winner = completedAttempts.poll(delayNanos, TimeUnit.NANOSECONDS);
+      if (winner == null)
+      {
+        hedge = sendHedge(primary, searchRequest, compareRequest,
+             completedAttempts);
+        winner = completedAttempts.take();
+
+        // If the first response indicates that its connection is no longer
+        // usable, then prefer the response for the other request.
+        if ((hedge != null) &&
+            (! ResultCode.isConnectionUsable(winner.result.getResultCode())))
+        {
+          winner = completedAttempts.take();
+        }
+      }
+    }
+    catch (final InterruptedException ie)
+    {
+      Debug.debugException(ie);
+      Thread.currentThread().interrupt();
+      throw new LDAPException(ResultCode.LOCAL_ERROR,
+           ERR_HEDGED_READ_INTERRUPTED.get(), ie);
+    }
+    finally
+    {
+      primary.finish();
+      if (hedge != null)
+      {
+        hedge.finish();
+      }
+    }
+
+    recordResponseTime(winner.responseTimeNanos);
+    return winner;
+  }
+
+
+
+  /**
+   * Sends a hedged copy of the request on a connection to a server other than
+   * the one used for the primary request, if such a connection is available.
+   *
+   * @param  primary            The attempt for the primary request.
+   * @param  searchRequest      The search request to process, if any.
+   * @param  compareRequest     The compare request to process, if any.
+   * @param  completedAttempts  The queue to which the attempt should be added
+   *                            when it completes.
+   *
+   * @return  The attempt for the hedged request, or {@code null} if no hedged
+   *          request was sent.
+   */
+  private Attempt sendHedge(final Attempt primary,
+                            final SearchRequest searchRequest,
+                            final CompareRequest compareRequest,
+                            final ArrayBlockingQueue<Attempt> completedAttempts)
+  {
+    final LDAPConnection conn = pool.getConnectionToDifferentServer(
+         primary.connection.getConnectedAddress(),
+         primary.connection.getConnectedPort());
+    if (conn == null)
+    {
+      return null;
+    }
+
+    if (conn.synchronousMode())
+    {
+      pool.releaseConnection(conn);
+      return null;
+    }
+
+    final Attempt hedge = new Attempt(conn, searchRequest, compareRequest,
+         completedAttempts);
+    try
+    {
+      hedge.send();
+      pool.getConnectionPoolStatistics().incrementNumHedgedReads();
+      return hedge;
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      pool.releaseConnectionAfterException(conn, le);
+      return null;
+    }
+  }
+
+
+
+  /**
+   * Records the provided response time and updates the hedging delay if
+   * appropriate.
+   *
+   * @param  responseTimeNanos  The response time to record, in nanoseconds.
+   */
+  private void recordResponseTime(final long responseTimeNanos)
+  {
+    currentWindow.record(responseTimeNanos);
+
+    final long numSamples = numSamplesInWindow.incrementAndGet();
+    if (numSamples == WINDOW_SIZE)
+    {
+      // Only the thread that filled the window will start a new one.  Any
+      // response times recorded concurrently into the old window may be lost,
+      // which is acceptable.
+      final ResponseTimeRecorder filledWindow = currentWindow;
+      currentWindow = new ResponseTimeRecorder();
+      numSamplesInWindow.set(0L);
+      previousWindow = filledWindow.getSnapshot();
+      updateDelay();
+    }
+    else if ((numSamples % DELAY_UPDATE_INTERVAL) == 0L)
+    {
+      updateDelay();
+    }
+  }
+
+
+
+  /**
+   * Recomputes the hedging delay from the recent response times.
+   */
+  private void updateDelay()
+  {
+    ResponseTimeHistogram histogram = currentWindow.getSnapshot();
+    final ResponseTimeHistogram previous = previousWindow;
+    if (previous != null)
+    {
+      histogram = ResponseTimeHistogram.merge(previous, histogram);
+    }
+
+    if (histogram.getCount() < MIN_SAMPLES_FOR_PERCENTILE)
+    {
+      delayNanos = maxDelayNanos;
+      return;
+    }
+
+    final long percentileNanos =
+         (long) histogram.getPercentileNanos(policy.getPercentile());
+    delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos,
+         percentileNanos));
+  }
+
+
+
+  /**
+   * This class holds information about a single attempt to process a read
+   * request on a connection, and collects the response for that attempt.
+   */
+  private final class Attempt
+          implements AsyncSearchResultListener, AsyncCompareResultListener
+  {
+    /**
+     * The serial version UID for this serializable class.
+     */
+    private static final long serialVersionUID = 4468051925120311718L;
+
+
+
+    // The queue to which this attempt will be added when it completes.
+    private final ArrayBlockingQueue<Attempt> completedAttempts;
+
+    // The request ID for the request, once it has been sent.
+    private volatile AsyncRequestID requestID;
+
+    // The compare request to process, if any.
+    private final CompareRequest compareRequest;
+
+    // The connection on which the request is sent.
+    private final LDAPConnection connection;
+
+    // The result for the request, once it has been received.
+    private volatile LDAPResult result;
+
+    // The search entries returned for the request.
+    private final List<SearchResultEntry> searchEntries;
+
+    // The search references returned for the request.
+    private final List<SearchResultReference> searchReferences;
+
+    // The search request to process, if any.
+    private final SearchRequest searchRequest;
+
+    // The time the request was sent, in terms of System.nanoTime.
+    private long sendTime;
+
+    // The length of time between sending the request and receiving the
+    // response, in nanoseconds.
+    private volatile long responseTimeNanos;
+
+
+
+    /**
+     * Creates a new attempt with the provided information.
+     *
+     * @param  connection         The connection on which to send the request.
+     * @param  searchRequest      The search request to process, if any.
+     * @param  compareRequest     The compare request to process, if any.
+     * @param  completedAttempts  The queue to which the attempt should be
+     *                            added when it completes.
+     */
+    private Attempt(final LDAPConnection connection,
+                    final SearchRequest searchRequest,
+                    final CompareRequest compareRequest,
+                    final ArrayBlockingQueue<Attempt> completedAttempts)
+    {
+      this.connection        = connection;
+      this.compareRequest    = compareRequest;
+      this.completedAttempts = completedAttempts;
+
+      if (searchRequest == null)
+      {
+        this.searchRequest = null;
+      }
+      else
+      {
+        // Each attempt needs its own copy of the request, with this attempt
+        // as the listener.
+        this.searchRequest = new SearchRequest(this,
+             searchRequest.getControls(), searchRequest.getBaseDN(),
+             searchRequest.getScope(), searchRequest.getDereferencePolicy(),
+             searchRequest.getSizeLimit(), searchRequest.getTimeLimitSeconds(),
+             searchRequest.typesOnly(), searchRequest.getFilter(),
+             searchRequest.getAttributes());
+        if (searchRequest.followReferralsInternal() != null)
+        {
+          this.searchRequest.setFollowReferrals(
+               searchRequest.followReferralsInternal());
+        }
+
+        if (searchRequest.getReferralConnectorInternal() != null)
+        {
+          this.searchRequest.setReferralConnector(
+               searchRequest.getReferralConnectorInternal());
+        }
+
+        this.searchRequest.setResponseTimeoutMillis(
+             searchRequest.getResponseTimeoutMillis(null));
+
+        // The copy has the same protocol op, so if the original request was
+        // created from a template, then send the same encoded representation.
+        this.searchRequest.copyEncodingTemplate(searchRequest);
+      }
+
+      requestID = null;
+      result = null;
+      searchEntries = new ArrayList<>(5);
+      searchReferences = new ArrayList<>(0);
+    }
+
+
+
+    /**
+     * Sends the request on the connection.
+     *
+     * @throws  LDAPException  If a problem occurs while sending the request.
+     */
+    private void send()
+            throws LDAPException
+    {
+      sendTime = System.nanoTime();
+      if (searchRequest != null)
+      {
+        requestID = connection.asyncSearch(searchRequest);
+      }
+      else
+      {
+        // The caller's request may safely be sent on more than one connection,
+        // since the listener is provided separately.
+        requestID = connection.asyncCompare(compareRequest, this);
+      }
+    }
+
+
+
+    /**
+     * Releases the connection used by this attempt back to the pool.  If no
+     * response has been received, then the request will be abandoned first.
+     */
+    private void finish()
+    {
+      final LDAPResult r = result;
+      if (r == null)
+      {
+        requestID.cancel(true);
+        pool.releaseConnection(connection);
+      }
+      else if (ResultCode.isConnectionUsable(r.getResultCode()))
+      {
+        pool.releaseConnection(connection);
+      }
+      else
+      {
+        pool.releaseDefunctConnection(connection);
+      }
+    }
+
+
+
+    /**
+     * Indicates that the response for the request has been received.
+     *
+     * @param  r  The result for the request.
+     */
+    private void complete(final LDAPResult r)
+    {
+      responseTimeNanos = System.nanoTime() - sendTime;
+      result = r;
+      completedAttempts.offer(this);
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void searchEntryReturned(final SearchResultEntry searchEntry)
+    {
+      searchEntries.add(searchEntry);
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void searchReferenceReturned(
+                     final SearchResultReference searchReference)
+    {
+      searchReferences.add(searchReference);
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void searchResultReceived(final AsyncRequestID requestID,
+                                     final SearchResult searchResult)
+    {
+      complete(searchResult);
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void compareResultReceived(final AsyncRequestID requestID,
+                                      final CompareResult compareResult)
+    {
+      complete(compareResult);
+    }
+  }
+}
@@ -243,7 +243,7 @@ public class IntermediateResponse
         switch (type)
         {
           case TYPE_INTERMEDIATE_RESPONSE_OID:
-            oid = reader.readString();
+            oid = reader.readCachedString();
             break;
           case TYPE_INTERMEDIATE_RESPONSE_VALUE:
             value = new ASN1OctetString(type, reader.readBytes());
@@ -1675,6 +1675,16 @@ public final class LDAPConnection
   void setConnectionPool(final AbstractConnectionPool connectionPool)
   {
     this.connectionPool = connectionPool;
+
+    if (connectionPool == null)
+    {
+      connectionStatistics.setPoolStatistics(null);
+    }
+    else
+    {
+      connectionStatistics.setPoolStatistics(
+           connectionPool.getConnectionPoolStatistics());
+    }
   }
 
 
@@ -4286,6 +4296,93 @@ public final class LDAPConnection
 
 
 
+  /**
+   * Processes the provided search request with flow control, so that search
+   * result entries and references are only delivered to the provided
+   * subscriber as it requests them.  When the subscriber has not requested any
+   * more results, the connection will stop reading data from the server until
+   * it does, so that a subscriber that processes a very large result set
+   * slowly does not need to buffer the results or hold up any other thread.
+   * Note that this also prevents the connection from reading responses for
+   * any other operations, so a connection used for a search in this manner
+   * should not be shared with other concurrent operations whose responses are
+   * needed before the subscriber has finished.
+   * <BR><BR>
+   * The subscriber's {@code onSubscribe} method will be invoked before this
+   * method sends the request, and the remaining methods will be invoked
+   * asynchronously.  Any search result listener configured in the provided
+   * request will be ignored, and referrals will not be followed
+   * automatically.  The search may be abandoned using the subscription or the
+   * returned async request ID.  This method may not be used on a connection
+   * operating in synchronous mode.
+   * <BR><BR>
+   * <H2>Example</H2>
+   * The following example demonstrates the process for retrieving all of the
+   * entries below a given base DN, ten at a time:
+   * <PRE>
+   * SearchResultSubscriber subscriber = new SearchResultSubscriber()
+   * {
+   *   private SearchResultSubscription subscription;
+   *   private int numReceived = 0;
+   *
+   *   public void onSubscribe(SearchResultSubscription subscription)
+   *   {
+   *     this.subscription = subscription;
+   *     subscription.request(10L);
+   *   }
+   *
+   *   public void onEntry(SearchResultEntry searchEntry)
+   *   {
+   *     // Process the entry.
+   *     if ((++numReceived % 10) == 0)
+   *     {
+   *       subscription.request(10L);
+   *     }
+   *   }
+   *
+   *   public void onReference(SearchResultReference searchReference)
+   *   {
+   *     subscription.request(1L);
+   *   }
+   *
+   *   public void onComplete(SearchResult searchResult)
+   *   {
+   *     // Process the search result.
+   *   }
+   * };
+   *
+   * AsyncRequestID requestID = connection.streamSearch(
+   *      new SearchRequest("dc=example,dc=com", SearchScope.SUB,
+   *           Filter.createPresenceFilter("objectClass")),
+   *      subscriber);
+   * </PRE>
+   *
+   * @param  searchRequest  The search request to be processed.  It must not be
+   *                        {@code null}.
+   * @param  subscriber     The subscriber to which the search results should
+   *                        be delivered.  It must not be {@code null}.
+   *
+   * @return  An async request ID that may be used to reference the operation.
+   *
+   * @throws  LDAPException  If a problem occurs while sending the request.
+   */
+  public AsyncRequestID streamSearch(final SearchRequest searchRequest,
+                                     final SearchResultSubscriber subscriber)
+         throws LDAPException
+  {
+    Validator.ensureNotNull(searchRequest, subscriber);
+
+    if (synchronousMode())
+    {
+      throw new LDAPException(ResultCode.NOT_SUPPORTED,
+           ERR_ASYNC_NOT_SUPPORTED_IN_SYNCHRONOUS_MODE.get());
+    }
+
+    return searchRequest.processStreaming(this, subscriber);
+  }
+
+
+
   /**
    * Processes the provided generic request and returns the result.  This may
    * be useful for cases in which it is not known what type of operation the
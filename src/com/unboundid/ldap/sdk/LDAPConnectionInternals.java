@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.logging.Level;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -37,7 +38,14 @@ import javax.net.ssl.SSLSocketFactory;
 import javax.security.sasl.SaslClient;
 
 import com.unboundid.asn1.ASN1Buffer;
+import com.unboundid.asn1.ASN1Element;
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.asn1.ASN1Writer;
+import com.unboundid.ldap.protocol.AddRequestProtocolOp;
 import com.unboundid.ldap.protocol.LDAPMessage;
+import com.unboundid.ldap.protocol.ModifyRequestProtocolOp;
+import com.unboundid.ldap.protocol.ProtocolOp;
+import com.unboundid.util.ByteStringBuffer;
 import com.unboundid.util.Debug;
 import com.unboundid.util.DebugType;
 import com.unboundid.util.InternalUseOnly;
@@ -69,10 +77,53 @@ final class LDAPConnectionInternals
 
 
 
+  /**
+   * The initial capacity that will be used for write batch buffers.
+   */
+  private static final int INITIAL_WRITE_BUFFER_SIZE = 8192;
+
+
+
+  /**
+   * The maximum capacity that a write batch buffer may have and still be
+   * retained for reuse after it has been written.  Larger buffers (which will
+   * only be needed if very large requests are sent) will be discarded so that
+   * they do not hold on to a large amount of memory.
+   */
+  private static final int MAX_RETAINED_WRITE_BUFFER_SIZE = 1024 * 1024;
+
+
+
+  /**
+   * The minimum total size in bytes of the attribute values in an add or
+   * modify request for that request to be streamed to the server rather than
+   * being encoded into a buffer before it is written.
+   */
+  static final long STREAMING_WRITE_THRESHOLD = 1024L * 1024L;
+
+
+
+  // Indicates whether a thread is currently writing a batch of messages to the
+  // server.  It must only be accessed while holding the write lock.
+  private boolean writeInProgress;
+
   // The counter that will be used to obtain the next message ID to use when
   // sending requests to the server.
   private final AtomicInteger nextMessageID;
 
+  // The buffer from a previously written batch that is available for reuse.
+  // It must only be accessed while holding the write lock.
+  private ByteStringBuffer spareWriteBuffer;
+
+  // The lock used to coordinate the coalescing of messages from concurrent
+  // senders into batches.
+  private final Object writeLock;
+
+  // The batch to which messages are currently being added, or null if there
+  // are no messages waiting to be written.  It must only be accessed while
+  // holding the write lock.
+  private WriteBatch pendingBatch;
+
   // Indicates whether to operate in synchronous mode.
   private final boolean synchronousMode;
 
@@ -95,6 +146,12 @@ final class LDAPConnectionInternals
   // The output stream used to send requests to the server.
   private volatile OutputStream outputStream;
 
+  // The output stream that may be used to write batches of requests directly
+  // to the socket channel using gathering writes.  This will be null if the
+  // socket does not have a channel or if the connection has been converted to
+  // use TLS.
+  private volatile SocketChannelOutputStream channelOutputStream;
+
   // The SASL client used to provide communication security via QoP.
   private volatile SaslClient saslClient;
 
@@ -153,10 +210,32 @@ final class LDAPConnectionInternals
     saslClient      = null;
     socket          = null;
 
+    writeLock        = new Object();
+    writeInProgress  = false;
+    pendingBatch     = null;
+    spareWriteBuffer = null;
+
+    // If the connection should be serviced by a shared reader thread and would
+    // otherwise use the JVM-default socket factory, then use a socket factory
+    // that creates sockets with associated channels so that they can be
+    // registered with a selector.  Other socket factories (including those used
+    // for SSL) are left alone, and connections that use them will get a
+    // dedicated reader thread.
+    final SocketFactory effectiveSocketFactory;
+    if ((! synchronousMode) && options.useSharedReaderThreads() &&
+        SocketChannelSocketFactory.isDefaultSocketFactory(socketFactory))
+    {
+      effectiveSocketFactory = SocketChannelSocketFactory.getInstance();
+    }
+    else
+    {
+      effectiveSocketFactory = socketFactory;
+    }
+
     try
     {
-      final ConnectThread connectThread =
-           new ConnectThread(socketFactory, inetAddress, port, timeout);
+      final ConnectThread connectThread = new ConnectThread(
+           effectiveSocketFactory, inetAddress, port, timeout);
       connectThread.start();
       socket = connectThread.getConnectedSocket();
 
@@ -204,8 +283,31 @@ final class LDAPConnectionInternals
                 " to " + soTimeout + "ms.");
       socket.setSoTimeout(soTimeout);
 
-      outputStream     = new BufferedOutputStream(socket.getOutputStream());
-      connectionReader = new LDAPConnectionReader(connection, this);
+      // If the socket has a channel, then write to it directly so that batches
+      // of requests can be written from pooled direct buffers using gathering
+      // writes.
+      final boolean hasChannel = ((socket.getChannel() != null) &&
+           (! (socket instanceof SSLSocket)));
+      final boolean useSharedReader = ((! synchronousMode) &&
+           options.useSharedReaderThreads() && hasChannel);
+      if (hasChannel)
+      {
+        if (useSharedReader)
+        {
+          socket.getChannel().configureBlocking(false);
+        }
+
+        channelOutputStream = new SocketChannelOutputStream(socket);
+        outputStream = new BufferedOutputStream(channelOutputStream);
+      }
+      else
+      {
+        channelOutputStream = null;
+        outputStream = new BufferedOutputStream(socket.getOutputStream());
+      }
+
+      connectionReader =
+           new LDAPConnectionReader(connection, this, useSharedReader);
     }
     catch (final IOException ioe)
     {
@@ -230,12 +332,25 @@ final class LDAPConnectionInternals
   /**
    * Starts the connection reader for this connection internals.  This will
    * have no effect if the connection is operating in synchronous mode.
+   *
+   * @throws  IOException  If a problem occurs while preparing the shared reader
+   *                       thread for the connection.
    */
   void startConnectionReader()
+       throws IOException
   {
     if (! synchronousMode)
     {
-      connectionReader.start();
+      try
+      {
+        connectionReader.startReading();
+      }
+      catch (final IOException ioe)
+      {
+        Debug.debugException(ioe);
+        close();
+        throw ioe;
+      }
     }
   }
 
@@ -387,6 +502,7 @@ final class LDAPConnectionInternals
   void convertToTLS(final SSLSocketFactory sslSocketFactory)
        throws LDAPException
   {
+    channelOutputStream = null;
     outputStream = connectionReader.doStartTLS(sslSocketFactory);
   }
 
@@ -517,17 +633,32 @@ final class LDAPConnectionInternals
                               ERR_CONN_NOT_ESTABLISHED.get());
     }
 
-    ASN1Buffer buffer = ASN1_BUFFERS.get().get();
-    if (buffer == null)
-    {
-      buffer = new ASN1Buffer();
-      ASN1_BUFFERS.get().set(buffer);
-    }
-
-    buffer.clear();
+    // Very large add and modify requests will be streamed to the server, with
+    // each attribute value written from the array in which the request already
+    // holds it, so that an encoded copy of those values doesn't need to be
+    // created.  All other messages will be encoded into a thread-local buffer.
+    // Streaming can't be used with SASL integrity or confidentiality, since
+    // the entire message must be wrapped at once.
+    ASN1Element streamedElement = null;
+    ASN1Buffer buffer = null;
     try
     {
-      message.writeTo(buffer);
+      if ((saslClient == null) && shouldStream(message))
+      {
+        streamedElement = message.encode();
+      }
+      else
+      {
+        buffer = ASN1_BUFFERS.get().get();
+        if (buffer == null)
+        {
+          buffer = new ASN1Buffer();
+          ASN1_BUFFERS.get().set(buffer);
+        }
+
+        buffer.clear();
+        message.writeTo(buffer);
+      }
     }
     catch (final LDAPRuntimeException lre)
     {
@@ -538,45 +669,14 @@ final class LDAPConnectionInternals
 
     try
     {
-      final int soTimeout = Math.max(0, (int) sendTimeoutMillis);
-      if (Debug.debugEnabled())
+      if (streamedElement == null)
       {
-        Debug.debug(Level.INFO, DebugType.CONNECT,
-             "Setting the SO_TIMEOUT value for connection " + connection +
-                  " to " + soTimeout + "ms.");
-      }
-      socket.setSoTimeout(soTimeout);
-    }
-    catch (final Exception e)
-    {
-      Debug.debugException(e);
-    }
-
-
-    try
-    {
-      final OutputStream os = outputStream;
-      if (saslClient == null)
-      {
-        buffer.writeTo(os);
+        writeMessage(buffer, sendTimeoutMillis);
       }
       else
       {
-        // We need to wrap the data that was read using the SASL client, but we
-        // also need to precede that wrapped data with four bytes that specify
-        // the number of bytes of wrapped data.
-        final byte[] clearBytes = buffer.toByteArray();
-        final byte[] saslBytes =
-             saslClient.wrap(clearBytes, 0, clearBytes.length);
-        final byte[] lengthBytes = new byte[4];
-        lengthBytes[0] = (byte) ((saslBytes.length >> 24) & 0xFF);
-        lengthBytes[1] = (byte) ((saslBytes.length >> 16) & 0xFF);
-        lengthBytes[2] = (byte) ((saslBytes.length >> 8) & 0xFF);
-        lengthBytes[3] = (byte) (saslBytes.length & 0xFF);
-        os.write(lengthBytes);
-        os.write(saslBytes);
+        writeStreamedMessage(streamedElement, sendTimeoutMillis);
       }
-      os.flush();
     }
     catch (final IOException ioe)
     {
@@ -622,7 +722,7 @@ final class LDAPConnectionInternals
     }
     finally
     {
-      if (buffer.zeroBufferOnClear())
+      if ((buffer != null) && buffer.zeroBufferOnClear())
       {
         buffer.clear();
       }
@@ -631,6 +731,536 @@ final class LDAPConnectionInternals
 
 
 
+  /**
+   * Indicates whether the provided message should be streamed to the server
+   * rather than being encoded into a buffer before it is written.  This
+   * will only be the case for add and modify requests whose attribute values
+   * have a total size of at least {@link #STREAMING_WRITE_THRESHOLD} bytes.
+   *
+   * @param  message  The message for which to make the determination.
+   *
+   * @return  {@code true} if the message should be streamed to the server, or
+   *          {@code false} if not.
+   */
+  static boolean shouldStream(final LDAPMessage message)
+  {
+    final ProtocolOp op = message.getProtocolOp();
+    long totalValueLength = 0L;
+    if (op instanceof AddRequest)
+    {
+      for (final Attribute a : ((AddRequest) op).getAttributes())
+      {
+        totalValueLength += getTotalValueLength(a.getRawValues());
+      }
+    }
+    else if (op instanceof ModifyRequest)
+    {
+      for (final Modification m : ((ModifyRequest) op).getModifications())
+      {
+        totalValueLength += getTotalValueLength(m.getRawValues());
+      }
+    }
+    else if (op instanceof AddRequestProtocolOp)
+    {
+      for (final Attribute a : ((AddRequestProtocolOp) op).getAttributes())
+      {
+        totalValueLength += getTotalValueLength(a.getRawValues());
+      }
+    }
+    else if (op instanceof ModifyRequestProtocolOp)
+    {
+      for (final Modification m :
+           ((ModifyRequestProtocolOp) op).getModifications())
+      {
+        totalValueLength += getTotalValueLength(m.getRawValues());
+      }
+    }
+
+    return (totalValueLength >= STREAMING_WRITE_THRESHOLD);
+  }
+
+
+
+  /**
+   * Retrieves the total length of the provided values.
+   *
+   * @param  values  The values for which to compute the total length.
+   *
+   * @return  The total length of the provided values.
+   */
+  private static long getTotalValueLength(final ASN1OctetString[] values)
+  {
+    long totalLength = 0L;
+    for (final ASN1OctetString v : values)
+    {
+      totalLength += v.getValueLength();
+    }
+
+    return totalLength;
+  }
+
+
+
+  /**
+   * Writes the encoded message contained in the provided buffer to the server.
+   * <BR><BR>
+   * If no other thread is writing to the server or waiting to do so, then the
+   * message will be written and flushed directly from the provided buffer.
+   * Otherwise, rather than writing and flushing each message individually,
+   * messages sent concurrently by multiple threads are coalesced into
+   * batches.  The message is appended to the batch that is currently being
+   * assembled, and if no other thread is writing to the server, then this
+   * thread will write and flush that batch (which may include messages from
+   * other threads).  Otherwise, this thread will wait until the batch
+   * containing its message has been written by another thread.  Messages are
+   * only copied into a batch when there is contention for the connection, so
+   * an uncontended connection pays neither the cost of that copy nor any
+   * delay.
+   * <BR><BR>
+   * In any case, this method will not return until the message has been
+   * written, and any failure while writing the batch containing the message
+   * will be reported to each of the threads whose messages it contained.
+   *
+   * @param  buffer             The buffer containing the encoded message.
+   * @param  sendTimeoutMillis  The maximum length of time in milliseconds to
+   *                            block while writing the message, or zero if
+   *                            there should be no timeout.
+   *
+   * @throws  IOException  If a problem occurs while writing the message.
+   */
+  private void writeMessage(final ASN1Buffer buffer,
+                            final long sendTimeoutMillis)
+          throws IOException
+  {
+    if (Debug.debugEnabled(DebugType.ASN1))
+    {
+      Debug.debugASN1Write(buffer);
+    }
+
+    // If no other thread is writing or has queued a message, then there is
+    // nothing for this message to be coalesced with, so claim the right to
+    // write and send it straight from the provided buffer.  This isn't done
+    // when SASL integrity or confidentiality is in use, since messages must be
+    // wrapped while holding the lock so that they will be written in the same
+    // order in which they were wrapped.
+    boolean writeDirectly = false;
+    synchronized (writeLock)
+    {
+      if ((! writeInProgress) && (pendingBatch == null) &&
+          (saslClient == null))
+      {
+        writeInProgress = true;
+        writeDirectly = true;
+      }
+    }
+
+    if (writeDirectly)
+    {
+      writeUncontendedMessage(buffer, sendTimeoutMillis);
+      return;
+    }
+
+    final WriteBatch batch;
+    boolean interrupted = false;
+    synchronized (writeLock)
+    {
+      if (channelOutputStream != null)
+      {
+        if (pendingBatch == null)
+        {
+          pendingBatch = new WriteBatch(new DirectWriteBuffer());
+        }
+      }
+      else if (pendingBatch == null)
+      {
+        ByteStringBuffer batchBuffer = spareWriteBuffer;
+        if (batchBuffer == null)
+        {
+          batchBuffer = new ByteStringBuffer(INITIAL_WRITE_BUFFER_SIZE);
+        }
+        else
+        {
+          spareWriteBuffer = null;
+        }
+
+        pendingBatch = new WriteBatch(batchBuffer);
+      }
+
+      batch = pendingBatch;
+
+      // Messages are appended (and, if appropriate, SASL-wrapped) while
+      // holding the lock so that they will be written in the same order in
+      // which they were wrapped.
+      final SaslClient c = saslClient;
+      if (c == null)
+      {
+        final ByteBuffer bb = buffer.asByteBuffer();
+        batch.append(bb.array(), bb.position(), bb.remaining());
+      }
+      else
+      {
+        // We need to wrap the data using the SASL client, but we also need to
+        // precede that wrapped data with four bytes that specify the number of
+        // bytes of wrapped data.
+        final byte[] clearBytes = buffer.toByteArray();
+        final byte[] saslBytes = c.wrap(clearBytes, 0, clearBytes.length);
+        final byte[] lengthBytes =
+        {
+          (byte) ((saslBytes.length >> 24) & 0xFF),
+          (byte) ((saslBytes.length >> 16) & 0xFF),
+          (byte) ((saslBytes.length >> 8) & 0xFF),
+          (byte) (saslBytes.length & 0xFF)
+        };
+        batch.append(lengthBytes, 0, lengthBytes.length);
+        batch.append(saslBytes, 0, saslBytes.length);
+      }
+
+      batch.addMessage(Math.max(0, (int) sendTimeoutMillis),
+           buffer.zeroBufferOnClear());
+
+      // Wait until either the batch has been written by another thread or no
+      // other thread is writing, in which case this thread will write it.  If
+      // no write is in progress, then the pending batch must be the one that
+      // holds this thread's message, since batches are written in order.
+      while ((! batch.complete) && writeInProgress)
+      {
+        try
+        {
+          writeLock.wait();
+        }
+        catch (final InterruptedException ie)
+        {
+          // The message has already been queued and will be written, so the
+          // wait can't be abandoned.  Remember that we were interrupted and
+          // restore the interrupted status before returning.
+          Debug.debugException(ie);
+          interrupted = true;
+        }
+      }
+
+      if (batch.complete)
+      {
+        if (interrupted)
+        {
+          Thread.currentThread().interrupt();
+        }
+
+        if (batch.failure == null)
+        {
+          return;
+        }
+        else
+        {
+          throw batch.failure;
+        }
+      }
+
+      writeInProgress = true;
+      pendingBatch = null;
+    }
+
+    if (interrupted)
+    {
+      Thread.currentThread().interrupt();
+    }
+
+    IOException failure = null;
+    try
+    {
+      writeBatch(batch);
+    }
+    catch (final IOException ioe)
+    {
+      Debug.debugException(ioe);
+      failure = ioe;
+    }
+    catch (final RuntimeException re)
+    {
+      Debug.debugException(re);
+      failure = new IOException(StaticUtils.getExceptionMessage(re), re);
+    }
+    finally
+    {
+      synchronized (writeLock)
+      {
+        completeBatch(batch, failure);
+
+        writeInProgress = false;
+        writeLock.notifyAll();
+      }
+    }
+
+    if (failure != null)
+    {
+      throw failure;
+    }
+  }
+
+
+
+  /**
+   * Writes and flushes the encoded message contained in the provided buffer
+   * without copying it into a batch.  This must only be called by a thread that
+   * has claimed the right to write, and the right to write will be released
+   * when this method returns.
+   *
+   * @param  buffer             The buffer containing the encoded message.
+   * @param  sendTimeoutMillis  The maximum length of time in milliseconds to
+   *                            block while writing the message, or zero if
+   *                            there should be no timeout.
+   *
+   * @throws  IOException  If a problem occurs while writing the message.
+   */
+  private void writeUncontendedMessage(final ASN1Buffer buffer,
+                                       final long sendTimeoutMillis)
+          throws IOException
+  {
+    try
+    {
+      setSOTimeout(Math.max(0, (int) sendTimeoutMillis));
+
+      final ByteBuffer bb = buffer.asByteBuffer();
+      final OutputStream os = outputStream;
+      final SocketChannelOutputStream cos = channelOutputStream;
+      if (cos == null)
+      {
+        os.write(bb.array(), bb.position(), bb.remaining());
+        os.flush();
+      }
+      else
+      {
+        // Write straight to the channel rather than through the buffered
+        // stream, which would copy a small message into its own buffer.
+        os.flush();
+        cos.write(bb.array(), bb.position(), bb.remaining());
+      }
+
+      connection.getConnectionStatistics().incrementNumFlushes(1);
+    }
+    catch (final RuntimeException re)
+    {
+      Debug.debugException(re);
+      throw new IOException(StaticUtils.getExceptionMessage(re), re);
+    }
+    finally
+    {
+      synchronized (writeLock)
+      {
+        writeInProgress = false;
+        writeLock.notifyAll();
+      }
+    }
+  }
+
+
+
+  /**
+   * Streams the provided encoded message to the server without first encoding
+   * it into a buffer.  This will wait until no other thread is writing to the
+   * server, and will write any batch of messages that was queued before this
+   * message so that messages are sent in the order in which they were queued.
+   * Messages from other threads will be queued while the streamed message is
+   * being written.
+   *
+   * @param  element            The ASN.1 element containing the message to be
+   *                            written.
+   * @param  sendTimeoutMillis  The maximum length of time in milliseconds to
+   *                            block while writing the message, or zero if
+   *                            there should be no timeout.
+   *
+   * @throws  IOException  If a problem occurs while writing the message.
+   */
+  private void writeStreamedMessage(final ASN1Element element,
+                                    final long sendTimeoutMillis)
+          throws IOException
+  {
+    final WriteBatch previousBatch;
+    boolean interrupted = false;
+    synchronized (writeLock)
+    {
+      while (writeInProgress)
+      {
+        try
+        {
+          writeLock.wait();
+        }
+        catch (final InterruptedException ie)
+        {
+          // Abandoning the wait could cause messages to be written out of
+          // order, so remember that we were interrupted and restore the
+          // interrupted status once we can proceed.
+          Debug.debugException(ie);
+          interrupted = true;
+        }
+      }
+
+      writeInProgress = true;
+      previousBatch = pendingBatch;
+      pendingBatch = null;
+    }
+
+    if (interrupted)
+    {
+      Thread.currentThread().interrupt();
+    }
+
+    IOException previousFailure = null;
+    try
+    {
+      if (previousBatch != null)
+      {
+        try
+        {
+          writeBatch(previousBatch);
+        }
+        catch (final IOException ioe)
+        {
+          Debug.debugException(ioe);
+          previousFailure = ioe;
+        }
+        catch (final RuntimeException re)
+        {
+          Debug.debugException(re);
+          previousFailure =
+               new IOException(StaticUtils.getExceptionMessage(re), re);
+        }
+      }
+
+      setSOTimeout(Math.max(0, (int) sendTimeoutMillis));
+
+      final OutputStream os = outputStream;
+      ASN1Writer.streamElement(element, os);
+      os.flush();
+
+      connection.getConnectionStatistics().incrementNumFlushes(1);
+    }
+    catch (final RuntimeException re)
+    {
+      Debug.debugException(re);
+      throw new IOException(StaticUtils.getExceptionMessage(re), re);
+    }
+    finally
+    {
+      synchronized (writeLock)
+      {
+        if (previousBatch != null)
+        {
+          completeBatch(previousBatch, previousFailure);
+        }
+
+        writeInProgress = false;
+        writeLock.notifyAll();
+      }
+    }
+  }
+
+
+
+  /**
+   * Marks the provided batch as complete and releases or recycles its buffer.
+   * This must only be called while holding the write lock.
+   *
+   * @param  batch    The batch that has been written.
+   * @param  failure  The exception caught while trying to write the batch, or
+   *                  {@code null} if it was written successfully.
+   */
+  private void completeBatch(final WriteBatch batch,
+                             final IOException failure)
+  {
+    batch.complete = true;
+    batch.failure = failure;
+
+    final ByteStringBuffer batchBuffer = batch.buffer;
+    if (batchBuffer == null)
+    {
+      // Return the direct buffer segments to the pool.
+      batch.directBuffer.clear(batch.zeroOnClear);
+    }
+    else
+    {
+      batchBuffer.clear(batch.zeroOnClear);
+      if (batchBuffer.capacity() <= MAX_RETAINED_WRITE_BUFFER_SIZE)
+      {
+        spareWriteBuffer = batchBuffer;
+      }
+    }
+  }
+
+
+
+  /**
+   * Writes and flushes the provided batch of messages.  This must only be
+   * called by the thread that has claimed the right to write.
+   *
+   * @param  batch  The batch to be written.
+   *
+   * @throws  IOException  If a problem occurs while writing the batch.
+   */
+  private void writeBatch(final WriteBatch batch)
+          throws IOException
+  {
+    setSOTimeout(batch.soTimeout);
+
+    final OutputStream os = outputStream;
+    if (batch.buffer != null)
+    {
+      batch.buffer.write(os);
+      os.flush();
+    }
+    else
+    {
+      final SocketChannelOutputStream cos = channelOutputStream;
+      if (cos != null)
+      {
+        os.flush();
+        batch.directBuffer.writeTo(cos);
+      }
+      else
+      {
+        // This should only happen if the connection was converted to use TLS
+        // after the batch was created.
+        os.write(batch.directBuffer.toByteArray());
+        os.flush();
+      }
+    }
+
+    connection.getConnectionStatistics().incrementNumFlushes(
+         batch.messageCount);
+  }
+
+
+
+  /**
+   * Sets the SO_TIMEOUT value for the socket.  This must only be called by the
+   * thread that has claimed the right to write.  The SO_TIMEOUT will only be
+   * touched if it needs to change, which it generally won't since most
+   * connections use the same send timeout for every message.
+   *
+   * @param  soTimeout  The SO_TIMEOUT value to use.
+   */
+  private void setSOTimeout(final int soTimeout)
+  {
+    try
+    {
+      if (socket.getSoTimeout() != soTimeout)
+      {
+        if (Debug.debugEnabled())
+        {
+          Debug.debug(Level.INFO, DebugType.CONNECT,
+               "Setting the SO_TIMEOUT value for connection " + connection +
+                    " to " + soTimeout + "ms.");
+        }
+        socket.setSoTimeout(soTimeout);
+      }
+    }
+    catch (final Exception e)
+    {
+      Debug.debugException(e);
+    }
+  }
+
+
+
   /**
    * Closes the connection associated with this connection internals.
    */
@@ -784,4 +1414,137 @@ final class LDAPConnectionInternals
     buffer.append(nextMessageID.get());
     buffer.append(')');
   }
+
+
+
+  /**
+   * This class holds a batch of encoded messages that will be written to the
+   * server with a single flush.
+   */
+  private static final class WriteBatch
+  {
+    // Indicates whether the batch has been written (or the attempt to write it
+    // has failed).
+    private boolean complete;
+
+    // Indicates whether the buffer should be zeroed after the batch has been
+    // written because at least one of the messages may contain sensitive
+    // information.
+    private boolean zeroOnClear;
+
+    // The heap buffer holding the encoded messages.  This will be null if the
+    // messages are held in a direct buffer.
+    private final ByteStringBuffer buffer;
+
+    // The direct buffer holding the encoded messages.  This will be null if
+    // the messages are held in a heap buffer.
+    private final DirectWriteBuffer directBuffer;
+
+    // The number of messages in the batch.
+    private int messageCount;
+
+    // The SO_TIMEOUT value that should be used while writing the batch.
+    private int soTimeout;
+
+    // The exception caught while trying to write the batch, if any.
+    private IOException failure;
+
+
+
+    /**
+     * Creates a new empty batch that will use the provided buffer.
+     *
+     * @param  buffer  The buffer that will hold the encoded messages.
+     */
+    private WriteBatch(final ByteStringBuffer buffer)
+    {
+      this(buffer, null);
+    }
+
+
+
+    /**
+     * Creates a new empty batch that will use the provided direct buffer.
+     *
+     * @param  directBuffer  The direct buffer that will hold the encoded
+     *                       messages.
+     */
+    private WriteBatch(final DirectWriteBuffer directBuffer)
+    {
+      this(null, directBuffer);
+    }
+
+
+
+    /**
+     * Creates a new empty batch that will use the provided buffer.  Exactly
+     * one of the buffers must be non-{@code null}.
+     *
+     * @param  buffer        The heap buffer that will hold the encoded
+     *                       messages.
+     * @param  directBuffer  The direct buffer that will hold the encoded
+     *                       messages.
+     */
+    private WriteBatch(final ByteStringBuffer buffer,
+                       final DirectWriteBuffer directBuffer)
+    {
+      this.buffer = buffer;
+      this.directBuffer = directBuffer;
+
+      complete = false;
+      zeroOnClear = false;
+      messageCount = 0;
+      soTimeout = -1;
+      failure = null;
+    }
+
+
+
+    /**
+     * Appends the specified portion of the provided array to the batch.
+     *
+     * @param  b       The array containing the data to append.
+     * @param  offset  The position in the array at which the data to append
+     *                 begins.
+     * @param  length  The number of bytes to append.
+     */
+    private void append(final byte[] b, final int offset, final int length)
+    {
+      if (buffer == null)
+      {
+        directBuffer.append(b, offset, length);
+      }
+      else
+      {
+        buffer.append(b, offset, length);
+      }
+    }
+
+
+
+    /**
+     * Updates the batch to reflect that a message has been added to it.
+     *
+     * @param  messageSOTimeout  The send timeout in milliseconds for the
+     *                           message, or zero if it has no timeout.
+     * @param  zero              Indicates whether the message may contain
+     *                           sensitive information.
+     */
+    private void addMessage(final int messageSOTimeout, final boolean zero)
+    {
+      messageCount++;
+      zeroOnClear |= zero;
+
+      // Use the smallest timeout of any message in the batch so that no
+      // message will block for longer than it would if it were written by
+      // itself.  A timeout of zero means that there is no timeout, so it will
+      // only be used if none of the messages has a timeout.
+      if ((soTimeout < 0) ||
+          ((messageSOTimeout > 0) &&
+           ((soTimeout == 0) || (messageSOTimeout < soTimeout))))
+      {
+        soTimeout = messageSOTimeout;
+      }
+    }
+  }
 }
@@ -546,6 +546,98 @@ public final class LDAPConnectionOptions
 
 
 
+  /**
+   * The name of a system property that can be used to specify the initial
+   * default value for the "use shared reader threads" behavior.  If this
+   * property is set at the time that this class is loaded, then its value must
+   * be either "true" or "false".  If this property is not set, then a default
+   * value of "false" will be assumed.
+   * <BR><BR>
+   * The full name for this system property is
+   * "com.unboundid.ldap.sdk.LDAPConnectionOptions.
+   * defaultUseSharedReaderThreads".
+   */
+  public static final String PROPERTY_DEFAULT_USE_SHARED_READER_THREADS =
+       PROPERTY_PREFIX + "defaultUseSharedReaderThreads";
+
+
+
+  /**
+   * The default value for the setting that controls whether responses should
+   * be read by a small set of shared, selector-based reader threads rather than
+   * a dedicated reader thread per connection.  If the
+   * {@link #PROPERTY_DEFAULT_USE_SHARED_READER_THREADS} system property is set
+   * at the time this class is loaded, then its value will be used.  Otherwise,
+   * a default value of {@code false} will be used.
+   */
+  private static final boolean DEFAULT_USE_SHARED_READER_THREADS =
+       getSystemProperty(PROPERTY_DEFAULT_USE_SHARED_READER_THREADS, false);
+
+
+
+  /**
+   * The name of a system property that can be used to specify the initial
+   * default value for the "use lazy search entry decoding" behavior.  If this
+   * property is set at the time that this class is loaded, then its value must
+   * be either "true" or "false".  If this property is not set, then a default
+   * value of "false" will be assumed.
+   * <BR><BR>
+   * The full name for this system property is
+   * "com.unboundid.ldap.sdk.LDAPConnectionOptions.
+   * defaultUseLazySearchEntryDecoding".
+   */
+  public static final String PROPERTY_DEFAULT_USE_LAZY_SEARCH_ENTRY_DECODING =
+       PROPERTY_PREFIX + "defaultUseLazySearchEntryDecoding";
+
+
+
+  /**
+   * The default value for the setting that controls whether the attributes of
+   * search result entries should be left in encoded form until they are first
+   * accessed.  If the {@link #PROPERTY_DEFAULT_USE_LAZY_SEARCH_ENTRY_DECODING}
+   * system property is set at the time this class is loaded, then its value
+   * will be used.  Otherwise, a default value of {@code false} will be used.
+   */
+  private static final boolean DEFAULT_USE_LAZY_SEARCH_ENTRY_DECODING =
+       getSystemProperty(PROPERTY_DEFAULT_USE_LAZY_SEARCH_ENTRY_DECODING,
+            false);
+
+
+
+  /**
+   * The name of a system property that can be used to specify the number of
+   * shared reader threads that will be created to service connections
+   * configured to use shared reader threads.  If this property is set at the
+   * time that the first such connection is established, then its value must be
+   * a positive integer.  If this property is not set, then the number of
+   * threads will be based on the number of available processors, with a
+   * minimum of one and a maximum of four.
+   * <BR><BR>
+   * The full name for this system property is
+   * "com.unboundid.ldap.sdk.LDAPConnectionOptions.sharedReaderThreadCount".
+   */
+  public static final String PROPERTY_SHARED_READER_THREAD_COUNT =
+       PROPERTY_PREFIX + "sharedReaderThreadCount";
+
+
+
+  /**
+   * The name of a system property that can be used to specify the maximum
+   * number of threads that will be used to invoke application-provided
+   * callbacks for connections configured to use shared reader threads.  If
+   * this property is set at the time that the first such connection is
+   * established, then its value must be a positive integer.  If this property
+   * is not set, then the number of threads will be twice the number of
+   * available processors, with a minimum of four.
+   * <BR><BR>
+   * The full name for this system property is
+   * "com.unboundid.ldap.sdk.LDAPConnectionOptions.sharedCallbackThreadCount".
+   */
+  public static final String PROPERTY_SHARED_CALLBACK_THREAD_COUNT =
+       PROPERTY_PREFIX + "sharedCallbackThreadCount";
+
+
+
   /**
    * The name of a system property that can be used to specify the initial
    * default value for the "use TCP nodelay" behavior.  If this property is set
@@ -1122,6 +1214,14 @@ public final class LDAPConnectionOptions
   // may be in progress on associated connections at any given time.
   private boolean useSynchronousMode;
 
+  // Indicates whether to read responses using a set of shared reader threads
+  // rather than a dedicated reader thread per connection.
+  private boolean useSharedReaderThreads;
+
+  // Indicates whether to defer decoding the attributes of search result
+  // entries until they are first accessed.
+  private boolean useLazySearchEntryDecoding;
+
   // Indicates whether to use TCP_NODELAY for the underlying sockets.
   private boolean useTCPNoDelay;
 
@@ -1186,6 +1286,8 @@ public final class LDAPConnectionOptions
     usePooledSchema                = DEFAULT_USE_POOLED_SCHEMA;
     useSchema                      = DEFAULT_USE_SCHEMA;
     useSynchronousMode             = DEFAULT_USE_SYNCHRONOUS_MODE;
+    useSharedReaderThreads         = DEFAULT_USE_SHARED_READER_THREADS;
+    useLazySearchEntryDecoding     = DEFAULT_USE_LAZY_SEARCH_ENTRY_DECODING;
     useTCPNoDelay                  = DEFAULT_USE_TCP_NODELAY;
     connectTimeoutMillis           = DEFAULT_CONNECT_TIMEOUT_MILLIS;
     lingerTimeoutSeconds           = DEFAULT_LINGER_TIMEOUT_SECONDS;
@@ -1233,6 +1335,8 @@ public final class LDAPConnectionOptions
     o.usePooledSchema                 = usePooledSchema;
     o.useSchema                       = useSchema;
     o.useSynchronousMode              = useSynchronousMode;
+    o.useSharedReaderThreads          = useSharedReaderThreads;
+    o.useLazySearchEntryDecoding      = useLazySearchEntryDecoding;
     o.useTCPNoDelay                   = useTCPNoDelay;
     o.connectTimeoutMillis            = connectTimeoutMillis;
     o.lingerTimeoutSeconds            = lingerTimeoutSeconds;
@@ -1886,6 +1990,184 @@ public final class LDAPConnectionOptions
 
 
 
+  /**
+   * Indicates whether to read responses for associated connections using a
+   * small set of shared reader threads, each of which uses a selector to
+   * service many connections, rather than a dedicated reader thread for each
+   * connection.  This can substantially reduce the number of threads (and the
+   * associated memory) needed by applications that maintain a large number of
+   * connections, such as those that use large connection pools or connect to
+   * many servers.
+   * <BR><BR>
+   * Shared reader threads will only be used for connections that do not
+   * operate in synchronous mode and that are established with the JVM-default
+   * socket factory.  Connections established with any other socket factory
+   * (including those used to create SSL-based connections) will continue to
+   * use a dedicated reader thread, as will connections secured with StartTLS
+   * once the TLS negotiation has completed.  SASL integrity and
+   * confidentiality protection are supported with shared reader threads.
+   * <BR><BR>
+   * Because shared reader threads are used to read responses for many
+   * connections, they never invoke application-provided code directly.  Any
+   * {@link AsyncResultListener}, {@link SearchResultListener},
+   * {@link SearchResultSubscriber}, {@link IntermediateResponseListener},
+   * {@link UnsolicitedNotificationHandler}, or {@link DisconnectHandler}
+   * invoked for an associated connection will instead be called on a separate
+   * callback thread.  Callbacks for the same connection will be invoked one at
+   * a time in the order in which the corresponding responses were received, so
+   * a slow callback will delay subsequent callbacks for that connection (and,
+   * once enough of them are waiting, reading from that connection will be
+   * suspended), but it will not delay the processing of responses on any other
+   * connection.  Callbacks for all such connections share a limited number of
+   * threads (see {@link #PROPERTY_SHARED_CALLBACK_THREAD_COUNT}), and if all of
+   * them are busy, then callbacks for other connections will wait until one
+   * becomes available.  As a result, a callback should not block for an
+   * extended period of time, and it must never wait for another callback to be
+   * invoked, since that callback may not be invoked until the waiting one has
+   * completed.
+   * <BR><BR>
+   * Note that this connection option must be set on the connection before any
+   * attempt is made to establish the connection.  Once the connection has been
+   * established, it will continue to use the reader mechanism selected at the
+   * time it was connected.
+   *
+   * @return  {@code true} if associated connections should use shared reader
+   *          threads, or {@code false} if each connection should use its own
+   *          dedicated reader thread.
+   */
+  public boolean useSharedReaderThreads()
+  {
+    return useSharedReaderThreads;
+  }
+
+
+
+  /**
+   * Specifies whether to read responses for associated connections using a
+   * small set of shared reader threads rather than a dedicated reader thread
+   * for each connection.  See the {@link #useSharedReaderThreads()} method for
+   * more information about shared reader threads and the circumstances in
+   * which they will be used.
+   * <BR><BR>
+   * Note that this connection option must be set on the connection before any
+   * attempt is made to establish the connection.  Once the connection has been
+   * established, it will continue to use the reader mechanism selected at the
+   * time it was connected.
+   *
+   * @param  useSharedReaderThreads  Indicates whether to read responses for
+   *                                 associated connections using a set of
+   *                                 shared reader threads.
+   */
+  public void setUseSharedReaderThreads(final boolean useSharedReaderThreads)
+  {
+    this.useSharedReaderThreads = useSharedReaderThreads;
+  }
+
+
+
+  /**
+   * Indicates whether the attributes of search result entries read on
+   * associated connections should be left in encoded form until they are first
+   * accessed, rather than being decoded as soon as the entry is read.  The
+   * attributes will then be decoded on the thread that first uses them (for
+   * example, by calling {@link Entry#getAttributes()} or
+   * {@link Entry#getAttributeValue(String)}), rather than on the thread that
+   * reads responses from the server.  This can improve throughput for searches
+   * that return many entries, particularly when those entries are consumed by
+   * multiple threads or when many of them are discarded without being
+   * examined.
+   * <BR><BR>
+   * Note that when lazy decoding is enabled, a malformed attribute list in a
+   * search result entry will not be detected when the entry is read, but will
+   * instead cause an {@link LDAPRuntimeException} with a result code of
+   * {@link ResultCode#DECODING_ERROR} to be thrown when its attributes are
+   * first accessed.
+   *
+   * @return  {@code true} if the attributes of search result entries should be
+   *          decoded lazily, or {@code false} if they should be decoded as soon
+   *          as the entry is read.
+   */
+  public boolean useLazySearchEntryDecoding()
+  {
+    return useLazySearchEntryDecoding;
+  }
+
+
+
+  /**
+   * Specifies whether the attributes of search result entries read on
+   * associated connections should be left in encoded form until they are first
+   * accessed.  See the {@link #useLazySearchEntryDecoding()} method for more
+   * information about lazy decoding.
+   *
+   * @param  useLazySearchEntryDecoding  Indicates whether the attributes of
+   *                                     search result entries should be
+   *                                     decoded lazily.
+   */
+  public void setUseLazySearchEntryDecoding(
+                   final boolean useLazySearchEntryDecoding)
+  {
+    this.useLazySearchEntryDecoding = useLazySearchEntryDecoding;
+  }
+
+
+
+  /**
+   * Retrieves the number of shared reader threads that should be created to
+   * service connections configured to use shared reader threads.  This will be
+   * determined by the {@link #PROPERTY_SHARED_READER_THREAD_COUNT} system
+   * property if it is set with a positive value, or otherwise by the number of
+   * available processors, with a minimum of one and a maximum of four.
+   *
+   * @return  The number of shared reader threads that should be created.
+   */
+  static int getSharedReaderThreadCount()
+  {
+    final int defaultCount = Math.max(1,
+         Math.min(4, Runtime.getRuntime().availableProcessors()));
+    final int count =
+         getSystemProperty(PROPERTY_SHARED_READER_THREAD_COUNT, defaultCount);
+    if (count > 0)
+    {
+      return count;
+    }
+    else
+    {
+      return defaultCount;
+    }
+  }
+
+
+
+  /**
+   * Retrieves the maximum number of threads that should be used to invoke
+   * application-provided callbacks for connections configured to use shared
+   * reader threads.  This will be determined by the
+   * {@link #PROPERTY_SHARED_CALLBACK_THREAD_COUNT} system property if it is set
+   * with a positive value, or otherwise by the number of available processors.
+   *
+   * @return  The maximum number of threads that should be used to invoke
+   *          callbacks for connections configured to use shared reader
+   *          threads.
+   */
+  static int getSharedCallbackThreadCount()
+  {
+    final int defaultCount =
+         Math.max(4, (2 * Runtime.getRuntime().availableProcessors()));
+    final int count = getSystemProperty(PROPERTY_SHARED_CALLBACK_THREAD_COUNT,
+         defaultCount);
+    if (count > 0)
+    {
+      return count;
+    }
+    else
+    {
+      return defaultCount;
+    }
+  }
+
+
+
   /**
    * Indicates whether to use the TCP_NODELAY option for the underlying sockets
    * used by associated connections.
@@ -2507,6 +2789,10 @@ public final class LDAPConnectionOptions
     buffer.append(pooledSchemaTimeoutMillis);
     buffer.append(", useSynchronousMode=");
     buffer.append(useSynchronousMode);
+    buffer.append(", useSharedReaderThreads=");
+    buffer.append(useSharedReaderThreads);
+    buffer.append(", useLazySearchEntryDecoding=");
+    buffer.append(useLazySearchEntryDecoding);
     buffer.append(", useTCPNoDelay=");
     buffer.append(useTCPNoDelay);
     buffer.append(", captureConnectStackTrace=");
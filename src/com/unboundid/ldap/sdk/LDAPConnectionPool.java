@@ -30,7 +30,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -117,6 +116,15 @@ import static com.unboundid.ldap.sdk.LDAPMessages.*;
  * connection is closed and a new connection will be established to take its
  * place in the pool.
  * <BR><BR>
+ * Available connections are generally checked out in the order in which they
+ * were released, so that all of the connections in the pool remain in use.
+ * However, a thread that releases a connection and then checks out another
+ * will usually get the same connection back if it is still available, which
+ * avoids contention with other threads.  Connections that remain available
+ * for a period of time without being checked out will still be examined by
+ * the background health check, which will also close and replace any that
+ * have exceeded the maximum connection age.
+ * <BR><BR>
  * Note that it is also possible to process multiple operations on a single
  * connection using the {@link #processRequests} method.  This may be useful if
  * a fixed set of operations should be processed over the same connection and
@@ -248,6 +256,16 @@ public final class LDAPConnectionPool
   // try to keep available for immediate use.
   private volatile int minConnectionGoal;
 
+  // The sizer used to apply the elastic sizing policy for this pool, if any.
+  private volatile ElasticPoolSizer elasticSizer;
+
+  // The processor used to apply the hedged read policy for this pool, if any.
+  private volatile HedgedReadProcessor hedgedReadProcessor;
+
+  // The coalescer used to allow identical concurrent searches to share a
+  // single request, if any.
+  private volatile SearchCoalescer searchCoalescer;
+
   // The health check implementation that should be used for this connection
   // pool.
   private LDAPConnectionPoolHealthCheck healthCheck;
@@ -260,7 +278,7 @@ public final class LDAPConnectionPool
   private final LDAPConnectionPoolStatistics poolStatistics;
 
   // The set of connections that are currently available for use.
-  private final LinkedBlockingQueue<LDAPConnection> availableConnections;
+  private final AvailableConnectionSlots availableConnections;
 
   // The length of time in milliseconds between periodic health checks against
   // the available connections in this pool.
@@ -638,7 +656,10 @@ public final class LDAPConnectionPool
          Collections.unmodifiableSet(EnumSet.noneOf(OperationType.class)));
     numConnections            = maxConnections;
     minConnectionGoal         = 0;
-    availableConnections      = new LinkedBlockingQueue<>(numConnections);
+    elasticSizer              = null;
+    hedgedReadProcessor       = null;
+    searchCoalescer           = null;
+    availableConnections      = new AvailableConnectionSlots(numConnections);
 
     if (! connection.isConnected())
     {
@@ -1165,6 +1186,9 @@ public final class LDAPConnectionPool
     retryOperationTypes = new AtomicReference<>(
          Collections.unmodifiableSet(EnumSet.noneOf(OperationType.class)));
     minConnectionGoal   = 0;
+    elasticSizer        = null;
+    hedgedReadProcessor = null;
+    searchCoalescer     = null;
 
     if (healthCheck == null)
     {
@@ -1221,8 +1245,7 @@ public final class LDAPConnectionPool
 
     numConnections = maxConnections;
 
-    availableConnections =
-         new LinkedBlockingQueue<>(numConnections);
+    availableConnections = new AvailableConnectionSlots(numConnections);
     availableConnections.addAll(connList);
 
     failedReplaceCount                 =
@@ -1782,7 +1805,12 @@ public final class LDAPConnectionPool
       }
     }
 
-    if (failedReplaceCount.get() > 0)
+    // If there is an elastic sizing policy, then new connections will be
+    // created in the background rather than by the thread trying to check out
+    // a connection, as long as that thread is allowed to wait.
+    final ElasticPoolSizer sizer = elasticSizer;
+    if ((failedReplaceCount.get() > 0) &&
+        ((sizer == null) || (maxWaitTime <= 0L)))
     {
       final int newReplaceCount = failedReplaceCount.getAndDecrement();
       if (newReplaceCount > 0)
@@ -1812,9 +1840,30 @@ public final class LDAPConnectionPool
 
     if (maxWaitTime > 0)
     {
+      final long waitStartTime = System.nanoTime();
       try
       {
-        conn = availableConnections.poll(maxWaitTime, TimeUnit.MILLISECONDS);
+        if (sizer == null)
+        {
+          conn = availableConnections.poll(maxWaitTime, TimeUnit.MILLISECONDS);
+        }
+        else
+        {
+          // Wait for up to the target wait time, and then have the pool grow
+          // while waiting for the remainder of the maximum wait time.
+          final long targetWaitTime = Math.min(maxWaitTime,
+               sizer.getPolicy().getTargetCheckoutWaitTimeMillis());
+          conn = availableConnections.poll(targetWaitTime,
+               TimeUnit.MILLISECONDS);
+          if (conn == null)
+          {
+            sizer.grow();
+            conn = availableConnections.poll((maxWaitTime - targetWaitTime),
+                 TimeUnit.MILLISECONDS);
+          }
+        }
+
+        poolStatistics.addCheckoutWaitTime(System.nanoTime() - waitStartTime);
         if (conn != null)
         {
           try
@@ -1834,6 +1883,7 @@ public final class LDAPConnectionPool
       catch (final InterruptedException ie)
       {
         Debug.debugException(ie);
+        poolStatistics.addCheckoutWaitTime(System.nanoTime() - waitStartTime);
         Thread.currentThread().interrupt();
         throw new LDAPException(ResultCode.LOCAL_ERROR,
              ERR_POOL_CHECKOUT_INTERRUPTED.get(), ie);
@@ -1883,6 +1933,52 @@ public final class LDAPConnectionPool
    *          the specified server.
    */
   public LDAPConnection getConnection(final String host, final int port)
+  {
+    return getAvailableConnection(host, port, true);
+  }
+
+
+
+  /**
+   * Attempts to retrieve a connection from the pool that is established to a
+   * server other than the specified server.  This method will not wait for a
+   * connection to become available, nor will it create a new connection.
+   *
+   * @param  host  The address of the server to which the connection should not
+   *               be established.  It may be {@code null} if any connection
+   *               may be returned.
+   * @param  port  The port of the server to which the connection should not be
+   *               established.
+   *
+   * @return  A connection that is established to a different server, or
+   *          {@code null} if no such connection is currently available.
+   */
+  LDAPConnection getConnectionToDifferentServer(final String host,
+                                                final int port)
+  {
+    return getAvailableConnection(host, port, false);
+  }
+
+
+
+  /**
+   * Attempts to retrieve an available connection from the pool that either is
+   * or is not established to the specified server.  This method will not wait
+   * for a connection to become available, nor will it create a new
+   * connection.
+   *
+   * @param  host        The address of the target server.
+   * @param  port        The port of the target server.
+   * @param  sameServer  Indicates whether the connection must be established to
+   *                     the specified server ({@code true}) or to a different
+   *                     server ({@code false}).
+   *
+   * @return  A matching connection, or {@code null} if no such connection is
+   *          currently available.
+   */
+  private LDAPConnection getAvailableConnection(final String host,
+                                                final int port,
+                                                final boolean sameServer)
   {
     if (closed)
     {
@@ -1892,24 +1988,24 @@ public final class LDAPConnectionPool
 
     final HashSet<LDAPConnection> examinedConnections =
          new HashSet<>(StaticUtils.computeMapCapacity(numConnections));
-    while (true)
+    for (int i=0; i < numConnections; i++)
     {
-      final LDAPConnection conn = availableConnections.poll();
+      final LDAPConnection conn = availableConnections.pollSlot(i);
       if (conn == null)
       {
-        poolStatistics.incrementNumFailedCheckouts();
-        return null;
+        continue;
       }
 
       if (examinedConnections.contains(conn))
       {
         availableConnections.offer(conn);
-        poolStatistics.incrementNumFailedCheckouts();
-        return null;
+        continue;
       }
 
-      if (conn.getConnectedAddress().equals(host) &&
-          (port == conn.getConnectedPort()))
+      final boolean isSameServer =
+           ((host != null) && host.equals(conn.getConnectedAddress()) &&
+                (port == conn.getConnectedPort()));
+      if (isSameServer == sameServer)
       {
         try
         {
@@ -1931,6 +2027,9 @@ public final class LDAPConnectionPool
         examinedConnections.add(conn);
       }
     }
+
+    poolStatistics.incrementNumFailedCheckouts();
+    return null;
   }
 
 
@@ -2774,6 +2873,12 @@ public final class LDAPConnectionPool
   protected void doHealthCheck()
   {
     invokeHealthCheck(null, true);
+
+    final ElasticPoolSizer sizer = elasticSizer;
+    if (sizer != null)
+    {
+      sizer.evaluate();
+    }
   }
 
 
@@ -2868,10 +2973,10 @@ public final class LDAPConnectionPool
 
     for (int i=0; i < numConnections; i++)
     {
-      LDAPConnection conn = availableConnections.poll();
+      LDAPConnection conn = availableConnections.pollSlot(i);
       if (conn == null)
       {
-        break;
+        continue;
       }
       else if (examinedConnections.contains(conn))
       {
@@ -2882,7 +2987,7 @@ public final class LDAPConnectionPool
           poolStatistics.incrementNumConnectionsClosedUnneeded();
           conn.terminate(null);
         }
-        break;
+        continue;
       }
 
       numExamined++;
@@ -3235,6 +3340,339 @@ public final class LDAPConnectionPool
 
 
 
+  /**
+   * Retrieves the elastic sizing policy that is used to automatically grow and
+   * shrink this connection pool in response to the load placed on it.
+   *
+   * @return  The elastic sizing policy for this connection pool, or
+   *          {@code null} if the pool will not be automatically resized.
+   */
+  public ElasticPoolSizingPolicy getElasticSizingPolicy()
+  {
+    final ElasticPoolSizer sizer = elasticSizer;
+    if (sizer == null)
+    {
+      return null;
+    }
+    else
+    {
+      return sizer.getPolicy();
+    }
+  }
+
+
+
+  /**
+   * Specifies the elastic sizing policy that should be used to automatically
+   * grow and shrink this connection pool in response to the load placed on it.
+   * The pool will never grow beyond its maximum number of connections.  While
+   * an elastic sizing policy is in effect and the maximum wait time is greater
+   * than zero, a thread that needs a connection when none are available will
+   * wait for one to be established in the background rather than creating one
+   * itself.  It is generally recommended that the pool not be configured to
+   * create connections if necessary when using an elastic sizing policy.
+   *
+   * @param  policy  The elastic sizing policy to use for this connection pool.
+   *                 It may be {@code null} if the pool should not be
+   *                 automatically resized.
+   */
+  public void setElasticSizingPolicy(final ElasticPoolSizingPolicy policy)
+  {
+    if (policy == null)
+    {
+      elasticSizer = null;
+    }
+    else
+    {
+      elasticSizer = new ElasticPoolSizer(this, policy);
+    }
+  }
+
+
+
+  /**
+   * Retrieves the hedged read policy that is used to reduce the tail latency of
+   * read operations processed through this connection pool.
+   *
+   * @return  The hedged read policy for this connection pool, or {@code null}
+   *          if read operations will not be hedged.
+   */
+  public HedgedReadPolicy getHedgedReadPolicy()
+  {
+    final HedgedReadProcessor processor = hedgedReadProcessor;
+    if (processor == null)
+    {
+      return null;
+    }
+    else
+    {
+      return processor.getPolicy();
+    }
+  }
+
+
+
+  /**
+   * Specifies the hedged read policy that should be used to reduce the tail
+   * latency of read operations processed through this connection pool.  When
+   * a policy is in effect, a search, compare, or get entry operation that has
+   * not completed within the delay determined by the policy will be sent again
+   * on an available connection to a different server, and the first response
+   * will be used.  This is only useful if the pool's connections are
+   * established to multiple servers that hold the same data.
+   *
+   * @param  policy  The hedged read policy to use for this connection pool.  It
+   *                 may be {@code null} if read operations should not be
+   *                 hedged.
+   */
+  public void setHedgedReadPolicy(final HedgedReadPolicy policy)
+  {
+    if (policy == null)
+    {
+      hedgedReadProcessor = null;
+    }
+    else
+    {
+      hedgedReadProcessor = new HedgedReadProcessor(this, policy);
+    }
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  HedgedReadProcessor getHedgedReadProcessor()
+  {
+    return hedgedReadProcessor;
+  }
+
+
+
+  /**
+   * Indicates whether identical searches that are processed concurrently
+   * through this connection pool will be coalesced so that they share a single
+   * request to the server.
+   *
+   * @return  {@code true} if identical concurrent searches will be coalesced,
+   *          or {@code false} if each search will be sent to the server
+   *          separately.
+   */
+  public boolean coalesceIdenticalSearches()
+  {
+    return (searchCoalescer != null);
+  }
+
+
+
+  /**
+   * Specifies whether identical searches that are processed concurrently
+   * through this connection pool should be coalesced so that they share a
+   * single request to the server.  When enabled, a search (including a get
+   * entry or search for entry operation) that is requested while an identical
+   * search is already in progress will not be sent to the server, but will
+   * instead wait for the in-progress search to complete and will receive its
+   * result.  This can significantly reduce the load on the server
+   * when many threads request the same data at the same time, but it should
+   * only be used if it is acceptable for a search to return a result that was
+   * obtained by a request that was sent slightly before it was invoked.
+   * <BR><BR>
+   * Two searches are considered identical if they have the same normalized
+   * base DN and filter, and the same scope, dereference policy, size limit,
+   * time limit, typesOnly flag, and set of requested attributes.  Searches that
+   * include request controls, that use a search result listener, or that have
+   * customized referral settings will never be coalesced.  Coalescing is
+   * disabled by default.
+   *
+   * @param  coalesceIdenticalSearches  Indicates whether identical searches
+   *                                    that are processed concurrently through
+   *                                    this connection pool should be
+   *                                    coalesced.
+   */
+  public void setCoalesceIdenticalSearches(
+                   final boolean coalesceIdenticalSearches)
+  {
+    if (coalesceIdenticalSearches)
+    {
+      if (searchCoalescer == null)
+      {
+        searchCoalescer = new SearchCoalescer(this);
+      }
+    }
+    else
+    {
+      searchCoalescer = null;
+    }
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  SearchCoalescer getSearchCoalescer()
+  {
+    return searchCoalescer;
+  }
+
+
+
+  /**
+   * Retrieves the number of connections that are currently associated with
+   * this pool, whether they are available or checked out.  This is computed
+   * from the maximum number of connections and the number of connections that
+   * the pool is currently permitted to create, so it will not include any
+   * connections created beyond the maximum because the pool is configured to
+   * create connections if necessary.
+   *
+   * @return  The number of connections that are currently associated with this
+   *          pool.
+   */
+  int getCurrentConnectionCount()
+  {
+    return Math.max(0, (numConnections - failedReplaceCount.get()));
+  }
+
+
+
+  /**
+   * Reserves capacity for up to the specified number of new connections to be
+   * added to the pool by {@link #addConnections}.
+   *
+   * @param  numToReserve  The maximum number of connections for which to
+   *                       reserve capacity.
+   *
+   * @return  The number of connections for which capacity was reserved, which
+   *          may be less than the requested number (or zero) if the pool is
+   *          at or near its maximum number of connections.
+   */
+  int reserveConnectionsForGrowth(final int numToReserve)
+  {
+    while (true)
+    {
+      final int currentCount = failedReplaceCount.get();
+      if (currentCount <= 0)
+      {
+        return 0;
+      }
+
+      final int numReserved = Math.min(currentCount, numToReserve);
+      if (failedReplaceCount.compareAndSet(currentCount,
+           (currentCount - numReserved)))
+      {
+        return numReserved;
+      }
+    }
+  }
+
+
+
+  /**
+   * Returns capacity that was reserved with
+   * {@link #reserveConnectionsForGrowth} but that will not be used to establish
+   * new connections.
+   *
+   * @param  numReserved  The number of connections for which capacity was
+   *                      reserved and should now be returned.
+   */
+  void releaseReservedConnections(final int numReserved)
+  {
+    if (numReserved > 0)
+    {
+      failedReplaceCount.addAndGet(numReserved);
+    }
+  }
+
+
+
+  /**
+   * Discards available connections until no more than the specified number of
+   * connections remain available.  Unlike {@link #shrinkPool}, this will only
+   * remove connections that are currently available, and it will never wait
+   * for a connection to be released or cause a new connection to be
+   * established.  The capacity for each discarded connection will be returned
+   * to the pool.
+   *
+   * @param  connectionsToRetain  The number of available connections that
+   *                              should be retained.
+   */
+  void discardIdleConnections(final int connectionsToRetain)
+  {
+    while (availableConnections.size() > connectionsToRetain)
+    {
+      final LDAPConnection conn = availableConnections.poll();
+      if (conn == null)
+      {
+        return;
+      }
+
+      // Other threads may have checked out connections after the size was
+      // checked, in which case this one should be kept.
+      if ((availableConnections.size() < connectionsToRetain) &&
+          availableConnections.offer(conn))
+      {
+        return;
+      }
+
+      discardConnection(conn);
+    }
+  }
+
+
+
+  /**
+   * Establishes the specified number of new connections in parallel and makes
+   * them available for use in the pool.  Capacity for the connections must
+   * have already been reserved with {@link #reserveConnectionsForGrowth}, and
+   * the capacity for any connections that cannot be established will be
+   * returned.
+   *
+   * @param  numToAdd    The number of connections to add.
+   * @param  numThreads  The number of threads to use to establish the
+   *                     connections.
+   */
+  void addConnections(final int numToAdd, final int numThreads)
+  {
+    final List<LDAPConnection> connList =
+         Collections.synchronizedList(new ArrayList<LDAPConnection>(numToAdd));
+    final ParallelPoolConnector connector = new ParallelPoolConnector(this,
+         connList, numToAdd, numThreads, false);
+    try
+    {
+      connector.establishConnections();
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+    }
+
+    final int numFailed = numToAdd - connList.size();
+    if (numFailed > 0)
+    {
+      failedReplaceCount.addAndGet(numFailed);
+    }
+
+    for (final LDAPConnection conn : connList)
+    {
+      if (! availableConnections.offer(conn))
+      {
+        conn.setDisconnectInfo(DisconnectType.POOLED_CONNECTION_UNNEEDED,
+             null, null);
+        poolStatistics.incrementNumConnectionsClosedUnneeded();
+        conn.terminate(null);
+      }
+    }
+
+    if (closed)
+    {
+      close();
+    }
+  }
+
+
+
   /**
    * Closes this connection pool in the event that it becomes unreferenced.
    *
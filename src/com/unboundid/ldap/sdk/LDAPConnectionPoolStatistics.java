@@ -23,6 +23,7 @@ package com.unboundid.ldap.sdk;
 
 
 import java.io.Serializable;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.unboundid.util.Mutable;
@@ -65,7 +66,14 @@ import com.unboundid.util.ThreadSafetyLevel;
  *       the pool.</LI>
  *   <LI>The number of failed attempts to create a new connection for use in the
  *       pool.</LI>
+ *   <LI>A histogram of the response times for each type of operation
+ *       processed using connections from the pool, which may be used to
+ *       determine the median and other percentile response times.</LI>
  * </UL>
+ * The response time histograms may be reset independently of the other
+ * statistics using the {@link #getAndResetResponseTimeHistograms} method,
+ * which makes it possible to obtain response time percentiles for
+ * consecutive intervals.
  */
 @Mutable()
 @ThreadSafety(level=ThreadSafetyLevel.MOSTLY_THREADSAFE)
@@ -116,9 +124,24 @@ public final class LDAPConnectionPoolStatistics
   // The number successful attempts to create a connection for use in the pool.
   private final AtomicLong numSuccessfulConnectionAttempts;
 
+  // The number of read operations for which a hedged request was sent to
+  // another server.
+  private final AtomicLong numHedgedReads;
+
+  // The number of searches that were satisfied by sharing the result of an
+  // identical search that was already in progress.
+  private final AtomicLong numCoalescedSearches;
+
+  // The total length of time in nanoseconds that checkout attempts have spent
+  // waiting for a connection to become available.
+  private final AtomicLong totalCheckoutWaitTimeNanos;
+
   // The connection pool with which these statistics are associated.
   private final AbstractConnectionPool pool;
 
+  // The response time recorders for each type of operation.
+  private final Map<OperationType,ResponseTimeRecorder> responseTimeRecorders;
+
 
 
   /**
@@ -143,6 +166,11 @@ public final class LDAPConnectionPoolStatistics
     numSuccessfulCheckoutsWithoutWait   = new AtomicLong(0L);
     numFailedCheckouts                  = new AtomicLong(0L);
     numReleasedValid                    = new AtomicLong(0L);
+    totalCheckoutWaitTimeNanos          = new AtomicLong(0L);
+    numHedgedReads                      = new AtomicLong(0L);
+    numCoalescedSearches                = new AtomicLong(0L);
+
+    responseTimeRecorders = ResponseTimeRecorder.createRecorderMap();
   }
 
 
@@ -163,6 +191,14 @@ public final class LDAPConnectionPoolStatistics
     numSuccessfulCheckoutsWithoutWait.set(0L);
     numFailedCheckouts.set(0L);
     numReleasedValid.set(0L);
+    totalCheckoutWaitTimeNanos.set(0L);
+    numHedgedReads.set(0L);
+    numCoalescedSearches.set(0L);
+
+    for (final ResponseTimeRecorder r : responseTimeRecorders.values())
+    {
+      r.reset();
+    }
   }
 
 
@@ -384,6 +420,117 @@ public final class LDAPConnectionPoolStatistics
 
 
 
+  /**
+   * Retrieves the total length of time that attempts to check out a connection
+   * from the pool have spent waiting for a connection to become available.
+   * This includes the time spent by both successful and failed checkout
+   * attempts, but does not include the time required to establish a new
+   * connection.
+   *
+   * @return  The total length of time in nanoseconds that attempts to check out
+   *          a connection from the pool have spent waiting for a connection to
+   *          become available.
+   */
+  public long getTotalCheckoutWaitTimeNanos()
+  {
+    return totalCheckoutWaitTimeNanos.get();
+  }
+
+
+
+  /**
+   * Retrieves the average length of time that successful attempts to check out
+   * a connection from the pool have spent waiting for a connection to become
+   * available, including those that did not need to wait at all.
+   *
+   * @return  The average length of time in milliseconds that successful
+   *          attempts to check out a connection from the pool have spent
+   *          waiting for a connection to become available, or zero if no
+   *          connections have been checked out.
+   */
+  public double getAverageCheckoutWaitTimeMillis()
+  {
+    final long checkouts = numSuccessfulCheckouts.get();
+    if (checkouts <= 0L)
+    {
+      return 0.0d;
+    }
+
+    return (totalCheckoutWaitTimeNanos.get() / 1_000_000.0d) / checkouts;
+  }
+
+
+
+  /**
+   * Adds the provided duration to the total length of time that attempts to
+   * check out a connection from the pool have spent waiting for a connection
+   * to become available.
+   *
+   * @param  waitTimeNanos  The length of time in nanoseconds that a checkout
+   *                        attempt spent waiting.
+   */
+  void addCheckoutWaitTime(final long waitTimeNanos)
+  {
+    if (waitTimeNanos > 0L)
+    {
+      totalCheckoutWaitTimeNanos.addAndGet(waitTimeNanos);
+    }
+  }
+
+
+
+  /**
+   * Retrieves the number of read operations for which a hedged request was
+   * sent to another server because no response had been received within the
+   * delay determined by the pool's hedged read policy.
+   *
+   * @return  The number of read operations for which a hedged request was sent
+   *          to another server.
+   */
+  public long getNumHedgedReads()
+  {
+    return numHedgedReads.get();
+  }
+
+
+
+  /**
+   * Increments the number of read operations for which a hedged request was
+   * sent to another server.
+   */
+  void incrementNumHedgedReads()
+  {
+    numHedgedReads.incrementAndGet();
+  }
+
+
+
+  /**
+   * Retrieves the number of searches that were satisfied by sharing the result
+   * of an identical search that was already in progress, rather than by
+   * sending a separate request to the server.
+   *
+   * @return  The number of searches that were satisfied by sharing the result
+   *          of an identical search that was already in progress.
+   */
+  public long getNumCoalescedSearches()
+  {
+    return numCoalescedSearches.get();
+  }
+
+
+
+  /**
+   * Increments the number of searches that were satisfied by sharing the
+   * result of an identical search that was already in progress.
+   */
+  void incrementNumCoalescedSearches()
+  {
+    numCoalescedSearches.incrementAndGet();
+  }
+
+
+
   /**
    * Retrieves the number of failed attempts to check out a connection from
    * the pool (including connections checked out for internal use by operations
@@ -466,6 +613,70 @@ public final class LDAPConnectionPoolStatistics
 
 
 
+  /**
+   * Records the response time for an operation processed using a connection
+   * from the associated pool.
+   *
+   * @param  operationType  The type of operation that was processed.
+   * @param  responseTime   The response time for the operation, in
+   *                        nanoseconds.
+   */
+  void recordResponseTime(final OperationType operationType,
+                          final long responseTime)
+  {
+    final ResponseTimeRecorder r = responseTimeRecorders.get(operationType);
+    if (r != null)
+    {
+      r.record(responseTime);
+    }
+  }
+
+
+
+  /**
+   * Retrieves a histogram of the response times for operations of the
+   * specified type processed using connections from the pool since the
+   * histograms were last reset.
+   *
+   * @param  operationType  The type of operation for which to retrieve the
+   *                        response time histogram.
+   *
+   * @return  A histogram of the response times for operations of the specified
+   *          type, or {@code null} if the specified operation type does not
+   *          have a response (i.e., abandon and unbind operations).
+   */
+  public ResponseTimeHistogram getResponseTimeHistogram(
+                                    final OperationType operationType)
+  {
+    final ResponseTimeRecorder r = responseTimeRecorders.get(operationType);
+    if (r == null)
+    {
+      return null;
+    }
+
+    return r.getSnapshot();
+  }
+
+
+
+  /**
+   * Retrieves a map of the response time histograms for each type of operation
+   * that has a response, and resets those histograms so that subsequent calls
+   * will only include operations completed after this call.  This may be used
+   * to obtain response time percentiles for consecutive intervals without
+   * affecting any of the other statistics maintained by this object.
+   *
+   * @return  A map of the response time histograms for each type of operation
+   *          that has a response.
+   */
+  public Map<OperationType,ResponseTimeHistogram>
+              getAndResetResponseTimeHistograms()
+  {
+    return ResponseTimeRecorder.getSnapshots(responseTimeRecorders, true);
+  }
+
+
+
   /**
    * Retrieves a string representation of this LDAP connection pool statistics
    * object.
@@ -502,6 +713,9 @@ public final class LDAPConnectionPoolStatistics
     final long successfulCheckouts = numSuccessfulCheckouts.get();
     final long failedCheckouts     = numFailedCheckouts.get();
     final long releasedValid       = numReleasedValid.get();
+    final long checkoutWaitNanos   = totalCheckoutWaitTimeNanos.get();
+    final long hedgedReads         = numHedgedReads.get();
+    final long coalescedSearches   = numCoalescedSearches.get();
 
     buffer.append("LDAPConnectionPoolStatistics(numAvailableConnections=");
     buffer.append(availableConns);
@@ -523,6 +737,26 @@ public final class LDAPConnectionPoolStatistics
     buffer.append(failedCheckouts);
     buffer.append(", numReleasedValid=");
     buffer.append(releasedValid);
+    buffer.append(", totalCheckoutWaitTimeMillis=");
+    buffer.append(checkoutWaitNanos / 1_000_000L);
+    buffer.append(", numHedgedReads=");
+    buffer.append(hedgedReads);
+    buffer.append(", numCoalescedSearches=");
+    buffer.append(coalescedSearches);
+
+    for (final Map.Entry<OperationType,ResponseTimeRecorder> e :
+         responseTimeRecorders.entrySet())
+    {
+      final ResponseTimeHistogram h = e.getValue().getSnapshot();
+      if (h.getCount() > 0L)
+      {
+        buffer.append(", ");
+        buffer.append(e.getKey().name());
+        buffer.append("ResponseTimes=");
+        h.toString(buffer);
+      }
+    }
+
     buffer.append(')');
   }
 }
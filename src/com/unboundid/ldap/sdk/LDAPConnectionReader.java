@@ -29,7 +29,6 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
-import java.util.Iterator;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import javax.net.ssl.SSLSocket;
@@ -78,7 +77,12 @@ final class LDAPConnectionReader
 
   // The map that will be used to associate message IDs with the corresponding
   // response acceptors.
-  private final ConcurrentHashMap<Integer,ResponseAcceptor> acceptorMap;
+  private final ResponseAcceptorMap acceptorMap;
+
+  // The most recently dispatched callback for each synchronous operation that
+  // has callbacks that have not yet completed.  It will only be used for
+  // connections that are serviced by a shared reader thread.
+  private final ConcurrentHashMap<Integer,Runnable> pendingCallbacks;
 
   // The exception encountered during StartTLS processing.
   private volatile Exception startTLSException;
@@ -94,6 +98,11 @@ final class LDAPConnectionReader
   // The LDAP connection with which this reader is associated.
   private final LDAPConnection connection;
 
+  // The shared connection reader that will be used to read data from the
+  // server if this connection is serviced by a shared reader thread rather
+  // than a dedicated thread.
+  private volatile SharedConnectionReader sharedReader;
+
   // The socket with which this reader is associated.
   private volatile Socket socket;
 
@@ -118,12 +127,18 @@ final class LDAPConnectionReader
    *                              associated.
    * @param  connectionInternals  The elements of the LDAP connection actually
    *                              used to communicate with the directory server.
+   * @param  useSharedReader      Indicates whether data should be read by a
+   *                              shared reader thread rather than by this
+   *                              thread.  If this is {@code true}, then the
+   *                              socket must have an associated channel that
+   *                              has been placed in non-blocking mode.
    *
    * @throws  IOException  If a problem occurs while preparing to read data from
    *                       the provided socket.
    */
   LDAPConnectionReader(final LDAPConnection connection,
-                       final LDAPConnectionInternals connectionInternals)
+                       final LDAPConnectionInternals connectionInternals,
+                       final boolean useSharedReader)
        throws IOException
   {
     this.connection = connection;
@@ -131,13 +146,25 @@ final class LDAPConnectionReader
     setName(constructThreadName(connectionInternals));
     setDaemon(true);
 
-    socket               = connectionInternals.getSocket();
-    inputStream          = new BufferedInputStream(socket.getInputStream(),
-                                                   DEFAULT_INPUT_BUFFER_SIZE);
-    asn1StreamReader = new ASN1StreamReader(inputStream,
-         connection.getConnectionOptions().getMaxMessageSize());
+    socket = connectionInternals.getSocket();
+    if (useSharedReader)
+    {
+      sharedReader = new SharedConnectionReader(this, connection, socket);
+      inputStream = null;
+      asn1StreamReader = null;
+    }
+    else
+    {
+      sharedReader = null;
+      inputStream = new BufferedInputStream(socket.getInputStream(),
+                                            DEFAULT_INPUT_BUFFER_SIZE);
+      asn1StreamReader = new ASN1StreamReader(inputStream,
+           connection.getConnectionOptions().getMaxMessageSize());
+    }
 
-    acceptorMap = new ConcurrentHashMap<>(StaticUtils.computeMapCapacity(10));
+    acceptorMap = new ResponseAcceptorMap();
+    pendingCallbacks =
+         new ConcurrentHashMap<>(StaticUtils.computeMapCapacity(10));
     closeRequested = false;
     sslSocketFactory = null;
     startTLSException = null;
@@ -204,6 +231,29 @@ final class LDAPConnectionReader
 
 
 
+  /**
+   * Begins reading responses from the server, either by starting this thread
+   * or by handing the connection to a shared reader thread.
+   *
+   * @throws  IOException  If a problem occurs while preparing the shared
+   *                       reader thread.
+   */
+  void startReading()
+       throws IOException
+  {
+    final SharedConnectionReader r = sharedReader;
+    if (r == null)
+    {
+      start();
+    }
+    else
+    {
+      r.start();
+    }
+  }
+
+
+
   /**
    * Operates in a loop, reading data from the server and decoding the
    * responses, and associating them with their corresponding requests.
@@ -223,7 +273,8 @@ final class LDAPConnectionReader
         try
         {
           response = LDAPMessage.readLDAPResponseFrom(asn1StreamReader, true,
-               connection.getCachedSchema());
+               connection.getCachedSchema(),
+               connection.getConnectionOptions().useLazySearchEntryDecoding());
         }
         catch (final LDAPException le)
         {
@@ -406,124 +457,7 @@ final class LDAPConnectionReader
           }
         }
 
-        Debug.debugLDAPResult(response, connection);
-        connection.setLastCommunicationTime();
-
-        final ResponseAcceptor responseAcceptor;
-        if ((response instanceof SearchResultEntry) ||
-            (response instanceof SearchResultReference))
-        {
-          responseAcceptor = acceptorMap.get(response.getMessageID());
-        }
-        else if (response instanceof IntermediateResponse)
-        {
-          final IntermediateResponse ir = (IntermediateResponse) response;
-          responseAcceptor = acceptorMap.get(response.getMessageID());
-           IntermediateResponseListener l = null;
-          if (responseAcceptor instanceof LDAPRequest)
-          {
-            final LDAPRequest r = (LDAPRequest) responseAcceptor;
-            l = r.getIntermediateResponseListener();
-
-          }
-          else if (responseAcceptor instanceof IntermediateResponseListener)
-          {
-            l = (IntermediateResponseListener) responseAcceptor;
-          }
-
-          if (l == null)
-          {
-            Debug.debug(Level.WARNING, DebugType.LDAP,
-                 WARN_INTERMEDIATE_RESPONSE_WITH_NO_LISTENER.get(
-                      String.valueOf(ir)));
-          }
-          else
-          {
-            try
-            {
-              l.intermediateResponseReturned(ir);
-            }
-            catch (final Exception e)
-            {
-              Debug.debugException(e);
-            }
-          }
-          continue;
-        }
-        else
-        {
-          responseAcceptor = acceptorMap.remove(response.getMessageID());
-        }
-
-
-        if (responseAcceptor == null)
-        {
-          if ((response instanceof ExtendedResult) &&
-              (response.getMessageID() == 0))
-          {
-            // This is an intermediate response message, so handle it
-            // appropriately.
-            ExtendedResult extendedResult = (ExtendedResult) response;
-
-            final String oid = extendedResult.getOID();
-            if (NoticeOfDisconnectionExtendedResult.
-                     NOTICE_OF_DISCONNECTION_RESULT_OID.equals(oid))
-            {
-              extendedResult = new NoticeOfDisconnectionExtendedResult(
-                                        extendedResult);
-              connection.setDisconnectInfo(
-                   DisconnectType.SERVER_CLOSED_WITH_NOTICE,
-                   extendedResult.getDiagnosticMessage(), null);
-            }
-            else if (InteractiveTransactionAbortedExtendedResult.
-                          INTERACTIVE_TRANSACTION_ABORTED_RESULT_OID.equals(
-                               oid))
-            {
-              extendedResult = new InteractiveTransactionAbortedExtendedResult(
-                                        extendedResult);
-            }
-
-            final UnsolicitedNotificationHandler handler =
-                 connection.getConnectionOptions().
-                      getUnsolicitedNotificationHandler();
-            if (handler == null)
-            {
-              if (Debug.debugEnabled(DebugType.LDAP))
-              {
-                Debug.debug(Level.WARNING, DebugType.LDAP,
-                     WARN_READER_UNHANDLED_UNSOLICITED_NOTIFICATION.get(
-                          response));
-              }
-            }
-            else
-            {
-              handler.handleUnsolicitedNotification(connection,
-                                                    extendedResult);
-            }
-            continue;
-          }
-
-          if (Debug.debugEnabled(DebugType.LDAP))
-          {
-            Debug.debug(Level.WARNING, DebugType.LDAP,
-                  WARN_READER_NO_ACCEPTOR.get(response));
-          }
-          continue;
-        }
-
-        try
-        {
-          responseAcceptor.responseReceived(response);
-        }
-        catch (final LDAPException le)
-        {
-          Debug.debugException(le);
-          Debug.debug(Level.WARNING, DebugType.LDAP,
-                ERR_READER_ACCEPTOR_ERROR.get(String.valueOf(response),
-                     connection.getHostPort(),
-                     StaticUtils.getExceptionMessage(le)),
-               le);
-        }
+        processResponse(response, true);
       }
       catch (final Exception e)
       {
@@ -605,6 +539,454 @@ final class LDAPConnectionReader
 
 
 
+  /**
+   * Provides the given response to the response acceptor registered for its
+   * message ID, or to the appropriate listener or handler if it is an
+   * intermediate response or unsolicited notification.
+   *
+   * @param  response  The response that has been read from the server.  It
+   *                   must not be {@code null}.
+   * @param  mayBlock  Indicates whether this method may block while handing
+   *                   the response to an acceptor that is not ready for it
+   *                   (for example, a search request whose response queue is
+   *                   full), and whether application-provided listeners and
+   *                   handlers may be invoked in the current thread.  This
+   *                   should only be {@code false} when the response was read
+   *                   by a shared reader thread that must not be held up by
+   *                   any single connection, in which case any such listeners
+   *                   and handlers will be invoked by the shared connection
+   *                   reader's callback dispatcher.
+   *
+   * @return  {@code null} if the response has been handled, or the acceptor
+   *          that could not accept the response without blocking.  A
+   *          non-{@code null} value will only be returned if
+   *          {@code mayBlock} is {@code false}, and in that case the caller
+   *          is responsible for delivering the response to that acceptor.
+   */
+  FlowControlledResponseAcceptor processResponse(
+                                     final LDAPResponse response,
+                                     final boolean mayBlock)
+  {
+    Debug.debugLDAPResult(response, connection);
+    connection.setLastCommunicationTime();
+
+    final ResponseAcceptor responseAcceptor;
+    if ((response instanceof SearchResultEntry) ||
+        (response instanceof SearchResultReference))
+    {
+      responseAcceptor = acceptorMap.get(response.getMessageID());
+    }
+    else if (response instanceof IntermediateResponse)
+    {
+      final IntermediateResponse ir = (IntermediateResponse) response;
+      responseAcceptor = acceptorMap.get(response.getMessageID());
+      IntermediateResponseListener l = null;
+      if (responseAcceptor instanceof LDAPRequest)
+      {
+        final LDAPRequest r = (LDAPRequest) responseAcceptor;
+        l = r.getIntermediateResponseListener();
+
+      }
+      else if (responseAcceptor instanceof IntermediateResponseListener)
+      {
+        l = (IntermediateResponseListener) responseAcceptor;
+      }
+
+      if (l == null)
+      {
+        Debug.debug(Level.WARNING, DebugType.LDAP,
+             WARN_INTERMEDIATE_RESPONSE_WITH_NO_LISTENER.get(
+                  String.valueOf(ir)));
+      }
+      else
+      {
+        final IntermediateResponseListener listener = l;
+        final Runnable callback = new Runnable()
+        {
+          @Override()
+          public void run()
+          {
+            try
+            {
+              listener.intermediateResponseReturned(ir);
+            }
+            catch (final Exception e)
+            {
+              Debug.debugException(e);
+            }
+          }
+        };
+
+        if (mayBlock || (sharedReader == null) ||
+            (responseAcceptor instanceof CommonAsyncHelper))
+        {
+          invokeCallback(callback, mayBlock);
+        }
+        else
+        {
+          // The remaining responses for a synchronous operation are delivered
+          // directly, so they need to be kept from overtaking this callback.
+          dispatchInOrder(ir.getMessageID(), callback);
+        }
+      }
+      return null;
+    }
+    else
+    {
+      responseAcceptor = acceptorMap.remove(response.getMessageID());
+    }
+
+
+    if (responseAcceptor == null)
+    {
+      if ((response instanceof ExtendedResult) &&
+          (response.getMessageID() == 0))
+      {
+        // This is an intermediate response message, so handle it
+        // appropriately.
+        ExtendedResult extendedResult = (ExtendedResult) response;
+
+        final String oid = extendedResult.getOID();
+        if (NoticeOfDisconnectionExtendedResult.
+                 NOTICE_OF_DISCONNECTION_RESULT_OID.equals(oid))
+        {
+          extendedResult = new NoticeOfDisconnectionExtendedResult(
+                                    extendedResult);
+          connection.setDisconnectInfo(
+               DisconnectType.SERVER_CLOSED_WITH_NOTICE,
+               extendedResult.getDiagnosticMessage(), null);
+        }
+        else if (InteractiveTransactionAbortedExtendedResult.
+                      INTERACTIVE_TRANSACTION_ABORTED_RESULT_OID.equals(oid))
+        {
+          extendedResult = new InteractiveTransactionAbortedExtendedResult(
+                                    extendedResult);
+        }
+
+        final UnsolicitedNotificationHandler handler =
+             connection.getConnectionOptions().
+                  getUnsolicitedNotificationHandler();
+        if (handler == null)
+        {
+          if (Debug.debugEnabled(DebugType.LDAP))
+          {
+            Debug.debug(Level.WARNING, DebugType.LDAP,
+                 WARN_READER_UNHANDLED_UNSOLICITED_NOTIFICATION.get(
+                      response));
+          }
+        }
+        else
+        {
+          final ExtendedResult notification = extendedResult;
+          invokeCallback(new Runnable()
+          {
+            @Override()
+            public void run()
+            {
+              handler.handleUnsolicitedNotification(connection, notification);
+            }
+          }, mayBlock);
+        }
+        return null;
+      }
+
+      if (Debug.debugEnabled(DebugType.LDAP))
+      {
+        Debug.debug(Level.WARNING, DebugType.LDAP,
+              WARN_READER_NO_ACCEPTOR.get(response));
+      }
+      return null;
+    }
+
+    if ((! mayBlock) && pendingCallbacks.containsKey(response.getMessageID()))
+    {
+      // A callback for this operation is still waiting to be invoked, so the
+      // response must be queued behind it rather than being allowed to
+      // overtake it.  Delivering the response may block if the requester has
+      // fallen behind, but only the callback thread will wait.
+      dispatchInOrder(response.getMessageID(), new Runnable()
+      {
+        @Override()
+        public void run()
+        {
+          deliverResponse(responseAcceptor, response);
+        }
+      });
+      return null;
+    }
+
+    if ((! mayBlock) &&
+        (responseAcceptor instanceof FlowControlledResponseAcceptor))
+    {
+      final FlowControlledResponseAcceptor flowControlledAcceptor =
+           (FlowControlledResponseAcceptor) responseAcceptor;
+      if (flowControlledAcceptor.offerResponse(response, sharedReader))
+      {
+        return null;
+      }
+      else
+      {
+        return flowControlledAcceptor;
+      }
+    }
+
+    if (responseAcceptor instanceof CommonAsyncHelper)
+    {
+      // Async helpers invoke application-provided listeners.
+      invokeCallback(new Runnable()
+      {
+        @Override()
+        public void run()
+        {
+          deliverResponse(responseAcceptor, response);
+        }
+      }, mayBlock);
+    }
+    else
+    {
+      deliverResponse(responseAcceptor, response);
+    }
+
+    return null;
+  }
+
+
+
+  /**
+   * Provides the given response to the specified acceptor, logging any
+   * problem that it reports.
+   *
+   * @param  responseAcceptor  The acceptor to which the response should be
+   *                           provided.
+   * @param  response          The response to provide.
+   */
+  private void deliverResponse(final ResponseAcceptor responseAcceptor,
+                               final LDAPResponse response)
+  {
+    try
+    {
+      responseAcceptor.responseReceived(response);
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      Debug.debug(Level.WARNING, DebugType.LDAP,
+            ERR_READER_ACCEPTOR_ERROR.get(String.valueOf(response),
+                 connection.getHostPort(),
+                 StaticUtils.getExceptionMessage(le)),
+           le);
+    }
+  }
+
+
+
+  /**
+   * Invokes the provided callback, which may call application-provided code,
+   * either in the current thread or through the shared connection reader's
+   * callback dispatcher.
+   *
+   * @param  callback  The callback to invoke.
+   * @param  mayBlock  Indicates whether the callback may be invoked in the
+   *                   current thread.  If this is {@code false}, then the
+   *                   current thread is a shared reader thread and the
+   *                   callback will be dispatched to another thread.
+   */
+  private void invokeCallback(final Runnable callback, final boolean mayBlock)
+  {
+    final SharedConnectionReader r = sharedReader;
+    if (mayBlock || (r == null))
+    {
+      callback.run();
+    }
+    else
+    {
+      r.dispatchCallback(callback);
+    }
+  }
+
+
+
+  /**
+   * Dispatches the provided callback, which is associated with an operation
+   * whose responses are otherwise delivered directly by the shared reader
+   * thread, through the shared connection reader's callback dispatcher.  Until
+   * it has completed, any other responses for that operation will also be
+   * dispatched so that they cannot overtake it.  This must only be called by
+   * the shared reader thread.
+   *
+   * @param  messageID  The message ID for the associated operation.
+   * @param  callback   The callback to invoke.
+   */
+  private void dispatchInOrder(final int messageID, final Runnable callback)
+  {
+    final Runnable orderedCallback = new Runnable()
+    {
+      @Override()
+      public void run()
+      {
+        try
+        {
+          callback.run();
+        }
+        finally
+        {
+          // Callbacks are invoked in the order in which they were dispatched,
+          // so once the most recent one for this operation has completed, all
+          // of the others will have completed as well.
+          pendingCallbacks.remove(messageID, this);
+        }
+      }
+    };
+
+    pendingCallbacks.put(messageID, orderedCallback);
+    sharedReader.dispatchCallback(orderedCallback);
+  }
+
+
+
+  /**
+   * Indicates that the shared reader thread has encountered the end of the
+   * input stream for this connection.
+   */
+  void sharedReaderEndOfInput()
+  {
+    connection.setDisconnectInfo(DisconnectType.SERVER_CLOSED_WITHOUT_NOTICE,
+         null, null);
+
+    @SuppressWarnings("deprecation")
+    final boolean autoReconnect =
+         connection.getConnectionOptions().autoReconnect();
+    sharedReaderTerminated(
+         (autoReconnect && (! connection.unbindRequestSent())), null);
+  }
+
+
+
+  /**
+   * Indicates that the shared reader thread has encountered an error while
+   * reading or decoding data for this connection, and that the connection
+   * should be terminated.
+   *
+   * @param  e  The exception that was encountered.
+   */
+  void sharedReaderFailed(final Exception e)
+  {
+    if (closeRequested || connection.closeRequested() ||
+        (connection.getDisconnectType() != null))
+    {
+      closeRequested = true;
+    }
+
+    final String message;
+    Level debugLevel = Level.SEVERE;
+    if (e instanceof IOException)
+    {
+      connection.setDisconnectInfo(DisconnectType.IO_ERROR, null, e);
+      message = ERR_READER_CLOSING_DUE_TO_IO_EXCEPTION.get(
+           connection.getHostPort(), StaticUtils.getExceptionMessage(e));
+      debugLevel = Level.WARNING;
+    }
+    else if (e instanceof ASN1Exception)
+    {
+      connection.setDisconnectInfo(DisconnectType.DECODE_ERROR, null, e);
+      message = ERR_READER_CLOSING_DUE_TO_ASN1_EXCEPTION.get(
+           connection.getHostPort(), StaticUtils.getExceptionMessage(e));
+    }
+    else if ((e instanceof LDAPException) && (e.getCause() == null))
+    {
+      connection.setDisconnectInfo(DisconnectType.DECODE_ERROR,
+           e.getMessage(), null);
+      message = e.getMessage();
+      debugLevel = Level.WARNING;
+    }
+    else
+    {
+      connection.setDisconnectInfo(DisconnectType.LOCAL_ERROR, null, e);
+      message = ERR_READER_CLOSING_DUE_TO_EXCEPTION.get(
+           connection.getHostPort(), StaticUtils.getExceptionMessage(e));
+    }
+
+    if (closeRequested)
+    {
+      Debug.debug(Level.FINEST, DebugType.LDAP, message, e);
+    }
+    else
+    {
+      Debug.debug(debugLevel, DebugType.LDAP, message, e);
+    }
+
+    @SuppressWarnings("deprecation")
+    final boolean autoReconnect =
+         connection.getConnectionOptions().autoReconnect();
+    sharedReaderTerminated(autoReconnect, message);
+  }
+
+
+
+  /**
+   * Stops reading from the connection after the shared reader thread has
+   * encountered the end of input or an error, and either closes the connection
+   * or flags it for reconnection, in the same way as if this thread had
+   * encountered the condition itself.
+   *
+   * @param  autoReconnect  Indicates whether the connection should be flagged
+   *                        for reconnection rather than closed, if it has not
+   *                        already been closed.
+   * @param  message        A message with additional information about the
+   *                        reason for the closure, if available.
+   */
+  private void sharedReaderTerminated(final boolean autoReconnect,
+                                      final String message)
+  {
+    final SharedConnectionReader r = sharedReader;
+    if (r != null)
+    {
+      r.close();
+    }
+
+    if ((! closeRequested) && autoReconnect &&
+        (! connection.closeRequested()))
+    {
+      closeRequested = true;
+      try
+      {
+        connection.setNeedsReconnect();
+      }
+      catch (final Exception e)
+      {
+        Debug.debugException(e);
+      }
+    }
+    else
+    {
+      // Closing the connection will notify the acceptors for any outstanding
+      // operations and any disconnect handler, so do that through the callback
+      // dispatcher rather than on the shared reader thread.  That will also
+      // ensure that any responses that have already been dispatched are
+      // delivered first.
+      closeRequested = true;
+      final Runnable closer = new Runnable()
+      {
+        @Override()
+        public void run()
+        {
+          closeInternal(true, message);
+        }
+      };
+
+      if (r == null)
+      {
+        closer.run();
+      }
+      else
+      {
+        r.dispatchCallback(closer);
+      }
+    }
+  }
+
+
+
   /**
    * Reads a response from the server, blocking if necessary until the response
    * has been received.  This should only be used for connections operating in
@@ -628,7 +1010,8 @@ final class LDAPConnectionReader
       try
       {
         final LDAPResponse response = LDAPMessage.readLDAPResponseFrom(
-             asn1StreamReader, false, connection.getCachedSchema());
+             asn1StreamReader, false, connection.getCachedSchema(),
+             connection.getConnectionOptions().useLazySearchEntryDecoding());
         if (response == null)
         {
           return new ConnectionClosedResponse(ResultCode.SERVER_DOWN, null);
@@ -814,10 +1197,21 @@ final class LDAPConnectionReader
   {
     final LDAPConnectionOptions connectionOptions =
          connection.getConnectionOptions();
-    if (connection.synchronousMode())
+    final SharedConnectionReader r = sharedReader;
+    if (connection.synchronousMode() || (r != null))
     {
+      final int originalSOTimeout = InternalSDKHelper.getSoTimeout(connection);
       try
       {
+        if (r != null)
+        {
+          // The TLS handshake requires a blocking socket, so take the
+          // connection away from the shared reader thread.  Once the
+          // negotiation is complete, the secured connection will be read by
+          // this thread instead.
+          r.detach();
+        }
+
         final int connectTimeout = connectionOptions.getConnectTimeoutMillis();
         if (connectTimeout > 0)
         {
@@ -847,6 +1241,14 @@ final class LDAPConnectionReader
         connection.getConnectionInternals(true).setSocket(sslSocket);
         final OutputStream outputStream = startTLSOutputStream;
         startTLSOutputStream = null;
+
+        if (r != null)
+        {
+          sharedReader = null;
+          InternalSDKHelper.setSoTimeout(connection, originalSOTimeout);
+          start();
+        }
+
         return outputStream;
       }
       catch (final Exception e)
@@ -924,7 +1326,15 @@ final class LDAPConnectionReader
    */
   void applySASLQoP(final SaslClient saslClient)
   {
-    InternalASN1Helper.setSASLClient(asn1StreamReader, saslClient);
+    final SharedConnectionReader r = sharedReader;
+    if (r == null)
+    {
+      InternalASN1Helper.setSASLClient(asn1StreamReader, saslClient);
+    }
+    else
+    {
+      r.setSASLClient(saslClient);
+    }
   }
 
 
@@ -982,6 +1392,12 @@ final class LDAPConnectionReader
    private void closeInternal(final boolean notifyConnection,
                               final String message)
    {
+     final SharedConnectionReader r = sharedReader;
+     if (r != null)
+     {
+       r.close();
+     }
+
      final InputStream is = inputStream;
      inputStream = null;
 
@@ -1002,11 +1418,13 @@ final class LDAPConnectionReader
        connection.setClosed();
      }
 
-     final Iterator<Integer> iterator = acceptorMap.keySet().iterator();
-     while (iterator.hasNext())
+     for (final int messageID : acceptorMap.getMessageIDs())
      {
-       final int messageID = iterator.next();
        final ResponseAcceptor acceptor = acceptorMap.get(messageID);
+       if (acceptor == null)
+       {
+         continue;
+       }
 
        try
        {
@@ -1036,7 +1454,7 @@ final class LDAPConnectionReader
          Debug.debugException(e);
        }
 
-       iterator.remove();
+       acceptorMap.remove(messageID);
      }
    }
 
@@ -1056,6 +1474,22 @@ final class LDAPConnectionReader
 
 
 
+  /**
+   * Retrieves the shared connection reader used to read data from the server,
+   * if the connection is serviced by a shared reader thread.  This must not be
+   * used for any purpose other than test validation.
+   *
+   * @return  The shared connection reader used to read data from the server,
+   *          or {@code null} if the connection is not serviced by a shared
+   *          reader thread.
+   */
+  SharedConnectionReader getSharedReader()
+  {
+    return sharedReader;
+  }
+
+
+
   /**
    * Updates the name of the reader thread (if active) based on the information
    * known about the provided connection.
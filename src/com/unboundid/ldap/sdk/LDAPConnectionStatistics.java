@@ -24,6 +24,7 @@ package com.unboundid.ldap.sdk;
 
 import java.io.Serializable;
 import java.text.DecimalFormat;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.unboundid.util.Mutable;
@@ -49,6 +50,15 @@ import com.unboundid.util.ThreadSafetyLevel;
  *       connection.</LI>
  *   <LI>The average response time (in milliseconds or nanoseconds) for each
  *       type of operation processed on the connection.</LI>
+ *   <LI>The number of times data has been flushed to the server, and the
+ *       number of messages written per flush.  Requests sent concurrently by
+ *       multiple threads may be written to the server together in a single
+ *       flush.</LI>
+ *   <LI>A histogram of the response times for each type of operation
+ *       processed on the connection, which may be used to determine the
+ *       median and other percentile response times.  If the connection is part
+ *       of a connection pool, then its response times will also be included in
+ *       the histograms maintained by the pool statistics.</LI>
  * </UL>
  */
 @Mutable()
@@ -104,6 +114,18 @@ public final class LDAPConnectionStatistics
   // The number of extended responses received on the associated connection.
   private final AtomicLong numExtendedResponses;
 
+  // The number of times a batch of messages has been flushed to the server
+  // over the associated connection.
+  private final AtomicLong numFlushes;
+
+  // The total number of messages written in all flushes over the associated
+  // connection.
+  private final AtomicLong numFlushedMessages;
+
+  // The largest number of messages written in a single flush over the
+  // associated connection.
+  private final AtomicLong maxMessagesPerFlush;
+
   // The number of modify requests sent over the associated connection.
   private final AtomicLong numModifyRequests;
 
@@ -158,6 +180,17 @@ public final class LDAPConnectionStatistics
   // The total length of time spent waiting for search done responses.
   private final AtomicLong totalSearchResponseTime;
 
+  // The statistics for the connection pool with which the associated
+  // connection is associated, if any.
+  private transient volatile LDAPConnectionPoolStatistics poolStatistics;
+
+  // An observer that should be notified of each response time recorded, if
+  // any.
+  private transient volatile ResponseTimeObserver responseTimeObserver;
+
+  // The response time recorders for each type of operation.
+  private final Map<OperationType,ResponseTimeRecorder> responseTimeRecorders;
+
 
 
   /**
@@ -179,6 +212,9 @@ public final class LDAPConnectionStatistics
     numDisconnects              = new AtomicLong(0L);
     numExtendedRequests         = new AtomicLong(0L);
     numExtendedResponses        = new AtomicLong(0L);
+    numFlushes                  = new AtomicLong(0L);
+    numFlushedMessages          = new AtomicLong(0L);
+    maxMessagesPerFlush         = new AtomicLong(0L);
     numModifyRequests           = new AtomicLong(0L);
     numModifyResponses          = new AtomicLong(0L);
     numModifyDNRequests         = new AtomicLong(0L);
@@ -196,6 +232,10 @@ public final class LDAPConnectionStatistics
     totalModifyResponseTime     = new AtomicLong(0L);
     totalModifyDNResponseTime   = new AtomicLong(0L);
     totalSearchResponseTime     = new AtomicLong(0L);
+
+    poolStatistics = null;
+    responseTimeObserver = null;
+    responseTimeRecorders = ResponseTimeRecorder.createRecorderMap();
   }
 
 
@@ -218,6 +258,9 @@ public final class LDAPConnectionStatistics
     numDisconnects.set(0L);
     numExtendedRequests.set(0L);
     numExtendedResponses.set(0L);
+    numFlushes.set(0L);
+    numFlushedMessages.set(0L);
+    maxMessagesPerFlush.set(0L);
     numModifyRequests.set(0L);
     numModifyResponses.set(0L);
     numModifyDNRequests.set(0L);
@@ -235,6 +278,44 @@ public final class LDAPConnectionStatistics
     totalModifyResponseTime.set(0L);
     totalModifyDNResponseTime.set(0L);
     totalSearchResponseTime.set(0L);
+
+    for (final ResponseTimeRecorder r : responseTimeRecorders.values())
+    {
+      r.reset();
+    }
+  }
+
+
+
+  /**
+   * Specifies the statistics for the connection pool with which the
+   * associated connection is associated, so that response times recorded for
+   * the connection will also be recorded for the pool.
+   *
+   * @param  poolStatistics  The statistics for the connection pool with which
+   *                         the associated connection is associated.  It may
+   *                         be {@code null} if the connection is not part of a
+   *                         connection pool.
+   */
+  void setPoolStatistics(final LDAPConnectionPoolStatistics poolStatistics)
+  {
+    this.poolStatistics = poolStatistics;
+  }
+
+
+
+  /**
+   * Specifies an observer that should be notified of each response time
+   * recorded for the associated connection.
+   *
+   * @param  responseTimeObserver  The observer that should be notified of each
+   *                               response time recorded.  It may be
+   *                               {@code null} if no observer is needed.
+   */
+  void setResponseTimeObserver(
+            final ResponseTimeObserver responseTimeObserver)
+  {
+    this.responseTimeObserver = responseTimeObserver;
   }
 
 
@@ -360,6 +441,7 @@ public final class LDAPConnectionStatistics
     if (responseTime > 0)
     {
       totalAddResponseTime.addAndGet(responseTime);
+      recordResponseTime(OperationType.ADD, responseTime);
     }
   }
 
@@ -490,6 +572,7 @@ public final class LDAPConnectionStatistics
     if (responseTime > 0)
     {
       totalBindResponseTime.addAndGet(responseTime);
+      recordResponseTime(OperationType.BIND, responseTime);
     }
   }
 
@@ -623,6 +706,7 @@ public final class LDAPConnectionStatistics
     if (responseTime > 0)
     {
       totalCompareResponseTime.addAndGet(responseTime);
+      recordResponseTime(OperationType.COMPARE, responseTime);
     }
   }
 
@@ -756,6 +840,7 @@ public final class LDAPConnectionStatistics
     if (responseTime > 0)
     {
       totalDeleteResponseTime.addAndGet(responseTime);
+      recordResponseTime(OperationType.DELETE, responseTime);
     }
   }
 
@@ -893,6 +978,7 @@ public final class LDAPConnectionStatistics
     if (responseTime > 0)
     {
       totalExtendedResponseTime.addAndGet(responseTime);
+      recordResponseTime(OperationType.EXTENDED, responseTime);
     }
   }
 
@@ -1026,6 +1112,7 @@ public final class LDAPConnectionStatistics
     if (responseTime > 0)
     {
       totalModifyResponseTime.addAndGet(responseTime);
+      recordResponseTime(OperationType.MODIFY, responseTime);
     }
   }
 
@@ -1164,6 +1251,7 @@ public final class LDAPConnectionStatistics
     if (responseTime > 0)
     {
       totalModifyDNResponseTime.addAndGet(responseTime);
+      recordResponseTime(OperationType.MODIFY_DN, responseTime);
     }
   }
 
@@ -1337,6 +1425,7 @@ public final class LDAPConnectionStatistics
     if (responseTime > 0)
     {
       totalSearchResponseTime.addAndGet(responseTime);
+      recordResponseTime(OperationType.SEARCH, responseTime);
     }
   }
 
@@ -1445,6 +1534,173 @@ public final class LDAPConnectionStatistics
 
 
 
+  /**
+   * Retrieves the number of times data has been flushed to the server over the
+   * associated connection.  Requests sent concurrently by multiple threads may
+   * be written together in a single flush, so this may be less than the total
+   * number of requests sent.
+   *
+   * @return  The number of times data has been flushed to the server over the
+   *          associated connection.
+   */
+  public long getNumFlushes()
+  {
+    return numFlushes.get();
+  }
+
+
+
+  /**
+   * Retrieves the total number of messages that have been written to the
+   * server in all flushes over the associated connection.
+   *
+   * @return  The total number of messages that have been written to the server
+   *          in all flushes over the associated connection.
+   */
+  public long getNumFlushedMessages()
+  {
+    return numFlushedMessages.get();
+  }
+
+
+
+  /**
+   * Retrieves the largest number of messages that have been written to the
+   * server in a single flush over the associated connection.
+   *
+   * @return  The largest number of messages that have been written to the
+   *          server in a single flush over the associated connection.
+   */
+  public long getMaxMessagesPerFlush()
+  {
+    return maxMessagesPerFlush.get();
+  }
+
+
+
+  /**
+   * Retrieves the average number of messages written to the server per flush
+   * over the associated connection.
+   *
+   * @return  The average number of messages written to the server per flush
+   *          over the associated connection, or {@code Double.NaN} if no data
+   *          has yet been flushed.
+   */
+  public double getAverageMessagesPerFlush()
+  {
+    final long flushes  = numFlushes.get();
+    final long messages = numFlushedMessages.get();
+
+    if (flushes > 0)
+    {
+      return (1.0d * messages / flushes);
+    }
+    else
+    {
+      return Double.NaN;
+    }
+  }
+
+
+
+  /**
+   * Updates the flush statistics to reflect that a batch of messages has been
+   * flushed to the server.
+   *
+   * @param  numMessages  The number of messages written in the flush.
+   */
+  void incrementNumFlushes(final int numMessages)
+  {
+    numFlushes.incrementAndGet();
+    numFlushedMessages.addAndGet(numMessages);
+
+    while (true)
+    {
+      final long currentMax = maxMessagesPerFlush.get();
+      if ((numMessages <= currentMax) ||
+          maxMessagesPerFlush.compareAndSet(currentMax, numMessages))
+      {
+        return;
+      }
+    }
+  }
+
+
+
+  /**
+   * Records the provided response time in the histogram for the specified
+   * operation type, and in the corresponding histogram for the connection pool
+   * statistics, if appropriate.  Any response time observer will also be
+   * notified.
+   *
+   * @param  operationType  The type of operation that was processed.
+   * @param  responseTime   The length of time in nanoseconds between sending
+   *                        the request and receiving the response.
+   */
+  private void recordResponseTime(final OperationType operationType,
+                                  final long responseTime)
+  {
+    responseTimeRecorders.get(operationType).record(responseTime);
+
+    final LDAPConnectionPoolStatistics ps = poolStatistics;
+    if (ps != null)
+    {
+      ps.recordResponseTime(operationType, responseTime);
+    }
+
+    final ResponseTimeObserver o = responseTimeObserver;
+    if (o != null)
+    {
+      o.responseTimeRecorded(operationType, responseTime);
+    }
+  }
+
+
+
+  /**
+   * Retrieves a histogram of the response times for operations of the
+   * specified type processed on the associated connection since the
+   * histograms were last reset.
+   *
+   * @param  operationType  The type of operation for which to retrieve the
+   *                        response time histogram.
+   *
+   * @return  A histogram of the response times for operations of the specified
+   *          type, or {@code null} if the specified operation type does not
+   *          have a response (i.e., abandon and unbind operations).
+   */
+  public ResponseTimeHistogram getResponseTimeHistogram(
+                                    final OperationType operationType)
+  {
+    final ResponseTimeRecorder r = responseTimeRecorders.get(operationType);
+    if (r == null)
+    {
+      return null;
+    }
+
+    return r.getSnapshot();
+  }
+
+
+
+  /**
+   * Retrieves a map of the response time histograms for each type of operation
+   * that has a response, and resets those histograms so that subsequent calls
+   * will only include operations completed after this call.  This may be used
+   * to obtain response time percentiles for consecutive intervals without
+   * affecting any of the other statistics maintained by this object.
+   *
+   * @return  A map of the response time histograms for each type of operation
+   *          that has a response.
+   */
+  public Map<OperationType,ResponseTimeHistogram>
+              getAndResetResponseTimeHistograms()
+  {
+    return ResponseTimeRecorder.getSnapshots(responseTimeRecorders, true);
+  }
+
+
+
   /**
    * Retrieves a string representation of this LDAP connection statistics
    * object.
@@ -1500,6 +1756,9 @@ public final class LDAPConnectionStatistics
     final long searchDone        = numSearchDoneResponses.get();
     final long searchTimes       = totalSearchResponseTime.get();
     final long unbindRequests    = numUnbindRequests.get();
+    final long flushes           = numFlushes.get();
+    final long flushedMessages   = numFlushedMessages.get();
+    final long maxPerFlush       = maxMessagesPerFlush.get();
 
     final DecimalFormat f = new DecimalFormat("0.000");
 
@@ -1614,6 +1873,18 @@ public final class LDAPConnectionStatistics
     buffer.append(", numUnbindRequests=");
     buffer.append(unbindRequests);
 
+    buffer.append(", numFlushes=");
+    buffer.append(flushes);
+    buffer.append(", numFlushedMessages=");
+    buffer.append(flushedMessages);
+    if (flushes > 0L)
+    {
+      buffer.append(", averageMessagesPerFlush=");
+      buffer.append(f.format(1.0d * flushedMessages / flushes));
+    }
+    buffer.append(", maxMessagesPerFlush=");
+    buffer.append(maxPerFlush);
+
     buffer.append(')');
   }
 }
@@ -0,0 +1,1590 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.unboundid.ldap.sdk.extensions.StartTLSExtendedRequest;
+import com.unboundid.ldap.sdk.extensions.StartTransactionExtendedRequest;
+import com.unboundid.ldap.sdk.schema.Schema;
+import com.unboundid.ldap.sdk.unboundidds.extensions.
+            StartAdministrativeSessionExtendedRequest;
+import com.unboundid.ldap.sdk.unboundidds.extensions.
+            StartBatchedTransactionExtendedRequest;
+import com.unboundid.ldap.sdk.unboundidds.extensions.
+            StartInteractiveTransactionExtendedRequest;
+import com.unboundid.util.Debug;
+import com.unboundid.util.ObjectPair;
+import com.unboundid.util.StaticUtils;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+import com.unboundid.util.Validator;
+
+import static com.unboundid.ldap.sdk.LDAPMessages.*;
+
+
+
+/**
+ * This class provides an implementation of an LDAP connection pool in which
+ * each connection may be used to process multiple operations at the same time.
+ * LDAP allows a client to have any number of outstanding requests on a single
+ * connection, each identified by its own message ID, so there is no need to
+ * dedicate a connection to each concurrent operation as the
+ * {@link LDAPConnectionPool} class does.  This can dramatically reduce the
+ * number of connections needed to achieve a given level of throughput, which
+ * reduces the resources that the client and the directory server need to
+ * devote to them.
+ * <BR><BR>
+ * This pool maintains a fixed number of connections and a cap on the number of
+ * operations that may be in progress on each connection at any time.  Each
+ * time a connection is checked out of the pool, the pool selects the
+ * connection with the fewest outstanding operations that is below that cap,
+ * and the connection is counted as having one more outstanding operation until
+ * it is released.  The same connection may therefore be checked out by many
+ * threads at once.  If every connection is at its cap, then the checkout will
+ * wait for up to the configured maximum wait time for an operation to
+ * complete.
+ * <BR><BR>
+ * The operation methods provided by the {@link AbstractConnectionPool} class
+ * (for example, {@code search}, {@code add}, and {@code modify}) take care of
+ * checking out and releasing connections, so concurrent calls from multiple
+ * threads will automatically share the pool's connections.  An application
+ * that checks out a connection to process asynchronous operations should only
+ * release the connection once for each checkout, after the result of the
+ * associated operation has been received.
+ * <BR><BR>
+ * Because connections are shared, operations that alter the state of a
+ * connection cannot be processed through this pool, since they would affect
+ * all of the other operations that are in progress on the same connection.
+ * The {@code bind} methods will always fail with a result code of
+ * {@link ResultCode#NOT_SUPPORTED}, as will the
+ * {@code processExtendedOperation} methods for StartTLS requests and for
+ * requests that start a transaction or an administrative session.  All
+ * connections will be authenticated with the bind request provided when the
+ * pool is created, and that identity will be used for every operation
+ * processed through the pool.  Applications that check out a connection must
+ * not use it to process any such operations themselves.  Connections in this
+ * pool must not be configured to operate in synchronous mode.
+ * <BR><BR>
+ * If a connection is released as defunct, then it will be replaced in the
+ * pool by a newly-established connection, but it will not be closed until all
+ * other operations in progress on it have been released, so that a problem
+ * encountered by one operation will not necessarily cause the others to fail.
+ * <BR><BR>
+ * <H2>Example</H2>
+ * The following example demonstrates the process for creating a pool with four
+ * connections, each of which may be used to process up to 32 operations at
+ * once, and using it to process searches from multiple threads:
+ * <PRE>
+ * LDAPMultiplexingConnectionPool pool = new LDAPMultiplexingConnectionPool(
+ *      serverSet, bindRequest, 4, 32);
+ *
+ * // Each of these calls may be made concurrently by up to 128 threads, and
+ * // will only use the four connections established by the pool.
+ * SearchResultEntry entry =
+ *      pool.getEntry("uid=jdoe,ou=People,dc=example,dc=com");
+ *
+ * pool.close();
+ * </PRE>
+ */
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+public final class LDAPMultiplexingConnectionPool
+       extends AbstractConnectionPool
+{
+  /**
+   * The default health check interval for this connection pool, which is set to
+   * 60000 milliseconds (60 seconds).
+   */
+  private static final long DEFAULT_HEALTH_CHECK_INTERVAL = 60_000L;
+
+
+
+  /**
+   * The default maximum length of time in milliseconds to wait for a
+   * connection to have capacity for another operation, which is set to 60000
+   * milliseconds (60 seconds).
+   */
+  private static final long DEFAULT_MAX_WAIT_TIME_MILLIS = 60_000L;
+
+
+
+  /**
+   * The OIDs of the extended requests that will be rejected because they would
+   * alter the state of the connection on which they are processed.
+   */
+  private static final Set<String> STATE_CHANGING_EXTENDED_REQUEST_OIDS =
+       StaticUtils.setOf(
+            StartTLSExtendedRequest.STARTTLS_REQUEST_OID,
+            StartTransactionExtendedRequest.START_TRANSACTION_REQUEST_OID,
+            StartAdministrativeSessionExtendedRequest.
+                 START_ADMIN_SESSION_REQUEST_OID,
+            StartBatchedTransactionExtendedRequest.
+                 START_BATCHED_TRANSACTION_REQUEST_OID,
+            StartInteractiveTransactionExtendedRequest.
+                 START_INTERACTIVE_TRANSACTION_REQUEST_OID);
+
+
+
+  // The types of operations that should be retried if they fail in a manner
+  // that may be the result of a connection that is no longer valid.
+  private final AtomicReference<Set<OperationType>> retryOperationTypes;
+
+  // The number of threads currently waiting for capacity to become available.
+  private final AtomicInteger numWaiters;
+
+  // The index of the slot at which the next search for the least-loaded
+  // connection should start, so that ties are broken in a round-robin manner.
+  private final AtomicInteger nextStartIndex;
+
+  // The current connection in each slot.  A slot will be null if its connection
+  // has been retired and a replacement could not be established.
+  private final AtomicReferenceArray<MultiplexedConnection> slots;
+
+  // Indicates whether this connection pool has been closed.
+  private volatile boolean closed;
+
+  // The bind request to use to perform authentication whenever a new connection
+  // is established.
+  private volatile BindRequest bindRequest;
+
+  // The map of all connections in the pool (including retired connections that
+  // still have outstanding operations) to their state.
+  private final ConcurrentHashMap<LDAPConnection,MultiplexedConnection>
+       connections;
+
+  // The maximum number of operations that may be in progress on each
+  // connection at any time.
+  private final int maxOperationsPerConnection;
+
+  // The health check implementation that should be used for this connection
+  // pool.
+  private volatile LDAPConnectionPoolHealthCheck healthCheck;
+
+  // The thread that will be used to perform periodic background health checks
+  // for this connection pool.
+  private final LDAPConnectionPoolHealthCheckThread healthCheckThread;
+
+  // The statistics for this connection pool.
+  private final LDAPConnectionPoolStatistics poolStatistics;
+
+  // The length of time in milliseconds between periodic health checks against
+  // the connections in this pool.
+  private volatile long healthCheckInterval;
+
+  // The maximum length of time in milliseconds to wait for a connection to
+  // have capacity for another operation.
+  private volatile long maxWaitTime;
+
+  // The object that will be used to wait for capacity to become available.
+  private final Object capacityLock;
+
+  // The schema that should be shared for connections in this pool, along with
+  // its expiration time.
+  private volatile ObjectPair<Long,Schema> pooledSchema;
+
+  // The post-connect processor for this connection pool, if any.
+  private final PostConnectProcessor postConnectProcessor;
+
+  // The server set to use for establishing connections for use by this pool.
+  private volatile ServerSet serverSet;
+
+  // The user-friendly name assigned to this connection pool.
+  private volatile String connectionPoolName;
+
+
+
+  /**
+   * Creates a new LDAP multiplexing connection pool in which all connections
+   * will be clones of the provided connection.
+   *
+   * @param  connection                  The connection to use to provide the
+   *                                     template for the other connections to
+   *                                     be created.  This connection will be
+   *                                     included in the pool.  It must not be
+   *                                     {@code null}, and it must be
+   *                                     established to the target server.
+   * @param  numConnections              The number of connections to maintain
+   *                                     in the pool.  It must be greater than
+   *                                     zero.
+   * @param  maxOperationsPerConnection  The maximum number of operations that
+   *                                     may be in progress on each connection
+   *                                     at any time.  It must be greater than
+   *                                     zero.
+   *
+   * @throws  LDAPException  If the pool cannot be initialized.  If this is
+   *                         thrown, then all connections associated with the
+   *                         pool (including the one provided as an argument)
+   *                         will be closed.
+   */
+  public LDAPMultiplexingConnectionPool(final LDAPConnection connection,
+                                        final int numConnections,
+                                        final int maxOperationsPerConnection)
+         throws LDAPException
+  {
+    this(connection, numConnections, maxOperationsPerConnection,
+         getServerSet(connection), connection.getLastBindRequest(), null);
+  }
+
+
+
+  /**
+   * Creates a new LDAP multiplexing connection pool which will use the
+   * provided server set and bind request for creating new connections.
+   *
+   * @param  serverSet                   The server set to use to create the
+   *                                     connections.  It must not be
+   *                                     {@code null}.
+   * @param  bindRequest                 The bind request to use to authenticate
+   *                                     the connections that are established.
+   *                                     It may be {@code null} if no
+   *                                     authentication should be performed on
+   *                                     the connections.  If the server set is
+   *                                     configured to perform authentication,
+   *                                     this should be the same bind request
+   *                                     used by the server set.
+   * @param  numConnections              The number of connections to maintain
+   *                                     in the pool.  It must be greater than
+   *                                     zero.
+   * @param  maxOperationsPerConnection  The maximum number of operations that
+   *                                     may be in progress on each connection
+   *                                     at any time.  It must be greater than
+   *                                     zero.
+   *
+   * @throws  LDAPException  If the pool cannot be initialized.  If this is
+   *                         thrown, then all connections created for the pool
+   *                         will be closed.
+   */
+  public LDAPMultiplexingConnectionPool(final ServerSet serverSet,
+                                        final BindRequest bindRequest,
+                                        final int numConnections,
+                                        final int maxOperationsPerConnection)
+         throws LDAPException
+  {
+    this(serverSet, bindRequest, numConnections, maxOperationsPerConnection,
+         null);
+  }
+
+
+
+  /**
+   * Creates a new LDAP multiplexing connection pool which will use the
+   * provided server set and bind request for creating new connections.
+   *
+   * @param  serverSet                   The server set to use to create the
+   *                                     connections.  It must not be
+   *                                     {@code null}.
+   * @param  bindRequest                 The bind request to use to authenticate
+   *                                     the connections that are established.
+   *                                     It may be {@code null} if no
+   *                                     authentication should be performed on
+   *                                     the connections.  If the server set is
+   *                                     configured to perform authentication,
+   *                                     this should be the same bind request
+   *                                     used by the server set.
+   * @param  numConnections              The number of connections to maintain
+   *                                     in the pool.  It must be greater than
+   *                                     zero.
+   * @param  maxOperationsPerConnection  The maximum number of operations that
+   *                                     may be in progress on each connection
+   *                                     at any time.  It must be greater than
+   *                                     zero.
+   * @param  postConnectProcessor        A processor that should be used to
+   *                                     perform any post-connect processing
+   *                                     for connections in this pool.  It may
+   *                                     be {@code null} if no special
+   *                                     processing is needed.  If the server
+   *                                     set is configured with a
+   *                                     non-{@code null} post-connect
+   *                                     processor, then this must be
+   *                                     {@code null}.
+   *
+   * @throws  LDAPException  If the pool cannot be initialized.  If this is
+   *                         thrown, then all connections created for the pool
+   *                         will be closed.
+   */
+  public LDAPMultiplexingConnectionPool(final ServerSet serverSet,
+              final BindRequest bindRequest, final int numConnections,
+              final int maxOperationsPerConnection,
+              final PostConnectProcessor postConnectProcessor)
+         throws LDAPException
+  {
+    this(null, numConnections, maxOperationsPerConnection, serverSet,
+         bindRequest, postConnectProcessor);
+  }
+
+
+
+  /**
+   * Creates a new LDAP multiplexing connection pool with the provided
+   * information.
+   *
+   * @param  connection                  An established connection to include
+   *                                     as the first connection in the pool.
+   *                                     It may be {@code null} if all
+   *                                     connections should be created by the
+   *                                     pool.
+   * @param  numConnections              The number of connections to maintain
+   *                                     in the pool.
+   * @param  maxOperationsPerConnection  The maximum number of operations that
+   *                                     may be in progress on each connection
+   *                                     at any time.
+   * @param  serverSet                   The server set to use to create the
+   *                                     connections.
+   * @param  bindRequest                 The bind request to use to authenticate
+   *                                     the connections that are established.
+   * @param  postConnectProcessor        A processor that should be used to
+   *                                     perform any post-connect processing
+   *                                     for connections in this pool.
+   *
+   * @throws  LDAPException  If the pool cannot be initialized.
+   */
+  private LDAPMultiplexingConnectionPool(final LDAPConnection connection,
+               final int numConnections, final int maxOperationsPerConnection,
+               final ServerSet serverSet, final BindRequest bindRequest,
+               final PostConnectProcessor postConnectProcessor)
+          throws LDAPException
+  {
+    Validator.ensureNotNull(serverSet);
+    Validator.ensureTrue((numConnections > 0),
+         "LDAPMultiplexingConnectionPool.numConnections must be greater " +
+              "than zero.");
+    Validator.ensureTrue((maxOperationsPerConnection > 0),
+         "LDAPMultiplexingConnectionPool.maxOperationsPerConnection must be " +
+              "greater than zero.");
+
+    if (serverSet.includesAuthentication())
+    {
+      Validator.ensureTrue((bindRequest != null),
+           "LDAPMultiplexingConnectionPool.bindRequest must not be null if " +
+                "serverSet.includesAuthentication returns true");
+    }
+
+    if (serverSet.includesPostConnectProcessing())
+    {
+      Validator.ensureTrue((postConnectProcessor == null),
+           "LDAPMultiplexingConnectionPool.postConnectProcessor must be " +
+                "null if serverSet.includesPostConnectProcessing returns " +
+                "true.");
+    }
+
+    this.serverSet                  = serverSet;
+    this.bindRequest                = bindRequest;
+    this.postConnectProcessor       = postConnectProcessor;
+    this.maxOperationsPerConnection = maxOperationsPerConnection;
+
+    healthCheck         = new LDAPConnectionPoolHealthCheck();
+    healthCheckInterval = DEFAULT_HEALTH_CHECK_INTERVAL;
+    maxWaitTime         = DEFAULT_MAX_WAIT_TIME_MILLIS;
+    poolStatistics      = new LDAPConnectionPoolStatistics(this);
+    connectionPoolName  = null;
+    retryOperationTypes = new AtomicReference<>(
+         Collections.unmodifiableSet(EnumSet.noneOf(OperationType.class)));
+
+    numWaiters     = new AtomicInteger(0);
+    nextStartIndex = new AtomicInteger(0);
+    capacityLock   = new Object();
+    slots          = new AtomicReferenceArray<>(numConnections);
+    connections    = new ConcurrentHashMap<>(
+         StaticUtils.computeMapCapacity(numConnections));
+    closed         = false;
+
+    try
+    {
+      for (int i=0; i < numConnections; i++)
+      {
+        final LDAPConnection c;
+        if ((i == 0) && (connection != null))
+        {
+          c = connection;
+          prepareConnection(c);
+        }
+        else
+        {
+          c = createConnection();
+        }
+
+        final MultiplexedConnection mc = new MultiplexedConnection(c);
+        connections.put(c, mc);
+        slots.set(i, mc);
+      }
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+
+      if (connection != null)
+      {
+        connection.setDisconnectInfo(DisconnectType.POOL_CREATION_FAILURE,
+             null, le);
+        connection.terminate(null);
+      }
+
+      for (final LDAPConnection c : connections.keySet())
+      {
+        c.setDisconnectInfo(DisconnectType.POOL_CREATION_FAILURE, null, le);
+        c.terminate(null);
+      }
+
+      throw le;
+    }
+
+    healthCheckThread = new LDAPConnectionPoolHealthCheckThread(this);
+    healthCheckThread.start();
+  }
+
+
+
+  /**
+   * Creates a server set that may be used to create clones of the provided
+   * connection.
+   *
+   * @param  connection  The connection for which to create the server set.
+   *
+   * @return  The server set that was created.
+   *
+   * @throws  LDAPException  If the provided connection is not established.
+   */
+  private static ServerSet getServerSet(final LDAPConnection connection)
+          throws LDAPException
+  {
+    Validator.ensureNotNull(connection);
+
+    if (! connection.isConnected())
+    {
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+                              ERR_POOL_CONN_NOT_ESTABLISHED.get());
+    }
+
+    return new SingleServerSet(connection.getConnectedAddress(),
+         connection.getConnectedPort(), connection.getLastUsedSocketFactory(),
+         connection.getConnectionOptions());
+  }
+
+
+
+  /**
+   * Creates a new LDAP connection for use in this pool.
+   *
+   * @return  A new connection created for use in this pool.
+   *
+   * @throws  LDAPException  If a problem occurs while attempting to establish
+   *                         the connection.  If a connection had been created,
+   *                         it will be closed.
+   */
+  private LDAPConnection createConnection()
+          throws LDAPException
+  {
+    final LDAPConnection c;
+    try
+    {
+      c = serverSet.getConnection(healthCheck);
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      poolStatistics.incrementNumFailedConnectionAttempts();
+      throw le;
+    }
+
+
+    // Invoke pre-authentication post-connect processing.
+    if (postConnectProcessor != null)
+    {
+      try
+      {
+        postConnectProcessor.processPreAuthenticatedConnection(c);
+      }
+      catch (final Exception e)
+      {
+        Debug.debugException(e);
+        handleConnectionCreationFailure(c,
+             DisconnectType.POOL_CREATION_FAILURE, e);
+      }
+    }
+
+
+    // Authenticate the connection if appropriate.
+    final BindRequest br = bindRequest;
+    if ((br != null) && (! serverSet.includesAuthentication()))
+    {
+      BindResult bindResult;
+      try
+      {
+        bindResult = c.bind(br.duplicate());
+      }
+      catch (final LDAPBindException lbe)
+      {
+        Debug.debugException(lbe);
+        bindResult = lbe.getBindResult();
+      }
+      catch (final LDAPException le)
+      {
+        Debug.debugException(le);
+        bindResult = new BindResult(le);
+      }
+
+      try
+      {
+        healthCheck.ensureConnectionValidAfterAuthentication(c, bindResult);
+        if (bindResult.getResultCode() != ResultCode.SUCCESS)
+        {
+          throw new LDAPBindException(bindResult);
+        }
+      }
+      catch (final LDAPException le)
+      {
+        Debug.debugException(le);
+        handleConnectionCreationFailure(c, DisconnectType.BIND_FAILED, le);
+      }
+    }
+
+
+    // Invoke post-authentication post-connect processing.
+    if (postConnectProcessor != null)
+    {
+      try
+      {
+        postConnectProcessor.processPostAuthenticatedConnection(c);
+      }
+      catch (final Exception e)
+      {
+        Debug.debugException(e);
+        handleConnectionCreationFailure(c,
+             DisconnectType.POOL_CREATION_FAILURE, e);
+      }
+    }
+
+
+    try
+    {
+      prepareConnection(c);
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      handleConnectionCreationFailure(c, DisconnectType.POOL_CREATION_FAILURE,
+           le);
+    }
+
+    poolStatistics.incrementNumSuccessfulConnectionAttempts();
+    return c;
+  }
+
+
+
+  /**
+   * Closes the provided connection after a failure that occurred while
+   * preparing it for use in the pool, and throws an appropriate exception.
+   *
+   * @param  c               The connection that could not be prepared.
+   * @param  disconnectType  The disconnect type to use for the connection.
+   * @param  e               The exception that was caught.
+   *
+   * @throws  LDAPException  Always, to indicate that the connection could not
+   *                         be created.
+   */
+  private void handleConnectionCreationFailure(final LDAPConnection c,
+                    final DisconnectType disconnectType, final Exception e)
+          throws LDAPException
+  {
+    try
+    {
+      poolStatistics.incrementNumFailedConnectionAttempts();
+      c.setDisconnectInfo(disconnectType, null, e);
+      c.setClosed();
+    }
+    catch (final Exception e2)
+    {
+      Debug.debugException(e2);
+    }
+
+    if (e instanceof LDAPException)
+    {
+      throw ((LDAPException) e);
+    }
+    else
+    {
+      throw new LDAPException(ResultCode.CONNECT_ERROR,
+           ERR_POOL_POST_CONNECT_ERROR.get(StaticUtils.getExceptionMessage(e)),
+           e);
+    }
+  }
+
+
+
+  /**
+   * Performs the final processing needed to make the provided connection
+   * available for use in this pool.
+   *
+   * @param  c  The connection to prepare.
+   *
+   * @throws  LDAPException  If the connection cannot be used in this pool.
+   */
+  @SuppressWarnings("deprecation")
+  private void prepareConnection(final LDAPConnection c)
+          throws LDAPException
+  {
+    if (c.synchronousMode())
+    {
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+           ERR_MULTIPLEXING_POOL_SYNCHRONOUS_MODE.get());
+    }
+
+    c.setConnectionPool(this);
+
+
+    // Auto-reconnect must be disabled for pooled connections, so turn it off
+    // if the associated connection options have it enabled for some reason.
+    LDAPConnectionOptions opts = c.getConnectionOptions();
+    if (opts.autoReconnect())
+    {
+      opts = opts.duplicate();
+      opts.setAutoReconnect(false);
+      c.setConnectionOptions(opts);
+    }
+
+
+    // Get the pooled schema if appropriate.
+    if (opts.usePooledSchema())
+    {
+      final long currentTime = System.currentTimeMillis();
+      final ObjectPair<Long,Schema> ps = pooledSchema;
+      if ((ps == null) || (currentTime > ps.getFirst()))
+      {
+        try
+        {
+          final Schema schema = c.getSchema();
+          if (schema != null)
+          {
+            c.setCachedSchema(schema);
+
+            final long timeout = opts.getPooledSchemaTimeoutMillis();
+            if ((timeout <= 0L) || (currentTime + timeout <= 0L))
+            {
+              pooledSchema = new ObjectPair<>(Long.MAX_VALUE, schema);
+            }
+            else
+            {
+              pooledSchema = new ObjectPair<>((currentTime+timeout), schema);
+            }
+          }
+        }
+        catch (final Exception e)
+        {
+          Debug.debugException(e);
+
+          // There was a problem retrieving the schema from the server, but if
+          // we have an earlier copy then we can assume it's still valid.
+          if (ps != null)
+          {
+            c.setCachedSchema(ps.getSecond());
+          }
+        }
+      }
+      else
+      {
+        c.setCachedSchema(ps.getSecond());
+      }
+    }
+
+    c.setConnectionPoolName(connectionPoolName);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void close()
+  {
+    close(true, 1);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void close(final boolean unbind, final int numThreads)
+  {
+    final boolean healthCheckThreadAlreadySignaled = closed;
+    closed = true;
+    healthCheckThread.stopRunning(! healthCheckThreadAlreadySignaled);
+
+    for (int i=0; i < slots.length(); i++)
+    {
+      slots.set(i, null);
+    }
+
+    synchronized (capacityLock)
+    {
+      capacityLock.notifyAll();
+    }
+
+    final ArrayList<LDAPConnection> connList =
+         new ArrayList<>(connections.keySet());
+    connections.clear();
+
+    if ((numThreads > 1) && (! connList.isEmpty()))
+    {
+      final ParallelPoolCloser closer =
+           new ParallelPoolCloser(connList, unbind, numThreads);
+      closer.closeConnections();
+    }
+    else
+    {
+      for (final LDAPConnection conn : connList)
+      {
+        poolStatistics.incrementNumConnectionsClosedUnneeded();
+        conn.setDisconnectInfo(DisconnectType.POOL_CLOSED, null, null);
+        if (unbind)
+        {
+          conn.terminate(null);
+        }
+        else
+        {
+          conn.setClosed();
+        }
+      }
+    }
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public boolean isClosed()
+  {
+    return closed;
+  }
+
+
+
+  /**
+   * Retrieves a connection from the pool on which another operation may be
+   * processed.  The connection with the fewest outstanding operations will be
+   * selected, and it may also be in use by other threads.  The connection must
+   * be released back to the pool (using either the {@code releaseConnection}
+   * or {@code releaseDefunctConnection} method) exactly once when the
+   * operation for which it was obtained has completed.
+   *
+   * @return  A connection on which another operation may be processed.
+   *
+   * @throws  LDAPException  If the pool is closed, or if no connection has
+   *                         capacity for another operation within the maximum
+   *                         wait time.
+   */
+  @Override()
+  public LDAPConnection getConnection()
+         throws LDAPException
+  {
+    if (closed)
+    {
+      poolStatistics.incrementNumFailedCheckouts();
+      throw new LDAPException(ResultCode.CONNECT_ERROR, ERR_POOL_CLOSED.get());
+    }
+
+    MultiplexedConnection mc = acquire();
+    if (mc != null)
+    {
+      final LDAPConnection c = checkOut(mc);
+      if (c != null)
+      {
+        poolStatistics.incrementNumSuccessfulCheckoutsWithoutWaiting();
+        return c;
+      }
+    }
+
+    final long waitTime = maxWaitTime;
+    if (waitTime <= 0L)
+    {
+      poolStatistics.incrementNumFailedCheckouts();
+      throw new LDAPException(ResultCode.CONNECT_ERROR,
+           ERR_POOL_NO_CONNECTIONS.get());
+    }
+
+    final long waitStartTime = System.nanoTime();
+    final long stopWaitingTime = System.currentTimeMillis() + waitTime;
+    numWaiters.incrementAndGet();
+    try
+    {
+      while (true)
+      {
+        synchronized (capacityLock)
+        {
+          mc = acquire();
+          if (mc == null)
+          {
+            if (closed)
+            {
+              poolStatistics.incrementNumFailedCheckouts();
+              throw new LDAPException(ResultCode.CONNECT_ERROR,
+                   ERR_POOL_CLOSED.get());
+            }
+
+            final long remainingMillis =
+                 stopWaitingTime - System.currentTimeMillis();
+            if (remainingMillis <= 0L)
+            {
+              poolStatistics.incrementNumFailedCheckouts();
+              throw new LDAPException(ResultCode.CONNECT_ERROR,
+                   ERR_POOL_NO_CONNECTIONS.get());
+            }
+
+            try
+            {
+              capacityLock.wait(remainingMillis);
+            }
+            catch (final InterruptedException ie)
+            {
+              Debug.debugException(ie);
+              Thread.currentThread().interrupt();
+              poolStatistics.incrementNumFailedCheckouts();
+              throw new LDAPException(ResultCode.LOCAL_ERROR,
+                   ERR_POOL_CHECKOUT_INTERRUPTED.get(), ie);
+            }
+
+            continue;
+          }
+        }
+
+        final LDAPConnection c = checkOut(mc);
+        if (c != null)
+        {
+          poolStatistics.incrementNumSuccessfulCheckoutsAfterWaiting();
+          return c;
+        }
+      }
+    }
+    finally
+    {
+      numWaiters.decrementAndGet();
+      poolStatistics.addCheckoutWaitTime(System.nanoTime() - waitStartTime);
+    }
+  }
+
+
+
+  /**
+   * Selects the connection with the fewest outstanding operations that has
+   * capacity for another operation, and reserves that capacity.  If a slot does
+   * not currently have a connection, then an attempt will be made to create
+   * one.
+   *
+   * @return  The connection that was selected, or {@code null} if no
+   *          connection has capacity for another operation.
+   */
+  private MultiplexedConnection acquire()
+  {
+    final int numSlots = slots.length();
+    while (true)
+    {
+      final int startIndex =
+           (nextStartIndex.getAndIncrement() & Integer.MAX_VALUE) % numSlots;
+
+      MultiplexedConnection best = null;
+      int bestOutstanding = maxOperationsPerConnection;
+      for (int i=0; i < numSlots; i++)
+      {
+        final int slot = (startIndex + i) % numSlots;
+        MultiplexedConnection mc = slots.get(slot);
+        if (mc == null)
+        {
+          mc = fillSlot(slot);
+          if (mc == null)
+          {
+            continue;
+          }
+        }
+
+        final int outstanding = mc.outstanding.get();
+        if (outstanding < bestOutstanding)
+        {
+          best = mc;
+          bestOutstanding = outstanding;
+          if (outstanding == 0)
+          {
+            break;
+          }
+        }
+      }
+
+      if (best == null)
+      {
+        return null;
+      }
+
+      if (best.outstanding.compareAndSet(bestOutstanding,
+           (bestOutstanding + 1)))
+      {
+        return best;
+      }
+    }
+  }
+
+
+
+  /**
+   * Performs the checkout health check for the provided connection, for which
+   * capacity has already been reserved.  If the health check fails, then the
+   * connection will be retired and its reserved capacity released.
+   *
+   * @param  mc  The connection to check out.
+   *
+   * @return  The connection that was checked out, or {@code null} if it did
+   *          not pass the health check.
+   */
+  private LDAPConnection checkOut(final MultiplexedConnection mc)
+  {
+    try
+    {
+      healthCheck.ensureConnectionValidForCheckout(mc.connection);
+      return mc.connection;
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      poolStatistics.incrementNumConnectionsClosedDefunct();
+      retire(mc);
+      release(mc);
+      return null;
+    }
+  }
+
+
+
+  /**
+   * Attempts to create a connection for the specified slot if it does not
+   * already have one.
+   *
+   * @param  slot  The index of the slot to fill.
+   *
+   * @return  The connection in the specified slot, or {@code null} if the slot
+   *          is still empty.
+   */
+  private MultiplexedConnection fillSlot(final int slot)
+  {
+    synchronized (slots)
+    {
+      final MultiplexedConnection existing = slots.get(slot);
+      if ((existing != null) || closed)
+      {
+        return existing;
+      }
+
+      try
+      {
+        final LDAPConnection c = createConnection();
+        if (closed)
+        {
+          // The pool was closed while the connection was being created, so
+          // make sure that it doesn't get left open.
+          poolStatistics.incrementNumConnectionsClosedUnneeded();
+          c.setDisconnectInfo(DisconnectType.POOL_CLOSED, null, null);
+          c.terminate(null);
+          return null;
+        }
+
+        final MultiplexedConnection mc = new MultiplexedConnection(c);
+        connections.put(c, mc);
+        slots.set(slot, mc);
+        return mc;
+      }
+      catch (final LDAPException le)
+      {
+        Debug.debugException(le);
+        return null;
+      }
+    }
+  }
+
+
+
+  /**
+   * Retires the provided connection so that it will not be selected for any
+   * new operations, and attempts to replace it in its slot with a
+   * newly-established connection.  The retired connection will be closed once
+   * all operations in progress on it have been released.
+   *
+   * @param  mc  The connection to retire.
+   */
+  private void retire(final MultiplexedConnection mc)
+  {
+    synchronized (slots)
+    {
+      if (mc.retired)
+      {
+        return;
+      }
+
+      mc.retired = true;
+      for (int i=0; i < slots.length(); i++)
+      {
+        if (slots.get(i) == mc)
+        {
+          slots.set(i, null);
+          fillSlot(i);
+          break;
+        }
+      }
+    }
+  }
+
+
+
+  /**
+   * Releases the capacity reserved on the provided connection for a single
+   * operation, closing the connection if it has been retired and this was its
+   * last outstanding operation.
+   *
+   * @param  mc  The connection for which to release the capacity.
+   */
+  private void release(final MultiplexedConnection mc)
+  {
+    final int outstanding = mc.outstanding.decrementAndGet();
+    if (mc.retired)
+    {
+      if ((outstanding <= 0) && (connections.remove(mc.connection) != null))
+      {
+        mc.connection.setDisconnectInfo(
+             DisconnectType.POOLED_CONNECTION_DEFUNCT, null, null);
+        mc.connection.setClosed();
+      }
+    }
+    else if (numWaiters.get() > 0)
+    {
+      synchronized (capacityLock)
+      {
+        capacityLock.notifyAll();
+      }
+    }
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void releaseConnection(final LDAPConnection connection)
+  {
+    if (connection == null)
+    {
+      return;
+    }
+
+    final MultiplexedConnection mc = connections.get(connection);
+    if (mc == null)
+    {
+      // The connection is not part of the pool (most likely because the pool
+      // has been closed), so just make sure it is closed.
+      connection.setDisconnectInfo(DisconnectType.POOL_CLOSED, null, null);
+      connection.terminate(null);
+      return;
+    }
+
+    try
+    {
+      healthCheck.ensureConnectionValidForRelease(connection);
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      releaseDefunctConnection(connection);
+      return;
+    }
+
+    poolStatistics.incrementNumReleasedValid();
+    release(mc);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void releaseDefunctConnection(final LDAPConnection connection)
+  {
+    if (connection == null)
+    {
+      return;
+    }
+
+    final MultiplexedConnection mc = connections.get(connection);
+    if (mc == null)
+    {
+      connection.setDisconnectInfo(DisconnectType.POOLED_CONNECTION_DEFUNCT,
+           null, null);
+      connection.setClosed();
+      return;
+    }
+
+    if (! mc.retired)
+    {
+      poolStatistics.incrementNumConnectionsClosedDefunct();
+    }
+
+    retire(mc);
+    release(mc);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public LDAPConnection replaceDefunctConnection(
+                             final LDAPConnection connection)
+         throws LDAPException
+  {
+    releaseDefunctConnection(connection);
+    return getConnection();
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public Set<OperationType> getOperationTypesToRetryDueToInvalidConnections()
+  {
+    return retryOperationTypes.get();
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void setRetryFailedOperationsDueToInvalidConnections(
+                   final Set<OperationType> operationTypes)
+  {
+    if ((operationTypes == null) || operationTypes.isEmpty())
+    {
+      retryOperationTypes.set(
+           Collections.unmodifiableSet(EnumSet.noneOf(OperationType.class)));
+    }
+    else
+    {
+      final EnumSet<OperationType> s = EnumSet.noneOf(OperationType.class);
+      s.addAll(operationTypes);
+      retryOperationTypes.set(Collections.unmodifiableSet(s));
+    }
+  }
+
+
+
+  /**
+   * Retrieves the maximum number of operations that may be in progress on each
+   * connection in this pool at any time.
+   *
+   * @return  The maximum number of operations that may be in progress on each
+   *          connection in this pool at any time.
+   */
+  public int getMaxOperationsPerConnection()
+  {
+    return maxOperationsPerConnection;
+  }
+
+
+
+  /**
+   * Retrieves the total number of operations currently in progress on all
+   * connections in this pool (that is, the number of checkouts that have not
+   * yet been released).
+   *
+   * @return  The total number of operations currently in progress on all
+   *          connections in this pool.
+   */
+  public int getNumOutstandingOperations()
+  {
+    int total = 0;
+    for (final MultiplexedConnection mc : connections.values())
+    {
+      total += Math.max(0, mc.outstanding.get());
+    }
+
+    return total;
+  }
+
+
+
+  /**
+   * Retrieves the maximum length of time in milliseconds to wait for a
+   * connection to have capacity for another operation when all connections are
+   * already processing the maximum number of operations.
+   *
+   * @return  The maximum length of time in milliseconds to wait for a
+   *          connection to have capacity for another operation, or zero if
+   *          checkout attempts should fail immediately when no connection has
+   *          capacity.
+   */
+  public long getMaxWaitTimeMillis()
+  {
+    return maxWaitTime;
+  }
+
+
+
+  /**
+   * Specifies the maximum length of time in milliseconds to wait for a
+   * connection to have capacity for another operation when all connections are
+   * already processing the maximum number of operations.
+   *
+   * @param  maxWaitTime  The maximum length of time in milliseconds to wait
+   *                      for a connection to have capacity for another
+   *                      operation.  A value that is less than or equal to
+   *                      zero indicates that checkout attempts should fail
+   *                      immediately when no connection has capacity.
+   */
+  public void setMaxWaitTimeMillis(final long maxWaitTime)
+  {
+    if (maxWaitTime > 0L)
+    {
+      this.maxWaitTime = maxWaitTime;
+    }
+    else
+    {
+      this.maxWaitTime = 0L;
+    }
+  }
+
+
+
+  /**
+   * Specifies the bind request that will be used to authenticate subsequent new
+   * connections that are established by this connection pool.  The
+   * authentication state for existing connections will not be altered.
+   *
+   * @param  bindRequest  The bind request that will be used to authenticate new
+   *                      connections that are established by this pool.  It
+   *                      may be {@code null} if new connections should be
+   *                      unauthenticated.
+   */
+  public void setBindRequest(final BindRequest bindRequest)
+  {
+    this.bindRequest = bindRequest;
+  }
+
+
+
+  /**
+   * Specifies the server set that should be used to establish new connections
+   * for use in this connection pool.  Existing connections will not be
+   * affected.
+   *
+   * @param  serverSet  The server set that should be used to establish new
+   *                    connections for use in this connection pool.  It must
+   *                    not be {@code null}.
+   */
+  public void setServerSet(final ServerSet serverSet)
+  {
+    Validator.ensureNotNull(serverSet);
+    this.serverSet = serverSet;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public String getConnectionPoolName()
+  {
+    return connectionPoolName;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void setConnectionPoolName(final String connectionPoolName)
+  {
+    this.connectionPoolName = connectionPoolName;
+    for (final LDAPConnection c : connections.keySet())
+    {
+      c.setConnectionPoolName(connectionPoolName);
+    }
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public LDAPConnectionPoolHealthCheck getHealthCheck()
+  {
+    return healthCheck;
+  }
+
+
+
+  /**
+   * Sets the health check implementation for this connection pool.
+   *
+   * @param  healthCheck  The health check implementation for this connection
+   *                      pool.  It must not be {@code null}.
+   */
+  public void setHealthCheck(final LDAPConnectionPoolHealthCheck healthCheck)
+  {
+    Validator.ensureNotNull(healthCheck);
+    this.healthCheck = healthCheck;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public long getHealthCheckIntervalMillis()
+  {
+    return healthCheckInterval;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void setHealthCheckIntervalMillis(final long healthCheckInterval)
+  {
+    Validator.ensureTrue(healthCheckInterval > 0L,
+         "LDAPMultiplexingConnectionPool.healthCheckInterval must be greater " +
+              "than 0.");
+    this.healthCheckInterval = healthCheckInterval;
+    healthCheckThread.wakeUp();
+  }
+
+
+
+  /**
+   * {@inheritDoc}  Because connections in this pool may be in use at any time,
+   * the health check will be performed on each connection regardless of
+   * whether it has operations in progress.
+   */
+  @Override()
+  protected void doHealthCheck()
+  {
+    final List<MultiplexedConnection> toCheck =
+         new ArrayList<>(slots.length());
+    for (int i=0; i < slots.length(); i++)
+    {
+      final MultiplexedConnection mc = slots.get(i);
+      if (mc == null)
+      {
+        fillSlot(i);
+      }
+      else
+      {
+        toCheck.add(mc);
+      }
+    }
+
+    for (final MultiplexedConnection mc : toCheck)
+    {
+      if (closed)
+      {
+        return;
+      }
+
+      mc.outstanding.incrementAndGet();
+      try
+      {
+        healthCheck.ensureConnectionValidForContinuedUse(mc.connection);
+      }
+      catch (final Exception e)
+      {
+        Debug.debugException(e);
+        poolStatistics.incrementNumConnectionsClosedDefunct();
+        retire(mc);
+      }
+      finally
+      {
+        release(mc);
+      }
+    }
+  }
+
+
+
+  /**
+   * {@inheritDoc}  Bind requests, as well as extended requests that would alter
+   * the state of the connection, will always be rejected because the
+   * connection may be in use by other operations at the same time.
+   */
+  @Override()
+  void ensureStateChangeAllowed(final LDAPRequest request)
+       throws LDAPException
+  {
+    if (request instanceof BindRequest)
+    {
+      throw new LDAPException(ResultCode.NOT_SUPPORTED,
+           ERR_MULTIPLEXING_POOL_BIND_NOT_ALLOWED.get());
+    }
+
+    if (request instanceof ExtendedRequest)
+    {
+      final String oid = ((ExtendedRequest) request).getOID();
+      if (STATE_CHANGING_EXTENDED_REQUEST_OIDS.contains(oid))
+      {
+        throw new LDAPException(ResultCode.NOT_SUPPORTED,
+             ERR_MULTIPLEXING_POOL_EXTOP_NOT_ALLOWED.get(oid));
+      }
+    }
+  }
+
+
+
+  /**
+   * Retrieves the number of connections in this pool that currently have
+   * capacity for at least one more operation.
+   *
+   * @return  The number of connections in this pool that currently have
+   *          capacity for at least one more operation.
+   */
+  @Override()
+  public int getCurrentAvailableConnections()
+  {
+    int available = 0;
+    for (int i=0; i < slots.length(); i++)
+    {
+      final MultiplexedConnection mc = slots.get(i);
+      if ((mc != null) &&
+          (mc.outstanding.get() < maxOperationsPerConnection))
+      {
+        available++;
+      }
+    }
+
+    return available;
+  }
+
+
+
+  /**
+   * Retrieves the number of connections maintained by this pool.
+   *
+   * @return  The number of connections maintained by this pool.
+   */
+  @Override()
+  public int getMaximumAvailableConnections()
+  {
+    return slots.length();
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public LDAPConnectionPoolStatistics getConnectionPoolStatistics()
+  {
+    return poolStatistics;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void toString(final StringBuilder buffer)
+  {
+    buffer.append("LDAPMultiplexingConnectionPool(");
+
+    final String name = connectionPoolName;
+    if (name != null)
+    {
+      buffer.append("name='");
+      buffer.append(name);
+      buffer.append("', ");
+    }
+
+    buffer.append("serverSet=");
+    serverSet.toString(buffer);
+    buffer.append(", numConnections=");
+    buffer.append(slots.length());
+    buffer.append(", maxOperationsPerConnection=");
+    buffer.append(maxOperationsPerConnection);
+    buffer.append(", numOutstandingOperations=");
+    buffer.append(getNumOutstandingOperations());
+    buffer.append(')');
+  }
+
+
+
+  /**
+   * This class holds a connection in the pool along with the number of
+   * operations currently in progress on it.
+   */
+  private static final class MultiplexedConnection
+  {
+    // The number of operations currently in progress on the connection.
+    private final AtomicInteger outstanding;
+
+    // Indicates whether the connection has been retired, in which case it will
+    // not be selected for any new operations and will be closed once all of
+    // its outstanding operations have been released.
+    private volatile boolean retired;
+
+    // The connection.
+    private final LDAPConnection connection;
+
+
+
+    /**
+     * Creates a new multiplexed connection for the provided connection.
+     *
+     * @param  connection  The connection.
+     */
+    private MultiplexedConnection(final LDAPConnection connection)
+    {
+      this.connection = connection;
+
+      outstanding = new AtomicInteger(0);
+      retired = false;
+    }
+  }
+}
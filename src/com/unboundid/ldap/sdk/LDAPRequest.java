@@ -26,6 +26,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import com.unboundid.asn1.ASN1Buffer;
+import com.unboundid.asn1.ASN1Element;
 import com.unboundid.util.InternalUseOnly;
 import com.unboundid.util.Extensible;
 import com.unboundid.util.ThreadSafety;
@@ -79,9 +81,17 @@ public abstract class LDAPRequest
   // The set of controls for this request.
   private Control[] controls;
 
+  // The protocol op for this request, as encoded by the request template
+  // from which it was created.
+  private transient ASN1Element templateEncodedProtocolOp;
+
   // The intermediate response listener for this request.
   private IntermediateResponseListener intermediateResponseListener;
 
+  // The template from which this request was created, if it has not been
+  // altered since then.
+  private transient LDAPRequestTemplate encodingTemplate;
+
   // The maximum length of time in milliseconds to wait for the response from
   // the server.  The default value of -1 indicates that it should be inherited
   // from the associated connection.
@@ -112,6 +122,114 @@ public abstract class LDAPRequest
     responseTimeout = -1L;
     intermediateResponseListener = null;
     referralConnector = null;
+    encodingTemplate = null;
+    templateEncodedProtocolOp = null;
+  }
+
+
+
+  /**
+   * Specifies the template from which this request was created, along with the
+   * protocol op that the template encoded for it.  The elements of this request
+   * must match that encoded protocol op, so that the request may be processed
+   * (and duplicated) in the same way as any other request.  The pre-encoded
+   * protocol op will be used whenever the request is sent, unless the request
+   * is subsequently altered.
+   *
+   * @param  template           The template from which this request was
+   *                            created.
+   * @param  encodedProtocolOp  The protocol op encoded for this request by the
+   *                            template.
+   */
+  final void setEncodingTemplate(final LDAPRequestTemplate template,
+                                 final ASN1Element encodedProtocolOp)
+  {
+    encodingTemplate = template;
+    templateEncodedProtocolOp = encodedProtocolOp;
+  }
+
+
+
+  /**
+   * Causes this request to send its protocol op as encoded by the template
+   * from which the provided request was created, if any.  This must only be
+   * used for a copy of the provided request whose protocol op has not been
+   * altered.
+   *
+   * @param  request  The request whose pre-encoded protocol op should be used
+   *                  for this request.
+   */
+  final void copyEncodingTemplate(final LDAPRequest request)
+  {
+    encodingTemplate = request.encodingTemplate;
+    templateEncodedProtocolOp = request.templateEncodedProtocolOp;
+  }
+
+
+
+  /**
+   * Indicates that the protocol op for this request should no longer be sent
+   * as encoded by the template from which it was created.  This must be called
+   * by any method that alters an element of the protocol op.
+   */
+  final void clearEncodingTemplate()
+  {
+    encodingTemplate = null;
+    templateEncodedProtocolOp = null;
+  }
+
+
+
+  /**
+   * Indicates whether the protocol op for this request will be sent as encoded
+   * by the template from which it was created.
+   *
+   * @return  {@code true} if the protocol op for this request will be sent as
+   *          encoded by a request template, or {@code false} if not.
+   */
+  final boolean hasEncodingTemplate()
+  {
+    return (encodingTemplate != null);
+  }
+
+
+
+  /**
+   * Writes the protocol op for this request to the provided ASN.1 buffer as
+   * encoded by the template from which it was created, if appropriate.
+   *
+   * @param  buffer  The ASN.1 buffer to which the protocol op should be
+   *                 written.
+   *
+   * @return  {@code true} if the protocol op was written as encoded by a
+   *          request template, or {@code false} if this request is not
+   *          associated with a template and the caller must write it.
+   */
+  final boolean writeUsingTemplate(final ASN1Buffer buffer)
+  {
+    final LDAPRequestTemplate template = encodingTemplate;
+    final ASN1Element element = templateEncodedProtocolOp;
+    if ((template == null) || (element == null))
+    {
+      return false;
+    }
+
+    template.writeTo(buffer, element);
+    return true;
+  }
+
+
+
+  /**
+   * Retrieves the protocol op for this request as encoded by the template from
+   * which it was created, if appropriate.
+   *
+   * @return  The encoded protocol op, or {@code null} if this request is not
+   *          associated with a template and the caller must encode it.
+   */
+  final ASN1Element encodeUsingTemplate()
+  {
+    return templateEncodedProtocolOp;
   }
 
 
@@ -0,0 +1,661 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.unboundid.asn1.ASN1Buffer;
+import com.unboundid.asn1.ASN1BufferSequence;
+import com.unboundid.asn1.ASN1Constants;
+import com.unboundid.asn1.ASN1Element;
+import com.unboundid.asn1.ASN1Exception;
+import com.unboundid.asn1.ASN1Sequence;
+import com.unboundid.ldap.protocol.AddRequestProtocolOp;
+import com.unboundid.ldap.protocol.BindRequestProtocolOp;
+import com.unboundid.ldap.protocol.CompareRequestProtocolOp;
+import com.unboundid.ldap.protocol.DeleteRequestProtocolOp;
+import com.unboundid.ldap.protocol.ModifyDNRequestProtocolOp;
+import com.unboundid.ldap.protocol.ModifyRequestProtocolOp;
+import com.unboundid.ldap.protocol.ProtocolOp;
+import com.unboundid.ldap.protocol.SearchRequestProtocolOp;
+import com.unboundid.util.Debug;
+import com.unboundid.util.NotMutable;
+import com.unboundid.util.StaticUtils;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+import com.unboundid.util.Validator;
+
+import static com.unboundid.ldap.sdk.LDAPMessages.*;
+
+
+
+/**
+ * This class provides a mechanism for repeatedly sending requests that differ
+ * only in a small number of values without the need to encode a complete
+ * request each time.  A template is created from a request in which
+ * each of the values that will vary has been replaced with a placeholder
+ * string.  The request is encoded only once, when the template is created,
+ * and each request subsequently created from the template will be sent by
+ * copying that encoded representation and substituting the appropriate
+ * values for the placeholders.
+ * <BR><BR>
+ * A placeholder may be used as any value that is encoded as a primitive
+ * element of the request, including the target DN of an operation, the base
+ * DN or any assertion value in the filter of a search request, the value of
+ * an attribute in an add or modify request, or the password of a simple bind
+ * request.  A placeholder must be used as an entire value rather than a
+ * portion of it, and it may be used multiple times in the same request, in
+ * which case each occurrence will be replaced with the same value.  Because
+ * every value that matches a placeholder will be replaced, each placeholder
+ * should be a string that is not otherwise used in the request.
+ * <BR><BR>
+ * Templates may be created from add, compare, delete, modify, modify DN,
+ * search, and simple bind requests.  The controls for a request created from
+ * the template are not included in the template, so they may be altered on
+ * each request if appropriate.  Each request created from a template is a
+ * complete request whose elements (for example, the filter returned by the
+ * {@code getFilter} method for a search request) contain the values that
+ * were substituted for the placeholders, so it may be duplicated, rebuilt,
+ * or used to follow referrals in the same way as any other request.  The
+ * encoded representation produced by the template will be used whenever the
+ * request is sent, unless any of the elements of the request are altered
+ * after it has been created, in which case it will be encoded in the usual
+ * way.  Because those elements are obtained by decoding the substituted
+ * encoding, creating a request from a template is not less expensive than
+ * constructing an equivalent request directly.
+ * <BR><BR>
+ * <H2>Example</H2>
+ * The following example demonstrates the process for using a template to
+ * repeatedly search for users by their user ID:
+ * <PRE>
+ * SearchRequest searchRequest = new SearchRequest("dc=example,dc=com",
+ *      SearchScope.SUB, Filter.createEqualityFilter("uid", "{uid}"), "cn");
+ * LDAPRequestTemplate template =
+ *      new LDAPRequestTemplate(searchRequest, "{uid}");
+ *
+ * for (String uid : userIDs)
+ * {
+ *   SearchRequest r = (SearchRequest) template.createRequest(uid);
+ *   SearchResult searchResult = connection.search(r);
+ *   // Do something with the search result.
+ * }
+ * </PRE>
+ */
+@NotMutable()
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+public final class LDAPRequestTemplate
+{
+  // Indicates whether the buffer to which requests are written should be
+  // zeroed out after use because it may contain a password.
+  private final boolean zeroBufferOnClear;
+
+  // The request used to create this template.
+  private final LDAPRequest request;
+
+  // The placeholders for the values that will vary between requests.
+  private final List<String> placeholders;
+
+  // The pre-encoded representation of the request's protocol op.
+  private final Segment encodedProtocolOp;
+
+
+
+  /**
+   * Creates a new request template from the provided request.
+   *
+   * @param  request       The request to use to create the template.  It must
+   *                       not be {@code null}, and it must be an add,
+   *                       compare, delete, modify, modify DN, search, or
+   *                       simple bind request.  It will be duplicated, and
+   *                       any later changes to it will not affect the
+   *                       template.
+   * @param  placeholders  The placeholder values that will be replaced in each
+   *                       request created from this template.  It must not
+   *                       be {@code null}, and each placeholder must be used as
+   *                       a value somewhere in the provided request.  It may
+   *                       be empty if all requests created from this template
+   *                       should be identical (apart from their controls).
+   *
+   * @throws  LDAPException  If the provided request is not a supported type,
+   *                         or if any of the placeholders is not used in the
+   *                         request.
+   */
+  public LDAPRequestTemplate(final LDAPRequest request,
+                             final String... placeholders)
+         throws LDAPException
+  {
+    Validator.ensureNotNull(request, placeholders);
+
+    if (! ((request instanceof AddRequest) ||
+           (request instanceof CompareRequest) ||
+           (request instanceof DeleteRequest) ||
+           (request instanceof ModifyRequest) ||
+           (request instanceof ModifyDNRequest) ||
+           (request instanceof SearchRequest) ||
+           (request instanceof SimpleBindRequest)))
+    {
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+           ERR_REQUEST_TEMPLATE_UNSUPPORTED_REQUEST_TYPE.get(
+                request.getOperationType().name()));
+    }
+
+    if ((request instanceof SimpleBindRequest) &&
+        (((SimpleBindRequest) request).getPasswordProvider() != null))
+    {
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+           ERR_REQUEST_TEMPLATE_PASSWORD_PROVIDER.get());
+    }
+
+    this.request = request.duplicate();
+    this.placeholders =
+         Collections.unmodifiableList(Arrays.asList(placeholders.clone()));
+
+    final byte[][] placeholderBytes = new byte[placeholders.length][];
+    for (int i=0; i < placeholders.length; i++)
+    {
+      placeholderBytes[i] = StaticUtils.getBytes(placeholders[i]);
+      for (int j=0; j < i; j++)
+      {
+        if (placeholders[i].equals(placeholders[j]))
+        {
+          throw new LDAPException(ResultCode.PARAM_ERROR,
+               ERR_REQUEST_TEMPLATE_DUPLICATE_PLACEHOLDER.get(
+                    placeholders[i]));
+        }
+      }
+    }
+
+    final ASN1Buffer buffer = new ASN1Buffer();
+    ((ProtocolOp) this.request).writeTo(buffer);
+    zeroBufferOnClear = buffer.zeroBufferOnClear();
+
+    final boolean[] used = new boolean[placeholders.length];
+    try
+    {
+      encodedProtocolOp = createSegment(
+           ASN1Element.decode(buffer.toByteArray()), placeholderBytes, used);
+    }
+    catch (final ASN1Exception ae)
+    {
+      Debug.debugException(ae);
+      throw new LDAPException(ResultCode.ENCODING_ERROR,
+           ERR_REQUEST_TEMPLATE_CANNOT_DECODE.get(
+                StaticUtils.getExceptionMessage(ae)),
+           ae);
+    }
+    finally
+    {
+      if (zeroBufferOnClear)
+      {
+        buffer.clear();
+      }
+    }
+
+    for (int i=0; i < used.length; i++)
+    {
+      if (! used[i])
+      {
+        throw new LDAPException(ResultCode.PARAM_ERROR,
+             ERR_REQUEST_TEMPLATE_PLACEHOLDER_NOT_USED.get(placeholders[i]));
+      }
+    }
+  }
+
+
+
+  /**
+   * Creates the segment that will be used to write the provided element.
+   *
+   * @param  element           The element for which to create the segment.
+   * @param  placeholderBytes  The bytes that comprise each of the
+   *                           placeholders.
+   * @param  used              An array that will be updated to indicate
+   *                           which placeholders have been found.
+   *
+   * @return  The segment that will be used to write the provided element.
+   *
+   * @throws  ASN1Exception  If a problem occurs while attempting to decode the
+   *                         elements contained in a constructed element.
+   */
+  private static Segment createSegment(final ASN1Element element,
+                                       final byte[][] placeholderBytes,
+                                       final boolean[] used)
+          throws ASN1Exception
+  {
+    if ((element.getType() & ASN1Constants.TYPE_MASK_PC_CONSTRUCTED) == 0)
+    {
+      final byte[] value = element.getValue();
+      for (int i=0; i < placeholderBytes.length; i++)
+      {
+        if (Arrays.equals(value, placeholderBytes[i]))
+        {
+          used[i] = true;
+          return new PlaceholderSegment(element.getType(), i);
+        }
+      }
+
+      return new EncodedSegment(element);
+    }
+
+    final ASN1Element[] elements =
+         ASN1Sequence.decodeAsSequence(element).elements();
+    final ArrayList<Segment> segments = new ArrayList<>(elements.length);
+    boolean containsPlaceholder = false;
+    for (final ASN1Element e : elements)
+    {
+      final Segment s = createSegment(e, placeholderBytes, used);
+      segments.add(s);
+      if (! (s instanceof EncodedSegment))
+      {
+        containsPlaceholder = true;
+      }
+    }
+
+    if (containsPlaceholder)
+    {
+      final Segment[] segmentArray = new Segment[segments.size()];
+      return new ConstructedSegment(element.getType(),
+           segments.toArray(segmentArray));
+    }
+    else
+    {
+      return new EncodedSegment(element);
+    }
+  }
+
+
+
+  /**
+   * Retrieves a copy of the request used to create this template.  It will
+   * include the placeholders rather than any actual values.
+   *
+   * @return  A copy of the request used to create this template.
+   */
+  public LDAPRequest getRequest()
+  {
+    return request.duplicate();
+  }
+
+
+
+  /**
+   * Retrieves the operation type for requests created from this template.
+   *
+   * @return  The operation type for requests created from this template.
+   */
+  public OperationType getOperationType()
+  {
+    return request.getOperationType();
+  }
+
+
+
+  /**
+   * Retrieves the placeholders that will be replaced in each request created
+   * from this template.
+   *
+   * @return  The placeholders that will be replaced in each request created
+   *          from this template.
+   */
+  public List<String> getPlaceholders()
+  {
+    return placeholders;
+  }
+
+
+
+  /**
+   * Creates a new request from this template.  The request will be of the same
+   * type as the request used to create this template, with the same controls,
+   * and its elements will contain the provided values in place of the
+   * placeholders.  It may be processed in the same way as any other request of
+   * that type.
+   *
+   * @param  values  The values to use in place of the placeholders, in the
+   *                 same order as the placeholders were provided when
+   *                 creating this template.  It must not be {@code null},
+   *                 and it must have the same number of elements as there are
+   *                 placeholders.  None of the elements may be {@code null}.
+   *
+   * @return  The request that was created.
+   */
+  public LDAPRequest createRequest(final String... values)
+  {
+    Validator.ensureNotNull(values);
+    Validator.ensureTrue((values.length == placeholders.size()),
+         "LDAPRequestTemplate.createRequest.values must have the same " +
+              "number of elements as there are placeholders.");
+
+    final byte[][] valueBytes = new byte[values.length][];
+    for (int i=0; i < values.length; i++)
+    {
+      Validator.ensureNotNull(values[i]);
+      valueBytes[i] = StaticUtils.getBytes(values[i]);
+    }
+
+    final ASN1Buffer buffer = new ASN1Buffer();
+    final ASN1Element protocolOpElement;
+    final LDAPRequest r;
+    try
+    {
+      encodedProtocolOp.writeTo(buffer, valueBytes);
+      protocolOpElement = ASN1Element.decode(buffer.toByteArray());
+      r = decodeRequest(protocolOpElement);
+    }
+    catch (final Exception e)
+    {
+      // This should never happen, since the template was created from a
+      // valid encoding and the values are only used as octet strings.
+      Debug.debugException(e);
+      throw new LDAPRuntimeException(new LDAPException(
+           ResultCode.DECODING_ERROR,
+           ERR_REQUEST_TEMPLATE_CANNOT_DECODE_REQUEST.get(
+                StaticUtils.getExceptionMessage(e)),
+           e));
+    }
+    finally
+    {
+      if (zeroBufferOnClear)
+      {
+        buffer.clear();
+      }
+    }
+
+    if (request.followReferralsInternal() != null)
+    {
+      r.setFollowReferrals(request.followReferralsInternal());
+    }
+
+    if (request.getReferralConnectorInternal() != null)
+    {
+      r.setReferralConnector(request.getReferralConnectorInternal());
+    }
+
+    r.setResponseTimeoutMillis(request.getResponseTimeoutMillis(null));
+    r.setEncodingTemplate(this, protocolOpElement);
+    return r;
+  }
+
+
+
+  /**
+   * Decodes the provided protocol op, produced by this template, as a request
+   * of the same type as the request used to create this template, with the
+   * same controls.
+   *
+   * @param  element  The encoded protocol op to decode.
+   *
+   * @return  The decoded request.
+   *
+   * @throws  LDAPException  If the provided element cannot be decoded.
+   */
+  private LDAPRequest decodeRequest(final ASN1Element element)
+          throws LDAPException
+  {
+    final Control[] controls = request.getControls();
+    switch (request.getOperationType())
+    {
+      case ADD:
+        return AddRequestProtocolOp.decodeProtocolOp(element).toAddRequest(
+             controls);
+      case BIND:
+        return BindRequestProtocolOp.decodeProtocolOp(element).toBindRequest(
+             controls);
+      case COMPARE:
+        return CompareRequestProtocolOp.decodeProtocolOp(
+             element).toCompareRequest(controls);
+      case DELETE:
+        return DeleteRequestProtocolOp.decodeProtocolOp(
+             element).toDeleteRequest(controls);
+      case MODIFY:
+        return ModifyRequestProtocolOp.decodeProtocolOp(
+             element).toModifyRequest(controls);
+      case MODIFY_DN:
+        return ModifyDNRequestProtocolOp.decodeProtocolOp(
+             element).toModifyDNRequest(controls);
+      case SEARCH:
+      default:
+        // The search result listener is not part of the encoded request, so
+        // it must be taken from the request used to create this template.
+        final SearchRequestProtocolOp op =
+             SearchRequestProtocolOp.decodeProtocolOp(element);
+        final List<String> attrs = op.getAttributes();
+        return new SearchRequest(
+             ((SearchRequest) request).getSearchResultListener(), controls,
+             op.getBaseDN(), op.getScope(), op.getDerefPolicy(),
+             op.getSizeLimit(), op.getTimeLimit(), op.typesOnly(),
+             op.getFilter(), attrs.toArray(StaticUtils.NO_STRINGS));
+    }
+  }
+
+
+
+  /**
+   * Writes a protocol op that was encoded by this template to the provided
+   * ASN.1 buffer.
+   *
+   * @param  buffer             The ASN.1 buffer to which the protocol op
+   *                            should be written.
+   * @param  encodedProtocolOp  The protocol op encoded by this template.
+   */
+  void writeTo(final ASN1Buffer buffer, final ASN1Element encodedProtocolOp)
+  {
+    if (zeroBufferOnClear)
+    {
+      buffer.setZeroBufferOnClear();
+    }
+
+    buffer.addElement(encodedProtocolOp);
+  }
+
+
+
+  /**
+   * Retrieves a string representation of this request template.
+   *
+   * @return  A string representation of this request template.
+   */
+  @Override()
+  public String toString()
+  {
+    final StringBuilder buffer = new StringBuilder();
+    toString(buffer);
+    return buffer.toString();
+  }
+
+
+
+  /**
+   * Appends a string representation of this request template to the provided
+   * buffer.
+   *
+   * @param  buffer  The buffer to which the information should be appended.
+   */
+  public void toString(final StringBuilder buffer)
+  {
+    buffer.append("LDAPRequestTemplate(request=");
+    request.toString(buffer);
+    buffer.append(", placeholders={");
+
+    final int numPlaceholders = placeholders.size();
+    for (int i=0; i < numPlaceholders; i++)
+    {
+      if (i > 0)
+      {
+        buffer.append(", ");
+      }
+
+      buffer.append('\'');
+      buffer.append(placeholders.get(i));
+      buffer.append('\'');
+    }
+
+    buffer.append("})");
+  }
+
+
+
+  /**
+   * This class defines a portion of a pre-encoded protocol op.
+   */
+  private abstract static class Segment
+  {
+    /**
+     * Writes this segment to the provided ASN.1 buffer.
+     *
+     * @param  buffer  The ASN.1 buffer to which this segment should be
+     *                 written.
+     * @param  values  The encoded values to use in place of the placeholders.
+     */
+    abstract void writeTo(ASN1Buffer buffer, byte[][] values);
+  }
+
+
+
+  /**
+   * This class defines a segment for an element that does not contain any
+   * placeholders, and that can therefore be written exactly as it was
+   * originally encoded.
+   */
+  private static final class EncodedSegment
+          extends Segment
+  {
+    // The pre-encoded element.
+    private final ASN1Element element;
+
+
+
+    /**
+     * Creates a new encoded segment for the provided element.
+     *
+     * @param  element  The element to be written.
+     */
+    private EncodedSegment(final ASN1Element element)
+    {
+      this.element = element;
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    void writeTo(final ASN1Buffer buffer, final byte[][] values)
+    {
+      buffer.addElement(element);
+    }
+  }
+
+
+
+  /**
+   * This class defines a segment for a primitive element whose value is one
+   * of the placeholders.
+   */
+  private static final class PlaceholderSegment
+          extends Segment
+  {
+    // The BER type for the element.
+    private final byte type;
+
+    // The index of the placeholder whose value should be used.
+    private final int index;
+
+
+
+    /**
+     * Creates a new placeholder segment with the provided information.
+     *
+     * @param  type   The BER type for the element.
+     * @param  index  The index of the placeholder whose value should be used.
+     */
+    private PlaceholderSegment(final byte type, final int index)
+    {
+      this.type = type;
+      this.index = index;
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    void writeTo(final ASN1Buffer buffer, final byte[][] values)
+    {
+      buffer.addOctetString(type, values[index]);
+    }
+  }
+
+
+
+  /**
+   * This class defines a segment for a constructed element that contains one
+   * or more placeholders, and whose length must therefore be computed each
+   * time it is written.
+   */
+  private static final class ConstructedSegment
+          extends Segment
+  {
+    // The BER type for the element.
+    private final byte type;
+
+    // The segments for the elements contained in this element.
+    private final Segment[] segments;
+
+
+
+    /**
+     * Creates a new constructed segment with the provided information.
+     *
+     * @param  type      The BER type for the element.
+     * @param  segments  The segments for the elements contained in this
+     *                   element.
+     */
+    private ConstructedSegment(final byte type, final Segment[] segments)
+    {
+      this.type = type;
+      this.segments = segments;
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    void writeTo(final ASN1Buffer buffer, final byte[][] values)
+    {
+      final ASN1BufferSequence sequence = buffer.beginSequence(type);
+      for (final Segment s : segments)
+      {
+        s.writeTo(buffer, values);
+      }
+      sequence.end();
+    }
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+import com.unboundid.ldap.protocol.LDAPResponse;
+import com.unboundid.util.Debug;
+import com.unboundid.util.DebugType;
+import com.unboundid.util.InternalUseOnly;
+
+
+
+/**
+ * This class provides a single-slot mechanism for handing off the response to
+ * an operation that is expected to receive exactly one response from the
+ * connection reader to the thread that is waiting for it.  It is intended as a
+ * lightweight replacement for a blocking queue for add, bind, compare, delete,
+ * extended, modify, and modify DN requests processed in non-synchronous mode,
+ * since it does not need to allocate anything or acquire any locks in order to
+ * deliver a response.
+ * <BR><BR>
+ * Only the first response provided after the handoff is cleared will be
+ * retained.  Any additional response (for example, a connection closed
+ * response delivered after the actual result has already been received) will
+ * be discarded.  Only a single thread may wait for a response at any given
+ * time.
+ */
+@InternalUseOnly()
+final class LDAPResponseHandoff
+      implements Serializable
+{
+  /**
+   * The updater used to atomically update the response.
+   */
+  private static final AtomicReferenceFieldUpdater<LDAPResponseHandoff,
+       LDAPResponse> RESPONSE_UPDATER = AtomicReferenceFieldUpdater.newUpdater(
+            LDAPResponseHandoff.class, LDAPResponse.class, "response");
+
+
+
+  /**
+   * The serial version UID for this serializable class.
+   */
+  private static final long serialVersionUID = 4285623107739416374L;
+
+
+
+  // The response that has been provided but not yet retrieved.
+  private transient volatile LDAPResponse response;
+
+  // The thread that is currently waiting for a response, if any.
+  private transient volatile Thread waitingThread;
+
+
+
+  /**
+   * Creates a new, empty response handoff.
+   */
+  LDAPResponseHandoff()
+  {
+    response = null;
+    waitingThread = null;
+  }
+
+
+
+  /**
+   * Discards any response that may have been provided but not retrieved.  This
+   * should be called before registering the associated request as the response
+   * acceptor for a new message ID, so that a response that arrived too late to
+   * be retrieved by a previous attempt cannot be mistaken for the response to
+   * the new request.
+   */
+  void clear()
+  {
+    response = null;
+  }
+
+
+
+  /**
+   * Provides a response to the thread waiting on this handoff.  If a response
+   * has already been provided and not yet retrieved, then the new response
+   * will be discarded.
+   *
+   * @param  response  The response to provide.  It must not be {@code null}.
+   */
+  void put(final LDAPResponse response)
+  {
+    if (RESPONSE_UPDATER.compareAndSet(this, null, response))
+    {
+      final Thread t = waitingThread;
+      if (t != null)
+      {
+        LockSupport.unpark(t);
+      }
+    }
+    else
+    {
+      Debug.debug(Level.FINE, DebugType.LDAP,
+           "Discarding response " + response + " because a response has " +
+                "already been provided and not yet retrieved.");
+    }
+  }
+
+
+
+  /**
+   * Retrieves the response, waiting for as long as necessary for it to become
+   * available.
+   *
+   * @return  The response that was provided.  It will not be {@code null}.
+   *
+   * @throws  InterruptedException  If the thread is interrupted while waiting
+   *                                for the response.
+   */
+  LDAPResponse take()
+       throws InterruptedException
+  {
+    return poll(0L);
+  }
+
+
+
+  /**
+   * Retrieves the response, waiting for up to the specified length of time for
+   * it to become available.
+   *
+   * @param  timeoutMillis  The maximum length of time in milliseconds to wait
+   *                        for the response.  A value that is less than or
+   *                        equal to zero indicates that it should wait for as
+   *                        long as necessary.
+   *
+   * @return  The response that was provided, or {@code null} if the timeout
+   *          elapsed before a response became available.
+   *
+   * @throws  InterruptedException  If the thread is interrupted while waiting
+   *                                for the response.
+   */
+  LDAPResponse poll(final long timeoutMillis)
+       throws InterruptedException
+  {
+    LDAPResponse r = RESPONSE_UPDATER.getAndSet(this, null);
+    if (r != null)
+    {
+      return r;
+    }
+
+    final long stopWaitingTime;
+    if (timeoutMillis > 0L)
+    {
+      stopWaitingTime =
+           System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+    else
+    {
+      stopWaitingTime = 0L;
+    }
+
+    waitingThread = Thread.currentThread();
+    try
+    {
+      while (true)
+      {
+        r = RESPONSE_UPDATER.getAndSet(this, null);
+        if (r != null)
+        {
+          return r;
+        }
+
+        if (Thread.interrupted())
+        {
+          throw new InterruptedException();
+        }
+
+        if (timeoutMillis > 0L)
+        {
+          final long remainingNanos = stopWaitingTime - System.nanoTime();
+          if (remainingNanos <= 0L)
+          {
+            return null;
+          }
+
+          LockSupport.parkNanos(this, remainingNanos);
+        }
+        else
+        {
+          LockSupport.park(this);
+        }
+      }
+    }
+    finally
+    {
+      waitingThread = null;
+    }
+  }
+}
@@ -0,0 +1,931 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.SocketFactory;
+
+import com.unboundid.util.Debug;
+import com.unboundid.util.NotMutable;
+import com.unboundid.util.ThreadLocalRandom;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+import com.unboundid.util.Validator;
+
+
+
+/**
+ * This class provides a server set implementation that will use the observed
+ * response times of the servers to which it has previously established
+ * connections when choosing the server for a new connection.  It maintains an
+ * exponentially weighted moving average of the response times for operations
+ * processed on the connections that it creates, and combines that with the
+ * number of connections it has established to each server to produce a cost
+ * for each server.  When a new connection is needed, two servers will be
+ * chosen at random and the connection will be established to the one with the
+ * lower cost (the "power of two choices" technique), which allows load to be
+ * steered away from slow servers without having all new connections rush to
+ * whichever server currently appears to be the fastest.
+ * <BR><BR>
+ * If a server is unavailable when an attempt is made to establish a connection
+ * to it, then it will be considered unhealthy for a period of time and will
+ * only be chosen if no healthy server is available.  The average response time
+ * for a server will gradually decay while no responses are received from it,
+ * so that a server that was once slow will eventually be tried again.
+ * <BR><BR>
+ * Note that this server set only influences the server to which each new
+ * connection is established.  To allow a connection pool to shed load from a
+ * server that becomes slow (for example, while it is performing a backup or
+ * database compaction), the pool should be configured with a maximum
+ * connection age (see
+ * {@link LDAPConnectionPool#setMaxConnectionAgeMillis(long)}) so that
+ * connections are periodically re-established.  As with the
+ * {@link FewestConnectionsServerSet}, this server set is primarily intended
+ * for use with connection pools and is not suitable for use in connections
+ * that may be re-established after being closed.
+ * <BR><BR>
+ * <H2>Example</H2>
+ * The following example demonstrates the process for creating a latency-aware
+ * server set that may be used to establish connections to any of three
+ * servers, and for using it in a connection pool whose connections are
+ * periodically replaced.
+ * <PRE>
+ * // Create arrays with the addresses and ports of the directory server
+ * // instances.
+ * String[] addresses =
+ * {
+ *   server1Address,
+ *   server2Address,
+ *   server3Address
+ * };
+ * int[] ports =
+ * {
+ *   server1Port,
+ *   server2Port,
+ *   server3Port
+ * };
+ *
+ * // Create the server set using the address and port arrays.
+ * LatencyAwareServerSet latencyAwareSet =
+ *      new LatencyAwareServerSet(addresses, ports);
+ *
+ * // Create a connection pool that will replace connections every ten
+ * // minutes so that load can move away from servers that become slow.
+ * SimpleBindRequest bindRequest =
+ *      new SimpleBindRequest("uid=pool.user,dc=example,dc=com", "password");
+ * LDAPConnectionPool pool =
+ *      new LDAPConnectionPool(latencyAwareSet, bindRequest, 10);
+ * pool.setMaxConnectionAgeMillis(600_000L);
+ * RootDSE rootDSEFromPool = pool.getRootDSE();
+ * pool.close();
+ * </PRE>
+ */
+@NotMutable()
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+public final class LatencyAwareServerSet
+       extends ServerSet
+{
+  /**
+   * The default weight that will be given to each new response time when
+   * updating the moving average.
+   */
+  public static final double DEFAULT_SMOOTHING_FACTOR = 0.05d;
+
+
+
+  /**
+   * The default length of time in milliseconds used to decay the average
+   * response time for a server from which no responses have been received, and
+   * to consider a server unhealthy after a failed attempt to connect to it.
+   */
+  public static final long DEFAULT_DECAY_TIME_MILLIS = 60_000L;
+
+
+
+  // The bind request to use to authenticate connections created by this
+  // server set.
+  private final BindRequest bindRequest;
+
+  // The weight given to each new response time when updating the moving
+  // average.
+  private final double smoothingFactor;
+
+  // The set of connection options to use for new connections.
+  private final LDAPConnectionOptions connectionOptions;
+
+  // The decay time, in milliseconds.
+  private final long decayTimeMillis;
+
+  // The decay time, in nanoseconds.
+  private final long decayTimeNanos;
+
+  // The post-connect processor to invoke against connections created by this
+  // server set.
+  private final PostConnectProcessor postConnectProcessor;
+
+  // The state for each of the target servers.
+  private final ServerState[] servers;
+
+  // The socket factory to use to establish connections.
+  private final SocketFactory socketFactory;
+
+
+
+  /**
+   * Creates a new latency-aware server set with the specified set of directory
+   * server addresses and port numbers.  It will use the default socket factory
+   * provided by the JVM to create the underlying sockets.
+   *
+   * @param  addresses  The addresses of the directory servers to which the
+   *                    connections should be established.  It must not be
+   *                    {@code null} or empty.
+   * @param  ports      The ports of the directory servers to which the
+   *                    connections should be established.  It must not be
+   *                    {@code null}, and it must have the same number of
+   *                    elements as the {@code addresses} array.  The order of
+   *                    elements in the {@code addresses} array must correspond
+   *                    to the order of elements in the {@code ports} array.
+   */
+  public LatencyAwareServerSet(final String[] addresses, final int[] ports)
+  {
+    this(addresses, ports, null, null);
+  }
+
+
+
+  /**
+   * Creates a new latency-aware server set with the specified set of directory
+   * server addresses and port numbers.  It will use the default socket factory
+   * provided by the JVM to create the underlying sockets.
+   *
+   * @param  addresses          The addresses of the directory servers to which
+   *                            the connections should be established.  It must
+   *                            not be {@code null} or empty.
+   * @param  ports              The ports of the directory servers to which the
+   *                            connections should be established.  It must not
+   *                            be {@code null}, and it must have the same
+   *                            number of elements as the {@code addresses}
+   *                            array.  The order of elements in the
+   *                            {@code addresses} array must correspond to the
+   *                            order of elements in the {@code ports} array.
+   * @param  connectionOptions  The set of connection options to use for the
+   *                            underlying connections.
+   */
+  public LatencyAwareServerSet(final String[] addresses, final int[] ports,
+              final LDAPConnectionOptions connectionOptions)
+  {
+    this(addresses, ports, null, connectionOptions);
+  }
+
+
+
+  /**
+   * Creates a new latency-aware server set with the specified set of directory
+   * server addresses and port numbers.  It will use the provided socket factory
+   * to create the underlying sockets.
+   *
+   * @param  addresses          The addresses of the directory servers to which
+   *                            the connections should be established.  It must
+   *                            not be {@code null} or empty.
+   * @param  ports              The ports of the directory servers to which the
+   *                            connections should be established.  It must not
+   *                            be {@code null}, and it must have the same
+   *                            number of elements as the {@code addresses}
+   *                            array.  The order of elements in the
+   *                            {@code addresses} array must correspond to the
+   *                            order of elements in the {@code ports} array.
+   * @param  socketFactory      The socket factory to use to create the
+   *                            underlying connections.
+   * @param  connectionOptions  The set of connection options to use for the
+   *                            underlying connections.
+   */
+  public LatencyAwareServerSet(final String[] addresses, final int[] ports,
+              final SocketFactory socketFactory,
+              final LDAPConnectionOptions connectionOptions)
+  {
+    this(addresses, ports, socketFactory, connectionOptions, null, null);
+  }
+
+
+
+  /**
+   * Creates a new latency-aware server set with the specified set of directory
+   * server addresses and port numbers.  It will use the provided socket factory
+   * to create the underlying sockets, and the default smoothing factor and
+   * decay time.
+   *
+   * @param  addresses             The addresses of the directory servers to
+   *                               which the connections should be established.
+   *                               It must not be {@code null} or empty.
+   * @param  ports                 The ports of the directory servers to which
+   *                               the connections should be established.  It
+   *                               must not be {@code null}, and it must have
+   *                               the same number of elements as the
+   *                               {@code addresses} array.  The order of
+   *                               elements in the {@code addresses} array must
+   *                               correspond to the order of elements in the
+   *                               {@code ports} array.
+   * @param  socketFactory         The socket factory to use to create the
+   *                               underlying connections.
+   * @param  connectionOptions     The set of connection options to use for the
+   *                               underlying connections.
+   * @param  bindRequest           The bind request that should be used to
+   *                               authenticate newly-established connections.
+   *                               It may be {@code null} if this server set
+   *                               should not perform any authentication.
+   * @param  postConnectProcessor  The post-connect processor that should be
+   *                               invoked on newly-established connections.  It
+   *                               may be {@code null} if this server set should
+   *                               not perform any post-connect processing.
+   */
+  public LatencyAwareServerSet(final String[] addresses, final int[] ports,
+              final SocketFactory socketFactory,
+              final LDAPConnectionOptions connectionOptions,
+              final BindRequest bindRequest,
+              final PostConnectProcessor postConnectProcessor)
+  {
+    this(addresses, ports, socketFactory, connectionOptions, bindRequest,
+         postConnectProcessor, DEFAULT_SMOOTHING_FACTOR,
+         DEFAULT_DECAY_TIME_MILLIS);
+  }
+
+
+
+  /**
+   * Creates a new latency-aware server set with the specified set of directory
+   * server addresses and port numbers.  It will use the provided socket factory
+   * to create the underlying sockets.
+   *
+   * @param  addresses             The addresses of the directory servers to
+   *                               which the connections should be established.
+   *                               It must not be {@code null} or empty.
+   * @param  ports                 The ports of the directory servers to which
+   *                               the connections should be established.  It
+   *                               must not be {@code null}, and it must have
+   *                               the same number of elements as the
+   *                               {@code addresses} array.  The order of
+   *                               elements in the {@code addresses} array must
+   *                               correspond to the order of elements in the
+   *                               {@code ports} array.
+   * @param  socketFactory         The socket factory to use to create the
+   *                               underlying connections.
+   * @param  connectionOptions     The set of connection options to use for the
+   *                               underlying connections.
+   * @param  bindRequest           The bind request that should be used to
+   *                               authenticate newly-established connections.
+   *                               It may be {@code null} if this server set
+   *                               should not perform any authentication.
+   * @param  postConnectProcessor  The post-connect processor that should be
+   *                               invoked on newly-established connections.  It
+   *                               may be {@code null} if this server set should
+   *                               not perform any post-connect processing.
+   * @param  smoothingFactor       The weight that should be given to each new
+   *                               response time when updating the moving
+   *                               average for a server.  It must be greater
+   *                               than zero and less than or equal to one.
+   *                               Larger values will cause the server set to
+   *                               react more quickly to changes in response
+   *                               time, while smaller values will make it less
+   *                               sensitive to occasional slow operations.
+   * @param  decayTimeMillis       The length of time in milliseconds over which
+   *                               the average response time for a server will
+   *                               decay while no responses are received from
+   *                               it, and for which a server will be considered
+   *                               unhealthy after a failed attempt to connect
+   *                               to it.  It must be greater than zero.
+   */
+  public LatencyAwareServerSet(final String[] addresses, final int[] ports,
+              final SocketFactory socketFactory,
+              final LDAPConnectionOptions connectionOptions,
+              final BindRequest bindRequest,
+              final PostConnectProcessor postConnectProcessor,
+              final double smoothingFactor, final long decayTimeMillis)
+  {
+    Validator.ensureNotNull(addresses, ports);
+    Validator.ensureTrue(addresses.length > 0,
+         "LatencyAwareServerSet.addresses must not be empty.");
+    Validator.ensureTrue(addresses.length == ports.length,
+         "LatencyAwareServerSet addresses and ports arrays must be the same " +
+              "size.");
+    Validator.ensureTrue(((smoothingFactor > 0.0d) &&
+              (smoothingFactor <= 1.0d)),
+         "LatencyAwareServerSet.smoothingFactor must be greater than zero " +
+              "and less than or equal to one.");
+    Validator.ensureTrue((decayTimeMillis > 0L),
+         "LatencyAwareServerSet.decayTimeMillis must be greater than zero.");
+
+    this.bindRequest = bindRequest;
+    this.postConnectProcessor = postConnectProcessor;
+    this.smoothingFactor = smoothingFactor;
+    this.decayTimeMillis = decayTimeMillis;
+
+    decayTimeNanos = TimeUnit.MILLISECONDS.toNanos(decayTimeMillis);
+
+    servers = new ServerState[addresses.length];
+    for (int i=0; i < addresses.length; i++)
+    {
+      servers[i] = new ServerState(addresses[i], ports[i]);
+    }
+
+    if (socketFactory == null)
+    {
+      this.socketFactory = SocketFactory.getDefault();
+    }
+    else
+    {
+      this.socketFactory = socketFactory;
+    }
+
+    if (connectionOptions == null)
+    {
+      this.connectionOptions = new LDAPConnectionOptions();
+    }
+    else
+    {
+      this.connectionOptions = connectionOptions;
+    }
+  }
+
+
+
+  /**
+   * Retrieves the addresses of the directory servers to which the connections
+   * should be established.
+   *
+   * @return  The addresses of the directory servers to which the connections
+   *          should be established.
+   */
+  public String[] getAddresses()
+  {
+    final String[] addresses = new String[servers.length];
+    for (int i=0; i < servers.length; i++)
+    {
+      addresses[i] = servers[i].address;
+    }
+
+    return addresses;
+  }
+
+
+
+  /**
+   * Retrieves the ports of the directory servers to which the connections
+   * should be established.
+   *
+   * @return  The ports of the directory servers to which the connections should
+   *          be established.
+   */
+  public int[] getPorts()
+  {
+    final int[] ports = new int[servers.length];
+    for (int i=0; i < servers.length; i++)
+    {
+      ports[i] = servers[i].port;
+    }
+
+    return ports;
+  }
+
+
+
+  /**
+   * Retrieves the socket factory that will be used to establish connections.
+   *
+   * @return  The socket factory that will be used to establish connections.
+   */
+  public SocketFactory getSocketFactory()
+  {
+    return socketFactory;
+  }
+
+
+
+  /**
+   * Retrieves the set of connection options that will be used for underlying
+   * connections.
+   *
+   * @return  The set of connection options that will be used for underlying
+   *          connections.
+   */
+  public LDAPConnectionOptions getConnectionOptions()
+  {
+    return connectionOptions;
+  }
+
+
+
+  /**
+   * Retrieves the weight given to each new response time when updating the
+   * moving average for a server.
+   *
+   * @return  The weight given to each new response time when updating the
+   *          moving average for a server.
+   */
+  public double getSmoothingFactor()
+  {
+    return smoothingFactor;
+  }
+
+
+
+  /**
+   * Retrieves the length of time in milliseconds over which the average
+   * response time for a server will decay while no responses are received from
+   * it, and for which a server will be considered unhealthy after a failed
+   * attempt to connect to it.
+   *
+   * @return  The decay time in milliseconds.
+   */
+  public long getDecayTimeMillis()
+  {
+    return decayTimeMillis;
+  }
+
+
+
+  /**
+   * Retrieves the current average response time for each of the servers in
+   * this server set, taking into account any decay that has occurred since the
+   * last response was received from it.
+   *
+   * @return  A map of the current average response time in milliseconds for
+   *          each server, keyed by the server's address and port in the form
+   *          "address:port".  The map will be ordered in the same way as the
+   *          servers were provided.  A value of zero indicates that no
+   *          responses have been received from the server (or that the average
+   *          has decayed completely).
+   */
+  public Map<String,Double> getAverageResponseTimesMillis()
+  {
+    final long now = System.nanoTime();
+    final LinkedHashMap<String,Double> m = new LinkedHashMap<>(
+         2 * servers.length);
+    for (final ServerState s : servers)
+    {
+      m.put(s.address + ':' + s.port,
+           (s.getAverageResponseTimeNanos(now) / 1_000_000.0d));
+    }
+
+    return Collections.unmodifiableMap(m);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public boolean includesAuthentication()
+  {
+    return (bindRequest != null);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public boolean includesPostConnectProcessing()
+  {
+    return (postConnectProcessor != null);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public LDAPConnection getConnection()
+         throws LDAPException
+  {
+    return getConnection(null);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public LDAPConnection getConnection(
+                             final LDAPConnectionPoolHealthCheck healthCheck)
+         throws LDAPException
+  {
+    // Compute the cost of each server, and identify the healthy servers.
+    final long now = System.nanoTime();
+    final double[] costs = new double[servers.length];
+    final int[] connectionCounts = new int[servers.length];
+    final ArrayList<Integer> healthy = new ArrayList<>(servers.length);
+    final ArrayList<Integer> unhealthy = new ArrayList<>(servers.length);
+    synchronized (this)
+    {
+      for (int i=0; i < servers.length; i++)
+      {
+        connectionCounts[i] = servers[i].getNumEstablishedConnections();
+        costs[i] = servers[i].getAverageResponseTimeNanos(now) *
+             (connectionCounts[i] + 1);
+
+        if (servers[i].isHealthy(now))
+        {
+          healthy.add(i);
+        }
+        else
+        {
+          unhealthy.add(i);
+        }
+      }
+    }
+
+
+    // Order the servers so that the preferred server will be tried first,
+    // followed by any other healthy servers in order of increasing cost, and
+    // then by the unhealthy servers in order of increasing cost.
+    final List<Integer> candidates = healthy.isEmpty() ? unhealthy : healthy;
+    final int preferred;
+    if (candidates.size() == 1)
+    {
+      preferred = candidates.get(0);
+    }
+    else
+    {
+      final Random random = ThreadLocalRandom.get();
+      final int pos1 = random.nextInt(candidates.size());
+      int pos2 = random.nextInt(candidates.size() - 1);
+      if (pos2 >= pos1)
+      {
+        pos2++;
+      }
+
+      final int s1 = candidates.get(pos1);
+      final int s2 = candidates.get(pos2);
+      if (compare(s1, s2, costs, connectionCounts) <= 0)
+      {
+        preferred = s1;
+      }
+      else
+      {
+        preferred = s2;
+      }
+    }
+
+    final ArrayList<Integer> order = new ArrayList<>(servers.length);
+    order.add(preferred);
+    sortAndAdd(healthy, preferred, costs, connectionCounts, order);
+    sortAndAdd(unhealthy, preferred, costs, connectionCounts, order);
+
+
+    // Try each server in order until we are able to successfully establish a
+    // connection.
+    LDAPException lastException = null;
+    for (final int i : order)
+    {
+      final ServerState s = servers[i];
+      try
+      {
+        final LDAPConnection conn = new LDAPConnection(socketFactory,
+             connectionOptions, s.address, s.port);
+        doBindPostConnectAndHealthCheckProcessing(conn, bindRequest,
+             postConnectProcessor, healthCheck);
+        conn.getConnectionStatistics().setResponseTimeObserver(s);
+
+        synchronized (this)
+        {
+          s.establishedConnections.add(conn);
+          s.lastFailureTime = 0L;
+        }
+
+        return conn;
+      }
+      catch (final LDAPException le)
+      {
+        Debug.debugException(le);
+        lastException = le;
+
+        synchronized (this)
+        {
+          s.lastFailureTime = Math.max(1L, System.nanoTime());
+        }
+      }
+    }
+
+
+    // If we've gotten here, then we've tried all servers without any success,
+    // so throw the last exception that was encountered.
+    throw lastException;
+  }
+
+
+
+  /**
+   * Compares the two specified servers to determine which should be preferred.
+   *
+   * @param  s1                The index of the first server to compare.
+   * @param  s2                The index of the second server to compare.
+   * @param  costs             The costs for each server.
+   * @param  connectionCounts  The number of connections established to each
+   *                           server.
+   *
+   * @return  A negative value if the first server should be preferred, a
+   *          positive value if the second server should be preferred, or zero
+   *          if there is no preference between them.
+   */
+  private static int compare(final int s1, final int s2, final double[] costs,
+                             final int[] connectionCounts)
+  {
+    final int costComparison = Double.compare(costs[s1], costs[s2]);
+    if (costComparison != 0)
+    {
+      return costComparison;
+    }
+
+    return Integer.compare(connectionCounts[s1], connectionCounts[s2]);
+  }
+
+
+
+  /**
+   * Adds the provided servers to the given list in order of increasing cost,
+   * excluding the specified server.
+   *
+   * @param  servers           The indexes of the servers to add.
+   * @param  exclude           The index of a server that should not be added.
+   * @param  costs             The costs for each server.
+   * @param  connectionCounts  The number of connections established to each
+   *                           server.
+   * @param  order             The list to which the servers should be added.
+   */
+  private static void sortAndAdd(final List<Integer> servers, final int exclude,
+                                 final double[] costs,
+                                 final int[] connectionCounts,
+                                 final List<Integer> order)
+  {
+    final ArrayList<Integer> sorted = new ArrayList<>(servers.size());
+    for (final int s : servers)
+    {
+      if (s == exclude)
+      {
+        continue;
+      }
+
+      // The number of servers will be small, so an insertion sort is fine.
+      int pos = sorted.size();
+      while ((pos > 0) &&
+           (compare(s, sorted.get(pos - 1), costs, connectionCounts) < 0))
+      {
+        pos--;
+      }
+      sorted.add(pos, s);
+    }
+
+    order.addAll(sorted);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void toString(final StringBuilder buffer)
+  {
+    buffer.append("LatencyAwareServerSet(servers={");
+
+    final long now = System.nanoTime();
+    for (int i=0; i < servers.length; i++)
+    {
+      if (i > 0)
+      {
+        buffer.append(", ");
+      }
+
+      final ServerState s = servers[i];
+      buffer.append(s.address);
+      buffer.append(':');
+      buffer.append(s.port);
+      buffer.append("(averageResponseTimeMillis=");
+      buffer.append(s.getAverageResponseTimeNanos(now) / 1_000_000.0d);
+      buffer.append(", establishedConnections=");
+      synchronized (this)
+      {
+        buffer.append(s.getNumEstablishedConnections());
+      }
+      buffer.append(')');
+    }
+
+    buffer.append("}, includesAuthentication=");
+    buffer.append(bindRequest != null);
+    buffer.append(", includesPostConnectProcessing=");
+    buffer.append(postConnectProcessor != null);
+    buffer.append(", smoothingFactor=");
+    buffer.append(smoothingFactor);
+    buffer.append(", decayTimeMillis=");
+    buffer.append(decayTimeMillis);
+    buffer.append(')');
+  }
+
+
+
+  /**
+   * This class holds information about one of the servers in the server set.
+   * It will be notified of the response times for the connections established
+   * to that server.
+   */
+  private final class ServerState
+          implements ResponseTimeObserver
+  {
+    // The bits of the double value that holds the moving average response
+    // time, in nanoseconds.  A value of zero indicates that no response times
+    // have been recorded.
+    private final AtomicLong averageResponseTimeBits;
+
+    // The port of the server.
+    private final int port;
+
+    // The potentially-established connections created to this server.  It
+    // must only be accessed while synchronized on the server set.
+    private final List<LDAPConnection> establishedConnections;
+
+    // The time, in terms of System.nanoTime, of the last failed attempt to
+    // establish a connection to the server, or zero if the last attempt was
+    // successful.  It must only be accessed while synchronized on the server
+    // set.
+    private long lastFailureTime;
+
+    // The time, in terms of System.nanoTime, that the last response time was
+    // recorded.
+    private volatile long lastUpdateTime;
+
+    // The address of the server.
+    private final String address;
+
+
+
+    /**
+     * Creates a new server state object for the specified server.
+     *
+     * @param  address  The address of the server.
+     * @param  port     The port of the server.
+     */
+    private ServerState(final String address, final int port)
+    {
+      this.address = address;
+      this.port = port;
+
+      averageResponseTimeBits = new AtomicLong(0L);
+      establishedConnections = new ArrayList<>(10);
+      lastFailureTime = 0L;
+      lastUpdateTime = 0L;
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void responseTimeRecorded(final OperationType operationType,
+                                     final long responseTime)
+    {
+      final long now = System.nanoTime();
+      while (true)
+      {
+        final long currentBits = averageResponseTimeBits.get();
+        final double current = decay(Double.longBitsToDouble(currentBits), now);
+
+        final double updated;
+        if (current <= 0.0d)
+        {
+          updated = responseTime;
+        }
+        else
+        {
+          updated = current + (smoothingFactor * (responseTime - current));
+        }
+
+        if (averageResponseTimeBits.compareAndSet(currentBits,
+             Double.doubleToLongBits(updated)))
+        {
+          lastUpdateTime = now;
+          return;
+        }
+      }
+    }
+
+
+
+    /**
+     * Retrieves the current average response time for this server, taking
+     * into account any decay since the last response time was recorded.
+     *
+     * @param  now  The current time, in terms of System.nanoTime.
+     *
+     * @return  The current average response time for this server in
+     *          nanoseconds, or zero if no response times have been recorded.
+     */
+    private double getAverageResponseTimeNanos(final long now)
+    {
+      return decay(Double.longBitsToDouble(averageResponseTimeBits.get()), now);
+    }
+
+
+
+    /**
+     * Applies any appropriate decay to the provided average response time
+     * based on the length of time since the last response time was recorded.
+     * Decay will only be applied once at least one percent of the decay time
+     * has elapsed, so that it does not need to be computed for servers that are
+     * actively in use.
+     *
+     * @param  average  The average response time to decay.
+     * @param  now      The current time, in terms of System.nanoTime.
+     *
+     * @return  The decayed average response time.
+     */
+    private double decay(final double average, final long now)
+    {
+      final long updateTime = lastUpdateTime;
+      final long elapsed = now - updateTime;
+      if ((average <= 0.0d) || (updateTime == 0L) ||
+          (elapsed < (decayTimeNanos / 100L)))
+      {
+        return average;
+      }
+
+      return average * Math.exp(-((double) elapsed) / decayTimeNanos);
+    }
+
+
+
+    /**
+     * Indicates whether this server should be considered healthy.  A server
+     * will be considered unhealthy if the most recent attempt to establish a
+     * connection to it failed within the decay time.  This must only be called
+     * while synchronized on the server set.
+     *
+     * @param  now  The current time, in terms of System.nanoTime.
+     *
+     * @return  {@code true} if this server should be considered healthy, or
+     *          {@code false} if not.
+     */
+    private boolean isHealthy(final long now)
+    {
+      return ((lastFailureTime == 0L) ||
+           ((now - lastFailureTime) >= decayTimeNanos));
+    }
+
+
+
+    /**
+     * Retrieves the number of connections currently established to this server
+     * by the server set, removing any connections that are no longer
+     * established.  This must only be called while synchronized on the server
+     * set.
+     *
+     * @return  The number of connections currently established to this server.
+     */
+    private int getNumEstablishedConnections()
+    {
+      final Iterator<LDAPConnection> iterator =
+           establishedConnections.iterator();
+      while (iterator.hasNext())
+      {
+        if (! iterator.next().isConnected())
+        {
+          iterator.remove();
+        }
+      }
+
+      return establishedConnections.size();
+    }
+  }
+}
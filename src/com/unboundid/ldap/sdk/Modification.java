@@ -429,7 +429,7 @@ public final class Modification
            ModificationType.valueOf(reader.readEnumerated());
 
       Validator.ensureNotNull(reader.beginSequence());
-      final String attrName = reader.readString();
+      final String attrName = reader.readCachedString();
 
       final ArrayList<ASN1OctetString> valueList = new ArrayList<>(5);
       final ASN1StreamReaderSet valueSet = reader.beginSet();
@@ -25,8 +25,6 @@ package com.unboundid.ldap.sdk;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Timer;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import com.unboundid.asn1.ASN1Boolean;
@@ -116,9 +114,10 @@ public final class ModifyDNRequest
 
 
 
-  // The queue that will be used to receive response messages from the server.
-  private final LinkedBlockingQueue<LDAPResponse> responseQueue =
-       new LinkedBlockingQueue<>();
+  // The handoff that will be used to receive the response message from the
+  // server.
+  private final LDAPResponseHandoff responseHandoff =
+       new LDAPResponseHandoff();
 
   // Indicates whether to delete the current RDN value from the entry.
   private boolean deleteOldRDN;
@@ -402,6 +401,7 @@ public final class ModifyDNRequest
    */
   public void setDN(final String dn)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(dn);
 
     this.dn = dn;
@@ -417,6 +417,7 @@ public final class ModifyDNRequest
    */
   public void setDN(final DN dn)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(dn);
 
     this.dn = dn.toString();
@@ -442,6 +443,7 @@ public final class ModifyDNRequest
    */
   public void setNewRDN(final String newRDN)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(newRDN);
 
     this.newRDN = newRDN;
@@ -456,6 +458,7 @@ public final class ModifyDNRequest
    */
   public void setNewRDN(final RDN newRDN)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(newRDN);
 
     this.newRDN = newRDN.toString();
@@ -482,6 +485,7 @@ public final class ModifyDNRequest
    */
   public void setDeleteOldRDN(final boolean deleteOldRDN)
   {
+    clearEncodingTemplate();
     this.deleteOldRDN = deleteOldRDN;
   }
 
@@ -507,6 +511,7 @@ public final class ModifyDNRequest
    */
   public void setNewSuperiorDN(final String newSuperiorDN)
   {
+    clearEncodingTemplate();
     this.newSuperiorDN = newSuperiorDN;
   }
 
@@ -521,6 +526,7 @@ public final class ModifyDNRequest
    */
   public void setNewSuperiorDN(final DN newSuperiorDN)
   {
+    clearEncodingTemplate();
     if (newSuperiorDN == null)
     {
       this.newSuperiorDN = null;
@@ -550,6 +556,11 @@ public final class ModifyDNRequest
   @Override()
   public void writeTo(final ASN1Buffer writer)
   {
+    if (writeUsingTemplate(writer))
+    {
+      return;
+    }
+
     final ASN1BufferSequence requestSequence =
          writer.beginSequence(LDAPMessage.PROTOCOL_OP_TYPE_MODIFY_DN_REQUEST);
     writer.addOctetString(dn);
@@ -573,6 +584,12 @@ public final class ModifyDNRequest
   @Override()
   public ASN1Element encodeProtocolOp()
   {
+    final ASN1Element templateElement = encodeUsingTemplate();
+    if (templateElement != null)
+    {
+      return templateElement;
+    }
+
     final ASN1Element[] protocolOpElements;
     if (newSuperiorDN == null)
     {
@@ -640,11 +657,11 @@ public final class ModifyDNRequest
         final long responseTimeout = getResponseTimeoutMillis(connection);
         if (responseTimeout > 0)
         {
-          response = responseQueue.poll(responseTimeout, TimeUnit.MILLISECONDS);
+          response = responseHandoff.poll(responseTimeout);
         }
         else
         {
-          response = responseQueue.take();
+          response = responseHandoff.take();
         }
       }
       catch (final InterruptedException ie)
@@ -699,6 +716,7 @@ public final class ModifyDNRequest
     if (resultListener == null)
     {
       asyncRequestID = null;
+      responseHandoff.clear();
       connection.registerResponseAcceptor(messageID, this);
     }
     else
@@ -1069,7 +1087,7 @@ public final class ModifyDNRequest
   {
     try
     {
-      responseQueue.put(response);
+      responseHandoff.put(response);
     }
     catch (final Exception e)
     {
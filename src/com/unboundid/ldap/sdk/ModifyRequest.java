@@ -27,8 +27,6 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Timer;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import com.unboundid.asn1.ASN1Buffer;
@@ -95,9 +93,10 @@ public final class ModifyRequest
 
 
 
-  // The queue that will be used to receive response messages from the server.
-  private final LinkedBlockingQueue<LDAPResponse> responseQueue =
-       new LinkedBlockingQueue<>();
+  // The handoff that will be used to receive the response message from the
+  // server.
+  private final LDAPResponseHandoff responseHandoff =
+       new LDAPResponseHandoff();
 
   // The set of modifications to perform.
   private final ArrayList<Modification> modifications;
@@ -444,6 +443,7 @@ public final class ModifyRequest
    */
   public void setDN(final String dn)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(dn);
 
     this.dn = dn;
@@ -458,6 +458,7 @@ public final class ModifyRequest
    */
   public void setDN(final DN dn)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(dn);
 
     this.dn = dn.toString();
@@ -484,6 +485,7 @@ public final class ModifyRequest
    */
   public void addModification(final Modification mod)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(mod);
 
     modifications.add(mod);
@@ -502,6 +504,7 @@ public final class ModifyRequest
    */
   public boolean removeModification(final Modification mod)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(mod);
 
     return modifications.remove(mod);
@@ -518,6 +521,7 @@ public final class ModifyRequest
    */
   public void setModifications(final Modification mod)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(mod);
 
     modifications.clear();
@@ -535,6 +539,7 @@ public final class ModifyRequest
    */
   public void setModifications(final Modification[] mods)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(mods);
     Validator.ensureFalse(mods.length == 0,
          "ModifyRequest.setModifications.mods must not be empty.");
@@ -554,6 +559,7 @@ public final class ModifyRequest
    */
   public void setModifications(final List<Modification> mods)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(mods);
     Validator.ensureFalse(mods.isEmpty(),
          "ModifyRequest.setModifications.mods must not be empty.");
@@ -581,6 +587,11 @@ public final class ModifyRequest
   @Override()
   public void writeTo(final ASN1Buffer writer)
   {
+    if (writeUsingTemplate(writer))
+    {
+      return;
+    }
+
     final ASN1BufferSequence requestSequence =
          writer.beginSequence(LDAPMessage.PROTOCOL_OP_TYPE_MODIFY_REQUEST);
     writer.addOctetString(dn);
@@ -604,6 +615,12 @@ public final class ModifyRequest
   @Override()
   public ASN1Element encodeProtocolOp()
   {
+    final ASN1Element templateElement = encodeUsingTemplate();
+    if (templateElement != null)
+    {
+      return templateElement;
+    }
+
     final ASN1Element[] modElements = new ASN1Element[modifications.size()];
     for (int i=0; i < modElements.length; i++)
     {
@@ -664,11 +681,11 @@ public final class ModifyRequest
         final long responseTimeout = getResponseTimeoutMillis(connection);
         if (responseTimeout > 0)
         {
-          response = responseQueue.poll(responseTimeout, TimeUnit.MILLISECONDS);
+          response = responseHandoff.poll(responseTimeout);
         }
         else
         {
-          response = responseQueue.take();
+          response = responseHandoff.take();
         }
       }
       catch (final InterruptedException ie)
@@ -723,6 +740,7 @@ public final class ModifyRequest
     if (resultListener == null)
     {
       asyncRequestID = null;
+      responseHandoff.clear();
       connection.registerResponseAcceptor(messageID, this);
     }
     else
@@ -1090,7 +1108,7 @@ public final class ModifyRequest
   {
     try
     {
-      responseQueue.put(response);
+      responseHandoff.put(response);
     }
     catch (final Exception e)
     {
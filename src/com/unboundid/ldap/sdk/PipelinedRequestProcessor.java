@@ -0,0 +1,475 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.unboundid.util.Debug;
+import com.unboundid.util.StaticUtils;
+
+import static com.unboundid.ldap.sdk.LDAPMessages.*;
+
+
+
+/**
+ * This class provides the logic used to process a batch of requests over one
+ * or more connections from a connection pool using pipelining, so that
+ * multiple requests may be outstanding on each connection at any time rather
+ * than waiting for the response to each request before sending the next.
+ * Requests are sent in the order they are provided, and each request is sent
+ * on the connection with the fewest outstanding requests.  No more than the
+ * configured number of requests will be outstanding on any connection at a
+ * time.  Results will be returned in the order of the associated requests.
+ */
+final class PipelinedRequestProcessor
+{
+  // Indicates whether to send the remaining requests after an operation has
+  // failed.
+  private final boolean continueOnError;
+
+  // The maximum number of requests to have outstanding on each connection.
+  private final int maxOutstandingRequestsPerConnection;
+
+  // The maximum number of connections to use.
+  private final int maxConnections;
+
+  // The connection pool from which connections will be obtained.
+  private final AbstractConnectionPool pool;
+
+  // The requests to be processed.
+  private final List<LDAPRequest> requests;
+
+
+
+  /**
+   * Creates a new pipelined request processor with the provided information.
+   *
+   * @param  pool                                 The connection pool from
+   *                                              which connections should be
+   *                                              obtained.
+   * @param  requests                             The requests to be processed.
+   * @param  continueOnError                      Indicates whether to send the
+   *                                              remaining requests after an
+   *                                              operation has failed.
+   * @param  maxOutstandingRequestsPerConnection  The maximum number of requests
+   *                                              to have outstanding on each
+   *                                              connection.
+   * @param  maxConnections                       The maximum number of
+   *                                              connections to use.
+   */
+  PipelinedRequestProcessor(final AbstractConnectionPool pool,
+                            final List<LDAPRequest> requests,
+                            final boolean continueOnError,
+                            final int maxOutstandingRequestsPerConnection,
+                            final int maxConnections)
+  {
+    this.pool                                = pool;
+    this.requests                            = requests;
+    this.continueOnError                     = continueOnError;
+    this.maxOutstandingRequestsPerConnection =
+         maxOutstandingRequestsPerConnection;
+    this.maxConnections                      = maxConnections;
+  }
+
+
+
+  /**
+   * Processes the requests.
+   *
+   * @return  The results of the requests that were sent, in the order of the
+   *          associated requests.
+   *
+   * @throws  LDAPException  If any of the requests is not of a type that may be
+   *                         pipelined, if a connection cannot be obtained from
+   *                         the pool, if the connections in the pool operate in
+   *                         synchronous mode, or if the thread is interrupted
+   *                         while processing the requests.
+   */
+  List<LDAPResult> processRequests()
+       throws LDAPException
+  {
+    // Make sure that all the requests are acceptable.
+    for (final LDAPRequest r : requests)
+    {
+      switch (r.getOperationType())
+      {
+        case ADD:
+        case COMPARE:
+        case DELETE:
+        case MODIFY:
+        case MODIFY_DN:
+          break;
+
+        default:
+          throw new LDAPException(ResultCode.PARAM_ERROR,
+               ERR_POOL_PROCESS_REQUESTS_PIPELINED_OP_NOT_SUPPORTED.get(
+                    String.valueOf(r)));
+      }
+    }
+
+
+    final List<ConnectionState> connections = getConnections();
+    final ArrayList<AsyncRequestID> requestIDs =
+         new ArrayList<>(requests.size());
+    try
+    {
+      final Semaphore permits = new Semaphore(
+           maxOutstandingRequestsPerConnection * connections.size());
+      final AtomicBoolean failureEncountered = new AtomicBoolean(false);
+
+
+      // Send the requests.  The least-loaded connection is guaranteed to have
+      // room for another request whenever a permit can be obtained.  The check
+      // for a failure must happen after obtaining the permit, since the
+      // permit may have been released by a failed operation.
+      for (final LDAPRequest r : requests)
+      {
+        permits.acquire();
+        if (failureEncountered.get() && (! continueOnError))
+        {
+          break;
+        }
+
+        ConnectionState connection = connections.get(0);
+        for (final ConnectionState c : connections)
+        {
+          if (c.numOutstanding.get() < connection.numOutstanding.get())
+          {
+            connection = c;
+          }
+        }
+
+        connection.numOutstanding.incrementAndGet();
+        final PipelinedResultListener listener =
+             new PipelinedResultListener(connection, permits,
+                  failureEncountered);
+
+        AsyncRequestID requestID = null;
+        try
+        {
+          final LDAPConnection conn = connection.connection;
+          switch (r.getOperationType())
+          {
+            case ADD:
+              requestID = conn.asyncAdd((AddRequest) r, listener);
+              break;
+            case COMPARE:
+              requestID = conn.asyncCompare((CompareRequest) r, listener);
+              break;
+            case DELETE:
+              requestID = conn.asyncDelete((DeleteRequest) r, listener);
+              break;
+            case MODIFY:
+              requestID = conn.asyncModify((ModifyRequest) r, listener);
+              break;
+            case MODIFY_DN:
+              requestID = conn.asyncModifyDN((ModifyDNRequest) r, listener);
+              break;
+          }
+        }
+        catch (final LDAPException le)
+        {
+          Debug.debugException(le);
+          requestID = new AsyncRequestID(r.getLastMessageID(),
+               connection.connection);
+          final LDAPResult result = le.toLDAPResult();
+          listener.resultReceived(result);
+          requestID.setResult(result);
+        }
+
+        requestIDs.add(requestID);
+      }
+
+
+      // Wait for the operations to complete and collect the results.
+      final ArrayList<LDAPResult> results = new ArrayList<>(requestIDs.size());
+      for (final AsyncRequestID requestID : requestIDs)
+      {
+        LDAPResult result;
+        try
+        {
+          result = requestID.get();
+        }
+        catch (final InterruptedException ie)
+        {
+          throw ie;
+        }
+        catch (final Exception e)
+        {
+          Debug.debugException(e);
+          result = new LDAPResult(requestID.getMessageID(),
+               ResultCode.LOCAL_ERROR,
+               ERR_POOL_PROCESS_REQUESTS_ASYNC_RESULT_EXCEPTION.get(
+                    StaticUtils.getExceptionMessage(e)),
+               null, StaticUtils.NO_STRINGS, StaticUtils.NO_CONTROLS);
+        }
+
+        results.add(result);
+      }
+
+      return results;
+    }
+    catch (final InterruptedException ie)
+    {
+      Debug.debugException(ie);
+      Thread.currentThread().interrupt();
+
+      for (final AsyncRequestID requestID : requestIDs)
+      {
+        requestID.cancel(true);
+      }
+
+      throw new LDAPException(ResultCode.LOCAL_ERROR,
+           ERR_POOL_PROCESS_REQUESTS_PIPELINED_INTERRUPTED.get(), ie);
+    }
+    finally
+    {
+      for (final ConnectionState c : connections)
+      {
+        if (c.defunct)
+        {
+          pool.releaseDefunctConnection(c.connection);
+        }
+        else
+        {
+          pool.releaseConnection(c.connection);
+        }
+      }
+    }
+  }
+
+
+
+  /**
+   * Checks out the connections to use to process the requests.  At least one
+   * connection will be obtained.  Additional connections will only be used if
+   * they can be obtained from the pool and are distinct from those already
+   * obtained.
+   *
+   * @return  The connections that were obtained.
+   *
+   * @throws  LDAPException  If no connection could be obtained, or if the
+   *                         connections operate in synchronous mode.
+   */
+  private List<ConnectionState> getConnections()
+          throws LDAPException
+  {
+    final int numConnections = Math.min(maxConnections, requests.size());
+    final ArrayList<ConnectionState> connections =
+         new ArrayList<>(numConnections);
+
+    final LDAPConnection firstConnection;
+    try
+    {
+      firstConnection = pool.getConnection();
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+      throw new LDAPSearchException(le);
+    }
+
+    if (firstConnection.synchronousMode())
+    {
+      pool.releaseConnection(firstConnection);
+      throw new LDAPException(ResultCode.PARAM_ERROR,
+           ERR_POOL_PROCESS_REQUESTS_ASYNC_SYNCHRONOUS_MODE.get());
+    }
+
+    connections.add(new ConnectionState(firstConnection));
+
+addConnectionLoop:
+    while (connections.size() < numConnections)
+    {
+      final LDAPConnection conn;
+      try
+      {
+        conn = pool.getConnection();
+      }
+      catch (final LDAPException le)
+      {
+        Debug.debugException(le);
+        break;
+      }
+
+      // Some pool implementations may return the same connection more than
+      // once.  In that case, there is no benefit to using it again.
+      for (final ConnectionState c : connections)
+      {
+        if (c.connection == conn)
+        {
+          pool.releaseConnection(conn);
+          break addConnectionLoop;
+        }
+      }
+
+      connections.add(new ConnectionState(conn));
+    }
+
+    return connections;
+  }
+
+
+
+  /**
+   * This class holds information about a connection used to process requests.
+   */
+  private static final class ConnectionState
+  {
+    // The number of requests currently outstanding on the connection.
+    private final AtomicInteger numOutstanding;
+
+    // Indicates whether a result has indicated that the connection may no
+    // longer be usable.
+    private volatile boolean defunct;
+
+    // The connection.
+    private final LDAPConnection connection;
+
+
+
+    /**
+     * Creates a new connection state object for the provided connection.
+     *
+     * @param  connection  The connection.
+     */
+    private ConnectionState(final LDAPConnection connection)
+    {
+      this.connection = connection;
+
+      numOutstanding = new AtomicInteger(0);
+      defunct = false;
+    }
+  }
+
+
+
+  /**
+   * This class provides a listener that will be notified when the result for a
+   * pipelined request is received, so that another request may be sent.
+   */
+  private static final class PipelinedResultListener
+          implements AsyncResultListener, AsyncCompareResultListener
+  {
+    // Indicates whether a result has been received for the request.
+    private final AtomicBoolean resultReceived;
+
+    // Indicates whether any of the requests has failed.
+    private final AtomicBoolean failureEncountered;
+
+    // The connection on which the request was sent.
+    private final ConnectionState connection;
+
+    // The permits that control how many requests may be outstanding.
+    private final Semaphore permits;
+
+
+
+    /**
+     * Creates a new pipelined result listener with the provided information.
+     *
+     * @param  connection          The connection on which the request is to be
+     *                             sent.
+     * @param  permits             The permits that control how many requests
+     *                             may be outstanding.
+     * @param  failureEncountered  Indicates whether any of the requests has
+     *                             failed.
+     */
+    private PipelinedResultListener(final ConnectionState connection,
+                                    final Semaphore permits,
+                                    final AtomicBoolean failureEncountered)
+    {
+      this.connection         = connection;
+      this.permits            = permits;
+      this.failureEncountered = failureEncountered;
+
+      resultReceived = new AtomicBoolean(false);
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void ldapResultReceived(final AsyncRequestID requestID,
+                                   final LDAPResult ldapResult)
+    {
+      resultReceived(ldapResult);
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void compareResultReceived(final AsyncRequestID requestID,
+                                      final CompareResult compareResult)
+    {
+      resultReceived(compareResult);
+    }
+
+
+
+    /**
+     * Handles the result for the request.  Only the first result provided will
+     * have any effect.
+     *
+     * @param  result  The result for the request.
+     */
+    private void resultReceived(final LDAPResult result)
+    {
+      if (! resultReceived.compareAndSet(false, true))
+      {
+        return;
+      }
+
+      switch (result.getResultCode().intValue())
+      {
+        case ResultCode.SUCCESS_INT_VALUE:
+        case ResultCode.COMPARE_FALSE_INT_VALUE:
+        case ResultCode.COMPARE_TRUE_INT_VALUE:
+        case ResultCode.NO_OPERATION_INT_VALUE:
+          // These will be considered successful operations.
+          break;
+
+        default:
+          // Anything else will be considered a failure.
+          failureEncountered.set(true);
+          if (! ResultCode.isConnectionUsable(result.getResultCode()))
+          {
+            connection.defunct = true;
+          }
+          break;
+      }
+
+      connection.numOutstanding.decrementAndGet();
+      permits.release();
+    }
+  }
+}
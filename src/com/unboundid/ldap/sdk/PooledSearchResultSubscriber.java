@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.unboundid.util.InternalUseOnly;
+
+
+
+/**
+ * This class provides a search result subscriber that is used when processing
+ * a search with flow control using a connection from a connection pool.  It
+ * forwards everything to the subscriber provided by the caller, and it
+ * releases the connection back to the pool once the search has completed or
+ * the subscription has been cancelled.
+ */
+@InternalUseOnly()
+final class PooledSearchResultSubscriber
+      implements SearchResultSubscriber, SearchResultSubscription
+{
+  // Indicates whether the connection has been released back to the pool.
+  private final AtomicBoolean released;
+
+  // The connection pool from which the connection was obtained.
+  private final AbstractConnectionPool pool;
+
+  // The connection being used to process the search.
+  private final LDAPConnection connection;
+
+  // The subscriber provided by the caller.
+  private final SearchResultSubscriber subscriber;
+
+  // The subscription for the search.
+  private volatile SearchResultSubscription subscription;
+
+
+
+  /**
+   * Creates a new pooled search result subscriber with the provided
+   * information.
+   *
+   * @param  pool        The connection pool from which the connection was
+   *                     obtained.
+   * @param  connection  The connection being used to process the search.
+   * @param  subscriber  The subscriber provided by the caller.
+   */
+  PooledSearchResultSubscriber(final AbstractConnectionPool pool,
+                               final LDAPConnection connection,
+                               final SearchResultSubscriber subscriber)
+  {
+    this.pool = pool;
+    this.connection = connection;
+    this.subscriber = subscriber;
+
+    released = new AtomicBoolean(false);
+    subscription = null;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void onSubscribe(final SearchResultSubscription subscription)
+  {
+    this.subscription = subscription;
+    subscriber.onSubscribe(this);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void onEntry(final SearchResultEntry searchEntry)
+  {
+    subscriber.onEntry(searchEntry);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void onReference(final SearchResultReference searchReference)
+  {
+    subscriber.onReference(searchReference);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void onComplete(final SearchResult searchResult)
+  {
+    try
+    {
+      if (ResultCode.isConnectionUsable(searchResult.getResultCode()))
+      {
+        releaseConnection(null);
+      }
+      else
+      {
+        releaseConnection(new LDAPException(searchResult));
+      }
+    }
+    finally
+    {
+      subscriber.onComplete(searchResult);
+    }
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void request(final long numResults)
+  {
+    subscription.request(numResults);
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void cancel()
+  {
+    subscription.cancel();
+    releaseConnection(null);
+  }
+
+
+
+  /**
+   * Releases the connection back to the pool if it has not already been
+   * released.
+   *
+   * @param  exception  The exception that caused the search to fail, if it
+   *                    may have left the connection unusable.  It may be
+   *                    {@code null} if the connection should be released as
+   *                    valid.
+   */
+  void releaseConnection(final LDAPException exception)
+  {
+    if (! released.compareAndSet(false, true))
+    {
+      return;
+    }
+
+    if (exception == null)
+    {
+      pool.releaseConnection(connection);
+    }
+    else
+    {
+      pool.releaseConnectionAfterException(connection, exception);
+    }
+  }
+}
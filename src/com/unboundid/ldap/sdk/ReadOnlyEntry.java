@@ -176,6 +176,28 @@ public class ReadOnlyEntry
 
 
 
+  /**
+   * Creates a new read-only entry with the provided DN and set of attributes in
+   * encoded form.  The attributes will not be decoded until they are first
+   * needed.
+   *
+   * @param  dn                 The DN for this entry.  It must not be
+   *                            {@code null}.
+   * @param  schema             The schema to use for operations involving this
+   *                            entry.  It may be {@code null} if no schema is
+   *                            available.
+   * @param  encodedAttributes  The value of the BER sequence containing the
+   *                            encoded attributes for this entry.  It must not
+   *                            be {@code null}.
+   */
+  ReadOnlyEntry(final String dn, final Schema schema,
+                final byte[] encodedAttributes)
+  {
+    super(dn, schema, encodedAttributes);
+  }
+
+
+
   /**
    * Creates a new read-only entry from the provided {@link Entry}.
    *
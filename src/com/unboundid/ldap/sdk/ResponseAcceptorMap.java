@@ -0,0 +1,439 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.unboundid.util.InternalUseOnly;
+
+
+
+/**
+ * This class provides a concurrent map from message IDs to the response
+ * acceptors registered for them.  It uses open addressing with linear probing
+ * over primitive {@code int} keys, so that registering, looking up, and
+ * deregistering an acceptor does not require boxing the message ID or
+ * allocating any map entries.
+ * <BR><BR>
+ * Lookups do not acquire any locks.  Updates are serialized on the map itself,
+ * which is appropriate because each operation results in exactly one
+ * registration and one deregistration, while responses for searches may
+ * result in many lookups.  A removed entry leaves its key in place with a
+ * {@code null} value so that probe sequences for other keys are not broken,
+ * and such slots are reused by subsequent insertions.  Because a slot may be
+ * reused while a lookup is in progress, a lookup verifies that the key in a
+ * slot is unchanged after reading its value, so that an acceptor is never
+ * returned for a message ID other than the one with which it was registered.
+ * The table is rebuilt when the number of slots that have ever been used
+ * exceeds half its capacity.
+ */
+@InternalUseOnly()
+final class ResponseAcceptorMap
+{
+  /**
+   * The key value used to indicate that a slot has never been used.  Because
+   * this value cannot be stored in the table, an acceptor registered with this
+   * message ID will be held in a separate field.
+   */
+  private static final int EMPTY = Integer.MIN_VALUE;
+
+
+
+  /**
+   * The minimum capacity for the table.
+   */
+  private static final int MIN_CAPACITY = 16;
+
+
+
+  // The current table.  It will only be replaced while holding the lock on
+  // this map.
+  private volatile Table table;
+
+  // The acceptor registered with the message ID that is used as the empty key
+  // marker, if any.
+  private volatile ResponseAcceptor emptyKeyAcceptor;
+
+  // The number of acceptors currently in the map.
+  private volatile int size;
+
+
+
+  /**
+   * Creates a new, empty response acceptor map.
+   */
+  ResponseAcceptorMap()
+  {
+    table = new Table(MIN_CAPACITY);
+    emptyKeyAcceptor = null;
+    size = 0;
+  }
+
+
+
+  /**
+   * Retrieves the acceptor registered with the specified message ID.
+   *
+   * @param  messageID  The message ID for which to retrieve the acceptor.
+   *
+   * @return  The acceptor registered with the specified message ID, or
+   *          {@code null} if there is none.
+   */
+  ResponseAcceptor get(final int messageID)
+  {
+    if (messageID == EMPTY)
+    {
+      return emptyKeyAcceptor;
+    }
+
+    while (true)
+    {
+      final Table t = table;
+      final int mask = t.mask;
+      int index = hash(messageID) & mask;
+      while (true)
+      {
+        final int key = t.keys.get(index);
+        if (key == messageID)
+        {
+          // The slot may be reused for a different message ID between reading
+          // the key and reading the value, so make sure that the key has not
+          // changed.  If it has, then start over.
+          final ResponseAcceptor acceptor = t.values.get(index);
+          if (t.keys.get(index) == messageID)
+          {
+            return acceptor;
+          }
+
+          break;
+        }
+        else if (key == EMPTY)
+        {
+          return null;
+        }
+
+        index = (index + 1) & mask;
+      }
+    }
+  }
+
+
+
+  /**
+   * Registers the provided acceptor with the specified message ID if no
+   * acceptor is already registered with it.
+   *
+   * @param  messageID  The message ID with which to register the acceptor.
+   * @param  acceptor   The acceptor to register.  It must not be
+   *                    {@code null}.
+   *
+   * @return  The acceptor that was already registered with the specified
+   *          message ID, in which case the provided acceptor will not have
+   *          been registered, or {@code null} if the provided acceptor was
+   *          registered.
+   */
+  synchronized ResponseAcceptor putIfAbsent(final int messageID,
+                                            final ResponseAcceptor acceptor)
+  {
+    if (messageID == EMPTY)
+    {
+      final ResponseAcceptor existing = emptyKeyAcceptor;
+      if (existing == null)
+      {
+        emptyKeyAcceptor = acceptor;
+        size++;
+      }
+      return existing;
+    }
+
+    Table t = table;
+    int reusableIndex = -1;
+    int index = hash(messageID) & t.mask;
+    while (true)
+    {
+      final int key = t.keys.get(index);
+      if (key == messageID)
+      {
+        final ResponseAcceptor existing = t.values.get(index);
+        if (existing != null)
+        {
+          return existing;
+        }
+
+        // The key is present but its acceptor was removed, so we can just
+        // populate the value again.
+        t.values.set(index, acceptor);
+        size++;
+        return null;
+      }
+      else if (key == EMPTY)
+      {
+        break;
+      }
+      else if ((reusableIndex < 0) && (t.values.get(index) == null))
+      {
+        reusableIndex = index;
+      }
+
+      index = (index + 1) & t.mask;
+    }
+
+    if (reusableIndex >= 0)
+    {
+      // Reuse a slot previously used by a removed key.  A concurrent reader
+      // looking for the old key may still read the new acceptor, so the get
+      // method verifies that the key is unchanged after reading the value.
+      t.keys.set(reusableIndex, messageID);
+      t.values.set(reusableIndex, acceptor);
+      size++;
+      return null;
+    }
+
+    if ((t.usedSlots + 1) > (t.capacity >> 1))
+    {
+      t = rebuild(size + 1);
+      index = hash(messageID) & t.mask;
+      while (t.keys.get(index) != EMPTY)
+      {
+        index = (index + 1) & t.mask;
+      }
+    }
+
+    t.values.set(index, acceptor);
+    t.keys.set(index, messageID);
+    t.usedSlots++;
+    size++;
+    return null;
+  }
+
+
+
+  /**
+   * Removes the acceptor registered with the specified message ID.
+   *
+   * @param  messageID  The message ID for which to remove the acceptor.
+   *
+   * @return  The acceptor that was removed, or {@code null} if no acceptor was
+   *          registered with the specified message ID.
+   */
+  synchronized ResponseAcceptor remove(final int messageID)
+  {
+    if (messageID == EMPTY)
+    {
+      final ResponseAcceptor existing = emptyKeyAcceptor;
+      if (existing != null)
+      {
+        emptyKeyAcceptor = null;
+        size--;
+      }
+      return existing;
+    }
+
+    final Table t = table;
+    int index = hash(messageID) & t.mask;
+    while (true)
+    {
+      final int key = t.keys.get(index);
+      if (key == messageID)
+      {
+        final ResponseAcceptor existing = t.values.get(index);
+        if (existing != null)
+        {
+          t.values.set(index, null);
+          size--;
+        }
+        return existing;
+      }
+      else if (key == EMPTY)
+      {
+        return null;
+      }
+
+      index = (index + 1) & t.mask;
+    }
+  }
+
+
+
+  /**
+   * Retrieves the number of acceptors currently registered.
+   *
+   * @return  The number of acceptors currently registered.
+   */
+  int size()
+  {
+    return size;
+  }
+
+
+
+  /**
+   * Retrieves the message IDs for all acceptors that are currently registered.
+   *
+   * @return  The message IDs for all acceptors that are currently registered.
+   */
+  synchronized int[] getMessageIDs()
+  {
+    final int[] messageIDs = new int[size];
+    int pos = 0;
+    if (emptyKeyAcceptor != null)
+    {
+      messageIDs[pos++] = EMPTY;
+    }
+
+    final Table t = table;
+    for (int i=0; i < t.capacity; i++)
+    {
+      if (t.values.get(i) != null)
+      {
+        messageIDs[pos++] = t.keys.get(i);
+      }
+    }
+
+    return messageIDs;
+  }
+
+
+
+  /**
+   * Replaces the current table with a new one that contains only the slots
+   * that are currently in use, and that is large enough to hold the specified
+   * number of entries while remaining no more than one quarter full.  This
+   * must only be called while holding the lock on this map.
+   *
+   * @param  minEntries  The minimum number of entries that the new table must
+   *                     be able to hold.
+   *
+   * @return  The new table.
+   */
+  private Table rebuild(final int minEntries)
+  {
+    int capacity = MIN_CAPACITY;
+    while ((capacity >> 2) < minEntries)
+    {
+      capacity <<= 1;
+    }
+
+    final Table oldTable = table;
+    final Table newTable = new Table(capacity);
+    for (int i=0; i < oldTable.capacity; i++)
+    {
+      final ResponseAcceptor acceptor = oldTable.values.get(i);
+      if (acceptor != null)
+      {
+        final int key = oldTable.keys.get(i);
+        int index = hash(key) & newTable.mask;
+        while (newTable.keys.get(index) != EMPTY)
+        {
+          index = (index + 1) & newTable.mask;
+        }
+
+        newTable.values.set(index, acceptor);
+        newTable.keys.set(index, key);
+        newTable.usedSlots++;
+      }
+    }
+
+    table = newTable;
+    return newTable;
+  }
+
+
+
+  /**
+   * Computes the hash code to use for the provided message ID.  Message IDs are
+   * typically sequential, so the bits are spread to avoid long runs of
+   * adjacent occupied slots.
+   *
+   * @param  messageID  The message ID for which to compute the hash code.
+   *
+   * @return  The hash code for the provided message ID.
+   */
+  private static int hash(final int messageID)
+  {
+    final int h = messageID * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+
+
+  /**
+   * Retrieves a string representation of this map.
+   *
+   * @return  A string representation of this map.
+   */
+  @Override()
+  public String toString()
+  {
+    return "ResponseAcceptorMap(messageIDs=" +
+         Arrays.toString(getMessageIDs()) + ')';
+  }
+
+
+
+  /**
+   * This class provides a data structure that holds the keys and values for a
+   * response acceptor map.
+   */
+  private static final class Table
+  {
+    // The keys for each slot.
+    private final AtomicIntegerArray keys;
+
+    // The values for each slot.
+    private final AtomicReferenceArray<ResponseAcceptor> values;
+
+    // The number of slots in the table.
+    private final int capacity;
+
+    // The mask used to map a hash code to a slot.
+    private final int mask;
+
+    // The number of slots that have ever held a key.  It will only be accessed
+    // while holding the lock on the associated map.
+    private int usedSlots;
+
+
+
+    /**
+     * Creates a new, empty table with the specified capacity.
+     *
+     * @param  capacity  The number of slots in the table.  It must be a power
+     *                   of two.
+     */
+    private Table(final int capacity)
+    {
+      this.capacity = capacity;
+
+      final int[] emptyKeys = new int[capacity];
+      Arrays.fill(emptyKeys, EMPTY);
+
+      mask = capacity - 1;
+      keys = new AtomicIntegerArray(emptyKeys);
+      values = new AtomicReferenceArray<>(capacity);
+      usedSlots = 0;
+    }
+  }
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.io.Serializable;
+import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.unboundid.util.NotMutable;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+import com.unboundid.util.Validator;
+
+
+
+/**
+ * This class provides an immutable snapshot of the distribution of response
+ * times for a set of operations, which may be used to determine the median
+ * response time and other percentiles in addition to the average.  Response
+ * times are counted in logarithmically-sized buckets, with eight buckets for
+ * each power of two, so any percentile obtained from a histogram will be no
+ * more than 12.5% higher than the actual response time at that percentile.
+ * Response times longer than about 18 minutes are all counted in the same
+ * bucket.
+ * <BR><BR>
+ * Response time histograms may be obtained from
+ * {@link LDAPConnectionStatistics} and {@link LDAPConnectionPoolStatistics}
+ * objects, and histograms obtained from multiple sources (for example, from
+ * several connection pools) may be combined using the {@link #merge} method.
+ * <BR><BR>
+ * <H2>Example</H2>
+ * The following example demonstrates the process for obtaining the 99th
+ * percentile search response time, in milliseconds, for all searches
+ * processed using a connection pool since the last time the pool's response
+ * time histograms were reset:
+ * <PRE>
+ * Map&lt;OperationType,ResponseTimeHistogram&gt; histograms =
+ *      pool.getConnectionPoolStatistics().getAndResetResponseTimeHistograms();
+ * ResponseTimeHistogram searchHistogram =
+ *      histograms.get(OperationType.SEARCH);
+ * double p99SearchMillis = searchHistogram.getPercentileMillis(99.0d);
+ * </PRE>
+ */
+@NotMutable()
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+public final class ResponseTimeHistogram
+       implements Serializable
+{
+  /**
+   * The number of bits of each value (after the most significant bit) that
+   * will be used to select a bucket within each power of two.
+   */
+  private static final int SUB_BUCKET_BITS = 3;
+
+
+
+  /**
+   * The number of buckets for each power of two.
+   */
+  private static final int SUB_BUCKETS_PER_POWER = 1 << SUB_BUCKET_BITS;
+
+
+
+  /**
+   * The exponent of the largest power of two that will be tracked in its own
+   * set of buckets.  Any larger value will be counted in the last bucket.
+   */
+  private static final int MAX_EXPONENT = 40;
+
+
+
+  /**
+   * The total number of buckets in a histogram.
+   */
+  static final int NUM_BUCKETS =
+       (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS_PER_POWER;
+
+
+
+  /**
+   * The serial version UID for this serializable class.
+   */
+  private static final long serialVersionUID = -6034958122771806392L;
+
+
+
+  // The number of response times in each bucket.
+  private final long[] bucketCounts;
+
+  // The total number of response times in the histogram.
+  private final long count;
+
+  // The largest response time in the histogram, in nanoseconds.
+  private final long maxNanos;
+
+  // The smallest response time in the histogram, in nanoseconds.
+  private final long minNanos;
+
+  // The sum of all response times in the histogram, in nanoseconds.
+  private final long totalNanos;
+
+
+
+  /**
+   * Creates a new response time histogram with the provided information.
+   *
+   * @param  bucketCounts  The number of response times in each bucket.  It
+   *                       must not be {@code null} and must have exactly
+   *                       {@code NUM_BUCKETS} elements.  It will be used
+   *                       directly rather than copied.
+   * @param  totalNanos    The sum of all response times, in nanoseconds.
+   * @param  minNanos      The smallest response time, in nanoseconds.
+   * @param  maxNanos      The largest response time, in nanoseconds.
+   */
+  ResponseTimeHistogram(final long[] bucketCounts, final long totalNanos,
+                        final long minNanos, final long maxNanos)
+  {
+    this.bucketCounts = bucketCounts;
+
+    long c = 0L;
+    for (final long bucketCount : bucketCounts)
+    {
+      c += bucketCount;
+    }
+    count = c;
+
+    if (count == 0L)
+    {
+      this.totalNanos = 0L;
+      this.minNanos = 0L;
+      this.maxNanos = 0L;
+    }
+    else
+    {
+      this.totalNanos = totalNanos;
+      this.minNanos = Math.min(minNanos, maxNanos);
+      this.maxNanos = maxNanos;
+    }
+  }
+
+
+
+  /**
+   * Retrieves the index of the bucket in which the provided response time
+   * should be counted.
+   *
+   * @param  nanos  The response time in nanoseconds.
+   *
+   * @return  The index of the bucket in which the provided response time
+   *          should be counted.
+   */
+  static int getBucketIndex(final long nanos)
+  {
+    if (nanos < SUB_BUCKETS_PER_POWER)
+    {
+      return (int) Math.max(0L, nanos);
+    }
+
+    final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+    if (exponent > MAX_EXPONENT)
+    {
+      return NUM_BUCKETS - 1;
+    }
+
+    final int subBucket = (int) ((nanos >>> (exponent - SUB_BUCKET_BITS)) &
+         (SUB_BUCKETS_PER_POWER - 1));
+    return ((exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS_PER_POWER) +
+         subBucket;
+  }
+
+
+
+  /**
+   * Retrieves the largest response time, in nanoseconds, that would be counted
+   * in the specified bucket.
+   *
+   * @param  index  The index of the bucket.
+   *
+   * @return  The largest response time that would be counted in the specified
+   *          bucket.
+   */
+  static long getBucketUpperBound(final int index)
+  {
+    if (index < SUB_BUCKETS_PER_POWER)
+    {
+      return index;
+    }
+
+    final int exponent =
+         (index / SUB_BUCKETS_PER_POWER) + SUB_BUCKET_BITS - 1;
+    final long subBucket = index % SUB_BUCKETS_PER_POWER;
+    final int shift = exponent - SUB_BUCKET_BITS;
+    return ((SUB_BUCKETS_PER_POWER + subBucket + 1L) << shift) - 1L;
+  }
+
+
+
+  /**
+   * Creates a new histogram that combines all of the response times in the
+   * provided histograms.
+   *
+   * @param  histograms  The histograms to be merged.  It must not be
+   *                     {@code null} but may be empty.
+   *
+   * @return  The merged histogram.
+   */
+  public static ResponseTimeHistogram merge(
+                     final ResponseTimeHistogram... histograms)
+  {
+    Validator.ensureNotNull(histograms);
+    return merge(Arrays.asList(histograms));
+  }
+
+
+
+  /**
+   * Creates a new histogram that combines all of the response times in the
+   * provided histograms.
+   *
+   * @param  histograms  The histograms to be merged.  It must not be
+   *                     {@code null} but may be empty.  Any {@code null}
+   *                     elements will be ignored.
+   *
+   * @return  The merged histogram.
+   */
+  public static ResponseTimeHistogram merge(
+                     final Collection<ResponseTimeHistogram> histograms)
+  {
+    Validator.ensureNotNull(histograms);
+
+    final long[] mergedCounts = new long[NUM_BUCKETS];
+    long mergedTotal = 0L;
+    long mergedMin = Long.MAX_VALUE;
+    long mergedMax = 0L;
+    for (final ResponseTimeHistogram h : histograms)
+    {
+      if ((h == null) || (h.count == 0L))
+      {
+        continue;
+      }
+
+      for (int i=0; i < NUM_BUCKETS; i++)
+      {
+        mergedCounts[i] += h.bucketCounts[i];
+      }
+
+      mergedTotal += h.totalNanos;
+      mergedMin = Math.min(mergedMin, h.minNanos);
+      mergedMax = Math.max(mergedMax, h.maxNanos);
+    }
+
+    return new ResponseTimeHistogram(mergedCounts, mergedTotal, mergedMin,
+         mergedMax);
+  }
+
+
+
+  /**
+   * Retrieves the number of response times included in this histogram.
+   *
+   * @return  The number of response times included in this histogram.
+   */
+  public long getCount()
+  {
+    return count;
+  }
+
+
+
+  /**
+   * Retrieves the sum of all response times included in this histogram, in
+   * nanoseconds.
+   *
+   * @return  The sum of all response times included in this histogram, in
+   *          nanoseconds.
+   */
+  public long getTotalResponseTimeNanos()
+  {
+    return totalNanos;
+  }
+
+
+
+  /**
+   * Retrieves the smallest response time included in this histogram, in
+   * nanoseconds.
+   *
+   * @return  The smallest response time included in this histogram, in
+   *          nanoseconds, or zero if the histogram is empty.
+   */
+  public long getMinimumResponseTimeNanos()
+  {
+    return minNanos;
+  }
+
+
+
+  /**
+   * Retrieves the largest response time included in this histogram, in
+   * nanoseconds.
+   *
+   * @return  The largest response time included in this histogram, in
+   *          nanoseconds, or zero if the histogram is empty.
+   */
+  public long getMaximumResponseTimeNanos()
+  {
+    return maxNanos;
+  }
+
+
+
+  /**
+   * Retrieves the average of all response times included in this histogram,
+   * in nanoseconds.
+   *
+   * @return  The average of all response times included in this histogram, in
+   *          nanoseconds, or {@code Double.NaN} if the histogram is empty.
+   */
+  public double getAverageResponseTimeNanos()
+  {
+    if (count > 0L)
+    {
+      return (1.0d * totalNanos / count);
+    }
+    else
+    {
+      return Double.NaN;
+    }
+  }
+
+
+
+  /**
+   * Retrieves the average of all response times included in this histogram,
+   * in milliseconds.
+   *
+   * @return  The average of all response times included in this histogram, in
+   *          milliseconds, or {@code Double.NaN} if the histogram is empty.
+   */
+  public double getAverageResponseTimeMillis()
+  {
+    if (count > 0L)
+    {
+      return (totalNanos / 1000000.0d / count);
+    }
+    else
+    {
+      return Double.NaN;
+    }
+  }
+
+
+
+  /**
+   * Retrieves the response time, in nanoseconds, at the specified percentile.
+   * That is, the smallest response time for which at least the specified
+   * percentage of the response times in this histogram are less than or equal
+   * to it.  Because response times are grouped into buckets, the value
+   * returned will be the upper bound of the bucket containing the response
+   * time at the specified percentile (but no larger than the largest response
+   * time in the histogram).
+   *
+   * @param  percentile  The percentile for which to retrieve the response
+   *                     time.  It must be greater than zero and less than or
+   *                     equal to 100.  For example, a value of 50 will
+   *                     retrieve the median response time, and a value of
+   *                     99.9 will retrieve the response time that 99.9% of
+   *                     operations did not exceed.
+   *
+   * @return  The response time, in nanoseconds, at the specified percentile,
+   *          or {@code Double.NaN} if the histogram is empty.
+   */
+  public double getPercentileNanos(final double percentile)
+  {
+    Validator.ensureTrue(((percentile > 0.0d) && (percentile <= 100.0d)),
+         "ResponseTimeHistogram.getPercentileNanos.percentile must be " +
+              "greater than zero and less than or equal to 100.");
+
+    if (count == 0L)
+    {
+      return Double.NaN;
+    }
+
+    final long targetRank =
+         Math.max(1L, (long) Math.ceil(percentile / 100.0d * count));
+    long cumulativeCount = 0L;
+    for (int i=0; i < NUM_BUCKETS; i++)
+    {
+      cumulativeCount += bucketCounts[i];
+      if (cumulativeCount >= targetRank)
+      {
+        return Math.max(minNanos, Math.min(maxNanos, getBucketUpperBound(i)));
+      }
+    }
+
+    return maxNanos;
+  }
+
+
+
+  /**
+   * Retrieves the response time, in milliseconds, at the specified percentile.
+   * See the {@link #getPercentileNanos} method for details.
+   *
+   * @param  percentile  The percentile for which to retrieve the response
+   *                     time.  It must be greater than zero and less than or
+   *                     equal to 100.
+   *
+   * @return  The response time, in milliseconds, at the specified percentile,
+   *          or {@code Double.NaN} if the histogram is empty.
+   */
+  public double getPercentileMillis(final double percentile)
+  {
+    return getPercentileNanos(percentile) / 1000000.0d;
+  }
+
+
+
+  /**
+   * Retrieves a string representation of this response time histogram.
+   *
+   * @return  A string representation of this response time histogram.
+   */
+  @Override()
+  public String toString()
+  {
+    final StringBuilder buffer = new StringBuilder();
+    toString(buffer);
+    return buffer.toString();
+  }
+
+
+
+  /**
+   * Appends a string representation of this response time histogram to the
+   * provided buffer.
+   *
+   * @param  buffer  The buffer to which the string representation should be
+   *                 appended.
+   */
+  public void toString(final StringBuilder buffer)
+  {
+    buffer.append("ResponseTimeHistogram(count=");
+    buffer.append(count);
+
+    if (count > 0L)
+    {
+      final DecimalFormat f = new DecimalFormat("0.000");
+      buffer.append(", minResponseTimeNanos=");
+      buffer.append(minNanos);
+      buffer.append(", maxResponseTimeNanos=");
+      buffer.append(maxNanos);
+      buffer.append(", averageResponseTimeNanos=");
+      buffer.append(f.format(getAverageResponseTimeNanos()));
+      buffer.append(", p50ResponseTimeNanos=");
+      buffer.append(f.format(getPercentileNanos(50.0d)));
+      buffer.append(", p99ResponseTimeNanos=");
+      buffer.append(f.format(getPercentileNanos(99.0d)));
+      buffer.append(", p999ResponseTimeNanos=");
+      buffer.append(f.format(getPercentileNanos(99.9d)));
+    }
+
+    buffer.append(')');
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import com.unboundid.util.InternalUseOnly;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+
+
+
+/**
+ * This interface defines a method that may be used to be notified of the
+ * response times for operations processed on a connection.  It is used by
+ * server sets that take the observed responsiveness of each server into
+ * account when choosing the server to which a new connection should be
+ * established.
+ * <BR><BR>
+ * Implementations of this interface must be threadsafe, must not block, and
+ * should be as inexpensive as possible, since they will be invoked for every
+ * response received on the connection, potentially by multiple threads at
+ * the same time.
+ */
+@InternalUseOnly()
+@ThreadSafety(level=ThreadSafetyLevel.INTERFACE_THREADSAFE)
+interface ResponseTimeObserver
+{
+  /**
+   * Indicates that a response was received for an operation of the specified
+   * type.
+   *
+   * @param  operationType  The type of operation that was processed.
+   * @param  responseTime   The length of time in nanoseconds between sending
+   *                        the request and receiving the response.
+   */
+  void responseTimeRecorded(OperationType operationType, long responseTime);
+}
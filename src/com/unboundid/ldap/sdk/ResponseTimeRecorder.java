@@ -0,0 +1,303 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.unboundid.util.InternalUseOnly;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+
+
+
+/**
+ * This class provides a lock-free mechanism for recording response times in
+ * the logarithmically-sized buckets used by {@link ResponseTimeHistogram}.
+ * Recording a response time only requires a handful of atomic updates and
+ * never blocks, so it is suitable for use on every operation processed by a
+ * connection or connection pool.  The bucket counts are not allocated until
+ * the first response time is recorded, so that connections that never use a
+ * given operation type do not pay for it.
+ */
+@InternalUseOnly()
+@ThreadSafety(level=ThreadSafetyLevel.COMPLETELY_THREADSAFE)
+final class ResponseTimeRecorder
+      implements Serializable
+{
+  /**
+   * The set of operation types for which response times may be recorded.
+   */
+  private static final OperationType[] RESPONSE_OPERATION_TYPES =
+  {
+    OperationType.ADD,
+    OperationType.BIND,
+    OperationType.COMPARE,
+    OperationType.DELETE,
+    OperationType.EXTENDED,
+    OperationType.MODIFY,
+    OperationType.MODIFY_DN,
+    OperationType.SEARCH
+  };
+
+
+
+  /**
+   * The serial version UID for this serializable class.
+   */
+  private static final long serialVersionUID = 3712964018283690157L;
+
+
+
+  // The largest response time recorded, in nanoseconds.
+  private final AtomicLong maxNanos;
+
+  // The smallest response time recorded, in nanoseconds.
+  private final AtomicLong minNanos;
+
+  // The sum of all response times recorded, in nanoseconds.
+  private final AtomicLong totalNanos;
+
+  // The number of response times recorded in each bucket.  It will be
+  // allocated when the first response time is recorded.
+  private volatile AtomicLongArray bucketCounts;
+
+
+
+  /**
+   * Creates a new, empty response time recorder.
+   */
+  ResponseTimeRecorder()
+  {
+    maxNanos = new AtomicLong(0L);
+    minNanos = new AtomicLong(Long.MAX_VALUE);
+    totalNanos = new AtomicLong(0L);
+    bucketCounts = null;
+  }
+
+
+
+  /**
+   * Creates a map with a new recorder for each operation type that may have a
+   * response.
+   *
+   * @return  The map that was created.
+   */
+  static Map<OperationType,ResponseTimeRecorder> createRecorderMap()
+  {
+    final EnumMap<OperationType,ResponseTimeRecorder> m =
+         new EnumMap<>(OperationType.class);
+    for (final OperationType t : RESPONSE_OPERATION_TYPES)
+    {
+      m.put(t, new ResponseTimeRecorder());
+    }
+
+    return Collections.unmodifiableMap(m);
+  }
+
+
+
+  /**
+   * Retrieves a map with a snapshot of each recorder in the provided map,
+   * optionally resetting each recorder.
+   *
+   * @param  recorders  The map of recorders for which to obtain snapshots.
+   * @param  reset      Indicates whether to reset each recorder as its
+   *                    snapshot is obtained.
+   *
+   * @return  A map with a snapshot of each recorder in the provided map.
+   */
+  static Map<OperationType,ResponseTimeHistogram> getSnapshots(
+              final Map<OperationType,ResponseTimeRecorder> recorders,
+              final boolean reset)
+  {
+    final EnumMap<OperationType,ResponseTimeHistogram> m =
+         new EnumMap<>(OperationType.class);
+    for (final Map.Entry<OperationType,ResponseTimeRecorder> e :
+         recorders.entrySet())
+    {
+      if (reset)
+      {
+        m.put(e.getKey(), e.getValue().getSnapshotAndReset());
+      }
+      else
+      {
+        m.put(e.getKey(), e.getValue().getSnapshot());
+      }
+    }
+
+    return Collections.unmodifiableMap(m);
+  }
+
+
+
+  /**
+   * Records the provided response time.
+   *
+   * @param  nanos  The response time to record, in nanoseconds.  Negative
+   *                values will be ignored.
+   */
+  void record(final long nanos)
+  {
+    if (nanos < 0L)
+    {
+      return;
+    }
+
+    AtomicLongArray counts = bucketCounts;
+    if (counts == null)
+    {
+      synchronized (this)
+      {
+        counts = bucketCounts;
+        if (counts == null)
+        {
+          counts = new AtomicLongArray(ResponseTimeHistogram.NUM_BUCKETS);
+          bucketCounts = counts;
+        }
+      }
+    }
+
+    counts.incrementAndGet(ResponseTimeHistogram.getBucketIndex(nanos));
+    totalNanos.addAndGet(nanos);
+
+    long currentMin = minNanos.get();
+    while ((nanos < currentMin) &&
+           (! minNanos.compareAndSet(currentMin, nanos)))
+    {
+      currentMin = minNanos.get();
+    }
+
+    long currentMax = maxNanos.get();
+    while ((nanos > currentMax) &&
+           (! maxNanos.compareAndSet(currentMax, nanos)))
+    {
+      currentMax = maxNanos.get();
+    }
+  }
+
+
+
+  /**
+   * Retrieves a snapshot of the response times recorded so far.  Response
+   * times recorded concurrently with this method may or may not be included.
+   *
+   * @return  A snapshot of the response times recorded so far.
+   */
+  ResponseTimeHistogram getSnapshot()
+  {
+    return snapshot(false);
+  }
+
+
+
+  /**
+   * Retrieves a snapshot of the response times recorded so far and resets
+   * this recorder so that subsequent snapshots will only include response
+   * times recorded after this method was called.  Each recorded bucket count
+   * will be included in exactly one snapshot, although the total, minimum, and
+   * maximum response times may be attributed to an adjacent interval for
+   * operations recorded concurrently with this method.
+   *
+   * @return  A snapshot of the response times recorded since the last reset.
+   */
+  ResponseTimeHistogram getSnapshotAndReset()
+  {
+    return snapshot(true);
+  }
+
+
+
+  /**
+   * Resets this recorder so that it no longer includes any response times.
+   */
+  void reset()
+  {
+    snapshot(true);
+  }
+
+
+
+  /**
+   * Retrieves a snapshot of the response times recorded so far, optionally
+   * resetting this recorder.
+   *
+   * @param  reset  Indicates whether to reset this recorder.
+   *
+   * @return  The snapshot that was obtained.
+   */
+  private ResponseTimeHistogram snapshot(final boolean reset)
+  {
+    final long[] counts = new long[ResponseTimeHistogram.NUM_BUCKETS];
+    final long total;
+    final long min;
+    final long max;
+    if (reset)
+    {
+      total = totalNanos.getAndSet(0L);
+      min = minNanos.getAndSet(Long.MAX_VALUE);
+      max = maxNanos.getAndSet(0L);
+    }
+    else
+    {
+      total = totalNanos.get();
+      min = minNanos.get();
+      max = maxNanos.get();
+    }
+
+    final AtomicLongArray a = bucketCounts;
+    if (a != null)
+    {
+      for (int i=0; i < counts.length; i++)
+      {
+        if (reset)
+        {
+          counts[i] = a.getAndSet(i, 0L);
+        }
+        else
+        {
+          counts[i] = a.get(i);
+        }
+      }
+    }
+
+    return new ResponseTimeHistogram(counts, total, min, max);
+  }
+
+
+
+  /**
+   * Retrieves a string representation of this response time recorder.
+   *
+   * @return  A string representation of this response time recorder.
+   */
+  @Override()
+  public String toString()
+  {
+    return getSnapshot().toString();
+  }
+}
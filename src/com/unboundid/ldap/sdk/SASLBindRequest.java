@@ -25,8 +25,6 @@ package com.unboundid.ldap.sdk;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import com.unboundid.asn1.ASN1OctetString;
@@ -76,8 +74,8 @@ public abstract class SASLBindRequest
   // The message ID to use for LDAP messages used in bind processing.
   private int messageID;
 
-  // The queue used to receive responses from the server.
-  private final LinkedBlockingQueue<LDAPResponse> responseQueue;
+  // The handoff used to receive responses from the server.
+  private final LDAPResponseHandoff responseHandoff;
 
 
 
@@ -90,8 +88,8 @@ public abstract class SASLBindRequest
   {
     super(controls);
 
-    messageID     = -1;
-    responseQueue = new LinkedBlockingQueue<>();
+    messageID       = -1;
+    responseHandoff = new LDAPResponseHandoff();
   }
 
 
@@ -192,6 +190,7 @@ public abstract class SASLBindRequest
     }
 
     final int msgID = requestMessage.getMessageID();
+    responseHandoff.clear();
     connection.registerResponseAcceptor(msgID, this);
     try
     {
@@ -206,11 +205,11 @@ public abstract class SASLBindRequest
       {
         if (timeoutMillis > 0)
         {
-          response = responseQueue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+          response = responseHandoff.poll(timeoutMillis);
         }
         else
         {
-          response = responseQueue.take();
+          response = responseHandoff.take();
         }
       }
       catch (final InterruptedException ie)
@@ -342,7 +341,7 @@ public abstract class SASLBindRequest
   {
     try
     {
-      responseQueue.put(response);
+      responseHandoff.put(response);
     }
     catch (final Exception e)
     {
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import com.unboundid.util.Debug;
+import com.unboundid.util.InternalUseOnly;
+import com.unboundid.util.StaticUtils;
+
+import static com.unboundid.ldap.sdk.LDAPMessages.*;
+
+
+
+/**
+ * This class allows identical searches that are processed concurrently
+ * through an {@link AbstractConnectionPool} to share a single request to the
+ * server.  If a search is requested while an identical search is already in
+ * progress, then the caller will wait for the in-progress search to complete
+ * and will receive its result rather than sending a request of its own.
+ * <BR><BR>
+ * Two searches are considered identical if they have the same base DN and
+ * filter, the same scope, dereference policy, size and time limits, and
+ * typesOnly flag, and the same set of requested attributes (without regard to
+ * order or capitalization).  The base DN and filter are compared exactly as
+ * provided rather than in normalized form, because normalizing them without
+ * access to the server schema would ignore differences in capitalization that
+ * are significant for attributes with case-sensitive matching rules.
+ * Searches that include request controls, that use a search result listener,
+ * or that have non-default referral settings will never be coalesced.
+ * <BR><BR>
+ * Search results and search result entries cannot be altered, so the result
+ * of a search is shared by all callers that requested it.  If the search
+ * fails, then each caller will receive its own exception that wraps the same
+ * search result.
+ */
+@InternalUseOnly()
+final class SearchCoalescer
+{
+  // The searches that are currently in progress, indexed by a string
+  // representation of the search request.
+  private final ConcurrentHashMap<String,InFlightSearch> inFlightSearches;
+
+  // The connection pool that will be used to process searches.
+  private final AbstractConnectionPool pool;
+
+
+
+  /**
+   * Creates a new search coalescer for the provided connection pool.
+   *
+   * @param  pool  The connection pool that will be used to process searches.
+   *               It must not be {@code null}.
+   */
+  SearchCoalescer(final AbstractConnectionPool pool)
+  {
+    this.pool = pool;
+
+    inFlightSearches = new ConcurrentHashMap<>(StaticUtils.computeMapCapacity(
+         16));
+  }
+
+
+
+  /**
+   * Processes the provided search request, sharing the result of an identical
+   * search that is already in progress if there is one.
+   *
+   * @param  searchRequest  The search request to be processed.  It must not be
+   *                        {@code null}.
+   *
+   * @return  The result of processing the search.
+   *
+   * @throws  LDAPSearchException  If the search does not complete
+   *                               successfully.
+   */
+  SearchResult search(final SearchRequest searchRequest)
+         throws LDAPSearchException
+  {
+    final String key = getKey(searchRequest);
+    if (key == null)
+    {
+      return pool.processSearch(searchRequest);
+    }
+
+    final InFlightSearch flight = new InFlightSearch();
+    while (true)
+    {
+      final InFlightSearch existingFlight =
+           inFlightSearches.putIfAbsent(key, flight);
+      if (existingFlight == null)
+      {
+        break;
+      }
+
+      if (existingFlight.join())
+      {
+        final LDAPConnectionPoolStatistics stats =
+             pool.getConnectionPoolStatistics();
+        if (stats != null)
+        {
+          stats.incrementNumCoalescedSearches();
+        }
+
+        return existingFlight.awaitResult();
+      }
+
+      // The existing search completed after it was retrieved from the map but
+      // before we could join it.  It will already have been removed from the
+      // map, so try again.
+    }
+
+    try
+    {
+      flight.result = pool.processSearch(searchRequest);
+      return flight.result;
+    }
+    catch (final LDAPSearchException lse)
+    {
+      Debug.debugException(lse);
+      flight.exception = lse;
+      throw lse;
+    }
+    finally
+    {
+      inFlightSearches.remove(key, flight);
+      flight.complete();
+    }
+  }
+
+
+
+  /**
+   * Processes the provided search request, which is expected to return at most
+   * one entry, sharing the result of an identical search that is already in
+   * progress if there is one.
+   *
+   * @param  searchRequest  The search request to be processed.  It must not be
+   *                        {@code null}.  If it is configured with a size limit
+   *                        other than one, then the provided request will be
+   *                        duplicated with the appropriate size limit.
+   *
+   * @return  The entry that was returned from the search, or {@code null} if no
+   *          entry was returned or the base entry does not exist.
+   *
+   * @throws  LDAPSearchException  If the search does not complete
+   *                               successfully, or if more than a single entry
+   *                               is returned.
+   */
+  SearchResultEntry searchForEntry(final SearchRequest searchRequest)
+         throws LDAPSearchException
+  {
+    final SearchRequest r;
+    if (searchRequest.getSizeLimit() != 1)
+    {
+      r = new SearchRequest(searchRequest.getBaseDN(), searchRequest.getScope(),
+           searchRequest.getDereferencePolicy(), 1,
+           searchRequest.getTimeLimitSeconds(), searchRequest.typesOnly(),
+           searchRequest.getFilter(), searchRequest.getAttributes());
+
+      r.setFollowReferrals(searchRequest.followReferralsInternal());
+      r.setReferralConnector(searchRequest.getReferralConnectorInternal());
+      r.setResponseTimeoutMillis(searchRequest.getResponseTimeoutMillis(null));
+
+      if (searchRequest.hasControl())
+      {
+        r.setControlsInternal(searchRequest.getControls());
+      }
+    }
+    else
+    {
+      r = searchRequest;
+    }
+
+    final SearchResult result;
+    try
+    {
+      result = search(r);
+    }
+    catch (final LDAPSearchException lse)
+    {
+      Debug.debugException(lse);
+
+      if (lse.getResultCode() == ResultCode.NO_SUCH_OBJECT)
+      {
+        return null;
+      }
+
+      throw lse;
+    }
+
+    if (result.getEntryCount() == 0)
+    {
+      return null;
+    }
+    else
+    {
+      return result.getSearchEntries().get(0);
+    }
+  }
+
+
+
+  /**
+   * Retrieves the key that will be used to identify identical searches.
+   *
+   * @param  searchRequest  The search request for which to obtain the key.
+   *
+   * @return  The key for the provided search request, or {@code null} if the
+   *          search request should not be coalesced with other searches.
+   */
+  static String getKey(final SearchRequest searchRequest)
+  {
+    if ((searchRequest.getSearchResultListener() != null) ||
+        searchRequest.hasControl() ||
+        (searchRequest.followReferralsInternal() != null) ||
+        (searchRequest.getReferralConnectorInternal() != null))
+    {
+      return null;
+    }
+
+    final String[] attributes = searchRequest.getAttributes();
+    final String[] lowerAttributes = new String[attributes.length];
+    for (int i=0; i < attributes.length; i++)
+    {
+      lowerAttributes[i] = StaticUtils.toLowerCase(attributes[i]);
+    }
+    Arrays.sort(lowerAttributes);
+
+    final StringBuilder buffer = new StringBuilder();
+    buffer.append(searchRequest.getBaseDN());
+    buffer.append('\u0000');
+    buffer.append(searchRequest.getScope().intValue());
+    buffer.append(',');
+    buffer.append(searchRequest.getDereferencePolicy().intValue());
+    buffer.append(',');
+    buffer.append(searchRequest.getSizeLimit());
+    buffer.append(',');
+    buffer.append(searchRequest.getTimeLimitSeconds());
+    buffer.append(',');
+    buffer.append(searchRequest.typesOnly());
+    buffer.append(',');
+    buffer.append(searchRequest.getResponseTimeoutMillis(null));
+    buffer.append('\u0000');
+    searchRequest.getFilter().toString(buffer);
+    for (final String attribute : lowerAttributes)
+    {
+      buffer.append('\u0000');
+      buffer.append(attribute);
+    }
+
+    return buffer.toString();
+  }
+
+
+
+  /**
+   * This class holds information about a search that is in progress.
+   */
+  private static final class InFlightSearch
+  {
+    // The latch that will be released when the search has completed.
+    private final CountDownLatch latch;
+
+    // Indicates whether the search has completed.
+    private boolean completed;
+
+    // The exception thrown while processing the search, if any.
+    private volatile LDAPSearchException exception;
+
+    // The result of processing the search, if it completed successfully.
+    private volatile SearchResult result;
+
+
+
+    /**
+     * Creates a new in-flight search.
+     */
+    private InFlightSearch()
+    {
+      latch = new CountDownLatch(1);
+      completed = false;
+      exception = null;
+      result = null;
+    }
+
+
+
+    /**
+     * Attempts to register the caller to receive the result of this search.
+     *
+     * @return  {@code true} if the caller has been registered and should wait
+     *          for the result, or {@code false} if the search has already
+     *          completed and the caller will need to process its own search.
+     */
+    private synchronized boolean join()
+    {
+      return (! completed);
+    }
+
+
+
+    /**
+     * Indicates that the search has completed and releases any callers that
+     * are waiting on its result.
+     */
+    private void complete()
+    {
+      synchronized (this)
+      {
+        completed = true;
+      }
+
+      latch.countDown();
+    }
+
+
+
+    /**
+     * Waits for the search to complete and retrieves its result.
+     *
+     * @return  The result of the search.
+     *
+     * @throws  LDAPSearchException  If the search did not complete
+     *                               successfully, or if the thread is
+     *                               interrupted while waiting for it.
+     */
+    private SearchResult awaitResult()
+            throws LDAPSearchException
+    {
+      try
+      {
+        latch.await();
+      }
+      catch (final InterruptedException ie)
+      {
+        Debug.debugException(ie);
+        Thread.currentThread().interrupt();
+        throw new LDAPSearchException(ResultCode.LOCAL_ERROR,
+             ERR_SEARCH_COALESCER_INTERRUPTED.get(), ie);
+      }
+
+      final LDAPSearchException lse = exception;
+      if (lse != null)
+      {
+        throw new LDAPSearchException(lse.getSearchResult());
+      }
+
+      final SearchResult r = result;
+      if (r == null)
+      {
+        throw new LDAPSearchException(ResultCode.LOCAL_ERROR,
+             ERR_SEARCH_COALESCER_NO_RESULT.get());
+      }
+
+      return r;
+    }
+  }
+}
@@ -194,7 +194,8 @@ import static com.unboundid.ldap.sdk.LDAPMessages.*;
 @ThreadSafety(level=ThreadSafetyLevel.NOT_THREADSAFE)
 public final class SearchRequest
        extends UpdatableLDAPRequest
-       implements ReadOnlySearchRequest, ResponseAcceptor, ProtocolOp
+       implements ReadOnlySearchRequest, FlowControlledResponseAcceptor,
+                  ProtocolOp
 {
   /**
    * The special value "*" that can be included in the set of requested
@@ -263,6 +264,10 @@ public final class SearchRequest
   private final LinkedBlockingQueue<LDAPResponse> responseQueue =
        new LinkedBlockingQueue<>(50);
 
+  // The shared connection reader that has suspended reading because it was
+  // unable to add a response to the response queue, if any.
+  private transient volatile SharedConnectionReader stalledReader = null;
+
   // The search result listener that should be used to return results
   // interactively to the requester.
   private final SearchResultListener searchResultListener;
@@ -721,6 +726,7 @@ public final class SearchRequest
    */
   public void setBaseDN(final String baseDN)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(baseDN);
 
     this.baseDN = baseDN;
@@ -736,6 +742,7 @@ public final class SearchRequest
    */
   public void setBaseDN(final DN baseDN)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(baseDN);
 
     this.baseDN = baseDN.toString();
@@ -761,6 +768,7 @@ public final class SearchRequest
    */
   public void setScope(final SearchScope scope)
   {
+    clearEncodingTemplate();
     this.scope = scope;
   }
 
@@ -787,6 +795,7 @@ public final class SearchRequest
    */
   public void setDerefPolicy(final DereferencePolicy derefPolicy)
   {
+    clearEncodingTemplate();
     this.derefPolicy = derefPolicy;
   }
 
@@ -824,6 +833,7 @@ public final class SearchRequest
    */
   public void setSizeLimit(final int sizeLimit)
   {
+    clearEncodingTemplate();
     if (sizeLimit < 0)
     {
       this.sizeLimit = 0;
@@ -868,6 +878,7 @@ public final class SearchRequest
    */
   public void setTimeLimitSeconds(final int timeLimit)
   {
+    clearEncodingTemplate();
     if (timeLimit < 0)
     {
       this.timeLimit = 0;
@@ -901,6 +912,7 @@ public final class SearchRequest
    */
   public void setTypesOnly(final boolean typesOnly)
   {
+    clearEncodingTemplate();
     this.typesOnly = typesOnly;
   }
 
@@ -930,6 +942,7 @@ public final class SearchRequest
   public void setFilter(final String filter)
          throws LDAPException
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(filter);
 
     this.filter = Filter.create(filter);
@@ -945,6 +958,7 @@ public final class SearchRequest
    */
   public void setFilter(final Filter filter)
   {
+    clearEncodingTemplate();
     Validator.ensureNotNull(filter);
 
     this.filter = filter;
@@ -988,6 +1002,7 @@ public final class SearchRequest
    */
   public void setAttributes(final String... attributes)
   {
+    clearEncodingTemplate();
     if (attributes == null)
     {
       this.attributes = REQUEST_ATTRS_DEFAULT;
@@ -1010,6 +1025,7 @@ public final class SearchRequest
    */
   public void setAttributes(final List<String> attributes)
   {
+    clearEncodingTemplate();
     if (attributes == null)
     {
       this.attributes = REQUEST_ATTRS_DEFAULT;
@@ -1056,6 +1072,11 @@ public final class SearchRequest
   @Override()
   public void writeTo(final ASN1Buffer writer)
   {
+    if (writeUsingTemplate(writer))
+    {
+      return;
+    }
+
     final ASN1BufferSequence requestSequence =
          writer.beginSequence(LDAPMessage.PROTOCOL_OP_TYPE_SEARCH_REQUEST);
     writer.addOctetString(baseDN);
@@ -1085,6 +1106,12 @@ public final class SearchRequest
   @Override()
   public ASN1Element encodeProtocolOp()
   {
+    final ASN1Element templateElement = encodeUsingTemplate();
+    if (templateElement != null)
+    {
+      return templateElement;
+    }
+
     // Create the search request protocol op.
     final ASN1Element[] attrElements = new ASN1Element[attributes.length];
     for (int i=0; i < attrElements.length; i++)
@@ -1180,6 +1207,13 @@ public final class SearchRequest
           {
             response = responseQueue.take();
           }
+
+          if ((response != null) && (stalledReader != null))
+          {
+            final SharedConnectionReader reader = stalledReader;
+            stalledReader = null;
+            reader.responseConsumed();
+          }
         }
         catch (final InterruptedException ie)
         {
@@ -1424,6 +1458,75 @@ public final class SearchRequest
 
 
 
+  /**
+   * Sends this search request to the directory server over the provided
+   * connection and delivers the results to the provided subscriber as it
+   * requests them.
+   *
+   * @param  connection  The connection to use to communicate with the
+   *                     directory server.
+   * @param  subscriber  The subscriber to which the results should be
+   *                     delivered.
+   *
+   * @return  The async request ID created for the operation.
+   *
+   * @throws  LDAPException  If a problem occurs while sending the request.
+   */
+  AsyncRequestID processStreaming(final LDAPConnection connection,
+                                  final SearchResultSubscriber subscriber)
+                 throws LDAPException
+  {
+    // Create the LDAP message and the helper that will act as the response
+    // acceptor.  The subscriber must be given the subscription before the
+    // request is sent, so that it has an opportunity to request results.
+    messageID = connection.nextMessageID();
+    final LDAPMessage message = new LDAPMessage(messageID, this, getControls());
+    final StreamingSearchHelper helper = new StreamingSearchHelper(connection,
+         messageID, subscriber, getIntermediateResponseListener());
+    final AsyncRequestID asyncRequestID = helper.getAsyncRequestID();
+
+    subscriber.onSubscribe(helper);
+    if (helper.isTerminated())
+    {
+      return asyncRequestID;
+    }
+
+    connection.registerResponseAcceptor(messageID, helper);
+
+    final long timeout = getResponseTimeoutMillis(connection);
+    if (timeout > 0L)
+    {
+      final Timer timer = connection.getTimer();
+      final AsyncTimeoutTimerTask timerTask =
+           new AsyncTimeoutTimerTask(helper);
+      timer.schedule(timerTask, timeout);
+      asyncRequestID.setTimerTask(timerTask);
+    }
+
+
+    // Send the request to the server.
+    try
+    {
+      Debug.debugLDAPRequest(Level.INFO, this, messageID, connection);
+      connection.getConnectionStatistics().incrementNumSearchRequests();
+      helper.setRequestSent();
+      connection.sendMessage(message, timeout);
+      return asyncRequestID;
+    }
+    catch (final LDAPException le)
+    {
+      Debug.debugException(le);
+
+      // Cancel the subscription so that the subscriber will not be notified
+      // of a timeout for a request that could not be sent.
+      helper.cancel();
+      connection.deregisterResponseAcceptor(messageID);
+      throw le;
+    }
+  }
+
+
+
   /**
    * Processes this search operation in synchronous mode, in which the same
    * thread will send the request and read the response.
@@ -2011,6 +2114,34 @@ public final class SearchRequest
 
 
 
+  /**
+   * {@inheritDoc}
+   */
+  @InternalUseOnly()
+  @Override()
+  public boolean offerResponse(final LDAPResponse response,
+                        final SharedConnectionReader reader)
+  {
+    if (responseQueue.offer(response))
+    {
+      return true;
+    }
+
+    // Register the reader to be notified before trying again, so that the
+    // notification cannot be missed if the requester consumes a response in
+    // the meantime.
+    stalledReader = reader;
+    if (responseQueue.offer(response))
+    {
+      stalledReader = null;
+      return true;
+    }
+
+    return false;
+  }
+
+
+
   /**
    * {@inheritDoc}
    */
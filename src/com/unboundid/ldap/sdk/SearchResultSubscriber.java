@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import com.unboundid.util.Extensible;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+
+
+
+/**
+ * This interface defines a set of methods that will be invoked to deliver the
+ * results of a search processed with flow control, in which the subscriber
+ * indicates how many more entries and references it is prepared to receive.
+ * The connection will not read any more data from the server while the
+ * subscriber has no outstanding demand, so a consumer that processes a very
+ * large result set slowly does not need to buffer it or to block the thread
+ * that reads responses.  See
+ * {@link LDAPConnection#streamSearch(SearchRequest,SearchResultSubscriber)}
+ * for details.
+ * <BR><BR>
+ * The methods of this interface will be invoked serially (never concurrently),
+ * in the following order:
+ * <OL>
+ *   <LI>The {@link #onSubscribe} method will be invoked exactly once, by the
+ *       thread that initiated the search, before the request is sent to the
+ *       server.  The subscriber should use the provided subscription to
+ *       request some number of results, either in this method or at some
+ *       later time.</LI>
+ *   <LI>The {@link #onEntry} and {@link #onReference} methods will be invoked
+ *       for each search result entry and reference returned by the server, but
+ *       never more times than have been requested.  They will typically be
+ *       invoked by the thread that reads responses from the server, and they
+ *       should not block for any significant length of time.  It is safe to
+ *       request more results from within these methods.</LI>
+ *   <LI>The {@link #onComplete} method will be invoked at most once to provide
+ *       the search result, regardless of demand.  This will be called for both
+ *       successful and unsuccessful searches, including those that fail
+ *       because of a client-side timeout or because the connection was
+ *       closed.</LI>
+ * </OL>
+ * If the subscription is cancelled, then no further methods will be invoked
+ * (although a method that was already in progress when the cancel occurred may
+ * complete).
+ */
+@Extensible()
+@ThreadSafety(level=ThreadSafetyLevel.INTERFACE_NOT_THREADSAFE)
+public interface SearchResultSubscriber
+{
+  /**
+   * Indicates that the search is about to be sent to the server, and provides
+   * the subscription that may be used to request results or to cancel the
+   * search.
+   *
+   * @param  subscription  The subscription for the search.  It will not be
+   *                       {@code null}.
+   */
+  void onSubscribe(SearchResultSubscription subscription);
+
+
+
+  /**
+   * Indicates that the provided search result entry has been returned by the
+   * server.
+   *
+   * @param  searchEntry  The search result entry that has been returned by the
+   *                      server.
+   */
+  void onEntry(SearchResultEntry searchEntry);
+
+
+
+  /**
+   * Indicates that the provided search result reference has been returned by
+   * the server.
+   *
+   * @param  searchReference  The search result reference that has been
+   *                          returned by the server.
+   */
+  void onReference(SearchResultReference searchReference);
+
+
+
+  /**
+   * Indicates that the search has completed and provides the search result.
+   * Note that automatic referral following is not supported for searches
+   * processed in this manner, so it is possible that this result could
+   * include a referral.
+   *
+   * @param  searchResult  The result of the search.  The result code may
+   *                       indicate whether the search completed successfully.
+   */
+  void onComplete(SearchResult searchResult);
+}
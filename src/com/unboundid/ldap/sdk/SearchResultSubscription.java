@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import com.unboundid.util.NotExtensible;
+import com.unboundid.util.ThreadSafety;
+import com.unboundid.util.ThreadSafetyLevel;
+
+
+
+/**
+ * This interface defines a set of methods that may be used by a
+ * {@link SearchResultSubscriber} to control the delivery of results for a
+ * search processed with flow control.  The methods of this interface may be
+ * invoked by any thread at any time, including from within the subscriber's
+ * own methods.
+ */
+@NotExtensible()
+@ThreadSafety(level=ThreadSafetyLevel.INTERFACE_THREADSAFE)
+public interface SearchResultSubscription
+{
+  /**
+   * Indicates that the subscriber is prepared to receive the specified number
+   * of additional search result entries and references.  Demand is
+   * cumulative, so requesting five results and then three more will allow up
+   * to eight results to be delivered.  A value of {@code Long.MAX_VALUE}
+   * effectively disables flow control for the rest of the search.
+   * <BR><BR>
+   * If the provided value is not greater than zero, then the search will be
+   * abandoned and the subscriber will be notified with a search result that
+   * has a result code of {@link ResultCode#PARAM_ERROR}.
+   *
+   * @param  numResults  The number of additional results that the subscriber
+   *                     is prepared to receive.
+   */
+  void request(long numResults);
+
+
+
+  /**
+   * Indicates that the subscriber is no longer interested in receiving any
+   * results for the search.  If the search has not yet completed, then an
+   * abandon request will be sent to the server and the subscriber will not be
+   * notified of any further results, including the search result.  This
+   * method has no effect if the search has already completed or the
+   * subscription has already been cancelled.
+   */
+  void cancel();
+}
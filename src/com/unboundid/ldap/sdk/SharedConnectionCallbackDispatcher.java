@@ -0,0 +1,240 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.unboundid.util.Debug;
+import com.unboundid.util.InternalUseOnly;
+import com.unboundid.util.LDAPSDKThreadFactory;
+
+
+
+/**
+ * This class is used to invoke application-provided callbacks (for example,
+ * {@link AsyncResultListener} and {@link SearchResultListener} methods) for a
+ * connection that is serviced by a {@link SharedConnectionReaderThread}, so
+ * that those callbacks never run on the shared reader thread itself.
+ * <BR><BR>
+ * Each connection has its own dispatcher, and the callbacks for a connection
+ * are invoked one at a time in the order in which they were dispatched, so
+ * that (for example) all of the entries returned for an asynchronous search
+ * are delivered before its result.  The callbacks are run on a fixed-size
+ * pool of daemon threads that is shared by all dispatchers (see
+ * {@link LDAPConnectionOptions#PROPERTY_SHARED_CALLBACK_THREAD_COUNT}), and a
+ * dispatcher only occupies a thread while it has callbacks to invoke.  If all
+ * of those threads are busy, then a dispatcher with callbacks to invoke will
+ * wait in a queue (which will never hold more than one entry per dispatcher)
+ * until a thread becomes available.  In the meantime, its callbacks will
+ * accumulate, and if the callbacks for a connection fall too far behind, then
+ * the shared reader thread will stop reading from that connection until they
+ * catch up, so the number of pending callbacks is bounded even when the pool
+ * is saturated.
+ */
+@InternalUseOnly()
+final class SharedConnectionCallbackDispatcher
+      implements Runnable
+{
+  /**
+   * The maximum number of callbacks that may be queued for a connection before
+   * the shared reader thread will stop reading from it.
+   */
+  static final int MAX_QUEUED_CALLBACKS = 1000;
+
+
+
+  /**
+   * The thread pool that will be used to invoke callbacks for all
+   * dispatchers.  Idle threads will be discarded after one minute.
+   */
+  private static final ThreadPoolExecutor EXECUTOR;
+  static
+  {
+    final int numThreads = LDAPConnectionOptions.getSharedCallbackThreadCount();
+    EXECUTOR = new ThreadPoolExecutor(numThreads, numThreads, 60L,
+         TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+         new LDAPSDKThreadFactory("Shared LDAP connection callback thread",
+              true));
+    EXECUTOR.allowCoreThreadTimeOut(true);
+  }
+
+
+
+  // Indicates whether a thread is currently invoking callbacks for this
+  // dispatcher.
+  private final AtomicBoolean running;
+
+  // The number of callbacks that have been dispatched but not yet completed.
+  private final AtomicInteger numQueued;
+
+  // The queue of callbacks that have not yet been invoked.
+  private final ConcurrentLinkedQueue<Runnable> callbacks;
+
+  // Indicates whether the shared reader should be notified when the number of
+  // queued callbacks drops below the maximum.
+  private volatile boolean resumeRequested;
+
+  // The shared connection reader that will be notified when it may resume
+  // reading.
+  private final SharedConnectionReader reader;
+
+
+
+  /**
+   * Creates a new callback dispatcher for the provided shared connection
+   * reader.
+   *
+   * @param  reader  The shared connection reader that will be notified when it
+   *                 may resume reading after having been told to stop.
+   */
+  SharedConnectionCallbackDispatcher(final SharedConnectionReader reader)
+  {
+    this.reader = reader;
+
+    running = new AtomicBoolean(false);
+    numQueued = new AtomicInteger(0);
+    callbacks = new ConcurrentLinkedQueue<>();
+    resumeRequested = false;
+  }
+
+
+
+  /**
+   * Arranges for the provided callback to be invoked after all callbacks that
+   * have already been dispatched.  This method will not block, and the
+   * callback will always be accepted, even if the maximum number of queued
+   * callbacks has been reached.  This may be called from any thread.
+   *
+   * @param  callback  The callback to be invoked.
+   */
+  void dispatch(final Runnable callback)
+  {
+    numQueued.incrementAndGet();
+    callbacks.add(callback);
+
+    if (running.compareAndSet(false, true))
+    {
+      try
+      {
+        EXECUTOR.execute(this);
+      }
+      catch (final RejectedExecutionException ree)
+      {
+        // The queue is unbounded and the pool is never shut down, so this
+        // should not happen, but if it does, then the best we can do is to
+        // invoke the callbacks in the current thread.
+        Debug.debugException(ree);
+        run();
+      }
+    }
+  }
+
+
+
+  /**
+   * Indicates whether the shared reader thread may continue reading from the
+   * connection.  If not, then the shared reader will be notified via its
+   * {@link SharedConnectionReader#responseConsumed} method once enough of the
+   * queued callbacks have completed.
+   *
+   * @return  {@code true} if the shared reader may continue reading, or
+   *          {@code false} if it should suspend reading until notified.
+   */
+  boolean mayContinueReading()
+  {
+    if (numQueued.get() < MAX_QUEUED_CALLBACKS)
+    {
+      return true;
+    }
+
+    // Request the notification before checking again, so that it cannot be
+    // missed if the last callback completes in the meantime.
+    resumeRequested = true;
+    return (numQueued.get() < MAX_QUEUED_CALLBACKS);
+  }
+
+
+
+  /**
+   * Retrieves the number of callbacks that have been dispatched but have not
+   * yet completed.
+   *
+   * @return  The number of callbacks that have been dispatched but have not
+   *          yet completed.
+   */
+  int getNumQueued()
+  {
+    return numQueued.get();
+  }
+
+
+
+  /**
+   * Invokes queued callbacks until none remain.
+   */
+  @InternalUseOnly()
+  @Override()
+  public void run()
+  {
+    while (true)
+    {
+      final Runnable callback = callbacks.poll();
+      if (callback == null)
+      {
+        running.set(false);
+
+        // A callback may have been added after the poll but before the flag
+        // was cleared, in which case its dispatcher will not have scheduled
+        // this method, so we need to keep going.
+        if (callbacks.isEmpty() || (! running.compareAndSet(false, true)))
+        {
+          return;
+        }
+
+        continue;
+      }
+
+      try
+      {
+        callback.run();
+      }
+      catch (final Throwable t)
+      {
+        Debug.debugException(t);
+      }
+
+      if ((numQueued.decrementAndGet() < MAX_QUEUED_CALLBACKS) &&
+          resumeRequested)
+      {
+        resumeRequested = false;
+        reader.responseConsumed();
+      }
+    }
+  }
+}
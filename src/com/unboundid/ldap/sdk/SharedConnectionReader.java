@@ -0,0 +1,873 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import javax.security.sasl.SaslClient;
+
+import com.unboundid.asn1.ASN1Exception;
+import com.unboundid.asn1.ASN1StreamReader;
+import com.unboundid.ldap.protocol.LDAPMessage;
+import com.unboundid.ldap.protocol.LDAPResponse;
+import com.unboundid.util.Debug;
+import com.unboundid.util.InternalUseOnly;
+
+import static com.unboundid.ldap.sdk.LDAPMessages.*;
+
+
+
+/**
+ * This class holds the state needed to read responses for a single LDAP
+ * connection through a {@link SharedConnectionReaderThread}.  Data is read
+ * from the non-blocking socket channel into a receive buffer, and whenever a
+ * complete LDAP message is available it is decoded and provided to the
+ * associated {@link LDAPConnectionReader} for delivery.  If SASL integrity or
+ * confidentiality has been applied to the connection, then the data will be
+ * unwrapped before it is decoded.
+ * <BR><BR>
+ * Any application-provided callbacks that need to be invoked for the
+ * connection (for example, to deliver the results of asynchronous operations)
+ * are handed off to a {@link SharedConnectionCallbackDispatcher} rather than
+ * being invoked on the shared reader thread.
+ * <BR><BR>
+ * Unless otherwise noted, the methods in this class must only be invoked by
+ * the shared reader thread with which it is associated.
+ */
+@InternalUseOnly()
+final class SharedConnectionReader
+{
+  /**
+   * The initial size that will be used for receive buffers.
+   */
+  private static final int INITIAL_BUFFER_SIZE = 4096;
+
+
+
+  /**
+   * The size above which an empty receive buffer will be released and
+   * replaced with one of the initial size, so that connections that only
+   * occasionally receive large messages do not hold on to large buffers.
+   */
+  private static final int MAX_RETAINED_BUFFER_SIZE = 65536;
+
+
+
+  // Indicates whether this reader has been closed.
+  private volatile boolean closed;
+
+  // The latch that will be used to wait for this reader to be removed from
+  // the selector when it is detached.
+  private volatile CountDownLatch removalLatch;
+
+  // The maximum size in bytes of a message that will be accepted.
+  private final int maxMessageSize;
+
+  // The LDAP connection with which this reader is associated.
+  private final LDAPConnection connection;
+
+  // The connection reader to which decoded responses will be provided.
+  private final LDAPConnectionReader connectionReader;
+
+  // The dispatcher that will be used to invoke application-provided callbacks
+  // for this connection.
+  private final SharedConnectionCallbackDispatcher callbackDispatcher;
+
+  // The response that could not be delivered because its acceptor was not
+  // ready to accept it.
+  private LDAPResponse stalledResponse;
+
+  // The buffer that will hold SASL-unwrapped data that has not yet been
+  // decoded.  It will only be allocated if SASL QoP is applied.
+  private ReceiveBuffer clearBuffer;
+
+  // The buffer that will hold data read from the channel that has not yet been
+  // processed.
+  private final ReceiveBuffer receiveBuffer;
+
+  // The SASL client to use to unwrap data read from the server, if any.
+  private volatile SaslClient saslClient;
+
+  // The acceptor to which the stalled response should be delivered.
+  private FlowControlledResponseAcceptor stalledAcceptor;
+
+  // The selection key for the channel.  It will be null until the reader has
+  // been registered with the selector.
+  private volatile SelectionKey selectionKey;
+
+  // The shared reader thread that services this reader.  It will be null
+  // until reading has started.
+  private volatile SharedConnectionReaderThread readerThread;
+
+  // The channel from which data will be read.
+  private final SocketChannel channel;
+
+
+
+  /**
+   * Creates a new shared connection reader for the provided connection.
+   *
+   * @param  connectionReader  The connection reader to which decoded responses
+   *                           should be provided.
+   * @param  connection        The LDAP connection with which this reader is
+   *                           associated.
+   * @param  socket            The socket from which data should be read.  It
+   *                           must have an associated channel that has already
+   *                           been placed in non-blocking mode.
+   */
+  SharedConnectionReader(final LDAPConnectionReader connectionReader,
+                         final LDAPConnection connection, final Socket socket)
+  {
+    this.connectionReader = connectionReader;
+    this.connection = connection;
+
+    channel = socket.getChannel();
+
+    final int maxSize = connection.getConnectionOptions().getMaxMessageSize();
+    if (maxSize > 0)
+    {
+      maxMessageSize = maxSize;
+    }
+    else
+    {
+      maxMessageSize = Integer.MAX_VALUE;
+    }
+
+    receiveBuffer = new ReceiveBuffer();
+    callbackDispatcher = new SharedConnectionCallbackDispatcher(this);
+    clearBuffer = null;
+    saslClient = null;
+    stalledResponse = null;
+    stalledAcceptor = null;
+    selectionKey = null;
+    readerThread = null;
+    removalLatch = null;
+    closed = false;
+  }
+
+
+
+  /**
+   * Starts reading data for this connection by assigning it to one of the
+   * shared reader threads.  This may be called from any thread.
+   *
+   * @throws  IOException  If a problem occurs while creating the shared reader
+   *                       threads.
+   */
+  void start()
+       throws IOException
+  {
+    final SharedConnectionReaderThread t =
+         SharedConnectionReaderThread.getThread();
+    readerThread = t;
+    t.register(this);
+  }
+
+
+
+  /**
+   * Registers the channel for this reader with the provided selector.
+   *
+   * @param  selector  The selector with which to register the channel.
+   */
+  void registerWith(final Selector selector)
+  {
+    if (closed)
+    {
+      return;
+    }
+
+    try
+    {
+      selectionKey = channel.register(selector, SelectionKey.OP_READ, this);
+    }
+    catch (final ClosedChannelException cce)
+    {
+      // The connection was closed before it could be registered, so there is
+      // nothing that needs to be done.
+      Debug.debugException(cce);
+    }
+  }
+
+
+
+  /**
+   * Cancels the selection key for this reader, if it has been registered.
+   */
+  void cancelKey()
+  {
+    final SelectionKey key = selectionKey;
+    if (key != null)
+    {
+      key.cancel();
+    }
+  }
+
+
+
+  /**
+   * Indicates that this reader has been removed from the selector and that its
+   * channel may be returned to blocking mode if desired.
+   */
+  void removalComplete()
+  {
+    final CountDownLatch latch = removalLatch;
+    if (latch != null)
+    {
+      latch.countDown();
+    }
+  }
+
+
+
+  /**
+   * Specifies whether the selector should notify this reader when data is
+   * available to be read.
+   *
+   * @param  readInterest  Indicates whether the selector should notify this
+   *                       reader when data is available to be read.
+   *
+   * @return  {@code true} if the interest was updated, or {@code false} if the
+   *          reader is no longer registered with the selector.
+   */
+  boolean setReadInterest(final boolean readInterest)
+  {
+    final SelectionKey key = selectionKey;
+    if ((key == null) || (! key.isValid()))
+    {
+      return false;
+    }
+
+    try
+    {
+      if (readInterest)
+      {
+        key.interestOps(SelectionKey.OP_READ);
+      }
+      else
+      {
+        key.interestOps(0);
+      }
+
+      return true;
+    }
+    catch (final Exception e)
+    {
+      // This will happen if the key was cancelled concurrently.
+      Debug.debugException(e);
+      return false;
+    }
+  }
+
+
+
+  /**
+   * Reads the data that is currently available from the channel and processes
+   * any complete messages that it contains.
+   *
+   * @return  {@code true} if processing completed normally, or {@code false}
+   *          if a response could not be delivered and reading from the
+   *          channel should be suspended until it can be.
+   */
+  boolean readAvailableData()
+  {
+    try
+    {
+      final int bytesRead = channel.read(receiveBuffer.getWritableBuffer());
+      if (bytesRead < 0)
+      {
+        connectionReader.sharedReaderEndOfInput();
+        return true;
+      }
+
+      receiveBuffer.bytesWritten(bytesRead);
+    }
+    catch (final Exception e)
+    {
+      Debug.debugException(e);
+      connectionReader.sharedReaderFailed(e);
+      return true;
+    }
+
+    return processReceivedData();
+  }
+
+
+
+  /**
+   * Delivers any stalled response and processes any complete messages that
+   * have already been read from the channel.
+   *
+   * @return  {@code true} if all complete messages were processed, or
+   *          {@code false} if a response could not be delivered (or too many
+   *          callbacks are waiting to be invoked) and reading from the channel
+   *          should be suspended until it can continue.
+   */
+  boolean processReceivedData()
+  {
+    try
+    {
+      if (stalledResponse != null)
+      {
+        if (! stalledAcceptor.offerResponse(stalledResponse, this))
+        {
+          return false;
+        }
+
+        stalledResponse = null;
+        stalledAcceptor = null;
+      }
+
+      while (! closed)
+      {
+        if (! callbackDispatcher.mayContinueReading())
+        {
+          return false;
+        }
+
+        final LDAPResponse response = nextResponse();
+        if (response == null)
+        {
+          return true;
+        }
+
+        final FlowControlledResponseAcceptor acceptor =
+             connectionReader.processResponse(response, false);
+        if (acceptor != null)
+        {
+          stalledResponse = response;
+          stalledAcceptor = acceptor;
+          return false;
+        }
+      }
+
+      return true;
+    }
+    catch (final Exception e)
+    {
+      Debug.debugException(e);
+      connectionReader.sharedReaderFailed(e);
+      return true;
+    }
+  }
+
+
+
+  /**
+   * Decodes the next complete response from the data that has been read, if
+   * one is available.
+   *
+   * @return  The decoded response, or {@code null} if a complete message has
+   *          not yet been read.
+   *
+   * @throws  IOException  If a problem occurs while unwrapping SASL-encoded
+   *                       data.
+   *
+   * @throws  ASN1Exception  If the data read cannot be parsed as an ASN.1
+   *                         element of an acceptable size.
+   *
+   * @throws  LDAPException  If a complete message cannot be decoded as an LDAP
+   *                         response.
+   */
+  private LDAPResponse nextResponse()
+          throws IOException, ASN1Exception, LDAPException
+  {
+    final ReceiveBuffer source;
+    final SaslClient c = saslClient;
+    if (c == null)
+    {
+      source = receiveBuffer;
+    }
+    else
+    {
+      if (clearBuffer == null)
+      {
+        clearBuffer = new ReceiveBuffer();
+      }
+
+      unwrapSASLData(c);
+      source = clearBuffer;
+    }
+
+    final int messageLength = getMessageLength(source);
+    if (messageLength < 0)
+    {
+      return null;
+    }
+    else if (source.available() < messageLength)
+    {
+      source.ensureCapacity(messageLength);
+      return null;
+    }
+
+    final ASN1StreamReader asn1StreamReader = new ASN1StreamReader(
+         new ByteArrayInputStream(source.data, source.start, messageLength),
+         maxMessageSize);
+    final LDAPResponse response = LDAPMessage.readLDAPResponseFrom(
+         asn1StreamReader, false, connection.getCachedSchema(),
+         connection.getConnectionOptions().useLazySearchEntryDecoding());
+    source.consume(messageLength);
+    return response;
+  }
+
+
+
+  /**
+   * Determines the total length of the ASN.1 element at the start of the
+   * provided buffer, including the BER type and length.
+   *
+   * @param  buffer  The buffer to examine.
+   *
+   * @return  The total length of the element, or -1 if not enough data is
+   *          available to determine it.
+   *
+   * @throws  ASN1Exception  If the element length is malformed or exceeds the
+   *                         maximum message size.
+   */
+  private int getMessageLength(final ReceiveBuffer buffer)
+          throws ASN1Exception
+  {
+    final int available = buffer.available();
+    if (available < 2)
+    {
+      return -1;
+    }
+
+    final int firstLengthByte = buffer.getByte(1);
+    final int headerLength;
+    final int valueLength;
+    if ((firstLengthByte & 0x80) == 0x00)
+    {
+      headerLength = 2;
+      valueLength = firstLengthByte;
+    }
+    else
+    {
+      final int numLengthBytes = (firstLengthByte & 0x7F);
+      if ((numLengthBytes < 1) || (numLengthBytes > 4))
+      {
+        throw new ASN1Exception(
+             ERR_SHARED_READER_LENGTH_TOO_LONG.get(numLengthBytes));
+      }
+
+      headerLength = 2 + numLengthBytes;
+      if (available < headerLength)
+      {
+        return -1;
+      }
+
+      int length = 0;
+      for (int i=2; i < headerLength; i++)
+      {
+        length = (length << 8) | buffer.getByte(i);
+      }
+      valueLength = length;
+    }
+
+    if ((valueLength < 0) || (valueLength > maxMessageSize) ||
+        (valueLength > (Integer.MAX_VALUE - headerLength)))
+    {
+      throw new ASN1Exception(ERR_SHARED_READER_LENGTH_EXCEEDS_MAX.get(
+           (valueLength & 0xFFFFFFFFL), maxMessageSize));
+    }
+
+    return (headerLength + valueLength);
+  }
+
+
+
+  /**
+   * Unwraps any complete SASL-encoded blocks in the receive buffer and appends
+   * the resulting clear-text data to the clear buffer.
+   *
+   * @param  c  The SASL client to use to unwrap the data.
+   *
+   * @throws  IOException  If a problem occurs while unwrapping the data.
+   */
+  private void unwrapSASLData(final SaslClient c)
+          throws IOException
+  {
+    while (receiveBuffer.available() >= 4)
+    {
+      final int wrappedLength = (receiveBuffer.getByte(0) << 24) |
+           (receiveBuffer.getByte(1) << 16) | (receiveBuffer.getByte(2) << 8) |
+           receiveBuffer.getByte(3);
+      if ((wrappedLength < 0) || (wrappedLength > maxMessageSize) ||
+          (wrappedLength > (Integer.MAX_VALUE - 4)))
+      {
+        throw new IOException(ERR_SHARED_READER_SASL_LENGTH_EXCEEDS_MAX.get(
+             (wrappedLength & 0xFFFFFFFFL), maxMessageSize));
+      }
+
+      if (receiveBuffer.available() < (4 + wrappedLength))
+      {
+        receiveBuffer.ensureCapacity(4 + wrappedLength);
+        return;
+      }
+
+      final byte[] clearBytes = c.unwrap(receiveBuffer.data,
+           (receiveBuffer.start + 4), wrappedLength);
+      receiveBuffer.consume(4 + wrappedLength);
+      clearBuffer.append(clearBytes);
+    }
+  }
+
+
+
+  /**
+   * Specifies the SASL client that should be used to unwrap any subsequent
+   * data read from the server.  This may be called from any thread.
+   *
+   * @param  saslClient  The SASL client that should be used to unwrap any
+   *                     subsequent data read from the server.
+   */
+  void setSASLClient(final SaslClient saslClient)
+  {
+    this.saslClient = saslClient;
+  }
+
+
+
+  /**
+   * Indicates that the shared reader thread has encountered a problem that
+   * prevents it from continuing to service this connection, and that the
+   * connection should be terminated.
+   *
+   * @param  e  An exception with information about the problem.
+   */
+  void threadFailed(final IOException e)
+  {
+    connectionReader.sharedReaderFailed(e);
+  }
+
+
+
+  /**
+   * Arranges for the provided callback to be invoked for this connection on a
+   * thread other than the shared reader thread, after any callbacks that have
+   * already been dispatched for this connection.  This may be called from any
+   * thread.
+   *
+   * @param  callback  The callback to be invoked.
+   */
+  void dispatchCallback(final Runnable callback)
+  {
+    callbackDispatcher.dispatch(callback);
+  }
+
+
+
+  /**
+   * Retrieves the shared reader thread that services this reader, if reading
+   * has started.  This must not be used for any purpose other than test
+   * validation.
+   *
+   * @return  The shared reader thread that services this reader, or
+   *          {@code null} if reading has not started or the reader has been
+   *          detached.
+   */
+  SharedConnectionReaderThread getReaderThread()
+  {
+    return readerThread;
+  }
+
+
+
+  /**
+   * Retrieves the dispatcher used to invoke callbacks for this connection.
+   * This must not be used for any purpose other than test validation.
+   *
+   * @return  The dispatcher used to invoke callbacks for this connection.
+   */
+  SharedConnectionCallbackDispatcher getCallbackDispatcher()
+  {
+    return callbackDispatcher;
+  }
+
+
+
+  /**
+   * Indicates that the requester has consumed a response from an acceptor for
+   * which this reader had previously stalled (or that enough dispatched
+   * callbacks have completed), so that reading may be resumed.  This may be
+   * called from any thread.
+   */
+  void responseConsumed()
+  {
+    final SharedConnectionReaderThread t = readerThread;
+    if (t != null)
+    {
+      t.resume(this);
+    }
+  }
+
+
+
+  /**
+   * Removes this reader from its shared reader thread and returns the channel
+   * to blocking mode so that it may be read by other means.  This will be used
+   * when securing the connection with StartTLS.  This may be called from any
+   * thread other than the shared reader thread, and it will block until the
+   * channel has been removed from the selector.
+   *
+   * @throws  IOException  If a problem occurs while detaching the channel.
+   */
+  void detach()
+       throws IOException
+  {
+    final SharedConnectionReaderThread t = readerThread;
+    if (t != null)
+    {
+      if (t.isCurrentThread())
+      {
+        throw new IOException(ERR_SHARED_READER_DETACH_FROM_READER_THREAD.get(
+             connection.getHostPort()));
+      }
+
+      final CountDownLatch latch = new CountDownLatch(1);
+      removalLatch = latch;
+      t.remove(this);
+
+      try
+      {
+        latch.await();
+      }
+      catch (final InterruptedException ie)
+      {
+        Debug.debugException(ie);
+        Thread.currentThread().interrupt();
+        throw new IOException(ERR_SHARED_READER_DETACH_INTERRUPTED.get(
+             connection.getHostPort()), ie);
+      }
+
+      readerThread = null;
+    }
+
+    channel.configureBlocking(true);
+  }
+
+
+
+  /**
+   * Closes this reader, removing it from its shared reader thread and closing
+   * the underlying channel.  This may be called from any thread.
+   */
+  void close()
+  {
+    closed = true;
+
+    final SharedConnectionReaderThread t = readerThread;
+    if (t != null)
+    {
+      t.remove(this);
+    }
+
+    try
+    {
+      channel.close();
+    }
+    catch (final Exception e)
+    {
+      Debug.debugException(e);
+    }
+  }
+
+
+
+  /**
+   * Retrieves a string representation of this shared connection reader.
+   *
+   * @return  A string representation of this shared connection reader.
+   */
+  @Override()
+  public String toString()
+  {
+    return "SharedConnectionReader(connection=" + connection.getHostPort() +
+         ", closed=" + closed + ')';
+  }
+
+
+
+  /**
+   * This class provides a simple growable buffer that holds data that has
+   * been received but not yet processed.
+   */
+  private static final class ReceiveBuffer
+  {
+    // The array holding the data.
+    private byte[] data;
+
+    // The position of the first unprocessed byte in the array.
+    private int start;
+
+    // The position immediately after the last unprocessed byte in the array.
+    private int end;
+
+
+
+    /**
+     * Creates a new empty receive buffer.
+     */
+    private ReceiveBuffer()
+    {
+      data = new byte[INITIAL_BUFFER_SIZE];
+      start = 0;
+      end = 0;
+    }
+
+
+
+    /**
+     * Retrieves the number of unprocessed bytes in this buffer.
+     *
+     * @return  The number of unprocessed bytes in this buffer.
+     */
+    private int available()
+    {
+      return (end - start);
+    }
+
+
+
+    /**
+     * Retrieves the unprocessed byte at the specified offset.
+     *
+     * @param  offset  The offset from the start of the unprocessed data.
+     *
+     * @return  The unprocessed byte at the specified offset, as an unsigned
+     *          value.
+     */
+    private int getByte(final int offset)
+    {
+      return (data[start + offset] & 0xFF);
+    }
+
+
+
+    /**
+     * Marks the specified number of bytes as processed.
+     *
+     * @param  length  The number of bytes that have been processed.
+     */
+    private void consume(final int length)
+    {
+      start += length;
+      if (start >= end)
+      {
+        start = 0;
+        end = 0;
+
+        if (data.length > MAX_RETAINED_BUFFER_SIZE)
+        {
+          data = new byte[INITIAL_BUFFER_SIZE];
+        }
+      }
+    }
+
+
+
+    /**
+     * Ensures that the buffer is large enough to hold the specified number of
+     * bytes beginning with the first unprocessed byte.
+     *
+     * @param  length  The number of bytes that the buffer must be able to hold.
+     */
+    private void ensureCapacity(final int length)
+    {
+      if ((data.length - start) >= length)
+      {
+        return;
+      }
+
+      final byte[] newData;
+      if (data.length >= length)
+      {
+        newData = data;
+      }
+      else
+      {
+        newData = new byte[Math.max(length,
+             (int) Math.min(Integer.MAX_VALUE, (data.length * 2L)))];
+      }
+
+      final int numBytes = end - start;
+      System.arraycopy(data, start, newData, 0, numBytes);
+      data = newData;
+      start = 0;
+      end = numBytes;
+    }
+
+
+
+    /**
+     * Retrieves a byte buffer that may be used to read data into the unused
+     * space at the end of this buffer, compacting or growing the buffer if
+     * necessary so that there is at least some space available.
+     *
+     * @return  A byte buffer that may be used to read data into this buffer.
+     */
+    private ByteBuffer getWritableBuffer()
+    {
+      if (end >= data.length)
+      {
+        ensureCapacity(available() + INITIAL_BUFFER_SIZE);
+      }
+
+      return ByteBuffer.wrap(data, end, (data.length - end));
+    }
+
+
+
+    /**
+     * Indicates that the specified number of bytes have been written into the
+     * buffer returned by the last call to {@link #getWritableBuffer}.
+     *
+     * @param  length  The number of bytes that have been written.
+     */
+    private void bytesWritten(final int length)
+    {
+      end += length;
+    }
+
+
+
+    /**
+     * Appends the provided data to this buffer.
+     *
+     * @param  bytes  The data to append.
+     */
+    private void append(final byte[] bytes)
+    {
+      ensureCapacity(available() + bytes.length);
+      System.arraycopy(bytes, 0, data, end, bytes.length);
+      end += bytes.length;
+    }
+  }
+}
@@ -0,0 +1,535 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import com.unboundid.util.Debug;
+import com.unboundid.util.DebugType;
+import com.unboundid.util.InternalUseOnly;
+import com.unboundid.util.StaticUtils;
+
+import static com.unboundid.ldap.sdk.LDAPMessages.*;
+
+
+
+/**
+ * This class provides a thread that uses a selector to read responses for any
+ * number of LDAP connections that have been configured to use shared reader
+ * threads.  A small fixed set of these threads is created on demand and is
+ * shared by all such connections in the JVM, and each connection is assigned
+ * to one of them in a round-robin manner when it is established.
+ * <BR><BR>
+ * Data read from a connection is decoded into LDAP messages on this thread and
+ * handed to the associated {@link LDAPConnectionReader} for delivery to the
+ * appropriate response acceptor, much as if it had been read by a dedicated
+ * reader thread.  However, this thread never invokes application-provided
+ * listeners or handlers itself, since they could take an arbitrarily long time
+ * to complete.  Those are invoked through each connection's
+ * {@link SharedConnectionCallbackDispatcher} instead.  If a search request
+ * cannot accept a response without blocking, or if too many callbacks are
+ * waiting to be invoked for a connection, then reading from that connection
+ * is suspended until the backlog has been reduced, so that one slow consumer
+ * does not hold up the other connections serviced by this thread.
+ * <BR><BR>
+ * If an unexpected error occurs while servicing the connections, then this
+ * thread will wait for an increasing length of time before trying again.  If
+ * the problem persists, then all of the connections serviced by this thread
+ * will be closed and a new selector will be created for use by any
+ * subsequently-registered connections.
+ */
+@InternalUseOnly()
+final class SharedConnectionReaderThread
+      extends Thread
+{
+  /**
+   * The maximum length of time in milliseconds that the thread will wait
+   * before retrying delivery of a response to a search request that was not
+   * able to accept it.  Under normal circumstances, the search request will
+   * wake up the thread as soon as space is available, so this only serves as a
+   * safeguard.
+   */
+  private static final long STALLED_RETRY_INTERVAL_MILLIS = 100L;
+
+
+
+  /**
+   * The length of time in milliseconds that the thread will wait after the
+   * first in a series of unexpected errors before trying again.  The wait
+   * will be doubled for each subsequent consecutive error.
+   */
+  private static final long INITIAL_ERROR_BACKOFF_MILLIS = 10L;
+
+
+
+  /**
+   * The number of consecutive unexpected errors after which the thread will
+   * close all of the connections that it services and replace its selector.
+   */
+  private static final int MAX_CONSECUTIVE_ERRORS = 5;
+
+
+
+  /**
+   * The lock used to ensure that the set of shared reader threads is only
+   * created once.
+   */
+  private static final Object THREADS_LOCK = new Object();
+
+
+
+  /**
+   * The counter used to assign connections to threads in a round-robin
+   * manner.
+   */
+  private static final AtomicLong NEXT_THREAD_INDEX = new AtomicLong(0L);
+
+
+
+  /**
+   * The set of shared reader threads that have been created.  It will be
+   * {@code null} until the first connection is registered.
+   */
+  private static volatile SharedConnectionReaderThread[] threads = null;
+
+
+
+  // The queue of connection readers that need to be registered with the
+  // selector.
+  private final ConcurrentLinkedQueue<SharedConnectionReader>
+       pendingRegistrations;
+
+  // The queue of connection readers that should have reading resumed because
+  // a stalled response may now be delivered.
+  private final ConcurrentLinkedQueue<SharedConnectionReader> pendingResumes;
+
+  // The queue of connection readers that should be removed from the selector.
+  private final ConcurrentLinkedQueue<SharedConnectionReader> pendingRemovals;
+
+  // The selector used to wait for data to become available.  It will only be
+  // replaced by this thread.
+  private volatile Selector selector;
+
+  // The set of connection readers that have been registered with the selector
+  // and not yet removed.  It will only be accessed by this thread.
+  private final Set<SharedConnectionReader> registeredReaders;
+
+  // The set of connection readers for which reading has been suspended because
+  // a response could not be delivered.  It will only be accessed by this
+  // thread.
+  private final Set<SharedConnectionReader> stalledReaders;
+
+
+
+  /**
+   * Creates a new shared connection reader thread with the provided index.
+   *
+   * @param  index  The index for this thread.
+   *
+   * @throws  IOException  If a problem occurs while opening the selector.
+   */
+  private SharedConnectionReaderThread(final int index)
+          throws IOException
+  {
+    setName("Shared LDAP connection reader thread " + index);
+    setDaemon(true);
+
+    selector = Selector.open();
+    pendingRegistrations = new ConcurrentLinkedQueue<>();
+    pendingResumes = new ConcurrentLinkedQueue<>();
+    pendingRemovals = new ConcurrentLinkedQueue<>();
+    registeredReaders = new LinkedHashSet<>(10);
+    stalledReaders = new LinkedHashSet<>(10);
+  }
+
+
+
+  /**
+   * Retrieves the shared reader thread that should be used for the next
+   * connection, creating and starting the set of shared reader threads if
+   * necessary.
+   *
+   * @return  The shared reader thread that should be used for the next
+   *          connection.
+   *
+   * @throws  IOException  If a problem occurs while creating the threads.
+   */
+  static SharedConnectionReaderThread getThread()
+         throws IOException
+  {
+    SharedConnectionReaderThread[] t = threads;
+    if (t == null)
+    {
+      synchronized (THREADS_LOCK)
+      {
+        t = threads;
+        if (t == null)
+        {
+          final int numThreads =
+               LDAPConnectionOptions.getSharedReaderThreadCount();
+          t = new SharedConnectionReaderThread[numThreads];
+          for (int i=0; i < numThreads; i++)
+          {
+            t[i] = new SharedConnectionReaderThread(i);
+          }
+
+          for (final SharedConnectionReaderThread thread : t)
+          {
+            thread.start();
+          }
+
+          threads = t;
+        }
+      }
+    }
+
+    final long index = NEXT_THREAD_INDEX.getAndIncrement();
+    return t[(int) (Math.abs(index % t.length))];
+  }
+
+
+
+  /**
+   * Arranges for the provided connection reader to be registered with this
+   * thread's selector.
+   *
+   * @param  reader  The connection reader to be registered.
+   */
+  void register(final SharedConnectionReader reader)
+  {
+    pendingRegistrations.add(reader);
+    selector.wakeup();
+  }
+
+
+
+  /**
+   * Arranges for reading to be resumed for the provided connection reader if
+   * it had been suspended.
+   *
+   * @param  reader  The connection reader for which reading should be
+   *                 resumed.
+   */
+  void resume(final SharedConnectionReader reader)
+  {
+    pendingResumes.add(reader);
+    selector.wakeup();
+  }
+
+
+
+  /**
+   * Arranges for the provided connection reader to be removed from this
+   * thread's selector.  This method will not wait for the removal to be
+   * complete.
+   *
+   * @param  reader  The connection reader to be removed.
+   */
+  void remove(final SharedConnectionReader reader)
+  {
+    pendingRemovals.add(reader);
+    selector.wakeup();
+  }
+
+
+
+  /**
+   * Indicates whether the current thread is this shared reader thread.
+   *
+   * @return  {@code true} if the current thread is this shared reader thread,
+   *          or {@code false} if not.
+   */
+  boolean isCurrentThread()
+  {
+    return (Thread.currentThread() == this);
+  }
+
+
+
+  /**
+   * Operates in a loop, waiting for data to become available on any of the
+   * registered connections and processing that data.
+   */
+  @Override()
+  public void run()
+  {
+    int consecutiveErrors = 0;
+    while (true)
+    {
+      try
+      {
+        final List<SharedConnectionReader> removedReaders =
+             processPendingChanges();
+        if (! removedReaders.isEmpty())
+        {
+          // Make sure that the cancelled keys have been deregistered before
+          // reporting the removals as complete, since connections being
+          // detached for StartTLS processing will need to return their
+          // channels to blocking mode.
+          selector.selectNow();
+          for (final SharedConnectionReader reader : removedReaders)
+          {
+            reader.removalComplete();
+          }
+        }
+
+        if (selector.selectedKeys().isEmpty())
+        {
+          if (stalledReaders.isEmpty())
+          {
+            selector.select();
+          }
+          else
+          {
+            selector.select(STALLED_RETRY_INTERVAL_MILLIS);
+          }
+        }
+
+        final Iterator<SelectionKey> keyIterator =
+             selector.selectedKeys().iterator();
+        while (keyIterator.hasNext())
+        {
+          final SelectionKey key = keyIterator.next();
+          keyIterator.remove();
+
+          final SharedConnectionReader reader =
+               (SharedConnectionReader) key.attachment();
+          if (key.isValid() && (! reader.readAvailableData()))
+          {
+            stall(reader);
+          }
+        }
+
+        if (! stalledReaders.isEmpty())
+        {
+          for (final SharedConnectionReader reader :
+               stalledReaders.toArray(
+                    new SharedConnectionReader[stalledReaders.size()]))
+          {
+            resumeIfPossible(reader);
+          }
+        }
+
+        consecutiveErrors = 0;
+      }
+      catch (final Throwable t)
+      {
+        // This should never happen, and if it does then it most likely
+        // reflects a problem with the selector itself.  We can't just let the
+        // thread die, since that would leave all connections assigned to it
+        // without a reader, but we also can't go straight back to the selector
+        // because the same error would probably recur immediately.  Back off
+        // before trying again, and if the problem persists, then give up on
+        // the current connections and start over with a new selector.
+        Debug.debugException(t);
+        Debug.debug(Level.SEVERE, DebugType.LDAP,
+             "Unexpected error in shared LDAP connection reader thread " +
+                  getName(),
+             t);
+
+        consecutiveErrors++;
+        if (consecutiveErrors >= MAX_CONSECUTIVE_ERRORS)
+        {
+          resetSelector(t);
+          consecutiveErrors = 0;
+        }
+        else
+        {
+          try
+          {
+            Thread.sleep(INITIAL_ERROR_BACKOFF_MILLIS <<
+                 (consecutiveErrors - 1));
+          }
+          catch (final InterruptedException ie)
+          {
+            Debug.debugException(ie);
+          }
+        }
+      }
+    }
+  }
+
+
+
+  /**
+   * Closes all of the connections currently registered with this thread's
+   * selector and replaces the selector with a new one.  This will be used if
+   * the thread repeatedly encounters unexpected errors.
+   *
+   * @param  cause  The most recent error that the thread encountered.
+   */
+  private void resetSelector(final Throwable cause)
+  {
+    final IOException failure = new IOException(
+         ERR_SHARED_READER_THREAD_FAILED.get(getName(),
+              StaticUtils.getExceptionMessage(cause)),
+         cause);
+
+    final Selector oldSelector = selector;
+    try
+    {
+      selector = Selector.open();
+    }
+    catch (final Exception e)
+    {
+      // We'll try again after the next error, so keep the existing selector
+      // and connections for now.
+      Debug.debugException(e);
+      return;
+    }
+
+    stalledReaders.clear();
+    for (final SharedConnectionReader reader :
+         registeredReaders.toArray(
+              new SharedConnectionReader[registeredReaders.size()]))
+    {
+      try
+      {
+        reader.threadFailed(failure);
+      }
+      catch (final Exception e)
+      {
+        Debug.debugException(e);
+      }
+    }
+    registeredReaders.clear();
+
+    try
+    {
+      oldSelector.close();
+    }
+    catch (final Exception e)
+    {
+      Debug.debugException(e);
+    }
+  }
+
+
+
+  /**
+   * Processes any pending registrations, resumptions, and removals.
+   *
+   * @return  A list of the connection readers whose keys have been cancelled
+   *          and need to be flushed from the selector.  It may be empty but
+   *          will not be {@code null}.
+   */
+  private List<SharedConnectionReader> processPendingChanges()
+  {
+    while (true)
+    {
+      final SharedConnectionReader reader = pendingRegistrations.poll();
+      if (reader == null)
+      {
+        break;
+      }
+
+      reader.registerWith(selector);
+      registeredReaders.add(reader);
+    }
+
+    while (true)
+    {
+      final SharedConnectionReader reader = pendingResumes.poll();
+      if (reader == null)
+      {
+        break;
+      }
+
+      if (stalledReaders.contains(reader))
+      {
+        resumeIfPossible(reader);
+      }
+    }
+
+    if (pendingRemovals.isEmpty())
+    {
+      return Collections.emptyList();
+    }
+
+    final List<SharedConnectionReader> removedReaders = new ArrayList<>(5);
+    while (true)
+    {
+      final SharedConnectionReader reader = pendingRemovals.poll();
+      if (reader == null)
+      {
+        break;
+      }
+
+      registeredReaders.remove(reader);
+      stalledReaders.remove(reader);
+      reader.cancelKey();
+      removedReaders.add(reader);
+    }
+
+    return removedReaders;
+  }
+
+
+
+  /**
+   * Suspends reading for the provided connection reader until it is able to
+   * deliver its stalled response.
+   *
+   * @param  reader  The connection reader for which to suspend reading.
+   */
+  private void stall(final SharedConnectionReader reader)
+  {
+    if (reader.setReadInterest(false))
+    {
+      stalledReaders.add(reader);
+    }
+  }
+
+
+
+  /**
+   * Attempts to deliver the stalled response for the provided connection
+   * reader and resume reading from it.
+   *
+   * @param  reader  The connection reader for which to resume reading.
+   */
+  private void resumeIfPossible(final SharedConnectionReader reader)
+  {
+    if (reader.processReceivedData())
+    {
+      stalledReaders.remove(reader);
+      if (! reader.setReadInterest(true))
+      {
+        Debug.debug(Level.FINEST, DebugType.LDAP,
+             "Unable to resume reading for " + reader +
+                  " because it is no longer registered.");
+      }
+    }
+  }
+}
@@ -25,8 +25,6 @@ package com.unboundid.ldap.sdk;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import com.unboundid.asn1.ASN1Buffer;
@@ -101,9 +99,10 @@ public final class SimpleBindRequest
   // The password for this simple bind request.
   private final ASN1OctetString password;
 
-  // The queue that will be used to receive response messages from the server.
-  private final LinkedBlockingQueue<LDAPResponse> responseQueue =
-       new LinkedBlockingQueue<>();
+  // The handoff that will be used to receive the response message from the
+  // server.
+  private final LDAPResponseHandoff responseHandoff =
+       new LDAPResponseHandoff();
 
   // The password provider that should be used to obtain the password for this
   // simple bind request.
@@ -445,6 +444,11 @@ public final class SimpleBindRequest
   @Override()
   public void writeTo(final ASN1Buffer buffer)
   {
+    if (writeUsingTemplate(buffer))
+    {
+      return;
+    }
+
     final ASN1BufferSequence requestSequence =
          buffer.beginSequence(LDAPMessage.PROTOCOL_OP_TYPE_BIND_REQUEST);
     buffer.addElement(VERSION_ELEMENT);
@@ -492,6 +496,12 @@ public final class SimpleBindRequest
   public ASN1Element encodeProtocolOp()
          throws LDAPSDKUsageException
   {
+    final ASN1Element templateElement = encodeUsingTemplate();
+    if (templateElement != null)
+    {
+      return templateElement;
+    }
+
     if (password == null)
     {
       throw new LDAPSDKUsageException(
@@ -543,6 +553,7 @@ public final class SimpleBindRequest
 
     // Register with the connection reader to be notified of responses for the
     // request that we've created.
+    responseHandoff.clear();
     connection.registerResponseAcceptor(messageID, this);
 
 
@@ -561,11 +572,11 @@ public final class SimpleBindRequest
       {
         if (responseTimeout > 0)
         {
-          response = responseQueue.poll(responseTimeout, TimeUnit.MILLISECONDS);
+          response = responseHandoff.poll(responseTimeout);
         }
         else
         {
-          response = responseQueue.take();
+          response = responseHandoff.take();
         }
       }
       catch (final InterruptedException ie)
@@ -795,7 +806,7 @@ public final class SimpleBindRequest
   {
     try
     {
-      responseQueue.put(response);
+      responseHandoff.put(response);
     }
     catch (final Exception e)
     {
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.io.InterruptedIOException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+import com.unboundid.util.Debug;
+import com.unboundid.util.InternalUseOnly;
+
+import static com.unboundid.ldap.sdk.LDAPMessages.*;
+
+
+
+/**
+ * This class provides an output stream that can be used to write data to a
+ * socket channel, including one that has been placed in non-blocking mode so
+ * that it can be serviced by a {@link SharedConnectionReaderThread}.  Writes
+ * will block until all of the data has been written, but for a non-blocking
+ * channel will not wait any longer than the SO_TIMEOUT value currently
+ * configured for the associated socket.  It also provides support for
+ * gathering writes from a set of byte buffers.
+ */
+@InternalUseOnly()
+final class SocketChannelOutputStream
+      extends OutputStream
+{
+  /**
+   * The maximum number of bytes from a byte array that will be provided in a
+   * single write to the channel.
+   */
+  private static final int MAX_WRITE_SIZE = 65_536;
+
+
+
+  // The socket whose SO_TIMEOUT value will be used as the write timeout.
+  private final Socket socket;
+
+  // The channel to which the data will be written.
+  private final SocketChannel channel;
+
+  // The selector that will be used to wait for the channel to become writable
+  // when the socket send buffer is full.  It will be created on first use.
+  private Selector writeSelector;
+
+
+
+  /**
+   * Creates a new output stream that will write to the channel associated with
+   * the provided socket.
+   *
+   * @param  socket  The socket to which data should be written.  It must have
+   *                 an associated channel.
+   */
+  SocketChannelOutputStream(final Socket socket)
+  {
+    this.socket = socket;
+
+    channel = socket.getChannel();
+    writeSelector = null;
+  }
+
+
+
+  /**
+   * Writes the provided byte to the channel.
+   *
+   * @param  b  The byte to be written.
+   *
+   * @throws  IOException  If a problem occurs while writing the data.
+   */
+  @Override()
+  public void write(final int b)
+         throws IOException
+  {
+    write(new byte[] { (byte) (b & 0xFF) }, 0, 1);
+  }
+
+
+
+  /**
+   * Writes the specified portion of the provided byte array to the channel.
+   *
+   * @param  b       The array containing the data to be written.
+   * @param  offset  The position in the array at which the data to write
+   *                 begins.
+   * @param  length  The number of bytes to be written.
+   *
+   * @throws  IOException  If a problem occurs while writing the data.
+   */
+  @Override()
+  public synchronized void write(final byte[] b, final int offset,
+                                 final int length)
+         throws IOException
+  {
+    // Limit the amount of data provided to each write so that the JVM won't
+    // need to allocate a temporary direct buffer as large as the entire array
+    // when writing a very large request.
+    final int end = offset + length;
+    final ByteBuffer buffer = ByteBuffer.wrap(b, offset, length);
+    while (buffer.hasRemaining())
+    {
+      buffer.limit(Math.min(end, buffer.position() + MAX_WRITE_SIZE));
+      if (channel.write(buffer) == 0)
+      {
+        awaitWritable();
+      }
+      buffer.limit(end);
+    }
+  }
+
+
+
+  /**
+   * Writes the remaining contents of all of the provided buffers to the channel
+   * using gathering writes.  The positions of the buffers will be updated to
+   * reflect the data that has been written.
+   *
+   * @param  buffers  The buffers containing the data to be written.
+   *
+   * @throws  IOException  If a problem occurs while writing the data.
+   */
+  synchronized void write(final ByteBuffer[] buffers)
+               throws IOException
+  {
+    int offset = 0;
+    while (offset < buffers.length)
+    {
+      if (! buffers[offset].hasRemaining())
+      {
+        offset++;
+        continue;
+      }
+
+      if (channel.write(buffers, offset, buffers.length - offset) == 0)
+      {
+        awaitWritable();
+      }
+    }
+  }
+
+
+
+  /**
+   * Waits for the channel to become writable.
+   *
+   * @throws  IOException  If the channel does not become writable within the
+   *                       SO_TIMEOUT configured for the socket, or if a
+   *                       problem occurs while waiting.
+   */
+  private void awaitWritable()
+          throws IOException
+  {
+    final int timeoutMillis = socket.getSoTimeout();
+    final long stopWaitingTime;
+    if (timeoutMillis > 0)
+    {
+      stopWaitingTime = System.currentTimeMillis() + timeoutMillis;
+    }
+    else
+    {
+      stopWaitingTime = Long.MAX_VALUE;
+    }
+
+    if (writeSelector == null)
+    {
+      writeSelector = Selector.open();
+    }
+
+    final SelectionKey key = channel.register(writeSelector,
+         SelectionKey.OP_WRITE);
+    try
+    {
+      while (true)
+      {
+        final long waitMillis;
+        if (timeoutMillis > 0)
+        {
+          waitMillis = stopWaitingTime - System.currentTimeMillis();
+          if (waitMillis <= 0L)
+          {
+            throw new SocketTimeoutException(
+                 ERR_CHANNEL_OUTPUT_STREAM_WRITE_TIMEOUT.get(timeoutMillis));
+          }
+        }
+        else
+        {
+          waitMillis = 0L;
+        }
+
+        if (writeSelector.select(waitMillis) > 0)
+        {
+          return;
+        }
+
+        if (Thread.currentThread().isInterrupted())
+        {
+          throw new InterruptedIOException(
+               ERR_CHANNEL_OUTPUT_STREAM_WRITE_INTERRUPTED.get());
+        }
+      }
+    }
+    finally
+    {
+      // The key must be cancelled and flushed from the selector so that the
+      // channel can later be returned to blocking mode if necessary.
+      key.cancel();
+      writeSelector.selectNow();
+    }
+  }
+
+
+
+  /**
+   * Flushes the output stream.  This has no effect because all data is written
+   * directly to the channel.
+   */
+  @Override()
+  public void flush()
+  {
+    // No implementation is required.
+  }
+
+
+
+  /**
+   * Closes this output stream and the underlying channel.
+   *
+   * @throws  IOException  If a problem occurs while closing the channel.
+   */
+  @Override()
+  public synchronized void close()
+         throws IOException
+  {
+    if (writeSelector != null)
+    {
+      try
+      {
+        writeSelector.close();
+      }
+      catch (final Exception e)
+      {
+        Debug.debugException(e);
+      }
+    }
+
+    channel.close();
+  }
+}
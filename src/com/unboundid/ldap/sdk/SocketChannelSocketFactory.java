@@ -0,0 +1,262 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import javax.net.SocketFactory;
+
+import com.unboundid.util.InternalUseOnly;
+import com.unboundid.util.SynchronizedSocketFactory;
+
+
+
+/**
+ * This class provides a socket factory that creates sockets that are backed by
+ * a {@code SocketChannel}, so that they can be serviced by a
+ * {@link SharedConnectionReaderThread}.  It will be used in place of the JVM's
+ * default socket factory for connections configured to use shared reader
+ * threads.
+ */
+@InternalUseOnly()
+final class SocketChannelSocketFactory
+      extends SocketFactory
+{
+  /**
+   * The singleton instance of this socket factory.
+   */
+  private static final SocketChannelSocketFactory INSTANCE =
+       new SocketChannelSocketFactory();
+
+
+
+  /**
+   * The class of the JVM-default socket factory.
+   */
+  private static final Class<?> DEFAULT_SOCKET_FACTORY_CLASS =
+       SocketFactory.getDefault().getClass();
+
+
+
+  /**
+   * Creates a new instance of this socket factory.
+   */
+  private SocketChannelSocketFactory()
+  {
+    // No implementation is required.
+  }
+
+
+
+  /**
+   * Retrieves the singleton instance of this socket factory.
+   *
+   * @return  The singleton instance of this socket factory.
+   */
+  static SocketChannelSocketFactory getInstance()
+  {
+    return INSTANCE;
+  }
+
+
+
+  /**
+   * Indicates whether the provided socket factory is the JVM-default socket
+   * factory (optionally wrapped in a {@code SynchronizedSocketFactory}), and
+   * may therefore be replaced by this socket factory without any change in
+   * behavior other than the sockets being backed by channels.
+   *
+   * @param  socketFactory  The socket factory to examine.
+   *
+   * @return  {@code true} if the provided socket factory is the JVM-default
+   *          socket factory, or {@code false} if not.
+   */
+  static boolean isDefaultSocketFactory(final SocketFactory socketFactory)
+  {
+    SocketFactory f = socketFactory;
+    if (f instanceof SynchronizedSocketFactory)
+    {
+      f = ((SynchronizedSocketFactory) f).getWrappedSocketFactory();
+    }
+
+    return ((f != null) && (f.getClass() == DEFAULT_SOCKET_FACTORY_CLASS));
+  }
+
+
+
+  /**
+   * Creates a new unconnected socket that is backed by a channel.
+   *
+   * @return  The socket that was created.
+   *
+   * @throws  IOException  If a problem occurs while creating the socket.
+   */
+  @Override()
+  public Socket createSocket()
+         throws IOException
+  {
+    return SocketChannel.open().socket();
+  }
+
+
+
+  /**
+   * Creates a new socket that is backed by a channel and connected to the
+   * specified server.
+   *
+   * @param  host  The address of the server to which the socket should be
+   *               connected.
+   * @param  port  The port of the server to which the socket should be
+   *               connected.
+   *
+   * @return  The socket that was created.
+   *
+   * @throws  IOException  If a problem occurs while creating the socket.
+   */
+  @Override()
+  public Socket createSocket(final String host, final int port)
+         throws IOException
+  {
+    return createSocket(new InetSocketAddress(host, port), null);
+  }
+
+
+
+  /**
+   * Creates a new socket that is backed by a channel and connected to the
+   * specified server.
+   *
+   * @param  host          The address of the server to which the socket
+   *                       should be connected.
+   * @param  port          The port of the server to which the socket should
+   *                       be connected.
+   * @param  localAddress  The local address to which the socket should be
+   *                       bound.
+   * @param  localPort     The local port to which the socket should be bound.
+   *
+   * @return  The socket that was created.
+   *
+   * @throws  IOException  If a problem occurs while creating the socket.
+   */
+  @Override()
+  public Socket createSocket(final String host, final int port,
+                             final InetAddress localAddress,
+                             final int localPort)
+         throws IOException
+  {
+    return createSocket(new InetSocketAddress(host, port),
+         new InetSocketAddress(localAddress, localPort));
+  }
+
+
+
+  /**
+   * Creates a new socket that is backed by a channel and connected to the
+   * specified server.
+   *
+   * @param  address  The address of the server to which the socket should be
+   *                  connected.
+   * @param  port     The port of the server to which the socket should be
+   *                  connected.
+   *
+   * @return  The socket that was created.
+   *
+   * @throws  IOException  If a problem occurs while creating the socket.
+   */
+  @Override()
+  public Socket createSocket(final InetAddress address, final int port)
+         throws IOException
+  {
+    return createSocket(new InetSocketAddress(address, port), null);
+  }
+
+
+
+  /**
+   * Creates a new socket that is backed by a channel and connected to the
+   * specified server.
+   *
+   * @param  address       The address of the server to which the socket
+   *                       should be connected.
+   * @param  port          The port of the server to which the socket should
+   *                       be connected.
+   * @param  localAddress  The local address to which the socket should be
+   *                       bound.
+   * @param  localPort     The local port to which the socket should be bound.
+   *
+   * @return  The socket that was created.
+   *
+   * @throws  IOException  If a problem occurs while creating the socket.
+   */
+  @Override()
+  public Socket createSocket(final InetAddress address, final int port,
+                             final InetAddress localAddress,
+                             final int localPort)
+         throws IOException
+  {
+    return createSocket(new InetSocketAddress(address, port),
+         new InetSocketAddress(localAddress, localPort));
+  }
+
+
+
+  /**
+   * Creates a new socket that is backed by a channel and connected to the
+   * specified server.
+   *
+   * @param  remoteAddress  The address to which the socket should be
+   *                        connected.
+   * @param  localAddress   The address to which the socket should be bound, or
+   *                        {@code null} if it does not need to be bound to any
+   *                        particular local address.
+   *
+   * @return  The socket that was created.
+   *
+   * @throws  IOException  If a problem occurs while creating the socket.
+   */
+  private static Socket createSocket(final InetSocketAddress remoteAddress,
+                                     final InetSocketAddress localAddress)
+          throws IOException
+  {
+    final SocketChannel channel = SocketChannel.open();
+    try
+    {
+      final Socket socket = channel.socket();
+      if (localAddress != null)
+      {
+        socket.bind(localAddress);
+      }
+
+      socket.connect(remoteAddress);
+      return socket;
+    }
+    catch (final IOException ioe)
+    {
+      channel.close();
+      throw ioe;
+    }
+  }
+}
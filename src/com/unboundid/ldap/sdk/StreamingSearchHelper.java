@@ -0,0 +1,634 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import com.unboundid.ldap.protocol.LDAPResponse;
+import com.unboundid.util.Debug;
+import com.unboundid.util.DebugType;
+import com.unboundid.util.InternalUseOnly;
+import com.unboundid.util.StaticUtils;
+
+import static com.unboundid.ldap.sdk.LDAPMessages.*;
+
+
+
+/**
+ * This class provides a helper class used for processing searches with flow
+ * control, in which search result entries and references are only delivered to
+ * a {@link SearchResultSubscriber} when it has requested them.
+ * <BR><BR>
+ * When there is no outstanding demand, a response read by a dedicated
+ * connection reader thread will cause that thread to wait until more results
+ * are requested, and a response read by a shared connection reader thread will
+ * be refused so that the shared reader suspends reading from the connection
+ * until more results are requested.  Either way, the client stops reading data
+ * from the socket, which will ultimately cause the server to stop sending it.
+ * When a shared reader thread is used, the subscriber is signalled through the
+ * connection's {@link SharedConnectionCallbackDispatcher} rather than on the
+ * shared reader thread itself.
+ */
+@InternalUseOnly()
+final class StreamingSearchHelper
+      implements CommonAsyncHelper, FlowControlledResponseAcceptor,
+                 IntermediateResponseListener, SearchResultSubscription
+{
+  /**
+   * The serial version UID for this serializable class.
+   */
+  private static final long serialVersionUID = -3207429381617730316L;
+
+
+
+  // The async request ID created for the associated operation.
+  private final AsyncRequestID asyncRequestID;
+
+  // Indicates whether the search has completed or the subscription has been
+  // cancelled, after which no more responses will be delivered.
+  private final AtomicBoolean terminated;
+
+  // The number of additional entries and references that the subscriber is
+  // prepared to receive.
+  private final AtomicLong demand;
+
+  // The number of entries returned from this search.
+  private volatile int numEntries;
+
+  // The number of references returned from this search.
+  private volatile int numReferences;
+
+  // Indicates whether the search request has been sent to the server.
+  private volatile boolean requestSent;
+
+  // The intermediate response listener to be notified of any intermediate
+  // response messages received.
+  private final IntermediateResponseListener intermediateResponseListener;
+
+  // The connection with which this helper is associated.
+  private final LDAPConnection connection;
+
+  // The time that this helper was created.
+  private final long createTime;
+
+  // The object used to wait for and signal the availability of demand.
+  private final Object demandLock;
+
+  // The object used to ensure that the subscriber is never invoked
+  // concurrently.
+  private final Object signalLock;
+
+  // The subscriber to which results will be delivered.
+  private final SearchResultSubscriber subscriber;
+
+  // The shared connection reader that is waiting for demand before it will
+  // continue reading from the connection, if any.
+  private volatile SharedConnectionReader stalledReader;
+
+
+
+  /**
+   * Creates a new instance of this helper that will be used to deliver results
+   * to the provided subscriber.
+   *
+   * @param  connection                    The connection with which this helper
+   *                                       is associated.
+   * @param  messageID                     The message ID for the associated
+   *                                       operation.
+   * @param  subscriber                    The subscriber to which results will
+   *                                       be delivered.
+   * @param  intermediateResponseListener  The intermediate response listener to
+   *                                       be notified of any intermediate
+   *                                       response messages received.
+   */
+  @InternalUseOnly()
+  StreamingSearchHelper(final LDAPConnection connection, final int messageID,
+       final SearchResultSubscriber subscriber,
+       final IntermediateResponseListener intermediateResponseListener)
+  {
+    this.connection                   = connection;
+    this.subscriber                   = subscriber;
+    this.intermediateResponseListener = intermediateResponseListener;
+
+    numEntries     = 0;
+    numReferences  = 0;
+    requestSent    = false;
+    stalledReader  = null;
+    demand         = new AtomicLong(0L);
+    terminated     = new AtomicBoolean(false);
+    demandLock     = new Object();
+    signalLock     = new Object();
+    asyncRequestID = new AsyncRequestID(messageID, connection);
+    createTime     = System.nanoTime();
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public AsyncRequestID getAsyncRequestID()
+  {
+    return asyncRequestID;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public LDAPConnection getConnection()
+  {
+    return connection;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public long getCreateTimeNanos()
+  {
+    return createTime;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public OperationType getOperationType()
+  {
+    return OperationType.SEARCH;
+  }
+
+
+
+  /**
+   * Retrieves the number of entries returned for the search.
+   *
+   * @return  The number of entries returned for the search.
+   */
+  int getNumEntries()
+  {
+    return numEntries;
+  }
+
+
+
+  /**
+   * Retrieves the number of references returned for the search.
+   *
+   * @return  The number of references returned for the search.
+   */
+  int getNumReferences()
+  {
+    return numReferences;
+  }
+
+
+
+  /**
+   * Indicates whether the search has completed or the subscription has been
+   * cancelled.
+   *
+   * @return  {@code true} if the search has completed or the subscription has
+   *          been cancelled, or {@code false} if not.
+   */
+  boolean isTerminated()
+  {
+    return terminated.get();
+  }
+
+
+
+  /**
+   * Indicates that the search request is about to be sent to the server, so
+   * that cancelling the subscription after this point will cause an abandon
+   * request to be sent.
+   */
+  void setRequestSent()
+  {
+    requestSent = true;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void request(final long numResults)
+  {
+    if (numResults <= 0L)
+    {
+      final SearchResult searchResult = new SearchResult(
+           asyncRequestID.getMessageID(), ResultCode.PARAM_ERROR,
+           ERR_STREAMING_SEARCH_INVALID_DEMAND.get(numResults), null,
+           StaticUtils.NO_STRINGS, numEntries, numReferences,
+           StaticUtils.NO_CONTROLS);
+      if (terminate())
+      {
+        if (requestSent)
+        {
+          try
+          {
+            connection.abandon(asyncRequestID);
+          }
+          catch (final LDAPException le)
+          {
+            Debug.debugException(le);
+          }
+        }
+
+        deliverResult(searchResult);
+      }
+      return;
+    }
+
+    while (true)
+    {
+      final long current = demand.get();
+      final long updated;
+      if ((Long.MAX_VALUE - current) <= numResults)
+      {
+        updated = Long.MAX_VALUE;
+      }
+      else
+      {
+        updated = current + numResults;
+      }
+
+      if (demand.compareAndSet(current, updated))
+      {
+        break;
+      }
+    }
+
+    wakeUpReaders();
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override()
+  public void cancel()
+  {
+    if (terminate() && requestSent)
+    {
+      asyncRequestID.cancel(false);
+    }
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @InternalUseOnly()
+  @Override()
+  public boolean offerResponse(final LDAPResponse response,
+                               final SharedConnectionReader reader)
+  {
+    if (terminated.get())
+    {
+      return true;
+    }
+
+    if ((response instanceof SearchResultEntry) ||
+        (response instanceof SearchResultReference))
+    {
+      if (demand.get() <= 0L)
+      {
+        // Register the reader to be notified before checking again, so that
+        // the notification cannot be missed if the subscriber requests more
+        // results in the meantime.
+        stalledReader = reader;
+        if ((demand.get() <= 0L) && (! terminated.get()))
+        {
+          return false;
+        }
+
+        stalledReader = null;
+      }
+
+      // Consume the demand now, so that the reader will not deliver more
+      // results than were requested, but signal the subscriber through the
+      // reader's callback dispatcher so that it is not invoked on the shared
+      // reader thread.
+      consumeDemand();
+      reader.dispatchCallback(new Runnable()
+      {
+        @Override()
+        public void run()
+        {
+          signalSearchResponse(response);
+        }
+      });
+      return true;
+    }
+
+    reader.dispatchCallback(new Runnable()
+    {
+      @Override()
+      public void run()
+      {
+        processFinalResponse(response);
+      }
+    });
+    return true;
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @InternalUseOnly()
+  @Override()
+  public void responseReceived(final LDAPResponse response)
+         throws LDAPException
+  {
+    if (terminated.get())
+    {
+      return;
+    }
+
+    if ((response instanceof SearchResultEntry) ||
+        (response instanceof SearchResultReference))
+    {
+      if (awaitDemand())
+      {
+        deliverSearchResponse(response);
+      }
+    }
+    else
+    {
+      processFinalResponse(response);
+    }
+  }
+
+
+
+  /**
+   * Waits until the subscriber has requested at least one more result, or
+   * until the search has been terminated.
+   *
+   * @return  {@code true} if there is demand for another result, or
+   *          {@code false} if the search has been terminated or the thread
+   *          was interrupted while waiting (for example, because the
+   *          connection is being closed).
+   */
+  private boolean awaitDemand()
+  {
+    if (demand.get() > 0L)
+    {
+      return true;
+    }
+
+    synchronized (demandLock)
+    {
+      while (demand.get() <= 0L)
+      {
+        if (terminated.get())
+        {
+          return false;
+        }
+
+        try
+        {
+          demandLock.wait();
+        }
+        catch (final InterruptedException ie)
+        {
+          Debug.debugException(ie);
+          Thread.currentThread().interrupt();
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
+
+
+  /**
+   * Delivers the provided search result entry or reference to the subscriber
+   * and consumes one unit of demand.  This must only be called when there is
+   * outstanding demand.
+   *
+   * @param  response  The search result entry or reference to deliver.
+   */
+  private void deliverSearchResponse(final LDAPResponse response)
+  {
+    consumeDemand();
+    signalSearchResponse(response);
+  }
+
+
+
+  /**
+   * Consumes one unit of demand.  This must only be called when there is
+   * outstanding demand.
+   */
+  private void consumeDemand()
+  {
+    if (demand.get() != Long.MAX_VALUE)
+    {
+      demand.decrementAndGet();
+    }
+  }
+
+
+
+  /**
+   * Delivers the provided search result entry or reference to the subscriber,
+   * unless the search has already been terminated.
+   *
+   * @param  response  The search result entry or reference to deliver.
+   */
+  private void signalSearchResponse(final LDAPResponse response)
+  {
+    synchronized (signalLock)
+    {
+      if (terminated.get())
+      {
+        return;
+      }
+
+      if (response instanceof SearchResultEntry)
+      {
+        numEntries++;
+        subscriber.onEntry((SearchResultEntry) response);
+      }
+      else
+      {
+        numReferences++;
+        subscriber.onReference((SearchResultReference) response);
+      }
+    }
+  }
+
+
+
+  /**
+   * Processes the provided response, which must be either a search result or
+   * a connection closed response, as the final response for the search.
+   *
+   * @param  response  The final response for the search.
+   */
+  private void processFinalResponse(final LDAPResponse response)
+  {
+    if (! terminate())
+    {
+      return;
+    }
+
+    final SearchResult searchResult;
+    if (response instanceof ConnectionClosedResponse)
+    {
+      final String message;
+      final ConnectionClosedResponse ccr = (ConnectionClosedResponse) response;
+      final String ccrMessage = ccr.getMessage();
+      if (ccrMessage == null)
+      {
+        message = ERR_CONN_CLOSED_WAITING_FOR_ASYNC_RESPONSE.get();
+      }
+      else
+      {
+        message = ERR_CONN_CLOSED_WAITING_FOR_ASYNC_RESPONSE_WITH_MESSAGE.get(
+             ccrMessage);
+      }
+
+      searchResult = new SearchResult(asyncRequestID.getMessageID(),
+           ccr.getResultCode(), message, null, StaticUtils.NO_STRINGS,
+           numEntries, numReferences, StaticUtils.NO_CONTROLS);
+    }
+    else
+    {
+      searchResult = (SearchResult) response;
+      searchResult.setCounts(numEntries, null, numReferences, null);
+    }
+
+    connection.getConnectionStatistics().incrementNumSearchResponses(
+         numEntries, numReferences, System.nanoTime() - createTime);
+    deliverResult(searchResult);
+  }
+
+
+
+  /**
+   * Delivers the provided search result to the subscriber and makes it
+   * available through the async request ID.  This must only be called by the
+   * thread that successfully terminated the search.
+   *
+   * @param  searchResult  The search result to deliver.
+   */
+  private void deliverResult(final SearchResult searchResult)
+  {
+    try
+    {
+      synchronized (signalLock)
+      {
+        subscriber.onComplete(searchResult);
+      }
+    }
+    finally
+    {
+      asyncRequestID.setResult(searchResult);
+    }
+  }
+
+
+
+  /**
+   * Marks the search as terminated so that no further responses will be
+   * delivered, and releases any reader that is waiting for demand.
+   *
+   * @return  {@code true} if the search was terminated by this call, or
+   *          {@code false} if it had already been terminated.
+   */
+  private boolean terminate()
+  {
+    if (terminated.compareAndSet(false, true))
+    {
+      wakeUpReaders();
+      return true;
+    }
+
+    return false;
+  }
+
+
+
+  /**
+   * Notifies any connection reader that is waiting for demand that it should
+   * check again.
+   */
+  private void wakeUpReaders()
+  {
+    synchronized (demandLock)
+    {
+      demandLock.notifyAll();
+    }
+
+    final SharedConnectionReader reader = stalledReader;
+    if (reader != null)
+    {
+      stalledReader = null;
+      reader.responseConsumed();
+    }
+  }
+
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @InternalUseOnly()
+  @Override()
+  public void intermediateResponseReturned(
+                   final IntermediateResponse intermediateResponse)
+  {
+    if (intermediateResponseListener == null)
+    {
+      Debug.debug(Level.WARNING, DebugType.LDAP,
+            WARN_INTERMEDIATE_RESPONSE_WITH_NO_LISTENER.get(
+                 String.valueOf(intermediateResponse)));
+    }
+    else
+    {
+      intermediateResponseListener.intermediateResponseReturned(
+           intermediateResponse);
+    }
+  }
+}
@@ -23,6 +23,7 @@ package com.unboundid.asn1;
 
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.File;
 import java.io.FileInputStream;
@@ -1585,4 +1586,78 @@ public class ASN1StreamReaderTestCase
 
     reader.readUTCTime();
   }
+
+
+
+  /**
+   * Tests the behavior when reading cached string values, including repeated
+   * values, empty values, values that collide in the cache, and values that
+   * are too long to be cached, interspersed with values read with other
+   * methods.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testReadCachedString()
+         throws Exception
+  {
+    final StringBuilder longBuffer = new StringBuilder();
+    for (int i=0; i < 1000; i++)
+    {
+      longBuffer.append("\u00e9");
+    }
+    final String longValue = longBuffer.toString();
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    for (int i=0; i < 2; i++)
+    {
+      for (int j=0; j < 500; j++)
+      {
+        ASN1Writer.writeElement(new ASN1OctetString("attr" + j),
+             outputStream);
+      }
+    }
+    ASN1Writer.writeElement(new ASN1OctetString(), outputStream);
+    ASN1Writer.writeElement(new ASN1OctetString(longValue), outputStream);
+    ASN1Writer.writeElement(new ASN1OctetString(longValue), outputStream);
+    ASN1Writer.writeElement(new ASN1OctetString("attr0"), outputStream);
+    ASN1Writer.writeElement(new ASN1OctetString(new byte[100_000]),
+         outputStream);
+    ASN1Writer.writeElement(new ASN1OctetString("attr0"), outputStream);
+    ASN1Writer.writeElement(new ASN1OctetString("attr0"), outputStream);
+
+    final ASN1StreamReader reader = new ASN1StreamReader(
+         new ByteArrayInputStream(outputStream.toByteArray()));
+
+    final String[] firstValues = new String[500];
+    for (int j=0; j < 500; j++)
+    {
+      firstValues[j] = reader.readCachedString();
+      assertEquals(firstValues[j], "attr" + j);
+    }
+
+    int cacheHits = 0;
+    for (int j=0; j < 500; j++)
+    {
+      final String s = reader.readCachedString();
+      assertEquals(s, "attr" + j);
+      if (s == firstValues[j])
+      {
+        cacheHits++;
+      }
+    }
+    assertTrue(cacheHits > 0);
+
+    assertEquals(reader.readCachedString(), "");
+    assertEquals(reader.readCachedString(), longValue);
+    assertEquals(reader.readString(), longValue);
+
+    final String attr0 = reader.readCachedString();
+    assertEquals(attr0, "attr0");
+    assertTrue(Arrays.equals(reader.readBytes(), new byte[100_000]));
+    assertSame(reader.readCachedString(), attr0);
+    assertEquals(reader.readString(), "attr0");
+
+    assertNull(reader.readCachedString());
+  }
 }
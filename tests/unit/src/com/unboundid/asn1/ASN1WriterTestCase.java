@@ -25,7 +25,9 @@ package com.unboundid.asn1;
 import java.io.ByteArrayOutputStream;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.testng.annotations.Test;
 
@@ -180,4 +182,114 @@ public class ASN1WriterTestCase
       // This is expected
     }
   }
+
+
+
+  /**
+   * Tests the ability to stream elements, including nested sequences and sets
+   * with values of varying sizes and previously-decoded elements.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testStreamElement()
+         throws Exception
+  {
+    final byte[] largeValue = new byte[300_000];
+    for (int i=0; i < largeValue.length; i++)
+    {
+      largeValue[i] = (byte) (i & 0x7F);
+    }
+
+    final ASN1Element[] elements =
+    {
+      new ASN1OctetString(),
+      new ASN1OctetString("foo"),
+      new ASN1Integer(12345),
+      new ASN1Boolean(true),
+      new ASN1Null(),
+      new ASN1Sequence(),
+      new ASN1Set(),
+      new ASN1OctetString(new byte[200]),
+      new ASN1OctetString(largeValue),
+      new ASN1Sequence((byte) 0x68,
+           new ASN1OctetString("dc=example,dc=com"),
+           new ASN1Sequence(
+                new ASN1Sequence(
+                     new ASN1OctetString("jpegPhoto"),
+                     new ASN1Set(
+                          new ASN1OctetString(largeValue),
+                          new ASN1OctetString(new byte[70_000]))),
+                new ASN1Sequence(
+                     new ASN1OctetString("description"),
+                     new ASN1Set(new ASN1OctetString("bar"))))),
+      ASN1Sequence.decodeAsSequence(new ASN1Sequence(
+           new ASN1Integer(1),
+           new ASN1Set(new ASN1OctetString(new byte[130]))).encode())
+    };
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    for (final ASN1Element e : elements)
+    {
+      outputStream.reset();
+      ASN1Writer.streamElement(e, outputStream);
+      assertTrue(Arrays.equals(outputStream.toByteArray(), e.encode()),
+           "Streamed encoding mismatch for element " + e.getClass().getName());
+    }
+  }
+
+
+
+  /**
+   * Tests that streaming an element writes the values of octet strings that
+   * are held in a portion of a larger array directly from that array, and
+   * that string-based values are written correctly.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testStreamElementWithoutCopyingValues()
+         throws Exception
+  {
+    final byte[] backingArray = new byte[200_000];
+    for (int i=0; i < backingArray.length; i++)
+    {
+      backingArray[i] = (byte) i;
+    }
+
+    final ASN1OctetString slicedValue =
+         new ASN1OctetString(backingArray, 100, 150_000);
+    final ASN1Sequence sequence = new ASN1Sequence(
+         new ASN1OctetString("jpegPhoto"),
+         new ASN1Set(slicedValue, new ASN1OctetString("caf\u00e9")));
+
+    final List<byte[]> writtenArrays = new ArrayList<>(10);
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream()
+    {
+      @Override()
+      public synchronized void write(final byte[] b, final int off,
+                                     final int len)
+      {
+        writtenArrays.add(b);
+        super.write(b, off, len);
+      }
+    };
+
+    ASN1Writer.streamElement(sequence, outputStream);
+    assertTrue(Arrays.equals(outputStream.toByteArray(), sequence.encode()));
+
+    boolean backingArrayWritten = false;
+    for (final byte[] b : writtenArrays)
+    {
+      if (b == backingArray)
+      {
+        backingArrayWritten = true;
+      }
+    }
+    assertTrue(backingArrayWritten);
+
+    assertEquals(slicedValue.getValueLength(), 150_000);
+    assertTrue(Arrays.equals(slicedValue.getValue(),
+         Arrays.copyOfRange(backingArray, 100, 150_100)));
+  }
 }
@@ -1075,6 +1075,154 @@ public final class InMemoryDirectoryServerConfigTestCase
 
 
 
+  /**
+   * Tests the behavior of the methods for interacting with the substring index
+   * attributes.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testSubstringIndexAttributes()
+         throws Exception
+  {
+    final InMemoryDirectoryServerConfig cfg =
+         new InMemoryDirectoryServerConfig("dc=example,dc=com");
+
+    assertNotNull(cfg.getSubstringIndexAttributes());
+    assertTrue(cfg.getSubstringIndexAttributes().isEmpty());
+
+    assertNotNull(cfg.toString());
+
+    cfg.setSubstringIndexAttributes("cn");
+    assertNotNull(cfg.getSubstringIndexAttributes());
+    assertEquals(cfg.getSubstringIndexAttributes().size(), 1);
+    assertTrue(cfg.getSubstringIndexAttributes().contains("cn"));
+
+    assertNotNull(cfg.toString());
+
+    cfg.setSubstringIndexAttributes((String[]) null);
+    assertNotNull(cfg.getSubstringIndexAttributes());
+    assertTrue(cfg.getSubstringIndexAttributes().isEmpty());
+
+    assertNotNull(cfg.toString());
+
+    cfg.setSubstringIndexAttributes("cn", "sn", "mail");
+    assertNotNull(cfg.getSubstringIndexAttributes());
+    assertEquals(cfg.getSubstringIndexAttributes().size(), 3);
+    assertTrue(cfg.getSubstringIndexAttributes().contains("cn"));
+    assertTrue(cfg.getSubstringIndexAttributes().contains("sn"));
+    assertTrue(cfg.getSubstringIndexAttributes().contains("mail"));
+
+    assertNotNull(cfg.toString());
+
+    cfg.setSubstringIndexAttributes();
+    assertNotNull(cfg.getSubstringIndexAttributes());
+    assertTrue(cfg.getSubstringIndexAttributes().isEmpty());
+
+    assertNotNull(cfg.toString());
+  }
+
+
+
+  /**
+   * Tests the behavior of the methods for interacting with the ordering index
+   * attributes.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testOrderingIndexAttributes()
+         throws Exception
+  {
+    final InMemoryDirectoryServerConfig cfg =
+         new InMemoryDirectoryServerConfig("dc=example,dc=com");
+
+    assertNotNull(cfg.getOrderingIndexAttributes());
+    assertTrue(cfg.getOrderingIndexAttributes().isEmpty());
+
+    assertNotNull(cfg.toString());
+
+    cfg.setOrderingIndexAttributes("employeeNumber");
+    assertNotNull(cfg.getOrderingIndexAttributes());
+    assertEquals(cfg.getOrderingIndexAttributes().size(), 1);
+    assertTrue(cfg.getOrderingIndexAttributes().contains("employeeNumber"));
+
+    assertNotNull(cfg.toString());
+
+    cfg.setOrderingIndexAttributes((String[]) null);
+    assertNotNull(cfg.getOrderingIndexAttributes());
+    assertTrue(cfg.getOrderingIndexAttributes().isEmpty());
+
+    assertNotNull(cfg.toString());
+
+    cfg.setOrderingIndexAttributes("employeeNumber", "createTimestamp",
+         "uidNumber");
+    assertNotNull(cfg.getOrderingIndexAttributes());
+    assertEquals(cfg.getOrderingIndexAttributes().size(), 3);
+    assertTrue(cfg.getOrderingIndexAttributes().contains("employeeNumber"));
+    assertTrue(cfg.getOrderingIndexAttributes().contains("createTimestamp"));
+    assertTrue(cfg.getOrderingIndexAttributes().contains("uidNumber"));
+
+    assertNotNull(cfg.toString());
+
+    cfg.setOrderingIndexAttributes();
+    assertNotNull(cfg.getOrderingIndexAttributes());
+    assertTrue(cfg.getOrderingIndexAttributes().isEmpty());
+
+    assertNotNull(cfg.toString());
+  }
+
+
+
+  /**
+   * Tests the behavior of the methods for interacting with the presence index
+   * attributes.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testPresenceIndexAttributes()
+         throws Exception
+  {
+    final InMemoryDirectoryServerConfig cfg =
+         new InMemoryDirectoryServerConfig("dc=example,dc=com");
+
+    assertNotNull(cfg.getPresenceIndexAttributes());
+    assertTrue(cfg.getPresenceIndexAttributes().isEmpty());
+
+    assertNotNull(cfg.toString());
+
+    cfg.setPresenceIndexAttributes("mail");
+    assertNotNull(cfg.getPresenceIndexAttributes());
+    assertEquals(cfg.getPresenceIndexAttributes().size(), 1);
+    assertTrue(cfg.getPresenceIndexAttributes().contains("mail"));
+
+    assertNotNull(cfg.toString());
+
+    cfg.setPresenceIndexAttributes((String[]) null);
+    assertNotNull(cfg.getPresenceIndexAttributes());
+    assertTrue(cfg.getPresenceIndexAttributes().isEmpty());
+
+    assertNotNull(cfg.toString());
+
+    cfg.setPresenceIndexAttributes("mail", "telephoneNumber", "description");
+    assertNotNull(cfg.getPresenceIndexAttributes());
+    assertEquals(cfg.getPresenceIndexAttributes().size(), 3);
+    assertTrue(cfg.getPresenceIndexAttributes().contains("mail"));
+    assertTrue(cfg.getPresenceIndexAttributes().contains("telephoneNumber"));
+    assertTrue(cfg.getPresenceIndexAttributes().contains("description"));
+
+    assertNotNull(cfg.toString());
+
+    cfg.setPresenceIndexAttributes();
+    assertNotNull(cfg.getPresenceIndexAttributes());
+    assertTrue(cfg.getPresenceIndexAttributes().isEmpty());
+
+    assertNotNull(cfg.toString());
+  }
+
+
+
   /**
    * Tests the behavior of the methods for interacting with the referential
    * integrity attributes.
@@ -22,6 +22,10 @@ package com.unboundid.ldap.listener;
 
 
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.testng.annotations.Test;
 
 import com.unboundid.ldap.sdk.AddRequest;
@@ -317,6 +321,140 @@ public final class InMemoryDirectoryServerDelayTestCase
 
 
 
+  /**
+   * Tests to ensure that operations that only read data may be processed
+   * concurrently, while operations that write data are still processed one at
+   * a time.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testDelayWithConcurrentOperations()
+         throws Exception
+  {
+    final InMemoryDirectoryServerConfig cfg =
+         new InMemoryDirectoryServerConfig("dc=example,dc=com");
+    cfg.addAdditionalBindCredentials("cn=Directory Manager", "password");
+
+    final InMemoryDirectoryServer ds = new InMemoryDirectoryServer(cfg);
+    ds.add(generateDomainEntry("example", "dc=com"));
+    ds.startListening();
+
+    final List<LDAPConnection> conns = new ArrayList<>(5);
+    for (int i=0; i < 5; i++)
+    {
+      conns.add(ds.getConnection());
+    }
+
+    try
+    {
+      ds.setProcessingDelayMillis(300L);
+
+      // Five searches with a 300 millisecond delay should take much less than
+      // 1500 milliseconds if they are processed concurrently.
+      final AtomicInteger failures = new AtomicInteger(0);
+      long startTime = System.currentTimeMillis();
+      runConcurrently(conns, failures, false);
+      long elapsedTime = System.currentTimeMillis() - startTime;
+      assertEquals(failures.get(), 0);
+      assertTrue(elapsedTime < 1200L,
+           "Concurrent searches took " + elapsedTime + "ms");
+
+      // Five adds must still be processed one at a time, and all of them
+      // should succeed.
+      startTime = System.currentTimeMillis();
+      runConcurrently(conns, failures, true);
+      elapsedTime = System.currentTimeMillis() - startTime;
+      assertEquals(failures.get(), 0);
+      assertProcessingDelayExceeds(startTime, startTime + elapsedTime, 1500L,
+           "concurrent add");
+
+      ds.setProcessingDelayMillis(0L);
+      assertEquals(ds.countEntries(), 6);
+    }
+    finally
+    {
+      ds.setProcessingDelayMillis(0L);
+
+      for (final LDAPConnection conn : conns)
+      {
+        conn.close();
+      }
+      ds.shutDown(true);
+    }
+  }
+
+
+
+  /**
+   * Uses a separate thread for each of the provided connections to process
+   * either a search or an add operation, and waits for all of them to
+   * complete.
+   *
+   * @param  conns     The connections to use to process the operations.
+   * @param  failures  A counter that will be incremented for each operation
+   *                   that does not complete successfully.
+   * @param  add       Indicates whether to process add operations rather than
+   *                   searches.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  private void runConcurrently(final List<LDAPConnection> conns,
+                               final AtomicInteger failures,
+                               final boolean add)
+          throws Exception
+  {
+    final List<Thread> threads = new ArrayList<>(conns.size());
+    for (int i=0; i < conns.size(); i++)
+    {
+      final LDAPConnection conn = conns.get(i);
+      final String ou = "test " + i;
+      threads.add(new Thread()
+      {
+        @Override()
+        public void run()
+        {
+          try
+          {
+            final ResultCode resultCode;
+            if (add)
+            {
+              resultCode = conn.add(
+                   generateOrgUnitEntry(ou, "dc=example,dc=com")).
+                   getResultCode();
+            }
+            else
+            {
+              resultCode = conn.search("dc=example,dc=com", SearchScope.BASE,
+                   "(objectClass=*)").getResultCode();
+            }
+
+            if (resultCode != ResultCode.SUCCESS)
+            {
+              failures.incrementAndGet();
+            }
+          }
+          catch (final Exception e)
+          {
+            failures.incrementAndGet();
+          }
+        }
+      });
+    }
+
+    for (final Thread t : threads)
+    {
+      t.start();
+    }
+
+    for (final Thread t : threads)
+    {
+      t.join();
+    }
+  }
+
+
+
   /**
    * Ensures that the time required to process an operation is at least the
    * specified delay time.
@@ -24,6 +24,7 @@ package com.unboundid.ldap.listener;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.TreeSet;
 
@@ -34,6 +35,7 @@ import com.unboundid.ldap.sdk.DN;
 import com.unboundid.ldap.sdk.Entry;
 import com.unboundid.ldap.sdk.LDAPException;
 import com.unboundid.ldap.sdk.LDAPSDKTestCase;
+import com.unboundid.ldap.sdk.ReadOnlyEntry;
 import com.unboundid.ldap.sdk.schema.Schema;
 
 
@@ -352,6 +354,67 @@ public final class InMemoryDirectoryServerEqualityAttributeIndexTestCase
 
 
 
+  /**
+   * Tests the ability to create and restore snapshots of an index.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testSnapshotAndRestore()
+         throws Exception
+  {
+    final InMemoryDirectoryServerEqualityAttributeIndex index =
+         new InMemoryDirectoryServerEqualityAttributeIndex("description",
+              Schema.getDefaultStandardSchema());
+
+    final Entry e1 = new Entry(
+         "dn: ou=Test 1,dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: organizationalUnit",
+         "ou: Test 1",
+         "description: foo");
+    final Entry e2 = new Entry(
+         "dn: ou=Test 2,dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: organizationalUnit",
+         "ou: Test 2",
+         "description: foo",
+         "description: bar");
+
+    index.processAdd(e1);
+    final Map<ASN1OctetString,TreeSet<DN>> snapshotMap = index.copyMap();
+    final InMemoryDirectoryServerSnapshot snapshot =
+         new InMemoryDirectoryServerSnapshot(
+              new PersistentTreeMap<DN,ReadOnlyEntry>(),
+              Collections.<InMemoryDirectoryServerIndex<?>,
+                   PersistentTreeMap<?,PersistentTreeMap<DN,Boolean>>>
+                   singletonMap(index, index.snapshot()),
+              0L, 0L);
+
+    index.processAdd(e2);
+    index.processDelete(e1);
+    assertEquals(index.getMatchingEntries(new ASN1OctetString("FOO")).size(),
+         1);
+    assertTrue(index.getMatchingEntries(new ASN1OctetString("foo")).contains(
+         new DN("ou=Test 2,dc=example,dc=com")));
+    assertEquals(index.getMatchingEntries(new ASN1OctetString("bar")).size(),
+         1);
+
+    assertTrue(index.restore(snapshot));
+    assertEquals(index.copyMap(), snapshotMap);
+    assertTrue(index.getMatchingEntries(new ASN1OctetString("foo")).contains(
+         new DN("ou=Test 1,dc=example,dc=com")));
+    assertEmpty(index.getMatchingEntries(new ASN1OctetString("bar")));
+
+    // Updates made after restoring the snapshot must not affect the snapshot.
+    index.clear();
+    assertTrue(index.copyMap().isEmpty());
+    assertTrue(index.restore(snapshot));
+    assertEquals(index.copyMap(), snapshotMap);
+  }
+
+
+
   /**
    * Asserts that the provided collection is not {@code null} but is empty.
    *
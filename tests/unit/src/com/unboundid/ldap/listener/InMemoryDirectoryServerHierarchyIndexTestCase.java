@@ -0,0 +1,214 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.listener;
+
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPSDKTestCase;
+import com.unboundid.ldap.sdk.ReadOnlyEntry;
+import com.unboundid.ldap.sdk.SearchResult;
+import com.unboundid.ldap.sdk.SearchScope;
+
+
+
+/**
+ * This class provides a set of test cases for the
+ * InMemoryDirectoryServerHierarchyIndex class.
+ */
+public final class InMemoryDirectoryServerHierarchyIndexTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests the process of adding and removing entries and retrieving the DNs of
+   * entries in each scope.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testIndex()
+         throws Exception
+  {
+    final InMemoryDirectoryServerHierarchyIndex index =
+         new InMemoryDirectoryServerHierarchyIndex();
+
+    final Entry base = new Entry("dc=example,dc=com");
+    final Entry people = new Entry("ou=People,dc=example,dc=com");
+    final Entry groups = new Entry("ou=Groups,dc=example,dc=com");
+    final Entry user1 = new Entry("uid=user.1,ou=People,dc=example,dc=com");
+    final Entry user2 = new Entry("uid=user.2,ou=People,dc=example,dc=com");
+
+    for (final Entry e : Arrays.asList(user2, people, base, groups, user1))
+    {
+      index.processAdd(e);
+    }
+
+    final DN baseDN = base.getParsedDN();
+    assertEquals(index.getDNsInScope(baseDN, SearchScope.BASE),
+         dnList("dc=example,dc=com"));
+    assertEquals(index.getDNsInScope(baseDN, SearchScope.ONE),
+         dnList("ou=Groups,dc=example,dc=com",
+              "ou=People,dc=example,dc=com"));
+    assertEquals(index.getDNsInScope(baseDN, SearchScope.SUB),
+         dnList("dc=example,dc=com",
+              "ou=Groups,dc=example,dc=com",
+              "ou=People,dc=example,dc=com",
+              "uid=user.1,ou=People,dc=example,dc=com",
+              "uid=user.2,ou=People,dc=example,dc=com"));
+    assertEquals(
+         index.getDNsInScope(people.getParsedDN(),
+              SearchScope.SUBORDINATE_SUBTREE),
+         dnList("uid=user.1,ou=People,dc=example,dc=com",
+              "uid=user.2,ou=People,dc=example,dc=com"));
+    assertTrue(index.getDNsInScope(groups.getParsedDN(),
+         SearchScope.ONE).isEmpty());
+
+    final InMemoryDirectoryServerSnapshot snapshot =
+         new InMemoryDirectoryServerSnapshot(
+              new PersistentTreeMap<DN,ReadOnlyEntry>(),
+              Collections.<InMemoryDirectoryServerIndex<?>,
+                   PersistentTreeMap<?,PersistentTreeMap<DN,Boolean>>>
+                   singletonMap(index, index.snapshot()),
+              0L, 0L);
+
+    index.processDelete(user1);
+    index.processDelete(groups);
+    assertEquals(index.getDNsInScope(baseDN, SearchScope.SUB),
+         dnList("dc=example,dc=com",
+              "ou=People,dc=example,dc=com",
+              "uid=user.2,ou=People,dc=example,dc=com"));
+
+    assertTrue(index.restore(snapshot));
+    assertEquals(index.getDNsInScope(baseDN, SearchScope.SUB).size(), 5);
+
+    index.clear();
+    assertEquals(index.getDNsInScope(baseDN, SearchScope.SUB),
+         dnList("dc=example,dc=com"));
+    assertTrue(index.copyMap().isEmpty());
+  }
+
+
+
+  /**
+   * Tests that the in-memory directory server keeps the hierarchy index up to
+   * date when processing subtree deletes, subtree renames, and the
+   * deleteSubtree method.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testServerHierarchy()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    ds.add(generateOrgUnitEntry("Sub", "ou=People,dc=example,dc=com"));
+    ds.add(generateUserEntry("sub.user", "ou=Sub,ou=People,dc=example,dc=com",
+         "Sub", "User", "password"));
+
+    assertEquals(ds.countEntriesBelow("ou=People,dc=example,dc=com"), 4);
+    assertEquals(getDNs(ds, "ou=People,dc=example,dc=com", SearchScope.ONE),
+         dnList("ou=Sub,ou=People,dc=example,dc=com",
+              "uid=test.user,ou=People,dc=example,dc=com"));
+
+    // Rename the subtree and make sure that its entries can be found in their
+    // new location.
+    ds.modifyDN("ou=Sub,ou=People,dc=example,dc=com", "ou=Moved", true);
+    assertEquals(getDNs(ds, "ou=Moved,ou=People,dc=example,dc=com",
+              SearchScope.SUB),
+         dnList("ou=Moved,ou=People,dc=example,dc=com",
+              "uid=sub.user,ou=Moved,ou=People,dc=example,dc=com"));
+    assertEquals(getDNs(ds, "ou=People,dc=example,dc=com", SearchScope.ONE),
+         dnList("ou=Moved,ou=People,dc=example,dc=com",
+              "uid=test.user,ou=People,dc=example,dc=com"));
+
+    // Remove the subtree and make sure that it can be re-added.
+    assertEquals(ds.deleteSubtree("ou=Moved,ou=People,dc=example,dc=com"), 2);
+    assertEquals(ds.countEntriesBelow("ou=People,dc=example,dc=com"), 2);
+    ds.add(generateOrgUnitEntry("Moved", "ou=People,dc=example,dc=com"));
+    assertEquals(getDNs(ds, "ou=Moved,ou=People,dc=example,dc=com",
+              SearchScope.SUB),
+         dnList("ou=Moved,ou=People,dc=example,dc=com"));
+
+    // Counting entries below a DN above the base DN should still find all of
+    // the entries.
+    assertEquals(ds.countEntriesBelow("dc=com"),
+         ds.countEntriesBelow("dc=example,dc=com"));
+  }
+
+
+
+  /**
+   * Creates a list of DNs from the provided strings.
+   *
+   * @param  dns  The string representations of the DNs.
+   *
+   * @return  The list of DNs.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  private static List<DN> dnList(final String... dns)
+          throws Exception
+  {
+    final DN[] dnArray = new DN[dns.length];
+    for (int i=0; i < dns.length; i++)
+    {
+      dnArray[i] = new DN(dns[i]);
+    }
+
+    return Arrays.asList(dnArray);
+  }
+
+
+
+  /**
+   * Retrieves the DNs of the entries returned by a search in the provided
+   * server.
+   *
+   * @param  ds      The server in which to search.
+   * @param  baseDN  The base DN for the search.
+   * @param  scope   The scope for the search.
+   *
+   * @return  The DNs of the entries returned by the search.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  private static List<DN> getDNs(final InMemoryDirectoryServer ds,
+                                 final String baseDN,
+                                 final SearchScope scope)
+          throws Exception
+  {
+    final SearchResult result = ds.search(baseDN, scope, "(objectClass=*)");
+    final DN[] dns = new DN[result.getEntryCount()];
+    for (int i=0; i < dns.length; i++)
+    {
+      dns[i] = result.getSearchEntries().get(i).getParsedDN();
+    }
+
+    return Arrays.asList(dns);
+  }
+}
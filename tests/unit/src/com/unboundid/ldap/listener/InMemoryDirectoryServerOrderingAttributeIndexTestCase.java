@@ -0,0 +1,313 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.listener;
+
+
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.Filter;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.LDAPSDKTestCase;
+import com.unboundid.ldap.sdk.SearchResult;
+import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.schema.Schema;
+
+
+
+/**
+ * This class provides a set of test cases for the
+ * InMemoryDirectoryServerOrderingAttributeIndex class.
+ */
+public final class InMemoryDirectoryServerOrderingAttributeIndexTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests the behavior when trying to create an index when no schema is
+   * available.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testIndexWithoutSchema()
+         throws Exception
+  {
+    new InMemoryDirectoryServerOrderingAttributeIndex("employeeNumber", null);
+  }
+
+
+
+  /**
+   * Tests the behavior when trying to create an index for an undefined
+   * attribute type.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testIndexWithUndefinedAttribute()
+         throws Exception
+  {
+    new InMemoryDirectoryServerOrderingAttributeIndex("undefined",
+         Schema.getDefaultStandardSchema());
+  }
+
+
+
+  /**
+   * Tests the behavior when trying to create an index for an attribute type
+   * whose values cannot be ordered.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testIndexWithUnsupportedMatchingRule()
+         throws Exception
+  {
+    new InMemoryDirectoryServerOrderingAttributeIndex("member",
+         Schema.getDefaultStandardSchema());
+  }
+
+
+
+  /**
+   * Tests that the index orders values using the ordering matching rule for the
+   * attribute rather than their bytes.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testIntegerOrdering()
+         throws Exception
+  {
+    final InMemoryDirectoryServerOrderingAttributeIndex index =
+         new InMemoryDirectoryServerOrderingAttributeIndex(
+              "governingStructureRule", Schema.getDefaultStandardSchema());
+
+    final int[] values = { -20, -5, 2, 10, 100 };
+    for (final int v : values)
+    {
+      index.processAdd(new Entry(
+           "dn: cn=" + v + ",dc=example,dc=com",
+           "objectClass: top",
+           "objectClass: device",
+           "cn: " + v,
+           "governingStructureRule: " + v));
+    }
+
+    assertEquals(index.copyMap().size(), values.length);
+
+    Set<DN> dns = index.getMatchingEntries(new ASN1OctetString("3"), null);
+    assertEquals(dns.size(), 2);
+    assertTrue(dns.contains(new DN("cn=10,dc=example,dc=com")));
+    assertTrue(dns.contains(new DN("cn=100,dc=example,dc=com")));
+
+    dns = index.getMatchingEntries(null, new ASN1OctetString("-5"));
+    assertEquals(dns.size(), 2);
+    assertTrue(dns.contains(new DN("cn=-20,dc=example,dc=com")));
+    assertTrue(dns.contains(new DN("cn=-5,dc=example,dc=com")));
+
+    dns = index.getMatchingEntries(new ASN1OctetString("-5"),
+         new ASN1OctetString("10"));
+    assertEquals(dns.size(), 3);
+
+    assertEquals(index.getMatchingEntries(null, null).size(), values.length);
+    assertTrue(index.getMatchingEntries(new ASN1OctetString("101"),
+         null).isEmpty());
+
+    for (final int v : values)
+    {
+      index.processDelete(new Entry(
+           "dn: cn=" + v + ",dc=example,dc=com",
+           "objectClass: top",
+           "objectClass: device",
+           "cn: " + v,
+           "governingStructureRule: " + v));
+    }
+
+    assertTrue(index.copyMap().isEmpty());
+    assertTrue(index.getMatchingEntries(null, null).isEmpty());
+  }
+
+
+
+  /**
+   * Tests the behavior of an index for a generalized time attribute, including
+   * the behavior for assertion values that are not acceptable for the
+   * attribute type.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testGeneralizedTimeOrdering()
+         throws Exception
+  {
+    final InMemoryDirectoryServerOrderingAttributeIndex index =
+         new InMemoryDirectoryServerOrderingAttributeIndex("createTimestamp",
+              Schema.getDefaultStandardSchema());
+
+    final Entry e1 = new Entry(
+         "dn: ou=Test 1,dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: organizationalUnit",
+         "ou: Test 1",
+         "createTimestamp: 20190101000000Z");
+    final Entry e2 = new Entry(
+         "dn: ou=Test 2,dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: organizationalUnit",
+         "ou: Test 2",
+         "createTimestamp: 20190601000000.000Z");
+
+    index.processAdd(e1);
+    index.processAdd(e2);
+
+    Set<DN> dns = index.getMatchingEntries(
+         new ASN1OctetString("20190301000000Z"), null);
+    assertEquals(dns.size(), 1);
+    assertTrue(dns.contains(e2.getParsedDN()));
+
+    dns = index.getMatchingEntries(null,
+         new ASN1OctetString("20190101000000.000Z"));
+    assertEquals(dns.size(), 1);
+    assertTrue(dns.contains(e1.getParsedDN()));
+
+    try
+    {
+      index.getMatchingEntries(new ASN1OctetString("not a timestamp"), null);
+      fail("Expected an exception for an invalid assertion value");
+    }
+    catch (final LDAPException le)
+    {
+      // This was expected.
+    }
+  }
+
+
+
+  /**
+   * Retrieves a set of ordering filters to use for testing.
+   *
+   * @return  A set of ordering filters to use for testing.
+   */
+  @DataProvider(name="filters")
+  public Object[][] getFilters()
+  {
+    return new Object[][]
+    {
+      new Object[] { "(employeeNumber>=15)" },
+      new Object[] { "(employeeNumber<=15)" },
+      new Object[] { "(employeeNumber>=zzz)" },
+      new Object[] { "(employeeNumber<=0)" },
+      new Object[] { "(&(employeeNumber>=10)(employeeNumber<=13))" },
+      new Object[] { "(&(employeeNumber>=10)(uid=user.1*))" },
+      new Object[] { "(|(employeeNumber<=10)(employeeNumber>=18))" },
+      new Object[] { "(createTimestamp>=19700101000000Z)" },
+      new Object[] { "(createTimestamp<=19700101000000Z)" }
+    };
+  }
+
+
+
+  /**
+   * Tests that searches in a server with ordering indexes return the same
+   * entries as searches in a server without them.
+   *
+   * @param  filter  The filter to use for the search.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(dataProvider="filters")
+  public void testServerSearch(final String filter)
+         throws Exception
+  {
+    final InMemoryDirectoryServerConfig unindexedConfig =
+         new InMemoryDirectoryServerConfig("dc=example,dc=com");
+    final InMemoryDirectoryServer unindexedDS =
+         new InMemoryDirectoryServer(unindexedConfig);
+
+    final InMemoryDirectoryServerConfig indexedConfig =
+         new InMemoryDirectoryServerConfig("dc=example,dc=com");
+    indexedConfig.setOrderingIndexAttributes("employeeNumber",
+         "createTimestamp");
+    final InMemoryDirectoryServer indexedDS =
+         new InMemoryDirectoryServer(indexedConfig);
+
+    for (final InMemoryDirectoryServer ds : new InMemoryDirectoryServer[] {
+         unindexedDS, indexedDS })
+    {
+      ds.add(generateDomainEntry("example", "dc=com"));
+      ds.add(generateOrgUnitEntry("People", "dc=example,dc=com"));
+      for (int i=0; i < 20; i++)
+      {
+        ds.add(generateUserEntry("user." + i, "ou=People,dc=example,dc=com",
+             "User", String.valueOf(i), "password",
+             Arrays.asList(
+                  new Attribute("employeeNumber", String.valueOf(i)))));
+      }
+    }
+
+    final SearchResult unindexedResult = unindexedDS.search(
+         "dc=example,dc=com", SearchScope.SUB, Filter.create(filter));
+    final SearchResult indexedResult = indexedDS.search(
+         "dc=example,dc=com", SearchScope.SUB, Filter.create(filter));
+    assertEquals(getDNs(indexedResult), getDNs(unindexedResult));
+
+    // Make sure that the index is kept up to date as entries are removed.
+    indexedDS.deleteSubtree("ou=People,dc=example,dc=com");
+    unindexedDS.deleteSubtree("ou=People,dc=example,dc=com");
+    assertEquals(
+         getDNs(indexedDS.search("dc=example,dc=com", SearchScope.SUB,
+              Filter.create(filter))),
+         getDNs(unindexedDS.search("dc=example,dc=com", SearchScope.SUB,
+              Filter.create(filter))));
+  }
+
+
+
+  /**
+   * Retrieves the string representations of the DNs of the entries in the
+   * provided search result.
+   *
+   * @param  result  The search result to examine.
+   *
+   * @return  The string representations of the DNs of the entries in the
+   *          provided search result.
+   */
+  private static String getDNs(final SearchResult result)
+  {
+    final StringBuilder buffer = new StringBuilder();
+    for (final Entry e : result.getSearchEntries())
+    {
+      buffer.append(e.getDN());
+      buffer.append('\n');
+    }
+
+    return buffer.toString();
+  }
+}
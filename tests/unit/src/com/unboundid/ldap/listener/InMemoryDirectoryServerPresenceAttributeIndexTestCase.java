@@ -0,0 +1,185 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.listener;
+
+
+
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.Filter;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.LDAPSDKTestCase;
+import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.schema.Schema;
+
+
+
+/**
+ * This class provides a set of test cases for the
+ * InMemoryDirectoryServerPresenceAttributeIndex class.
+ */
+public final class InMemoryDirectoryServerPresenceAttributeIndexTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests the behavior when trying to create an index when no schema is
+   * available.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testIndexWithoutSchema()
+         throws Exception
+  {
+    new InMemoryDirectoryServerPresenceAttributeIndex("mail", null);
+  }
+
+
+
+  /**
+   * Tests the behavior when trying to create an index for an undefined
+   * attribute type.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testIndexWithUndefinedAttribute()
+         throws Exception
+  {
+    new InMemoryDirectoryServerPresenceAttributeIndex("undefined",
+         Schema.getDefaultStandardSchema());
+  }
+
+
+
+  /**
+   * Tests the process of adding and removing entries and retrieving the DNs of
+   * the entries that have the indexed attribute.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testIndex()
+         throws Exception
+  {
+    final InMemoryDirectoryServerPresenceAttributeIndex index =
+         new InMemoryDirectoryServerPresenceAttributeIndex("description",
+              Schema.getDefaultStandardSchema());
+
+    final Entry e1 = new Entry(
+         "dn: ou=Test 1,dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: organizationalUnit",
+         "ou: Test 1",
+         "description: foo",
+         "description: bar");
+    final Entry e2 = new Entry(
+         "dn: ou=Test 2,dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: organizationalUnit",
+         "ou: Test 2");
+    final Entry e3 = new Entry(
+         "dn: ou=Test 3,dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: organizationalUnit",
+         "ou: Test 3",
+         "2.5.4.13: referenced by OID");
+
+    index.processAdd(e1);
+    index.processAdd(e2);
+    index.processAdd(e3);
+
+    Set<DN> dns = index.getMatchingEntries();
+    assertEquals(dns.size(), 2);
+    assertTrue(dns.contains(e1.getParsedDN()));
+    assertTrue(dns.contains(e3.getParsedDN()));
+
+    index.processDelete(e1);
+    dns = index.getMatchingEntries();
+    assertEquals(dns.size(), 1);
+    assertTrue(dns.contains(e3.getParsedDN()));
+
+    index.processDelete(e2);
+    index.processDelete(e3);
+    assertTrue(index.getMatchingEntries().isEmpty());
+    assertTrue(index.copyMap().isEmpty());
+  }
+
+
+
+  /**
+   * Tests that searches in a server with a presence index return the expected
+   * entries, and that the index is kept up to date as entries are altered.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testServerSearch()
+         throws Exception
+  {
+    final InMemoryDirectoryServerConfig cfg =
+         new InMemoryDirectoryServerConfig("dc=example,dc=com");
+    cfg.setPresenceIndexAttributes("description");
+    final InMemoryDirectoryServer ds = new InMemoryDirectoryServer(cfg);
+
+    ds.add(generateDomainEntry("example", "dc=com"));
+    ds.add(generateOrgUnitEntry("People", "dc=example,dc=com"));
+    for (int i=0; i < 10; i++)
+    {
+      ds.add(generateUserEntry("user." + i, "ou=People,dc=example,dc=com",
+           "User", String.valueOf(i), "password"));
+    }
+
+    final Filter filter = Filter.createPresenceFilter("description");
+    assertEquals(ds.search("dc=example,dc=com", SearchScope.SUB,
+         filter).getEntryCount(), 0);
+
+    ds.modify("dn: uid=user.1,ou=People,dc=example,dc=com",
+         "changetype: modify",
+         "add: description",
+         "description: foo");
+    ds.modify("dn: uid=user.2,ou=People,dc=example,dc=com",
+         "changetype: modify",
+         "add: description",
+         "description: bar");
+    assertEquals(ds.search("dc=example,dc=com", SearchScope.SUB,
+         filter).getEntryCount(), 2);
+    assertEquals(ds.search("dc=example,dc=com", SearchScope.SUB,
+         Filter.createANDFilter(filter,
+              Filter.createEqualityFilter("uid", "user.2"))).getEntryCount(),
+         1);
+
+    ds.modify("dn: uid=user.1,ou=People,dc=example,dc=com",
+         "changetype: modify",
+         "delete: description");
+    assertEquals(ds.search("dc=example,dc=com", SearchScope.SUB,
+         filter).getEntryCount(), 1);
+
+    ds.modifyDN("uid=user.2,ou=People,dc=example,dc=com", "uid=user.2a",
+         true);
+    assertEquals(ds.searchForEntry("dc=example,dc=com", SearchScope.SUB,
+         filter).getDN(), "uid=user.2a,ou=People,dc=example,dc=com");
+  }
+}
@@ -27,6 +27,7 @@ import org.testng.annotations.Test;
 import com.unboundid.ldap.sdk.DN;
 import com.unboundid.ldap.sdk.LDAPConnection;
 import com.unboundid.ldap.sdk.LDAPSDKTestCase;
+import com.unboundid.ldap.sdk.SearchScope;
 
 
 
@@ -331,4 +332,90 @@ public final class InMemoryDirectoryServerSnapshotTestCase
       ds.shutDown(true);
     }
   }
+
+
+
+  /**
+   * Tests that the content of equality indexes is restored along with the
+   * entries in a snapshot, both in the server in which the snapshot was
+   * created and in a different server instance.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testSnapshotWithEqualityIndex()
+         throws Exception
+  {
+    final InMemoryDirectoryServerConfig config =
+         new InMemoryDirectoryServerConfig("dc=example,dc=com");
+    config.setEqualityIndexAttributes("uid");
+
+    final InMemoryDirectoryServer ds = new InMemoryDirectoryServer(config);
+    final InMemoryDirectoryServer ds2 = new InMemoryDirectoryServer(config);
+    ds.startListening();
+    ds2.startListening();
+
+    try
+    {
+      ds.add(generateDomainEntry("example", "dc=com"));
+      ds.add(generateOrgUnitEntry("People", "dc=example,dc=com"));
+      ds.add(generateUserEntry("user.1", "ou=People,dc=example,dc=com",
+           "User", "1", "password"));
+
+      final InMemoryDirectoryServerSnapshot snapshot = ds.createSnapshot();
+      assertNotNull(snapshot.getEntryMap().get(
+           new DN("uid=user.1,ou=People,dc=example,dc=com")));
+
+      ds.delete("uid=user.1,ou=People,dc=example,dc=com");
+      ds.add(generateUserEntry("user.2", "ou=People,dc=example,dc=com",
+           "User", "2", "password"));
+      assertEquals(snapshot.getEntryMap().size(), 3);
+      assertEquals(countUsers(ds, "user.1"), 0);
+      assertEquals(countUsers(ds, "user.2"), 1);
+
+      ds.restoreSnapshot(snapshot);
+      assertEquals(ds.countEntries(), 3);
+      assertEquals(countUsers(ds, "user.1"), 1);
+      assertEquals(countUsers(ds, "user.2"), 0);
+
+      // Restoring the snapshot in a different server will require the index
+      // to be rebuilt.
+      ds2.restoreSnapshot(snapshot);
+      assertEquals(ds2.countEntries(), 3);
+      assertEquals(countUsers(ds2, "user.1"), 1);
+      assertEquals(countUsers(ds2, "user.2"), 0);
+
+      // Updates in either server must not affect the snapshot.
+      ds2.delete("uid=user.1,ou=People,dc=example,dc=com");
+      ds.restoreSnapshot(snapshot);
+      assertEquals(countUsers(ds, "user.1"), 1);
+      assertEquals(countUsers(ds2, "user.1"), 0);
+    }
+    finally
+    {
+      ds.shutDown(true);
+      ds2.shutDown(true);
+    }
+  }
+
+
+
+  /**
+   * Retrieves the number of entries in the provided server with the given uid
+   * value.
+   *
+   * @param  ds   The server in which to search.
+   * @param  uid  The uid value for which to search.
+   *
+   * @return  The number of entries with the given uid value.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  private static int countUsers(final InMemoryDirectoryServer ds,
+                                final String uid)
+          throws Exception
+  {
+    return ds.search("dc=example,dc=com", SearchScope.SUB,
+         "(uid=" + uid + ')').getEntryCount();
+  }
 }
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.listener;
+
+
+
+import java.util.Set;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.Filter;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.LDAPSDKTestCase;
+import com.unboundid.ldap.sdk.SearchResult;
+import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.schema.Schema;
+
+
+
+/**
+ * This class provides a set of test cases for the
+ * InMemoryDirectoryServerSubstringAttributeIndex class.
+ */
+public final class InMemoryDirectoryServerSubstringAttributeIndexTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests the behavior when trying to create an index when no schema is
+   * available.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testIndexWithoutSchema()
+         throws Exception
+  {
+    new InMemoryDirectoryServerSubstringAttributeIndex("cn", null);
+  }
+
+
+
+  /**
+   * Tests the behavior when trying to create an index for an undefined
+   * attribute type.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testIndexWithUndefinedAttribute()
+         throws Exception
+  {
+    new InMemoryDirectoryServerSubstringAttributeIndex("undefined",
+         Schema.getDefaultStandardSchema());
+  }
+
+
+
+  /**
+   * Tests the behavior when trying to create an index for an attribute type
+   * whose substring matching rule does not operate on normalized bytes.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testIndexWithUnsupportedMatchingRule()
+         throws Exception
+  {
+    new InMemoryDirectoryServerSubstringAttributeIndex("member",
+         Schema.getDefaultStandardSchema());
+  }
+
+
+
+  /**
+   * Tests the process of adding and removing entries and retrieving the
+   * candidates for various substring assertions.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testIndex()
+         throws Exception
+  {
+    final InMemoryDirectoryServerSubstringAttributeIndex index =
+         new InMemoryDirectoryServerSubstringAttributeIndex("cn",
+              Schema.getDefaultStandardSchema());
+
+    final Entry e1 = new Entry(
+         "dn: cn=John Smith,dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: person",
+         "cn: John Smith",
+         "cn: Johnny",
+         "sn: Smith");
+    final Entry e2 = new Entry(
+         "dn: cn=Jane Smithers,dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: person",
+         "cn: Jane Smithers",
+         "sn: Smithers");
+    final Entry e3 = new Entry(
+         "dn: ou=People,dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: organizationalUnit",
+         "ou: People");
+
+    index.processAdd(e1);
+    index.processAdd(e2);
+    index.processAdd(e3);
+    assertFalse(index.copyMap().isEmpty());
+
+    final DN dn1 = e1.getParsedDN();
+    final DN dn2 = e2.getParsedDN();
+
+    Set<DN> dns = index.getMatchingEntries(null,
+         new ASN1OctetString[] { new ASN1OctetString("SMI") }, null);
+    assertNotNull(dns);
+    assertEquals(dns.size(), 2);
+    assertTrue(dns.contains(dn1));
+    assertTrue(dns.contains(dn2));
+
+    dns = index.getMatchingEntries(new ASN1OctetString("jo"), null, null);
+    assertNotNull(dns);
+    assertEquals(dns.size(), 1);
+    assertTrue(dns.contains(dn1));
+
+    dns = index.getMatchingEntries(new ASN1OctetString("jane s"), null,
+         new ASN1OctetString("ers"));
+    assertNotNull(dns);
+    assertEquals(dns.size(), 1);
+    assertTrue(dns.contains(dn2));
+
+    dns = index.getMatchingEntries(null, null, new ASN1OctetString("h"));
+    assertNotNull(dns);
+    assertEquals(dns.size(), 1);
+    assertTrue(dns.contains(dn1));
+
+    dns = index.getMatchingEntries(null,
+         new ASN1OctetString[] { new ASN1OctetString("xyz") }, null);
+    assertNotNull(dns);
+    assertTrue(dns.isEmpty());
+
+    // A subAny component that is shorter than the key length cannot be used.
+    assertNull(index.getMatchingEntries(null,
+         new ASN1OctetString[] { new ASN1OctetString("sm") }, null));
+
+    index.processDelete(e1);
+    dns = index.getMatchingEntries(null,
+         new ASN1OctetString[] { new ASN1OctetString("smi") }, null);
+    assertNotNull(dns);
+    assertEquals(dns.size(), 1);
+    assertTrue(dns.contains(dn2));
+
+    index.processDelete(e2);
+    index.processDelete(e3);
+    assertTrue(index.copyMap().isEmpty());
+  }
+
+
+
+  /**
+   * Retrieves a set of substring filters to use for testing.
+   *
+   * @return  A set of substring filters to use for testing.
+   */
+  @DataProvider(name="filters")
+  public Object[][] getFilters()
+  {
+    return new Object[][]
+    {
+      new Object[] { "(cn=*smi*)" },
+      new Object[] { "(cn=user*)" },
+      new Object[] { "(cn=u*)" },
+      new Object[] { "(cn=*1)" },
+      new Object[] { "(cn=*ser 1*)" },
+      new Object[] { "(cn=us*er*1)" },
+      new Object[] { "(cn=*s*)" },
+      new Object[] { "(cn=*nomatch*)" },
+      new Object[] { "(&(cn=user*)(sn=*1*))" },
+      new Object[] { "(&(cn=user*)(objectClass=person))" },
+      new Object[] { "(|(cn=*smi*)(cn=user 2*))" },
+      new Object[] { "(|(cn=*smi*)(sn=*1*))" }
+    };
+  }
+
+
+
+  /**
+   * Tests that searches in a server with substring indexes return the same
+   * entries as searches in a server without them.
+   *
+   * @param  filter  The filter to use for the search.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(dataProvider="filters")
+  public void testServerSearch(final String filter)
+         throws Exception
+  {
+    final InMemoryDirectoryServerConfig unindexedConfig =
+         new InMemoryDirectoryServerConfig("dc=example,dc=com");
+    final InMemoryDirectoryServer unindexedDS =
+         new InMemoryDirectoryServer(unindexedConfig);
+
+    final InMemoryDirectoryServerConfig indexedConfig =
+         new InMemoryDirectoryServerConfig("dc=example,dc=com");
+    indexedConfig.setSubstringIndexAttributes("cn");
+    final InMemoryDirectoryServer indexedDS =
+         new InMemoryDirectoryServer(indexedConfig);
+
+    for (final InMemoryDirectoryServer ds : new InMemoryDirectoryServer[] {
+         unindexedDS, indexedDS })
+    {
+      ds.add(generateDomainEntry("example", "dc=com"));
+      ds.add(generateOrgUnitEntry("People", "dc=example,dc=com"));
+      for (int i=0; i < 20; i++)
+      {
+        ds.add(generateUserEntry("user." + i, "ou=People,dc=example,dc=com",
+             "User", String.valueOf(i), "password"));
+      }
+      ds.add(new Entry(
+           "dn: cn=John Smith,ou=People,dc=example,dc=com",
+           "objectClass: top",
+           "objectClass: person",
+           "cn: John Smith",
+           "sn: Smith"));
+    }
+
+    final SearchResult unindexedResult = unindexedDS.search(
+         "dc=example,dc=com", SearchScope.SUB, Filter.create(filter));
+    final SearchResult indexedResult = indexedDS.search(
+         "dc=example,dc=com", SearchScope.SUB, Filter.create(filter));
+    assertEquals(indexedResult.getSearchEntries(),
+         unindexedResult.getSearchEntries());
+
+    // Make sure that the index is kept up to date as entries are removed.
+    indexedDS.deleteSubtree("ou=People,dc=example,dc=com");
+    assertEquals(indexedDS.search("dc=example,dc=com", SearchScope.SUB,
+         Filter.create(filter)).getEntryCount(), 0);
+  }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.listener;
+
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.sdk.LDAPSDKTestCase;
+
+
+
+/**
+ * This class provides a set of test cases for the {@code PersistentTreeMap}
+ * class.
+ */
+public final class PersistentTreeMapTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests a randomized series of updates against a map, comparing its content
+   * with that of a {@code TreeMap} and ensuring that snapshots are not
+   * affected by later updates.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testRandomUpdates()
+         throws Exception
+  {
+    final Random random = new Random(12345L);
+    final PersistentTreeMap<Integer,String> map = new PersistentTreeMap<>();
+    final TreeMap<Integer,String> treeMap = new TreeMap<>();
+
+    final List<PersistentTreeMap<Integer,String>> snapshots =
+         new ArrayList<>(10);
+    final List<TreeMap<Integer,String>> expectedSnapshots = new ArrayList<>(10);
+
+    for (int i=0; i < 10_000; i++)
+    {
+      final Integer key = random.nextInt(2_000);
+      if (random.nextInt(3) == 0)
+      {
+        assertEquals(map.remove(key), treeMap.remove(key));
+      }
+      else
+      {
+        final String value = String.valueOf(random.nextInt());
+        assertEquals(map.put(key, value), treeMap.put(key, value));
+      }
+
+      if ((i % 1_000) == 0)
+      {
+        snapshots.add(map.snapshot());
+        expectedSnapshots.add(new TreeMap<>(treeMap));
+      }
+    }
+
+    assertMapsEqual(map, treeMap);
+    for (int i=0; i < snapshots.size(); i++)
+    {
+      assertMapsEqual(snapshots.get(i), expectedSnapshots.get(i));
+    }
+
+    // Restore an earlier snapshot and make sure that subsequent updates don't
+    // affect it.
+    map.restore(snapshots.get(3));
+    assertMapsEqual(map, expectedSnapshots.get(3));
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertNull(map.get(1));
+    assertMapsEqual(snapshots.get(3), expectedSnapshots.get(3));
+  }
+
+
+
+  /**
+   * Tests the behavior of the immutable maps created by the snapshot, with,
+   * and without methods.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testImmutableMaps()
+         throws Exception
+  {
+    final PersistentTreeMap<String,Boolean> empty =
+         new PersistentTreeMap<String,Boolean>(
+              Collections.<String>reverseOrder()).snapshot();
+    assertSame(empty.snapshot(), empty);
+    assertTrue(empty.isEmpty());
+
+    final PersistentTreeMap<String,Boolean> ab =
+         empty.with("a", Boolean.TRUE).with("b", Boolean.TRUE);
+    assertTrue(empty.isEmpty());
+    assertEquals(ab.size(), 2);
+    assertEquals(new ArrayList<>(ab.keySet()), listOf("b", "a"));
+
+    final PersistentTreeMap<String,Boolean> b = ab.without("a");
+    assertEquals(ab.size(), 2);
+    assertEquals(new ArrayList<>(b.keySet()), listOf("b"));
+    assertSame(b.without("c"), b);
+
+    try
+    {
+      ab.put("c", Boolean.TRUE);
+      fail("Expected an exception when updating an immutable map");
+    }
+    catch (final UnsupportedOperationException e)
+    {
+      // This was expected.
+    }
+
+    try
+    {
+      final Iterator<String> iterator = ab.keySet().iterator();
+      iterator.next();
+      iterator.remove();
+      fail("Expected an exception when removing from an immutable map");
+    }
+    catch (final UnsupportedOperationException e)
+    {
+      // This was expected.
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior of iterators, including removing entries through an
+   * iterator and updating the map while it is being iterated.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testIterators()
+         throws Exception
+  {
+    final PersistentTreeMap<Integer,Integer> map = new PersistentTreeMap<>();
+    for (int i=0; i < 100; i++)
+    {
+      map.put(i, i);
+    }
+
+    int expected = 0;
+    final Iterator<Integer> iterator = map.keySet().iterator();
+    while (iterator.hasNext())
+    {
+      final Integer i = iterator.next();
+      assertEquals(i.intValue(), expected++);
+      if ((i % 2) == 0)
+      {
+        iterator.remove();
+      }
+      else
+      {
+        map.put(i + 1000, i);
+      }
+    }
+
+    assertEquals(expected, 100);
+    assertEquals(map.size(), 100);
+    assertFalse(map.containsKey(0));
+    assertTrue(map.containsKey(1));
+    assertTrue(map.containsKey(1001));
+  }
+
+
+
+  /**
+   * Tests the behavior of the method used to retrieve the values in a range of
+   * keys.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testValuesInRange()
+         throws Exception
+  {
+    final PersistentTreeMap<Integer,Integer> map = new PersistentTreeMap<>();
+    assertTrue(map.valuesInRange(null, null).isEmpty());
+
+    final TreeMap<Integer,Integer> treeMap = new TreeMap<>();
+    for (int i=0; i < 100; i += 2)
+    {
+      map.put(i, i * 10);
+      treeMap.put(i, i * 10);
+    }
+
+    assertEquals(map.valuesInRange(null, null),
+         new ArrayList<>(treeMap.values()));
+    assertEquals(map.valuesInRange(51, null),
+         new ArrayList<>(treeMap.tailMap(51, true).values()));
+    assertEquals(map.valuesInRange(50, null),
+         new ArrayList<>(treeMap.tailMap(50, true).values()));
+    assertEquals(map.valuesInRange(null, 50),
+         new ArrayList<>(treeMap.headMap(50, true).values()));
+    assertEquals(map.valuesInRange(10, 20),
+         new ArrayList<>(treeMap.subMap(10, true, 20, true).values()));
+    assertTrue(map.valuesInRange(11, 11).isEmpty());
+    assertTrue(map.valuesInRange(1000, null).isEmpty());
+    assertTrue(map.valuesInRange(20, 10).isEmpty());
+  }
+
+
+
+  /**
+   * Tests the ability to serialize and deserialize a map.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testSerialization()
+         throws Exception
+  {
+    final PersistentTreeMap<String,String> map = new PersistentTreeMap<>();
+    final TreeMap<String,String> treeMap = new TreeMap<>();
+    for (int i=0; i < 1_000; i++)
+    {
+      map.put("key" + i, "value" + i);
+      treeMap.put("key" + i, "value" + i);
+    }
+
+    final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(byteStream))
+    {
+      out.writeObject(map.snapshot());
+    }
+
+    final PersistentTreeMap<?,?> decoded;
+    try (ObjectInputStream in = new ObjectInputStream(
+         new ByteArrayInputStream(byteStream.toByteArray())))
+    {
+      decoded = (PersistentTreeMap<?,?>) in.readObject();
+    }
+
+    assertMapsEqual(decoded, treeMap);
+    assertEquals(decoded.get("key500"), "value500");
+  }
+
+
+
+  /**
+   * Ensures that the provided maps have the same content in the same order.
+   *
+   * @param  map       The persistent map to examine.
+   * @param  expected  The map with the expected content.
+   */
+  private static void assertMapsEqual(final PersistentTreeMap<?,?> map,
+                                      final TreeMap<?,?> expected)
+  {
+    assertEquals(map.size(), expected.size());
+    assertEquals(new ArrayList<>(map.entrySet()),
+         new ArrayList<>(expected.entrySet()));
+    for (final Map.Entry<?,?> e : expected.entrySet())
+    {
+      assertEquals(map.get(e.getKey()), e.getValue());
+    }
+  }
+
+
+
+  /**
+   * Creates a list with the provided elements.
+   *
+   * @param  elements  The elements to include in the list.
+   *
+   * @return  The list that was created.
+   */
+  private static List<String> listOf(final String... elements)
+  {
+    final List<String> list = new ArrayList<>(elements.length);
+    Collections.addAll(list, elements);
+    return list;
+  }
+}
@@ -461,6 +461,90 @@ public final class ReadOnlyInMemoryDirectoryServerConfigTestCase
     }
 
 
+    // Test methods related to substring index attributes.
+    assertNotNull(readOnlyConfig.getSubstringIndexAttributes());
+    assertTrue(readOnlyConfig.getSubstringIndexAttributes().isEmpty());
+
+    try
+    {
+      readOnlyConfig.setSubstringIndexAttributes("cn");
+      fail("Expected an exception when trying to call " +
+           "setSubstringIndexAttributes");
+    }
+    catch (final UnsupportedOperationException e)
+    {
+      // This was expected
+    }
+
+    try
+    {
+      readOnlyConfig.setSubstringIndexAttributes(Arrays.asList(
+           "cn", "sn", "mail"));
+      fail("Expected an exception when trying to call " +
+           "setSubstringIndexAttributes");
+    }
+    catch (final UnsupportedOperationException e)
+    {
+      // This was expected
+    }
+
+
+    // Test methods related to ordering index attributes.
+    assertNotNull(readOnlyConfig.getOrderingIndexAttributes());
+    assertTrue(readOnlyConfig.getOrderingIndexAttributes().isEmpty());
+
+    try
+    {
+      readOnlyConfig.setOrderingIndexAttributes("employeeNumber");
+      fail("Expected an exception when trying to call " +
+           "setOrderingIndexAttributes");
+    }
+    catch (final UnsupportedOperationException e)
+    {
+      // This was expected
+    }
+
+    try
+    {
+      readOnlyConfig.setOrderingIndexAttributes(Arrays.asList(
+           "employeeNumber", "createTimestamp"));
+      fail("Expected an exception when trying to call " +
+           "setOrderingIndexAttributes");
+    }
+    catch (final UnsupportedOperationException e)
+    {
+      // This was expected
+    }
+
+
+    // Test methods related to presence index attributes.
+    assertNotNull(readOnlyConfig.getPresenceIndexAttributes());
+    assertTrue(readOnlyConfig.getPresenceIndexAttributes().isEmpty());
+
+    try
+    {
+      readOnlyConfig.setPresenceIndexAttributes("mail");
+      fail("Expected an exception when trying to call " +
+           "setPresenceIndexAttributes");
+    }
+    catch (final UnsupportedOperationException e)
+    {
+      // This was expected
+    }
+
+    try
+    {
+      readOnlyConfig.setPresenceIndexAttributes(Arrays.asList(
+           "mail", "telephoneNumber"));
+      fail("Expected an exception when trying to call " +
+           "setPresenceIndexAttributes");
+    }
+    catch (final UnsupportedOperationException e)
+    {
+      // This was expected
+    }
+
+
     // Test methods related to referential integrity attributes.
     assertNotNull(readOnlyConfig.getReferentialIntegrityAttributes());
     assertTrue(readOnlyConfig.getReferentialIntegrityAttributes().isEmpty());
@@ -25,15 +25,19 @@ package com.unboundid.ldap.sdk;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.testng.annotations.Test;
 
 import com.unboundid.asn1.ASN1Buffer;
 import com.unboundid.asn1.ASN1Element;
 import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
 import com.unboundid.ldap.matchingrules.CaseIgnoreStringMatchingRule;
 import com.unboundid.ldap.protocol.LDAPMessage;
 import com.unboundid.ldif.LDIFException;
+import com.unboundid.util.StaticUtils;
 
 
 
@@ -1114,6 +1118,110 @@ public class AddRequestTestCase
 
 
 
+  /**
+   * Tests the behavior when sending add and modify requests that are large
+   * enough to be streamed to the server, both with and without shared reader
+   * threads, while other threads send requests over the same connection.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testStreamedLargeRequests()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, false);
+
+    final byte[] largeValue =
+         new byte[(int) LDAPConnectionInternals.STREAMING_WRITE_THRESHOLD + 1];
+    for (int i=0; i < largeValue.length; i++)
+    {
+      largeValue[i] = (byte) ('a' + (i % 26));
+    }
+    final String largeString = StaticUtils.toUTF8String(largeValue);
+
+    final AddRequest smallRequest = new AddRequest(
+         "dn: ou=small,dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: organizationalUnit",
+         "ou: small");
+    assertFalse(LDAPConnectionInternals.shouldStream(
+         new LDAPMessage(1, smallRequest)));
+
+    for (final boolean useSharedReader : new boolean[] { false, true })
+    {
+      final LDAPConnectionOptions options = new LDAPConnectionOptions();
+      options.setUseSharedReaderThreads(useSharedReader);
+
+      final LDAPConnection conn = new LDAPConnection(options, "localhost",
+           ds.getListenPort());
+      final AtomicInteger searchFailures = new AtomicInteger(0);
+      final AtomicBoolean stopSearching = new AtomicBoolean(false);
+      final Thread searchThread = new Thread()
+      {
+        @Override()
+        public void run()
+        {
+          while (! stopSearching.get())
+          {
+            try
+            {
+              if (conn.getEntry("dc=example,dc=com") == null)
+              {
+                searchFailures.incrementAndGet();
+              }
+            }
+            catch (final LDAPException le)
+            {
+              searchFailures.incrementAndGet();
+            }
+          }
+        }
+      };
+
+      try
+      {
+        searchThread.start();
+
+        final String dn = "ou=large,dc=example,dc=com";
+        final AddRequest addRequest = new AddRequest(
+             "dn: " + dn,
+             "objectClass: top",
+             "objectClass: organizationalUnit",
+             "ou: large");
+        addRequest.addAttribute("description", largeString);
+        assertTrue(LDAPConnectionInternals.shouldStream(
+             new LDAPMessage(1, addRequest)));
+        assertEquals(conn.add(addRequest).getResultCode(), ResultCode.SUCCESS);
+        assertEquals(conn.getEntry(dn).getAttributeValue("description"),
+             largeString);
+
+        final ModifyRequest modifyRequest = new ModifyRequest(dn,
+             new Modification(ModificationType.REPLACE, "description",
+                  largeString.toUpperCase()));
+        assertTrue(LDAPConnectionInternals.shouldStream(
+             new LDAPMessage(2, modifyRequest)));
+        assertEquals(conn.modify(modifyRequest).getResultCode(),
+             ResultCode.SUCCESS);
+        assertEquals(conn.getEntry(dn).getAttributeValue("description"),
+             largeString.toUpperCase());
+
+        conn.add(smallRequest);
+        conn.delete(smallRequest.getDN());
+        conn.delete(dn);
+      }
+      finally
+      {
+        stopSearching.set(true);
+        searchThread.join();
+        conn.close();
+      }
+
+      assertEquals(searchFailures.get(), 0);
+    }
+  }
+
+
+
   /**
    * Tests to ensure that the encoding for the provided add request is identical
    * when using the stream-based and non-stream-based ASN.1 encoding mechanisms.
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+
+
+/**
+ * This class provides a set of test cases for the
+ * {@code AvailableConnectionSlots} class.
+ */
+public final class AvailableConnectionSlotsTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests basic offer and poll operations, including the behavior when the
+   * capacity is reached.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testBasicOperations()
+         throws Exception
+  {
+    final AvailableConnectionSlots slots = new AvailableConnectionSlots(3);
+    assertEquals(slots.getCapacity(), 3);
+    assertEquals(slots.size(), 0);
+    assertEquals(slots.remainingCapacity(), 3);
+    assertNull(slots.poll());
+    assertFalse(slots.iterator().hasNext());
+
+    final LDAPConnection c1 = new LDAPConnection();
+    final LDAPConnection c2 = new LDAPConnection();
+    final LDAPConnection c3 = new LDAPConnection();
+    final LDAPConnection c4 = new LDAPConnection();
+
+    final List<LDAPConnection> connList = new ArrayList<>(3);
+    connList.add(c1);
+    connList.add(c2);
+    connList.add(c3);
+    assertTrue(slots.addAll(connList));
+    assertEquals(slots.size(), 3);
+    assertEquals(slots.remainingCapacity(), 0);
+    assertFalse(slots.offer(c4));
+
+    int count = 0;
+    for (final LDAPConnection c : slots)
+    {
+      assertTrue(connList.contains(c));
+      count++;
+    }
+    assertEquals(count, 3);
+
+    final List<LDAPConnection> polled = new ArrayList<>(3);
+    for (int i=0; i < 3; i++)
+    {
+      final LDAPConnection c = slots.poll();
+      assertNotNull(c);
+      assertFalse(polled.contains(c));
+      polled.add(c);
+    }
+    assertNull(slots.poll());
+    assertEquals(slots.size(), 0);
+
+    assertTrue(slots.offer(c4));
+    assertEquals(slots.size(), 1);
+
+    final List<LDAPConnection> drained = new ArrayList<>(3);
+    assertEquals(slots.drainTo(drained), 1);
+    assertSame(drained.get(0), c4);
+    assertEquals(slots.size(), 0);
+  }
+
+
+
+  /**
+   * Tests that a thread that releases a connection will get the same
+   * connection back the next time it checks one out, and that threads without
+   * such a preference will get connections in the order in which they were
+   * released so that idle connections do not sit unused.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testAffinityAndReuse()
+         throws Exception
+  {
+    final AvailableConnectionSlots slots = new AvailableConnectionSlots(4);
+    final LDAPConnection[] conns = new LDAPConnection[4];
+    for (int i=0; i < conns.length; i++)
+    {
+      conns[i] = new LDAPConnection();
+      assertTrue(slots.offer(conns[i]));
+    }
+
+    final LDAPConnection first = slots.poll();
+    assertNotNull(first);
+    for (int i=0; i < 10; i++)
+    {
+      assertTrue(slots.offer(first));
+      assertSame(slots.poll(), first);
+    }
+    assertTrue(slots.offer(first));
+
+    // Threads without any affinity should get the connections in the order in
+    // which they were released, and should rotate through all of them.
+    final AtomicInteger failures = new AtomicInteger(0);
+    for (int i=0; i < 8; i++)
+    {
+      final LDAPConnection expected = conns[i % conns.length];
+      final Thread t = new Thread()
+      {
+        @Override()
+        public void run()
+        {
+          final LDAPConnection c = slots.poll();
+          if (c != expected)
+          {
+            failures.incrementAndGet();
+          }
+
+          if (! slots.offer(c))
+          {
+            failures.incrementAndGet();
+          }
+        }
+      };
+      t.start();
+      t.join();
+    }
+
+    assertEquals(failures.get(), 0);
+    assertEquals(slots.size(), 4);
+  }
+
+
+
+  /**
+   * Tests the ability to examine the connection in each individual slot.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testPollSlot()
+         throws Exception
+  {
+    final AvailableConnectionSlots slots = new AvailableConnectionSlots(3);
+    final LDAPConnection c1 = new LDAPConnection();
+    final LDAPConnection c2 = new LDAPConnection();
+    assertTrue(slots.offer(c1));
+    assertTrue(slots.offer(c2));
+
+    int numFound = 0;
+    for (int i=0; i < slots.getCapacity(); i++)
+    {
+      final LDAPConnection c = slots.pollSlot(i);
+      if (c != null)
+      {
+        numFound++;
+        assertTrue((c == c1) || (c == c2));
+        assertTrue(slots.offer(c));
+      }
+    }
+
+    assertEquals(numFound, 2);
+    assertEquals(slots.size(), 2);
+  }
+
+
+
+  /**
+   * Tests the behavior when waiting for a connection to be released.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testWaitForConnection()
+         throws Exception
+  {
+    final AvailableConnectionSlots slots = new AvailableConnectionSlots(1);
+    final LDAPConnection conn = new LDAPConnection();
+
+    final long startTime = System.currentTimeMillis();
+    assertNull(slots.poll(50L, TimeUnit.MILLISECONDS));
+    assertTrue((System.currentTimeMillis() - startTime) >= 40L);
+
+    final Thread t = new Thread()
+    {
+      @Override()
+      public void run()
+      {
+        try
+        {
+          Thread.sleep(50L);
+        }
+        catch (final InterruptedException ie)
+        {
+          // This should not happen.
+        }
+
+        slots.offer(conn);
+      }
+    };
+
+    t.start();
+    assertSame(slots.poll(30L, TimeUnit.SECONDS), conn);
+    t.join();
+  }
+
+
+
+  /**
+   * Tests the behavior when many threads concurrently check out and release
+   * connections.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testConcurrentAccess()
+         throws Exception
+  {
+    final AvailableConnectionSlots slots = new AvailableConnectionSlots(4);
+    for (int i=0; i < 4; i++)
+    {
+      assertTrue(slots.offer(new LDAPConnection()));
+    }
+
+    final AtomicInteger failures = new AtomicInteger(0);
+    final AtomicInteger inUse = new AtomicInteger(0);
+    final List<Thread> threads = new ArrayList<>(16);
+    for (int i=0; i < 16; i++)
+    {
+      threads.add(new Thread()
+      {
+        @Override()
+        public void run()
+        {
+          for (int j=0; j < 2000; j++)
+          {
+            try
+            {
+              final LDAPConnection c = slots.poll(30L, TimeUnit.SECONDS);
+              if ((c == null) || (inUse.incrementAndGet() > 4))
+              {
+                failures.incrementAndGet();
+              }
+
+              inUse.decrementAndGet();
+              if ((c != null) && (! slots.offer(c)))
+              {
+                failures.incrementAndGet();
+              }
+            }
+            catch (final InterruptedException ie)
+            {
+              failures.incrementAndGet();
+            }
+          }
+        }
+      });
+    }
+
+    for (final Thread t : threads)
+    {
+      t.start();
+    }
+
+    for (final Thread t : threads)
+    {
+      t.join();
+    }
+
+    assertEquals(failures.get(), 0);
+    assertEquals(slots.size(), 4);
+  }
+}
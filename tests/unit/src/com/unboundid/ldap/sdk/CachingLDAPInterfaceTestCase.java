@@ -0,0 +1,419 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.controls.ManageDsaITRequestControl;
+import com.unboundid.util.LDAPSDKUsageException;
+
+
+
+/**
+ * This class provides a set of test cases for the {@code CachingLDAPInterface}
+ * class.
+ */
+public final class CachingLDAPInterfaceTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * The DN of the test user entry.
+   */
+  private static final String USER_DN =
+       "uid=test.user,ou=People,dc=example,dc=com";
+
+
+
+  /**
+   * Tests the basic caching behavior for the getEntry and searchForEntry
+   * methods, including the handling of equivalent requests and the hit and
+   * miss counters.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testCacheHitsAndMisses()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(2);
+
+    try
+    {
+      final CachingLDAPInterface cache =
+           new CachingLDAPInterface(pool, 100, 60_000L, 60_000L);
+      assertSame(cache.getLDAPInterface(), pool);
+      assertEquals(cache.getMaxEntries(), 100);
+      assertEquals(cache.getTimeToLiveMillis(), 60_000L);
+      assertEquals(cache.getNegativeTimeToLiveMillis(), 60_000L);
+      assertEquals(cache.getCacheSize(), 0);
+
+      final SearchResultEntry e1 = cache.getEntry(USER_DN);
+      assertNotNull(e1);
+      assertEquals(cache.getCacheMisses(), 1L);
+      assertEquals(cache.getCacheHits(), 0L);
+      assertEquals(cache.getCacheSize(), 1);
+
+      // Identical requests should be served from the cache.
+      assertSame(cache.getEntry(USER_DN), e1);
+      assertEquals(cache.getCacheHits(), 1L);
+      assertEquals(cache.getCacheMisses(), 1L);
+
+      // The base DN is not normalized, so a request that uses a different
+      // representation of the same DN should require a new request.
+      final String alternateDN = "UID=Test.User, ou=People, dc=example, dc=com";
+      final SearchResultEntry e2 = cache.getEntry(alternateDN);
+      assertNotNull(e2);
+      assertNotSame(e2, e1);
+      assertSame(cache.getEntry(alternateDN), e2);
+      assertEquals(cache.getCacheHits(), 2L);
+      assertEquals(cache.getCacheMisses(), 2L);
+      assertEquals(cache.getCacheSize(), 2);
+
+      // Requesting a different set of attributes should require a new
+      // request, but the order and case of the attributes should not matter.
+      final SearchResultEntry e3 = cache.getEntry(USER_DN, "uid", "cn");
+      assertNotNull(e3);
+      assertNotSame(e3, e1);
+      assertSame(cache.getEntry(USER_DN, "CN", "uid"), e3);
+      assertEquals(cache.getCacheHits(), 3L);
+      assertEquals(cache.getCacheMisses(), 3L);
+      assertEquals(cache.getCacheSize(), 3);
+
+      final SearchResultEntry e4 = cache.searchForEntry("dc=example,dc=com",
+           SearchScope.SUB, "(uid=test.user)");
+      assertNotNull(e4);
+      assertEquals(e4.getParsedDN(), new DN(USER_DN));
+      assertSame(cache.searchForEntry("dc=example,dc=com", SearchScope.SUB,
+           Filter.create("(uid=test.user)")), e4);
+      assertEquals(cache.getCacheHits(), 4L);
+      assertEquals(cache.getCacheMisses(), 4L);
+      assertEquals(cache.getCacheSize(), 4);
+
+      // A request with controls should not be cached.
+      final SearchRequest requestWithControls = new SearchRequest(USER_DN,
+           SearchScope.BASE, "(objectClass=*)");
+      requestWithControls.addControl(new ManageDsaITRequestControl());
+      assertNotNull(cache.searchForEntry(requestWithControls));
+      assertNotNull(cache.searchForEntry(requestWithControls));
+      assertEquals(cache.getCacheHits(), 4L);
+      assertEquals(cache.getCacheMisses(), 4L);
+      assertEquals(cache.getCacheSize(), 4);
+
+      cache.clearCache();
+      assertEquals(cache.getCacheSize(), 0);
+      assertNotNull(cache.getEntry(USER_DN));
+      assertEquals(cache.getCacheMisses(), 5L);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the caching of requests for entries that do not exist.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testNegativeCaching()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(2);
+
+    try
+    {
+      final String dn = "ou=missing,dc=example,dc=com";
+
+      CachingLDAPInterface cache =
+           new CachingLDAPInterface(pool, 100, 60_000L, 60_000L);
+      assertNull(cache.getEntry(dn));
+      assertNull(cache.getEntry(dn));
+      assertEquals(cache.getCacheMisses(), 1L);
+      assertEquals(cache.getCacheHits(), 1L);
+
+      // Adding the entry through the cache should invalidate the negative
+      // result.
+      cache.add(
+           "dn: " + dn,
+           "objectClass: top",
+           "objectClass: organizationalUnit",
+           "ou: missing");
+      assertEquals(cache.getCacheInvalidations(), 1L);
+      assertNotNull(cache.getEntry(dn));
+      pool.delete(dn);
+
+      // If negative caching is disabled, then each request should be sent to
+      // the server.
+      cache = new CachingLDAPInterface(pool, 100, 60_000L, 0L);
+      assertNull(cache.getEntry(dn));
+      assertNull(cache.getEntry(dn));
+      assertEquals(cache.getCacheMisses(), 2L);
+      assertEquals(cache.getCacheHits(), 0L);
+      assertEquals(cache.getCacheSize(), 0);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that searches whose filters differ only in the case of a value for a
+   * case-sensitive attribute do not share a cached result.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testCaseSensitiveFilterValues()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(2);
+
+    try
+    {
+      final CachingLDAPInterface cache =
+           new CachingLDAPInterface(pool, 100, 60_000L, 60_000L);
+
+      final SearchResultEntry entry = cache.searchForEntry(USER_DN,
+           SearchScope.BASE, "(userPassword=password)");
+      assertNotNull(entry);
+      assertEquals(entry.getParsedDN(), new DN(USER_DN));
+
+      assertNull(cache.searchForEntry(USER_DN, SearchScope.BASE,
+           "(userPassword=PASSWORD)"));
+      assertEquals(cache.getCacheHits(), 0L);
+      assertEquals(cache.getCacheMisses(), 2L);
+      assertEquals(cache.getCacheSize(), 2);
+
+      assertSame(cache.searchForEntry(USER_DN, SearchScope.BASE,
+           "(userPassword=password)"), entry);
+      assertEquals(cache.getCacheHits(), 1L);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that search requests created from a request template are passed
+   * through to the wrapped interface rather than being cached.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testTemplateRequestsNotCached()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(2);
+
+    try
+    {
+      final CachingLDAPInterface cache =
+           new CachingLDAPInterface(pool, 100, 60_000L, 60_000L);
+      final LDAPRequestTemplate template = new LDAPRequestTemplate(
+           new SearchRequest("{base}", SearchScope.BASE, "(objectClass=*)"),
+           "{base}");
+
+      for (final String dn :
+           new String[] { USER_DN, "ou=People,dc=example,dc=com", USER_DN })
+      {
+        final SearchResultEntry entry = cache.searchForEntry(
+             (SearchRequest) template.createRequest(dn));
+        assertNotNull(entry);
+        assertEquals(entry.getParsedDN(), new DN(dn));
+      }
+
+      assertEquals(cache.getCacheHits(), 0L);
+      assertEquals(cache.getCacheMisses(), 0L);
+      assertEquals(cache.getCacheSize(), 0);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the eviction of cached results because of their time to live and
+   * because the maximum number of entries has been reached.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testEviction()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(2);
+
+    try
+    {
+      CachingLDAPInterface cache =
+           new CachingLDAPInterface(pool, 100, 50L, 50L);
+      assertNotNull(cache.getEntry(USER_DN));
+      Thread.sleep(100L);
+      assertNotNull(cache.getEntry(USER_DN));
+      assertEquals(cache.getCacheHits(), 0L);
+      assertEquals(cache.getCacheMisses(), 2L);
+      assertEquals(cache.getCacheEvictions(), 1L);
+
+      cache = new CachingLDAPInterface(pool, 2, 60_000L, 60_000L);
+      assertNotNull(cache.getEntry("dc=example,dc=com"));
+      assertNotNull(cache.getEntry("ou=People,dc=example,dc=com"));
+
+      // Access the first entry so that the second becomes the least recently
+      // used.
+      assertNotNull(cache.getEntry("dc=example,dc=com"));
+      assertNotNull(cache.getEntry(USER_DN));
+      assertEquals(cache.getCacheSize(), 2);
+      assertEquals(cache.getCacheEvictions(), 1L);
+
+      assertNotNull(cache.getEntry("dc=example,dc=com"));
+      assertNotNull(cache.getEntry(USER_DN));
+      assertEquals(cache.getCacheHits(), 3L);
+      assertNotNull(cache.getEntry("ou=People,dc=example,dc=com"));
+      assertEquals(cache.getCacheMisses(), 4L);
+      assertEquals(cache.getCacheEvictions(), 2L);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that write operations processed through the cache will invalidate
+   * the appropriate cached results.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testInvalidation()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(2);
+
+    try
+    {
+      final CachingLDAPInterface cache =
+           new CachingLDAPInterface(pool, 100, 60_000L, 60_000L);
+
+      assertFalse(cache.getEntry(USER_DN).hasAttribute("description"));
+      assertNotNull(cache.getEntry("dc=example,dc=com"));
+      assertNotNull(cache.searchForEntry("ou=People,dc=example,dc=com",
+           SearchScope.ONE, "(uid=test.user)"));
+
+      // A modify of the user entry should invalidate the cached user entry and
+      // the search below ou=People, but not the base entry.
+      cache.modify(USER_DN,
+           new Modification(ModificationType.REPLACE, "description", "foo"));
+      assertEquals(cache.getCacheInvalidations(), 2L);
+      assertEquals(cache.getCacheSize(), 1);
+      assertTrue(cache.getEntry(USER_DN).hasAttributeValue("description",
+           "foo"));
+
+      // A modify made without going through the cache will not be detected.
+      pool.modify(USER_DN,
+           new Modification(ModificationType.REPLACE, "description", "bar"));
+      assertTrue(cache.getEntry(USER_DN).hasAttributeValue("description",
+           "foo"));
+
+      // A modify DN of ou=People should invalidate everything below it.
+      cache.modifyDN("ou=People,dc=example,dc=com", "ou=Users", true);
+      assertNull(cache.getEntry(USER_DN));
+      final String newUserDN = "uid=test.user,ou=Users,dc=example,dc=com";
+      assertNotNull(cache.getEntry(newUserDN));
+      assertNotNull(cache.getEntry("dc=example,dc=com"));
+
+      cache.modifyDN("ou=Users,dc=example,dc=com", "ou=People", true);
+      assertNotNull(cache.getEntry(USER_DN));
+      assertNull(cache.getEntry(newUserDN));
+
+      // A delete of the user entry should invalidate it, even though it will
+      // fail because the entry doesn't exist.
+      try
+      {
+        cache.delete(newUserDN);
+        fail("Expected an exception when deleting a nonexistent entry");
+      }
+      catch (final LDAPException le)
+      {
+        assertEquals(le.getResultCode(), ResultCode.NO_SUCH_OBJECT);
+      }
+      assertNull(cache.getEntry(newUserDN));
+      assertEquals(cache.getCacheHits(), 2L);
+
+      cache.delete(USER_DN);
+      assertNull(cache.getEntry(USER_DN));
+      assertNull(cache.searchForEntry("ou=People,dc=example,dc=com",
+           SearchScope.ONE, "(uid=test.user)"));
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when attempting to create a cache with invalid
+   * arguments.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPSDKUsageException.class })
+  public void testInvalidMaxEntries()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS();
+    final LDAPConnectionPool pool = ds.getConnectionPool(1);
+
+    try
+    {
+      new CachingLDAPInterface(pool, 0, 60_000L, 60_000L);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.testng.annotations.Test;
+
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.interceptor.
+            InMemoryInterceptedSearchRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.sdk.controls.ContentSyncInfoIntermediateResponse;
+import com.unboundid.ldap.sdk.controls.ContentSyncRequestControl;
+import com.unboundid.ldap.sdk.controls.ContentSyncState;
+import com.unboundid.ldap.sdk.controls.ContentSyncStateControl;
+
+
+
+/**
+ * This class provides a set of test cases for the {@code ContentSyncReplica}
+ * class.  It uses an in-memory directory server with an operation interceptor
+ * that plays the server side of the content synchronization protocol.
+ */
+public final class ContentSyncReplicaTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests the process of populating a replica, querying it, writing and
+   * reading a checkpoint, and applying incremental changes in both the present
+   * and delete refresh phases.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testSynchronization()
+         throws Exception
+  {
+    final SyncInterceptor interceptor = new SyncInterceptor();
+    final InMemoryDirectoryServerConfig cfg =
+         new InMemoryDirectoryServerConfig("dc=example,dc=com");
+    cfg.addInMemoryOperationInterceptor(interceptor);
+
+    final InMemoryDirectoryServer ds = new InMemoryDirectoryServer(cfg);
+    ds.startListening();
+
+    final File checkpointFile =
+         new File(createTempDir(), "replica.checkpoint");
+    final UUID uuid1 = UUID.randomUUID();
+    final UUID uuid2 = UUID.randomUUID();
+    final UUID uuid3 = UUID.randomUUID();
+    final ASN1OctetString cookie1 = new ASN1OctetString("cookie1");
+    final ASN1OctetString cookie2 = new ASN1OctetString("cookie2");
+    final ASN1OctetString cookie3 = new ASN1OctetString("cookie3");
+
+    final SearchRequest searchRequest = new SearchRequest(
+         "ou=People,dc=example,dc=com", SearchScope.SUB, "(objectClass=*)");
+
+    final LDAPConnection conn = ds.getConnection();
+    try
+    {
+      // Perform the initial refresh.
+      ContentSyncReplica replica =
+           new ContentSyncReplica(searchRequest, checkpointFile, "uid");
+      assertEquals(replica.getEntryCount(), 0);
+      assertNull(replica.getCookie());
+      assertEquals(replica.getIndexedAttributes(),
+           Collections.singleton("uid"));
+
+      interceptor.setResponses(
+           createEntry(ContentSyncState.ADD, uuid1, null,
+                "dn: uid=a,ou=People,dc=example,dc=com",
+                "objectClass: person",
+                "uid: a",
+                "cn: User A"),
+           createEntry(ContentSyncState.ADD, uuid2, null,
+                "dn: uid=b,ou=People,dc=example,dc=com",
+                "objectClass: person",
+                "uid: b",
+                "cn: User B"),
+           ContentSyncInfoIntermediateResponse.createRefreshPresentResponse(
+                cookie1, true));
+
+      replica.start(conn);
+      assertTrue(replica.waitForRefreshComplete(30_000L));
+      assertTrue(replica.isRefreshComplete());
+      waitForCompletion(replica);
+      assertNull(interceptor.getLastCookie());
+
+      assertEquals(replica.getEntryCount(), 2);
+      assertEquals(replica.getCookie(), cookie1);
+      assertNotNull(replica.getEntry("uid=a,ou=People,dc=example,dc=com"));
+      assertNull(replica.getEntry("uid=c,ou=People,dc=example,dc=com"));
+      assertEquals(getUIDs(replica.getEntries("uid", "A")),
+           Arrays.asList("a"));
+      assertEquals(getUIDs(replica.getEntries("cn", "user b")),
+           Arrays.asList("b"));
+      assertEquals(getUIDs(replica.search(
+           Filter.create("(&(objectClass=person)(uid=b))"))),
+           Arrays.asList("b"));
+      assertEquals(getUIDs(replica.search(
+           Filter.create("(|(uid=a)(uid=b))"))),
+           Arrays.asList("a", "b"));
+      assertEquals(getUIDs(replica.search(Filter.create("(cn=User*)"))),
+           Arrays.asList("a", "b"));
+      assertTrue(replica.getEntries("uid", "c").isEmpty());
+
+      // Closing the replica will write a checkpoint, and a new replica should
+      // be initialized from it.
+      replica.close();
+      assertTrue(checkpointFile.exists());
+
+      replica = new ContentSyncReplica(searchRequest, checkpointFile, "uid");
+      assertEquals(replica.getEntryCount(), 2);
+      assertEquals(replica.getCookie(), cookie1);
+      assertEquals(getUIDs(replica.getEntries("uid", "b")),
+           Arrays.asList("b"));
+
+      // Perform an incremental refresh in which entry A is renamed and entry B
+      // is not identified as present, so it should be removed.
+      interceptor.setResponses(
+           createEntry(ContentSyncState.MODIFY, uuid1, null,
+                "dn: uid=c,ou=People,dc=example,dc=com",
+                "objectClass: person",
+                "uid: c",
+                "cn: User C"),
+           ContentSyncInfoIntermediateResponse.createRefreshPresentResponse(
+                cookie2, true));
+
+      replica.start(conn);
+      assertTrue(replica.waitForRefreshComplete(30_000L));
+      waitForCompletion(replica);
+      assertEquals(interceptor.getLastCookie(), cookie1);
+
+      assertEquals(replica.getEntryCount(), 1);
+      assertEquals(replica.getCookie(), cookie2);
+      assertNull(replica.getEntry("uid=a,ou=People,dc=example,dc=com"));
+      assertNotNull(replica.getEntry("uid=c,ou=People,dc=example,dc=com"));
+      assertTrue(replica.getEntries("uid", "a").isEmpty());
+      assertTrue(replica.getEntries("uid", "b").isEmpty());
+      assertEquals(getUIDs(replica.getEntries("uid", "c")),
+           Arrays.asList("c"));
+
+      // Perform an incremental refresh with a delete phase, in which entries
+      // are explicitly deleted.
+      interceptor.setResponses(
+           createEntry(ContentSyncState.ADD, uuid3, cookie3,
+                "dn: uid=d,ou=People,dc=example,dc=com",
+                "objectClass: person",
+                "uid: d"),
+           ContentSyncInfoIntermediateResponse.createSyncIDSetResponse(null,
+                Collections.singletonList(uuid1), true),
+           ContentSyncInfoIntermediateResponse.createRefreshDeleteResponse(
+                null, true));
+
+      replica.start(conn);
+      assertTrue(replica.waitForRefreshComplete(30_000L));
+      waitForCompletion(replica);
+      assertEquals(interceptor.getLastCookie(), cookie2);
+
+      assertEquals(replica.getEntryCount(), 1);
+      assertEquals(replica.getCookie(), cookie3);
+      assertNull(replica.getEntry("uid=c,ou=People,dc=example,dc=com"));
+      assertEquals(getUIDs(replica.search(Filter.create("(uid=*)"))),
+           Arrays.asList("d"));
+
+      // An entry with the delete state should be removed.
+      interceptor.setResponses(
+           createEntry(ContentSyncState.DELETE, uuid3, null,
+                "dn: uid=d,ou=People,dc=example,dc=com"),
+           ContentSyncInfoIntermediateResponse.createRefreshDeleteResponse(
+                null, true));
+      replica.start(conn);
+      assertTrue(replica.waitForRefreshComplete(30_000L));
+      waitForCompletion(replica);
+      assertEquals(replica.getEntryCount(), 0);
+
+      replica.close();
+      replica = new ContentSyncReplica(searchRequest, checkpointFile);
+      assertEquals(replica.getEntryCount(), 0);
+      assertEquals(replica.getCookie(), cookie3);
+      assertTrue(replica.getIndexedAttributes().isEmpty());
+    }
+    finally
+    {
+      conn.close();
+      ds.shutDown(true);
+      delete(checkpointFile.getParentFile());
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when the server does not support the content
+   * synchronization control.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testControlNotSupported()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnection conn = ds.getConnection();
+
+    try
+    {
+      final ContentSyncReplica replica = new ContentSyncReplica(
+           new SearchRequest("dc=example,dc=com", SearchScope.SUB,
+                "(objectClass=*)"),
+           null);
+      assertNull(replica.getCheckpointFile());
+      assertFalse(replica.isRunning());
+      assertNull(replica.getSearchResult());
+
+      replica.start(conn);
+      assertFalse(replica.waitForRefreshComplete(30_000L));
+      waitForCompletion(replica);
+      assertEquals(replica.getSearchResult().getResultCode(),
+           ResultCode.UNAVAILABLE_CRITICAL_EXTENSION);
+      assertEquals(replica.getEntryCount(), 0);
+
+      replica.close();
+    }
+    finally
+    {
+      conn.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when attempting to create a replica with a search
+   * request that has a listener.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testRequestWithListener()
+         throws Exception
+  {
+    new ContentSyncReplica(new SearchRequest(new TestSearchResultListener(),
+         "dc=example,dc=com", SearchScope.SUB, "(objectClass=*)"),
+         null);
+  }
+
+
+
+  /**
+   * Tests the behavior when attempting to read a malformed checkpoint file.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testMalformedCheckpoint()
+         throws Exception
+  {
+    final File checkpointFile = createTempFile(
+         "dn: uid=a,ou=People,dc=example,dc=com",
+         "objectClass: person",
+         "uid: a");
+
+    try
+    {
+      new ContentSyncReplica(new SearchRequest("dc=example,dc=com",
+           SearchScope.SUB, "(objectClass=*)"), checkpointFile);
+    }
+    finally
+    {
+      delete(checkpointFile);
+    }
+  }
+
+
+
+  /**
+   * Creates a search result entry with a content synchronization state control.
+   *
+   * @param  state      The synchronization state for the entry.
+   * @param  uuid       The UUID for the entry.
+   * @param  cookie     The cookie to include in the state control, if any.
+   * @param  ldifLines  The LDIF representation of the entry.
+   *
+   * @return  The search result entry that was created.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  private static SearchResultEntry createEntry(final ContentSyncState state,
+                                               final UUID uuid,
+                                               final ASN1OctetString cookie,
+                                               final String... ldifLines)
+          throws Exception
+  {
+    final Entry e = new Entry(ldifLines);
+    return new SearchResultEntry(e.getDN(), e.getAttributes(),
+         new ContentSyncStateControl(state, uuid, cookie));
+  }
+
+
+
+  /**
+   * Retrieves a sorted list of the uid values for the provided entries.
+   *
+   * @param  entries  The entries for which to retrieve the uid values.
+   *
+   * @return  A sorted list of the uid values for the provided entries.
+   */
+  private static List<String> getUIDs(final List<ReadOnlyEntry> entries)
+  {
+    final List<String> uids = new ArrayList<>(entries.size());
+    for (final ReadOnlyEntry e : entries)
+    {
+      uids.add(e.getAttributeValue("uid"));
+    }
+
+    Collections.sort(uids);
+    return uids;
+  }
+
+
+
+  /**
+   * Waits for the synchronization search to complete.
+   *
+   * @param  replica  The replica for which to wait.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  private static void waitForCompletion(final ContentSyncReplica replica)
+          throws Exception
+  {
+    final long stopTime = System.currentTimeMillis() + 30_000L;
+    while (replica.getSearchResult() == null)
+    {
+      assertTrue(System.currentTimeMillis() < stopTime);
+      Thread.sleep(1L);
+    }
+
+    assertFalse(replica.isRunning());
+  }
+
+
+
+  /**
+   * An operation interceptor that responds to content synchronization searches
+   * with a predefined set of entries and intermediate responses, and then
+   * completes the search successfully.
+   */
+  private static final class SyncInterceptor
+          extends InMemoryOperationInterceptor
+  {
+    // The responses to send for the next search.
+    private volatile List<Object> responses =
+         Collections.<Object>emptyList();
+
+    // The cookie included in the most recent request.
+    private volatile ASN1OctetString lastCookie = null;
+
+
+
+    /**
+     * Specifies the responses to send for the next search.
+     *
+     * @param  responses  The search result entries and intermediate responses
+     *                    to send.
+     */
+    void setResponses(final Object... responses)
+    {
+      this.responses = Arrays.asList(responses);
+    }
+
+
+
+    /**
+     * Retrieves the cookie included in the most recent request.
+     *
+     * @return  The cookie included in the most recent request, or
+     *          {@code null} if there was none.
+     */
+    ASN1OctetString getLastCookie()
+    {
+      return lastCookie;
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void processSearchRequest(
+                     final InMemoryInterceptedSearchRequest request)
+           throws LDAPException
+    {
+      final Control c = request.getRequest().getControl(
+           ContentSyncRequestControl.SYNC_REQUEST_OID);
+      if (c == null)
+      {
+        return;
+      }
+
+      lastCookie = new ContentSyncRequestControl(c).getCookie();
+      for (final Object o : responses)
+      {
+        if (o instanceof SearchResultEntry)
+        {
+          request.sendSearchEntry((SearchResultEntry) o);
+        }
+        else
+        {
+          request.sendIntermediateResponse((IntermediateResponse) o);
+        }
+      }
+
+      request.setRequest(new SearchRequest("", SearchScope.BASE,
+           "(objectClass=doesNotExist)"));
+    }
+  }
+}
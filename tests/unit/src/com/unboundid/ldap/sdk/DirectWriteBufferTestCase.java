@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.Arrays;
+
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+
+
+
+/**
+ * This class provides a set of test cases for the {@code DirectWriteBuffer}
+ * class and for sending requests over connections that write batches from
+ * direct buffers.
+ */
+public final class DirectWriteBufferTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests the behavior when appending data that spans multiple segments.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testAppendAcrossSegments()
+         throws Exception
+  {
+    final DirectWriteBuffer buffer = new DirectWriteBuffer();
+    assertEquals(buffer.length(), 0);
+    assertEquals(buffer.getSegmentCount(), 0);
+    assertEquals(buffer.toByteArray().length, 0);
+
+    final byte[] data = new byte[(2 * DirectWriteBuffer.SEGMENT_SIZE) + 123];
+    for (int i=0; i < data.length; i++)
+    {
+      data[i] = (byte) (i & 0x7F);
+    }
+
+    buffer.append(data, 0, 10);
+    assertEquals(buffer.length(), 10);
+    assertEquals(buffer.getSegmentCount(), 1);
+
+    buffer.append(data, 10, data.length - 10);
+    assertEquals(buffer.length(), data.length);
+    assertEquals(buffer.getSegmentCount(), 3);
+    assertTrue(Arrays.equals(buffer.toByteArray(), data));
+
+    buffer.clear(true);
+    assertEquals(buffer.length(), 0);
+    assertEquals(buffer.getSegmentCount(), 0);
+    assertTrue(DirectWriteBuffer.getPooledSegmentCount() >= 3);
+    assertTrue(DirectWriteBuffer.getPooledSegmentCount() <=
+         DirectWriteBuffer.MAX_POOLED_SEGMENTS);
+
+    // Segments obtained from the pool must not expose any old data.
+    buffer.append(new byte[] { 0x01, 0x02 }, 0, 2);
+    assertTrue(Arrays.equals(buffer.toByteArray(), new byte[] { 0x01, 0x02 }));
+    buffer.clear(false);
+  }
+
+
+
+  /**
+   * Tests the ability to send large requests over connections whose sockets
+   * have channels, both with and without shared reader threads.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testLargeRequests()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, false);
+
+    final StringBuilder description =
+         new StringBuilder(3 * DirectWriteBuffer.SEGMENT_SIZE);
+    for (int i=0; i < (3 * DirectWriteBuffer.SEGMENT_SIZE); i++)
+    {
+      description.append((char) ('a' + (i % 26)));
+    }
+
+    for (final boolean useSharedReader : new boolean[] { false, true })
+    {
+      final LDAPConnectionOptions options = new LDAPConnectionOptions();
+      options.setUseSharedReaderThreads(useSharedReader);
+
+      final LDAPConnection conn = new LDAPConnection(
+           SocketChannelSocketFactory.getInstance(), options, "localhost",
+           ds.getListenPort());
+
+      try
+      {
+        final String dn = "ou=large " + useSharedReader + ",dc=example,dc=com";
+        conn.add(
+             "dn: " + dn,
+             "objectClass: top",
+             "objectClass: organizationalUnit",
+             "ou: large " + useSharedReader,
+             "description: " + description);
+
+        final SearchResultEntry entry = conn.getEntry(dn);
+        assertNotNull(entry);
+        assertEquals(entry.getAttributeValue("description"),
+             description.toString());
+
+        conn.modify(dn, new Modification(ModificationType.REPLACE,
+             "description", description.reverse().toString()));
+        assertEquals(conn.getEntry(dn).getAttributeValue("description"),
+             description.toString());
+
+        conn.delete(dn);
+        assertNull(conn.getEntry(dn));
+      }
+      finally
+      {
+        conn.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.util.LDAPSDKUsageException;
+
+
+
+/**
+ * This class provides a set of test cases for the
+ * {@code ElasticPoolSizingPolicy} class and its use in conjunction with an
+ * {@code LDAPConnectionPool}.
+ */
+public final class ElasticPoolSizingPolicyTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests the basic properties of a sizing policy.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testPolicyProperties()
+         throws Exception
+  {
+    final ElasticPoolSizingPolicy policy =
+         new ElasticPoolSizingPolicy(2, 3, 50L, 0.25d, 1000L);
+    assertEquals(policy.getMinConnections(), 2);
+    assertEquals(policy.getGrowthIncrement(), 3);
+    assertEquals(policy.getTargetCheckoutWaitTimeMillis(), 50L);
+    assertTrue(Math.abs(policy.getLowUtilizationThreshold() - 0.25d) <
+         0.0001d);
+    assertEquals(policy.getLowUtilizationDurationMillis(), 1000L);
+    assertNotNull(policy.toString());
+
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(1);
+    try
+    {
+      assertNull(pool.getElasticSizingPolicy());
+      pool.setElasticSizingPolicy(policy);
+      assertSame(pool.getElasticSizingPolicy(), policy);
+      pool.setElasticSizingPolicy(null);
+      assertNull(pool.getElasticSizingPolicy());
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that a policy cannot be created with an invalid growth increment.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPSDKUsageException.class })
+  public void testInvalidGrowthIncrement()
+         throws Exception
+  {
+    new ElasticPoolSizingPolicy(1, 0, 50L, 0.5d, 1000L);
+  }
+
+
+
+  /**
+   * Tests that a policy cannot be created with an invalid low utilization
+   * threshold.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPSDKUsageException.class })
+  public void testInvalidLowUtilizationThreshold()
+         throws Exception
+  {
+    new ElasticPoolSizingPolicy(1, 1, 50L, 1.5d, 1000L);
+  }
+
+
+
+  /**
+   * Tests that the pool grows in the background when a checkout attempt has to
+   * wait for longer than the target wait time, and that the thread waiting for
+   * a connection gets one of the new connections.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testGrowWhenCheckoutWaits()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = new LDAPConnectionPool(
+         new SingleServerSet("localhost", ds.getListenPort()), null, 1, 5);
+    try
+    {
+      pool.setCreateIfNecessary(false);
+      pool.setMaxWaitTimeMillis(30_000L);
+      pool.setElasticSizingPolicy(
+           new ElasticPoolSizingPolicy(1, 2, 10L, 0.5d, 60_000L));
+      assertEquals(pool.getCurrentConnectionCount(), 1);
+
+      final LDAPConnection conn1 = pool.getConnection();
+      final long startTime = System.currentTimeMillis();
+      final LDAPConnection conn2 = pool.getConnection();
+      assertNotSame(conn2, conn1);
+      assertTrue((System.currentTimeMillis() - startTime) >= 5L);
+
+      assertEquals(pool.getCurrentConnectionCount(), 3);
+
+      final LDAPConnectionPoolStatistics stats =
+           pool.getConnectionPoolStatistics();
+      assertEquals(stats.getNumSuccessfulCheckoutsAfterWaiting(), 1L);
+      assertEquals(stats.getNumSuccessfulCheckoutsNewConnection(), 0L);
+      assertTrue(stats.getTotalCheckoutWaitTimeNanos() > 0L);
+      assertTrue(stats.getAverageCheckoutWaitTimeMillis() > 0.0d);
+
+      // Wait for the background growth to complete.  The other new connection
+      // should then be available without waiting.
+      waitForAvailableConnections(pool, 1);
+      final LDAPConnection conn3 = pool.getConnection();
+      assertNotSame(conn3, conn1);
+      assertNotSame(conn3, conn2);
+      assertEquals(stats.getNumSuccessfulCheckoutsWithoutWaiting(), 2L);
+      assertEquals(stats.getNumSuccessfulConnectionAttempts(), 3L);
+
+      pool.releaseConnection(conn1);
+      pool.releaseConnection(conn2);
+      pool.releaseConnection(conn3);
+      assertEquals(pool.getCurrentAvailableConnections(), 3);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that the pool will not grow beyond its maximum number of
+   * connections.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testUpperBound()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = new LDAPConnectionPool(
+         new SingleServerSet("localhost", ds.getListenPort()), null, 1, 2);
+    try
+    {
+      pool.setCreateIfNecessary(false);
+      pool.setMaxWaitTimeMillis(200L);
+      pool.setElasticSizingPolicy(
+           new ElasticPoolSizingPolicy(1, 5, 0L, 0.5d, 60_000L));
+
+      final LDAPConnection conn1 = pool.getConnection();
+      final LDAPConnection conn2 = pool.getConnection();
+      assertEquals(pool.getCurrentConnectionCount(), 2);
+
+      try
+      {
+        pool.getConnection();
+        fail("Expected an exception when the pool is at its maximum size");
+      }
+      catch (final LDAPException le)
+      {
+        assertEquals(le.getResultCode(), ResultCode.CONNECT_ERROR);
+      }
+
+      assertEquals(pool.getCurrentConnectionCount(), 2);
+      assertEquals(pool.getConnectionPoolStatistics().
+           getNumSuccessfulConnectionAttempts(), 2L);
+
+      pool.releaseConnection(conn1);
+      pool.releaseConnection(conn2);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that the health check grows the pool when it has fewer than the
+   * minimum number of connections, and shrinks it when utilization is low.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testHealthCheckGrowAndShrink()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = new LDAPConnectionPool(
+         new SingleServerSet("localhost", ds.getListenPort()), null, 1, 10);
+    try
+    {
+      pool.setCreateIfNecessary(false);
+      pool.setElasticSizingPolicy(
+           new ElasticPoolSizingPolicy(4, 3, 1000L, 0.5d, 0L));
+
+      // The pool has fewer than the minimum number of connections, so the
+      // health check should grow it.
+      pool.doHealthCheck();
+      waitForAvailableConnections(pool, 4);
+      assertEquals(pool.getCurrentConnectionCount(), 4);
+      assertEquals(pool.getCurrentAvailableConnections(), 4);
+
+      // With one of four connections in use, utilization is below the
+      // threshold, but the pool is already at its minimum size.
+      final LDAPConnection conn = pool.getConnection();
+      pool.doHealthCheck();
+      assertEquals(pool.getCurrentConnectionCount(), 4);
+
+      // Grow the pool beyond the minimum size, after which a health check
+      // should shrink it back down to the minimum.
+      pool.setElasticSizingPolicy(
+           new ElasticPoolSizingPolicy(2, 4, 1000L, 0.5d, 0L));
+      assertEquals(pool.reserveConnectionsForGrowth(4), 4);
+      pool.addConnections(4, 2);
+      assertEquals(pool.getCurrentConnectionCount(), 8);
+      assertEquals(pool.getCurrentAvailableConnections(), 7);
+
+      pool.doHealthCheck();
+      assertEquals(pool.getCurrentConnectionCount(), 2);
+      assertEquals(pool.getCurrentAvailableConnections(), 1);
+
+      pool.releaseConnection(conn);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that the pool will not be shrunk until utilization has remained low
+   * for the configured duration.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testShrinkHysteresis()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = new LDAPConnectionPool(
+         new SingleServerSet("localhost", ds.getListenPort()), null, 6, 6);
+    try
+    {
+      pool.setElasticSizingPolicy(
+           new ElasticPoolSizingPolicy(1, 1, 1000L, 0.5d, 200L));
+
+      // The first health check will note that utilization is low, but will
+      // not shrink the pool.
+      pool.doHealthCheck();
+      assertEquals(pool.getCurrentConnectionCount(), 6);
+
+      // If utilization recovers before the duration has elapsed, then the
+      // pool should not be shrunk.
+      final LDAPConnection[] conns = new LDAPConnection[4];
+      for (int i=0; i < conns.length; i++)
+      {
+        conns[i] = pool.getConnection();
+      }
+      pool.doHealthCheck();
+      for (final LDAPConnection c : conns)
+      {
+        pool.releaseConnection(c);
+      }
+
+      Thread.sleep(250L);
+      final LDAPConnection held = pool.getConnection();
+      pool.doHealthCheck();
+      assertEquals(pool.getCurrentConnectionCount(), 6);
+
+      // Once utilization has been low for long enough, the pool should be
+      // shrunk.  The greatest number of connections in use during that time
+      // was one, so the pool should be left with two connections.
+      Thread.sleep(250L);
+      pool.doHealthCheck();
+      assertEquals(pool.getCurrentConnectionCount(), 2);
+      assertEquals(pool.getCurrentAvailableConnections(), 1);
+
+      pool.releaseConnection(held);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that discarding idle connections only removes available connections
+   * without waiting, and that reserved capacity may be returned to the pool.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testDiscardIdleConnectionsAndReleaseReservation()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = new LDAPConnectionPool(
+         new SingleServerSet("localhost", ds.getListenPort()), null, 4, 4);
+    try
+    {
+      pool.setCreateIfNecessary(false);
+      pool.setMaxWaitTimeMillis(10_000L);
+
+      final LDAPConnection conn1 = pool.getConnection();
+      final LDAPConnection conn2 = pool.getConnection();
+
+      // Even though fewer connections are available than would be needed to
+      // reach the target, this should not wait for connections to be
+      // released.
+      final long startTime = System.currentTimeMillis();
+      pool.discardIdleConnections(0);
+      assertTrue((System.currentTimeMillis() - startTime) < 5_000L);
+      assertEquals(pool.getCurrentAvailableConnections(), 0);
+      assertEquals(pool.getCurrentConnectionCount(), 2);
+
+      // Capacity that is reserved but not used should be returned.
+      assertEquals(pool.reserveConnectionsForGrowth(4), 2);
+      assertEquals(pool.reserveConnectionsForGrowth(4), 0);
+      pool.releaseReservedConnections(2);
+      assertEquals(pool.getCurrentConnectionCount(), 2);
+      assertEquals(pool.reserveConnectionsForGrowth(1), 1);
+      pool.releaseReservedConnections(1);
+
+      pool.releaseConnection(conn1);
+      pool.releaseConnection(conn2);
+      assertEquals(pool.getCurrentAvailableConnections(), 2);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Waits for the provided pool to have at least the specified number of
+   * available connections.
+   *
+   * @param  pool                     The pool for which to wait.
+   * @param  numAvailableConnections  The number of available connections for
+   *                                  which to wait.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  private static void waitForAvailableConnections(
+                           final LDAPConnectionPool pool,
+                           final int numAvailableConnections)
+          throws Exception
+  {
+    final long stopTime = System.currentTimeMillis() + 30_000L;
+    while (System.currentTimeMillis() < stopTime)
+    {
+      if (pool.getCurrentAvailableConnections() >= numAvailableConnections)
+      {
+        return;
+      }
+
+      Thread.sleep(10L);
+    }
+
+    fail("The pool did not have " + numAvailableConnections +
+         " available connections within the expected time");
+  }
+}
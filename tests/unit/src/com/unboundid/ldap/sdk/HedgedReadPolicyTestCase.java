@@ -0,0 +1,366 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.util.LDAPSDKUsageException;
+
+
+
+/**
+ * This class provides a set of test cases for hedged read operations in
+ * connection pools.
+ */
+public final class HedgedReadPolicyTestCase
+       extends LDAPSDKTestCase
+{
+  // The directory server instance that will be made slow.
+  private InMemoryDirectoryServer slowDS = null;
+
+  // The directory server instance that will remain fast.
+  private InMemoryDirectoryServer fastDS = null;
+
+
+
+  /**
+   * Prepares a couple of directory server instances with the same content to
+   * use in the testing.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @BeforeClass()
+  public void setUp()
+         throws Exception
+  {
+    slowDS = new InMemoryDirectoryServer("dc=example,dc=com");
+    fastDS = new InMemoryDirectoryServer("dc=example,dc=com");
+
+    for (final InMemoryDirectoryServer ds :
+         new InMemoryDirectoryServer[] { slowDS, fastDS })
+    {
+      ds.add(
+           "dn: dc=example,dc=com",
+           "objectClass: top",
+           "objectClass: domain",
+           "dc: example");
+      ds.add(
+           "dn: ou=People,dc=example,dc=com",
+           "objectClass: top",
+           "objectClass: organizationalUnit",
+           "ou: People");
+      ds.add(
+           "dn: uid=test.user,ou=People,dc=example,dc=com",
+           "objectClass: top",
+           "objectClass: person",
+           "objectClass: organizationalPerson",
+           "objectClass: inetOrgPerson",
+           "uid: test.user",
+           "givenName: Test",
+           "sn: User",
+           "cn: Test User");
+      ds.startListening();
+    }
+  }
+
+
+
+  /**
+   * Cleans up after testing has completed.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @AfterClass()
+  public void cleanUp()
+         throws Exception
+  {
+    slowDS.shutDown(true);
+    fastDS.shutDown(true);
+  }
+
+
+
+  /**
+   * Tests the methods of the hedged read policy.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testPolicy()
+         throws Exception
+  {
+    final HedgedReadPolicy policy = new HedgedReadPolicy(95.0d, 5L, 500L);
+    assertEquals(policy.getPercentile(), 95.0d);
+    assertEquals(policy.getMinimumDelayMillis(), 5L);
+    assertEquals(policy.getMaximumDelayMillis(), 500L);
+    assertNotNull(policy.toString());
+  }
+
+
+
+  /**
+   * Tests the behavior with an invalid percentile.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPSDKUsageException.class })
+  public void testInvalidPercentile()
+         throws Exception
+  {
+    new HedgedReadPolicy(100.0d, 5L, 500L);
+  }
+
+
+
+  /**
+   * Tests the behavior with a maximum delay that is smaller than the minimum.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPSDKUsageException.class })
+  public void testInvalidMaximumDelay()
+         throws Exception
+  {
+    new HedgedReadPolicy(95.0d, 50L, 5L);
+  }
+
+
+
+  /**
+   * Tests that read operations complete quickly when one of the servers is
+   * slow, and that the correct results are returned.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testHedgedReads()
+         throws Exception
+  {
+    final RoundRobinServerSet serverSet = new RoundRobinServerSet(
+         new String[] { "localhost", "localhost" },
+         new int[] { slowDS.getListenPort(), fastDS.getListenPort() });
+    final LDAPConnectionPool pool =
+         new LDAPConnectionPool(serverSet, null, 2, 2);
+
+    try
+    {
+      assertNull(pool.getHedgedReadPolicy());
+      pool.setHedgedReadPolicy(new HedgedReadPolicy(50.0d, 10L, 50L));
+      assertNotNull(pool.getHedgedReadPolicy());
+
+      slowDS.setProcessingDelayMillis(1000L);
+      for (int i=0; i < 8; i++)
+      {
+        final long startTime = System.nanoTime();
+
+        preferSlowServer(pool);
+        final SearchResult searchResult = pool.search("dc=example,dc=com",
+             SearchScope.SUB, "(uid=test.user)");
+        assertEquals(searchResult.getResultCode(), ResultCode.SUCCESS);
+        assertEquals(searchResult.getEntryCount(), 1);
+        assertEquals(searchResult.getSearchEntries().get(0).getDN(),
+             "uid=test.user,ou=People,dc=example,dc=com");
+
+        preferSlowServer(pool);
+        final SearchResultEntry entry =
+             pool.getEntry("uid=test.user,ou=People,dc=example,dc=com");
+        assertNotNull(entry);
+        assertTrue(entry.hasAttributeValue("givenName", "Test"));
+
+        preferSlowServer(pool);
+        assertNull(pool.getEntry("uid=missing,ou=People,dc=example,dc=com"));
+
+        preferSlowServer(pool);
+        final CompareResult compareResult = pool.compare(
+             "uid=test.user,ou=People,dc=example,dc=com", "sn", "User");
+        assertTrue(compareResult.compareMatched());
+
+        preferSlowServer(pool);
+        try
+        {
+          pool.search("ou=missing,dc=example,dc=com", SearchScope.BASE,
+               "(objectClass=*)");
+          fail("Expected an exception for a missing base entry");
+        }
+        catch (final LDAPSearchException lse)
+        {
+          assertEquals(lse.getResultCode(), ResultCode.NO_SUCH_OBJECT);
+        }
+
+        final long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000L;
+        assertTrue(elapsedMillis < 2500L,
+             "Hedged operations took " + elapsedMillis + "ms");
+      }
+
+      assertEquals(pool.getConnectionPoolStatistics().getNumHedgedReads(),
+           40L);
+
+      slowDS.setProcessingDelayMillis(0L);
+      pool.setHedgedReadPolicy(null);
+      assertNull(pool.getHedgedReadPolicy());
+      assertEquals(pool.search("dc=example,dc=com", SearchScope.SUB,
+           "(uid=test.user)").getEntryCount(), 1);
+    }
+    finally
+    {
+      slowDS.setProcessingDelayMillis(0L);
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that searches with a search result listener are not hedged but are
+   * still processed correctly.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testSearchWithListenerNotHedged()
+         throws Exception
+  {
+    final RoundRobinServerSet serverSet = new RoundRobinServerSet(
+         new String[] { "localhost", "localhost" },
+         new int[] { slowDS.getListenPort(), fastDS.getListenPort() });
+    final LDAPConnectionPool pool =
+         new LDAPConnectionPool(serverSet, null, 2, 2);
+
+    try
+    {
+      pool.setHedgedReadPolicy(new HedgedReadPolicy(50.0d, 0L, 0L));
+
+      for (int i=0; i < 4; i++)
+      {
+        final TestSearchResultListener listener =
+             new TestSearchResultListener();
+        final SearchResult result = pool.search(listener, "dc=example,dc=com",
+             SearchScope.SUB, "(objectClass=*)");
+        assertEquals(result.getResultCode(), ResultCode.SUCCESS);
+        assertEquals(listener.getNumEntries(), 3);
+      }
+
+      assertEquals(pool.getConnectionPoolStatistics().getNumHedgedReads(),
+           0L);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that hedged searches send the same request as the caller provided,
+   * including requests created from a template, and that requests with an
+   * intermediate response listener are not hedged.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testRequestsSentFaithfully()
+         throws Exception
+  {
+    final RoundRobinServerSet serverSet = new RoundRobinServerSet(
+         new String[] { "localhost", "localhost" },
+         new int[] { slowDS.getListenPort(), fastDS.getListenPort() });
+    final LDAPConnectionPool pool =
+         new LDAPConnectionPool(serverSet, null, 2, 2);
+
+    try
+    {
+      pool.setHedgedReadPolicy(new HedgedReadPolicy(50.0d, 10L, 50L));
+      slowDS.setProcessingDelayMillis(500L);
+
+      final LDAPRequestTemplate template = new LDAPRequestTemplate(
+           new SearchRequest("{base}", SearchScope.SUB, "(uid={uid})"),
+           "{base}", "{uid}");
+      preferSlowServer(pool);
+      final SearchResult searchResult = pool.search((SearchRequest)
+           template.createRequest("dc=example,dc=com", "test.user"));
+      assertEquals(searchResult.getEntryCount(), 1);
+      assertEquals(searchResult.getSearchEntries().get(0).getDN(),
+           "uid=test.user,ou=People,dc=example,dc=com");
+      assertEquals(pool.getConnectionPoolStatistics().getNumHedgedReads(),
+           1L);
+
+      final CompareRequest compareRequest = new CompareRequest(
+           "uid=test.user,ou=People,dc=example,dc=com", "sn", "User");
+      compareRequest.setIntermediateResponseListener(
+           new IntermediateResponseListener()
+           {
+             private static final long serialVersionUID = 1L;
+
+             @Override()
+             public void intermediateResponseReturned(
+                              final IntermediateResponse response)
+             {
+               // No implementation is required.
+             }
+           });
+      preferSlowServer(pool);
+      assertTrue(pool.compare(compareRequest).compareMatched());
+      assertEquals(pool.getConnectionPoolStatistics().getNumHedgedReads(),
+           1L);
+    }
+    finally
+    {
+      slowDS.setProcessingDelayMillis(0L);
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Checks out and releases a connection to the slow server, so that it will be
+   * the next connection that the current thread obtains from the pool.
+   *
+   * @param  pool  The connection pool to use.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  private void preferSlowServer(final LDAPConnectionPool pool)
+          throws Exception
+  {
+    final long stopTime = System.currentTimeMillis() + 10_000L;
+    while (System.currentTimeMillis() < stopTime)
+    {
+      final LDAPConnection conn =
+           pool.getConnection("localhost", slowDS.getListenPort());
+      if (conn != null)
+      {
+        pool.releaseConnection(conn);
+        return;
+      }
+
+      Thread.sleep(1L);
+    }
+
+    fail("Unable to obtain a connection to the slow server");
+  }
+}
@@ -97,6 +97,8 @@ public class LDAPConnectionOptionsTestCase
     assertEquals(opts.getLingerTimeoutSeconds(), 5);
     assertTrue(opts.useReuseAddress());
     assertFalse(opts.useSynchronousMode());
+    assertFalse(opts.useSharedReaderThreads());
+    assertFalse(opts.useLazySearchEntryDecoding());
     assertTrue(opts.useTCPNoDelay());
     assertEquals(opts.getConnectTimeoutMillis(), 10_000L);
     assertEquals(opts.getResponseTimeoutMillis(), 300_000L);
@@ -204,6 +206,8 @@ public class LDAPConnectionOptionsTestCase
     opts.setReceiveBufferSize(1234);
     opts.setSendBufferSize(1234);
     opts.setUseSynchronousMode(true);
+    opts.setUseSharedReaderThreads(true);
+    opts.setUseLazySearchEntryDecoding(true);
     opts.setUseSchema(true);
     opts.setAllowConcurrentSocketFactoryUse(false);
     opts.setSSLSocketVerifier(new HostNameSSLSocketVerifier(true));
@@ -234,6 +238,9 @@ public class LDAPConnectionOptionsTestCase
     assertEquals(dup.getReceiveBufferSize(), 1234);
     assertEquals(dup.getSendBufferSize(), 1234);
     assertEquals(dup.useSynchronousMode(), opts.useSynchronousMode());
+    assertEquals(dup.useSharedReaderThreads(), opts.useSharedReaderThreads());
+    assertEquals(dup.useLazySearchEntryDecoding(),
+         opts.useLazySearchEntryDecoding());
     assertEquals(dup.useSchema(), opts.useSchema());
     assertEquals(dup.usePooledSchema(), opts.usePooledSchema());
     assertEquals(dup.allowConcurrentSocketFactoryUse(),
@@ -984,6 +991,54 @@ public class LDAPConnectionOptionsTestCase
 
 
 
+  /**
+   * Tests the ability to get and set the flag that controls whether to use
+   * shared reader threads.
+   */
+  @Test()
+  public void testUseSharedReaderThreads()
+  {
+    final LDAPConnectionOptions opts = new LDAPConnectionOptions();
+
+    assertFalse(opts.useSharedReaderThreads());
+    assertNotNull(opts.toString());
+
+    opts.setUseSharedReaderThreads(true);
+    assertTrue(opts.useSharedReaderThreads());
+    assertTrue(opts.toString().contains("useSharedReaderThreads=true"));
+
+    opts.setUseSharedReaderThreads(false);
+    assertFalse(opts.useSharedReaderThreads());
+    assertNotNull(opts.toString());
+
+    assertTrue(LDAPConnectionOptions.getSharedReaderThreadCount() >= 1);
+  }
+
+
+
+  /**
+   * Tests the ability to get and set the flag that controls whether to use
+   * lazy decoding for search result entries.
+   */
+  @Test()
+  public void testUseLazySearchEntryDecoding()
+  {
+    final LDAPConnectionOptions opts = new LDAPConnectionOptions();
+
+    assertFalse(opts.useLazySearchEntryDecoding());
+    assertNotNull(opts.toString());
+
+    opts.setUseLazySearchEntryDecoding(true);
+    assertTrue(opts.useLazySearchEntryDecoding());
+    assertTrue(opts.toString().contains("useLazySearchEntryDecoding=true"));
+
+    opts.setUseLazySearchEntryDecoding(false);
+    assertFalse(opts.useLazySearchEntryDecoding());
+    assertNotNull(opts.toString());
+  }
+
+
+
   /**
    * Tests the ability to get and set the flag that controls whether to use
    * schema information when reading data from the server.
@@ -22,10 +22,14 @@ package com.unboundid.ldap.sdk;
 
 
 
+import java.util.Map;
+
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+
 
 
 /**
@@ -164,6 +168,65 @@ public class LDAPConnectionPoolStatisticsTestCase
 
 
 
+  /**
+   * Tests to ensure that the response times for operations processed using
+   * connections from a pool are included in the pool's response time
+   * histograms.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testResponseTimeHistograms()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(2);
+    final LDAPConnectionPoolStatistics stats =
+         pool.getConnectionPoolStatistics();
+
+    assertNull(stats.getResponseTimeHistogram(OperationType.UNBIND));
+    assertEquals(stats.getResponseTimeHistogram(OperationType.SEARCH).
+         getCount(), 0L);
+
+    for (int i=0; i < 20; i++)
+    {
+      assertNotNull(pool.getEntry("dc=example,dc=com"));
+    }
+
+    final LDAPConnection conn = pool.getConnection();
+    assertTrue(conn.compare("dc=example,dc=com", "dc",
+         "example").compareMatched());
+    pool.releaseConnection(conn);
+
+    ResponseTimeHistogram searchHistogram =
+         stats.getResponseTimeHistogram(OperationType.SEARCH);
+    assertEquals(searchHistogram.getCount(), 20L);
+    assertTrue(searchHistogram.getPercentileNanos(50.0d) <=
+         searchHistogram.getPercentileNanos(99.9d));
+    assertEquals(stats.getResponseTimeHistogram(OperationType.COMPARE).
+         getCount(), 1L);
+    assertNotNull(stats.toString());
+
+    final Map<OperationType,ResponseTimeHistogram> interval =
+         stats.getAndResetResponseTimeHistograms();
+    assertEquals(interval.get(OperationType.SEARCH).getCount(), 20L);
+    assertEquals(interval.get(OperationType.COMPARE).getCount(), 1L);
+    assertEquals(stats.getResponseTimeHistogram(OperationType.SEARCH).
+         getCount(), 0L);
+
+    assertNotNull(pool.getEntry("dc=example,dc=com"));
+    assertEquals(stats.getResponseTimeHistogram(OperationType.SEARCH).
+         getCount(), 1L);
+
+    stats.reset();
+    assertEquals(stats.getResponseTimeHistogram(OperationType.SEARCH).
+         getCount(), 0L);
+
+    pool.close();
+  }
+
+
+
   /**
    * Tests to ensure that statistics are properly maintained for a number of
    * uses within the connection pool.
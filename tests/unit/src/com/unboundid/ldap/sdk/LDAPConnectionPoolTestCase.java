@@ -3076,6 +3076,68 @@ public class LDAPConnectionPoolTestCase
 
 
 
+  /**
+   * Tests that connections that remain available while a single thread keeps
+   * reusing the same connection are still examined by the background health
+   * check and replaced once they exceed the maximum connection age.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testIdleConnectionsExpire()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS();
+
+    final SingleServerSet serverSet =
+         new SingleServerSet("localhost", ds.getListenPort());
+    final LDAPConnectionPool pool =
+         new LDAPConnectionPool(serverSet, null, 5);
+
+    final List<LDAPConnection> originalConnections = new ArrayList<>(5);
+    for (int i=0; i < 5; i++)
+    {
+      originalConnections.add(pool.getConnection());
+    }
+
+    for (final LDAPConnection conn : originalConnections)
+    {
+      pool.releaseConnection(conn);
+    }
+
+    pool.setMaxConnectionAgeMillis(200L);
+    pool.setHealthCheckIntervalMillis(50L);
+
+    final long stopWaitingTime = System.currentTimeMillis() + 10000L;
+    boolean allClosed = false;
+    while ((! allClosed) && (System.currentTimeMillis() < stopWaitingTime))
+    {
+      final LDAPConnection conn = pool.getConnection();
+      assertNotNull(conn.getRootDSE());
+      pool.releaseConnection(conn);
+      Thread.sleep(10L);
+
+      allClosed = true;
+      for (final LDAPConnection c : originalConnections)
+      {
+        if (c.isConnected())
+        {
+          allClosed = false;
+          break;
+        }
+      }
+    }
+
+    assertTrue(allClosed);
+    assertTrue(pool.getConnectionPoolStatistics().
+         getNumConnectionsClosedExpired() >= 5L);
+    assertEquals(pool.getCurrentAvailableConnections(), 5);
+
+    pool.close();
+  }
+
+
+
   /**
    * Tests the behavior of the connection pool when using a health check that
    * may throw an exception in the
@@ -22,10 +22,14 @@ package com.unboundid.ldap.sdk;
 
 
 
+import java.util.Map;
+
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+
 
 
 /**
@@ -159,6 +163,19 @@ public class LDAPConnectionStatisticsTestCase
 
     assertEquals(stats.getNumUnbindRequests(), 0L);
 
+    assertEquals(stats.getNumFlushes(), 0L);
+    assertEquals(stats.getNumFlushedMessages(), 0L);
+    assertEquals(stats.getMaxMessagesPerFlush(), 0L);
+    assertEquals(stats.getAverageMessagesPerFlush(), Double.NaN);
+    stats.incrementNumFlushes(1);
+    stats.incrementNumFlushes(5);
+    stats.incrementNumFlushes(3);
+    assertEquals(stats.getNumFlushes(), 3L);
+    assertEquals(stats.getNumFlushedMessages(), 9L);
+    assertEquals(stats.getMaxMessagesPerFlush(), 5L);
+    assertEquals(stats.getAverageMessagesPerFlush(), 3.0d);
+    assertTrue(stats.toString().contains("maxMessagesPerFlush=5"));
+
     assertEquals(stats.getNumConnects(), 0L);
     stats.incrementNumConnects();
     assertEquals(stats.getNumConnects(), 1L);
@@ -389,6 +406,185 @@ public class LDAPConnectionStatisticsTestCase
     assertEquals(stats.getAverageSearchResponseTimeMillis(), Double.NaN);
 
     assertEquals(stats.getNumUnbindRequests(), 0L);
+
+    assertEquals(stats.getNumFlushes(), 0L);
+    assertEquals(stats.getNumFlushedMessages(), 0L);
+    assertEquals(stats.getMaxMessagesPerFlush(), 0L);
+    assertEquals(stats.getAverageMessagesPerFlush(), Double.NaN);
+  }
+
+
+
+  /**
+   * Tests to ensure that each message sent by a single thread is written and
+   * flushed on its own, both for connections that use a dedicated reader
+   * thread and for those that use a shared reader thread.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testFlushStatisticsWithSingleSender()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    for (final boolean useSharedReaderThreads : new boolean[] { false, true })
+    {
+      final LDAPConnectionOptions options = new LDAPConnectionOptions();
+      options.setUseSharedReaderThreads(useSharedReaderThreads);
+
+      final LDAPConnection conn = new LDAPConnection(options, "localhost",
+           ds.getListenPort());
+      final LDAPConnectionStatistics stats = conn.getConnectionStatistics();
+      stats.reset();
+
+      for (int i=0; i < 50; i++)
+      {
+        assertTrue(conn.compare("dc=example,dc=com", "dc",
+             "example").compareMatched());
+      }
+
+      assertEquals(stats.getNumCompareRequests(), 50L);
+      assertEquals(stats.getNumFlushes(), 50L);
+      assertEquals(stats.getNumFlushedMessages(), 50L);
+      assertEquals(stats.getMaxMessagesPerFlush(), 1L);
+
+      conn.close();
+    }
+  }
+
+
+
+  /**
+   * Tests to ensure that the flush statistics account for every message sent
+   * when many threads send requests concurrently over the same connection.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testFlushStatisticsWithConcurrentSenders()
+         throws Exception
+  {
+    final LDAPConnection conn = getTestDS(true, true).getConnection();
+    final LDAPConnectionStatistics stats = conn.getConnectionStatistics();
+    stats.reset();
+
+    final int numThreads = 10;
+    final int operationsPerThread = 100;
+    final Exception[] failures = new Exception[numThreads];
+    final Thread[] threads = new Thread[numThreads];
+    for (int i=0; i < numThreads; i++)
+    {
+      final int threadIndex = i;
+      threads[i] = new Thread()
+      {
+        @Override()
+        public void run()
+        {
+          try
+          {
+            for (int j=0; j < operationsPerThread; j++)
+            {
+              assertTrue(conn.compare("dc=example,dc=com", "dc",
+                   "example").compareMatched());
+            }
+          }
+          catch (final Exception e)
+          {
+            failures[threadIndex] = e;
+          }
+        }
+      };
+    }
+
+    for (final Thread t : threads)
+    {
+      t.start();
+    }
+
+    for (final Thread t : threads)
+    {
+      t.join();
+    }
+
+    for (final Exception e : failures)
+    {
+      assertNull(e);
+    }
+
+    final long numMessages = numThreads * operationsPerThread;
+    assertEquals(stats.getNumCompareRequests(), numMessages);
+    assertEquals(stats.getNumFlushedMessages(), numMessages);
+    assertTrue(stats.getNumFlushes() > 0L);
+    assertTrue(stats.getNumFlushes() <= numMessages);
+    assertTrue(stats.getMaxMessagesPerFlush() >= 1L);
+    assertTrue(stats.getMaxMessagesPerFlush() <= numThreads);
+
+    conn.close();
+  }
+
+
+
+  /**
+   * Tests to ensure that response time histograms are maintained for each
+   * type of operation processed on a connection.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testResponseTimeHistograms()
+         throws Exception
+  {
+    final LDAPConnection conn = getTestDS(true, true).getConnection();
+    final LDAPConnectionStatistics stats = conn.getConnectionStatistics();
+    stats.reset();
+
+    assertNull(stats.getResponseTimeHistogram(OperationType.ABANDON));
+    assertNull(stats.getResponseTimeHistogram(OperationType.UNBIND));
+    assertEquals(stats.getResponseTimeHistogram(OperationType.SEARCH).
+         getCount(), 0L);
+
+    for (int i=0; i < 10; i++)
+    {
+      assertTrue(conn.compare("dc=example,dc=com", "dc",
+           "example").compareMatched());
+      assertNotNull(conn.getEntry("dc=example,dc=com"));
+    }
+
+    final ResponseTimeHistogram compareHistogram =
+         stats.getResponseTimeHistogram(OperationType.COMPARE);
+    assertEquals(compareHistogram.getCount(), 10L);
+    assertEquals(compareHistogram.getTotalResponseTimeNanos(),
+         stats.getTotalCompareResponseTimeNanos());
+    assertTrue(compareHistogram.getPercentileNanos(99.0d) > 0.0d);
+    assertTrue(compareHistogram.getPercentileNanos(99.0d) <=
+         compareHistogram.getMaximumResponseTimeNanos());
+
+    assertEquals(stats.getResponseTimeHistogram(OperationType.SEARCH).
+         getCount(), 10L);
+    assertEquals(stats.getResponseTimeHistogram(OperationType.ADD).
+         getCount(), 0L);
+
+    final Map<OperationType,ResponseTimeHistogram> interval =
+         stats.getAndResetResponseTimeHistograms();
+    assertEquals(interval.get(OperationType.COMPARE).getCount(), 10L);
+    assertEquals(interval.get(OperationType.SEARCH).getCount(), 10L);
+    assertFalse(interval.containsKey(OperationType.ABANDON));
+
+    assertEquals(stats.getResponseTimeHistogram(OperationType.COMPARE).
+         getCount(), 0L);
+    assertEquals(stats.getNumCompareResponses(), 10L);
+
+    assertTrue(conn.compare("dc=example,dc=com", "dc",
+         "example").compareMatched());
+    assertEquals(stats.getResponseTimeHistogram(OperationType.COMPARE).
+         getCount(), 1L);
+    assertNotNull(stats.toString());
+
+    stats.reset();
+    assertEquals(stats.getResponseTimeHistogram(OperationType.COMPARE).
+         getCount(), 0L);
+
+    conn.close();
   }
 
 
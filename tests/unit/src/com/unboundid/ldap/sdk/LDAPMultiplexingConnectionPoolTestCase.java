@@ -0,0 +1,549 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.extensions.StartTLSExtendedRequest;
+import com.unboundid.ldap.sdk.extensions.StartTransactionExtendedRequest;
+import com.unboundid.ldap.sdk.extensions.WhoAmIExtendedRequest;
+import com.unboundid.ldap.sdk.extensions.WhoAmIExtendedResult;
+import com.unboundid.ldap.sdk.unboundidds.extensions.
+            StartAdministrativeSessionExtendedRequest;
+import com.unboundid.ldap.sdk.unboundidds.extensions.
+            StartBatchedTransactionExtendedRequest;
+import com.unboundid.ldap.sdk.unboundidds.extensions.
+            StartInteractiveTransactionExtendedRequest;
+
+
+
+/**
+ * This class provides a set of test cases for the
+ * {@code LDAPMultiplexingConnectionPool} class.
+ */
+public final class LDAPMultiplexingConnectionPoolTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests the basic behavior of a pool created from an existing connection.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testCreateWithConnection()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnection conn = ds.getConnection();
+
+    final LDAPMultiplexingConnectionPool pool =
+         new LDAPMultiplexingConnectionPool(conn, 2, 4);
+    try
+    {
+      assertNull(pool.getConnectionPoolName());
+      pool.setConnectionPoolName("test");
+      assertEquals(pool.getConnectionPoolName(), "test");
+
+      assertNotNull(pool.getHealthCheck());
+      pool.setHealthCheck(pool.getHealthCheck());
+      pool.setHealthCheckIntervalMillis(60_000L);
+      assertEquals(pool.getHealthCheckIntervalMillis(), 60_000L);
+
+      assertEquals(pool.getMaxOperationsPerConnection(), 4);
+      assertEquals(pool.getMaximumAvailableConnections(), 2);
+      assertEquals(pool.getCurrentAvailableConnections(), 2);
+      assertEquals(pool.getNumOutstandingOperations(), 0);
+
+      assertEquals(pool.getMaxWaitTimeMillis(), 60_000L);
+      pool.setMaxWaitTimeMillis(-1L);
+      assertEquals(pool.getMaxWaitTimeMillis(), 0L);
+
+      assertTrue(
+           pool.getOperationTypesToRetryDueToInvalidConnections().isEmpty());
+      pool.setRetryFailedOperationsDueToInvalidConnections(true);
+      assertFalse(
+           pool.getOperationTypesToRetryDueToInvalidConnections().isEmpty());
+      pool.setRetryFailedOperationsDueToInvalidConnections(false);
+
+      assertNotNull(pool.getConnectionPoolStatistics());
+      assertNotNull(pool.getRootDSE());
+      assertNotNull(pool.getEntry("uid=test.user,ou=People,dc=example,dc=com"));
+      assertNotNull(pool.toString());
+
+      pool.doHealthCheck();
+      assertEquals(pool.getNumOutstandingOperations(), 0);
+
+      final LDAPConnection c = pool.getConnection();
+      assertTrue(c.isConnected());
+      assertEquals(pool.getNumOutstandingOperations(), 1);
+      pool.releaseConnection(c);
+      assertEquals(pool.getNumOutstandingOperations(), 0);
+
+      pool.releaseConnection(null);
+      pool.releaseDefunctConnection(null);
+    }
+    finally
+    {
+      assertFalse(pool.isClosed());
+      pool.close();
+      assertTrue(pool.isClosed());
+    }
+
+    assertFalse(conn.isConnected());
+
+    try
+    {
+      pool.getConnection();
+      fail("Expected an exception when getting a connection from a closed " +
+           "pool");
+    }
+    catch (final LDAPException le)
+    {
+      // This was expected.
+    }
+  }
+
+
+
+  /**
+   * Tests that connections are shared by concurrent checkouts, that the
+   * connection with the fewest outstanding operations is selected, and that
+   * the per-connection cap is enforced.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testLeastOutstandingSelectionAndCap()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+
+    final LDAPMultiplexingConnectionPool pool =
+         new LDAPMultiplexingConnectionPool(
+              new SingleServerSet("localhost", ds.getListenPort()), null, 3,
+              2);
+    try
+    {
+      pool.setMaxWaitTimeMillis(0L);
+
+      final List<LDAPConnection> checkedOut = new ArrayList<>(6);
+      final Map<LDAPConnection,Integer> counts = new IdentityHashMap<>(3);
+      for (int i=0; i < 3; i++)
+      {
+        final LDAPConnection c = pool.getConnection();
+        checkedOut.add(c);
+        counts.put(c, 1);
+      }
+
+      // The first three checkouts must each get a different connection.
+      assertEquals(counts.size(), 3);
+      assertEquals(pool.getCurrentAvailableConnections(), 3);
+
+      for (int i=0; i < 3; i++)
+      {
+        final LDAPConnection c = pool.getConnection();
+        assertTrue(counts.containsKey(c));
+        assertEquals(counts.get(c).intValue(), 1);
+        counts.put(c, 2);
+        checkedOut.add(c);
+      }
+
+      assertEquals(pool.getNumOutstandingOperations(), 6);
+      assertEquals(pool.getCurrentAvailableConnections(), 0);
+
+      try
+      {
+        pool.getConnection();
+        fail("Expected an exception when all connections are at capacity");
+      }
+      catch (final LDAPException le)
+      {
+        assertEquals(le.getResultCode(), ResultCode.CONNECT_ERROR);
+      }
+
+      // Releasing a connection should make it the only candidate.
+      final LDAPConnection released = checkedOut.remove(0);
+      pool.releaseConnection(released);
+      assertEquals(pool.getCurrentAvailableConnections(), 1);
+
+      final LDAPConnection c = pool.getConnection();
+      assertSame(c, released);
+      checkedOut.add(c);
+
+      for (final LDAPConnection conn : checkedOut)
+      {
+        pool.releaseConnection(conn);
+      }
+
+      assertEquals(pool.getNumOutstandingOperations(), 0);
+      assertEquals(pool.getCurrentAvailableConnections(), 3);
+
+      final LDAPConnectionPoolStatistics stats =
+           pool.getConnectionPoolStatistics();
+      assertEquals(stats.getNumSuccessfulConnectionAttempts(), 3L);
+      assertEquals(stats.getNumSuccessfulCheckoutsWithoutWaiting(), 7L);
+      assertEquals(stats.getNumFailedCheckouts(), 1L);
+      assertEquals(stats.getNumReleasedValid(), 7L);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that a checkout will wait for capacity to become available when all
+   * connections are at their cap.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testWaitForCapacity()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+
+    final LDAPMultiplexingConnectionPool pool =
+         new LDAPMultiplexingConnectionPool(ds.getConnection(), 1, 1);
+    try
+    {
+      final LDAPConnection c = pool.getConnection();
+
+      final Thread t = new Thread()
+      {
+        @Override()
+        public void run()
+        {
+          try
+          {
+            Thread.sleep(100L);
+          }
+          catch (final InterruptedException ie)
+          {
+            // This should not happen.
+          }
+
+          pool.releaseConnection(c);
+        }
+      };
+
+      t.start();
+      assertSame(pool.getConnection(), c);
+      t.join();
+
+      assertEquals(pool.getConnectionPoolStatistics().
+           getNumSuccessfulCheckoutsAfterWaiting(), 1L);
+
+      pool.setMaxWaitTimeMillis(50L);
+      final long startTime = System.currentTimeMillis();
+      try
+      {
+        pool.getConnection();
+        fail("Expected an exception when no capacity became available");
+      }
+      catch (final LDAPException le)
+      {
+        assertEquals(le.getResultCode(), ResultCode.CONNECT_ERROR);
+      }
+      assertTrue((System.currentTimeMillis() - startTime) >= 40L);
+
+      pool.releaseConnection(c);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that a large number of threads can process operations concurrently
+   * over a small number of connections.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testConcurrentOperations()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+
+    final LDAPMultiplexingConnectionPool pool =
+         new LDAPMultiplexingConnectionPool(
+              new SingleServerSet("localhost", ds.getListenPort()),
+              new SimpleBindRequest("uid=test.user,ou=People,dc=example,dc=com",
+                   "password"),
+              2, 8);
+    try
+    {
+      final Set<LDAPConnection> usedConnections = Collections.newSetFromMap(
+           new IdentityHashMap<LDAPConnection,Boolean>(2));
+      final AtomicInteger failures = new AtomicInteger(0);
+
+      final List<Thread> threads = new ArrayList<>(16);
+      for (int i=0; i < 16; i++)
+      {
+        threads.add(new Thread()
+        {
+          @Override()
+          public void run()
+          {
+            for (int j=0; j < 50; j++)
+            {
+              try
+              {
+                final LDAPConnection c = pool.getConnection();
+                synchronized (usedConnections)
+                {
+                  usedConnections.add(c);
+                }
+
+                try
+                {
+                  final SearchResultEntry e = c.getEntry(
+                       "uid=test.user,ou=People,dc=example,dc=com");
+                  if (e == null)
+                  {
+                    failures.incrementAndGet();
+                  }
+                }
+                finally
+                {
+                  pool.releaseConnection(c);
+                }
+
+                if (pool.getEntry("dc=example,dc=com") == null)
+                {
+                  failures.incrementAndGet();
+                }
+              }
+              catch (final LDAPException le)
+              {
+                failures.incrementAndGet();
+              }
+            }
+          }
+        });
+      }
+
+      for (final Thread t : threads)
+      {
+        t.start();
+      }
+
+      for (final Thread t : threads)
+      {
+        t.join();
+      }
+
+      assertEquals(failures.get(), 0);
+      assertEquals(usedConnections.size(), 2);
+      assertEquals(pool.getNumOutstandingOperations(), 0);
+      assertEquals(
+           pool.getConnectionPoolStatistics().getNumFailedCheckouts(), 0L);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when a connection is released as defunct while other
+   * operations are still in progress on it.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testDefunctConnectionReplacement()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+
+    final LDAPMultiplexingConnectionPool pool =
+         new LDAPMultiplexingConnectionPool(ds.getConnection(), 1, 4);
+    try
+    {
+      final LDAPConnection c1 = pool.getConnection();
+      final LDAPConnection c2 = pool.getConnection();
+      assertSame(c1, c2);
+
+      // Releasing the connection as defunct should replace it in the pool, but
+      // it should remain open until the other operation is released.
+      pool.releaseDefunctConnection(c1);
+      assertTrue(c2.isConnected());
+      assertEquals(pool.getConnectionPoolStatistics().
+           getNumConnectionsClosedDefunct(), 1L);
+
+      final LDAPConnection c3 = pool.getConnection();
+      assertNotSame(c3, c1);
+      assertTrue(c3.isConnected());
+      assertEquals(pool.getNumOutstandingOperations(), 2);
+
+      pool.releaseConnection(c2);
+      assertFalse(c2.isConnected());
+      assertEquals(pool.getNumOutstandingOperations(), 1);
+
+      final LDAPConnection c4 = pool.replaceDefunctConnection(c3);
+      assertNotSame(c4, c3);
+      assertFalse(c3.isConnected());
+      assertTrue(c4.isConnected());
+      pool.releaseConnection(c4);
+
+      assertEquals(pool.getNumOutstandingOperations(), 0);
+      assertEquals(pool.getConnectionPoolStatistics().
+           getNumSuccessfulConnectionAttempts(), 2L);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that bind operations and extended operations that would alter the
+   * state of a shared connection are rejected, and that they do not affect the
+   * identity used by an operation that is in progress on the same connection.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testStateChangingOperationsRejected()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnection conn = ds.getConnection();
+    conn.bind("cn=Directory Manager", "password");
+
+    final LDAPMultiplexingConnectionPool pool =
+         new LDAPMultiplexingConnectionPool(conn, 1, 4);
+    try
+    {
+      // Check out the only connection so that it is in use by another
+      // operation while the state-changing operations are attempted.
+      final LDAPConnection inUse = pool.getConnection();
+      assertSame(inUse, conn);
+
+      final ExtendedRequest[] rejectedRequests =
+      {
+        new StartTLSExtendedRequest(),
+        new StartTransactionExtendedRequest(),
+        new StartAdministrativeSessionExtendedRequest("test", true),
+        new StartBatchedTransactionExtendedRequest(),
+        new StartInteractiveTransactionExtendedRequest("dc=example,dc=com")
+      };
+
+      for (final ExtendedRequest r : rejectedRequests)
+      {
+        try
+        {
+          pool.processExtendedOperation(r);
+          fail("Expected an exception for extended request " + r);
+        }
+        catch (final LDAPException le)
+        {
+          assertEquals(le.getResultCode(), ResultCode.NOT_SUPPORTED);
+        }
+      }
+
+      try
+      {
+        pool.bind("uid=test.user,ou=People,dc=example,dc=com", "password");
+        fail("Expected an exception for a bind through the pool");
+      }
+      catch (final LDAPException le)
+      {
+        assertEquals(le.getResultCode(), ResultCode.NOT_SUPPORTED);
+      }
+
+      assertEquals(pool.getNumOutstandingOperations(), 1);
+
+      // The operation in progress on the shared connection, as well as other
+      // operations processed through the pool, should still use the identity
+      // with which the pool's connection was authenticated.
+      final WhoAmIExtendedResult inUseResult = (WhoAmIExtendedResult)
+           inUse.processExtendedOperation(new WhoAmIExtendedRequest());
+      assertResultCodeEquals(inUseResult, ResultCode.SUCCESS);
+      assertEquals(inUseResult.getAuthorizationID(), "dn:cn=Directory Manager");
+
+      final WhoAmIExtendedResult poolResult = (WhoAmIExtendedResult)
+           pool.processExtendedOperation(new WhoAmIExtendedRequest());
+      assertResultCodeEquals(poolResult, ResultCode.SUCCESS);
+      assertEquals(poolResult.getAuthorizationID(), "dn:cn=Directory Manager");
+
+      pool.releaseConnection(inUse);
+      assertEquals(pool.getNumOutstandingOperations(), 0);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that a pool cannot be created with connections operating in
+   * synchronous mode.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testSynchronousModeRejected()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+
+    final LDAPConnectionOptions options = new LDAPConnectionOptions();
+    options.setUseSynchronousMode(true);
+    final LDAPConnection conn = ds.getConnection(options);
+
+    try
+    {
+      new LDAPMultiplexingConnectionPool(conn, 2, 4);
+      fail("Expected an exception for a synchronous mode connection");
+    }
+    catch (final LDAPException le)
+    {
+      assertEquals(le.getResultCode(), ResultCode.PARAM_ERROR);
+    }
+
+    assertFalse(conn.isConnected());
+  }
+}
@@ -0,0 +1,462 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.Arrays;
+
+import org.testng.annotations.Test;
+
+import com.unboundid.asn1.ASN1Buffer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.protocol.ProtocolOp;
+import com.unboundid.ldap.sdk.controls.ManageDsaITRequestControl;
+import com.unboundid.ldap.sdk.extensions.WhoAmIExtendedRequest;
+import com.unboundid.ldap.sdk.extensions.WhoAmIExtendedResult;
+import com.unboundid.util.LDAPSDKUsageException;
+import com.unboundid.util.StaticUtils;
+
+
+
+/**
+ * This class provides a set of test cases for the {@code LDAPRequestTemplate}
+ * class.
+ */
+public final class LDAPRequestTemplateTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests that requests created from templates are encoded in exactly the same
+   * way as equivalent requests created directly.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testEncoding()
+         throws Exception
+  {
+    final LDAPRequestTemplate searchTemplate = new LDAPRequestTemplate(
+         new SearchRequest("{base}", SearchScope.SUB,
+              "(&(objectClass=person)(|(uid={uid})(cn={uid}*)))", "cn", "sn"),
+         "{base}", "{uid}");
+    assertEquals(searchTemplate.getOperationType(), OperationType.SEARCH);
+    assertEquals(searchTemplate.getPlaceholders(),
+         Arrays.asList("{base}", "{uid}"));
+    assertNotNull(searchTemplate.toString());
+
+    final SearchRequest templateSearch = (SearchRequest)
+         searchTemplate.createRequest("dc=example,dc=com", "test.user");
+    assertEncodingEquals(templateSearch, new SearchRequest("dc=example,dc=com",
+         SearchScope.SUB,
+         "(&(objectClass=person)(|(uid=test.user)(cn=test.user*)))", "cn",
+         "sn"));
+    assertEquals(templateSearch.encodeProtocolOp(),
+         new SearchRequest("dc=example,dc=com", SearchScope.SUB,
+              "(&(objectClass=person)(|(uid=test.user)(cn=test.user*)))",
+              "cn", "sn").encodeProtocolOp());
+
+    // Values long enough to require a multi-byte length should work.
+    final String longValue = getLongString(500);
+    assertEncodingEquals(
+         searchTemplate.createRequest("dc=example,dc=com", longValue),
+         new SearchRequest("dc=example,dc=com", SearchScope.SUB,
+              "(&(objectClass=person)(|(uid=" + longValue + ")(cn=" +
+                   longValue + "*)))", "cn", "sn"));
+
+    final LDAPRequestTemplate modifyTemplate = new LDAPRequestTemplate(
+         new ModifyRequest("{dn}",
+              new Modification(ModificationType.REPLACE, "description",
+                   "{value}"),
+              new Modification(ModificationType.REPLACE, "displayName",
+                   "{value}")),
+         "{dn}", "{value}");
+    assertEncodingEquals(
+         modifyTemplate.createRequest("uid=test.user,dc=example,dc=com", ""),
+         new ModifyRequest("uid=test.user,dc=example,dc=com",
+              new Modification(ModificationType.REPLACE, "description", ""),
+              new Modification(ModificationType.REPLACE, "displayName", "")));
+
+    final LDAPRequestTemplate deleteTemplate =
+         new LDAPRequestTemplate(new DeleteRequest("{dn}"), "{dn}");
+    assertEncodingEquals(deleteTemplate.createRequest("dc=example,dc=com"),
+         new DeleteRequest("dc=example,dc=com"));
+
+    final LDAPRequestTemplate bindTemplate = new LDAPRequestTemplate(
+         new SimpleBindRequest("{dn}", "password"), "{dn}");
+    assertEncodingEquals(
+         bindTemplate.createRequest("uid=test.user,dc=example,dc=com"),
+         new SimpleBindRequest("uid=test.user,dc=example,dc=com", "password"));
+
+    // A template without placeholders should be allowed.
+    final LDAPRequestTemplate constantTemplate = new LDAPRequestTemplate(
+         new CompareRequest("dc=example,dc=com", "dc", "example"));
+    assertTrue(constantTemplate.getPlaceholders().isEmpty());
+    assertEncodingEquals(constantTemplate.createRequest(),
+         new CompareRequest("dc=example,dc=com", "dc", "example"));
+  }
+
+
+
+  /**
+   * Tests processing requests created from templates against a directory
+   * server.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testProcessing()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnection conn = ds.getConnection();
+
+    try
+    {
+      final LDAPRequestTemplate searchTemplate = new LDAPRequestTemplate(
+           new SearchRequest("{base}", SearchScope.SUB, "(uid={uid})"),
+           "{base}", "{uid}");
+
+      SearchResult searchResult = conn.search((SearchRequest)
+           searchTemplate.createRequest("dc=example,dc=com", "test.user"));
+      assertEquals(searchResult.getEntryCount(), 1);
+      assertEquals(searchResult.getSearchEntries().get(0).getParsedDN(),
+           new DN("uid=test.user,ou=People,dc=example,dc=com"));
+
+      searchResult = conn.search((SearchRequest)
+           searchTemplate.createRequest("dc=example,dc=com", "missing"));
+      assertEquals(searchResult.getEntryCount(), 0);
+
+      // Controls may be added to requests created from a template.
+      final SearchRequest searchWithControl = (SearchRequest)
+           searchTemplate.createRequest("ou=People,dc=example,dc=com",
+                "test.user");
+      searchWithControl.addControl(new ManageDsaITRequestControl());
+      assertEquals(conn.search(searchWithControl).getEntryCount(), 1);
+
+      final String userDN = "uid=test.user,ou=People,dc=example,dc=com";
+      final LDAPRequestTemplate modifyTemplate = new LDAPRequestTemplate(
+           new ModifyRequest("{dn}", new Modification(
+                ModificationType.REPLACE, "description", "{value}")),
+           "{dn}", "{value}");
+      assertEquals(conn.modify((ModifyRequest)
+           modifyTemplate.createRequest(userDN, "foo")).getResultCode(),
+           ResultCode.SUCCESS);
+      assertTrue(conn.getEntry(userDN).hasAttributeValue("description",
+           "foo"));
+
+      final LDAPRequestTemplate bindTemplate = new LDAPRequestTemplate(
+           new SimpleBindRequest("{dn}", "{password}"), "{dn}", "{password}");
+      assertEquals(conn.bind((SimpleBindRequest)
+           bindTemplate.createRequest(userDN, "password")).getResultCode(),
+           ResultCode.SUCCESS);
+
+      try
+      {
+        conn.bind((SimpleBindRequest)
+             bindTemplate.createRequest(userDN, "wrong"));
+        fail("Expected a bind failure with the wrong password");
+      }
+      catch (final LDAPException le)
+      {
+        assertEquals(le.getResultCode(), ResultCode.INVALID_CREDENTIALS);
+      }
+
+      final LDAPRequestTemplate addTemplate = new LDAPRequestTemplate(
+           new AddRequest(
+                "dn: {dn}",
+                "objectClass: top",
+                "objectClass: organizationalUnit",
+                "ou: {ou}"),
+           "{dn}", "{ou}");
+      conn.add((AddRequest) addTemplate.createRequest(
+           "ou=test,dc=example,dc=com", "test"));
+      assertNotNull(conn.getEntry("ou=test,dc=example,dc=com"));
+
+      final LDAPRequestTemplate compareTemplate = new LDAPRequestTemplate(
+           new CompareRequest("{dn}", "ou", "{ou}"), "{dn}", "{ou}");
+      assertTrue(conn.compare((CompareRequest) compareTemplate.createRequest(
+           "ou=test,dc=example,dc=com", "test")).compareMatched());
+
+      final LDAPRequestTemplate modifyDNTemplate = new LDAPRequestTemplate(
+           new ModifyDNRequest("{dn}", "{rdn}", true), "{dn}", "{rdn}");
+      conn.modifyDN((ModifyDNRequest) modifyDNTemplate.createRequest(
+           "ou=test,dc=example,dc=com", "ou=renamed"));
+      assertNotNull(conn.getEntry("ou=renamed,dc=example,dc=com"));
+
+      final LDAPRequestTemplate deleteTemplate =
+           new LDAPRequestTemplate(new DeleteRequest("{dn}"), "{dn}");
+      conn.delete((DeleteRequest) deleteTemplate.createRequest(
+           "ou=renamed,dc=example,dc=com"));
+      assertNull(conn.getEntry("ou=renamed,dc=example,dc=com"));
+    }
+    finally
+    {
+      conn.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that the elements of requests created from a template contain the
+   * substituted values, so that duplicates of those requests are equivalent,
+   * and that altering a request causes it to be encoded from its elements.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testCreatedRequestElements()
+         throws Exception
+  {
+    final LDAPRequestTemplate searchTemplate = new LDAPRequestTemplate(
+         new SearchRequest("{base}", SearchScope.SUB, "(uid={uid})", "cn"),
+         "{base}", "{uid}");
+
+    final SearchRequest searchRequest = (SearchRequest)
+         searchTemplate.createRequest("dc=example,dc=com", "test.user");
+    assertTrue(searchRequest.hasEncodingTemplate());
+    assertEquals(searchRequest.getBaseDN(), "dc=example,dc=com");
+    assertEquals(searchRequest.getFilter(),
+         Filter.createEqualityFilter("uid", "test.user"));
+    assertEquals(searchRequest.getAttributes(), new String[] { "cn" });
+
+    final SearchRequest duplicateSearch = searchRequest.duplicate();
+    assertFalse(duplicateSearch.hasEncodingTemplate());
+    assertEncodingEquals(duplicateSearch, searchRequest);
+
+    searchRequest.setFilter("(uid=another.user)");
+    assertFalse(searchRequest.hasEncodingTemplate());
+    assertEncodingEquals(searchRequest, new SearchRequest("dc=example,dc=com",
+         SearchScope.SUB, "(uid=another.user)", "cn"));
+
+    final LDAPRequestTemplate bindTemplate = new LDAPRequestTemplate(
+         new SimpleBindRequest("{dn}", "{password}"), "{dn}", "{password}");
+    final SimpleBindRequest bindRequest = (SimpleBindRequest)
+         bindTemplate.createRequest("uid=test.user,dc=example,dc=com",
+              "password");
+    assertEquals(bindRequest.getBindDN(), "uid=test.user,dc=example,dc=com");
+    assertEquals(bindRequest.getPassword().stringValue(), "password");
+    assertEncodingEquals(bindRequest.duplicate(), bindRequest);
+
+    final LDAPRequestTemplate modifyDNTemplate = new LDAPRequestTemplate(
+         new ModifyDNRequest("{dn}", "{rdn}", true, "{superior}"),
+         "{dn}", "{rdn}", "{superior}");
+    final ModifyDNRequest modifyDNRequest = (ModifyDNRequest)
+         modifyDNTemplate.createRequest("ou=a,dc=example,dc=com", "ou=b",
+              "ou=c,dc=example,dc=com");
+    assertEquals(modifyDNRequest.getDN(), "ou=a,dc=example,dc=com");
+    assertEquals(modifyDNRequest.getNewRDN(), "ou=b");
+    assertEquals(modifyDNRequest.getNewSuperiorDN(),
+         "ou=c,dc=example,dc=com");
+    assertEncodingEquals(modifyDNRequest.duplicate(), modifyDNRequest);
+  }
+
+
+
+  /**
+   * Tests that requests created from a template are processed correctly by
+   * methods that rebuild or duplicate the request before sending it.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testRebuiltRequests()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final String userDN = "uid=test.user,ou=People,dc=example,dc=com";
+
+    final LDAPRequestTemplate searchTemplate = new LDAPRequestTemplate(
+         new SearchRequest("{base}", SearchScope.SUB, "(uid={uid})"),
+         "{base}", "{uid}");
+    final LDAPRequestTemplate bindTemplate = new LDAPRequestTemplate(
+         new SimpleBindRequest("{dn}", "{password}"), "{dn}", "{password}");
+
+    final LDAPConnection conn = ds.getConnection();
+    try
+    {
+      // searchForEntry rebuilds any request without a size limit of one.
+      final SearchResultEntry entry = conn.searchForEntry((SearchRequest)
+           searchTemplate.createRequest("dc=example,dc=com", "test.user"));
+      assertNotNull(entry);
+      assertEquals(entry.getParsedDN(), new DN(userDN));
+    }
+    finally
+    {
+      conn.close();
+    }
+
+    // A connection pool duplicates its bind request whenever it authenticates
+    // a connection.
+    final LDAPConnectionPool pool = new LDAPConnectionPool(
+         new SingleServerSet("localhost", ds.getListenPort()),
+         (SimpleBindRequest) bindTemplate.createRequest(userDN, "password"),
+         1, 2);
+    try
+    {
+      final WhoAmIExtendedResult whoAmIResult = (WhoAmIExtendedResult)
+           pool.processExtendedOperation(new WhoAmIExtendedRequest());
+      assertEquals(whoAmIResult.getAuthorizationID(), "dn:" + userDN);
+
+      // Hedged searches send separate copies of the request to each server.
+      pool.setHedgedReadPolicy(new HedgedReadPolicy(50.0d, 0L, 0L));
+      for (int i=0; i < 4; i++)
+      {
+        final SearchResult searchResult = pool.search((SearchRequest)
+             searchTemplate.createRequest("dc=example,dc=com", "test.user"));
+        assertEquals(searchResult.getEntryCount(), 1);
+        assertEquals(searchResult.getSearchEntries().get(0).getParsedDN(),
+             new DN(userDN));
+      }
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when attempting to create a template from a simple
+   * bind request that uses a password provider.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testBindWithPasswordProvider()
+         throws Exception
+  {
+    new LDAPRequestTemplate(new SimpleBindRequest("{dn}",
+         new PasswordProvider()
+         {
+           private static final long serialVersionUID = 1L;
+
+           @Override()
+           public byte[] getPasswordBytes()
+           {
+             return StaticUtils.getBytes("password");
+           }
+         }), "{dn}");
+  }
+
+
+
+  /**
+   * Tests the behavior when attempting to create a template from an
+   * unsupported type of request.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testUnsupportedRequestType()
+         throws Exception
+  {
+    new LDAPRequestTemplate(new WhoAmIExtendedRequest());
+  }
+
+
+
+  /**
+   * Tests the behavior when attempting to create a template with a
+   * placeholder that is not used in the request.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testUnusedPlaceholder()
+         throws Exception
+  {
+    new LDAPRequestTemplate(new DeleteRequest("{dn}"), "{dn}", "{other}");
+  }
+
+
+
+  /**
+   * Tests the behavior when attempting to create a template with the same
+   * placeholder provided more than once.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPException.class })
+  public void testDuplicatePlaceholder()
+         throws Exception
+  {
+    new LDAPRequestTemplate(new DeleteRequest("{dn}"), "{dn}", "{dn}");
+  }
+
+
+
+  /**
+   * Tests the behavior when attempting to create a request with the wrong
+   * number of values.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPSDKUsageException.class })
+  public void testWrongNumberOfValues()
+         throws Exception
+  {
+    new LDAPRequestTemplate(new DeleteRequest("{dn}"), "{dn}").createRequest(
+         "dc=example,dc=com", "extra");
+  }
+
+
+
+  /**
+   * Ensures that the provided requests have the same encoded protocol op.
+   *
+   * @param  r1  The first request to compare.
+   * @param  r2  The second request to compare.
+   */
+  private static void assertEncodingEquals(final LDAPRequest r1,
+                                           final LDAPRequest r2)
+  {
+    final ASN1Buffer b1 = new ASN1Buffer();
+    ((ProtocolOp) r1).writeTo(b1);
+
+    final ASN1Buffer b2 = new ASN1Buffer();
+    ((ProtocolOp) r2).writeTo(b2);
+
+    assertTrue(Arrays.equals(b1.toByteArray(), b2.toByteArray()));
+  }
+
+
+
+  /**
+   * Retrieves a string of the specified length.
+   *
+   * @param  length  The length of the string to create.
+   *
+   * @return  The string that was created.
+   */
+  private static String getLongString(final int length)
+  {
+    final StringBuilder buffer = new StringBuilder(length);
+    for (int i=0; i < length; i++)
+    {
+      buffer.append((char) ('a' + (i % 26)));
+    }
+
+    return buffer.toString();
+  }
+}
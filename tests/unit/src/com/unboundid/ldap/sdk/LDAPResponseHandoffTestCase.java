@@ -0,0 +1,253 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.protocol.LDAPResponse;
+
+
+
+/**
+ * This class provides a set of test cases for the {@code LDAPResponseHandoff}
+ * class.
+ */
+public final class LDAPResponseHandoffTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests the behavior when a response is provided before an attempt is made
+   * to retrieve it.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testResponseAlreadyAvailable()
+         throws Exception
+  {
+    final LDAPResponseHandoff handoff = new LDAPResponseHandoff();
+
+    final LDAPResult result = new LDAPResult(1, ResultCode.SUCCESS);
+    handoff.put(result);
+    assertSame(handoff.take(), result);
+
+    handoff.put(result);
+    assertSame(handoff.poll(1000L), result);
+
+    assertNull(handoff.poll(10L));
+  }
+
+
+
+  /**
+   * Tests that only the first response provided will be retained and that
+   * clearing the handoff will discard any unretrieved response.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testOnlyFirstResponseRetained()
+         throws Exception
+  {
+    final LDAPResponseHandoff handoff = new LDAPResponseHandoff();
+
+    final LDAPResult result1 = new LDAPResult(1, ResultCode.SUCCESS);
+    final LDAPResult result2 = new LDAPResult(1, ResultCode.SERVER_DOWN);
+    handoff.put(result1);
+    handoff.put(result2);
+    assertSame(handoff.poll(1000L), result1);
+    assertNull(handoff.poll(10L));
+
+    handoff.put(result2);
+    handoff.clear();
+    assertNull(handoff.poll(10L));
+
+    handoff.put(result1);
+    assertSame(handoff.take(), result1);
+  }
+
+
+
+  /**
+   * Tests the behavior when the response is provided by a different thread
+   * while the requester is waiting for it.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testResponseProvidedByAnotherThread()
+         throws Exception
+  {
+    final LDAPResponseHandoff handoff = new LDAPResponseHandoff();
+    final LDAPResult result = new LDAPResult(1, ResultCode.SUCCESS);
+
+    final Thread t = new Thread()
+    {
+      @Override()
+      public void run()
+      {
+        try
+        {
+          Thread.sleep(50L);
+        }
+        catch (final InterruptedException ie)
+        {
+          // This should not happen.
+        }
+
+        handoff.put(result);
+      }
+    };
+
+    t.start();
+    assertSame(handoff.take(), result);
+    t.join();
+
+    final AtomicReference<LDAPResponse> ref = new AtomicReference<>();
+    final Thread waiter = new Thread()
+    {
+      @Override()
+      public void run()
+      {
+        try
+        {
+          ref.set(handoff.poll(30000L));
+        }
+        catch (final InterruptedException ie)
+        {
+          // This should not happen.
+        }
+      }
+    };
+
+    waiter.start();
+    Thread.sleep(50L);
+    handoff.put(result);
+    waiter.join(30000L);
+    assertSame(ref.get(), result);
+  }
+
+
+
+  /**
+   * Tests the behavior when the waiting thread is interrupted.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testInterrupted()
+         throws Exception
+  {
+    final LDAPResponseHandoff handoff = new LDAPResponseHandoff();
+
+    Thread.currentThread().interrupt();
+    try
+    {
+      handoff.take();
+      fail("Expected an InterruptedException");
+    }
+    catch (final InterruptedException ie)
+    {
+      // This was expected.
+    }
+
+    assertFalse(Thread.interrupted());
+  }
+
+
+
+  /**
+   * Tests the use of the handoff by each of the affected operation types,
+   * including the case in which a response timeout occurs and the same
+   * request is processed again.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testOperations()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnection conn = ds.getConnection();
+
+    try
+    {
+      final BindResult bindResult = conn.bind(
+           "uid=test.user,ou=People,dc=example,dc=com", "password");
+      assertEquals(bindResult.getResultCode(), ResultCode.SUCCESS);
+
+      final AddRequest addRequest = new AddRequest(
+           "dn: ou=handoff,dc=example,dc=com",
+           "objectClass: top",
+           "objectClass: organizationalUnit",
+           "ou: handoff");
+      assertEquals(conn.add(addRequest).getResultCode(), ResultCode.SUCCESS);
+
+      final ModifyRequest modifyRequest = new ModifyRequest(
+           "dn: ou=handoff,dc=example,dc=com",
+           "changetype: modify",
+           "replace: description",
+           "description: foo");
+      assertEquals(conn.modify(modifyRequest).getResultCode(),
+           ResultCode.SUCCESS);
+
+      final CompareRequest compareRequest = new CompareRequest(
+           "ou=handoff,dc=example,dc=com", "description", "foo");
+      assertTrue(conn.compare(compareRequest).compareMatched());
+
+      ds.setProcessingDelayMillis(500L);
+      try
+      {
+        modifyRequest.setResponseTimeoutMillis(50L);
+        try
+        {
+          conn.modify(modifyRequest);
+          fail("Expected a timeout exception");
+        }
+        catch (final LDAPException le)
+        {
+          assertEquals(le.getResultCode(), ResultCode.TIMEOUT);
+        }
+      }
+      finally
+      {
+        ds.setProcessingDelayMillis(0L);
+      }
+
+      Thread.sleep(600L);
+      modifyRequest.setResponseTimeoutMillis(-1L);
+      assertEquals(conn.modify(modifyRequest).getResultCode(),
+           ResultCode.SUCCESS);
+
+      assertEquals(conn.delete("ou=handoff,dc=example,dc=com").getResultCode(),
+           ResultCode.SUCCESS);
+    }
+    finally
+    {
+      conn.close();
+    }
+  }
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.util.LDAPSDKUsageException;
+
+
+
+/**
+ * This class provides a set of test cases for the latency-aware server set.
+ */
+public final class LatencyAwareServerSetTestCase
+       extends LDAPSDKTestCase
+{
+  // The first directory server instance that will be used for testing.
+  private InMemoryDirectoryServer ds1 = null;
+
+  // The second directory server instance that will be used for testing.
+  private InMemoryDirectoryServer ds2 = null;
+
+  // The ports of the directory server instances.
+  private final int[] ports = new int[2];
+
+  // The addresses of the directory server instances.
+  private final String[] addresses = { "localhost", "localhost" };
+
+
+
+  /**
+   * Prepares a couple of directory server instances to use in the testing.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @BeforeClass()
+  public void setUp()
+         throws Exception
+  {
+    ds1 = new InMemoryDirectoryServer("dc=example,dc=com");
+    ds1.startListening();
+
+    ds2 = new InMemoryDirectoryServer("dc=example,dc=com");
+    ds2.startListening();
+
+    ports[0] = ds1.getListenPort();
+    ports[1] = ds2.getListenPort();
+  }
+
+
+
+  /**
+   * Cleans up after testing has completed.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @AfterClass()
+  public void cleanUp()
+         throws Exception
+  {
+    ds1.shutDown(true);
+    ds2.shutDown(true);
+  }
+
+
+
+  /**
+   * Tests the behavior of the server set when created with the default
+   * settings.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testDefaultSettings()
+         throws Exception
+  {
+    final LatencyAwareServerSet set =
+         new LatencyAwareServerSet(addresses, ports);
+
+    assertEquals(set.getAddresses().length, 2);
+    assertEquals(set.getAddresses()[0], "localhost");
+    assertEquals(set.getAddresses()[1], "localhost");
+
+    assertEquals(set.getPorts().length, 2);
+    assertEquals(set.getPorts()[0], ports[0]);
+    assertEquals(set.getPorts()[1], ports[1]);
+
+    assertNotNull(set.getSocketFactory());
+    assertNotNull(set.getConnectionOptions());
+    assertFalse(set.includesAuthentication());
+    assertFalse(set.includesPostConnectProcessing());
+
+    assertEquals(set.getSmoothingFactor(),
+         LatencyAwareServerSet.DEFAULT_SMOOTHING_FACTOR);
+    assertEquals(set.getDecayTimeMillis(),
+         LatencyAwareServerSet.DEFAULT_DECAY_TIME_MILLIS);
+
+    final Map<String,Double> averages = set.getAverageResponseTimesMillis();
+    assertEquals(averages.size(), 2);
+    for (final Double d : averages.values())
+    {
+      assertEquals(d.doubleValue(), 0.0d);
+    }
+
+    assertNotNull(set.toString());
+
+    final LDAPConnection conn = set.getConnection();
+    assertNotNull(conn.getRootDSE());
+    conn.close();
+
+    final LDAPConnectionPool pool = new LDAPConnectionPool(set, null, 4);
+    assertNotNull(pool.getRootDSE());
+    pool.close();
+  }
+
+
+
+  /**
+   * Tests that the server set will prefer to establish new connections to the
+   * server with the lower observed response time.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testPrefersFasterServer()
+         throws Exception
+  {
+    final LatencyAwareServerSet set = new LatencyAwareServerSet(addresses,
+         ports, null, null, null, null, 1.0d, 600_000L);
+
+    // Two servers that have never been used will have the same cost, so the
+    // first two connections should go to different servers.
+    final LDAPConnection c1 = set.getConnection();
+    final LDAPConnection c2 = set.getConnection();
+    assertTrue(c1.getConnectedPort() != c2.getConnectedPort());
+
+    final LDAPConnection slowConn;
+    final LDAPConnection fastConn;
+    if (c1.getConnectedPort() == ports[0])
+    {
+      slowConn = c1;
+      fastConn = c2;
+    }
+    else
+    {
+      slowConn = c2;
+      fastConn = c1;
+    }
+
+    ds1.setProcessingDelayMillis(50L);
+    try
+    {
+      assertNotNull(slowConn.getRootDSE());
+    }
+    finally
+    {
+      ds1.setProcessingDelayMillis(0L);
+    }
+    assertNotNull(fastConn.getRootDSE());
+
+    final Map<String,Double> averages = set.getAverageResponseTimesMillis();
+    assertTrue(averages.get("localhost:" + ports[0]) >= 50.0d);
+    assertTrue(averages.get("localhost:" + ports[1]) < 50.0d);
+
+    slowConn.close();
+    fastConn.close();
+
+
+    // New connections should now go to the faster server.
+    final List<LDAPConnection> connections = new ArrayList<>(5);
+    try
+    {
+      for (int i=0; i < 5; i++)
+      {
+        final LDAPConnection conn = set.getConnection();
+        connections.add(conn);
+        assertEquals(conn.getConnectedPort(), ports[1]);
+      }
+    }
+    finally
+    {
+      for (final LDAPConnection conn : connections)
+      {
+        conn.close();
+      }
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when one of the servers is unavailable.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testUnavailableServer()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds3 =
+         new InMemoryDirectoryServer("dc=example,dc=com");
+    ds3.startListening();
+    final int unavailablePort = ds3.getListenPort();
+    ds3.shutDown(true);
+
+    final LatencyAwareServerSet set = new LatencyAwareServerSet(
+         new String[] { "localhost", "localhost" },
+         new int[] { unavailablePort, ports[0] });
+
+    final List<LDAPConnection> connections = new ArrayList<>(5);
+    try
+    {
+      for (int i=0; i < 5; i++)
+      {
+        final LDAPConnection conn = set.getConnection();
+        connections.add(conn);
+        assertEquals(conn.getConnectedPort(), ports[0]);
+      }
+    }
+    finally
+    {
+      for (final LDAPConnection conn : connections)
+      {
+        conn.close();
+      }
+    }
+
+    final LatencyAwareServerSet unavailableSet = new LatencyAwareServerSet(
+         new String[] { "localhost" }, new int[] { unavailablePort });
+    try
+    {
+      unavailableSet.getConnection();
+      fail("Expected an exception when no server is available");
+    }
+    catch (final LDAPException le)
+    {
+      // This was expected.
+    }
+  }
+
+
+
+  /**
+   * Tests that the average response time for a server decays while no
+   * responses are received from it.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testDecay()
+         throws Exception
+  {
+    final LatencyAwareServerSet set = new LatencyAwareServerSet(
+         new String[] { "localhost" }, new int[] { ports[1] }, null, null,
+         null, null, 0.5d, 50L);
+
+    final LDAPConnection conn = set.getConnection();
+    try
+    {
+      ds2.setProcessingDelayMillis(20L);
+      try
+      {
+        assertNotNull(conn.getRootDSE());
+      }
+      finally
+      {
+        ds2.setProcessingDelayMillis(0L);
+      }
+
+      final double initialAverage =
+           set.getAverageResponseTimesMillis().get("localhost:" + ports[1]);
+      assertTrue(initialAverage > 0.0d);
+
+      Thread.sleep(200L);
+      final double decayedAverage =
+           set.getAverageResponseTimesMillis().get("localhost:" + ports[1]);
+      assertTrue(decayedAverage < (initialAverage / 2.0d));
+    }
+    finally
+    {
+      conn.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior with an invalid smoothing factor.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPSDKUsageException.class })
+  public void testInvalidSmoothingFactor()
+         throws Exception
+  {
+    new LatencyAwareServerSet(addresses, ports, null, null, null, null, 0.0d,
+         1000L);
+  }
+
+
+
+  /**
+   * Tests the behavior with an invalid decay time.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPSDKUsageException.class })
+  public void testInvalidDecayTime()
+         throws Exception
+  {
+    new LatencyAwareServerSet(addresses, ports, null, null, null, null, 0.5d,
+         0L);
+  }
+
+
+
+  /**
+   * Tests the behavior with mismatched address and port arrays.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPSDKUsageException.class })
+  public void testMismatchedArrays()
+         throws Exception
+  {
+    new LatencyAwareServerSet(addresses, new int[] { ports[0] });
+  }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.util.LDAPSDKUsageException;
+
+
+
+/**
+ * This class provides a set of test cases for the pipelined
+ * {@code processRequests} method in connection pools, which is implemented by
+ * the {@code PipelinedRequestProcessor} class.
+ */
+public final class PipelinedRequestProcessorTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests the behavior when processing a large number of requests that should
+   * all succeed using multiple connections and multiple outstanding requests
+   * per connection.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testAllSucceed()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(null, null, 4, 4);
+
+    try
+    {
+      final ArrayList<LDAPRequest> requests = new ArrayList<>(300);
+      for (int i=0; i < 100; i++)
+      {
+        requests.add(new AddRequest(
+             "dn: ou=pipelined " + i + ",dc=example,dc=com",
+             "objectClass: top",
+             "objectClass: organizationalUnit",
+             "ou: pipelined " + i));
+      }
+
+      List<LDAPResult> results = pool.processRequests(requests, false, 10, 3);
+      assertNotNull(results);
+      assertEquals(results.size(), 100);
+      for (final LDAPResult r : results)
+      {
+        assertEquals(r.getResultCode(), ResultCode.SUCCESS);
+      }
+
+      requests.clear();
+      for (int i=0; i < 100; i++)
+      {
+        requests.add(new CompareRequest(
+             "ou=pipelined " + i + ",dc=example,dc=com", "ou",
+             (((i % 2) == 0) ? "pipelined " + i : "nope")));
+        requests.add(new ModifyRequest(
+             "dn: ou=pipelined " + i + ",dc=example,dc=com",
+             "changetype: modify",
+             "replace: description",
+             "description: " + i));
+      }
+
+      results = pool.processRequests(requests, false, 5, 2);
+      assertEquals(results.size(), 200);
+      for (int i=0; i < 100; i++)
+      {
+        final LDAPResult compareResult = results.get(2*i);
+        assertTrue(compareResult instanceof CompareResult);
+        if ((i % 2) == 0)
+        {
+          assertEquals(compareResult.getResultCode(),
+               ResultCode.COMPARE_TRUE);
+        }
+        else
+        {
+          assertEquals(compareResult.getResultCode(),
+               ResultCode.COMPARE_FALSE);
+        }
+
+        assertEquals(results.get(2*i+1).getResultCode(), ResultCode.SUCCESS);
+      }
+
+      requests.clear();
+      for (int i=0; i < 100; i++)
+      {
+        requests.add(new ModifyDNRequest(
+             "ou=pipelined " + i + ",dc=example,dc=com",
+             "ou=renamed " + i, true));
+      }
+
+      results = pool.processRequests(requests, false, 1, 10);
+      assertEquals(results.size(), 100);
+      for (final LDAPResult r : results)
+      {
+        assertEquals(r.getResultCode(), ResultCode.SUCCESS);
+      }
+
+      requests.clear();
+      for (int i=0; i < 100; i++)
+      {
+        requests.add(new DeleteRequest(
+             "ou=renamed " + i + ",dc=example,dc=com"));
+      }
+
+      results = pool.processRequests(requests, false, 100, 1);
+      assertEquals(results.size(), 100);
+      for (final LDAPResult r : results)
+      {
+        assertEquals(r.getResultCode(), ResultCode.SUCCESS);
+      }
+
+      assertEquals(pool.getCurrentAvailableConnections(), 4);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when a request fails and processing should not
+   * continue.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testFailureWithoutContinue()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(null, null, 2, 2);
+
+    try
+    {
+      final ArrayList<LDAPRequest> requests = new ArrayList<>(20);
+      requests.add(new DeleteRequest("ou=missing,dc=example,dc=com"));
+      for (int i=0; i < 20; i++)
+      {
+        requests.add(new AddRequest(
+             "dn: ou=pipelined " + i + ",dc=example,dc=com",
+             "objectClass: top",
+             "objectClass: organizationalUnit",
+             "ou: pipelined " + i));
+      }
+
+      // With only one outstanding request at a time, nothing should be sent
+      // after the failure.
+      List<LDAPResult> results = pool.processRequests(requests, false, 1, 1);
+      assertEquals(results.size(), 1);
+      assertEquals(results.get(0).getResultCode(), ResultCode.NO_SUCH_OBJECT);
+      assertNull(ds.getEntry("ou=pipelined 0,dc=example,dc=com"));
+
+      // With a larger window, some requests may have been sent before the
+      // failure was detected, but results must still be in order and no more
+      // than the window may have been sent.
+      results = pool.processRequests(requests, false, 4, 1);
+      assertFalse(results.isEmpty());
+      assertTrue(results.size() <= 4);
+      assertEquals(results.get(0).getResultCode(), ResultCode.NO_SUCH_OBJECT);
+      for (int i=1; i < results.size(); i++)
+      {
+        assertEquals(results.get(i).getResultCode(), ResultCode.SUCCESS);
+        assertNotNull(ds.getEntry("ou=pipelined " + (i-1) +
+             ",dc=example,dc=com"));
+      }
+
+      assertEquals(pool.getCurrentAvailableConnections(), 2);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when a request fails and processing should continue.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testFailureWithContinue()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(null, null, 2, 2);
+
+    try
+    {
+      final ArrayList<LDAPRequest> requests = new ArrayList<>(21);
+      for (int i=0; i < 20; i++)
+      {
+        if (i == 5)
+        {
+          requests.add(new DeleteRequest("ou=missing,dc=example,dc=com"));
+        }
+
+        requests.add(new AddRequest(
+             "dn: ou=pipelined " + i + ",dc=example,dc=com",
+             "objectClass: top",
+             "objectClass: organizationalUnit",
+             "ou: pipelined " + i));
+      }
+
+      final List<LDAPResult> results =
+           pool.processRequests(requests, true, 3, 2);
+      assertEquals(results.size(), 21);
+      for (int i=0; i < 21; i++)
+      {
+        if (i == 5)
+        {
+          assertEquals(results.get(i).getResultCode(),
+               ResultCode.NO_SUCH_OBJECT);
+        }
+        else
+        {
+          assertEquals(results.get(i).getResultCode(), ResultCode.SUCCESS);
+        }
+      }
+
+      assertEquals(pool.getCurrentAvailableConnections(), 2);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when the list of requests includes an operation that
+   * cannot be pipelined.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testUnsupportedOperation()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(null, null, 1, 1);
+
+    try
+    {
+      final ArrayList<LDAPRequest> requests = new ArrayList<>(2);
+      requests.add(new DeleteRequest("ou=missing,dc=example,dc=com"));
+      requests.add(new SearchRequest("dc=example,dc=com", SearchScope.BASE,
+           "(objectClass=*)"));
+
+      try
+      {
+        pool.processRequests(requests, true, 2, 1);
+        fail("Expected an exception for a search request");
+      }
+      catch (final LDAPException le)
+      {
+        assertEquals(le.getResultCode(), ResultCode.PARAM_ERROR);
+      }
+
+      assertEquals(pool.getCurrentAvailableConnections(), 1);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior with invalid window sizes.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(expectedExceptions = { LDAPSDKUsageException.class })
+  public void testInvalidWindowSize()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(null, null, 1, 1);
+
+    try
+    {
+      final ArrayList<LDAPRequest> requests = new ArrayList<>(1);
+      requests.add(new DeleteRequest("ou=missing,dc=example,dc=com"));
+      pool.processRequests(requests, true, 0, 1);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when the connections in the pool operate in synchronous
+   * mode.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testSynchronousMode()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+
+    final LDAPConnectionOptions options = new LDAPConnectionOptions();
+    options.setUseSynchronousMode(true);
+
+    final LDAPConnection conn =
+         new LDAPConnection(options, "localhost", ds.getListenPort());
+    final LDAPConnectionPool pool = new LDAPConnectionPool(conn, 1);
+
+    try
+    {
+      final ArrayList<LDAPRequest> requests = new ArrayList<>(1);
+      requests.add(new DeleteRequest("ou=missing,dc=example,dc=com"));
+
+      try
+      {
+        pool.processRequests(requests, true, 2, 1);
+        fail("Expected an exception for synchronous mode");
+      }
+      catch (final LDAPException le)
+      {
+        assertEquals(le.getResultCode(), ResultCode.PARAM_ERROR);
+      }
+
+      assertEquals(pool.getCurrentAvailableConnections(), 1);
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.protocol.LDAPResponse;
+
+
+
+/**
+ * This class provides a set of test cases for the {@code ResponseAcceptorMap}
+ * class.
+ */
+public final class ResponseAcceptorMapTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests basic operations on the map.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testBasicOperations()
+         throws Exception
+  {
+    final ResponseAcceptorMap map = new ResponseAcceptorMap();
+    assertEquals(map.size(), 0);
+    assertNull(map.get(1));
+    assertNull(map.remove(1));
+    assertEquals(map.getMessageIDs().length, 0);
+    assertNotNull(map.toString());
+
+    final TestAcceptor a1 = new TestAcceptor();
+    final TestAcceptor a2 = new TestAcceptor();
+
+    assertNull(map.putIfAbsent(1, a1));
+    assertEquals(map.size(), 1);
+    assertSame(map.get(1), a1);
+
+    assertSame(map.putIfAbsent(1, a2), a1);
+    assertEquals(map.size(), 1);
+    assertSame(map.get(1), a1);
+
+    assertNull(map.putIfAbsent(-1, a2));
+    assertEquals(map.size(), 2);
+    assertSame(map.get(-1), a2);
+
+    final int[] messageIDs = map.getMessageIDs();
+    Arrays.sort(messageIDs);
+    assertTrue(Arrays.equals(messageIDs, new int[] { -1, 1 }));
+
+    assertSame(map.remove(1), a1);
+    assertNull(map.get(1));
+    assertNull(map.remove(1));
+    assertEquals(map.size(), 1);
+
+    assertNull(map.putIfAbsent(1, a2));
+    assertSame(map.get(1), a2);
+    assertEquals(map.size(), 2);
+
+    assertSame(map.remove(1), a2);
+    assertSame(map.remove(-1), a2);
+    assertEquals(map.size(), 0);
+    assertEquals(map.getMessageIDs().length, 0);
+  }
+
+
+
+  /**
+   * Tests the behavior of the map with the message ID that is used internally
+   * to mark empty slots.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testMinimumIntegerMessageID()
+         throws Exception
+  {
+    final ResponseAcceptorMap map = new ResponseAcceptorMap();
+    final TestAcceptor a = new TestAcceptor();
+
+    assertNull(map.get(Integer.MIN_VALUE));
+    assertNull(map.putIfAbsent(Integer.MIN_VALUE, a));
+    assertSame(map.putIfAbsent(Integer.MIN_VALUE, new TestAcceptor()), a);
+    assertSame(map.get(Integer.MIN_VALUE), a);
+    assertEquals(map.size(), 1);
+    assertTrue(Arrays.equals(map.getMessageIDs(),
+         new int[] { Integer.MIN_VALUE }));
+    assertNull(map.get(0));
+
+    assertSame(map.remove(Integer.MIN_VALUE), a);
+    assertNull(map.remove(Integer.MIN_VALUE));
+    assertEquals(map.size(), 0);
+  }
+
+
+
+  /**
+   * Tests the behavior of the map when a large number of acceptors are
+   * registered and deregistered in the pattern used for sequential message
+   * IDs, which will cause the table to be rebuilt many times.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testManyEntries()
+         throws Exception
+  {
+    final ResponseAcceptorMap map = new ResponseAcceptorMap();
+    final TestAcceptor a = new TestAcceptor();
+
+    for (int i=1; i <= 10000; i++)
+    {
+      assertNull(map.putIfAbsent(i, a));
+    }
+    assertEquals(map.size(), 10000);
+    assertEquals(map.getMessageIDs().length, 10000);
+
+    for (int i=1; i <= 10000; i++)
+    {
+      assertSame(map.get(i), a);
+    }
+    assertNull(map.get(10001));
+
+    for (int i=1; i <= 10000; i += 2)
+    {
+      assertSame(map.remove(i), a);
+    }
+    assertEquals(map.size(), 5000);
+
+    for (int i=1; i <= 10000; i++)
+    {
+      if ((i % 2) == 0)
+      {
+        assertSame(map.get(i), a);
+      }
+      else
+      {
+        assertNull(map.get(i));
+      }
+    }
+
+    for (int i=2; i <= 10000; i += 2)
+    {
+      assertSame(map.remove(i), a);
+    }
+    assertEquals(map.size(), 0);
+
+    for (int i=10001; i <= 100000; i++)
+    {
+      assertNull(map.putIfAbsent(i, a));
+      if (i > 15000)
+      {
+        assertSame(map.remove(i - 5000), a);
+      }
+      assertSame(map.get(i), a);
+    }
+    assertEquals(map.size(), 5000);
+
+    for (final int messageID : map.getMessageIDs())
+    {
+      assertTrue(messageID > 95000);
+      assertSame(map.remove(messageID), a);
+    }
+    assertEquals(map.size(), 0);
+  }
+
+
+
+  /**
+   * Tests the behavior of the map when accessed concurrently by multiple
+   * threads.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testConcurrentAccess()
+         throws Exception
+  {
+    final ResponseAcceptorMap map = new ResponseAcceptorMap();
+    final AtomicInteger nextMessageID = new AtomicInteger(0);
+    final AtomicInteger failures = new AtomicInteger(0);
+
+    final List<Thread> threads = new ArrayList<>(8);
+    for (int i=0; i < 8; i++)
+    {
+      threads.add(new Thread()
+      {
+        @Override()
+        public void run()
+        {
+          final TestAcceptor a = new TestAcceptor();
+          for (int j=0; j < 20000; j++)
+          {
+            final int messageID = nextMessageID.incrementAndGet();
+            if ((map.putIfAbsent(messageID, a) != null) ||
+                (map.get(messageID) != a) ||
+                (map.remove(messageID) != a) ||
+                (map.get(messageID) != null))
+            {
+              failures.incrementAndGet();
+            }
+          }
+        }
+      });
+    }
+
+    for (final Thread t : threads)
+    {
+      t.start();
+    }
+
+    for (final Thread t : threads)
+    {
+      t.join();
+    }
+
+    assertEquals(failures.get(), 0);
+    assertEquals(map.size(), 0);
+  }
+
+
+
+  /**
+   * Tests that lookups never return an acceptor registered with a different
+   * message ID while removed slots are concurrently being reused.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testConcurrentSlotReuse()
+         throws Exception
+  {
+    final ResponseAcceptorMap map = new ResponseAcceptorMap();
+    final AtomicInteger latestMessageID = new AtomicInteger(0);
+    final AtomicInteger failures = new AtomicInteger(0);
+    final AtomicBoolean stopped = new AtomicBoolean(false);
+
+    // Keep a small number of acceptors registered, so that the slots of the
+    // removed message IDs will frequently be reused by new ones.
+    final Thread writer = new Thread()
+    {
+      @Override()
+      public void run()
+      {
+        for (int messageID=1; messageID <= 500_000; messageID++)
+        {
+          map.putIfAbsent(messageID, new IdentifiedAcceptor(messageID));
+          latestMessageID.set(messageID);
+          if (messageID > 8)
+          {
+            map.remove(messageID - 8);
+          }
+        }
+
+        stopped.set(true);
+      }
+    };
+
+    final List<Thread> readers = new ArrayList<>(4);
+    for (int i=0; i < 4; i++)
+    {
+      readers.add(new Thread()
+      {
+        @Override()
+        public void run()
+        {
+          int offset = 0;
+          while (! stopped.get())
+          {
+            // Mostly look up recently removed message IDs, whose slots are
+            // the most likely to be in the process of being reused.
+            offset = (offset + 1) % 12;
+            final int messageID = latestMessageID.get() - offset;
+            final ResponseAcceptor acceptor = map.get(messageID);
+            if ((acceptor != null) &&
+                (((IdentifiedAcceptor) acceptor).messageID != messageID))
+            {
+              failures.incrementAndGet();
+            }
+          }
+        }
+      });
+    }
+
+    for (final Thread t : readers)
+    {
+      t.start();
+    }
+    writer.start();
+
+    writer.join();
+    for (final Thread t : readers)
+    {
+      t.join();
+    }
+
+    assertEquals(failures.get(), 0);
+    assertEquals(map.size(), 8);
+  }
+
+
+
+  /**
+   * A response acceptor that can be used for testing purposes.
+   */
+  private static final class TestAcceptor
+          implements ResponseAcceptor
+  {
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void responseReceived(final LDAPResponse response)
+    {
+      // No implementation is required.
+    }
+  }
+
+
+
+  /**
+   * A response acceptor that knows the message ID with which it is registered.
+   */
+  private static final class IdentifiedAcceptor
+          implements ResponseAcceptor
+  {
+    // The message ID with which this acceptor is registered.
+    private final int messageID;
+
+
+
+    /**
+     * Creates a new acceptor for the specified message ID.
+     *
+     * @param  messageID  The message ID with which this acceptor is
+     *                    registered.
+     */
+    private IdentifiedAcceptor(final int messageID)
+    {
+      this.messageID = messageID;
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void responseReceived(final LDAPResponse response)
+    {
+      // No implementation is required.
+    }
+  }
+}
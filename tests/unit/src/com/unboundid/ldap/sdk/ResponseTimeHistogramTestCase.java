@@ -0,0 +1,320 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.unboundid.util.LDAPSDKUsageException;
+
+
+
+/**
+ * This class provides a set of test cases for the
+ * {@code ResponseTimeHistogram} and {@code ResponseTimeRecorder} classes.
+ */
+public final class ResponseTimeHistogramTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * Tests to ensure that every response time is counted in a bucket whose
+   * upper bound is no smaller than the response time and no more than 12.5%
+   * larger than it, and that bucket indexes increase with the response time.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testBucketBoundaries()
+         throws Exception
+  {
+    assertEquals(ResponseTimeHistogram.getBucketIndex(-1L), 0);
+    assertEquals(ResponseTimeHistogram.getBucketIndex(0L), 0);
+    assertEquals(ResponseTimeHistogram.getBucketIndex(Long.MAX_VALUE),
+         ResponseTimeHistogram.NUM_BUCKETS - 1);
+
+    int previousIndex = 0;
+    for (long v=0L; v < (1L << 42); v = Math.max(v + 1L, v + (v / 97L)))
+    {
+      final int index = ResponseTimeHistogram.getBucketIndex(v);
+      assertTrue(index >= previousIndex);
+      assertTrue(index < ResponseTimeHistogram.NUM_BUCKETS);
+      previousIndex = index;
+
+      if (index < (ResponseTimeHistogram.NUM_BUCKETS - 1))
+      {
+        final long upperBound =
+             ResponseTimeHistogram.getBucketUpperBound(index);
+        assertTrue(upperBound >= v);
+        assertTrue(upperBound <= (v + (v / 8L)),
+             "Upper bound " + upperBound + " too large for " + v);
+        if (index > 0)
+        {
+          assertTrue(ResponseTimeHistogram.getBucketUpperBound(index - 1) < v);
+        }
+      }
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior of an empty histogram.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testEmptyHistogram()
+         throws Exception
+  {
+    final ResponseTimeHistogram h = new ResponseTimeRecorder().getSnapshot();
+    assertEquals(h.getCount(), 0L);
+    assertEquals(h.getTotalResponseTimeNanos(), 0L);
+    assertEquals(h.getMinimumResponseTimeNanos(), 0L);
+    assertEquals(h.getMaximumResponseTimeNanos(), 0L);
+    assertTrue(Double.isNaN(h.getAverageResponseTimeNanos()));
+    assertTrue(Double.isNaN(h.getAverageResponseTimeMillis()));
+    assertTrue(Double.isNaN(h.getPercentileNanos(50.0d)));
+    assertTrue(Double.isNaN(h.getPercentileMillis(99.9d)));
+    assertNotNull(h.toString());
+
+    assertEquals(ResponseTimeHistogram.merge().getCount(), 0L);
+    assertEquals(ResponseTimeHistogram.merge(h, null).getCount(), 0L);
+  }
+
+
+
+  /**
+   * Tests the percentiles obtained from a histogram with a known distribution.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testPercentiles()
+         throws Exception
+  {
+    final ResponseTimeRecorder r = new ResponseTimeRecorder();
+    r.record(-5L);
+    for (long i=1L; i <= 1000L; i++)
+    {
+      r.record(i * 1000L);
+    }
+
+    final ResponseTimeHistogram h = r.getSnapshot();
+    assertEquals(h.getCount(), 1000L);
+    assertEquals(h.getMinimumResponseTimeNanos(), 1000L);
+    assertEquals(h.getMaximumResponseTimeNanos(), 1000000L);
+    assertEquals(h.getTotalResponseTimeNanos(), 500500000L);
+    assertEquals(h.getAverageResponseTimeNanos(), 500500.0d);
+    assertTrue(Math.abs(h.getAverageResponseTimeMillis() - 0.5005d) < 0.0001d);
+
+    assertPercentile(h, 50.0d, 500000L);
+    assertPercentile(h, 90.0d, 900000L);
+    assertPercentile(h, 99.0d, 990000L);
+    assertPercentile(h, 99.9d, 999000L);
+    assertEquals(h.getPercentileNanos(100.0d), 1000000.0d);
+    assertPercentile(h, 0.0001d, 1000L);
+    assertEquals(h.getPercentileMillis(100.0d), 1.0d);
+
+    try
+    {
+      h.getPercentileNanos(0.0d);
+      fail("Expected an exception for a percentile of zero");
+    }
+    catch (final LDAPSDKUsageException e)
+    {
+      // This was expected.
+    }
+
+    try
+    {
+      h.getPercentileNanos(100.1d);
+      fail("Expected an exception for a percentile greater than 100");
+    }
+    catch (final LDAPSDKUsageException e)
+    {
+      // This was expected.
+    }
+
+    assertNotNull(h.toString());
+  }
+
+
+
+  /**
+   * Tests the ability to merge histograms.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testMerge()
+         throws Exception
+  {
+    final ResponseTimeRecorder fast = new ResponseTimeRecorder();
+    final ResponseTimeRecorder slow = new ResponseTimeRecorder();
+    for (int i=0; i < 99; i++)
+    {
+      fast.record(100L);
+    }
+    slow.record(1000000L);
+
+    final ResponseTimeHistogram merged =
+         ResponseTimeHistogram.merge(fast.getSnapshot(), slow.getSnapshot());
+    assertEquals(merged.getCount(), 100L);
+    assertEquals(merged.getMinimumResponseTimeNanos(), 100L);
+    assertEquals(merged.getMaximumResponseTimeNanos(), 1000000L);
+    assertEquals(merged.getTotalResponseTimeNanos(), 9900L + 1000000L);
+    assertPercentile(merged, 99.0d, 100L);
+    assertEquals(merged.getPercentileNanos(99.5d), 1000000.0d);
+
+    final List<ResponseTimeHistogram> histograms = new ArrayList<>();
+    histograms.add(merged);
+    histograms.add(fast.getSnapshot());
+    final ResponseTimeHistogram merged2 =
+         ResponseTimeHistogram.merge(histograms);
+    assertEquals(merged2.getCount(), 199L);
+    assertEquals(ResponseTimeHistogram.merge(
+         Collections.<ResponseTimeHistogram>emptyList()).getCount(), 0L);
+  }
+
+
+
+  /**
+   * Tests the ability to reset a recorder, both directly and when obtaining a
+   * snapshot.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testReset()
+         throws Exception
+  {
+    final ResponseTimeRecorder r = new ResponseTimeRecorder();
+    r.record(5000L);
+    r.record(7000L);
+
+    ResponseTimeHistogram h = r.getSnapshotAndReset();
+    assertEquals(h.getCount(), 2L);
+    assertEquals(h.getMinimumResponseTimeNanos(), 5000L);
+    assertEquals(h.getMaximumResponseTimeNanos(), 7000L);
+    assertEquals(r.getSnapshot().getCount(), 0L);
+
+    r.record(3L);
+    h = r.getSnapshot();
+    assertEquals(h.getCount(), 1L);
+    assertEquals(h.getMinimumResponseTimeNanos(), 3L);
+    assertEquals(h.getMaximumResponseTimeNanos(), 3L);
+    assertEquals(h.getPercentileNanos(50.0d), 3.0d);
+    assertNotNull(r.toString());
+
+    r.reset();
+    assertEquals(r.getSnapshot().getCount(), 0L);
+  }
+
+
+
+  /**
+   * Tests to ensure that no response times are lost when they are recorded
+   * concurrently by multiple threads while snapshots are being taken and the
+   * recorder is being reset.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testConcurrentRecording()
+         throws Exception
+  {
+    final ResponseTimeRecorder r = new ResponseTimeRecorder();
+    final int numThreads = 8;
+    final int recordsPerThread = 50000;
+
+    final List<Thread> threads = new ArrayList<>(numThreads);
+    for (int i=0; i < numThreads; i++)
+    {
+      final long base = (i + 1) * 1000L;
+      threads.add(new Thread()
+      {
+        @Override()
+        public void run()
+        {
+          for (int j=0; j < recordsPerThread; j++)
+          {
+            r.record(base + j);
+          }
+        }
+      });
+    }
+
+    for (final Thread t : threads)
+    {
+      t.start();
+    }
+
+    long total = 0L;
+    boolean running = true;
+    while (running)
+    {
+      total += r.getSnapshotAndReset().getCount();
+
+      running = false;
+      for (final Thread t : threads)
+      {
+        if (t.isAlive())
+        {
+          running = true;
+        }
+      }
+    }
+
+    for (final Thread t : threads)
+    {
+      t.join();
+    }
+
+    total += r.getSnapshotAndReset().getCount();
+    assertEquals(total, ((long) numThreads) * recordsPerThread);
+  }
+
+
+
+  /**
+   * Ensures that the response time for the specified percentile in the
+   * provided histogram is no smaller than the expected value and no more than
+   * 12.5% larger than it.
+   *
+   * @param  h           The histogram to examine.
+   * @param  percentile  The percentile to retrieve.
+   * @param  expected    The actual response time at that percentile.
+   */
+  private static void assertPercentile(final ResponseTimeHistogram h,
+                                       final double percentile,
+                                       final long expected)
+  {
+    final double actual = h.getPercentileNanos(percentile);
+    assertTrue((actual >= expected) && (actual <= (expected * 1.125d)),
+         "Percentile " + percentile + " was " + actual + " but expected " +
+              "approximately " + expected);
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.controls.ManageDsaITRequestControl;
+
+
+
+/**
+ * This class provides a set of test cases for the {@code SearchCoalescer}
+ * class.
+ */
+public final class SearchCoalescerTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * The DN of the test user entry.
+   */
+  private static final String USER_DN =
+       "uid=test.user,ou=People,dc=example,dc=com";
+
+
+
+  /**
+   * Tests the keys generated for search requests.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testGetKey()
+         throws Exception
+  {
+    final String key = SearchCoalescer.getKey(new SearchRequest(
+         "dc=example,dc=com", SearchScope.SUB, "(uid=test.user)", "uid", "cn"));
+    assertNotNull(key);
+
+    // Requests that differ only in the order or capitalization of the
+    // requested attributes should have the same key.
+    assertEquals(SearchCoalescer.getKey(new SearchRequest(
+         "dc=example,dc=com", SearchScope.SUB, "(uid=test.user)", "CN",
+         "uid")), key);
+
+    // Requests whose base DN or filter values differ only in capitalization
+    // should not have the same key, since they may not be equivalent for
+    // attributes with case-sensitive matching rules.
+    assertFalse(SearchCoalescer.getKey(new SearchRequest(
+         "dc=Example,dc=com", SearchScope.SUB, "(uid=test.user)", "uid",
+         "cn")).equals(key));
+    assertFalse(SearchCoalescer.getKey(new SearchRequest(
+         "dc=example,dc=com", SearchScope.SUB, "(uid=Test.User)", "uid",
+         "cn")).equals(key));
+
+    // Requests that differ in any significant way should have different keys.
+    assertFalse(SearchCoalescer.getKey(new SearchRequest(
+         "ou=People,dc=example,dc=com", SearchScope.SUB, "(uid=test.user)",
+         "uid", "cn")).equals(key));
+    assertFalse(SearchCoalescer.getKey(new SearchRequest(
+         "dc=example,dc=com", SearchScope.ONE, "(uid=test.user)", "uid",
+         "cn")).equals(key));
+    assertFalse(SearchCoalescer.getKey(new SearchRequest(
+         "dc=example,dc=com", SearchScope.SUB, "(uid=other.user)", "uid",
+         "cn")).equals(key));
+    assertFalse(SearchCoalescer.getKey(new SearchRequest(
+         "dc=example,dc=com", SearchScope.SUB, "(uid=test.user)",
+         "uid")).equals(key));
+
+    final SearchRequest sizeLimitRequest = new SearchRequest(
+         "dc=example,dc=com", SearchScope.SUB, "(uid=test.user)", "uid", "cn");
+    sizeLimitRequest.setSizeLimit(1);
+    assertFalse(SearchCoalescer.getKey(sizeLimitRequest).equals(key));
+
+    // Requests with controls or search result listeners should not be
+    // coalesced.
+    final SearchRequest controlRequest = new SearchRequest(
+         "dc=example,dc=com", SearchScope.SUB, "(uid=test.user)", "uid", "cn");
+    controlRequest.addControl(new ManageDsaITRequestControl());
+    assertNull(SearchCoalescer.getKey(controlRequest));
+
+    assertNull(SearchCoalescer.getKey(new SearchRequest(
+         new TestSearchResultListener(), "dc=example,dc=com", SearchScope.SUB,
+         "(uid=test.user)")));
+  }
+
+
+
+  /**
+   * Tests that identical concurrent searches processed through a connection
+   * pool are coalesced.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testConcurrentSearches()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(10);
+
+    try
+    {
+      assertFalse(pool.coalesceIdenticalSearches());
+      pool.setCoalesceIdenticalSearches(true);
+      assertTrue(pool.coalesceIdenticalSearches());
+
+      ds.setProcessingDelayMillis(500L);
+
+      final int numThreads = 10;
+      final CountDownLatch startLatch = new CountDownLatch(1);
+      final List<AtomicReference<Object>> results =
+           new ArrayList<>(numThreads);
+      final List<Thread> threads = new ArrayList<>(numThreads);
+      for (int i=0; i < numThreads; i++)
+      {
+        final AtomicReference<Object> resultRef = new AtomicReference<>();
+        results.add(resultRef);
+        threads.add(new Thread()
+        {
+          @Override()
+          public void run()
+          {
+            try
+            {
+              startLatch.await();
+              resultRef.set(pool.search("dc=example,dc=com", SearchScope.SUB,
+                   "(objectClass=*)"));
+            }
+            catch (final Exception e)
+            {
+              resultRef.set(e);
+            }
+          }
+        });
+      }
+
+      for (final Thread t : threads)
+      {
+        t.start();
+      }
+
+      startLatch.countDown();
+      for (final Thread t : threads)
+      {
+        t.join();
+      }
+
+      ds.setProcessingDelayMillis(0L);
+
+      // Search results don't override equals, so the list will contain each
+      // distinct result object once.
+      final List<SearchResult> distinctResults = new ArrayList<>(numThreads);
+      for (final AtomicReference<Object> resultRef : results)
+      {
+        final Object o = resultRef.get();
+        assertTrue(o instanceof SearchResult, String.valueOf(o));
+
+        final SearchResult result = (SearchResult) o;
+        assertEquals(result.getResultCode(), ResultCode.SUCCESS);
+        assertEquals(result.getEntryCount(), 3);
+        assertEquals(result.getSearchEntries().size(), 3);
+
+        if (! distinctResults.contains(result))
+        {
+          distinctResults.add(result);
+        }
+      }
+
+      final long numCoalesced =
+           pool.getConnectionPoolStatistics().getNumCoalescedSearches();
+      assertTrue(numCoalesced > 0L);
+      assertEquals((distinctResults.size() + numCoalesced), numThreads);
+    }
+    finally
+    {
+      ds.setProcessingDelayMillis(0L);
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that a failed search is reported to all callers that were waiting
+   * on it, and that the get entry and search for entry methods work as
+   * expected when coalescing is enabled.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testFailuresAndSingleEntrySearches()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    final LDAPConnectionPool pool = ds.getConnectionPool(4);
+
+    try
+    {
+      pool.setCoalesceIdenticalSearches(true);
+      ds.setProcessingDelayMillis(500L);
+
+      final AtomicReference<Object> resultRef = new AtomicReference<>();
+      final Thread t = new Thread()
+      {
+        @Override()
+        public void run()
+        {
+          try
+          {
+            resultRef.set(pool.search("ou=missing,dc=example,dc=com",
+                 SearchScope.BASE, "(objectClass=*)"));
+          }
+          catch (final Exception e)
+          {
+            resultRef.set(e);
+          }
+        }
+      };
+      t.start();
+      Thread.sleep(100L);
+
+      try
+      {
+        pool.search("ou=missing,dc=example,dc=com", SearchScope.BASE,
+             "(objectClass=*)");
+        fail("Expected an exception when searching a missing entry");
+      }
+      catch (final LDAPSearchException lse)
+      {
+        assertEquals(lse.getResultCode(), ResultCode.NO_SUCH_OBJECT);
+      }
+
+      t.join();
+      assertTrue(resultRef.get() instanceof LDAPSearchException);
+      assertEquals(((LDAPSearchException) resultRef.get()).getResultCode(),
+           ResultCode.NO_SUCH_OBJECT);
+      assertEquals(
+           pool.getConnectionPoolStatistics().getNumCoalescedSearches(), 1L);
+
+      ds.setProcessingDelayMillis(0L);
+
+      assertNotNull(pool.getEntry(USER_DN));
+      assertEquals(pool.getEntry(USER_DN, "uid").getAttributes().size(), 1);
+      assertNull(pool.getEntry("ou=missing,dc=example,dc=com"));
+
+      assertNotNull(pool.searchForEntry("dc=example,dc=com", SearchScope.SUB,
+           "(uid=test.user)"));
+      assertNull(pool.searchForEntry("dc=example,dc=com", SearchScope.SUB,
+           "(uid=missing)"));
+
+      try
+      {
+        pool.searchForEntry("dc=example,dc=com", SearchScope.SUB,
+             "(objectClass=*)");
+        fail("Expected an exception when multiple entries match");
+      }
+      catch (final LDAPSearchException lse)
+      {
+        assertEquals(lse.getResultCode(), ResultCode.SIZE_LIMIT_EXCEEDED);
+      }
+
+      pool.setCoalesceIdenticalSearches(false);
+      assertFalse(pool.coalesceIdenticalSearches());
+      assertNotNull(pool.getEntry(USER_DN));
+    }
+    finally
+    {
+      ds.setProcessingDelayMillis(0L);
+      pool.close();
+    }
+  }
+}
@@ -23,13 +23,18 @@ package com.unboundid.ldap.sdk;
 
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Arrays;
 
 import org.testng.annotations.Test;
 
 import com.unboundid.asn1.ASN1Buffer;
 import com.unboundid.asn1.ASN1BufferSequence;
+import com.unboundid.asn1.ASN1BufferSet;
 import com.unboundid.asn1.ASN1StreamReader;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
 import com.unboundid.ldap.protocol.LDAPMessage;
 
 
@@ -918,4 +923,207 @@ public class SearchResultEntryTestCase
 
     LDAPMessage.readLDAPResponseFrom(reader, true);
   }
+
+
+
+  /**
+   * Tests the behavior when reading a search result entry with lazy decoding
+   * enabled, ensuring that the result is equivalent to the same entry read
+   * without lazy decoding.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testReadSearchEntryFromLazyDecoding()
+         throws Exception
+  {
+    ASN1Buffer b = new ASN1Buffer();
+
+    ASN1BufferSequence msgSequence = b.beginSequence();
+    b.addInteger(1);
+
+    ASN1BufferSequence opSequence =
+         b.beginSequence(LDAPMessage.PROTOCOL_OP_TYPE_SEARCH_RESULT_ENTRY);
+    b.addOctetString("dc=example,dc=com");
+
+    ASN1BufferSequence attrListSequence = b.beginSequence();
+    for (final String[] attr : new String[][]
+         {
+           new String[] { "objectClass", "top", "domain" },
+           new String[] { "dc", "example" },
+           new String[] { "description", "foo" },
+           new String[] { "DESCRIPTION", "bar" }
+         })
+    {
+      ASN1BufferSequence attrSequence = b.beginSequence();
+      b.addOctetString(attr[0]);
+      ASN1BufferSet valueSet = b.beginSet();
+      for (int i=1; i < attr.length; i++)
+      {
+        b.addOctetString(attr[i]);
+      }
+      valueSet.end();
+      attrSequence.end();
+    }
+    attrListSequence.end();
+    opSequence.end();
+
+    ASN1BufferSequence controlsSequence =
+         b.beginSequence(LDAPMessage.MESSAGE_TYPE_CONTROLS);
+    new Control("1.2.3.4").writeTo(b);
+    controlsSequence.end();
+    msgSequence.end();
+
+    final byte[] encodedMessage = b.toByteArray();
+
+    SearchResultEntry eagerEntry = (SearchResultEntry)
+         LDAPMessage.readLDAPResponseFrom(new ASN1StreamReader(
+              new ByteArrayInputStream(encodedMessage)), true, null, false);
+    SearchResultEntry lazyEntry = (SearchResultEntry)
+         LDAPMessage.readLDAPResponseFrom(new ASN1StreamReader(
+              new ByteArrayInputStream(encodedMessage)), true, null, true);
+
+    assertEquals(lazyEntry.getMessageID(), 1);
+    assertEquals(lazyEntry.getDN(), "dc=example,dc=com");
+    assertEquals(lazyEntry.getControls().length, 1);
+    assertEquals(lazyEntry.getControls()[0].getOID(), "1.2.3.4");
+
+    assertEquals(lazyEntry.hashCode(), eagerEntry.hashCode());
+    assertEquals(lazyEntry, eagerEntry);
+    assertEquals(eagerEntry, lazyEntry);
+    assertEquals(lazyEntry.toString(), eagerEntry.toString());
+
+    assertEquals(lazyEntry.getAttributes().size(), 3);
+    assertTrue(lazyEntry.hasAttributeValue("description", "foo"));
+    assertTrue(lazyEntry.hasAttributeValue("description", "bar"));
+
+    lazyEntry = (SearchResultEntry)
+         LDAPMessage.readLDAPResponseFrom(new ASN1StreamReader(
+              new ByteArrayInputStream(encodedMessage)), true, null, true);
+    assertEquals(new ReadOnlyEntry(lazyEntry), new ReadOnlyEntry(eagerEntry));
+
+    lazyEntry = (SearchResultEntry)
+         LDAPMessage.readLDAPResponseFrom(new ASN1StreamReader(
+              new ByteArrayInputStream(encodedMessage)), true, null, true);
+    assertEquals(lazyEntry.duplicate(), eagerEntry.duplicate());
+
+    lazyEntry = (SearchResultEntry)
+         LDAPMessage.readLDAPResponseFrom(new ASN1StreamReader(
+              new ByteArrayInputStream(encodedMessage)), true, null, true);
+    final ByteArrayOutputStream byteArrayOutputStream =
+         new ByteArrayOutputStream();
+    final ObjectOutputStream objectOutputStream =
+         new ObjectOutputStream(byteArrayOutputStream);
+    objectOutputStream.writeObject(lazyEntry);
+    objectOutputStream.close();
+
+    final ObjectInputStream objectInputStream = new ObjectInputStream(
+         new ByteArrayInputStream(byteArrayOutputStream.toByteArray()));
+    final SearchResultEntry deserializedEntry =
+         (SearchResultEntry) objectInputStream.readObject();
+    objectInputStream.close();
+    assertEquals(deserializedEntry, eagerEntry);
+  }
+
+
+
+  /**
+   * Tests the behavior when reading a search result entry with a malformed
+   * attribute while lazy decoding is enabled.  The entry should be read
+   * successfully, but an exception should be thrown when its attributes are
+   * accessed.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testReadSearchEntryFromLazyDecodingMalformedAttribute()
+         throws Exception
+  {
+    ASN1Buffer b = new ASN1Buffer();
+
+    ASN1BufferSequence msgSequence = b.beginSequence();
+    b.addInteger(1);
+
+    ASN1BufferSequence opSequence =
+         b.beginSequence(LDAPMessage.PROTOCOL_OP_TYPE_SEARCH_RESULT_ENTRY);
+    b.addOctetString("dc=example,dc=com");
+
+    ASN1BufferSequence attrSequence = b.beginSequence();
+    b.addEnumerated(1);
+    attrSequence.end();
+
+    opSequence.end();
+    msgSequence.end();
+
+    ByteArrayInputStream inputStream =
+         new ByteArrayInputStream(b.toByteArray());
+    ASN1StreamReader reader = new ASN1StreamReader(inputStream);
+
+    final SearchResultEntry e = (SearchResultEntry)
+         LDAPMessage.readLDAPResponseFrom(reader, true, null, true);
+    assertEquals(e.getDN(), "dc=example,dc=com");
+
+    try
+    {
+      e.getAttributes();
+      fail("Expected an exception when accessing malformed attributes");
+    }
+    catch (final LDAPRuntimeException le)
+    {
+      assertEquals(le.getResultCode(), ResultCode.DECODING_ERROR);
+    }
+
+    try
+    {
+      e.hasAttribute("dc");
+      fail("Expected an exception when accessing malformed attributes");
+    }
+    catch (final LDAPRuntimeException le)
+    {
+      assertEquals(le.getResultCode(), ResultCode.DECODING_ERROR);
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when processing a search with lazy decoding enabled on
+   * the connection.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testSearchWithLazyDecoding()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+
+    final LDAPConnection eagerConn = ds.getConnection();
+    final LDAPConnectionOptions options = new LDAPConnectionOptions();
+    options.setUseLazySearchEntryDecoding(true);
+    final LDAPConnection lazyConn = ds.getConnection(options);
+
+    try
+    {
+      final SearchResult eagerResult = eagerConn.search("dc=example,dc=com",
+           SearchScope.SUB, "(objectClass=*)");
+      final SearchResult lazyResult = lazyConn.search("dc=example,dc=com",
+           SearchScope.SUB, "(objectClass=*)");
+
+      assertEquals(lazyResult.getEntryCount(), eagerResult.getEntryCount());
+      assertEquals(lazyResult.getSearchEntries(),
+           eagerResult.getSearchEntries());
+
+      final SearchResultEntry userEntry =
+           lazyConn.getEntry("uid=test.user,ou=People,dc=example,dc=com");
+      assertNotNull(userEntry);
+      assertTrue(userEntry.hasObjectClass("person"));
+      assertEquals(userEntry.getAttributeValue("uid"), "test.user");
+    }
+    finally
+    {
+      eagerConn.close();
+      lazyConn.close();
+    }
+  }
 }
@@ -0,0 +1,792 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.io.File;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.InMemoryListenerConfig;
+import com.unboundid.ldap.listener.interceptor.
+            InMemoryInterceptedSearchRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.sdk.extensions.StartTLSExtendedRequest;
+import com.unboundid.util.ssl.KeyStoreKeyManager;
+import com.unboundid.util.ssl.SSLUtil;
+import com.unboundid.util.ssl.TrustAllTrustManager;
+
+
+
+/**
+ * This class provides a set of test cases for connections that are configured
+ * to read responses using shared reader threads.
+ */
+public final class SharedConnectionReaderTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * The name of an attribute that, if included in the set of requested
+   * attributes for a search, will cause the server to send an intermediate
+   * response before the search result.
+   */
+  private static final String INTERMEDIATE_RESPONSE_MARKER =
+       "sendIntermediateResponse";
+
+
+
+  // The in-memory directory server instance that will be used for testing.
+  private InMemoryDirectoryServer ds = null;
+
+
+
+  /**
+   * Sets up an in-memory directory server instance for testing.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @BeforeClass()
+  public void setUp()
+         throws Exception
+  {
+    final File resourceDir = new File(System.getProperty("unit.resource.dir"));
+    final File serverKeyStore = new File(resourceDir, "server.keystore");
+
+    final SSLUtil serverSSLUtil = new SSLUtil(
+         new KeyStoreKeyManager(serverKeyStore, "password".toCharArray(),
+              "JKS", "server-cert"),
+         new TrustAllTrustManager());
+
+    final InMemoryDirectoryServerConfig cfg =
+         new InMemoryDirectoryServerConfig("dc=example,dc=com");
+    cfg.setListenerConfigs(
+         InMemoryListenerConfig.createLDAPConfig("LDAP", null, 0,
+              serverSSLUtil.createSSLSocketFactory()),
+         InMemoryListenerConfig.createLDAPSConfig("LDAPS", 0,
+              serverSSLUtil.createSSLServerSocketFactory()));
+
+    // Send an intermediate response before processing any search that
+    // requests a marker attribute.
+    cfg.addInMemoryOperationInterceptor(new InMemoryOperationInterceptor()
+    {
+      @Override()
+      public void processSearchRequest(
+                       final InMemoryInterceptedSearchRequest request)
+             throws LDAPException
+      {
+        if (request.getRequest().getAttributeList().contains(
+             INTERMEDIATE_RESPONSE_MARKER))
+        {
+          request.sendIntermediateResponse(
+               new IntermediateResponse("1.2.3.4", null));
+        }
+      }
+    });
+
+    ds = new InMemoryDirectoryServer(cfg);
+    ds.startListening();
+
+    ds.add(
+         "dn: dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: domain",
+         "dc: example");
+    ds.add(
+         "dn: ou=People,dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: organizationalUnit",
+         "ou: People");
+
+    final StringBuilder description = new StringBuilder(500);
+    for (int i=0; i < 500; i++)
+    {
+      description.append('x');
+    }
+
+    for (int i=0; i < 1000; i++)
+    {
+      ds.add(
+           "dn: uid=user." + i + ",ou=People,dc=example,dc=com",
+           "objectClass: top",
+           "objectClass: person",
+           "objectClass: organizationalPerson",
+           "objectClass: inetOrgPerson",
+           "uid: user." + i,
+           "givenName: User",
+           "sn: " + i,
+           "cn: User " + i,
+           "description: " + description);
+    }
+  }
+
+
+
+  /**
+   * Cleans up after testing has completed.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @AfterClass()
+  public void cleanUp()
+         throws Exception
+  {
+    ds.shutDown(true);
+  }
+
+
+
+  /**
+   * Tests the ability to process basic operations over a connection that uses
+   * a shared reader thread.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testBasicOperations()
+         throws Exception
+  {
+    final LDAPConnection conn = createConnection();
+    assertNotNull(getSharedReader(conn));
+    assertNull(conn.getConnectionInternals(true).getConnectionReader().
+         getReaderThread());
+
+    assertNotNull(conn.getRootDSE());
+
+    conn.add(
+         "dn: ou=shared reader basic,dc=example,dc=com",
+         "objectClass: top",
+         "objectClass: organizationalUnit",
+         "ou: shared reader basic");
+
+    assertResultCodeEquals(
+         conn.modify(
+              "dn: ou=shared reader basic,dc=example,dc=com",
+              "changetype: modify",
+              "replace: description",
+              "description: foo"),
+         ResultCode.SUCCESS);
+
+    assertTrue(conn.compare("ou=shared reader basic,dc=example,dc=com",
+         "description", "foo").compareMatched());
+
+    final SearchResult searchResult = conn.search(
+         "ou=People,dc=example,dc=com", SearchScope.SUB, "(objectClass=*)");
+    assertEquals(searchResult.getEntryCount(), 1001);
+
+    assertResultCodeEquals(
+         conn.delete("ou=shared reader basic,dc=example,dc=com"),
+         ResultCode.SUCCESS);
+
+    try
+    {
+      conn.delete("ou=missing,dc=example,dc=com");
+      fail("Expected an exception when deleting a missing entry");
+    }
+    catch (final LDAPException le)
+    {
+      assertEquals(le.getResultCode(), ResultCode.NO_SUCH_OBJECT);
+    }
+
+    assertTrue(conn.isConnected());
+    conn.close();
+    assertFalse(conn.isConnected());
+  }
+
+
+
+  /**
+   * Tests the ability to process many concurrent asynchronous operations
+   * across many connections that use shared reader threads.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testConcurrentAsyncSearches()
+         throws Exception
+  {
+    final List<LDAPConnection> connections = new ArrayList<>(20);
+    try
+    {
+      for (int i=0; i < 20; i++)
+      {
+        connections.add(createConnection());
+      }
+
+      final List<AsyncRequestID> requestIDs = new ArrayList<>(200);
+      final AtomicInteger entriesReturned = new AtomicInteger(0);
+      final AsyncSearchResultListener listener =
+           new AsyncSearchResultListener()
+           {
+             private static final long serialVersionUID = 1L;
+
+             @Override()
+             public void searchEntryReturned(final SearchResultEntry e)
+             {
+               entriesReturned.incrementAndGet();
+             }
+
+             @Override()
+             public void searchReferenceReturned(
+                              final SearchResultReference r)
+             {
+               // No implementation required.
+             }
+
+             @Override()
+             public void searchResultReceived(final AsyncRequestID id,
+                                              final SearchResult r)
+             {
+               // No implementation required.
+             }
+           };
+
+      for (int i=0; i < 10; i++)
+      {
+        for (final LDAPConnection conn : connections)
+        {
+          requestIDs.add(conn.asyncSearch(new SearchRequest(listener,
+               "ou=People,dc=example,dc=com", SearchScope.ONE,
+               "(uid=user." + i + "*)")));
+        }
+      }
+
+      for (final AsyncRequestID id : requestIDs)
+      {
+        final SearchResult result = (SearchResult) id.get();
+        assertResultCodeEquals(result, ResultCode.SUCCESS);
+      }
+
+      // Across uid=user.0* through uid=user.9*, every entry will be matched
+      // exactly once for each connection.
+      assertEquals(entriesReturned.get(), (20 * 1000));
+    }
+    finally
+    {
+      for (final LDAPConnection conn : connections)
+      {
+        conn.close();
+      }
+    }
+  }
+
+
+
+  /**
+   * Tests that a search with a requester that consumes results slowly will
+   * still receive all of the results, and that it does not prevent other
+   * connections from being serviced in the meantime.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testSlowConsumer()
+         throws Exception
+  {
+    final int numThreads = LDAPConnectionOptions.getSharedReaderThreadCount();
+    final List<LDAPConnection> connections = new ArrayList<>(numThreads + 1);
+    try
+    {
+      // Create enough connections to ensure that at least one of the other
+      // connections shares a reader thread with the slow one.
+      final LDAPConnection slowConn = createConnection();
+      for (int i=0; i < numThreads; i++)
+      {
+        connections.add(createConnection());
+      }
+
+      final AtomicInteger slowEntries = new AtomicInteger(0);
+      final SearchResultListener slowListener = new SearchResultListener()
+      {
+        private static final long serialVersionUID = 1L;
+
+        @Override()
+        public void searchEntryReturned(final SearchResultEntry e)
+        {
+          if ((slowEntries.incrementAndGet() % 100) == 0)
+          {
+            try
+            {
+              Thread.sleep(100L);
+            }
+            catch (final InterruptedException ie)
+            {
+              Thread.currentThread().interrupt();
+            }
+          }
+        }
+
+        @Override()
+        public void searchReferenceReturned(final SearchResultReference r)
+        {
+          // No implementation required.
+        }
+      };
+
+      final LDAPConnection slow = slowConn;
+      final SearchRequest slowRequest = new SearchRequest(slowListener,
+           "ou=People,dc=example,dc=com", SearchScope.SUB,
+           "(objectClass=person)");
+      final SearchResult[] slowResult = new SearchResult[1];
+      final Thread slowThread = new Thread()
+      {
+        @Override()
+        public void run()
+        {
+          try
+          {
+            slowResult[0] = slow.search(slowRequest);
+          }
+          catch (final LDAPSearchException lse)
+          {
+            slowResult[0] = lse.getSearchResult();
+          }
+        }
+      };
+      slowThread.start();
+
+      // While the slow search is in progress, the other connections should
+      // continue to be serviced promptly.
+      Thread.sleep(200L);
+      for (final LDAPConnection conn : connections)
+      {
+        final long startTime = System.currentTimeMillis();
+        assertNotNull(conn.getEntry("uid=user.1,ou=People,dc=example,dc=com"));
+        assertTrue((System.currentTimeMillis() - startTime) < 5000L);
+      }
+
+      slowThread.join(60000L);
+      assertFalse(slowThread.isAlive());
+      assertNotNull(slowResult[0]);
+      assertResultCodeEquals(slowResult[0], ResultCode.SUCCESS);
+      assertEquals(slowResult[0].getEntryCount(), 1000);
+      assertEquals(slowEntries.get(), 1000);
+
+      assertTrue(slowConn.isConnected());
+      slowConn.close();
+    }
+    finally
+    {
+      for (final LDAPConnection conn : connections)
+      {
+        conn.close();
+      }
+    }
+  }
+
+
+
+  /**
+   * Tests that async search listeners are not invoked on the shared reader
+   * thread, that a listener that blocks does not prevent other connections
+   * from being serviced, and that reading from its own connection is suspended
+   * once enough callbacks are waiting to be invoked.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testBlockedAsyncListener()
+         throws Exception
+  {
+    final int numThreads = LDAPConnectionOptions.getSharedReaderThreadCount();
+    final List<LDAPConnection> connections = new ArrayList<>(numThreads + 1);
+    try
+    {
+      // Create enough connections to ensure that at least one of the other
+      // connections shares a reader thread with the blocked one.
+      final LDAPConnection blockedConn = createConnection();
+      connections.add(blockedConn);
+      for (int i=0; i < numThreads; i++)
+      {
+        connections.add(createConnection());
+      }
+
+      final CountDownLatch releaseLatch = new CountDownLatch(1);
+      final CountDownLatch resultLatch = new CountDownLatch(1);
+      final AtomicInteger numEntries = new AtomicInteger(0);
+      final AtomicReference<Thread> listenerThread = new AtomicReference<>();
+      final AtomicReference<SearchResult> searchResult =
+           new AtomicReference<>();
+      final AsyncSearchResultListener listener = new AsyncSearchResultListener()
+      {
+        private static final long serialVersionUID = 1L;
+
+        @Override()
+        public void searchEntryReturned(final SearchResultEntry e)
+        {
+          listenerThread.compareAndSet(null, Thread.currentThread());
+          if (numEntries.incrementAndGet() == 1)
+          {
+            try
+            {
+              releaseLatch.await(60L, TimeUnit.SECONDS);
+            }
+            catch (final InterruptedException ie)
+            {
+              Thread.currentThread().interrupt();
+            }
+          }
+        }
+
+        @Override()
+        public void searchReferenceReturned(final SearchResultReference r)
+        {
+          // No implementation required.
+        }
+
+        @Override()
+        public void searchResultReceived(final AsyncRequestID requestID,
+                                         final SearchResult result)
+        {
+          searchResult.set(result);
+          resultLatch.countDown();
+        }
+      };
+
+      blockedConn.asyncSearch(new SearchRequest(listener,
+           "ou=People,dc=example,dc=com", SearchScope.SUB,
+           "(objectClass=person)"));
+
+      // Once the maximum number of callbacks are waiting, reading from the
+      // blocked connection should be suspended.
+      final SharedConnectionCallbackDispatcher dispatcher =
+           getSharedReader(blockedConn).getCallbackDispatcher();
+      final long stopTime = System.currentTimeMillis() + 30000L;
+      while ((dispatcher.getNumQueued() <
+              SharedConnectionCallbackDispatcher.MAX_QUEUED_CALLBACKS) &&
+             (System.currentTimeMillis() < stopTime))
+      {
+        Thread.sleep(10L);
+      }
+
+      assertEquals(dispatcher.getNumQueued(),
+           SharedConnectionCallbackDispatcher.MAX_QUEUED_CALLBACKS);
+      assertEquals(numEntries.get(), 1);
+      assertEquals(resultLatch.getCount(), 1L);
+
+      // While the listener is blocked, the other connections should continue
+      // to be serviced promptly.
+      for (final LDAPConnection conn : connections.subList(1,
+           connections.size()))
+      {
+        final long startTime = System.currentTimeMillis();
+        assertNotNull(conn.getEntry("uid=user.1,ou=People,dc=example,dc=com"));
+        assertTrue((System.currentTimeMillis() - startTime) < 5000L);
+      }
+
+      releaseLatch.countDown();
+      assertTrue(resultLatch.await(60L, TimeUnit.SECONDS));
+      assertResultCodeEquals(searchResult.get(), ResultCode.SUCCESS);
+      assertEquals(searchResult.get().getEntryCount(), 1000);
+      assertEquals(numEntries.get(), 1000);
+
+      assertFalse(listenerThread.get() instanceof SharedConnectionReaderThread);
+      assertNotNull(blockedConn.getRootDSE());
+    }
+    finally
+    {
+      for (final LDAPConnection conn : connections)
+      {
+        conn.close();
+      }
+    }
+  }
+
+
+
+  /**
+   * Tests that an intermediate response listener for a synchronous operation
+   * is not invoked on the shared reader thread, and that it completes before
+   * the operation's result is made available to the requester.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testSynchronousIntermediateResponseOrdering()
+         throws Exception
+  {
+    final LDAPConnection conn = createConnection();
+    try
+    {
+      final AtomicInteger numCompleted = new AtomicInteger(0);
+      final AtomicReference<Thread> listenerThread = new AtomicReference<>();
+      final SearchRequest searchRequest = new SearchRequest(
+           "uid=user.1,ou=People,dc=example,dc=com", SearchScope.BASE,
+           "(objectClass=*)", INTERMEDIATE_RESPONSE_MARKER);
+      searchRequest.setIntermediateResponseListener(
+           new IntermediateResponseListener()
+           {
+             private static final long serialVersionUID = 1L;
+
+             @Override()
+             public void intermediateResponseReturned(
+                              final IntermediateResponse ir)
+             {
+               listenerThread.set(Thread.currentThread());
+               try
+               {
+                 Thread.sleep(500L);
+               }
+               catch (final InterruptedException ie)
+               {
+                 Thread.currentThread().interrupt();
+               }
+               numCompleted.incrementAndGet();
+             }
+           });
+
+      for (int i=1; i <= 3; i++)
+      {
+        final SearchResult searchResult = conn.search(searchRequest);
+        assertResultCodeEquals(searchResult, ResultCode.SUCCESS);
+        assertEquals(searchResult.getEntryCount(), 1);
+        assertEquals(numCompleted.get(), i);
+      }
+
+      assertNotNull(listenerThread.get());
+      assertFalse(listenerThread.get() instanceof SharedConnectionReaderThread);
+
+      // Operations without an intermediate response should not be affected.
+      assertNotNull(conn.getEntry("uid=user.2,ou=People,dc=example,dc=com"));
+    }
+    finally
+    {
+      conn.close();
+    }
+  }
+
+
+
+  /**
+   * Tests that a shared reader thread that repeatedly encounters unexpected
+   * errors closes the connections that it services and continues to service
+   * new connections.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testRepeatedThreadErrors()
+         throws Exception
+  {
+    final LDAPConnection conn = createConnection();
+    final List<SocketChannel> channels = new ArrayList<>(5);
+    try
+    {
+      assertNotNull(conn.getRootDSE());
+      final SharedConnectionReaderThread thread =
+           getSharedReader(conn).getReaderThread();
+
+      // Registering readers whose channels are in blocking mode will cause the
+      // shared reader thread to encounter an unexpected error for each of
+      // them.
+      for (int i=0; i < 5; i++)
+      {
+        final SocketChannel channel = SocketChannel.open();
+        channels.add(channel);
+        thread.register(new SharedConnectionReader(null, new LDAPConnection(),
+             channel.socket()));
+      }
+
+      final long stopTime = System.currentTimeMillis() + 30000L;
+      while (conn.isConnected() && (System.currentTimeMillis() < stopTime))
+      {
+        Thread.sleep(10L);
+      }
+
+      assertFalse(conn.isConnected());
+      assertNotNull(conn.getDisconnectType());
+      assertTrue(thread.isAlive());
+
+      // New connections should still be serviced, including any that are
+      // assigned to the same thread.
+      final int numThreads =
+           LDAPConnectionOptions.getSharedReaderThreadCount();
+      for (int i=0; i < numThreads; i++)
+      {
+        final LDAPConnection newConn = createConnection();
+        try
+        {
+          assertNotNull(newConn.getRootDSE());
+        }
+        finally
+        {
+          newConn.close();
+        }
+      }
+    }
+    finally
+    {
+      conn.close();
+      for (final SocketChannel channel : channels)
+      {
+        channel.close();
+      }
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior of a connection using a shared reader thread when it is
+   * secured with StartTLS.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testStartTLS()
+         throws Exception
+  {
+    final LDAPConnection conn = createConnection();
+    assertNotNull(getSharedReader(conn));
+
+    final SSLUtil sslUtil = new SSLUtil(new TrustAllTrustManager());
+    final ExtendedResult startTLSResult = conn.processExtendedOperation(
+         new StartTLSExtendedRequest(sslUtil.createSSLSocketFactory()));
+    assertResultCodeEquals(startTLSResult, ResultCode.SUCCESS);
+
+    // After StartTLS, the connection should have its own reader thread.
+    assertNull(getSharedReader(conn));
+    assertNotNull(conn.getEntry("dc=example,dc=com"));
+    assertNotNull(conn.getConnectionInternals(true).getConnectionReader().
+         getReaderThread());
+
+    assertEquals(
+         conn.search("ou=People,dc=example,dc=com", SearchScope.ONE,
+              "(objectClass=*)").getEntryCount(),
+         1000);
+
+    conn.close();
+  }
+
+
+
+  /**
+   * Tests that a connection established with an SSL socket factory will use a
+   * dedicated reader thread even if shared reader threads were requested.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testSSLUsesDedicatedThread()
+         throws Exception
+  {
+    final LDAPConnectionOptions options = new LDAPConnectionOptions();
+    options.setUseSharedReaderThreads(true);
+
+    final SSLUtil sslUtil = new SSLUtil(new TrustAllTrustManager());
+    final LDAPConnection conn = new LDAPConnection(
+         sslUtil.createSSLSocketFactory(), options, "localhost",
+         ds.getListenPort("LDAPS"));
+
+    assertNull(getSharedReader(conn));
+    assertNotNull(conn.getEntry("dc=example,dc=com"));
+    assertNotNull(conn.getConnectionInternals(true).getConnectionReader().
+         getReaderThread());
+
+    conn.close();
+  }
+
+
+
+  /**
+   * Tests the behavior when a connection using a shared reader thread is
+   * closed by the server.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testServerClosesConnection()
+         throws Exception
+  {
+    final LDAPConnection conn = createConnection();
+    assertNotNull(conn.getRootDSE());
+
+    ds.closeAllConnections(true);
+
+    final long stopTime = System.currentTimeMillis() + 10000L;
+    while (conn.isConnected() && (System.currentTimeMillis() < stopTime))
+    {
+      Thread.sleep(10L);
+    }
+
+    assertFalse(conn.isConnected());
+    assertNotNull(conn.getDisconnectType());
+
+    conn.close();
+  }
+
+
+
+  /**
+   * Creates a new connection to the test server that is configured to use
+   * shared reader threads.
+   *
+   * @return  The connection that was created.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  private LDAPConnection createConnection()
+          throws Exception
+  {
+    final LDAPConnectionOptions options = new LDAPConnectionOptions();
+    options.setUseSharedReaderThreads(true);
+
+    return new LDAPConnection(options, "localhost", ds.getListenPort("LDAP"));
+  }
+
+
+
+  /**
+   * Retrieves the shared connection reader for the provided connection, if
+   * any.
+   *
+   * @param  conn  The connection for which to retrieve the shared reader.
+   *
+   * @return  The shared connection reader for the provided connection, or
+   *          {@code null} if it does not use one or is not connected.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  private static SharedConnectionReader getSharedReader(
+                                             final LDAPConnection conn)
+          throws Exception
+  {
+    final LDAPConnectionInternals internals =
+         conn.getConnectionInternals(false);
+    if (internals == null)
+    {
+      return null;
+    }
+
+    return internals.getConnectionReader().getSharedReader();
+  }
+}
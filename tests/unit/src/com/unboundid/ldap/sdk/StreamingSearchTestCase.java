@@ -0,0 +1,602 @@
+/*
+ * Copyright 2019 Ping Identity Corporation
+ * All Rights Reserved.
+ */
+/*
+ * Copyright (C) 2019 Ping Identity Corporation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (GPLv2 only)
+ * or the terms of the GNU Lesser General Public License (LGPLv2.1 only)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>.
+ */
+package com.unboundid.ldap.sdk;
+
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+
+
+
+/**
+ * This class provides a set of test cases for searches processed with flow
+ * control using the {@code streamSearch} methods.
+ */
+public final class StreamingSearchTestCase
+       extends LDAPSDKTestCase
+{
+  /**
+   * The number of entries that will be added below the test base entry.
+   */
+  private static final int NUM_ENTRIES = 100;
+
+
+
+  /**
+   * Retrieves a set of connection options to use for the tests, both with and
+   * without shared reader threads.
+   *
+   * @return  A set of connection options to use for the tests.
+   */
+  @DataProvider(name="connectionOptions")
+  public Object[][] getConnectionOptions()
+  {
+    final LDAPConnectionOptions sharedOptions = new LDAPConnectionOptions();
+    sharedOptions.setUseSharedReaderThreads(true);
+
+    return new Object[][]
+    {
+      new Object[] { new LDAPConnectionOptions() },
+      new Object[] { sharedOptions }
+    };
+  }
+
+
+
+  /**
+   * Tests the behavior when the subscriber requests all results up front.
+   *
+   * @param  options  The connection options to use.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(dataProvider="connectionOptions")
+  public void testUnboundedDemand(final LDAPConnectionOptions options)
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDSWithEntries();
+    final LDAPConnection conn = ds.getConnection(options);
+
+    try
+    {
+      final TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+      final AsyncRequestID requestID = conn.streamSearch(
+           new SearchRequest("ou=People,dc=example,dc=com", SearchScope.ONE,
+                "(objectClass=*)"),
+           subscriber);
+
+      final SearchResult result = subscriber.awaitResult();
+      assertEquals(result.getResultCode(), ResultCode.SUCCESS);
+      assertEquals(result.getEntryCount(), NUM_ENTRIES + 1);
+      assertEquals(subscriber.getNumEntries(), NUM_ENTRIES + 1);
+      assertSame(requestID.get(), result);
+      assertEquals(conn.getConnectionStatistics().getNumSearchDoneResponses(),
+           1L);
+    }
+    finally
+    {
+      conn.close();
+    }
+  }
+
+
+
+  /**
+   * Tests to ensure that no more results are delivered than the subscriber
+   * has requested, and that the search resumes when more are requested.
+   *
+   * @param  options  The connection options to use.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(dataProvider="connectionOptions")
+  public void testBoundedDemand(final LDAPConnectionOptions options)
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDSWithEntries();
+    final LDAPConnection conn = ds.getConnection(options);
+
+    try
+    {
+      final TestSubscriber subscriber = new TestSubscriber(5L);
+      conn.streamSearch(
+           new SearchRequest("ou=People,dc=example,dc=com", SearchScope.ONE,
+                "(objectClass=*)"),
+           subscriber);
+
+      subscriber.awaitEntries(5);
+      Thread.sleep(200L);
+      assertEquals(subscriber.getNumEntries(), 5);
+      assertFalse(subscriber.isComplete());
+
+      subscriber.getSubscription().request(10L);
+      subscriber.awaitEntries(15);
+      Thread.sleep(200L);
+      assertEquals(subscriber.getNumEntries(), 15);
+      assertFalse(subscriber.isComplete());
+
+      subscriber.getSubscription().request(NUM_ENTRIES);
+      final SearchResult result = subscriber.awaitResult();
+      assertEquals(result.getResultCode(), ResultCode.SUCCESS);
+      assertEquals(subscriber.getNumEntries(), NUM_ENTRIES + 1);
+
+      // Make sure that the connection is still usable.
+      assertNotNull(conn.getEntry("dc=example,dc=com"));
+    }
+    finally
+    {
+      conn.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when the subscriber cancels the subscription part way
+   * through the search.
+   *
+   * @param  options  The connection options to use.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(dataProvider="connectionOptions")
+  public void testCancel(final LDAPConnectionOptions options)
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDSWithEntries();
+    final LDAPConnection conn = ds.getConnection(options);
+
+    try
+    {
+      final TestSubscriber subscriber = new TestSubscriber(3L);
+      final AsyncRequestID requestID = conn.streamSearch(
+           new SearchRequest("ou=People,dc=example,dc=com", SearchScope.ONE,
+                "(objectClass=*)"),
+           subscriber);
+
+      subscriber.awaitEntries(3);
+      subscriber.getSubscription().cancel();
+      subscriber.getSubscription().request(10L);
+      subscriber.getSubscription().cancel();
+
+      Thread.sleep(200L);
+      assertEquals(subscriber.getNumEntries(), 3);
+      assertFalse(subscriber.isComplete());
+      assertTrue(requestID.isCancelled());
+      assertEquals(conn.getConnectionStatistics().getNumAbandonRequests(), 1L);
+
+      assertNotNull(conn.getEntry("dc=example,dc=com"));
+    }
+    finally
+    {
+      conn.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when the subscriber requests an invalid number of
+   * results.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testInvalidDemand()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDSWithEntries();
+    final LDAPConnection conn = ds.getConnection();
+
+    try
+    {
+      final TestSubscriber subscriber = new TestSubscriber(2L);
+      conn.streamSearch(
+           new SearchRequest("ou=People,dc=example,dc=com", SearchScope.ONE,
+                "(objectClass=*)"),
+           subscriber);
+
+      subscriber.awaitEntries(2);
+      subscriber.getSubscription().request(0L);
+
+      final SearchResult result = subscriber.awaitResult();
+      assertEquals(result.getResultCode(), ResultCode.PARAM_ERROR);
+      assertEquals(result.getEntryCount(), 2);
+      assertEquals(conn.getConnectionStatistics().getNumAbandonRequests(), 1L);
+
+      assertNotNull(conn.getEntry("dc=example,dc=com"));
+    }
+    finally
+    {
+      conn.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when the subscription is cancelled before the request
+   * is sent.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testCancelBeforeSend()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDSWithEntries();
+    final LDAPConnection conn = ds.getConnection();
+
+    try
+    {
+      final TestSubscriber subscriber = new TestSubscriber(-1L);
+      conn.streamSearch(
+           new SearchRequest("dc=example,dc=com", SearchScope.BASE,
+                "(objectClass=*)"),
+           subscriber);
+
+      assertFalse(subscriber.isComplete());
+      assertEquals(conn.getConnectionStatistics().getNumSearchRequests(), 0L);
+      assertEquals(conn.getConnectionStatistics().getNumAbandonRequests(), 0L);
+    }
+    finally
+    {
+      conn.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when a client-side timeout occurs while waiting for the
+   * search to complete.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testTimeout()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDSWithEntries();
+    final LDAPConnection conn = ds.getConnection();
+
+    try
+    {
+      ds.setProcessingDelayMillis(1000L);
+
+      final SearchRequest searchRequest = new SearchRequest(
+           "dc=example,dc=com", SearchScope.BASE, "(objectClass=*)");
+      searchRequest.setResponseTimeoutMillis(50L);
+
+      final TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+      conn.streamSearch(searchRequest, subscriber);
+
+      final SearchResult result = subscriber.awaitResult();
+      assertEquals(result.getResultCode(), ResultCode.TIMEOUT);
+    }
+    finally
+    {
+      ds.setProcessingDelayMillis(0L);
+      conn.close();
+    }
+  }
+
+
+
+  /**
+   * Tests the behavior when the connection is closed while the search is
+   * waiting for the subscriber to request more results.
+   *
+   * @param  options  The connection options to use.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test(dataProvider="connectionOptions")
+  public void testConnectionClosedWhileStalled(
+                   final LDAPConnectionOptions options)
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDSWithEntries();
+    final LDAPConnection conn = ds.getConnection(options);
+
+    final TestSubscriber subscriber = new TestSubscriber(1L);
+    conn.streamSearch(
+         new SearchRequest("ou=People,dc=example,dc=com", SearchScope.ONE,
+              "(objectClass=*)"),
+         subscriber);
+
+    subscriber.awaitEntries(1);
+    Thread.sleep(100L);
+    conn.close();
+
+    final SearchResult result = subscriber.awaitResult();
+    assertFalse(result.getResultCode() == ResultCode.SUCCESS);
+    assertEquals(subscriber.getNumEntries(), 1);
+  }
+
+
+
+  /**
+   * Tests the behavior when processing a search with flow control using a
+   * connection pool.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test()
+  public void testConnectionPool()
+         throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDSWithEntries();
+    final LDAPConnectionPool pool = ds.getConnectionPool(1);
+
+    try
+    {
+      final TestSubscriber subscriber = new TestSubscriber(10L);
+      pool.streamSearch(
+           new SearchRequest("ou=People,dc=example,dc=com", SearchScope.ONE,
+                "(objectClass=*)"),
+           subscriber);
+
+      subscriber.awaitEntries(10);
+      assertEquals(pool.getCurrentAvailableConnections(), 0);
+
+      subscriber.getSubscription().request(Long.MAX_VALUE);
+      final SearchResult result = subscriber.awaitResult();
+      assertEquals(result.getResultCode(), ResultCode.SUCCESS);
+      assertEquals(subscriber.getNumEntries(), NUM_ENTRIES + 1);
+      assertEquals(pool.getCurrentAvailableConnections(), 1);
+
+      final TestSubscriber cancelSubscriber = new TestSubscriber(1L);
+      pool.streamSearch(
+           new SearchRequest("ou=People,dc=example,dc=com", SearchScope.ONE,
+                "(objectClass=*)"),
+           cancelSubscriber);
+      cancelSubscriber.awaitEntries(1);
+      assertEquals(pool.getCurrentAvailableConnections(), 0);
+      cancelSubscriber.getSubscription().cancel();
+      assertEquals(pool.getCurrentAvailableConnections(), 1);
+
+      assertNotNull(pool.getEntry("dc=example,dc=com"));
+    }
+    finally
+    {
+      pool.close();
+    }
+  }
+
+
+
+  /**
+   * Retrieves an in-memory directory server instance with the base entry, the
+   * ou=People entry, and a number of additional entries below ou=People.
+   *
+   * @return  The in-memory directory server instance.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  private static InMemoryDirectoryServer getTestDSWithEntries()
+          throws Exception
+  {
+    final InMemoryDirectoryServer ds = getTestDS(true, true);
+    for (int i=0; i < NUM_ENTRIES; i++)
+    {
+      ds.add(
+           "dn: uid=stream." + i + ",ou=People,dc=example,dc=com",
+           "objectClass: top",
+           "objectClass: person",
+           "objectClass: organizationalPerson",
+           "objectClass: inetOrgPerson",
+           "uid: stream." + i,
+           "givenName: Stream",
+           "sn: " + i,
+           "cn: Stream " + i);
+    }
+
+    return ds;
+  }
+
+
+
+  /**
+   * A search result subscriber that can be used for testing purposes.
+   */
+  private static final class TestSubscriber
+          implements SearchResultSubscriber
+  {
+    // The latch used to wait for the search result.
+    private final CountDownLatch resultLatch;
+
+    // The entries that have been received.
+    private final List<SearchResultEntry> entries;
+
+    // The initial number of results to request, or a negative value if the
+    // subscription should be cancelled immediately.
+    private final long initialDemand;
+
+    // The search result that has been received.
+    private volatile SearchResult result;
+
+    // The subscription for the search.
+    private volatile SearchResultSubscription subscription;
+
+
+
+    /**
+     * Creates a new test subscriber.
+     *
+     * @param  initialDemand  The initial number of results to request, or a
+     *                        negative value if the subscription should be
+     *                        cancelled immediately.
+     */
+    private TestSubscriber(final long initialDemand)
+    {
+      this.initialDemand = initialDemand;
+
+      entries = Collections.synchronizedList(
+           new ArrayList<SearchResultEntry>(NUM_ENTRIES + 1));
+      resultLatch = new CountDownLatch(1);
+      result = null;
+      subscription = null;
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void onSubscribe(final SearchResultSubscription subscription)
+    {
+      assertNotNull(subscription);
+      assertNull(this.subscription);
+      this.subscription = subscription;
+
+      if (initialDemand < 0L)
+      {
+        subscription.cancel();
+      }
+      else
+      {
+        subscription.request(initialDemand);
+      }
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void onEntry(final SearchResultEntry searchEntry)
+    {
+      assertNull(result);
+      entries.add(searchEntry);
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void onReference(final SearchResultReference searchReference)
+    {
+      fail("Unexpected search result reference " + searchReference);
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override()
+    public void onComplete(final SearchResult searchResult)
+    {
+      assertNull(result);
+      result = searchResult;
+      resultLatch.countDown();
+    }
+
+
+
+    /**
+     * Retrieves the subscription for the search.
+     *
+     * @return  The subscription for the search.
+     */
+    private SearchResultSubscription getSubscription()
+    {
+      return subscription;
+    }
+
+
+
+    /**
+     * Retrieves the number of entries that have been received.
+     *
+     * @return  The number of entries that have been received.
+     */
+    private int getNumEntries()
+    {
+      return entries.size();
+    }
+
+
+
+    /**
+     * Indicates whether the search result has been received.
+     *
+     * @return  {@code true} if the search result has been received, or
+     *          {@code false} if not.
+     */
+    private boolean isComplete()
+    {
+      return (result != null);
+    }
+
+
+
+    /**
+     * Waits for at least the specified number of entries to be received.
+     *
+     * @param  numEntries  The number of entries to wait for.
+     *
+     * @throws  Exception  If the entries are not received in a timely manner.
+     */
+    private void awaitEntries(final int numEntries)
+            throws Exception
+    {
+      final long stopTime = System.currentTimeMillis() + 30000L;
+      while (entries.size() < numEntries)
+      {
+        assertTrue(System.currentTimeMillis() < stopTime,
+             "Timed out waiting for " + numEntries + " entries");
+        Thread.sleep(1L);
+      }
+    }
+
+
+
+    /**
+     * Waits for the search result to be received.
+     *
+     * @return  The search result that was received.
+     *
+     * @throws  Exception  If the result is not received in a timely manner.
+     */
+    private SearchResult awaitResult()
+            throws Exception
+    {
+      assertTrue(resultLatch.await(30L, TimeUnit.SECONDS),
+           "Timed out waiting for the search result");
+      return result;
+    }
+  }
+}